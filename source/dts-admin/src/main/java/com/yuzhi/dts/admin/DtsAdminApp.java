@@ -27,7 +27,9 @@ import tech.jhipster.config.JHipsterConstants;
     com.yuzhi.dts.admin.config.PlatformIntegrationProperties.class,
     com.yuzhi.dts.admin.config.InfraSecurityProperties.class,
     com.yuzhi.dts.admin.config.PersonnelSyncProperties.class,
-    com.yuzhi.dts.admin.config.MdmGatewayProperties.class
+    com.yuzhi.dts.admin.config.MdmGatewayProperties.class,
+    com.yuzhi.dts.admin.config.AuditStorageProperties.class,
+    com.yuzhi.dts.admin.config.InfraHeartbeatProperties.class
 })
 public class DtsAdminApp {
 
@@ -0,0 +1,304 @@
+package com.yuzhi.dts.admin.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 审计存储与检索相关配置。
+ */
+@ConfigurationProperties(prefix = "dts.admin.audit")
+public class AuditStorageProperties {
+
+    private final Search search = new Search();
+    private final Retention retention = new Retention();
+    private final Rollup rollup = new Rollup();
+    private final Pipeline pipeline = new Pipeline();
+    private final Backfill backfill = new Backfill();
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Retention getRetention() {
+        return retention;
+    }
+
+    public Rollup getRollup() {
+        return rollup;
+    }
+
+    public Pipeline getPipeline() {
+        return pipeline;
+    }
+
+    public Backfill getBackfill() {
+        return backfill;
+    }
+
+    public static class Search {
+
+        /**
+         * 带筛选条件时精确计数的上限，超出后总数按上限返回并标记为非精确。
+         */
+        private int totalCap = 10_000;
+
+        /**
+         * 导出时每批按游标读取的记录数。
+         */
+        private int exportBatchSize = 500;
+
+        /**
+         * 单次导出的最大记录数。
+         */
+        private int exportMaxRows = 100_000;
+
+        public int getTotalCap() {
+            return totalCap;
+        }
+
+        public void setTotalCap(int totalCap) {
+            this.totalCap = totalCap;
+        }
+
+        public int getExportBatchSize() {
+            return exportBatchSize;
+        }
+
+        public void setExportBatchSize(int exportBatchSize) {
+            this.exportBatchSize = exportBatchSize;
+        }
+
+        public int getExportMaxRows() {
+            return exportMaxRows;
+        }
+
+        public void setExportMaxRows(int exportMaxRows) {
+            this.exportMaxRows = exportMaxRows;
+        }
+    }
+
+    public enum RetentionMode {
+        /** 摘除分区后保留为独立表，便于归档导出后再手工清理。 */
+        DETACH,
+        /** 摘除后直接删除分区表。 */
+        DROP,
+    }
+
+    public static class Retention {
+
+        /**
+         * 是否摘除过期分区；默认关闭，需按合规要求确认保留期后显式开启。未来月份分区的预建不受此开关影响。
+         */
+        private boolean enabled = false;
+
+        /**
+         * 原始审计记录按月保留的月数（不含当月），早于该范围的整月分区会被摘除。
+         */
+        private int retainMonths = 12;
+
+        /**
+         * 提前创建的未来月份分区数量。
+         */
+        private int premakeMonths = 2;
+
+        private RetentionMode mode = RetentionMode.DETACH;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getRetainMonths() {
+            return retainMonths;
+        }
+
+        public void setRetainMonths(int retainMonths) {
+            this.retainMonths = retainMonths;
+        }
+
+        public int getPremakeMonths() {
+            return premakeMonths;
+        }
+
+        public void setPremakeMonths(int premakeMonths) {
+            this.premakeMonths = premakeMonths;
+        }
+
+        public RetentionMode getMode() {
+            return mode;
+        }
+
+        public void setMode(RetentionMode mode) {
+            this.mode = mode;
+        }
+    }
+
+    /**
+     * 分区切换后旧审计表（*_legacy）的后台搬迁。
+     */
+    public static class Backfill {
+
+        private boolean enabled = true;
+
+        /**
+         * 每个事务搬迁的审计记录条数（连同其目标与明细）。
+         */
+        private int batchSize = 2000;
+
+        /**
+         * 单次调度最多执行的批数，剩余部分留给下一次调度。
+         */
+        private int maxBatchesPerRun = 50;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxBatchesPerRun() {
+            return maxBatchesPerRun;
+        }
+
+        public void setMaxBatchesPerRun(int maxBatchesPerRun) {
+            this.maxBatchesPerRun = maxBatchesPerRun;
+        }
+    }
+
+    public static class Rollup {
+
+        private boolean enabled = true;
+
+        /**
+         * 每次刷新时重算的最近天数，用于吸收迟到写入。
+         */
+        private int recomputeDays = 2;
+
+        /**
+         * 日汇总使用的时区，为空时取系统时区。
+         */
+        private String zone;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getRecomputeDays() {
+            return recomputeDays;
+        }
+
+        public void setRecomputeDays(int recomputeDays) {
+            this.recomputeDays = recomputeDays;
+        }
+
+        public String getZone() {
+            return zone;
+        }
+
+        public void setZone(String zone) {
+            this.zone = zone;
+        }
+    }
+
+    public enum OverflowPolicy {
+        /** 缓冲区满或写库失败时追加到本地日志文件，稍后重放入库，不丢记录。 */
+        SPILL,
+        /** 缓冲区满或写库失败时丢弃并计数。 */
+        DROP,
+    }
+
+    public static class Pipeline {
+
+        /**
+         * 是否异步写入审计；关闭时在调用线程内同步落库。
+         */
+        private boolean enabled = true;
+
+        /**
+         * 内存缓冲区容量（条）。
+         */
+        private int capacity = 8192;
+
+        /**
+         * 每批写入的最大条数。
+         */
+        private int batchSize = 200;
+
+        private OverflowPolicy overflow = OverflowPolicy.SPILL;
+
+        /**
+         * 溢出日志目录，须为持久存储（默认配置为 /opt/dts/audit-spill，部署时挂载持久卷）；
+         * overflow=SPILL 而置空（或目录不可用）时不启用异步写入，审计在调用线程内同步落库。
+         */
+        private String spillDirectory;
+
+        /**
+         * 溢出日志重放的最小间隔（毫秒）。
+         */
+        private long replayIntervalMs = 5000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public OverflowPolicy getOverflow() {
+            return overflow;
+        }
+
+        public void setOverflow(OverflowPolicy overflow) {
+            this.overflow = overflow;
+        }
+
+        public String getSpillDirectory() {
+            return spillDirectory;
+        }
+
+        public void setSpillDirectory(String spillDirectory) {
+            this.spillDirectory = spillDirectory;
+        }
+
+        public long getReplayIntervalMs() {
+            return replayIntervalMs;
+        }
+
+        public void setReplayIntervalMs(long replayIntervalMs) {
+            this.replayIntervalMs = replayIntervalMs;
+        }
+    }
+}
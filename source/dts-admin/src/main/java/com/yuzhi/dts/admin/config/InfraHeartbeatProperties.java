@@ -0,0 +1,86 @@
+package com.yuzhi.dts.admin.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 数据源心跳探测配置。
+ */
+@ConfigurationProperties(prefix = "dts.infra.heartbeat")
+public class InfraHeartbeatProperties {
+
+    private boolean enabled = true;
+
+    /** 心跳周期（毫秒），同时作为失败退避的基准间隔。 */
+    private long intervalMs = 60_000L;
+
+    /** 单次 TCP 探测的连接超时（毫秒）。 */
+    private long timeoutMs = 5_000L;
+
+    /** 单个探测的最长等待时间（毫秒，含排队），超时即按失败处理，不再阻塞本轮心跳。 */
+    private long deadlineMs = 8_000L;
+
+    /** 并行探测线程数。 */
+    private int parallelism = 4;
+
+    /** 连续失败数据源的最大退避间隔（毫秒）。 */
+    private long maxBackoffMs = 30 * 60_000L;
+
+    /** 状态未变化时，心跳时间写回数据库的最小间隔（毫秒）；期间只刷新内存缓存。 */
+    private long persistIntervalMs = 10 * 60_000L;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    public void setIntervalMs(long intervalMs) {
+        this.intervalMs = intervalMs;
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public void setTimeoutMs(long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    public long getDeadlineMs() {
+        return deadlineMs;
+    }
+
+    public void setDeadlineMs(long deadlineMs) {
+        this.deadlineMs = deadlineMs;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public long getMaxBackoffMs() {
+        return maxBackoffMs;
+    }
+
+    public void setMaxBackoffMs(long maxBackoffMs) {
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    public long getPersistIntervalMs() {
+        return persistIntervalMs;
+    }
+
+    public void setPersistIntervalMs(long persistIntervalMs) {
+        this.persistIntervalMs = persistIntervalMs;
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.servlet.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.web.server.*;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,6 +13,7 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import tech.jhipster.config.JHipsterProperties;
 
 /**
@@ -40,6 +42,17 @@ public class WebConfigurer implements ServletContextInitializer {
         LOG.info("Web application fully configured");
     }
 
+    /**
+     * 平台端以 If-None-Match 条件请求拉取菜单、目录与数据源配置；内容未变时返回 304，省去响应体传输与解析。
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> platformEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/api/menu", "/api/admin/portal/menus", "/api/platform/directory/*", "/api/platform/infra/*");
+        registration.setName("platformEtagFilter");
+        return registration;
+    }
+
     @Bean
     public CorsFilter corsFilter() {
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -9,8 +9,10 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import java.io.Serializable;
+import java.time.Instant;
 
 @Entity
 @Table(name = "audit_entry_target")
@@ -27,6 +29,12 @@ public class AuditEntryTarget implements Serializable {
     @JsonIgnore
     private AuditEntry entry;
 
+    /**
+     * 冗余父记录的发生时间，作为分区键与 audit_entry 按月对齐。
+     */
+    @Column(name = "entry_occurred_at", nullable = false, updatable = false)
+    private Instant entryOccurredAt;
+
     @Column(name = "position", nullable = false)
     private int position;
 
@@ -48,6 +56,13 @@ public class AuditEntryTarget implements Serializable {
         this.targetLabel = targetLabel;
     }
 
+    @PrePersist
+    public void prePersist() {
+        if (entryOccurredAt == null && entry != null) {
+            entryOccurredAt = entry.getOccurredAt();
+        }
+    }
+
     public Long getId() {
         return id;
     }
@@ -60,6 +75,10 @@ public class AuditEntryTarget implements Serializable {
         this.entry = entry;
     }
 
+    public Instant getEntryOccurredAt() {
+        return entryOccurredAt;
+    }
+
     public int getPosition() {
         return position;
     }
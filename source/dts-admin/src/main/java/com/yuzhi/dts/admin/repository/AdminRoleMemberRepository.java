@@ -4,14 +4,27 @@ import com.yuzhi.dts.admin.domain.AdminRoleMember;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface AdminRoleMemberRepository extends JpaRepository<AdminRoleMember, Long> {
+    interface RoleCount {
+        String getRole();
+        Long getTotal();
+    }
+
     List<AdminRoleMember> findByRoleIgnoreCase(String role);
     Optional<AdminRoleMember> findByRoleIgnoreCaseAndUsernameIgnoreCase(String role, String username);
     List<AdminRoleMember> findByUsernameIgnoreCase(String username);
     long deleteByRoleIgnoreCaseAndUsernameIgnoreCase(String role, String username);
     long countByRoleIgnoreCase(String role);
     long deleteByRoleIgnoreCase(String role);
+
+    /** 按角色（大写）统计去重后的成员数，用户名按去空白、忽略大小写去重，与逐角色加载成员的口径一致。 */
+    @Query(
+        "select upper(m.role) as role, count(distinct lower(trim(m.username))) as total from AdminRoleMember m " +
+        "where m.username is not null and trim(m.username) <> '' group by upper(m.role)"
+    )
+    List<RoleCount> countMembersGroupedByRole();
 }
@@ -1,14 +1,23 @@
 package com.yuzhi.dts.admin.repository;
 
 import com.yuzhi.dts.admin.domain.PortalMenu;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface PortalMenuRepository extends JpaRepository<PortalMenu, Long> {
+    /** 行数与最近修改时间，用于低成本判断表内容是否变化。 */
+    interface ChangeMarker {
+        Long getTotal();
+
+        Instant getLastModified();
+    }
+
     List<PortalMenu> findByDeletedFalseAndParentIsNullOrderBySortOrderAscIdAsc();
 
     List<PortalMenu> findByDeletedTrueOrderBySortOrderAscIdAsc();
@@ -16,6 +25,9 @@ public interface PortalMenuRepository extends JpaRepository<PortalMenu, Long> {
     @EntityGraph(attributePaths = { "visibilities", "parent" })
     List<PortalMenu> findAllByOrderBySortOrderAscIdAsc();
 
+    @Query("select count(m) as total, max(m.lastModifiedDate) as lastModified from PortalMenu m")
+    ChangeMarker findChangeMarker();
+
     List<PortalMenu> findByParentIdOrderBySortOrderAscIdAsc(Long parentId);
 
     Optional<PortalMenu> findFirstByNameIgnoreCase(String name);
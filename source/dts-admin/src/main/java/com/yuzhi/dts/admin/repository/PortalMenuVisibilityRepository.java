@@ -5,15 +5,28 @@ import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface PortalMenuVisibilityRepository extends JpaRepository<PortalMenuVisibility, Long> {
+    interface RoleCodeCount {
+        String getRoleCode();
+        Long getTotal();
+    }
+
     List<PortalMenuVisibility> findByMenuId(Long menuId);
 
     List<PortalMenuVisibility> findByRoleCode(String roleCode);
 
+    /** 按角色编码统计菜单可见性绑定数量。 */
+    @Query("select v.roleCode as roleCode, count(v) as total from PortalMenuVisibility v where v.roleCode is not null group by v.roleCode")
+    List<RoleCodeCount> countGroupedByRoleCode();
+
+    @Query("select count(v) as total, max(v.lastModifiedDate) as lastModified from PortalMenuVisibility v")
+    PortalMenuRepository.ChangeMarker findChangeMarker();
+
     @Modifying
     @Transactional
     void deleteByMenuId(Long menuId);
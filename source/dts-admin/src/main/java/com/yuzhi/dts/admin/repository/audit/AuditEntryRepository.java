@@ -1,6 +1,7 @@
 package com.yuzhi.dts.admin.repository.audit;
 
 import com.yuzhi.dts.admin.domain.audit.AuditEntry;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -18,4 +19,7 @@ public interface AuditEntryRepository extends JpaRepository<AuditEntry, Long>, J
     @EntityGraph(attributePaths = { "targets", "details" })
     @Query("select e from AuditEntry e where e.id = :id")
     Optional<AuditEntry> findDetailedById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = { "targets" })
+    List<AuditEntry> findWithTargetsByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,58 @@
+package com.yuzhi.dts.admin.security.session;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * 通过 Hazelcast Topic 在集群内广播会话失效（注销、挤占、过期、令牌刷新），
+ * 各节点收到后剔除本地缓存的会话。消息内容为 access token 的哈希，与数据库中存储的一致。
+ * Hazelcast 以单机模式运行时广播仅在本节点生效，其他节点依赖缓存的定期复核。
+ */
+@Component
+public class AdminSessionEventBroadcaster {
+
+    static final String TOPIC = "dts-admin-session-invalidations";
+
+    private static final Logger log = LoggerFactory.getLogger(AdminSessionEventBroadcaster.class);
+
+    private final ITopic<String> topic;
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    public AdminSessionEventBroadcaster(HazelcastInstance hazelcastInstance) {
+        this.topic = hazelcastInstance.getTopic(TOPIC);
+        this.topic.addMessageListener(message -> dispatch(message.getMessageObject()));
+    }
+
+    public void publish(String accessTokenHash) {
+        if (accessTokenHash == null) {
+            return;
+        }
+        try {
+            topic.publish(accessTokenHash);
+        } catch (RuntimeException ex) {
+            // 广播失败不影响本节点的失效处理，其他节点会在复核周期内从数据库感知
+            log.warn("Failed to broadcast admin session invalidation: {}", ex.getMessage());
+            dispatch(accessTokenHash);
+        }
+    }
+
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    private void dispatch(String accessTokenHash) {
+        for (Consumer<String> listener : listeners) {
+            try {
+                listener.accept(accessTokenHash);
+            } catch (RuntimeException ex) {
+                log.debug("Session invalidation listener failed: {}", ex.getMessage());
+            }
+        }
+    }
+}
@@ -5,18 +5,31 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 
+/**
+ * 管理端会话登记。已校验的会话缓存在内存中（以 access token 哈希为键），
+ * 请求校验只更新内存中的活跃时间，由定时任务合并回写数据库；
+ * 撤销类操作（注销、挤占、过期、刷新令牌）立即剔除本地缓存，并在事务提交后向集群广播。
+ * 缓存条目按复核周期回源数据库，兜底未收到广播的情况。
+ */
 @Component
 @Transactional
 public class AdminSessionRegistry {
@@ -32,15 +45,26 @@ public class AdminSessionRegistry {
     private static final Logger log = LoggerFactory.getLogger(AdminSessionRegistry.class);
 
     private final AdminSessionRepository repository;
+    private final AdminSessionEventBroadcaster broadcaster;
     private final Duration sessionTtl;
+    private final long revalidateIntervalNanos;
+    private final int maxCachedSessions;
+    private final ConcurrentMap<String, CachedSession> sessions = new ConcurrentHashMap<>();
 
     public AdminSessionRegistry(
         @Value("${dts.admin.session.timeout-minutes:10}") long timeoutMinutes,
-        AdminSessionRepository repository
+        @Value("${dts.admin.session.cache.revalidate-interval:PT30S}") Duration revalidateInterval,
+        @Value("${dts.admin.session.cache.max-entries:10000}") int maxCachedSessions,
+        AdminSessionRepository repository,
+        AdminSessionEventBroadcaster broadcaster
     ) {
         long minutes = timeoutMinutes <= 0 ? 10 : timeoutMinutes;
         this.sessionTtl = Duration.ofMinutes(minutes);
+        this.revalidateIntervalNanos = revalidateInterval == null || revalidateInterval.isNegative() ? 0L : revalidateInterval.toNanos();
+        this.maxCachedSessions = Math.max(0, maxCachedSessions);
         this.repository = repository;
+        this.broadcaster = broadcaster;
+        broadcaster.subscribe(this::evictLocal);
     }
 
     public record SessionRegistration(AdminSessionEntity session, boolean takeover, int terminatedSessions) {}
@@ -127,6 +151,7 @@ public class AdminSessionRegistry {
         if (!StringUtils.hasText(nextAccessHash)) {
             throw new IllegalArgumentException("access token 缺失");
         }
+        evictEverywhere(entity.getAccessTokenHash());
         entity.setAccessTokenHash(nextAccessHash);
         if (StringUtils.hasText(nextRefreshToken)) {
             entity.setRefreshTokenHash(hash(nextRefreshToken));
@@ -144,12 +169,22 @@ public class AdminSessionRegistry {
             return ValidationResult.EXPIRED;
         }
         Instant now = Instant.now();
+        CachedSession cached = sessions.get(accessHash);
+        if (cached != null && !cached.revalidationDue(revalidateIntervalNanos) && cached.tryTouch(sessionState, normalize(username), now, this)) {
+            return ValidationResult.ACTIVE;
+        }
+        // 缓存未命中、到期复核或内存校验不通过：回源数据库，由数据库记录给出权威结论
         Optional<AdminSessionEntity> optional = repository.findByAccessTokenHash(accessHash);
         AdminSessionEntity entity = optional.orElse(null);
         if (entity == null) {
+            evictLocal(accessHash);
             return ValidationResult.EXPIRED;
         }
+        if (cached != null) {
+            cached.mergeActivityInto(entity);
+        }
         if (entity.getRevokedAt() != null) {
+            evictLocal(accessHash);
             return mapReason(entity.getRevokedReason());
         }
         if (isExpired(entity, now)) {
@@ -171,6 +206,7 @@ public class AdminSessionRegistry {
         entity.setLastSeenAt(now);
         entity.setExpiresAt(resolveExpiry(now, null));
         repository.save(entity);
+        cache(accessHash, entity, now);
         return ValidationResult.ACTIVE;
     }
 
@@ -190,14 +226,102 @@ public class AdminSessionRegistry {
         repository.findByAccessTokenHash(accessHash).ifPresent(entity -> revoke(entity, reason, null, Instant.now()));
     }
 
+    @Transactional(readOnly = true)
     public Optional<String> resolveUsernameFromAccessToken(String accessToken) {
         String accessHash = hash(accessToken);
         if (!StringUtils.hasText(accessHash)) {
             return Optional.empty();
         }
+        CachedSession cached = sessions.get(accessHash);
+        if (cached != null && !cached.revalidationDue(revalidateIntervalNanos)) {
+            return Optional.ofNullable(cached.username);
+        }
         return repository.findByAccessTokenHash(accessHash).map(AdminSessionEntity::getUsername);
     }
 
+    /**
+     * 将缓存中合并的活跃时间回写数据库，同时清理已过期的缓存条目。
+     * 每个会话在一个周期内至多写一次，与请求量无关。
+     */
+    @Scheduled(
+        initialDelayString = "${dts.admin.session.cache.flush-interval-ms:15000}",
+        fixedDelayString = "${dts.admin.session.cache.flush-interval-ms:15000}"
+    )
+    public void flushActivity() {
+        Instant now = Instant.now();
+        List<CachedSession> flushed = new ArrayList<>();
+        try {
+            for (CachedSession session : sessions.values()) {
+                if (session.isExpired(now)) {
+                    // 过期会话不再延长；数据库中的过期时间不晚于内存，下一次校验会回源并记录过期
+                    sessions.remove(session.accessHash, session);
+                    continue;
+                }
+                if (!session.dirty.compareAndSet(true, false)) {
+                    continue;
+                }
+                flushed.add(session);
+                Instant lastSeenAt;
+                Instant expiresAt;
+                synchronized (session) {
+                    lastSeenAt = session.lastSeenAt;
+                    expiresAt = session.expiresAt;
+                }
+                repository.touchActivity(session.id, lastSeenAt, expiresAt);
+            }
+        } catch (RuntimeException ex) {
+            flushed.forEach(session -> session.dirty.set(true));
+            throw ex;
+        }
+        if (!flushed.isEmpty()) {
+            log.debug("Flushed activity for {} cached admin sessions", flushed.size());
+        }
+    }
+
+    int cachedSessionCount() {
+        return sessions.size();
+    }
+
+    private void cache(String accessHash, AdminSessionEntity entity, Instant now) {
+        if (sessions.size() >= maxCachedSessions && !sessions.containsKey(accessHash)) {
+            sessions.values().removeIf(session -> session.isExpired(now) && !session.dirty.get());
+            if (sessions.size() >= maxCachedSessions) {
+                return;
+            }
+        }
+        sessions.put(accessHash, new CachedSession(accessHash, entity));
+    }
+
+    private void evictLocal(String accessHash) {
+        if (accessHash != null) {
+            sessions.remove(accessHash);
+        }
+    }
+
+    /**
+     * 立即剔除本地缓存；处于事务中时在事务结束后再次剔除并广播，
+     * 避免其他请求在提交前从旧数据重新缓存该会话。
+     */
+    private void evictEverywhere(String accessHash) {
+        if (accessHash == null) {
+            return;
+        }
+        evictLocal(accessHash);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        evictLocal(accessHash);
+                        broadcaster.publish(accessHash);
+                    }
+                }
+            );
+        } else {
+            broadcaster.publish(accessHash);
+        }
+    }
+
     private void revoke(AdminSessionEntity entity, AdminSessionCloseReason reason, UUID takeoverSessionId, Instant when) {
         if (entity.getRevokedAt() != null) {
             return;
@@ -208,6 +332,7 @@ public class AdminSessionRegistry {
             entity.setRevokedBySessionId(takeoverSessionId);
         }
         repository.save(entity);
+        evictEverywhere(entity.getAccessTokenHash());
     }
 
     private boolean isExpired(AdminSessionEntity entity, Instant now) {
@@ -266,4 +391,75 @@ public class AdminSessionRegistry {
             case MANUAL -> ValidationResult.CONCURRENT;
         };
     }
+
+    /**
+     * 缓存的会话：标识字段不可变，活跃时间在内存中推进并标记待回写。
+     */
+    private static final class CachedSession {
+
+        private final String accessHash;
+        private final UUID id;
+        private final String username;
+        private final String normalizedUsername;
+        private final String sessionState;
+        private final long verifiedAtNanos = System.nanoTime();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private volatile Instant lastSeenAt;
+        private volatile Instant expiresAt;
+
+        CachedSession(String accessHash, AdminSessionEntity entity) {
+            this.accessHash = accessHash;
+            this.id = entity.getId();
+            this.username = entity.getUsername();
+            this.normalizedUsername = entity.getNormalizedUsername();
+            this.sessionState = entity.getSessionState();
+            this.lastSeenAt = entity.getLastSeenAt();
+            this.expiresAt = entity.getExpiresAt();
+        }
+
+        boolean revalidationDue(long intervalNanos) {
+            return System.nanoTime() - verifiedAtNanos >= intervalNanos;
+        }
+
+        boolean isExpired(Instant now) {
+            Instant current = expiresAt;
+            return current != null && current.isBefore(now);
+        }
+
+        /**
+         * 与数据库路径相同的校验；通过时推进活跃时间并返回 true，
+         * 不通过时返回 false 交由数据库路径处理（撤销、记录原因）。
+         */
+        boolean tryTouch(String candidateState, String candidateUsername, Instant now, AdminSessionRegistry registry) {
+            if (isExpired(now)) {
+                return false;
+            }
+            String state = registry.clean(candidateState);
+            if (sessionState != null && state != null && !sessionState.equals(state)) {
+                return false;
+            }
+            if (candidateUsername != null && !candidateUsername.equals(normalizedUsername)) {
+                return false;
+            }
+            synchronized (this) {
+                if (lastSeenAt == null || lastSeenAt.isBefore(now)) {
+                    lastSeenAt = now;
+                    expiresAt = registry.resolveExpiry(now, null);
+                }
+            }
+            dirty.set(true);
+            return true;
+        }
+
+        /** 把尚未回写的活跃时间合并到数据库实体上，避免复核时误判过期。 */
+        synchronized void mergeActivityInto(AdminSessionEntity entity) {
+            if (!id.equals(entity.getId()) || entity.getRevokedAt() != null || lastSeenAt == null) {
+                return;
+            }
+            if (entity.getLastSeenAt() == null || entity.getLastSeenAt().isBefore(lastSeenAt)) {
+                entity.setLastSeenAt(lastSeenAt);
+                entity.setExpiresAt(expiresAt);
+            }
+        }
+    }
 }
@@ -1,11 +1,13 @@
 package com.yuzhi.dts.admin.security.session;
 
 import jakarta.persistence.LockModeType;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -15,6 +17,16 @@ public interface AdminSessionRepository extends JpaRepository<AdminSessionEntity
 
     Optional<AdminSessionEntity> findByRefreshTokenHash(String refreshTokenHash);
 
+    /**
+     * 回写缓存中合并的会话活跃时间；仅推进未撤销且活跃时间更早的记录，避免多节点乱序回写覆盖更新的值。
+     */
+    @Modifying
+    @Query(
+        "update AdminSessionEntity s set s.lastSeenAt = :lastSeenAt, s.expiresAt = :expiresAt " +
+        "where s.id = :id and s.revokedAt is null and s.lastSeenAt < :lastSeenAt"
+    )
+    int touchActivity(@Param("id") UUID id, @Param("lastSeenAt") Instant lastSeenAt, @Param("expiresAt") Instant expiresAt);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select s from AdminSessionEntity s where s.normalizedUsername = :username and s.revokedAt is null")
     List<AdminSessionEntity> findActiveSessionsForUpdate(@Param("username") String normalizedUsername);
@@ -9,6 +9,7 @@ import com.yuzhi.dts.admin.repository.PortalMenuVisibilityRepository;
 import com.yuzhi.dts.admin.security.AuthoritiesConstants;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
@@ -20,15 +21,20 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
@@ -64,6 +70,8 @@ public class PortalMenuService {
         Map.entry("foundation.dataStorage", "/pages/foundation/DataStoragePage"),
         Map.entry("foundation.taskScheduling", "/pages/foundation/TaskSchedulingPage")
     );
+    // 按受众缓存的过滤结果上限；角色/权限来自请求参数，需防止任意组合撑爆缓存
+    private static final int MAX_AUDIENCE_TREES = 256;
 
     private final PortalMenuRepository menuRepo;
     private final PortalMenuVisibilityRepository visibilityRepo;
@@ -73,11 +81,18 @@ public class PortalMenuService {
     private volatile MenuSeed cachedSeed;
     private final Map<String, String> titleKeyCache = new ConcurrentHashMap<>();
 
+    /** 菜单数据的代际号；任何菜单或可见性变更都会递增，快照只在代际未变时发布。 */
+    private final AtomicLong generation = new AtomicLong(1);
+    private final AtomicReference<MenuCache> menuCache = new AtomicReference<>();
+    private final Object menuLoadLock = new Object();
+    private final long revalidateIntervalNanos;
+
     public PortalMenuService(
         PortalMenuRepository menuRepo,
         PortalMenuVisibilityRepository visibilityRepo,
         ObjectMapper objectMapper,
-        PlatformTransactionManager transactionManager
+        PlatformTransactionManager transactionManager,
+        @Value("${dts.admin.portal-menu.revalidate-interval:PT30S}") Duration revalidateInterval
     ) {
         this.menuRepo = menuRepo;
         this.visibilityRepo = visibilityRepo;
@@ -85,52 +100,177 @@ public class PortalMenuService {
         this.menuMutationTx = new TransactionTemplate(Objects.requireNonNull(transactionManager, "transactionManager"));
         this.menuMutationTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
         this.menuMutationTx.setReadOnly(false);
+        this.revalidateIntervalNanos = revalidateInterval == null || revalidateInterval.isNegative() ? 0 : revalidateInterval.toNanos();
+    }
+
+    /**
+     * 当前菜单快照。快照失效（本节点变更）或周期校验发现表内容变化（其他节点变更）时，
+     * 用一次查询重新加载整棵菜单树。
+     */
+    @Transactional(readOnly = true)
+    public PortalMenuSnapshot snapshot() {
+        return currentCache().snapshot;
     }
 
     @Transactional(readOnly = true)
     public List<PortalMenu> findTree() {
-        ensureSeedMenus();
-        return runSafely(
-            () -> {
-                List<PortalMenu> roots = menuRepo.findByDeletedFalseAndParentIsNullOrderBySortOrderAscIdAsc();
-                roots.forEach(this::touch);
-                return roots
-                    .stream()
-                    .filter(menu -> !isDisabledMenu(menu))
-                    .collect(Collectors.toCollection(ArrayList::new));
-            },
-            java.util.Collections.<PortalMenu>emptyList(),
-            "menu tree"
-        );
+        return snapshot().roots();
     }
 
+    /**
+     * 按受众过滤后的菜单树。相同受众签名（角色 + 权限 + 数据密级）在同一快照版本内复用结果；
+     * 返回的节点为共享只读副本。
+     */
     @Transactional(readOnly = true)
     public List<PortalMenu> findTreeForAudience(Set<String> roleCodes, Set<String> permissionCodes, String maxDataLevel) {
-        ensureSeedMenus();
-        List<PortalMenu> roots = findTree();
-        return roots
+        MenuCache cache = currentCache();
+        AudienceKey key = AudienceKey.of(roleCodes, permissionCodes, maxDataLevel);
+        List<PortalMenu> cached = cache.audienceTrees.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        List<PortalMenu> filtered = cache.snapshot
+            .roots()
             .stream()
-            .map(menu -> filterMenu(menu, roleCodes, permissionCodes, maxDataLevel))
+            .map(menu -> filterMenu(menu, key.roleCodes(), key.permissionCodes(), key.maxDataLevel()))
             .filter(Objects::nonNull)
             .toList();
+        if (cache.audienceTrees.size() < MAX_AUDIENCE_TREES) {
+            List<PortalMenu> raced = cache.audienceTrees.putIfAbsent(key, filtered);
+            return raced != null ? raced : filtered;
+        }
+        return filtered;
     }
 
     @Transactional(readOnly = true)
     public List<PortalMenu> findDeletedMenus() {
+        return snapshot().deletedMenus();
+    }
+
+    /**
+     * 使菜单快照及所有按受众缓存的结果失效。在事务内调用时，事务结束后会再次失效，
+     * 避免期间有读请求基于未提交前的数据重建快照。
+     */
+    public void invalidateMenus() {
+        bumpGeneration();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        bumpGeneration();
+                    }
+                }
+            );
+        }
+    }
+
+    /** 保存菜单实体并使菜单缓存失效；菜单的新增、修改、删除标记都应经由此方法。 */
+    public PortalMenu saveMenu(PortalMenu menu) {
+        PortalMenu saved = menuRepo.save(menu);
+        invalidateMenus();
+        return saved;
+    }
+
+    /** 删除某角色的全部菜单可见性绑定。 */
+    public void removeRoleVisibilities(String roleCode) {
+        visibilityRepo.deleteByRoleCode(roleCode);
+        invalidateMenus();
+    }
+
+    private void bumpGeneration() {
+        generation.incrementAndGet();
+        menuCache.set(null);
+        titleKeyCache.clear();
+    }
+
+    private MenuCache currentCache() {
+        MenuCache current = menuCache.get();
+        if (current != null && !current.revalidationDue(revalidateIntervalNanos)) {
+            return current;
+        }
+        // 同一时刻只允许一个线程校验或重建，其余线程等待后直接复用其结果
+        synchronized (menuLoadLock) {
+            current = menuCache.get();
+            if (current != null) {
+                if (!current.revalidationDue(revalidateIntervalNanos)) {
+                    return current;
+                }
+                if (Objects.equals(current.snapshot.changeMarker(), readChangeMarker())) {
+                    current.markValidated();
+                    return current;
+                }
+                log.debug("Portal menu tables changed outside this node; rebuilding snapshot v{}", current.snapshot.version());
+                bumpGeneration();
+            }
+            // 种子校验可能写库（并触发失效），须在读取代际号之前完成
+            ensureSeedMenus();
+            long version = generation.get();
+            String marker = readChangeMarker();
+            List<PortalMenu> loaded = runSafely(
+                menuRepo::findAllByOrderBySortOrderAscIdAsc,
+                java.util.Collections.<PortalMenu>emptyList(),
+                "menu snapshot"
+            );
+            MenuCache rebuilt = new MenuCache(PortalMenuSnapshot.build(version, marker, loaded, this::isDisabledMenu));
+            // 先发布再复核代际号：若加载期间发生失效则撤回，本次调用仍使用该结果
+            menuCache.set(rebuilt);
+            if (generation.get() != version) {
+                menuCache.compareAndSet(rebuilt, null);
+            }
+            return rebuilt;
+        }
+    }
+
+    private String readChangeMarker() {
         return runSafely(
             () -> {
-                List<PortalMenu> deleted = menuRepo.findByDeletedTrueOrderBySortOrderAscIdAsc();
-                deleted.forEach(this::touch);
-                return deleted
-                    .stream()
-                    .filter(menu -> !isDisabledMenu(menu))
-                    .collect(Collectors.toCollection(ArrayList::new));
+                PortalMenuRepository.ChangeMarker menus = menuRepo.findChangeMarker();
+                PortalMenuRepository.ChangeMarker visibilities = visibilityRepo.findChangeMarker();
+                return describeMarker(menus) + "|" + describeMarker(visibilities);
             },
-            java.util.Collections.<PortalMenu>emptyList(),
-            "deleted menu list"
+            null,
+            "menu change marker"
         );
     }
 
+    private static String describeMarker(PortalMenuRepository.ChangeMarker marker) {
+        if (marker == null) {
+            return "-";
+        }
+        return marker.getTotal() + "@" + marker.getLastModified();
+    }
+
+    private static final class MenuCache {
+
+        private final PortalMenuSnapshot snapshot;
+        private final Map<AudienceKey, List<PortalMenu>> audienceTrees = new ConcurrentHashMap<>();
+        private volatile long validatedAt = System.nanoTime();
+
+        private MenuCache(PortalMenuSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        private boolean revalidationDue(long intervalNanos) {
+            return intervalNanos > 0 && System.nanoTime() - validatedAt >= intervalNanos;
+        }
+
+        private void markValidated() {
+            validatedAt = System.nanoTime();
+        }
+    }
+
+    /** 受众签名：角色、权限集合与顺序无关，空集合与 null 等价，数据密级按大写比较。 */
+    record AudienceKey(Set<String> roleCodes, Set<String> permissionCodes, String maxDataLevel) {
+        static AudienceKey of(Set<String> roleCodes, Set<String> permissionCodes, String maxDataLevel) {
+            return new AudienceKey(
+                roleCodes == null ? Set.of() : roleCodes.stream().filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet()),
+                permissionCodes == null ? Set.of() : permissionCodes.stream().filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet()),
+                StringUtils.hasText(maxDataLevel) ? maxDataLevel.trim().toUpperCase(Locale.ROOT) : null
+            );
+        }
+    }
+
     @Transactional(readOnly = true)
     public Optional<String> resolveTitleByKey(String titleKey) {
         if (!StringUtils.hasText(titleKey)) {
@@ -182,19 +322,7 @@ public class PortalMenuService {
 
     @Transactional(readOnly = true)
     public List<PortalMenu> findAllMenusOrdered() {
-        ensureSeedMenus();
-        return runSafely(
-            () -> {
-                List<PortalMenu> all = menuRepo.findAllByOrderBySortOrderAscIdAsc();
-                all.forEach(this::touch);
-                return all
-                    .stream()
-                    .filter(menu -> !isDisabledMenu(menu))
-                    .collect(Collectors.toCollection(ArrayList::new));
-            },
-            java.util.Collections.<PortalMenu>emptyList(),
-            "full menu list"
-        );
+        return snapshot().allMenus();
     }
 
     private <T> T runSafely(java.util.concurrent.Callable<? extends T> action, T fallback, String label) {
@@ -214,15 +342,6 @@ public class PortalMenuService {
         return fallback;
     }
 
-    private void touch(PortalMenu menu) {
-        if (menu.getVisibilities() != null) {
-            menu.getVisibilities().size();
-        }
-        if (menu.getChildren() != null) {
-            menu.getChildren().forEach(this::touch);
-        }
-    }
-
     private PortalMenu filterMenu(PortalMenu menu, Set<String> roleCodes, Set<String> permissionCodes, String maxDataLevel) {
         if (isDisabledMenu(menu)) {
             return null;
@@ -240,14 +359,10 @@ public class PortalMenuService {
         }
 
         PortalMenu clone = cloneMenu(menu);
-        if (!filteredChildren.isEmpty()) {
-            for (PortalMenu child : filteredChildren) {
-                child.setParent(clone);
-            }
-            clone.setChildren(filteredChildren);
-        } else {
-            clone.setChildren(new ArrayList<>());
+        for (PortalMenu child : filteredChildren) {
+            child.setParent(clone);
         }
+        clone.setChildren(List.copyOf(filteredChildren));
         return clone;
     }
 
@@ -433,6 +548,7 @@ public class PortalMenuService {
             managed.addVisibility(visibility);
         }
         menuRepo.flush();
+        invalidateMenus();
     }
 
     public void resetMenusToSeed() {
@@ -456,6 +572,7 @@ public class PortalMenuService {
     }
 
     private void performMenuReset(MenuSeed seed) {
+        invalidateMenus();
         visibilityRepo.deleteAllInBatch();
         menuRepo.deleteAllInBatch();
 
@@ -1029,6 +1146,7 @@ public class PortalMenuService {
             menu.addVisibility(visibility);
             visibilityRepo.save(visibility);
         }
+        invalidateMenus();
     }
 
     private void removeVisibility(PortalMenuVisibility visibility) {
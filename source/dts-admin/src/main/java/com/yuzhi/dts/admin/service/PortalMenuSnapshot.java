@@ -0,0 +1,142 @@
+package com.yuzhi.dts.admin.service;
+
+import com.yuzhi.dts.admin.domain.PortalMenu;
+import com.yuzhi.dts.admin.domain.PortalMenuVisibility;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * 门户菜单的不可变快照：由一次查询加载的全部菜单构建，节点均为脱离持久化上下文的副本，
+ * 子节点列表不可修改。快照在多个请求间共享，调用方只能读取，不得修改节点。
+ */
+public final class PortalMenuSnapshot {
+
+    private static final PortalMenuSnapshot EMPTY = new PortalMenuSnapshot(0L, null, List.of(), List.of(), List.of());
+
+    private final long version;
+    private final String changeMarker;
+    private final List<PortalMenu> roots;
+    private final List<PortalMenu> allMenus;
+    private final List<PortalMenu> deletedMenus;
+
+    private PortalMenuSnapshot(
+        long version,
+        String changeMarker,
+        List<PortalMenu> roots,
+        List<PortalMenu> allMenus,
+        List<PortalMenu> deletedMenus
+    ) {
+        this.version = version;
+        this.changeMarker = changeMarker;
+        this.roots = roots;
+        this.allMenus = allMenus;
+        this.deletedMenus = deletedMenus;
+    }
+
+    static PortalMenuSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param loaded 按 sortOrder、id 升序排列的全部菜单（含已删除），可见性规则须已加载
+     * @param disabled 被整体停用的菜单（如停用分区），不出现在任何列表中
+     */
+    static PortalMenuSnapshot build(long version, String changeMarker, List<PortalMenu> loaded, Predicate<PortalMenu> disabled) {
+        Map<Long, PortalMenu> copies = new LinkedHashMap<>();
+        Map<Long, List<PortalMenu>> children = new LinkedHashMap<>();
+        List<PortalMenu> unidentified = new ArrayList<>();
+        for (PortalMenu source : loaded) {
+            PortalMenu copy = detach(source);
+            if (source.getId() != null) {
+                copies.put(source.getId(), copy);
+            } else {
+                unidentified.add(copy);
+            }
+        }
+        for (PortalMenu source : loaded) {
+            if (source.getId() == null || source.getParent() == null) {
+                continue;
+            }
+            PortalMenu copy = copies.get(source.getId());
+            PortalMenu parent = copies.get(source.getParent().getId());
+            copy.setParent(parent);
+            // 与实体上 @Where(deleted = false) 的 children 语义一致：仅挂接未删除的子菜单
+            if (parent != null && !source.isDeleted()) {
+                children.computeIfAbsent(parent.getId(), key -> new ArrayList<>()).add(copy);
+            }
+        }
+
+        List<PortalMenu> roots = new ArrayList<>();
+        List<PortalMenu> all = new ArrayList<>();
+        List<PortalMenu> deleted = new ArrayList<>();
+        for (PortalMenu copy : copies.values()) {
+            copy.setChildren(List.copyOf(children.getOrDefault(copy.getId(), List.of())));
+            if (disabled.test(copy)) {
+                continue;
+            }
+            all.add(copy);
+            if (copy.isDeleted()) {
+                deleted.add(copy);
+            } else if (copy.getParent() == null) {
+                roots.add(copy);
+            }
+        }
+        for (PortalMenu copy : unidentified) {
+            copy.setChildren(List.of());
+        }
+        return new PortalMenuSnapshot(version, changeMarker, List.copyOf(roots), List.copyOf(all), List.copyOf(deleted));
+    }
+
+    private static PortalMenu detach(PortalMenu source) {
+        PortalMenu copy = new PortalMenu();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setPath(source.getPath());
+        copy.setComponent(source.getComponent());
+        copy.setIcon(source.getIcon());
+        copy.setSortOrder(source.getSortOrder());
+        copy.setMetadata(source.getMetadata());
+        copy.setSecurityLevel(source.getSecurityLevel());
+        copy.setDeleted(source.isDeleted());
+        if (source.getVisibilities() != null) {
+            List<PortalMenuVisibility> visibilities = new ArrayList<>(source.getVisibilities().size());
+            for (PortalMenuVisibility visibility : source.getVisibilities()) {
+                PortalMenuVisibility copyVis = new PortalMenuVisibility();
+                copyVis.setId(visibility.getId());
+                copyVis.setRoleCode(visibility.getRoleCode());
+                copyVis.setPermissionCode(visibility.getPermissionCode());
+                copyVis.setDataLevel(visibility.getDataLevel());
+                visibilities.add(copyVis);
+            }
+            copy.setVisibilities(visibilities);
+        }
+        return copy;
+    }
+
+    /** 快照版本，每次失效后单调递增；可作为基于快照的派生结果的缓存键。 */
+    public long version() {
+        return version;
+    }
+
+    String changeMarker() {
+        return changeMarker;
+    }
+
+    /** 未删除的根菜单（不含停用分区），子节点为未删除的子菜单。 */
+    public List<PortalMenu> roots() {
+        return roots;
+    }
+
+    /** 全部菜单（含已删除，不含停用分区），按 sortOrder、id 升序。 */
+    public List<PortalMenu> allMenus() {
+        return allMenus;
+    }
+
+    /** 已删除的菜单（不含停用分区）。 */
+    public List<PortalMenu> deletedMenus() {
+        return deletedMenus;
+    }
+}
@@ -1,28 +1,22 @@
 package com.yuzhi.dts.admin.service.auditv2;
 
+import com.yuzhi.dts.admin.config.AuditStorageProperties;
 import com.yuzhi.dts.admin.domain.audit.AuditEntry;
-import com.yuzhi.dts.admin.domain.audit.AuditEntryTarget;
 import com.yuzhi.dts.admin.repository.audit.AuditEntryRepository;
-import com.yuzhi.dts.admin.service.auditv2.AuditResourceDictionaryService;
-import jakarta.persistence.criteria.Expression;
-import jakarta.persistence.criteria.Join;
-import jakarta.persistence.criteria.JoinType;
-import jakarta.persistence.criteria.Predicate;
-import java.net.InetAddress;
-import java.net.UnknownHostException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,18 +28,135 @@ public class AuditEntryQueryService {
 
     private final AuditEntryRepository repository;
     private final AuditResourceDictionaryService dictionaryService;
-
-    public AuditEntryQueryService(AuditEntryRepository repository, AuditResourceDictionaryService dictionaryService) {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final AuditStorageProperties properties;
+
+    public AuditEntryQueryService(
+        AuditEntryRepository repository,
+        AuditResourceDictionaryService dictionaryService,
+        NamedParameterJdbcTemplate jdbcTemplate,
+        AuditStorageProperties properties
+    ) {
         this.repository = repository;
         this.dictionaryService = dictionaryService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * 分页检索：游标存在且按时间排序时走 keyset，否则按页码 offset；总数在无筛选条件时取统计估算，
+     * 有筛选条件时封顶计数（见 {@link AuditStorageProperties.Search#getTotalCap()}）。
+     */
+    public AuditSearchSlice search(AuditSearchCriteria criteria, AuditSearchCursor cursor, Pageable pageable) {
+        int size = pageable.isPaged() ? pageable.getPageSize() : properties.getSearch().getExportBatchSize();
+        long offset = pageable.isPaged() && cursor == null ? pageable.getOffset() : 0L;
+        AuditSearchQuery query = AuditSearchQuery.of(criteria, pageable.getSort());
+        Batch batch = fetchBatch(query, cursor, offset, size);
+        List<AuditEntryView> content = batch.content();
+        boolean hasNext = batch.hasNext();
+        long seen = offset + content.size() + (hasNext ? 1 : 0);
+        long total;
+        boolean exact;
+        if (!hasNext && cursor == null) {
+            total = offset + content.size();
+            exact = true;
+        } else {
+            Total counted = countTotal(query);
+            total = Math.max(counted.value(), seen);
+            exact = counted.exact();
+        }
+        String nextCursor = batch.nextCursor() != null ? batch.nextCursor().encode() : null;
+        return new AuditSearchSlice(content, total, exact, hasNext, nextCursor);
+    }
+
+    /**
+     * 按 (occurred_at, id) 游标分批遍历全部匹配记录，供导出使用，内存占用与批大小相关。
+     * 只取每批数据与下一页游标，不做总数统计。
+     *
+     * @return 实际遍历的记录数
+     */
+    public long forEachMatching(AuditSearchCriteria criteria, Consumer<List<AuditEntryView>> batchConsumer) {
+        AuditStorageProperties.Search search = properties.getSearch();
+        int batchSize = Math.max(1, search.getExportBatchSize());
+        long max = Math.max(1, search.getExportMaxRows());
+        AuditSearchQuery query = AuditSearchQuery.of(criteria, Sort.by(Sort.Order.desc("occurredAt")));
+        AuditSearchCursor cursor = null;
+        long visited = 0;
+        while (visited < max) {
+            Batch batch = fetchBatch(query, cursor, 0L, batchSize);
+            List<AuditEntryView> content = batch.content();
+            if (visited + content.size() > max) {
+                content = content.subList(0, (int) (max - visited));
+            }
+            if (!content.isEmpty()) {
+                batchConsumer.accept(content);
+                visited += content.size();
+            }
+            if (!batch.hasNext() || batch.nextCursor() == null) {
+                break;
+            }
+            cursor = batch.nextCursor();
+        }
+        return visited;
+    }
+
+    /**
+     * 取一批记录（多取一行判断是否还有下一批），不涉及总数统计。
+     */
+    private Batch fetchBatch(AuditSearchQuery query, AuditSearchCursor cursor, long offset, int size) {
+        List<IdRow> rows = jdbcTemplate.query(
+            query.pageIdsSql(cursor, offset, size + 1),
+            query.params(),
+            (rs, rowNum) -> new IdRow(rs.getLong(1), rs.getTimestamp(2).toInstant())
+        );
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows = rows.subList(0, size);
+        }
+        AuditSearchCursor nextCursor = hasNext && query.supportsCursor() && !rows.isEmpty()
+            ? new AuditSearchCursor(rows.get(rows.size() - 1).occurredAt(), rows.get(rows.size() - 1).id())
+            : null;
+        return new Batch(loadViews(rows), hasNext, nextCursor);
+    }
+
+    private List<AuditEntryView> loadViews(List<IdRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = rows.stream().map(IdRow::id).toList();
+        Map<Long, AuditEntry> byId = new HashMap<>();
+        for (AuditEntry entry : repository.findWithTargetsByIdIn(ids)) {
+            byId.put(entry.getId(), entry);
+        }
+        List<AuditEntryView> views = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            AuditEntry entry = byId.get(id);
+            if (entry != null) {
+                views.add(AuditEntryView.from(entry, false));
+            }
+        }
+        return views;
     }
 
-    public Page<AuditEntryView> search(AuditSearchCriteria criteria, Pageable pageable) {
-        Specification<AuditEntry> spec = buildSpecification(criteria);
-        Page<AuditEntry> page = repository.findAll(spec, pageable);
-        return page.map(entry -> AuditEntryView.from(entry, false));
+    private Total countTotal(AuditSearchQuery query) {
+        if (!query.hasFilters()) {
+            Number estimate = jdbcTemplate.getJdbcTemplate().queryForObject(AuditSearchQuery.estimateSql(), Number.class);
+            if (estimate != null && estimate.longValue() > 0) {
+                return new Total(estimate.longValue(), false);
+            }
+        }
+        int cap = Math.max(1, properties.getSearch().getTotalCap());
+        Long counted = jdbcTemplate.queryForObject(query.cappedCountSql(cap), query.params(), Long.class);
+        long value = counted != null ? counted : 0L;
+        return value > cap ? new Total(cap, false) : new Total(value, true);
     }
 
+    private record IdRow(long id, Instant occurredAt) {}
+
+    private record Total(long value, boolean exact) {}
+
+    private record Batch(List<AuditEntryView> content, boolean hasNext, AuditSearchCursor nextCursor) {}
+
     public Optional<AuditEntryView> findById(Long id, boolean includeDetails) {
         if (id == null) {
             return Optional.empty();
@@ -54,10 +165,13 @@ public class AuditEntryQueryService {
         return entry.map(e -> AuditEntryView.from(e, includeDetails));
     }
 
+    /**
+     * 清空全部审计记录：TRUNCATE 直接回收各分区空间，避免逐行删除造成的表膨胀。
+     */
     @Transactional
     public long purgeAll() {
         long count = repository.count();
-        repository.deleteAllInBatch();
+        jdbcTemplate.getJdbcTemplate().execute("truncate table audit_entry_target, audit_entry_detail, audit_entry");
         return count;
     }
 
@@ -101,105 +215,7 @@ public class AuditEntryQueryService {
         );
     }
 
-    private Specification<AuditEntry> buildSpecification(AuditSearchCriteria criteria) {
-        return (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
-            if (criteria == null) {
-                return cb.and(predicates.toArray(Predicate[]::new));
-            }
-
-            if (!query.getResultType().equals(Long.class)) {
-                query.distinct(true);
-            }
-
-            if (hasText(criteria.actor())) {
-                String pattern = likePattern(criteria.actor());
-                Predicate byId = cb.like(cb.lower(root.get("actorId")), pattern);
-                Predicate byName = cb.like(cb.lower(root.get("actorName")), pattern);
-                predicates.add(cb.or(byId, byName));
-            }
-            if (hasText(criteria.module())) {
-                predicates.add(cb.like(cb.lower(root.get("moduleKey")), likePattern(criteria.module())));
-            }
-            if (hasText(criteria.operationKind())) {
-                predicates.add(cb.like(cb.lower(root.get("operationKind")), likePattern(criteria.operationKind())));
-            }
-            if (hasText(criteria.action())) {
-                Predicate byOpName = cb.like(cb.lower(root.get("operationName")), likePattern(criteria.action()));
-                Predicate byOpCode = cb.like(cb.lower(root.get("operationCode")), likePattern(criteria.action()));
-                Predicate bySummary = cb.like(cb.lower(root.get("summary")), likePattern(criteria.action()));
-                predicates.add(cb.or(byOpName, byOpCode, bySummary));
-            }
-            if (hasText(criteria.operationGroup())) {
-                predicates.add(cb.like(cb.lower(root.get("moduleKey")), likePattern(criteria.operationGroup())));
-            }
-            if (hasText(criteria.sourceSystem())) {
-                predicates.add(cb.like(cb.lower(root.get("sourceSystem")), likePattern(criteria.sourceSystem())));
-            }
-            if (hasText(criteria.result())) {
-                predicates.add(cb.like(cb.lower(root.get("result")), likePattern(criteria.result())));
-            }
-            if (criteria.from() != null) {
-                predicates.add(cb.greaterThanOrEqualTo(root.get("occurredAt"), criteria.from()));
-            }
-            if (criteria.to() != null) {
-                predicates.add(cb.lessThanOrEqualTo(root.get("occurredAt"), truncateToEndOfSecond(criteria.to())));
-            }
-            if (hasText(criteria.keyword())) {
-                String pattern = likePattern(criteria.keyword());
-                Predicate inSummary = cb.like(cb.lower(root.get("summary")), pattern);
-                Predicate inOperation = cb.like(cb.lower(root.get("operationName")), pattern);
-                Predicate inRequest = cb.like(cb.lower(root.get("requestUri")), pattern);
-                predicates.add(cb.or(inSummary, inOperation, inRequest));
-            }
-            if (hasText(criteria.clientIp())) {
-                predicates.add(cb.like(ipAsText(root.get("clientIp"), cb), likePattern(criteria.clientIp())));
-            }
-            if (hasText(criteria.targetTable()) || hasText(criteria.targetId())) {
-                Join<AuditEntry, AuditEntryTarget> targetJoin = root.join("targets", JoinType.LEFT);
-                if (hasText(criteria.targetTable())) {
-                    predicates.add(cb.like(cb.lower(targetJoin.get("targetTable")), likePattern(criteria.targetTable())));
-                }
-                if (hasText(criteria.targetId())) {
-                    predicates.add(cb.like(cb.lower(targetJoin.get("targetId")), likePattern(criteria.targetId())));
-                }
-            }
-            Set<String> allowed = criteria.allowedActors();
-            if (!allowed.isEmpty()) {
-                Predicate byActor = root.get("actorId").in(allowed);
-                predicates.add(byActor);
-            }
-            Set<String> excluded = criteria.excludedActors();
-            if (!excluded.isEmpty()) {
-                Predicate notIn = cb.not(root.get("actorId").in(excluded));
-                predicates.add(notIn);
-            }
-
-            return cb.and(predicates.toArray(Predicate[]::new));
-        };
-    }
-
-    private static Expression<String> ipAsText(Expression<?> path, jakarta.persistence.criteria.CriteriaBuilder cb) {
-        return cb.lower(cb.coalesce(cb.function("host", String.class, path), ""));
-    }
-
     private static boolean hasText(String value) {
         return value != null && !value.trim().isEmpty();
     }
-
-    private static String likePattern(String value) {
-        String sanitized = value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
-        if (sanitized.isEmpty()) {
-            return "%";
-        }
-        String escaped = sanitized.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
-        return "%" + escaped + "%";
-    }
-
-    private static Instant truncateToEndOfSecond(Instant instant) {
-        if (instant == null) {
-            return null;
-        }
-        return instant.plusNanos(999_999_999 - (instant.getNano() % 1_000_000_000));
-    }
 }
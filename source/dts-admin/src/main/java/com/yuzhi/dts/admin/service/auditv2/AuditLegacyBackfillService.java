@@ -0,0 +1,128 @@
+package com.yuzhi.dts.admin.service.auditv2;
+
+import com.yuzhi.dts.admin.config.AuditStorageProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 审计分区切换后的旧数据搬迁：按 id 升序每批取一段 audit_entry_legacy 记录，连同目标/明细写入分区表后从旧表删除，
+ * 每批一个短事务；旧表清空后删除三张 *_legacy 表。每批同时记下所搬记录的发生时间范围，由 {@link AuditRollupService} 重算对应日期的汇总。
+ * <p>
+ * 搬迁期间新写入直接进入分区表，尚未搬迁的历史记录暂时查不到。多实例部署时以 advisory lock 保证同一时刻只有一个实例搬迁。
+ */
+@Service
+public class AuditLegacyBackfillService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLegacyBackfillService.class);
+    private static final long BACKFILL_LOCK_KEY = 0x6474_7342_6b66_696cL;
+
+    static final String LEGACY_ENTRY_TABLE = "audit_entry_legacy";
+
+    static final String UPPER_BOUND_SQL =
+        "select max(id) from (select id from audit_entry_legacy order by id limit ?) chunk";
+
+    /** 记录本批记录的发生时间范围，供日汇总重算（汇总可能早已越过这些日期）。 */
+    static final String RECORD_RANGE_SQL =
+        "insert into audit_rollup_pending_range (occurred_from, occurred_to) " +
+        "select min(occurred_at), max(occurred_at) from audit_entry_legacy where id <= ? having count(*) > 0";
+
+    static final String COPY_ENTRIES_SQL = "insert into audit_entry select * from audit_entry_legacy where id <= ?";
+
+    static final String COPY_TARGETS_SQL =
+        "insert into audit_entry_target (id, entry_id, position, target_table, target_id, target_label, entry_occurred_at) " +
+        "select t.id, t.entry_id, t.position, t.target_table, t.target_id, t.target_label, e.occurred_at " +
+        "from audit_entry_target_legacy t join audit_entry_legacy e on e.id = t.entry_id where e.id <= ?";
+
+    static final String COPY_DETAILS_SQL =
+        "insert into audit_entry_detail (id, entry_id, position, detail_key, detail_value, entry_occurred_at) " +
+        "select d.id, d.entry_id, d.position, d.detail_key, d.detail_value, e.occurred_at " +
+        "from audit_entry_detail_legacy d join audit_entry_legacy e on e.id = d.entry_id where e.id <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditStorageProperties properties;
+    private volatile boolean completed;
+
+    public AuditLegacyBackfillService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, AuditStorageProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    @Scheduled(
+        initialDelayString = "${dts.admin.audit.backfill.initial-delay-ms:30000}",
+        fixedDelayString = "${dts.admin.audit.backfill.interval-ms:60000}"
+    )
+    public void run() {
+        AuditStorageProperties.Backfill backfill = properties.getBackfill();
+        if (completed || !backfill.isEnabled()) {
+            return;
+        }
+        int batchSize = Math.max(1, backfill.getBatchSize());
+        int maxBatches = Math.max(1, backfill.getMaxBatchesPerRun());
+        try {
+            long moved = 0;
+            for (int i = 0; i < maxBatches; i++) {
+                Step step = transactionTemplate.execute(status -> moveBatch(batchSize));
+                if (step == null || step.locked()) {
+                    return;
+                }
+                moved += step.moved();
+                if (step.finished()) {
+                    completed = true;
+                    if (moved > 0) {
+                        log.info("Legacy audit backfill finished ({} entries in last run)", moved);
+                    }
+                    return;
+                }
+            }
+            log.info("Legacy audit backfill moved {} entries, continuing on next run", moved);
+        } catch (DataAccessException ex) {
+            log.warn("Legacy audit backfill failed: {}", ex.getMostSpecificCause().getMessage());
+        }
+    }
+
+    /**
+     * 在当前事务内搬迁一批；旧表不存在或已清空时收尾并返回 finished。
+     */
+    Step moveBatch(int batchSize) {
+        Boolean locked = jdbcTemplate.queryForObject("select pg_try_advisory_xact_lock(?)", Boolean.class, BACKFILL_LOCK_KEY);
+        if (!Boolean.TRUE.equals(locked)) {
+            log.debug("Legacy audit backfill is running on another instance");
+            return new Step(0, false, true);
+        }
+        Boolean present = jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, LEGACY_ENTRY_TABLE);
+        if (!Boolean.TRUE.equals(present)) {
+            return new Step(0, true, false);
+        }
+        Long upper = jdbcTemplate.queryForObject(UPPER_BOUND_SQL, Long.class, batchSize);
+        if (upper == null) {
+            // 没有对应主记录的孤立目标/明细行随旧表一起删除
+            jdbcTemplate.execute("drop table if exists audit_entry_target_legacy, audit_entry_detail_legacy, audit_entry_legacy");
+            log.info("Legacy audit tables dropped after backfill");
+            return new Step(0, true, false);
+        }
+        jdbcTemplate.update(RECORD_RANGE_SQL, upper);
+        int moved = jdbcTemplate.update(COPY_ENTRIES_SQL, upper);
+        jdbcTemplate.update(COPY_TARGETS_SQL, upper);
+        jdbcTemplate.update(COPY_DETAILS_SQL, upper);
+        jdbcTemplate.update(
+            "delete from audit_entry_target_legacy t using audit_entry_legacy e where e.id = t.entry_id and e.id <= ?",
+            upper
+        );
+        jdbcTemplate.update(
+            "delete from audit_entry_detail_legacy d using audit_entry_legacy e where e.id = d.entry_id and e.id <= ?",
+            upper
+        );
+        jdbcTemplate.update("delete from audit_entry_legacy where id <= ?", upper);
+        return new Step(moved, false, false);
+    }
+
+    record Step(long moved, boolean finished, boolean locked) {}
+}
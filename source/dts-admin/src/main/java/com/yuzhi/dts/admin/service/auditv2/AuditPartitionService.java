@@ -0,0 +1,205 @@
+package com.yuzhi.dts.admin.service.auditv2;
+
+import com.yuzhi.dts.admin.config.AuditStorageProperties;
+import java.time.Clock;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 审计分区维护：预建未来月份分区，并按保留策略整月摘除/删除过期分区（三张审计表同步处理）。
+ * <p>
+ * 多实例部署时通过 PostgreSQL 事务级 advisory lock 保证同一时刻只有一个实例执行摘除。
+ * 分区预建始终执行；摘除只在保留策略开启且旧表搬迁（见 {@link AuditLegacyBackfillService}）完成后进行。
+ */
+@Service
+public class AuditPartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditPartitionService.class);
+    private static final long MAINTENANCE_LOCK_KEY = 0x6474_7341_7564_6974L;
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("^audit_entry_p(\\d{6})$");
+
+    static final String PARENT_TABLE = "audit_entry";
+    /** 子表需先于父表摘除，否则外键校验会阻止父分区摘除。 */
+    static final List<String> CHILD_TABLES = List.of("audit_entry_target", "audit_entry_detail");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditStorageProperties properties;
+    private final Clock clock;
+
+    public AuditPartitionService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, AuditStorageProperties properties) {
+        this(jdbcTemplate, new TransactionTemplate(transactionManager), properties, Clock.systemUTC());
+    }
+
+    AuditPartitionService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, AuditStorageProperties properties, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${dts.admin.audit.retention.cron:0 30 2 * * *}")
+    public void maintain() {
+        try {
+            if (!isPartitioned()) {
+                log.debug("audit_entry is not partitioned, skip partition maintenance");
+                return;
+            }
+            // 建分区语句幂等且逐条自动提交，单条失败不影响其余月份
+            ensurePartitions();
+            if (!properties.getRetention().isEnabled()) {
+                return;
+            }
+            if (legacyTablesPresent()) {
+                // 旧记录尚未搬完，此时摘除的月份会被后续搬迁写进兜底分区
+                log.info("Audit retention postponed until the legacy audit backfill completes");
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                Boolean locked = jdbcTemplate.queryForObject("select pg_try_advisory_xact_lock(?)", Boolean.class, MAINTENANCE_LOCK_KEY);
+                if (!Boolean.TRUE.equals(locked)) {
+                    log.debug("Audit partition retention is running on another instance");
+                    return;
+                }
+                applyRetention();
+            });
+        } catch (DataAccessException ex) {
+            log.warn("Audit partition maintenance failed: {}", ex.getMostSpecificCause().getMessage());
+        }
+    }
+
+    /**
+     * 预建当月及之后 premakeMonths 个月的分区；若兜底分区中已有落在该月的数据，建分区会失败，仅记录告警。
+     */
+    void ensurePartitions() {
+        YearMonth current = YearMonth.now(clock);
+        int premake = Math.max(0, properties.getRetention().getPremakeMonths());
+        for (int i = 0; i <= premake; i++) {
+            YearMonth month = current.plusMonths(i);
+            for (String table : tablesInCreateOrder()) {
+                try {
+                    jdbcTemplate.execute(createPartitionSql(table, month));
+                } catch (DataAccessException ex) {
+                    log.warn("Failed to create audit partition {} for {}: {}", table, month, ex.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 摘除早于保留期的整月分区，返回处理的月份。
+     */
+    List<YearMonth> applyRetention() {
+        AuditStorageProperties.Retention retention = properties.getRetention();
+        List<String> partitions = jdbcTemplate.queryForList(
+            "select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid where i.inhparent = to_regclass(?)",
+            String.class,
+            PARENT_TABLE
+        );
+        List<YearMonth> expired = expiredMonths(partitions, YearMonth.now(clock), retention.getRetainMonths());
+        for (YearMonth month : expired) {
+            for (String sql : retirePartitionSql(month, retention.getMode())) {
+                jdbcTemplate.execute(sql);
+            }
+            log.info("Audit partitions for {} retired ({})", month, retention.getMode());
+        }
+        return expired;
+    }
+
+    boolean isPartitioned() {
+        String kind = jdbcTemplate.queryForObject(
+            "select coalesce((select relkind::text from pg_class where oid = to_regclass(?)), '')",
+            String.class,
+            PARENT_TABLE
+        );
+        return "p".equals(kind);
+    }
+
+    boolean legacyTablesPresent() {
+        return Boolean.TRUE.equals(
+            jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, AuditLegacyBackfillService.LEGACY_ENTRY_TABLE)
+        );
+    }
+
+    static List<YearMonth> expiredMonths(List<String> partitionNames, YearMonth current, int retainMonths) {
+        YearMonth oldestKept = current.minusMonths(Math.max(0, retainMonths));
+        List<YearMonth> expired = new ArrayList<>();
+        for (String name : partitionNames) {
+            Matcher matcher = PARTITION_NAME.matcher(Objects.toString(name, ""));
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.parse(matcher.group(1), SUFFIX);
+            if (month.isBefore(oldestKept)) {
+                expired.add(month);
+            }
+        }
+        expired.sort(null);
+        return expired;
+    }
+
+    static String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(SUFFIX);
+    }
+
+    static String createPartitionSql(String table, YearMonth month) {
+        return (
+            "create table if not exists " +
+            partitionName(table, month) +
+            " partition of " +
+            table +
+            " for values from ('" +
+            month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC) +
+            "') to ('" +
+            month.plusMonths(1).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC) +
+            "')"
+        );
+    }
+
+    static List<String> retirePartitionSql(YearMonth month, AuditStorageProperties.RetentionMode mode) {
+        List<String> statements = new ArrayList<>();
+        for (String child : CHILD_TABLES) {
+            String partition = partitionName(child, month);
+            statements.add("alter table " + child + " detach partition " + partition);
+            // 摘除后的子分区保留了指向父表的外键，需先去掉才能摘除父分区
+            statements.add("alter table " + partition + " drop constraint if exists fk_" + child + "_entry");
+        }
+        statements.add("alter table " + PARENT_TABLE + " detach partition " + partitionName(PARENT_TABLE, month));
+        if (mode == AuditStorageProperties.RetentionMode.DROP) {
+            for (String child : CHILD_TABLES) {
+                statements.add("drop table if exists " + partitionName(child, month));
+            }
+            statements.add("drop table if exists " + partitionName(PARENT_TABLE, month));
+        }
+        return statements;
+    }
+
+    private static List<String> tablesInCreateOrder() {
+        List<String> tables = new ArrayList<>();
+        tables.add(PARENT_TABLE);
+        tables.addAll(CHILD_TABLES);
+        return tables;
+    }
+}
@@ -1,14 +1,20 @@
 package com.yuzhi.dts.admin.service.auditv2;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuzhi.dts.admin.config.AuditStorageProperties;
 import com.yuzhi.dts.admin.domain.audit.AuditEntry;
 import com.yuzhi.dts.admin.domain.audit.AuditEntryDetail;
 import com.yuzhi.dts.admin.domain.audit.AuditEntryTarget;
 import com.yuzhi.dts.admin.repository.audit.AuditEntryRepository;
 import com.yuzhi.dts.common.audit.ChangeSnapshot;
+import com.yuzhi.dts.common.net.IpAddressUtils;
+import com.yuzhi.dts.common.observability.OperationMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.ObjectProvider;
+import java.io.IOException;
 import java.net.InetAddress;
-import java.net.UnknownHostException;
+import java.nio.file.Path;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
@@ -30,6 +36,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+/**
+ * 审计记录落库。默认经 {@link AuditWritePipeline} 异步批量写入，请求线程只做组装与去重，
+ * 溢出记录写入 spill-directory（默认 /opt/dts/audit-spill，须挂载为持久卷）。
+ * 关闭异步（dts.admin.audit.pipeline.enabled=false），或 overflow=SPILL 而溢出目录置空、不可用时，在调用线程内同步写入。
+ */
 @Service
 @Transactional
 public class AuditRecorder {
@@ -43,20 +54,134 @@ public class AuditRecorder {
     private final AuditEntryRepository repository;
     private final Clock clock;
     private final ObjectMapper objectMapper;
+    private final OperationMetrics operationMetrics;
+    private final AuditStorageProperties.Pipeline pipelineProperties;
     private final ConcurrentMap<String, Instant> recentQueryFingerprints = new ConcurrentHashMap<>();
-
-    public AuditRecorder(AuditEntryRepository repository, ObjectProvider<Clock> clockProvider, ObjectMapper objectMapper) {
+    private volatile AuditWritePipeline pipeline;
+
+    public AuditRecorder(
+        AuditEntryRepository repository,
+        ObjectProvider<Clock> clockProvider,
+        ObjectMapper objectMapper,
+        OperationMetrics operationMetrics,
+        AuditStorageProperties properties
+    ) {
         this.repository = repository;
         this.clock = clockProvider != null ? clockProvider.getIfAvailable(Clock::systemUTC) : Clock.systemUTC();
         this.objectMapper = objectMapper;
+        this.operationMetrics = operationMetrics;
+        this.pipelineProperties = properties.getPipeline();
+    }
+
+    @PostConstruct
+    void startPipeline() {
+        if (!pipelineProperties.isEnabled()) {
+            return;
+        }
+        AuditSpillJournal journal = null;
+        if (pipelineProperties.getOverflow() == AuditStorageProperties.OverflowPolicy.SPILL) {
+            // 溢出日志必须落在持久目录上，否则重启即丢失；无可用目录时退回同步写入而不是静默丢弃
+            if (!StringUtils.hasText(pipelineProperties.getSpillDirectory())) {
+                log.warn("Audit overflow=SPILL requires dts.admin.audit.pipeline.spill-directory, falling back to synchronous audit writes");
+                return;
+            }
+            Path directory = Path.of(pipelineProperties.getSpillDirectory().trim());
+            try {
+                journal = new AuditSpillJournal(directory, objectMapper);
+            } catch (IOException ex) {
+                log.error("Audit spill journal unavailable at {}, falling back to synchronous audit writes: {}", directory, ex.getMessage());
+                return;
+            }
+        }
+        AuditWritePipeline created = new AuditWritePipeline(
+            pipelineProperties.getCapacity(),
+            pipelineProperties.getBatchSize(),
+            pipelineProperties.getReplayIntervalMs(),
+            journal,
+            this::writeBatch,
+            operationMetrics
+        );
+        created.start();
+        this.pipeline = created;
+    }
+
+    @PreDestroy
+    void stopPipeline() {
+        AuditWritePipeline current = pipeline;
+        pipeline = null;
+        if (current != null) {
+            current.close();
+        }
     }
 
     public AuditBuilder start(String actorId) {
         return new AuditBuilder(this, actorId);
     }
 
+    /**
+     * 异步模式下入队即返回 {@code null}，记录由写入线程在独立事务中落库，不随调用方事务回滚。
+     */
     AuditEntry persist(ResolvedAudit audit) {
+        AuditWritePipeline current = pipeline;
+        if (current != null) {
+            if (!shouldSkip(audit)) {
+                current.offer(audit);
+            }
+            return null;
+        }
+        OperationMetrics.Span span = operationMetrics.start("audit.persist", sourceTag(audit.sourceSystem()));
+        try {
+            return persist(audit, span);
+        } catch (RuntimeException ex) {
+            span.failed();
+            throw ex;
+        } finally {
+            span.close();
+        }
+    }
+
+    /** 写入线程调用：一批记录在一个事务内写入。 */
+    void writeBatch(List<ResolvedAudit> batch) {
+        OperationMetrics.Span span = operationMetrics.start("audit.persist.batch", DEFAULT_SOURCE_SYSTEM);
+        try {
+            List<AuditEntry> entries = new ArrayList<>(batch.size());
+            for (ResolvedAudit audit : batch) {
+                entries.add(toEntry(audit));
+            }
+            span.mark("map");
+            repository.saveAll(entries);
+            span.mark("save");
+        } catch (RuntimeException ex) {
+            span.failed();
+            throw ex;
+        } finally {
+            span.close();
+        }
+    }
+
+    private AuditEntry persist(ResolvedAudit audit, OperationMetrics.Span span) {
+        if (shouldSkip(audit)) {
+            return null;
+        }
+        span.mark("dedupe");
+        AuditEntry saved = repository.save(toEntry(audit));
+        span.mark("save");
+        if (log.isDebugEnabled()) {
+            log.debug(
+                "Recorded audit entry id={} actor={} module={} operation={} targets={}",
+                saved.getId(),
+                saved.getActorId(),
+                saved.getModuleKey(),
+                saved.getOperationCode(),
+                audit.targets().size()
+            );
+        }
+        return saved;
+    }
+
+    private boolean shouldSkip(ResolvedAudit audit) {
         if (shouldSkipForDedup(audit)) {
+            operationMetrics.increment("dts.audit.persist.skipped", "reason", "dedupe");
             if (log.isDebugEnabled()) {
                 log.debug(
                     "Skip duplicate query audit entry for actor={} button={} uri={}",
@@ -65,8 +190,12 @@ public class AuditRecorder {
                     audit.requestUri()
                 );
             }
-            return null;
+            return true;
         }
+        return false;
+    }
+
+    private AuditEntry toEntry(ResolvedAudit audit) {
         AuditEntry entry = new AuditEntry();
         entry.setOccurredAt(audit.occurredAt());
         entry.setSourceSystem(clamp(audit.sourceSystem(), 32, "sourceSystem"));
@@ -98,36 +227,35 @@ public class AuditRecorder {
             entry.addDetail(new AuditEntryDetail(detailIndex++, detail.key(), detail.value()));
         }
 
-        AuditEntry saved = repository.save(entry);
-        if (log.isDebugEnabled()) {
-            log.debug(
-                "Recorded audit entry id={} actor={} module={} operation={} targets={}",
-                saved.getId(),
-                saved.getActorId(),
-                saved.getModuleKey(),
-                saved.getOperationCode(),
-                audit.targets().size()
-            );
+        return entry;
+    }
+
+    /** 来源系统作为指标标签，仅保留已知取值以免外部写入导致标签基数膨胀。 */
+    private static String sourceTag(String sourceSystem) {
+        if (sourceSystem == null) {
+            return DEFAULT_SOURCE_SYSTEM;
         }
-        return saved;
+        String normalized = sourceSystem.trim().toLowerCase(Locale.ROOT);
+        return switch (normalized) {
+            case "admin", "platform" -> normalized;
+            default -> "other";
+        };
     }
 
     private Instant now() {
         return Instant.now(clock);
     }
 
+    /** 仅解析 IP 字面量，主机名等非字面量输入返回 null，不触发 DNS 查询。 */
     private InetAddress safeInet(String ip) {
         if (!StringUtils.hasText(ip)) {
             return null;
         }
-        try {
-            return InetAddress.getByName(ip.trim());
-        } catch (UnknownHostException ex) {
-            if (log.isDebugEnabled()) {
-                log.debug("Unable to parse client ip '{}': {}", ip, ex.getMessage());
-            }
-            return null;
+        InetAddress address = IpAddressUtils.parseLiteral(ip);
+        if (address == null && log.isDebugEnabled()) {
+            log.debug("Ignoring non-literal client ip '{}'", ip);
         }
+        return address;
     }
 
     private boolean shouldSkipForDedup(ResolvedAudit audit) {
@@ -4,14 +4,12 @@ import com.yuzhi.dts.admin.domain.AuditResourceDictionary;
 import com.yuzhi.dts.admin.repository.AuditResourceDictionaryRepository;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataAccessException;
@@ -28,9 +26,8 @@ public class AuditResourceDictionaryService {
     private final AuditResourceDictionaryRepository repository;
     private final JdbcTemplate jdbcTemplate;
 
-    private volatile Map<String, DictionaryEntry> exactEntries = new ConcurrentHashMap<>();
-    private final List<PrefixEntry> prefixEntries = new CopyOnWriteArrayList<>();
-    private volatile List<String> moduleCategories = List.of();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean tableReady;
 
     public AuditResourceDictionaryService(
         AuditResourceDictionaryRepository repository,
@@ -41,66 +38,112 @@ public class AuditResourceDictionaryService {
         reload();
     }
 
-    @Scheduled(fixedDelay = 60000L)
+    /**
+     * 版本检查只读一行版本号，开销很小；仅在字典行发生变化时才重建索引。
+     */
+    @Scheduled(fixedDelay = 15000L)
     public void reload() {
-        if (!dictionaryTableExists()) {
-            log.debug("audit_resource_dictionary table not available yet; skip dictionary reload");
-            return;
+        refresh(false);
+    }
+
+    public void forceReload() {
+        refresh(true);
+    }
+
+    private void refresh(boolean force) {
+        if (!tableReady) {
+            if (!dictionaryTableExists()) {
+                log.debug("audit_resource_dictionary table not available yet; skip dictionary reload");
+                return;
+            }
+            tableReady = true;
         }
         try {
+            String version = currentVersion();
+            if (!force && version != null && version.equals(snapshot.version())) {
+                return;
+            }
             List<AuditResourceDictionary> rows = repository.findAllByEnabledTrueOrderByOrderValueAscResourceKeyAsc();
-            Map<String, DictionaryEntry> exact = new ConcurrentHashMap<>();
-            List<PrefixEntry> prefixes = new ArrayList<>();
-            LinkedHashMap<String, Integer> categoryOrders = new LinkedHashMap<>();
-            for (AuditResourceDictionary row : rows) {
-                DictionaryEntry entry = new DictionaryEntry(
-                    normalize(row.getResourceKey()),
-                    safeTrim(row.getDisplayName()),
-                    safeTrim(row.getCategory()),
-                    row.getOrderValue()
-                );
-                if (entry.key() != null) {
-                    exact.put(entry.key(), entry);
-                }
-                String displayKey = normalize(entry.displayName());
-                if (displayKey != null) {
-                    exact.putIfAbsent(displayKey, entry);
-                }
-                for (String alias : splitAliases(row.getAliases())) {
-                    boolean isPrefix = alias.endsWith("*");
-                    String token = isPrefix ? alias.substring(0, alias.length() - 1) : alias;
-                    String normalized = normalize(token);
-                    if (!StringUtils.hasText(normalized)) {
-                        continue;
-                    }
-                    if (isPrefix) {
-                        prefixes.add(new PrefixEntry(normalized, entry));
-                    } else {
-                        exact.putIfAbsent(normalized, entry);
-                    }
+            Snapshot built = build(version, rows);
+            snapshot = built;
+            log.info(
+                "Loaded {} audit resource dictionary entries ({} prefixes, version {})",
+                built.exact().size(),
+                built.prefixes().size(),
+                version
+            );
+        } catch (DataAccessException ex) {
+            log.debug("Failed to reload audit resource dictionary ({}); will retry", ex.getMessage());
+        } catch (Exception ex) {
+            log.warn("Unexpected error reloading audit resource dictionary", ex);
+        }
+    }
+
+    private Snapshot build(String version, List<AuditResourceDictionary> rows) {
+        Map<String, DictionaryEntry> exact = new HashMap<>();
+        PrefixTrie<DictionaryEntry> prefixes = new PrefixTrie<>();
+        LinkedHashMap<String, Integer> categoryOrders = new LinkedHashMap<>();
+        for (AuditResourceDictionary row : rows) {
+            DictionaryEntry entry = new DictionaryEntry(
+                normalize(row.getResourceKey()),
+                safeTrim(row.getDisplayName()),
+                safeTrim(row.getCategory()),
+                row.getOrderValue()
+            );
+            if (entry.key() != null) {
+                exact.put(entry.key(), entry);
+            }
+            String displayKey = normalize(entry.displayName());
+            if (displayKey != null) {
+                exact.putIfAbsent(displayKey, entry);
+            }
+            for (String alias : splitAliases(row.getAliases())) {
+                boolean isPrefix = alias.endsWith("*");
+                String token = isPrefix ? alias.substring(0, alias.length() - 1) : alias;
+                String normalized = normalize(token);
+                if (!StringUtils.hasText(normalized)) {
+                    continue;
                 }
-                if (StringUtils.hasText(entry.category())) {
-                    int order = entry.order() == null ? Integer.MAX_VALUE : entry.order();
-                    categoryOrders.putIfAbsent(entry.category(), order);
+                if (isPrefix) {
+                    prefixes.put(normalized, entry);
+                } else {
+                    exact.putIfAbsent(normalized, entry);
                 }
             }
-            prefixes.sort(Comparator.comparingInt((PrefixEntry p) -> p.prefix().length()).reversed());
-            prefixEntries.clear();
-            prefixEntries.addAll(prefixes);
-            exactEntries = exact;
-            List<Map.Entry<String, Integer>> sorted = new ArrayList<>(categoryOrders.entrySet());
-            sorted.sort(Map.Entry.comparingByValue());
-            List<String> categories = new ArrayList<>(sorted.size());
-            for (Map.Entry<String, Integer> entry : sorted) {
-                categories.add(entry.getKey());
+            if (StringUtils.hasText(entry.category())) {
+                int order = entry.order() == null ? Integer.MAX_VALUE : entry.order();
+                categoryOrders.putIfAbsent(entry.category(), order);
+            }
+        }
+        List<Map.Entry<String, Integer>> sorted = new ArrayList<>(categoryOrders.entrySet());
+        sorted.sort(Map.Entry.comparingByValue());
+        List<String> categories = new ArrayList<>(sorted.size());
+        for (Map.Entry<String, Integer> entry : sorted) {
+            categories.add(entry.getKey());
+        }
+        return new Snapshot(version, Map.copyOf(exact), prefixes, List.copyOf(categories));
+    }
+
+    /**
+     * 读取字典版本：优先使用触发器维护的版本号，不可用时退化为 (行数, 最近更新时间) 戳。
+     */
+    private String currentVersion() {
+        try {
+            List<Long> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM audit_dictionary_version WHERE name = ?",
+                Long.class,
+                "audit_resource_dictionary"
+            );
+            if (!versions.isEmpty() && versions.get(0) != null) {
+                return "v" + versions.get(0);
             }
-            moduleCategories = Collections.unmodifiableList(categories);
-            log.info("Loaded {} audit resource dictionary entries ({} prefixes)", exact.size(), prefixes.size());
         } catch (DataAccessException ex) {
-            log.debug("Failed to reload audit resource dictionary ({}); will retry", ex.getMessage());
-        } catch (Exception ex) {
-            log.warn("Unexpected error reloading audit resource dictionary", ex);
+            log.trace("audit_dictionary_version unavailable: {}", ex.getMessage());
         }
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) || ':' || COALESCE(CAST(MAX(updated_at) AS VARCHAR(64)), '') FROM audit_resource_dictionary",
+            String.class
+        );
     }
 
     public Optional<DictionaryEntry> findEntry(String key) {
@@ -108,16 +151,12 @@ public class AuditResourceDictionaryService {
         if (normalized == null) {
             return Optional.empty();
         }
-        DictionaryEntry entry = exactEntries.get(normalized);
+        Snapshot current = snapshot;
+        DictionaryEntry entry = current.exact().get(normalized);
         if (entry != null) {
             return Optional.of(entry);
         }
-        for (PrefixEntry prefixEntry : prefixEntries) {
-            if (normalized.startsWith(prefixEntry.prefix())) {
-                return Optional.of(prefixEntry.entry());
-            }
-        }
-        return Optional.empty();
+        return Optional.ofNullable(current.prefixes().longestPrefixOf(normalized));
     }
 
     public Optional<String> resolveLabel(String key) {
@@ -129,7 +168,7 @@ public class AuditResourceDictionaryService {
     }
 
     public List<String> listModuleCategories() {
-        return moduleCategories;
+        return snapshot.categories();
     }
 
     private boolean dictionaryTableExists() {
@@ -177,5 +216,7 @@ public class AuditResourceDictionaryService {
 
     public record DictionaryEntry(String key, String displayName, String category, Integer order) {}
 
-    private record PrefixEntry(String prefix, DictionaryEntry entry) {}
+    private record Snapshot(String version, Map<String, DictionaryEntry> exact, PrefixTrie<DictionaryEntry> prefixes, List<String> categories) {
+        static final Snapshot EMPTY = new Snapshot(null, Map.of(), new PrefixTrie<>(), List.of());
+    }
 }
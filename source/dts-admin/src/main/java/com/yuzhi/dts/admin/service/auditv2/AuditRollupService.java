@@ -0,0 +1,185 @@
+package com.yuzhi.dts.admin.service.auditv2;
+
+import com.yuzhi.dts.admin.config.AuditStorageProperties;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 审计日汇总：按 (日, 模块, 操作, 结果) 预聚合计数写入 audit_entry_daily_rollup，看板直接读取汇总表，无需扫描原始记录。
+ * <p>
+ * 每次刷新重算最近 recomputeDays 天以吸收迟到写入；汇总表为空或落后时从缺口处一次补齐；
+ * 旧数据搬迁登记的时间范围（audit_rollup_pending_range）在同一事务内取出并重算对应日期。
+ * 原始分区按保留策略摘除后，对应日期的汇总仍然保留。
+ */
+@Service
+public class AuditRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditRollupService.class);
+    private static final long ROLLUP_LOCK_KEY = 0x6474_7352_6f6c_6c75L;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditStorageProperties properties;
+    private final Clock clock;
+
+    public AuditRollupService(
+        NamedParameterJdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        AuditStorageProperties properties
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.clock = Clock.systemUTC();
+    }
+
+    public record DailyRollup(LocalDate day, String moduleKey, String operationCode, String result, long count) {}
+
+    @Scheduled(
+        initialDelayString = "${dts.admin.audit.rollup.initial-delay-ms:60000}",
+        fixedDelayString = "${dts.admin.audit.rollup.interval-ms:900000}"
+    )
+    public void refresh() {
+        if (!properties.getRollup().isEnabled()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Boolean locked = jdbcTemplate
+                    .getJdbcTemplate()
+                    .queryForObject("select pg_try_advisory_xact_lock(?)", Boolean.class, ROLLUP_LOCK_KEY);
+                if (Boolean.TRUE.equals(locked)) {
+                    LocalDate start = resolveStartDay();
+                    refreshFrom(start);
+                    refreshBackfilledDays(start);
+                }
+            });
+        } catch (DataAccessException ex) {
+            log.warn("Audit rollup refresh failed: {}", ex.getMostSpecificCause().getMessage());
+        }
+    }
+
+    /**
+     * 重算 [start, 今天] 的汇总，返回写入的汇总行数。
+     */
+    int refreshFrom(LocalDate start) {
+        if (start == null) {
+            return 0;
+        }
+        return refreshDays(start, LocalDate.now(clock.withZone(zone())).plusDays(1));
+    }
+
+    /**
+     * 取出（并删除）旧数据搬迁登记的时间范围，重算其中早于 {@code refreshedFrom} 的日期；之后的日期本轮已经重算过。
+     */
+    int refreshBackfilledDays(LocalDate refreshedFrom) {
+        List<Map<String, Object>> ranges = jdbcTemplate
+            .getJdbcTemplate()
+            .queryForList("delete from audit_rollup_pending_range returning occurred_from, occurred_to");
+        LocalDate[] days = backfilledDays(ranges, zone());
+        if (days == null || (refreshedFrom != null && !days[0].isBefore(refreshedFrom))) {
+            return 0;
+        }
+        LocalDate end = refreshedFrom != null && refreshedFrom.isBefore(days[1].plusDays(1)) ? refreshedFrom : days[1].plusDays(1);
+        log.info("Audit rollup recomputing backfilled days {} to {}", days[0], end.minusDays(1));
+        return refreshDays(days[0], end);
+    }
+
+    /** 登记范围覆盖的首尾日期（含），没有登记时返回 null。 */
+    static LocalDate[] backfilledDays(List<Map<String, Object>> ranges, ZoneId zone) {
+        LocalDate first = null;
+        LocalDate last = null;
+        for (Map<String, Object> range : ranges) {
+            if (!(range.get("occurred_from") instanceof Timestamp from) || !(range.get("occurred_to") instanceof Timestamp to)) {
+                continue;
+            }
+            LocalDate fromDay = from.toInstant().atZone(zone).toLocalDate();
+            LocalDate toDay = to.toInstant().atZone(zone).toLocalDate();
+            first = first == null || fromDay.isBefore(first) ? fromDay : first;
+            last = last == null || toDay.isAfter(last) ? toDay : last;
+        }
+        return first == null ? null : new LocalDate[] { first, last };
+    }
+
+    /** 重算 [start, end) 的汇总。 */
+    private int refreshDays(LocalDate start, LocalDate end) {
+        ZoneId zone = zone();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("startDay", Date.valueOf(start))
+            .addValue("endDay", Date.valueOf(end))
+            .addValue("from", Timestamp.from(start.atStartOfDay(zone).toInstant()))
+            .addValue("to", Timestamp.from(end.atStartOfDay(zone).toInstant()))
+            .addValue("zone", zone.getId());
+        jdbcTemplate.update("delete from audit_entry_daily_rollup where day >= :startDay and day < :endDay", params);
+        int rows = jdbcTemplate.update(
+            "insert into audit_entry_daily_rollup (day, module_key, operation_code, result, entry_count, refreshed_at) " +
+            "select cast(e.occurred_at at time zone :zone as date), e.module_key, coalesce(e.operation_code, ''), e.result, count(*), now() " +
+            "from audit_entry e where e.occurred_at >= :from and e.occurred_at < :to " +
+            "group by 1, 2, 3, 4",
+            params
+        );
+        log.debug("Audit rollup refreshed {} to {} ({} rows)", start, end, rows);
+        return rows;
+    }
+
+    public List<DailyRollup> query(LocalDate from, LocalDate to, String moduleKey) {
+        StringBuilder sql = new StringBuilder(
+            "select day, module_key, operation_code, result, entry_count from audit_entry_daily_rollup where 1 = 1"
+        );
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (from != null) {
+            sql.append(" and day >= :from");
+            params.addValue("from", Date.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" and day <= :to");
+            params.addValue("to", Date.valueOf(to));
+        }
+        if (StringUtils.isNotBlank(moduleKey)) {
+            sql.append(" and module_key = :module");
+            params.addValue("module", moduleKey.trim());
+        }
+        sql.append(" order by day, module_key, operation_code, result");
+        return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) ->
+            new DailyRollup(
+                rs.getDate("day").toLocalDate(),
+                rs.getString("module_key"),
+                rs.getString("operation_code"),
+                rs.getString("result"),
+                rs.getLong("entry_count")
+            )
+        );
+    }
+
+    private LocalDate resolveStartDay() {
+        int recompute = Math.max(1, properties.getRollup().getRecomputeDays());
+        LocalDate recent = LocalDate.now(clock.withZone(zone())).minusDays(recompute - 1L);
+        Date lastDay = jdbcTemplate.getJdbcTemplate().queryForObject("select max(day) from audit_entry_daily_rollup", Date.class);
+        if (lastDay != null) {
+            LocalDate last = lastDay.toLocalDate();
+            return last.isBefore(recent) ? last : recent;
+        }
+        Timestamp earliest = jdbcTemplate.getJdbcTemplate().queryForObject("select min(occurred_at) from audit_entry", Timestamp.class);
+        return earliest == null ? null : earliest.toInstant().atZone(zone()).toLocalDate();
+    }
+
+    private ZoneId zone() {
+        String configured = properties.getRollup().getZone();
+        return StringUtils.isNotBlank(configured) ? ZoneId.of(configured.trim()) : ZoneId.systemDefault();
+    }
+}
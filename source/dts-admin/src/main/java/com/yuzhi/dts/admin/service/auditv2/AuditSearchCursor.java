@@ -0,0 +1,35 @@
+package com.yuzhi.dts.admin.service.auditv2;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * 审计检索游标：上一页最后一条记录的 (occurred_at, id)，以 URL 安全的 Base64 传给前端。
+ */
+public record AuditSearchCursor(Instant occurredAt, long id) {
+    public String encode() {
+        String raw = occurredAt.getEpochSecond() + ":" + occurredAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * 解析游标，格式不合法时返回 {@code null}（按首页处理）。
+     */
+    public static AuditSearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.US_ASCII);
+            String[] parts = raw.split(":");
+            if (parts.length != 3) {
+                return null;
+            }
+            Instant at = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new AuditSearchCursor(at, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | java.time.DateTimeException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.yuzhi.dts.admin.service.auditv2;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+/**
+ * 审计检索 SQL 构造：关键字类字段统一使用 {@code lower(col) LIKE}，与 pg_trgm 表达式索引一一对应；
+ * 目标对象过滤改为 EXISTS 子查询，主查询无需 DISTINCT；按 (occurred_at, id) 的游标翻页避免深分页扫描。
+ */
+final class AuditSearchQuery {
+
+    static final String TABLE = "audit_entry";
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+        "occurredAt", "occurred_at",
+        "id", "id",
+        "actorId", "actor_id",
+        "moduleKey", "module_key",
+        "sourceSystem", "source_system",
+        "operationKind", "operation_kind",
+        "result", "result"
+    );
+    private static final Pattern IPV4_LITERAL = Pattern.compile("^\\d{1,3}(\\.\\d{1,3}){3}(/\\d{1,2})?$");
+    private static final Pattern IPV6_LITERAL = Pattern.compile("^[0-9a-fA-F:]*:[0-9a-fA-F:.]*(/\\d{1,3})?$");
+
+    private final List<String> predicates = new ArrayList<>();
+    private final MapSqlParameterSource params = new MapSqlParameterSource();
+    private final String sortColumn;
+    private final boolean ascending;
+
+    private AuditSearchQuery(String sortColumn, boolean ascending) {
+        this.sortColumn = sortColumn;
+        this.ascending = ascending;
+    }
+
+    static AuditSearchQuery of(AuditSearchCriteria criteria, Sort sort) {
+        Sort.Order order = sort != null ? sort.stream().findFirst().orElse(null) : null;
+        String column = order != null ? SORT_COLUMNS.getOrDefault(order.getProperty(), "occurred_at") : "occurred_at";
+        boolean asc = order != null && order.isAscending();
+        AuditSearchQuery query = new AuditSearchQuery(column, asc);
+        if (criteria != null) {
+            query.apply(criteria);
+        }
+        return query;
+    }
+
+    private void apply(AuditSearchCriteria criteria) {
+        if (hasText(criteria.actor())) {
+            like("actor", criteria.actor(), "e.actor_id", "e.actor_name");
+        }
+        if (hasText(criteria.module())) {
+            like("module", criteria.module(), "e.module_key");
+        }
+        if (hasText(criteria.operationKind())) {
+            like("operationKind", criteria.operationKind(), "e.operation_kind");
+        }
+        if (hasText(criteria.action())) {
+            like("action", criteria.action(), "e.operation_name", "e.operation_code", "e.summary");
+        }
+        if (hasText(criteria.operationGroup())) {
+            like("operationGroup", criteria.operationGroup(), "e.module_key");
+        }
+        if (hasText(criteria.sourceSystem())) {
+            like("sourceSystem", criteria.sourceSystem(), "e.source_system");
+        }
+        if (hasText(criteria.result())) {
+            like("result", criteria.result(), "e.result");
+        }
+        if (criteria.from() != null) {
+            predicates.add("e.occurred_at >= :from");
+            params.addValue("from", Timestamp.from(criteria.from()));
+        }
+        if (criteria.to() != null) {
+            predicates.add("e.occurred_at <= :to");
+            params.addValue("to", Timestamp.from(truncateToEndOfSecond(criteria.to())));
+        }
+        if (hasText(criteria.keyword())) {
+            like("keyword", criteria.keyword(), "e.summary", "e.operation_name", "e.request_uri");
+        }
+        if (hasText(criteria.clientIp())) {
+            String ip = criteria.clientIp().trim();
+            if (isIpLiteral(ip)) {
+                // 完整地址或网段走 inet 包含运算，可用 GiST(inet_ops) 索引
+                predicates.add("e.client_ip <<= cast(:clientIp as inet)");
+                params.addValue("clientIp", ip);
+            } else {
+                predicates.add("lower(host(e.client_ip)) like :clientIp");
+                params.addValue("clientIp", likePattern(ip));
+            }
+        }
+        if (hasText(criteria.targetTable()) || hasText(criteria.targetId())) {
+            StringBuilder exists = new StringBuilder("exists (select 1 from audit_entry_target t where t.entry_id = e.id and t.entry_occurred_at = e.occurred_at");
+            if (hasText(criteria.targetTable())) {
+                exists.append(" and lower(t.target_table) like :targetTable");
+                params.addValue("targetTable", likePattern(criteria.targetTable()));
+            }
+            if (hasText(criteria.targetId())) {
+                exists.append(" and lower(t.target_id) like :targetId");
+                params.addValue("targetId", likePattern(criteria.targetId()));
+            }
+            predicates.add(exists.append(')').toString());
+        }
+        Set<String> allowed = criteria.allowedActors();
+        if (!allowed.isEmpty()) {
+            predicates.add("e.actor_id in (:allowedActors)");
+            params.addValue("allowedActors", allowed);
+        }
+        Set<String> excluded = criteria.excludedActors();
+        if (!excluded.isEmpty()) {
+            predicates.add("e.actor_id not in (:excludedActors)");
+            params.addValue("excludedActors", excluded);
+        }
+    }
+
+    boolean hasFilters() {
+        return !predicates.isEmpty();
+    }
+
+    /**
+     * 仅当按时间排序时才能使用 (occurred_at, id) 游标。
+     */
+    boolean supportsCursor() {
+        return "occurred_at".equals(sortColumn);
+    }
+
+    MapSqlParameterSource params() {
+        return params;
+    }
+
+    /**
+     * 取一页的 id：有游标时走 keyset，否则退化为 offset；多取一行用于判断是否还有下一页。
+     */
+    String pageIdsSql(AuditSearchCursor cursor, long offset, int limit) {
+        List<String> where = new ArrayList<>(predicates);
+        if (cursor != null && supportsCursor()) {
+            where.add("(e.occurred_at, e.id) " + (ascending ? ">" : "<") + " (:cursorAt, :cursorId)");
+            params.addValue("cursorAt", Timestamp.from(cursor.occurredAt()));
+            params.addValue("cursorId", cursor.id());
+        }
+        String direction = ascending ? "asc" : "desc";
+        StringBuilder sql = new StringBuilder("select e.id, e.occurred_at from ")
+            .append(TABLE)
+            .append(" e")
+            .append(whereClause(where))
+            .append(" order by e.")
+            .append(sortColumn)
+            .append(' ')
+            .append(direction);
+        if (!"id".equals(sortColumn)) {
+            sql.append(", e.id ").append(direction);
+        }
+        sql.append(" limit :limit");
+        params.addValue("limit", limit);
+        if (cursor == null && offset > 0) {
+            sql.append(" offset :offset");
+            params.addValue("offset", offset);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * 封顶计数：最多扫描 cap + 1 行，超过即可判定“超过上限”。
+     */
+    String cappedCountSql(int cap) {
+        params.addValue("countCap", cap + 1);
+        return "select count(*) from (select 1 from " + TABLE + " e" + whereClause(predicates) + " limit :countCap) capped";
+    }
+
+    /**
+     * 无筛选条件时使用统计信息估算总行数（兼容分区表：累加全部子分区）。
+     */
+    static String estimateSql() {
+        return (
+            "select coalesce(sum(greatest(c.reltuples, 0)), 0) from pg_class c where c.oid = to_regclass('" +
+            TABLE +
+            "') or c.oid in (select i.inhrelid from pg_inherits i where i.inhparent = to_regclass('" +
+            TABLE +
+            "'))"
+        );
+    }
+
+    private void like(String name, String value, String... columns) {
+        params.addValue(name, likePattern(value));
+        if (columns.length == 1) {
+            predicates.add("lower(" + columns[0] + ") like :" + name);
+            return;
+        }
+        List<String> parts = new ArrayList<>(columns.length);
+        for (String column : columns) {
+            parts.add("lower(" + column + ") like :" + name);
+        }
+        predicates.add("(" + String.join(" or ", parts) + ")");
+    }
+
+    private static String whereClause(List<String> where) {
+        return where.isEmpty() ? "" : " where " + String.join(" and ", where);
+    }
+
+    /**
+     * 判断输入是否为 IP 字面量或网段；只做文本解析，不触发 DNS 查询。
+     */
+    static boolean isIpLiteral(String value) {
+        int slash = value.indexOf('/');
+        String address = slash >= 0 ? value.substring(0, slash) : value;
+        if (IPV4_LITERAL.matcher(value).matches()) {
+            for (String octet : address.split("\\.")) {
+                if (Integer.parseInt(octet) > 255) {
+                    return false;
+                }
+            }
+            return slash < 0 || Integer.parseInt(value.substring(slash + 1)) <= 32;
+        }
+        if (address.indexOf(':') < 0 || !IPV6_LITERAL.matcher(value).matches()) {
+            return false;
+        }
+        try {
+            // 含冒号的输入只会按 IPv6 字面量解析，不会走 DNS
+            InetAddress.getByName(address);
+            return slash < 0 || Integer.parseInt(value.substring(slash + 1)) <= 128;
+        } catch (UnknownHostException | NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    static String likePattern(String value) {
+        String sanitized = value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+        if (sanitized.isEmpty()) {
+            return "%";
+        }
+        String escaped = sanitized.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    private static Instant truncateToEndOfSecond(Instant instant) {
+        return instant.plusNanos(999_999_999 - (instant.getNano() % 1_000_000_000));
+    }
+}
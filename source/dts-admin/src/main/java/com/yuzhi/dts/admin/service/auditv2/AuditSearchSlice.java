@@ -0,0 +1,11 @@
+package com.yuzhi.dts.admin.service.auditv2;
+
+import java.util.List;
+
+/**
+ * 审计检索结果页。
+ *
+ * @param total      总数；{@code totalExact} 为 false 时为估算值或封顶值
+ * @param nextCursor 下一页游标，没有更多数据时为 {@code null}
+ */
+public record AuditSearchSlice(List<AuditEntryView> content, long total, boolean totalExact, boolean hasNext, String nextCursor) {}
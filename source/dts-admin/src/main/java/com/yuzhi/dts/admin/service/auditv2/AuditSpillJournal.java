@@ -0,0 +1,242 @@
+package com.yuzhi.dts.admin.service.auditv2;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 审计溢出日志：写库跟不上或失败时把待写审计按行（JSON）追加到本地文件，由写入线程稍后重放。
+ * <p>
+ * 追加写入当前的 {@code .part} 文件；重放前先封存为 {@code .ndjson}，再按文件名顺序逐批写库，
+ * 写完删除。某批失败时把该批及其后的行另存为新文件，已写入的批次不会重复。
+ * <p>
+ * 日志含完整审计内容，目录与文件在 POSIX 文件系统上仅属主可访问（rwx------ / rw-------）。
+ */
+final class AuditSpillJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditSpillJournal.class);
+    private static final String ACTIVE_SUFFIX = ".part";
+    private static final String SEALED_SUFFIX = ".ndjson";
+    private static final Set<PosixFilePermission> DIRECTORY_PERMISSIONS = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> FILE_PERMISSIONS = PosixFilePermissions.fromString("rw-------");
+
+    interface BatchWriter {
+        void write(List<AuditRecorder.ResolvedAudit> batch);
+    }
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong sequence = new AtomicLong();
+    private Path activeFile;
+    private BufferedWriter activeWriter;
+    private volatile boolean pending;
+
+    AuditSpillJournal(Path directory, ObjectMapper objectMapper) throws IOException {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+        prepareDirectory(directory);
+        // 上次进程退出时未封存的文件直接封存，等待重放
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(ACTIVE_SUFFIX)).toList()) {
+                seal(file);
+            }
+        }
+        this.pending = !sealedFiles().isEmpty();
+    }
+
+    Path directory() {
+        return directory;
+    }
+
+    boolean hasPending() {
+        return pending;
+    }
+
+    synchronized boolean append(List<AuditRecorder.ResolvedAudit> audits) {
+        if (audits.isEmpty()) {
+            return true;
+        }
+        try {
+            if (activeWriter == null) {
+                activeFile = directory.resolve(nextName(ACTIVE_SUFFIX));
+                activeWriter = newWriter(activeFile);
+            }
+            for (AuditRecorder.ResolvedAudit audit : audits) {
+                activeWriter.write(objectMapper.writeValueAsString(audit));
+                activeWriter.newLine();
+            }
+            activeWriter.flush();
+            pending = true;
+            return true;
+        } catch (IOException ex) {
+            log.error("Failed to spill {} audit entries to {}: {}", audits.size(), directory, ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 封存当前文件并重放全部已封存文件；返回写入的条数。写库异常向上抛出，剩余记录保留在日志中。
+     */
+    int replay(int batchSize, BatchWriter writer) throws IOException {
+        synchronized (this) {
+            closeActive();
+        }
+        int written = 0;
+        for (Path file : sealedFiles()) {
+            written += replayFile(file, Math.max(1, batchSize), writer);
+        }
+        synchronized (this) {
+            pending = activeWriter != null || !sealedFiles().isEmpty();
+        }
+        return written;
+    }
+
+    synchronized void close() {
+        try {
+            closeActive();
+        } catch (IOException ex) {
+            log.warn("Failed to close audit spill journal: {}", ex.getMessage());
+        }
+    }
+
+    private int replayFile(Path file, int batchSize, BatchWriter writer) throws IOException {
+        int written = 0;
+        List<String> lines = new ArrayList<>(batchSize);
+        List<AuditRecorder.ResolvedAudit> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                AuditRecorder.ResolvedAudit audit = parse(file, line);
+                if (audit == null) {
+                    continue;
+                }
+                lines.add(line);
+                batch.add(audit);
+                if (batch.size() >= batchSize) {
+                    written += writeOrPreserve(file, reader, lines, batch, writer);
+                }
+            }
+            written += writeOrPreserve(file, reader, lines, batch, writer);
+        }
+        Files.deleteIfExists(file);
+        return written;
+    }
+
+    private int writeOrPreserve(
+        Path file,
+        BufferedReader remaining,
+        List<String> lines,
+        List<AuditRecorder.ResolvedAudit> batch,
+        BatchWriter writer
+    ) throws IOException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            writer.write(List.copyOf(batch));
+        } catch (RuntimeException ex) {
+            Path rest = directory.resolve(nextName(SEALED_SUFFIX + ".tmp"));
+            try (BufferedWriter out = newWriter(rest)) {
+                for (String pendingLine : lines) {
+                    out.write(pendingLine);
+                    out.newLine();
+                }
+                String line;
+                while ((line = remaining.readLine()) != null) {
+                    out.write(line);
+                    out.newLine();
+                }
+            }
+            remaining.close();
+            // 先落下剩余记录再删除原文件，任何时刻都至少有一份
+            Files.move(rest, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            throw ex;
+        }
+        int size = batch.size();
+        lines.clear();
+        batch.clear();
+        return size;
+    }
+
+    private AuditRecorder.ResolvedAudit parse(Path file, String line) {
+        try {
+            return objectMapper.readValue(line, AuditRecorder.ResolvedAudit.class);
+        } catch (IOException | RuntimeException ex) {
+            // 进程崩溃时可能留下半行，跳过无法解析的记录
+            log.warn("Skip unreadable audit journal line in {}: {}", file.getFileName(), ex.getMessage());
+            return null;
+        }
+    }
+
+    private void closeActive() throws IOException {
+        if (activeWriter == null) {
+            return;
+        }
+        activeWriter.close();
+        activeWriter = null;
+        seal(activeFile);
+        activeFile = null;
+    }
+
+    private void seal(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        Path sealed = file.resolveSibling(name.substring(0, name.length() - ACTIVE_SUFFIX.length()) + SEALED_SUFFIX);
+        Files.move(file, sealed, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private List<Path> sealedFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SEALED_SUFFIX)).sorted().toList();
+        }
+    }
+
+    private String nextName(String suffix) {
+        return String.format("audit-spill-%013d-%06d%s", System.currentTimeMillis(), sequence.incrementAndGet() % 1_000_000, suffix);
+    }
+
+    private static void prepareDirectory(Path dir) throws IOException {
+        if (!isPosix(dir)) {
+            Files.createDirectories(dir);
+            return;
+        }
+        if (Files.notExists(dir)) {
+            Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(DIRECTORY_PERMISSIONS));
+        }
+        // 已存在的目录同样收紧为仅属主可访问
+        Files.setPosixFilePermissions(dir, DIRECTORY_PERMISSIONS);
+    }
+
+    private static BufferedWriter newWriter(Path file) throws IOException {
+        if (isPosix(file.getParent())) {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(FILE_PERMISSIONS));
+        } else {
+            Files.createFile(file);
+        }
+        return Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.WRITE);
+    }
+
+    private static boolean isPosix(Path path) {
+        FileSystem fs = path == null ? FileSystems.getDefault() : path.getFileSystem();
+        return fs.supportedFileAttributeViews().contains("posix");
+    }
+}
@@ -0,0 +1,155 @@
+package com.yuzhi.dts.admin.service.auditv2;
+
+import com.yuzhi.dts.common.observability.OperationMetrics;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 审计异步写入：请求线程只把记录放入有界缓冲区，由单独的写入线程按批落库。
+ * <p>
+ * 缓冲区满或写库失败时，配置了溢出日志则追加到本地文件并在稍后重放（不丢记录），
+ * 否则丢弃并计数。关闭时先写完缓冲区，写不进去的记录落到溢出日志。
+ */
+final class AuditWritePipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditWritePipeline.class);
+    private static final long IDLE_POLL_MS = 200;
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private final BlockingQueue<AuditRecorder.ResolvedAudit> buffer;
+    private final AuditSpillJournal.BatchWriter writer;
+    private final AuditSpillJournal journal;
+    private final OperationMetrics metrics;
+    private final int capacity;
+    private final int batchSize;
+    private final long replayIntervalNanos;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private long nextReplayAt;
+
+    AuditWritePipeline(
+        int capacity,
+        int batchSize,
+        long replayIntervalMs,
+        AuditSpillJournal journal,
+        AuditSpillJournal.BatchWriter writer,
+        OperationMetrics metrics
+    ) {
+        this.capacity = Math.max(1, capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.replayIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, replayIntervalMs));
+        this.buffer = new ArrayBlockingQueue<>(this.capacity);
+        this.journal = journal;
+        this.writer = writer;
+        this.metrics = metrics;
+        this.nextReplayAt = System.nanoTime();
+        metrics.registry().gauge("dts.audit.pipeline.queue", buffer, BlockingQueue::size);
+        this.thread = new Thread(this::runLoop, "dts-admin-audit-writer");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * 非阻塞入队；缓冲区已满时按溢出策略处理。返回 false 表示记录被丢弃。
+     */
+    boolean offer(AuditRecorder.ResolvedAudit audit) {
+        if (running && buffer.offer(audit)) {
+            return true;
+        }
+        return overflow(List.of(audit), "full");
+    }
+
+    int pendingInBuffer() {
+        return buffer.size();
+    }
+
+    void close() {
+        // 不中断写入线程，以免打断进行中的批量写库；空闲等待最多 IDLE_POLL_MS
+        running = false;
+        try {
+            thread.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        List<AuditRecorder.ResolvedAudit> rest = new ArrayList<>();
+        buffer.drainTo(rest);
+        if (!rest.isEmpty()) {
+            overflow(rest, "shutdown");
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private void runLoop() {
+        List<AuditRecorder.ResolvedAudit> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                AuditRecorder.ResolvedAudit first = running ? buffer.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS) : buffer.poll();
+                if (first != null) {
+                    batch.add(first);
+                    buffer.drainTo(batch, batchSize - 1);
+                    writeOrOverflow(batch);
+                    batch.clear();
+                }
+                if (running && buffer.size() < capacity / 2) {
+                    maybeReplay();
+                }
+            } catch (InterruptedException ex) {
+                // 写入线程只由 close() 通过 running 标志停止，忽略外部中断
+            } catch (RuntimeException ex) {
+                log.error("Audit writer loop failed: {}", ex.getMessage(), ex);
+            }
+        }
+    }
+
+    private void writeOrOverflow(List<AuditRecorder.ResolvedAudit> batch) {
+        try {
+            writer.write(List.copyOf(batch));
+            metrics.increment("dts.audit.pipeline.written", batch.size());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to write {} audit entries: {}", batch.size(), ex.getMessage());
+            overflow(batch, "write_failed");
+            // 写库失败后推迟重放，避免数据库不可用时反复重试
+            nextReplayAt = System.nanoTime() + replayIntervalNanos;
+        }
+    }
+
+    private boolean overflow(List<AuditRecorder.ResolvedAudit> audits, String reason) {
+        if (journal != null && journal.append(audits)) {
+            metrics.increment("dts.audit.pipeline.spilled", audits.size(), "reason", reason);
+            return true;
+        }
+        metrics.increment("dts.audit.pipeline.dropped", audits.size(), "reason", reason);
+        if ("full".equals(reason)) {
+            log.debug("Dropped audit entry, buffer full");
+        } else {
+            log.warn("Dropped {} audit entries ({})", audits.size(), reason);
+        }
+        return false;
+    }
+
+    private void maybeReplay() {
+        if (journal == null || !journal.hasPending() || System.nanoTime() - nextReplayAt < 0) {
+            return;
+        }
+        nextReplayAt = System.nanoTime() + replayIntervalNanos;
+        try {
+            int replayed = journal.replay(batchSize, writer);
+            if (replayed > 0) {
+                metrics.increment("dts.audit.pipeline.replayed", replayed);
+                log.info("Replayed {} spilled audit entries from {}", replayed, journal.directory());
+            }
+        } catch (Exception ex) {
+            log.warn("Audit journal replay deferred: {}", ex.getMessage());
+        }
+    }
+}
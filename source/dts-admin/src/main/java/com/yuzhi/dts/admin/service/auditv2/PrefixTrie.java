@@ -0,0 +1,57 @@
+package com.yuzhi.dts.admin.service.auditv2;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 前缀别名字典树：查找耗时只与待匹配键的长度有关，与别名数量无关；返回最长匹配前缀对应的值。
+ * <p>
+ * 构建完成后只读，可在线程间安全共享；同一前缀重复插入时保留先插入的值。
+ */
+final class PrefixTrie<V> {
+
+    private final Node<V> root = new Node<>();
+    private int size;
+
+    void put(String prefix, V value) {
+        if (prefix == null || prefix.isEmpty() || value == null) {
+            return;
+        }
+        Node<V> node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.children.computeIfAbsent(prefix.charAt(i), c -> new Node<>());
+        }
+        if (node.value == null) {
+            node.value = value;
+            size++;
+        }
+    }
+
+    V longestPrefixOf(String key) {
+        if (key == null) {
+            return null;
+        }
+        Node<V> node = root;
+        V match = null;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.get(key.charAt(i));
+            if (node == null) {
+                break;
+            }
+            if (node.value != null) {
+                match = node.value;
+            }
+        }
+        return match;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static final class Node<V> {
+
+        private final Map<Character, Node<V>> children = new HashMap<>(4);
+        private V value;
+    }
+}
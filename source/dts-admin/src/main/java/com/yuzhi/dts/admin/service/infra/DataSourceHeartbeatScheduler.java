@@ -0,0 +1,279 @@
+package com.yuzhi.dts.admin.service.infra;
+
+import com.yuzhi.dts.admin.config.InfraHeartbeatProperties;
+import com.yuzhi.dts.admin.domain.InfraDataSource;
+import com.yuzhi.dts.admin.repository.InfraDataSourceRepository;
+import com.yuzhi.dts.admin.service.infra.InfraAdminService.ConnectivityResult;
+import com.yuzhi.dts.admin.service.infra.dto.DataSourceHeartbeatDto;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 数据源心跳：在独立线程池中并行探测，单个探测超过截止时间即按失败处理，不会拖住调度线程；
+ * 持续失败的数据源按指数退避降低探测频率；只有状态真正变化（或心跳时间过旧）的数据源才批量写库，
+ * 状态变化同时推送给业务平台的 Inceptor 数据源注册表。
+ * <p>
+ * 连续失败次数与下次探测时间保存在内存中：状态不变的失败不写库，每轮重新加载的实体上的计数可能落后，
+ * 退避以内存计数为准（取二者较大值），写库时一并带上最新计数。
+ */
+@Service
+public class DataSourceHeartbeatScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DataSourceHeartbeatScheduler.class);
+    private static final int MAX_BACKOFF_EXPONENT = 20;
+
+    private final InfraAdminService infraAdminService;
+    private final InfraDataSourceRepository dataSourceRepository;
+    private final PlatformInfraClient platformInfraClient;
+    private final InfraHeartbeatProperties properties;
+    private final TransactionOperations transactionOperations;
+    private final Function<InfraDataSource, ConnectivityResult> prober;
+    private final Clock clock;
+    private final ThreadPoolExecutor executor;
+
+    private final ConcurrentMap<UUID, Backoff> backoff = new ConcurrentHashMap<>();
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    public DataSourceHeartbeatScheduler(
+        InfraAdminService infraAdminService,
+        InfraDataSourceRepository dataSourceRepository,
+        PlatformInfraClient platformInfraClient,
+        InfraHeartbeatProperties properties,
+        PlatformTransactionManager transactionManager
+    ) {
+        this(
+            infraAdminService,
+            dataSourceRepository,
+            platformInfraClient,
+            properties,
+            new TransactionTemplate(transactionManager),
+            infraAdminService::probe,
+            Clock.systemUTC()
+        );
+    }
+
+    DataSourceHeartbeatScheduler(
+        InfraAdminService infraAdminService,
+        InfraDataSourceRepository dataSourceRepository,
+        PlatformInfraClient platformInfraClient,
+        InfraHeartbeatProperties properties,
+        TransactionOperations transactionOperations,
+        Function<InfraDataSource, ConnectivityResult> prober,
+        Clock clock
+    ) {
+        this.infraAdminService = infraAdminService;
+        this.dataSourceRepository = dataSourceRepository;
+        this.platformInfraClient = platformInfraClient;
+        this.properties = properties;
+        this.transactionOperations = transactionOperations;
+        this.prober = prober;
+        this.clock = clock;
+        int threads = Math.max(1, properties.getParallelism());
+        this.executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(1024),
+            new CustomizableThreadFactory("infra-heartbeat-"),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Scheduled(initialDelayString = "${dts.infra.heartbeat.initial-delay-ms:15000}", fixedDelayString = "${dts.infra.heartbeat.interval-ms:60000}")
+    public void heartbeat() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (infraAdminService != null && !infraAdminService.isSchemaReady()) {
+            LOG.debug("Infra data source schema not yet ready, skip heartbeat cycle");
+            return;
+        }
+        runCycle();
+    }
+
+    /**
+     * 执行一轮心跳，返回本轮实际探测的数据源数量。
+     */
+    int runCycle() {
+        List<InfraDataSource> sources;
+        try {
+            sources = dataSourceRepository.findAll();
+        } catch (DataAccessException ex) {
+            LOG.debug("Infra data source repository unavailable, skip heartbeat: {}", ex.getMessage());
+            return 0;
+        }
+        Instant now = clock.instant();
+        Map<InfraDataSource, CompletableFuture<ConnectivityResult>> probes = new LinkedHashMap<>();
+        for (InfraDataSource source : sources) {
+            if (source.getId() == null || !isDue(source, now) || !inFlight.add(source.getId())) {
+                continue;
+            }
+            try {
+                probes.put(source, submitProbe(source));
+            } catch (RejectedExecutionException ex) {
+                inFlight.remove(source.getId());
+                LOG.debug("Heartbeat queue full, postpone probe of {}", source.getName());
+            }
+        }
+        if (probes.isEmpty()) {
+            return 0;
+        }
+        List<InfraDataSource> toPersist = new ArrayList<>();
+        List<DataSourceHeartbeatDto> changes = new ArrayList<>();
+        for (Map.Entry<InfraDataSource, CompletableFuture<ConnectivityResult>> entry : probes.entrySet()) {
+            InfraDataSource source = entry.getKey();
+            ConnectivityResult result = entry.getValue().join();
+            boolean statusChanged = apply(source, result, now);
+            if (statusChanged || isPersistedHeartbeatStale(source, now)) {
+                source.setLastHeartbeatAt(now);
+                source.setUpdatedAt(now);
+                toPersist.add(source);
+            }
+            if (statusChanged) {
+                changes.add(toHeartbeat(source, result));
+                LOG.info("Data source {} heartbeat changed to {}", source.getName(), source.getHeartbeatStatus());
+            }
+        }
+        if (!toPersist.isEmpty()) {
+            try {
+                transactionOperations.executeWithoutResult(status -> dataSourceRepository.saveAll(toPersist));
+            } catch (DataAccessException ex) {
+                LOG.warn("Failed to persist heartbeat results for {} data sources: {}", toPersist.size(), ex.getMessage());
+            }
+        }
+        if (infraAdminService != null) {
+            infraAdminService.applyHeartbeat(new ArrayList<>(probes.keySet()));
+        }
+        platformInfraClient.pushHeartbeats(changes);
+        return probes.size();
+    }
+
+    private CompletableFuture<ConnectivityResult> submitProbe(InfraDataSource source) {
+        long deadline = Math.max(1L, properties.getDeadlineMs());
+        UUID id = source.getId();
+        CompletableFuture<ConnectivityResult> task = CompletableFuture.supplyAsync(() -> prober.apply(source), executor);
+        // 以真实探测结束为准释放占位，超时挂起的探测不会在下一轮被重复提交
+        task.whenComplete((result, ex) -> inFlight.remove(id));
+        return task
+            .exceptionally(ex -> new ConnectivityResult(false, 0L, "心跳探测异常", rootMessage(ex)))
+            .completeOnTimeout(
+                new ConnectivityResult(false, deadline, "心跳探测超时", "deadline " + deadline + "ms exceeded"),
+                deadline,
+                TimeUnit.MILLISECONDS
+            );
+    }
+
+    /**
+     * 按探测结果更新实体字段，返回心跳状态/可用状态/错误信息是否发生变化。
+     */
+    private boolean apply(InfraDataSource source, ConnectivityResult result, Instant now) {
+        String previousHeartbeat = source.getHeartbeatStatus();
+        String previousStatus = source.getStatus();
+        String previousError = source.getLastError();
+        source.setLastHeartbeatAt(now);
+        if (result.success()) {
+            source.setHeartbeatStatus(InfraAdminService.HEARTBEAT_UP);
+            source.setHeartbeatFailureCount(0);
+            source.setStatus(InfraAdminService.STATUS_ACTIVE);
+            source.setLastError(null);
+            source.setLastTestElapsedMillis(result.elapsedMillis());
+            backoff.remove(source.getId());
+        } else {
+            Backoff previous = backoff.get(source.getId());
+            int persisted = source.getHeartbeatFailureCount() != null ? source.getHeartbeatFailureCount() : 0;
+            int failures = InfraAdminService.incrementFailure(Math.max(persisted, previous != null ? previous.failures() : 0));
+            source.setHeartbeatStatus(InfraAdminService.HEARTBEAT_DOWN);
+            source.setHeartbeatFailureCount(failures);
+            source.setStatus(InfraAdminService.STATUS_INACTIVE);
+            source.setLastError(result.message());
+            backoff.put(source.getId(), new Backoff(failures, now.plus(backoffDelay(failures))));
+        }
+        return (
+            !Objects.equals(previousHeartbeat, source.getHeartbeatStatus()) ||
+            !Objects.equals(previousStatus, source.getStatus()) ||
+            !Objects.equals(previousError, source.getLastError())
+        );
+    }
+
+    private boolean isDue(InfraDataSource source, Instant now) {
+        Integer failures = source.getHeartbeatFailureCount();
+        if (failures == null || failures == 0) {
+            // 人工测试连接成功后失败计数会被清零，此时取消退避
+            backoff.remove(source.getId());
+            return true;
+        }
+        Backoff state = backoff.get(source.getId());
+        return state == null || !now.isBefore(state.dueAt());
+    }
+
+    private boolean isPersistedHeartbeatStale(InfraDataSource source, Instant now) {
+        Instant persisted = source.getUpdatedAt();
+        return persisted == null || Duration.between(persisted, now).toMillis() >= properties.getPersistIntervalMs();
+    }
+
+    /**
+     * 连续失败 n 次后的下一次探测间隔：interval * 2^(n-1)，不超过 maxBackoff。
+     */
+    Duration backoffDelay(int failures) {
+        long interval = Math.max(1L, properties.getIntervalMs());
+        int exponent = Math.min(Math.max(failures, 1) - 1, MAX_BACKOFF_EXPONENT);
+        long delay = interval << exponent;
+        return Duration.ofMillis(Math.min(delay, Math.max(interval, properties.getMaxBackoffMs())));
+    }
+
+    private DataSourceHeartbeatDto toHeartbeat(InfraDataSource source, ConnectivityResult result) {
+        return new DataSourceHeartbeatDto(
+            source.getId(),
+            source.getType(),
+            source.getStatus(),
+            source.getHeartbeatStatus(),
+            source.getHeartbeatFailureCount(),
+            source.getLastError(),
+            source.getLastHeartbeatAt(),
+            result.elapsedMillis()
+        );
+    }
+
+    private static String rootMessage(Throwable ex) {
+        Throwable cause = ex;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record Backoff(int failures, Instant dueAt) {}
+}
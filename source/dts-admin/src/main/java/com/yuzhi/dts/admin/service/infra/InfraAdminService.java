@@ -1,5 +1,6 @@
 package com.yuzhi.dts.admin.service.infra;
 
+import com.yuzhi.dts.admin.config.InfraHeartbeatProperties;
 import com.yuzhi.dts.admin.domain.InfraDataSource;
 import com.yuzhi.dts.admin.repository.InfraDataSourceRepository;
 import com.yuzhi.dts.admin.service.infra.dto.ConnectionTestLogDto;
@@ -36,10 +37,8 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -49,10 +48,10 @@ public class InfraAdminService {
     private static final Logger LOG = LoggerFactory.getLogger(InfraAdminService.class);
 
     private static final int MAX_LOGS = 50;
-    private static final String STATUS_ACTIVE = "ACTIVE";
-    private static final String STATUS_INACTIVE = "INACTIVE";
-    private static final String HEARTBEAT_UP = "UP";
-    private static final String HEARTBEAT_DOWN = "DOWN";
+    static final String STATUS_ACTIVE = "ACTIVE";
+    static final String STATUS_INACTIVE = "INACTIVE";
+    static final String HEARTBEAT_UP = "UP";
+    static final String HEARTBEAT_DOWN = "DOWN";
     private static final String HEARTBEAT_UNKNOWN = "UNKNOWN";
     private static final long RELOAD_RETRY_DELAY_MS = 5000L;
 
@@ -60,8 +59,7 @@ public class InfraAdminService {
     private final InfraDataSourceRepository dataSourceRepository;
     private final InfraSecretService secretService;
     private final JdbcTemplate jdbcTemplate;
-    private final boolean heartbeatEnabled;
-    private final long heartbeatTimeoutMs;
+    private final InfraHeartbeatProperties heartbeatProperties;
 
     private final ConcurrentMap<UUID, InfraDataSourceDto> cache = new ConcurrentHashMap<>();
     private final ConcurrentLinkedDeque<ConnectionTestLogDto> testLogs = new ConcurrentLinkedDeque<>();
@@ -81,15 +79,13 @@ public class InfraAdminService {
         InfraDataSourceRepository dataSourceRepository,
         InfraSecretService secretService,
         JdbcTemplate jdbcTemplate,
-        @Value("${dts.infra.heartbeat.enabled:true}") boolean heartbeatEnabled,
-        @Value("${dts.infra.heartbeat.timeout-ms:5000}") long heartbeatTimeoutMs
+        InfraHeartbeatProperties heartbeatProperties
     ) {
         this.platformInfraClient = platformInfraClient;
         this.dataSourceRepository = dataSourceRepository;
         this.secretService = secretService;
         this.jdbcTemplate = jdbcTemplate;
-        this.heartbeatEnabled = heartbeatEnabled;
-        this.heartbeatTimeoutMs = heartbeatTimeoutMs;
+        this.heartbeatProperties = heartbeatProperties;
     }
 
     @PostConstruct
@@ -396,51 +392,25 @@ public class InfraAdminService {
             .collect(Collectors.toList());
     }
 
-    @Scheduled(initialDelayString = "${dts.infra.heartbeat.initial-delay-ms:15000}", fixedDelayString = "${dts.infra.heartbeat.interval-ms:60000}")
-    public void heartbeat() {
-        if (!heartbeatEnabled) {
-            return;
-        }
-        if (!schemaReady.get()) {
-            LOG.debug("Infra data source schema not yet ready, skip heartbeat cycle");
-            return;
-        }
-        List<InfraDataSource> sources;
-        try {
-            sources = dataSourceRepository.findAll();
-        } catch (DataAccessException ex) {
-            LOG.debug("Infra data source repository unavailable, skip heartbeat: {}", ex.getMessage());
-            LOG.trace("Infra data source repository not ready during heartbeat", ex);
+    boolean isSchemaReady() {
+        return schemaReady.get();
+    }
+
+    /**
+     * 心跳探测结果回写内存缓存（持久化由 {@link DataSourceHeartbeatScheduler} 按变化批量完成）。
+     */
+    void applyHeartbeat(List<InfraDataSource> probed) {
+        if (probed.isEmpty()) {
             return;
         }
-        for (InfraDataSource entity : sources) {
-            try {
-                ConnectivityResult probe = performConnectivityCheck(entity.getJdbcUrl(), entity.getProps());
-                Instant now = Instant.now();
-                if (probe.success()) {
-                    entity.setHeartbeatStatus(HEARTBEAT_UP);
-                    entity.setHeartbeatFailureCount(0);
-                    entity.setStatus(STATUS_ACTIVE);
-                    entity.setLastError(null);
-                    entity.setLastHeartbeatAt(now);
-                    entity.setLastTestElapsedMillis(probe.elapsedMillis());
-                } else {
-                    entity.setHeartbeatStatus(HEARTBEAT_DOWN);
-                    entity.setHeartbeatFailureCount(incrementFailure(entity.getHeartbeatFailureCount()));
-                    entity.setStatus(STATUS_INACTIVE);
-                    entity.setLastError(probe.message());
-                    entity.setLastHeartbeatAt(now);
-                }
-                entity.setUpdatedAt(now);
-                dataSourceRepository.save(entity);
-                updateCache(entity);
-            } catch (Exception ex) {
-                LOG.warn("Heartbeat check failed for data source {}: {}", entity.getName(), ex.getMessage());
-            }
-        }
+        probed.forEach(this::updateCache);
         touchLastUpdated();
     }
 
+    ConnectivityResult probe(InfraDataSource entity) {
+        return performConnectivityCheck(entity.getJdbcUrl(), entity.getProps());
+    }
+
     private void applyPayload(InfraDataSource entity, UpsertInfraDataSourcePayload payload) {
         entity.setName(payload.getName());
         entity.setType(payload.getType());
@@ -660,7 +630,7 @@ public class InfraAdminService {
         }
         long start = System.nanoTime();
         try (Socket socket = new Socket()) {
-            socket.connect(new InetSocketAddress(hostPort.host(), hostPort.port()), Math.toIntExact(heartbeatTimeoutMs));
+            socket.connect(new InetSocketAddress(hostPort.host(), hostPort.port()), (int) Math.min(Integer.MAX_VALUE, Math.max(1L, heartbeatProperties.getTimeoutMs())));
             long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
             return new ConnectivityResult(true, elapsed, "连接成功", null);
         } catch (Exception ex) {
@@ -727,7 +697,7 @@ public class InfraAdminService {
         }
     }
 
-    private Integer incrementFailure(Integer current) {
+    static Integer incrementFailure(Integer current) {
         int next = current == null ? 1 : Math.min(current + 1, 1000);
         return next;
     }
@@ -818,5 +788,5 @@ public class InfraAdminService {
         }
     }
 
-    private record ConnectivityResult(boolean success, long elapsedMillis, String message, String error) {}
+    record ConnectivityResult(boolean success, long elapsedMillis, String message, String error) {}
 }
@@ -0,0 +1,149 @@
+package com.yuzhi.dts.admin.service.infra;
+
+import com.yuzhi.dts.admin.domain.AdminCustomRole;
+import com.yuzhi.dts.admin.domain.AdminKeycloakUser;
+import com.yuzhi.dts.admin.domain.AdminRoleAssignment;
+import com.yuzhi.dts.admin.domain.AdminRoleMember;
+import com.yuzhi.dts.admin.domain.InfraDataSource;
+import com.yuzhi.dts.admin.domain.PortalMenu;
+import com.yuzhi.dts.admin.domain.PortalMenuVisibility;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * 菜单、角色、用户、数据源实体提交后通知平台端使对应的只读缓存失效。
+ * <p>
+ * 挂在 Hibernate 的提交后事件上，无论变更来自哪个接口或审批流程都能覆盖；回滚的事务不会触发通知。
+ * 短时间内的多次变更合并为一次推送。
+ */
+@Component
+public class PlatformCacheInvalidator
+    implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PlatformCacheInvalidator.class);
+    private static final long FLUSH_DELAY_MS = 500L;
+
+    /** 与平台端 AdminResponseCache 的命名空间保持一致。 */
+    private static final Map<Class<?>, List<String>> NAMESPACES = Map.of(
+        PortalMenu.class, List.of("menu"),
+        PortalMenuVisibility.class, List.of("menu"),
+        AdminCustomRole.class, List.of("roles", "menu"),
+        AdminRoleAssignment.class, List.of("roles", "users"),
+        AdminRoleMember.class, List.of("roles"),
+        AdminKeycloakUser.class, List.of("users"),
+        InfraDataSource.class, List.of("infra")
+    );
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final PlatformInfraClient platformInfraClient;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+        new CustomizableThreadFactory("platform-cache-invalidate-")
+    );
+
+    public PlatformCacheInvalidator(EntityManagerFactory entityManagerFactory, PlatformInfraClient platformInfraClient) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.platformInfraClient = platformInfraClient;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return NAMESPACES.containsKey(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+    void changed(Class<?> entityType) {
+        List<String> namespaces = NAMESPACES.get(entityType);
+        if (namespaces == null) {
+            return;
+        }
+        pending.addAll(namespaces);
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                scheduler.schedule(this::flush, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ex) {
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    void flush() {
+        flushScheduled.set(false);
+        Set<String> namespaces = new LinkedHashSet<>();
+        for (String namespace : pending) {
+            if (pending.remove(namespace)) {
+                namespaces.add(namespace);
+            }
+        }
+        if (namespaces.isEmpty()) {
+            return;
+        }
+        log.debug("Pushing platform cache invalidation {}", namespaces);
+        platformInfraClient.pushCacheInvalidation(namespaces);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
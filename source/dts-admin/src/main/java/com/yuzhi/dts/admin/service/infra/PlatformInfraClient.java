@@ -1,9 +1,13 @@
 package com.yuzhi.dts.admin.service.infra;
 
 import com.yuzhi.dts.admin.config.PlatformIntegrationProperties;
+import com.yuzhi.dts.admin.service.infra.dto.DataSourceHeartbeatDto;
 import com.yuzhi.dts.admin.service.infra.dto.HiveConnectionPersistRequest;
 import java.net.URI;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -61,6 +65,43 @@ public class PlatformInfraClient {
         }
     }
 
+    /**
+     * 推送心跳状态变化，平台侧只更新注册表中的运行状态，不触发完整刷新。
+     * 请求只到达 baseUrl 背后的某一个平台节点，由平台端经 Hazelcast Topic 转发给其余节点。
+     */
+    public void pushHeartbeats(List<DataSourceHeartbeatDto> heartbeats) {
+        if (!properties.isEnabled() || heartbeats == null || heartbeats.isEmpty()) {
+            return;
+        }
+        URI uri = buildUri("/infra/data-sources/heartbeat");
+        HttpEntity<List<DataSourceHeartbeatDto>> entity = new HttpEntity<>(heartbeats, buildHeaders());
+        try {
+            restTemplate.exchange(uri, HttpMethod.POST, entity, Void.class);
+        } catch (Exception ex) {
+            log.warn("Failed to push data source heartbeat to platform: {}", ex.getMessage());
+            log.debug("Platform heartbeat push failure stack", ex);
+        }
+    }
+
+    /**
+     * 通知平台端使管理端只读调用的本地缓存失效（菜单、角色、用户、数据源）。
+     * 请求只到达 baseUrl 背后的某一个平台节点，由平台端经 Hazelcast Topic 转发给其余节点；
+     * 推送失败时平台各节点在缓存 TTL 到期后自行重新校验。
+     */
+    public void pushCacheInvalidation(Collection<String> namespaces) {
+        if (!properties.isEnabled() || namespaces == null || namespaces.isEmpty()) {
+            return;
+        }
+        URI uri = buildUri("/admin-cache/invalidate");
+        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(Map.of("namespaces", List.copyOf(namespaces)), buildHeaders());
+        try {
+            restTemplate.exchange(uri, HttpMethod.POST, entity, Void.class);
+        } catch (Exception ex) {
+            log.warn("Failed to push cache invalidation {} to platform: {}", namespaces, ex.getMessage());
+            log.debug("Platform cache invalidation failure stack", ex);
+        }
+    }
+
     private URI buildUri(String suffix) {
         String base = properties.getBaseUrl();
         if (!StringUtils.hasText(base)) {
@@ -0,0 +1,18 @@
+package com.yuzhi.dts.admin.service.infra.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 管理端心跳探测结果，推送给业务平台的 Inceptor 数据源注册表。
+ */
+public record DataSourceHeartbeatDto(
+    UUID id,
+    String type,
+    String status,
+    String heartbeatStatus,
+    Integer heartbeatFailureCount,
+    String lastError,
+    Instant lastHeartbeatAt,
+    Long elapsedMillis
+) {}
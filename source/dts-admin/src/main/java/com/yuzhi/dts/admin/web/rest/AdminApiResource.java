@@ -250,6 +250,7 @@ public class AdminApiResource {
     private final TransactionTemplate changeApplyTx;
     private final ChangeSnapshotFormatter changeSnapshotFormatter;
     private final AdminAuditService adminAuditService;
+    private volatile PortalMenuCollection cachedMenuCollection;
 
     private static final Map<String, String> SYSTEM_ACCOUNT_DISPLAY_NAMES = Map.of(
         "sysadmin",
@@ -604,7 +605,7 @@ public class AdminApiResource {
                 menu.setParent(parent);
             }
 
-            menu = portalMenuRepo.save(menu);
+            menu = portalMenuService.saveMenu(menu);
             List<PortalMenuVisibility> visibilities = buildVisibilityEntities(payload, menu);
             portalMenuService.replaceVisibilities(menu, visibilities);
 
@@ -800,7 +801,7 @@ public class AdminApiResource {
                 List<PortalMenuVisibility> visibilities = buildVisibilityEntities(payload, beforeEntity);
                 portalMenuService.replaceVisibilities(beforeEntity, visibilities);
             } else {
-                portalMenuRepo.save(beforeEntity);
+                portalMenuService.saveMenu(beforeEntity);
             }
             PortalMenu persisted = portalMenuRepo.findById(menuId).orElse(beforeEntity);
             Map<String, Object> detail = new LinkedHashMap<>();
@@ -1062,7 +1063,7 @@ public class AdminApiResource {
         }
         try {
             markMenuDeleted(entity);
-            portalMenuRepo.save(entity);
+            portalMenuService.saveMenu(entity);
             Map<String, Object> detail = new LinkedHashMap<>();
             detail.put("before", before);
             Map<String, Object> after = toMenuAuditPayload(entity);
@@ -2105,6 +2106,7 @@ public class AdminApiResource {
     @GetMapping("/roles")
     public ResponseEntity<ApiResponse<List<Map<String, Object>>>> adminRoles() {
         Instant now = Instant.now();
+        RoleSummaryCounts counts = loadRoleSummaryCounts();
         LinkedHashMap<String, Map<String, Object>> summaries = new LinkedHashMap<>();
 
         for (Map.Entry<String, BuiltinRoleSpec> entry : BUILTIN_DATA_ROLES.entrySet()) {
@@ -2121,8 +2123,8 @@ public class AdminApiResource {
             summary.put("source", "builtin");
             summary.put("customRole", false);
             summary.put("customRoleId", null);
-            summary.put("memberCount", countRoleMembers(canonical));
-            summary.put("menuBindings", safeCountMenuBindings(canonical));
+            summary.put("memberCount", summaryMemberCount(canonical, counts));
+            summary.put("menuBindings", counts.menuBindings(authorityCandidates(canonical)));
             summary.put("updatedAt", now.toString());
             summary.put("canManage", canonical.endsWith("_OWNER") || canonical.endsWith("_LEADER"));
             summaries.put(canonical, summary);
@@ -2154,8 +2156,8 @@ public class AdminApiResource {
             if (StringUtils.hasText(role.getScope())) {
                 summary.put("scope", role.getScope().trim().toUpperCase(Locale.ROOT));
             }
-            summary.put("memberCount", countRoleMembers(canonical));
-            summary.put("menuBindings", safeCountMenuBindings(canonical));
+            summary.put("memberCount", summaryMemberCount(canonical, counts));
+            summary.put("menuBindings", counts.menuBindings(authorityCandidates(canonical)));
             summary.put("updatedAt", role.getLastModifiedDate() != null ? role.getLastModifiedDate().toString() : now.toString());
             summary.put("canManage", canonical.endsWith("_OWNER") || canonical.endsWith("_LEADER"));
         }
@@ -2186,6 +2188,56 @@ public class AdminApiResource {
         return ResponseEntity.ok(ApiResponse.ok(payload));
     }
 
+    /**
+     * 角色列表所需的成员数与菜单绑定数：各用一次分组统计覆盖全部角色，避免逐角色查询。
+     */
+    RoleSummaryCounts loadRoleSummaryCounts() {
+        Map<String, Long> members = new HashMap<>();
+        for (AdminRoleMemberRepository.RoleCount row : roleMemberRepo.countMembersGroupedByRole()) {
+            if (row.getRole() != null && row.getTotal() != null) {
+                members.merge(row.getRole(), row.getTotal(), Long::sum);
+            }
+        }
+        Map<String, Long> bindings = new HashMap<>();
+        try {
+            for (PortalMenuVisibilityRepository.RoleCodeCount row : visibilityRepo.countGroupedByRoleCode()) {
+                if (row.getRoleCode() != null && row.getTotal() != null) {
+                    bindings.merge(row.getRoleCode(), row.getTotal(), Long::sum);
+                }
+            }
+        } catch (Exception ex) {
+            bindings.clear();
+        }
+        return new RoleSummaryCounts(members, bindings);
+    }
+
+    long summaryMemberCount(String canonical, RoleSummaryCounts counts) {
+        if (!StringUtils.hasText(canonical)) {
+            return 0;
+        }
+        long direct = counts.members().getOrDefault(canonical.toUpperCase(Locale.ROOT), 0L);
+        String normalized = normalizeRoleCode(canonical);
+        if (!StringUtils.hasText(normalized) || normalized.equalsIgnoreCase(canonical)) {
+            return direct;
+        }
+        long prefixed = counts.members().getOrDefault(normalized.toUpperCase(Locale.ROOT), 0L);
+        if (direct > 0 && prefixed > 0) {
+            // 同一角色以两种编码存储成员时可能有重叠用户，此时按成员明细去重计数
+            return countRoleMembers(canonical);
+        }
+        return direct + prefixed;
+    }
+
+    record RoleSummaryCounts(Map<String, Long> members, Map<String, Long> bindings) {
+        int menuBindings(List<String> authorities) {
+            long total = 0;
+            for (String authority : authorities) {
+                total += bindings.getOrDefault(authority, 0L);
+            }
+            return (int) total;
+        }
+    }
+
     private int safeCountMenuBindings(String canonical) {
         try {
             int menuBindings = 0;
@@ -2540,10 +2592,26 @@ public class AdminApiResource {
         return filtered;
     }
 
+    /**
+     * 菜单集合按菜单快照版本缓存，快照未变化时直接复用；返回顶层浅拷贝，调用方可替换其中的列表。
+     */
     private Map<String, Object> buildPortalMenuCollection() {
-        return buildPortalMenuCollection(true);
+        long version = portalMenuService.snapshot().version();
+        PortalMenuCollection cached = cachedMenuCollection;
+        if (cached == null || cached.version() != version) {
+            Map<String, Object> payload = buildPortalMenuCollection(true);
+            // 构建过程中可能触发重置种子菜单，此时快照已更新，不缓存本次结果
+            if (portalMenuService.snapshot().version() != version) {
+                return payload;
+            }
+            cached = new PortalMenuCollection(version, payload);
+            cachedMenuCollection = cached;
+        }
+        return new LinkedHashMap<>(cached.payload());
     }
 
+    private record PortalMenuCollection(long version, Map<String, Object> payload) {}
+
     private Map<String, Object> buildPortalMenuCollection(boolean allowReseed) {
         List<PortalMenu> allMenus = portalMenuService.findAllMenusOrdered();
         if ((allMenus == null || allMenus.isEmpty()) && allowReseed) {
@@ -6097,7 +6165,7 @@ public class AdminApiResource {
                 // simple parent attach via find; if not found, leave as root
                 portalMenuRepo.findById(parentId).ifPresent(entity::setParent);
             }
-            portalMenuRepo.save(entity);
+            portalMenuService.saveMenu(entity);
             List<PortalMenuVisibility> visibilities = buildVisibilityEntities(payload, entity);
             portalMenuService.replaceVisibilities(entity, visibilities);
             cr.setResourceId(String.valueOf(entity.getId()));
@@ -6135,7 +6203,7 @@ public class AdminApiResource {
                         List<PortalMenuVisibility> updatedVisibilities = buildVisibilityEntities(payload, target);
                         portalMenuService.replaceVisibilities(target, updatedVisibilities);
                     } else {
-                        portalMenuRepo.save(target);
+                        portalMenuService.saveMenu(target);
                     }
                 });
         } else if ("BATCH_UPDATE".equalsIgnoreCase(action) || "BULK_UPDATE".equalsIgnoreCase(action)) {
@@ -6193,7 +6261,7 @@ public class AdminApiResource {
                 .findById(id)
                 .ifPresent(target -> {
                     restoreMenu(target);
-                    portalMenuRepo.save(target);
+                    portalMenuService.saveMenu(target);
                 });
         } else if ("DISABLE".equalsIgnoreCase(action) || "DELETE".equalsIgnoreCase(action)) {
             Long id = Long.valueOf(cr.getResourceId());
@@ -6201,7 +6269,7 @@ public class AdminApiResource {
                 .findById(id)
                 .ifPresent(target -> {
                     markMenuDeleted(target);
-                    portalMenuRepo.save(target);
+                    portalMenuService.saveMenu(target);
                 });
         }
         cr.setStatus("APPLIED");
@@ -6322,7 +6390,7 @@ public class AdminApiResource {
         List<String> visibilityErrors = new ArrayList<>();
         for (String authority : authorityCandidates(canonical)) {
             try {
-                visibilityRepo.deleteByRoleCode(authority);
+                portalMenuService.removeRoleVisibilities(authority);
             } catch (Exception ex) {
                 visibilityErrors.add(authority + ":" + ex.getMessage());
             }
@@ -7,11 +7,15 @@ import com.yuzhi.dts.admin.service.auditv2.AuditEntryQueryService;
 import com.yuzhi.dts.admin.service.auditv2.AuditEntryView;
 import com.yuzhi.dts.admin.service.auditv2.AuditEntryTargetView;
 import com.yuzhi.dts.admin.service.auditv2.AuditSearchCriteria;
+import com.yuzhi.dts.admin.service.auditv2.AuditSearchCursor;
+import com.yuzhi.dts.admin.service.auditv2.AuditSearchSlice;
 import com.yuzhi.dts.admin.service.auditv2.ModuleOption;
 import com.yuzhi.dts.admin.service.auditv2.AuditOperationKind;
 import com.yuzhi.dts.admin.service.auditv2.AuditOperationType;
 import com.yuzhi.dts.admin.service.auditv2.AuditResourceDictionaryService;
 import com.yuzhi.dts.admin.service.auditv2.AuditResultStatus;
+import com.yuzhi.dts.admin.service.auditv2.AuditRollupService;
+import com.yuzhi.dts.admin.service.auditv2.AuditRollupService.DailyRollup;
 import com.yuzhi.dts.admin.service.auditv2.AuditV2Service;
 import com.yuzhi.dts.admin.service.auditv2.OperationMappingEngine;
 import com.yuzhi.dts.admin.service.auditv2.OperationMappingEngine.RuleSummary;
@@ -23,9 +27,14 @@ import com.yuzhi.dts.admin.web.rest.api.ApiResponse;
 import com.yuzhi.dts.common.net.IpAddressUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -40,7 +49,6 @@ import java.util.UUID;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -78,6 +86,7 @@ public class AuditLogResource {
     );
 
     private final AuditEntryQueryService auditQueryService;
+    private final AuditRollupService auditRollupService;
     private final OperationMappingEngine opMappingEngine;
     private final AuditResourceDictionaryService resourceDictionary;
     private final AuditV2Service auditV2Service;
@@ -85,6 +94,7 @@ public class AuditLogResource {
     private final ObjectMapper objectMapper;
     public AuditLogResource(
         AuditEntryQueryService auditQueryService,
+        AuditRollupService auditRollupService,
         OperationMappingEngine opMappingEngine,
         AuditResourceDictionaryService resourceDictionary,
         AuditV2Service auditV2Service,
@@ -92,6 +102,7 @@ public class AuditLogResource {
         ObjectMapper objectMapper
     ) {
         this.auditQueryService = auditQueryService;
+        this.auditRollupService = auditRollupService;
         this.opMappingEngine = opMappingEngine;
         this.resourceDictionary = resourceDictionary;
         this.auditV2Service = auditV2Service;
@@ -104,6 +115,7 @@ public class AuditLogResource {
         @RequestParam(value = "page", defaultValue = "0") int page,
         @RequestParam(value = "size", defaultValue = "20") int size,
         @RequestParam(value = "sort", defaultValue = "occurredAt,desc") String sort,
+        @RequestParam(value = "cursor", required = false) String cursor,
         @RequestParam(value = "actor", required = false) String actor,
         @RequestParam(value = "module", required = false) String module,
         @RequestParam(value = "action", required = false) String actionCode,
@@ -141,8 +153,8 @@ public class AuditLogResource {
             scope.excludedActors(),
             false
         );
-        Page<AuditEntryView> resultPage = auditQueryService.search(criteria, pageable);
-        List<AuditEntryView> views = resultPage.getContent();
+        AuditSearchSlice slice = auditQueryService.search(criteria, AuditSearchCursor.decode(cursor), pageable);
+        List<AuditEntryView> views = slice.content();
         Map<String, String> displayOverrides = resolveActorDisplayNames(views);
         List<Map<String, Object>> content = new ArrayList<>(views.size());
         for (AuditEntryView view : views) {
@@ -150,23 +162,21 @@ public class AuditLogResource {
             applyDisplayNameOverride(row, displayOverrides);
             content.add(row);
         }
-        Map<String, Object> payload = Map.of(
-            "content",
-            content,
-            "page",
-            resultPage.getNumber(),
-            "size",
-            resultPage.getSize(),
-            "totalElements",
-            resultPage.getTotalElements(),
-            "totalPages",
-            resultPage.getTotalPages()
-        );
+        int pageSize = pageable.getPageSize();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("content", content);
+        payload.put("page", pageable.getPageNumber());
+        payload.put("size", pageSize);
+        payload.put("totalElements", slice.total());
+        payload.put("totalPages", pageSize > 0 ? (int) ((slice.total() + pageSize - 1) / pageSize) : 0);
+        payload.put("totalExact", slice.totalExact());
+        payload.put("hasNext", slice.hasNext());
+        payload.put("nextCursor", slice.nextCursor());
         recordAuditLogAction(
             ButtonCodes.AUDIT_LOG_QUERY,
             criteria,
             pageable,
-            resultPage.getTotalElements(),
+            slice.total(),
             content.size(),
             request
         );
@@ -230,49 +240,52 @@ public class AuditLogResource {
             scope.excludedActors(),
             true
         );
-        Page<AuditEntryView> exportPage = auditQueryService.search(criteria, Pageable.unpaged());
-        List<AuditEntryView> views = exportPage.getContent();
-        Map<String, String> displayOverrides = resolveActorDisplayNames(views);
-        List<Map<String, Object>> records = new ArrayList<>(views.size());
-        for (AuditEntryView view : views) {
-            Map<String, Object> row = toResponse(view, true);
-            applyDisplayNameOverride(row, displayOverrides);
-            records.add(row);
-        }
-        StringBuilder sb = new StringBuilder();
-        sb.append(
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=audit-logs.csv");
+        response.setContentType("text/csv;charset=UTF-8");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        writer.write(
             "id,occurred_at,source_system,module,action,actor,result,result_text,summary,target_table,target_id,operation_type,operation_content,client_ip,client_agent\n"
         );
-        for (Map<String, Object> record : records) {
-            sb
-                .append(record.get("id")).append(',')
-                .append(escapeCsv(record.get("occurredAt"))).append(',')
-                .append(escapeCsv(record.get("sourceSystem"))).append(',')
-                .append(escapeCsv(record.get("module"))).append(',')
-                .append(escapeCsv(record.get("action"))).append(',')
-                .append(escapeCsv(record.get("actor"))).append(',')
-                .append(escapeCsv(record.get("result"))).append(',')
-                .append(escapeCsv(record.get("resultText"))).append(',')
-                .append(escapeCsv(record.get("summary"))).append(',')
-                .append(escapeCsv(record.get("targetTable"))).append(',')
-                .append(escapeCsv(record.get("targetId"))).append(',')
-                .append(escapeCsv(record.get("operationType"))).append(',')
-                .append(escapeCsv(record.get("operationContent"))).append(',')
-                .append(escapeCsv(record.get("clientIp"))).append(',')
-                .append(escapeCsv(record.get("clientAgent")))
-                .append('\n');
-        }
+        // 按游标分批读取并写出，避免一次性加载全部匹配记录
+        long exported = auditQueryService.forEachMatching(criteria, views -> {
+            Map<String, String> displayOverrides = resolveActorDisplayNames(views);
+            StringBuilder sb = new StringBuilder();
+            for (AuditEntryView view : views) {
+                Map<String, Object> record = toResponse(view, true);
+                applyDisplayNameOverride(record, displayOverrides);
+                sb
+                    .append(record.get("id")).append(',')
+                    .append(escapeCsv(record.get("occurredAt"))).append(',')
+                    .append(escapeCsv(record.get("sourceSystem"))).append(',')
+                    .append(escapeCsv(record.get("module"))).append(',')
+                    .append(escapeCsv(record.get("action"))).append(',')
+                    .append(escapeCsv(record.get("actor"))).append(',')
+                    .append(escapeCsv(record.get("result"))).append(',')
+                    .append(escapeCsv(record.get("resultText"))).append(',')
+                    .append(escapeCsv(record.get("summary"))).append(',')
+                    .append(escapeCsv(record.get("targetTable"))).append(',')
+                    .append(escapeCsv(record.get("targetId"))).append(',')
+                    .append(escapeCsv(record.get("operationType"))).append(',')
+                    .append(escapeCsv(record.get("operationContent"))).append(',')
+                    .append(escapeCsv(record.get("clientIp"))).append(',')
+                    .append(escapeCsv(record.get("clientAgent")))
+                    .append('\n');
+            }
+            try {
+                writer.write(sb.toString());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        writer.flush();
         recordAuditLogAction(
             ButtonCodes.AUDIT_LOG_EXPORT,
             criteria,
             Pageable.unpaged(),
-            exportPage.getTotalElements(),
-            records.size(),
+            exported,
+            (int) exported,
             request
         );
-        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=audit-logs.csv");
-        response.setContentType("text/csv;charset=UTF-8");
-        response.getOutputStream().write(sb.toString().getBytes(StandardCharsets.UTF_8));
     }
 
     @GetMapping("/modules")
@@ -320,6 +333,36 @@ public class AuditLogResource {
         return ResponseEntity.ok(ApiResponse.ok(new ArrayList<>(grouped.values())));
     }
 
+    /**
+     * 按日汇总的审计计数（来自预聚合表），供看板统计使用。
+     */
+    @GetMapping("/rollups")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> rollups(
+        @RequestParam(value = "from", required = false) String from,
+        @RequestParam(value = "to", required = false) String to,
+        @RequestParam(value = "module", required = false) String module
+    ) {
+        List<DailyRollup> rollups = auditRollupService.query(parseLocalDate(from), parseLocalDate(to), module);
+        List<Map<String, Object>> out = new ArrayList<>(rollups.size());
+        for (DailyRollup rollup : rollups) {
+            out.add(
+                Map.of(
+                    "day",
+                    rollup.day().toString(),
+                    "module",
+                    rollup.moduleKey(),
+                    "action",
+                    rollup.operationCode(),
+                    "result",
+                    rollup.result(),
+                    "count",
+                    rollup.count()
+                )
+            );
+        }
+        return ResponseEntity.ok(ApiResponse.ok(out));
+    }
+
     @GetMapping("/categories")
     public ResponseEntity<ApiResponse<List<Map<String, Object>>>> categories() {
         LinkedHashMap<String, ModuleView> modules = collectModulesFromRules();
@@ -660,6 +703,17 @@ public class AuditLogResource {
         }
     }
 
+    private LocalDate parseLocalDate(String value) {
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
     private String mapSourceSystemText(String sourceSystem) {
         if (StringUtils.isBlank(sourceSystem)) {
             return "系统管理";
@@ -25,6 +25,8 @@ import org.springframework.web.bind.annotation.*;
 @io.swagger.v3.oas.annotations.tags.Tag(name = "basic")
 public class BasicApiResource {
 
+    private static final com.fasterxml.jackson.databind.ObjectMapper METADATA_MAPPER = new com.fasterxml.jackson.databind.ObjectMapper();
+
     private final PortalMenuService portalMenuService;
     private final AuditV2Service auditV2Service;
 
@@ -116,7 +118,7 @@ public class BasicApiResource {
         String metadata = menu.getMetadata();
         if (metadata != null && !metadata.isBlank()) {
             try {
-                Map<String, Object> meta = new com.fasterxml.jackson.databind.ObjectMapper().readValue(metadata, Map.class);
+                Map<String, Object> meta = METADATA_MAPPER.readValue(metadata, Map.class);
                 Object title = meta.get("title");
                 if (title instanceof String s && !s.isBlank()) {
                     return s;
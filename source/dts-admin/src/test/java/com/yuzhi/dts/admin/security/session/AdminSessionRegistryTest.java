@@ -0,0 +1,99 @@
+package com.yuzhi.dts.admin.security.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yuzhi.dts.admin.security.session.AdminSessionRegistry.ValidationResult;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class AdminSessionRegistryTest {
+
+    private final AdminSessionRepository repository = mock(AdminSessionRepository.class);
+    private final AdminSessionEventBroadcaster broadcaster = mock(AdminSessionEventBroadcaster.class);
+    private AdminSessionRegistry registry;
+    private Consumer<String> invalidationListener;
+    private AdminSessionEntity stored;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        registry = new AdminSessionRegistry(10, Duration.ofMinutes(5), 100, repository, broadcaster);
+        ArgumentCaptor<Consumer<String>> captor = ArgumentCaptor.forClass(Consumer.class);
+        verify(broadcaster).subscribe(captor.capture());
+        invalidationListener = captor.getValue();
+
+        when(repository.findActiveSessionsForUpdate("alice")).thenReturn(List.of());
+        when(repository.save(any(AdminSessionEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        stored = registry.registerLogin("alice", "state-1", "token-1", "refresh-1", null, null).session();
+        when(repository.findByAccessTokenHash(stored.getAccessTokenHash())).thenReturn(Optional.of(stored));
+    }
+
+    @Test
+    void repeatedValidationIsServedFromMemoryAndFlushedOnce() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(registry.validate("token-1", "state-1", "Alice")).isEqualTo(ValidationResult.ACTIVE);
+        }
+
+        verify(repository, times(1)).findByAccessTokenHash(stored.getAccessTokenHash());
+        // registerLogin + 首次校验
+        verify(repository, times(2)).save(any(AdminSessionEntity.class));
+        assertThat(registry.resolveUsernameFromAccessToken("token-1")).contains("alice");
+
+        registry.flushActivity();
+        registry.flushActivity();
+
+        verify(repository, times(1)).touchActivity(eq(stored.getId()), any(Instant.class), any(Instant.class));
+    }
+
+    @Test
+    void mismatchedStateFallsBackToDatabaseAndRevokes() {
+        registry.validate("token-1", "state-1", "alice");
+
+        assertThat(registry.validate("token-1", "state-2", "alice")).isEqualTo(ValidationResult.CONCURRENT);
+
+        assertThat(stored.getRevokedReason()).isEqualTo(AdminSessionCloseReason.CONCURRENT);
+        verify(broadcaster).publish(stored.getAccessTokenHash());
+        assertThat(registry.cachedSessionCount()).isZero();
+        assertThat(registry.validate("token-1", "state-1", "alice")).isEqualTo(ValidationResult.CONCURRENT);
+    }
+
+    @Test
+    void takeoverAndLogoutRevokeCachedSessionImmediately() {
+        registry.validate("token-1", "state-1", "alice");
+        when(repository.findActiveSessionsForUpdate("alice")).thenReturn(List.of(stored));
+
+        AdminSessionRegistry.SessionRegistration registration = registry.registerLogin("alice", "state-2", "token-2", null, null, null);
+
+        assertThat(registration.takeover()).isTrue();
+        assertThat(registry.validate("token-1", "state-1", "alice")).isEqualTo(ValidationResult.CONCURRENT);
+        verify(broadcaster).publish(stored.getAccessTokenHash());
+    }
+
+    @Test
+    void broadcastFromAnotherNodeEvictsLocalEntry() {
+        registry.validate("token-1", "state-1", "alice");
+        stored.setRevokedAt(Instant.now());
+        stored.setRevokedReason(AdminSessionCloseReason.LOGOUT);
+
+        invalidationListener.accept(stored.getAccessTokenHash());
+
+        assertThat(registry.validate("token-1", "state-1", "alice")).isEqualTo(ValidationResult.LOGOUT);
+        verify(repository, never()).touchActivity(any(UUID.class), any(Instant.class), any(Instant.class));
+        verify(broadcaster, never()).publish(anyString());
+    }
+}
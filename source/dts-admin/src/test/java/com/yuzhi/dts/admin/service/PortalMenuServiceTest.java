@@ -0,0 +1,126 @@
+package com.yuzhi.dts.admin.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuzhi.dts.admin.domain.PortalMenu;
+import com.yuzhi.dts.admin.domain.PortalMenuVisibility;
+import com.yuzhi.dts.admin.repository.PortalMenuRepository;
+import com.yuzhi.dts.admin.repository.PortalMenuVisibilityRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class PortalMenuServiceTest {
+
+    private final PortalMenuRepository menuRepo = mock(PortalMenuRepository.class);
+    private final PortalMenuVisibilityRepository visibilityRepo = mock(PortalMenuVisibilityRepository.class);
+    private final AtomicReference<Instant> lastModified = new AtomicReference<>(Instant.parse("2026-10-01T00:00:00Z"));
+
+    @BeforeEach
+    void setUp() {
+        when(menuRepo.findAllByOrderBySortOrderAscIdAsc()).thenAnswer(inv -> menus());
+        when(menuRepo.findChangeMarker()).thenAnswer(inv -> marker(3L, lastModified.get()));
+        when(visibilityRepo.findChangeMarker()).thenAnswer(inv -> marker(1L, lastModified.get()));
+    }
+
+    @Test
+    void buildsTreeFromOneQueryAndMemoizesPerAudience() {
+        PortalMenuService service = service(Duration.ZERO);
+
+        List<PortalMenu> first = service.findTreeForAudience(new LinkedHashSet<>(List.of("ROLE_ANALYST", "ROLE_USER")), null, "secret");
+        List<PortalMenu> second = service.findTreeForAudience(new LinkedHashSet<>(List.of("ROLE_USER", "ROLE_ANALYST")), Set.of(), "SECRET");
+
+        assertThat(second).isSameAs(first);
+        assertThat(first).singleElement().satisfies(root -> {
+            assertThat(root.getId()).isEqualTo(1L);
+            assertThat(root.getChildren()).extracting(PortalMenu::getId).containsExactly(2L);
+        });
+        assertThat(service.findTreeForAudience(Set.of("ROLE_OTHER"), null, null)).isEmpty();
+        assertThat(service.findTree()).singleElement().satisfies(root ->
+            assertThat(root.getChildren()).extracting(PortalMenu::getId).containsExactly(2L)
+        );
+        assertThat(service.findDeletedMenus()).extracting(PortalMenu::getId).containsExactly(3L);
+        verify(menuRepo, times(1)).findAllByOrderBySortOrderAscIdAsc();
+    }
+
+    @Test
+    void invalidationPublishesNewVersionAndDropsAudienceTrees() {
+        PortalMenuService service = service(Duration.ZERO);
+        PortalMenuSnapshot before = service.snapshot();
+        List<PortalMenu> tree = service.findTreeForAudience(Set.of("ROLE_ANALYST"), null, null);
+
+        service.invalidateMenus();
+
+        PortalMenuSnapshot after = service.snapshot();
+        assertThat(after.version()).isGreaterThan(before.version());
+        assertThat(service.findTreeForAudience(Set.of("ROLE_ANALYST"), null, null)).isNotSameAs(tree).hasSize(1);
+        verify(menuRepo, times(2)).findAllByOrderBySortOrderAscIdAsc();
+    }
+
+    @Test
+    void revalidationRebuildsOnlyWhenTablesChanged() {
+        PortalMenuService service = service(Duration.ofNanos(1));
+        PortalMenuSnapshot initial = service.snapshot();
+
+        assertThat(service.snapshot()).isSameAs(initial);
+        verify(menuRepo, times(1)).findAllByOrderBySortOrderAscIdAsc();
+
+        lastModified.set(Instant.parse("2026-10-02T00:00:00Z"));
+
+        assertThat(service.snapshot().version()).isGreaterThan(initial.version());
+        verify(menuRepo, times(2)).findAllByOrderBySortOrderAscIdAsc();
+    }
+
+    private PortalMenuService service(Duration revalidateInterval) {
+        return new PortalMenuService(menuRepo, visibilityRepo, new ObjectMapper(), mock(PlatformTransactionManager.class), revalidateInterval);
+    }
+
+    private static List<PortalMenu> menus() {
+        PortalMenu root = menu(1L, null, false);
+        root.setMetadata("{\"sectionKey\":\"catalog\"}");
+        PortalMenu child = menu(2L, root, false);
+        PortalMenuVisibility visibility = new PortalMenuVisibility();
+        visibility.setId(10L);
+        visibility.setRoleCode("ROLE_ANALYST");
+        visibility.setDataLevel("INTERNAL");
+        child.addVisibility(visibility);
+        PortalMenu removed = menu(3L, root, true);
+        return List.of(root, child, removed);
+    }
+
+    private static PortalMenu menu(Long id, PortalMenu parent, boolean deleted) {
+        PortalMenu menu = new PortalMenu();
+        menu.setId(id);
+        menu.setName("menu-" + id);
+        menu.setPath("/m" + id);
+        menu.setSortOrder(id.intValue());
+        menu.setParent(parent);
+        menu.setDeleted(deleted);
+        return menu;
+    }
+
+    private static PortalMenuRepository.ChangeMarker marker(Long total, Instant modified) {
+        return new PortalMenuRepository.ChangeMarker() {
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+
+            @Override
+            public Instant getLastModified() {
+                return modified;
+            }
+        };
+    }
+}
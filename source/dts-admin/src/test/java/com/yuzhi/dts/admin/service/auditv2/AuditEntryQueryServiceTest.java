@@ -0,0 +1,80 @@
+package com.yuzhi.dts.admin.service.auditv2;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yuzhi.dts.admin.config.AuditStorageProperties;
+import com.yuzhi.dts.admin.domain.audit.AuditEntry;
+import com.yuzhi.dts.admin.repository.audit.AuditEntryRepository;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class AuditEntryQueryServiceTest {
+
+    private final AuditEntryRepository repository = mock(AuditEntryRepository.class);
+    private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final AuditStorageProperties properties = new AuditStorageProperties();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportWalksBatchesWithoutCounting() throws Exception {
+        properties.getSearch().setExportBatchSize(2);
+        properties.getSearch().setExportMaxRows(100);
+        List<List<Long>> pages = new ArrayList<>(List.of(List.of(5L, 4L, 3L), List.of(3L, 2L, 1L), List.of(1L)));
+        List<String> sqls = new ArrayList<>();
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class))).thenAnswer(invocation -> {
+            sqls.add(invocation.getArgument(0));
+            RowMapper<Object> mapper = invocation.getArgument(2);
+            List<Object> rows = new ArrayList<>();
+            int rowNum = 0;
+            for (Long id : pages.remove(0)) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong(1)).thenReturn(id);
+                when(rs.getTimestamp(2)).thenReturn(Timestamp.from(Instant.parse("2026-10-01T00:00:00Z").plusSeconds(id)));
+                rows.add(mapper.mapRow(rs, rowNum++));
+            }
+            return rows;
+        });
+        when(repository.findWithTargetsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            List<AuditEntry> entries = new ArrayList<>();
+            for (Long id : (Collection<Long>) invocation.getArgument(0)) {
+                AuditEntry entry = new AuditEntry();
+                ReflectionTestUtils.setField(entry, "id", id);
+                entries.add(entry);
+            }
+            return entries;
+        });
+        JdbcTemplate plain = mock(JdbcTemplate.class);
+        when(jdbcTemplate.getJdbcTemplate()).thenReturn(plain);
+        AuditEntryQueryService service = new AuditEntryQueryService(repository, null, jdbcTemplate, properties);
+        List<Long> exported = new ArrayList<>();
+
+        long visited = service.forEachMatching(criteria(), views -> views.forEach(view -> exported.add(view.id())));
+
+        assertThat(visited).isEqualTo(5);
+        assertThat(exported).containsExactly(5L, 4L, 3L, 2L, 1L);
+        assertThat(sqls).hasSize(3).noneMatch(sql -> sql.contains("count("));
+        verify(jdbcTemplate, never()).queryForObject(anyString(), any(SqlParameterSource.class), any(Class.class));
+        verify(plain, never()).queryForObject(anyString(), any(Class.class));
+    }
+
+    private static AuditSearchCriteria criteria() {
+        return new AuditSearchCriteria(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, true);
+    }
+}
@@ -0,0 +1,94 @@
+package com.yuzhi.dts.admin.service.auditv2;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.yuzhi.dts.admin.config.AuditStorageProperties;
+import com.yuzhi.dts.admin.config.AuditStorageProperties.RetentionMode;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class AuditPartitionServiceTest {
+
+    @Test
+    void onlyWholeMonthsOlderThanRetentionExpire() {
+        List<String> partitions = List.of(
+            "audit_entry_p202509",
+            "audit_entry_p202510",
+            "audit_entry_p202511",
+            "audit_entry_p202610",
+            "audit_entry_pdefault"
+        );
+
+        List<YearMonth> expired = AuditPartitionService.expiredMonths(partitions, YearMonth.of(2026, 10), 12);
+
+        assertThat(expired).containsExactly(YearMonth.of(2025, 9));
+    }
+
+    @Test
+    void partitionBoundsAreUtcMonthRanges() {
+        assertThat(AuditPartitionService.createPartitionSql("audit_entry_target", YearMonth.of(2026, 12))).isEqualTo(
+            "create table if not exists audit_entry_target_p202612 partition of audit_entry_target " +
+            "for values from ('2026-12-01T00:00Z') to ('2027-01-01T00:00Z')"
+        );
+    }
+
+    @Test
+    void childPartitionsAreDetachedBeforeParent() {
+        List<String> detach = AuditPartitionService.retirePartitionSql(YearMonth.of(2025, 1), RetentionMode.DETACH);
+        List<String> drop = AuditPartitionService.retirePartitionSql(YearMonth.of(2025, 1), RetentionMode.DROP);
+
+        assertThat(detach).last().isEqualTo("alter table audit_entry detach partition audit_entry_p202501");
+        assertThat(detach).contains("alter table audit_entry_target_p202501 drop constraint if exists fk_audit_entry_target_entry");
+        assertThat(detach).noneMatch(sql -> sql.startsWith("drop table"));
+        assertThat(drop).endsWith(
+            "drop table if exists audit_entry_target_p202501",
+            "drop table if exists audit_entry_detail_p202501",
+            "drop table if exists audit_entry_p202501"
+        );
+    }
+
+    @Test
+    void retentionIsOffByDefaultButPartitionsArePremade() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class), eq("audit_entry"))).thenReturn("p");
+        AuditPartitionService service = new AuditPartitionService(
+            jdbcTemplate,
+            transactionTemplate,
+            new AuditStorageProperties(),
+            Clock.fixed(Instant.parse("2026-10-15T00:00:00Z"), ZoneOffset.UTC)
+        );
+
+        service.maintain();
+
+        verify(jdbcTemplate).execute(AuditPartitionService.createPartitionSql("audit_entry", YearMonth.of(2026, 12)));
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    void retentionWaitsForLegacyBackfill() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class), eq("audit_entry"))).thenReturn("p");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("audit_entry_legacy"))).thenReturn(true);
+        AuditStorageProperties properties = new AuditStorageProperties();
+        properties.getRetention().setEnabled(true);
+        AuditPartitionService service = new AuditPartitionService(jdbcTemplate, transactionTemplate, properties, Clock.systemUTC());
+
+        service.maintain();
+
+        verifyNoInteractions(transactionTemplate);
+    }
+}
@@ -0,0 +1,73 @@
+package com.yuzhi.dts.admin.service.auditv2;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yuzhi.dts.admin.domain.AuditResourceDictionary;
+import com.yuzhi.dts.admin.repository.AuditResourceDictionaryRepository;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class AuditResourceDictionaryServiceTest {
+
+    private final AuditResourceDictionaryRepository repository = mock(AuditResourceDictionaryRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    void rebuildsOnlyWhenVersionChanges() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("audit_resource_dictionary"))).thenReturn(1);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq("audit_resource_dictionary"))).thenReturn(
+            List.of(1L),
+            List.of(1L),
+            List.of(2L)
+        );
+        when(repository.findAllByEnabledTrueOrderByOrderValueAscResourceKeyAsc()).thenReturn(
+            List.of(row("catalog", "数据目录", "元数据", "catalog_*"))
+        );
+
+        AuditResourceDictionaryService service = new AuditResourceDictionaryService(repository, jdbcTemplate);
+        service.reload();
+        service.reload();
+
+        verify(repository, times(2)).findAllByEnabledTrueOrderByOrderValueAscResourceKeyAsc();
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), eq(Integer.class), eq("audit_resource_dictionary"));
+    }
+
+    @Test
+    void longestPrefixAliasWins() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("audit_resource_dictionary"))).thenReturn(1);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq("audit_resource_dictionary"))).thenReturn(List.of(1L));
+        when(repository.findAllByEnabledTrueOrderByOrderValueAscResourceKeyAsc()).thenReturn(
+            List.of(
+                row("catalog", "数据目录", "元数据", "catalog*"),
+                row("catalog_dataset", "数据集", "元数据", "catalog_dataset*"),
+                row("catalog_other", "其他目录", "元数据", "catalog*")
+            )
+        );
+
+        AuditResourceDictionaryService service = new AuditResourceDictionaryService(repository, jdbcTemplate);
+
+        assertThat(service.resolveLabel("CATALOG_DATASET_FIELDS")).contains("数据集");
+        assertThat(service.resolveLabel("catalog_domain")).contains("数据目录");
+        assertThat(service.resolveLabel("数据集")).contains("数据集");
+        assertThat(service.resolveLabel("governance")).isEmpty();
+        assertThat(service.listModuleCategories()).containsExactly("元数据");
+    }
+
+    private static AuditResourceDictionary row(String key, String displayName, String category, String aliases) {
+        AuditResourceDictionary row = new AuditResourceDictionary();
+        row.setResourceKey(key);
+        row.setDisplayName(displayName);
+        row.setCategory(category);
+        row.setAliases(aliases);
+        row.setOrderValue(1);
+        row.setEnabled(Boolean.TRUE);
+        return row;
+    }
+}
@@ -0,0 +1,37 @@
+package com.yuzhi.dts.admin.service.auditv2;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class AuditRollupServiceTest {
+
+    @Test
+    void backfilledRangesCollapseToDaysInRollupZone() {
+        List<Map<String, Object>> ranges = List.of(
+            Map.of(
+                "occurred_from",
+                Timestamp.from(Instant.parse("2025-03-01T20:00:00Z")),
+                "occurred_to",
+                Timestamp.from(Instant.parse("2025-03-04T10:00:00Z"))
+            ),
+            Map.of(
+                "occurred_from",
+                Timestamp.from(Instant.parse("2025-02-27T03:00:00Z")),
+                "occurred_to",
+                Timestamp.from(Instant.parse("2025-02-28T23:30:00Z"))
+            )
+        );
+
+        LocalDate[] days = AuditRollupService.backfilledDays(ranges, ZoneId.of("Asia/Shanghai"));
+
+        assertThat(days).containsExactly(LocalDate.of(2025, 2, 27), LocalDate.of(2025, 3, 4));
+        assertThat(AuditRollupService.backfilledDays(List.of(), ZoneId.of("UTC"))).isNull();
+    }
+}
@@ -0,0 +1,94 @@
+package com.yuzhi.dts.admin.service.auditv2;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class AuditSearchQueryTest {
+
+    @Test
+    void targetFilterUsesExistsInsteadOfDistinctJoin() {
+        AuditSearchQuery query = AuditSearchQuery.of(criteria("orders", null, null), Sort.by(Sort.Order.desc("occurredAt")));
+
+        String sql = query.pageIdsSql(null, 0, 21);
+
+        assertThat(sql).doesNotContain("distinct").contains("exists (select 1 from audit_entry_target t where t.entry_id = e.id");
+        assertThat(sql).contains("order by e.occurred_at desc, e.id desc").doesNotContain("offset");
+        assertThat(query.params().getValue("targetTable")).isEqualTo("%orders%");
+    }
+
+    @Test
+    void cursorTurnsIntoKeysetPredicate() {
+        AuditSearchQuery query = AuditSearchQuery.of(criteria(null, null, null), Sort.by(Sort.Order.desc("occurredAt")));
+        AuditSearchCursor cursor = new AuditSearchCursor(Instant.parse("2026-10-01T08:00:00.123456Z"), 42L);
+
+        String sql = query.pageIdsSql(cursor, 100, 21);
+
+        assertThat(sql).contains("(e.occurred_at, e.id) < (:cursorAt, :cursorId)").doesNotContain("offset");
+        assertThat(query.hasFilters()).isFalse();
+    }
+
+    @Test
+    void nonTimeSortFallsBackToOffsetPaging() {
+        AuditSearchQuery query = AuditSearchQuery.of(criteria(null, null, null), Sort.by(Sort.Order.asc("actorId")));
+
+        assertThat(query.supportsCursor()).isFalse();
+        assertThat(query.pageIdsSql(null, 40, 21)).contains("order by e.actor_id asc, e.id asc").contains("offset :offset");
+    }
+
+    @Test
+    void clientIpLiteralUsesInetContainment() {
+        assertThat(AuditSearchQuery.of(criteria(null, "10.1.0.0/16", null), Sort.unsorted()).pageIdsSql(null, 0, 1)).contains(
+            "e.client_ip <<= cast(:clientIp as inet)"
+        );
+        assertThat(AuditSearchQuery.of(criteria(null, "10.1.", null), Sort.unsorted()).pageIdsSql(null, 0, 1)).contains(
+            "lower(host(e.client_ip)) like :clientIp"
+        );
+        assertThat(AuditSearchQuery.isIpLiteral("192.168.1.1")).isTrue();
+        assertThat(AuditSearchQuery.isIpLiteral("300.1.1.1")).isFalse();
+        assertThat(AuditSearchQuery.isIpLiteral("fe80::1/64")).isTrue();
+        assertThat(AuditSearchQuery.isIpLiteral("example.com")).isFalse();
+    }
+
+    @Test
+    void keywordIsEscapedAndLowercased() {
+        AuditSearchQuery query = AuditSearchQuery.of(criteria(null, null, "50%_Off"), Sort.unsorted());
+
+        assertThat(query.cappedCountSql(10000)).contains("lower(e.summary) like :keyword").contains("limit :countCap");
+        assertThat(query.params().getValue("keyword")).isEqualTo("%50\\%\\_off%");
+        assertThat(query.params().getValue("countCap")).isEqualTo(10001);
+    }
+
+    @Test
+    void cursorRoundTripsAndRejectsGarbage() {
+        AuditSearchCursor cursor = new AuditSearchCursor(Instant.parse("2026-10-01T08:00:00.123456789Z"), 7L);
+
+        assertThat(AuditSearchCursor.decode(cursor.encode())).isEqualTo(cursor);
+        assertThat(AuditSearchCursor.decode("not-a-cursor")).isNull();
+        assertThat(AuditSearchCursor.decode(null)).isNull();
+    }
+
+    private static AuditSearchCriteria criteria(String targetTable, String clientIp, String keyword) {
+        return new AuditSearchCriteria(
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            targetTable,
+            null,
+            clientIp,
+            keyword,
+            null,
+            null,
+            Set.of(),
+            Set.of(),
+            false
+        );
+    }
+}
@@ -0,0 +1,161 @@
+package com.yuzhi.dts.admin.service.auditv2;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.yuzhi.dts.common.net.IpAddressUtils;
+import com.yuzhi.dts.common.observability.OperationMetrics;
+import com.yuzhi.dts.common.observability.SlowOperationJournal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AuditWritePipelineTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final OperationMetrics metrics = new OperationMetrics(registry, new SlowOperationJournal(10, Duration.ofSeconds(1)));
+
+    @TempDir
+    Path spillDir;
+
+    @Test
+    void writesQueuedEntriesInBatches() throws Exception {
+        List<List<AuditRecorder.ResolvedAudit>> batches = Collections.synchronizedList(new ArrayList<>());
+        AuditWritePipeline pipeline = new AuditWritePipeline(100, 10, 0, null, batches::add, metrics);
+        for (int i = 0; i < 25; i++) {
+            assertThat(pipeline.offer(audit(i))).isTrue();
+        }
+        pipeline.start();
+        pipeline.close();
+
+        assertThat(batches).hasSize(3).allSatisfy(batch -> assertThat(batch.size()).isLessThanOrEqualTo(10));
+        assertThat(batches.stream().mapToInt(List::size).sum()).isEqualTo(25);
+    }
+
+    @Test
+    void spillsUnderPressureAndReplaysWithoutLoss() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean failNext = new AtomicBoolean(true);
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+        AuditSpillJournal journal = new AuditSpillJournal(spillDir, objectMapper);
+        AuditWritePipeline pipeline = new AuditWritePipeline(
+            2,
+            5,
+            0,
+            journal,
+            batch -> {
+                awaitQuietly(release);
+                if (failNext.getAndSet(false)) {
+                    throw new IllegalStateException("database unavailable");
+                }
+                batch.forEach(audit -> written.add(audit.summary()));
+            },
+            metrics
+        );
+        pipeline.start();
+        for (int i = 0; i < 20; i++) {
+            assertThat(pipeline.offer(audit(i))).isTrue();
+        }
+        assertThat(journal.hasPending()).isTrue();
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (written.size() < 20 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        pipeline.close();
+
+        assertThat(written).hasSize(20).doesNotHaveDuplicates();
+        assertThat(journal.hasPending()).isFalse();
+        try (var files = Files.list(spillDir)) {
+            assertThat(files).isEmpty();
+        }
+        assertThat(registry.find("dts.audit.pipeline.dropped").counter()).isNull();
+    }
+
+    @Test
+    void journalRoundTripsResolvedAudit() throws Exception {
+        AuditSpillJournal journal = new AuditSpillJournal(spillDir, objectMapper);
+        AuditRecorder.ResolvedAudit original = audit(7);
+        journal.append(List.of(original));
+
+        List<AuditRecorder.ResolvedAudit> replayed = new ArrayList<>();
+        assertThat(journal.replay(10, replayed::addAll)).isEqualTo(1);
+
+        AuditRecorder.ResolvedAudit copy = replayed.get(0);
+        assertThat(copy.summary()).isEqualTo(original.summary());
+        assertThat(copy.clientIp()).isEqualTo(original.clientIp());
+        assertThat(copy.operationKind()).isEqualTo(AuditOperationKind.QUERY);
+        assertThat(copy.targets()).containsExactlyElementsOf(original.targets());
+        assertThat(copy.details()).containsExactlyElementsOf(original.details());
+    }
+
+    @Test
+    void spillJournalIsOwnerOnly() throws Exception {
+        Assumptions.assumeTrue(spillDir.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        Path dir = spillDir.resolve("spill");
+        Files.createDirectories(dir);
+        Files.setPosixFilePermissions(dir, PosixFilePermissions.fromString("rwxr-xr-x"));
+
+        AuditSpillJournal journal = new AuditSpillJournal(dir, objectMapper);
+        journal.append(List.of(audit(1)));
+
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(dir))).isEqualTo("rwx------");
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files.toList()).isNotEmpty().allSatisfy(file ->
+                assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(file))).isEqualTo("rw-------")
+            );
+        }
+    }
+
+    private static AuditRecorder.ResolvedAudit audit(int index) {
+        return new AuditRecorder.ResolvedAudit(
+            Instant.parse("2026-10-19T08:00:00Z").plusSeconds(index),
+            "admin",
+            "alice",
+            "Alice",
+            List.of("ROLE_OP_ADMIN"),
+            "portal",
+            "门户",
+            "ADMIN_PORTAL_MENU_VIEW",
+            "view",
+            "查看菜单",
+            AuditOperationKind.QUERY,
+            AuditResultStatus.SUCCESS,
+            "summary-" + index,
+            null,
+            IpAddressUtils.parseLiteral("10.0.0." + (index % 250)),
+            "agent",
+            "/api/admin/portal/menus",
+            "GET",
+            Map.of("k", "v"),
+            Map.of(),
+            List.of(new AuditRecorder.TargetRecord("portal_menu", String.valueOf(index), null)),
+            List.of(new AuditRecorder.DetailRecord("count", 3))
+        );
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.yuzhi.dts.admin.service.infra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yuzhi.dts.admin.config.InfraHeartbeatProperties;
+import com.yuzhi.dts.admin.domain.InfraDataSource;
+import com.yuzhi.dts.admin.repository.InfraDataSourceRepository;
+import com.yuzhi.dts.admin.service.infra.InfraAdminService.ConnectivityResult;
+import com.yuzhi.dts.admin.service.infra.dto.DataSourceHeartbeatDto;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionOperations;
+
+class DataSourceHeartbeatSchedulerTest {
+
+    private final InfraDataSourceRepository repository = mock(InfraDataSourceRepository.class);
+    private final PlatformInfraClient platformClient = mock(PlatformInfraClient.class);
+    private final InfraHeartbeatProperties properties = new InfraHeartbeatProperties();
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-10-01T00:00:00Z"));
+    private final Map<String, ConnectivityResult> results = new ConcurrentHashMap<>();
+    private final CountDownLatch hang = new CountDownLatch(1);
+    private final List<InfraDataSource> sources = new ArrayList<>();
+    private DataSourceHeartbeatScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        properties.setDeadlineMs(200);
+        properties.setIntervalMs(60_000);
+        when(repository.findAll()).thenAnswer(inv -> sources);
+        Clock clock = new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(java.time.ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+        scheduler = new DataSourceHeartbeatScheduler(
+            null,
+            repository,
+            platformClient,
+            properties,
+            TransactionOperations.withoutTransaction(),
+            source -> {
+                if ("hung".equals(source.getName())) {
+                    try {
+                        hang.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return results.getOrDefault(source.getName(), new ConnectivityResult(true, 3L, "连接成功", null));
+            },
+            clock
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        hang.countDown();
+        scheduler.shutdown();
+    }
+
+    @Test
+    void hungProbeTimesOutWithoutBlockingOthers() {
+        InfraDataSource healthy = source("healthy", "UP", 0);
+        InfraDataSource hung = source("hung", "UP", 0);
+
+        long started = System.nanoTime();
+        assertThat(scheduler.runCycle()).isEqualTo(2);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(3));
+        assertThat(healthy.getHeartbeatStatus()).isEqualTo("UP");
+        assertThat(hung.getHeartbeatStatus()).isEqualTo("DOWN");
+        assertThat(hung.getLastError()).isEqualTo("心跳探测超时");
+    }
+
+    @Test
+    void onlyChangedSourcesArePersistedAndPushed() {
+        InfraDataSource stable = source("stable", "UP", 0);
+        InfraDataSource failing = source("failing", "UP", 0);
+        results.put("failing", new ConnectivityResult(false, 5L, "连接 h:1 失败", "refused"));
+
+        scheduler.runCycle();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InfraDataSource>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(saved.capture());
+        assertThat(saved.getValue()).containsExactly(failing);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DataSourceHeartbeatDto>> pushed = ArgumentCaptor.forClass(List.class);
+        verify(platformClient).pushHeartbeats(pushed.capture());
+        assertThat(pushed.getValue()).extracting(DataSourceHeartbeatDto::id).containsExactly(failing.getId());
+        assertThat(stable.getLastHeartbeatAt()).isEqualTo(now.get());
+    }
+
+    @Test
+    void unchangedStatusIsNotWritten() {
+        source("stable", "UP", 0);
+
+        scheduler.runCycle();
+
+        verify(repository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void persistentlyFailingSourceBacksOffExponentially() {
+        // 每轮从"数据库"重新加载实体：状态未变的失败不写库，计数只能来自调度器自身
+        source("failing", "DOWN", 0);
+        Map<UUID, InfraDataSource> stored = new LinkedHashMap<>();
+        sources.forEach(source -> stored.put(source.getId(), copy(source)));
+        AtomicReference<InfraDataSource> lastLoaded = new AtomicReference<>();
+        when(repository.findAll()).thenAnswer(inv -> {
+            List<InfraDataSource> fresh = stored.values().stream().map(DataSourceHeartbeatSchedulerTest::copy).toList();
+            lastLoaded.set(fresh.get(0));
+            return fresh;
+        });
+        when(repository.saveAll(anyList())).thenAnswer(inv -> {
+            ((List<InfraDataSource>) inv.getArgument(0)).forEach(source -> stored.put(source.getId(), copy(source)));
+            return inv.getArgument(0);
+        });
+        results.put("failing", new ConnectivityResult(false, 5L, "连接 h:1 失败", "refused"));
+
+        assertThat(scheduler.runCycle()).isEqualTo(1);
+        now.set(now.get().plusSeconds(60));
+        assertThat(scheduler.runCycle()).isEqualTo(1);
+        assertThat(lastLoaded.get().getHeartbeatFailureCount()).isEqualTo(2);
+        assertThat(stored.values().iterator().next().getHeartbeatFailureCount()).isEqualTo(1);
+        now.set(now.get().plusSeconds(60));
+        assertThat(scheduler.runCycle()).isZero();
+        now.set(now.get().plusSeconds(60));
+        assertThat(scheduler.runCycle()).isEqualTo(1);
+        assertThat(lastLoaded.get().getHeartbeatFailureCount()).isEqualTo(3);
+        // 第三次失败后间隔 4 分钟
+        now.set(now.get().plusSeconds(120));
+        assertThat(scheduler.runCycle()).isZero();
+        now.set(now.get().plusSeconds(120));
+        assertThat(scheduler.runCycle()).isEqualTo(1);
+        assertThat(lastLoaded.get().getHeartbeatFailureCount()).isEqualTo(4);
+
+        assertThat(scheduler.backoffDelay(3)).isEqualTo(Duration.ofMinutes(4));
+        assertThat(scheduler.backoffDelay(50)).isEqualTo(Duration.ofMinutes(30));
+    }
+
+    private static InfraDataSource copy(InfraDataSource source) {
+        InfraDataSource copy = new InfraDataSource();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setType(source.getType());
+        copy.setStatus(source.getStatus());
+        copy.setHeartbeatStatus(source.getHeartbeatStatus());
+        copy.setHeartbeatFailureCount(source.getHeartbeatFailureCount());
+        copy.setLastError(source.getLastError());
+        copy.setLastHeartbeatAt(source.getLastHeartbeatAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        return copy;
+    }
+
+    private InfraDataSource source(String name, String heartbeat, int failures) {
+        InfraDataSource source = new InfraDataSource();
+        source.setId(UUID.randomUUID());
+        source.setName(name);
+        source.setType("INCEPTOR");
+        source.setStatus("UP".equals(heartbeat) ? "ACTIVE" : "INACTIVE");
+        source.setHeartbeatStatus(heartbeat);
+        source.setHeartbeatFailureCount(failures);
+        source.setUpdatedAt(now.get());
+        sources.add(source);
+        return source;
+    }
+}
@@ -0,0 +1,178 @@
+package com.yuzhi.dts.admin.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yuzhi.dts.admin.domain.AdminRoleMember;
+import com.yuzhi.dts.admin.repository.AdminApprovalRequestRepository;
+import com.yuzhi.dts.admin.repository.AdminCustomRoleRepository;
+import com.yuzhi.dts.admin.repository.AdminDatasetRepository;
+import com.yuzhi.dts.admin.repository.AdminKeycloakUserRepository;
+import com.yuzhi.dts.admin.repository.AdminRoleAssignmentRepository;
+import com.yuzhi.dts.admin.repository.AdminRoleMemberRepository;
+import com.yuzhi.dts.admin.repository.ChangeRequestRepository;
+import com.yuzhi.dts.admin.repository.OrganizationRepository;
+import com.yuzhi.dts.admin.repository.PortalMenuRepository;
+import com.yuzhi.dts.admin.repository.PortalMenuVisibilityRepository;
+import com.yuzhi.dts.admin.repository.SystemConfigRepository;
+import com.yuzhi.dts.admin.service.ChangeRequestService;
+import com.yuzhi.dts.admin.service.OrganizationService;
+import com.yuzhi.dts.admin.service.OrganizationSyncService;
+import com.yuzhi.dts.admin.service.PortalMenuService;
+import com.yuzhi.dts.admin.service.audit.AdminAuditService;
+import com.yuzhi.dts.admin.service.auditv2.AuditV2Service;
+import com.yuzhi.dts.admin.service.auditv2.ChangeSnapshotFormatter;
+import com.yuzhi.dts.admin.service.notify.DtsCommonNotifyClient;
+import com.yuzhi.dts.admin.service.user.AdminUserService;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class AdminApiResourceRoleSummaryTest {
+
+    @Mock
+    private AuditV2Service auditV2Service;
+    @Mock
+    private OrganizationService organizationService;
+    @Mock
+    private OrganizationSyncService organizationSyncService;
+    @Mock
+    private ChangeRequestRepository changeRequestRepository;
+    @Mock
+    private AdminApprovalRequestRepository approvalRepository;
+    @Mock
+    private ChangeRequestService changeRequestService;
+    @Mock
+    private PortalMenuService portalMenuService;
+    @Mock
+    private AdminDatasetRepository datasetRepository;
+    @Mock
+    private AdminCustomRoleRepository customRoleRepository;
+    @Mock
+    private AdminKeycloakUserRepository userRepository;
+    @Mock
+    private AdminRoleAssignmentRepository roleAssignmentRepository;
+    @Mock
+    private AdminRoleMemberRepository roleMemberRepository;
+    @Mock
+    private SystemConfigRepository systemConfigRepository;
+    @Mock
+    private PortalMenuRepository portalMenuRepository;
+    @Mock
+    private PortalMenuVisibilityRepository portalMenuVisibilityRepository;
+    @Mock
+    private DtsCommonNotifyClient notifyClient;
+    @Mock
+    private OrganizationRepository organizationRepository;
+    @Mock
+    private AdminUserService adminUserService;
+    @Mock
+    private ChangeSnapshotFormatter changeSnapshotFormatter;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private AdminAuditService adminAuditService;
+
+    private AdminApiResource resource;
+
+    @BeforeEach
+    void setUp() {
+        resource = new AdminApiResource(
+            auditV2Service,
+            organizationService,
+            organizationSyncService,
+            changeRequestRepository,
+            approvalRepository,
+            changeRequestService,
+            portalMenuService,
+            datasetRepository,
+            customRoleRepository,
+            userRepository,
+            roleAssignmentRepository,
+            roleMemberRepository,
+            systemConfigRepository,
+            portalMenuRepository,
+            portalMenuVisibilityRepository,
+            notifyClient,
+            organizationRepository,
+            adminUserService,
+            changeSnapshotFormatter,
+            transactionManager,
+            adminAuditService
+        );
+    }
+
+    @Test
+    void summaryCountsMergeCanonicalAndPrefixedRoleCodes() {
+        when(roleMemberRepository.countMembersGroupedByRole()).thenReturn(
+            List.of(roleCount("DEPT_DATA_OWNER", 2L), roleCount("ROLE_DEPT_DATA_OWNER", 2L), roleCount("INST_DATA_DEV", 3L))
+        );
+        when(portalMenuVisibilityRepository.countGroupedByRoleCode()).thenReturn(
+            List.of(roleCodeCount("ROLE_DEPT_DATA_OWNER", 4L), roleCodeCount("ROLE_DEPT_OWNER", 1L), roleCodeCount(null, 9L))
+        );
+        when(roleMemberRepository.findByRoleIgnoreCase("DEPT_DATA_OWNER")).thenReturn(List.of(member("Alice"), member("bob")));
+        when(roleMemberRepository.findByRoleIgnoreCase("ROLE_DEPT_DATA_OWNER")).thenReturn(List.of(member(" alice "), member("BOB")));
+
+        AdminApiResource.RoleSummaryCounts counts = resource.loadRoleSummaryCounts();
+
+        assertThat(counts.members()).containsEntry("DEPT_DATA_OWNER", 2L).containsEntry("ROLE_DEPT_DATA_OWNER", 2L);
+        assertThat(counts.bindings()).hasSize(2);
+        // 两种编码下的成员只是大小写与空白不同，应按同一用户去重
+        assertThat(resource.summaryMemberCount("DEPT_DATA_OWNER", counts)).isEqualTo(2L);
+        assertThat(resource.summaryMemberCount("INST_DATA_DEV", counts)).isEqualTo(3L);
+        assertThat(counts.menuBindings(List.of("ROLE_DEPT_DATA_OWNER", "ROLE_DEPT_OWNER"))).isEqualTo(5);
+    }
+
+    @Test
+    void summaryCountSumsWhenOnlyOneRoleCodeHasMembers() {
+        when(roleMemberRepository.countMembersGroupedByRole()).thenReturn(List.of(roleCount("ROLE_INST_DATA_DEV", 3L)));
+        when(portalMenuVisibilityRepository.countGroupedByRoleCode()).thenThrow(new IllegalStateException("table missing"));
+
+        AdminApiResource.RoleSummaryCounts counts = resource.loadRoleSummaryCounts();
+
+        assertThat(resource.summaryMemberCount("INST_DATA_DEV", counts)).isEqualTo(3L);
+        assertThat(counts.bindings()).isEmpty();
+        verify(roleMemberRepository, never()).findByRoleIgnoreCase("INST_DATA_DEV");
+    }
+
+    private static AdminRoleMember member(String username) {
+        AdminRoleMember member = new AdminRoleMember();
+        member.setUsername(username);
+        return member;
+    }
+
+    private static AdminRoleMemberRepository.RoleCount roleCount(String role, Long total) {
+        return new AdminRoleMemberRepository.RoleCount() {
+            @Override
+            public String getRole() {
+                return role;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+
+    private static PortalMenuVisibilityRepository.RoleCodeCount roleCodeCount(String roleCode, Long total) {
+        return new PortalMenuVisibilityRepository.RoleCodeCount() {
+            @Override
+            public String getRoleCode() {
+                return roleCode;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+}
@@ -0,0 +1,167 @@
+package com.yuzhi.dts.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result ({@code -rf json}) with a stored baseline and exits non-zero when a
+ * benchmark regressed by more than the threshold <em>and</em> by more than the combined score
+ * error of both runs, so ordinary run-to-run noise does not fail the check.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.yuzhi.dts.benchmarks.BaselineComparator \
+ *     [--threshold=0.10] [--update] baseline/jmh-baseline.json target/jmh-result.json
+ * </pre>
+ *
+ * {@code --update} replaces the baseline with the current result after printing the comparison.
+ */
+public final class BaselineComparator {
+
+    record Score(String mode, double score, double error, String unit) {
+        /** Average/sample/single-shot times: lower is better. Throughput: higher is better. */
+        boolean lowerIsBetter() {
+            return !"thrpt".equals(mode);
+        }
+    }
+
+    record Delta(String key, Score baseline, Score current, double change, boolean regression) {}
+
+    private BaselineComparator() {}
+
+    public static void main(String[] args) throws IOException {
+        double threshold = 0.10;
+        boolean update = false;
+        List<String> files = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--threshold=")) {
+                threshold = Double.parseDouble(arg.substring("--threshold=".length()));
+            } else if ("--update".equals(arg)) {
+                update = true;
+            } else {
+                files.add(arg);
+            }
+        }
+        if (files.size() != 2) {
+            System.err.println("usage: BaselineComparator [--threshold=0.10] [--update] <baseline.json> <current.json>");
+            System.exit(2);
+            return;
+        }
+        Path baselinePath = Path.of(files.get(0));
+        Path currentPath = Path.of(files.get(1));
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Score> current = read(mapper, currentPath);
+
+        int regressions = 0;
+        if (Files.exists(baselinePath)) {
+            List<Delta> deltas = compare(read(mapper, baselinePath), current, threshold);
+            for (Delta delta : deltas) {
+                System.out.println(describe(delta));
+                if (delta.regression()) {
+                    regressions++;
+                }
+            }
+            System.out.printf(Locale.ROOT, "%d benchmarks compared, %d regression(s) above %.0f%%%n", deltas.size(), regressions, threshold * 100);
+        } else {
+            System.out.println("No baseline at " + baselinePath + "; run with --update to record one.");
+        }
+
+        if (update) {
+            Path parent = baselinePath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.copy(currentPath, baselinePath, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline updated: " + baselinePath);
+            return;
+        }
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    static List<Delta> compare(Map<String, Score> baseline, Map<String, Score> current, double threshold) {
+        List<Delta> out = new ArrayList<>();
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score now = entry.getValue();
+            if (before == null || before.score() == 0 || !before.unit().equals(now.unit())) {
+                out.add(new Delta(entry.getKey(), before, now, Double.NaN, false));
+                continue;
+            }
+            double change = (now.score() - before.score()) / before.score();
+            double worsening = now.lowerIsBetter() ? change : -change;
+            double noise = Math.abs(now.error()) + Math.abs(before.error());
+            boolean regression = worsening > threshold && Math.abs(now.score() - before.score()) > noise;
+            out.add(new Delta(entry.getKey(), before, now, change, regression));
+        }
+        return out;
+    }
+
+    static Map<String, Score> read(ObjectMapper mapper, Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        JsonNode root = mapper.readTree(file.toFile());
+        for (JsonNode run : root) {
+            JsonNode metric = run.path("primaryMetric");
+            scores.put(
+                key(run),
+                new Score(
+                    run.path("mode").asText(),
+                    metric.path("score").asDouble(),
+                    finiteOrZero(metric.path("scoreError").asDouble()),
+                    metric.path("scoreUnit").asText()
+                )
+            );
+        }
+        return scores;
+    }
+
+    private static String key(JsonNode run) {
+        StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+        JsonNode params = run.path("params");
+        if (params.isObject() && !params.isEmpty()) {
+            Map<String, String> sorted = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                sorted.put(field.getKey(), field.getValue().asText());
+            }
+            key.append(sorted);
+        }
+        return key.toString();
+    }
+
+    private static double finiteOrZero(double value) {
+        return Double.isFinite(value) ? value : 0;
+    }
+
+    private static String describe(Delta delta) {
+        Score now = delta.current();
+        if (delta.baseline() == null) {
+            return String.format(Locale.ROOT, "  NEW  %s: %.3f %s", delta.key(), now.score(), now.unit());
+        }
+        if (Double.isNaN(delta.change())) {
+            return String.format(Locale.ROOT, "  ??   %s: unit or score not comparable", delta.key());
+        }
+        return String.format(
+            Locale.ROOT,
+            "%s %s: %.3f -> %.3f %s (%+.1f%%)",
+            delta.regression() ? "  FAIL" : "  ok  ",
+            delta.key(),
+            delta.baseline().score(),
+            now.score(),
+            now.unit(),
+            delta.change() * 100
+        );
+    }
+}
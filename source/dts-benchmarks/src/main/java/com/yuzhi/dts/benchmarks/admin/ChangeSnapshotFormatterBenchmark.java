@@ -0,0 +1,89 @@
+package com.yuzhi.dts.benchmarks.admin;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuzhi.dts.admin.service.auditv2.ChangeSnapshotFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ChangeSnapshotFormatter#format(Map, Map, String)} for the resource types that dominate the
+ * admin audit log: users (realm role sanitizing), roles (excluded fields) and portal menus
+ * (restricted field set), each with a handful of changed fields among unchanged ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChangeSnapshotFormatterBenchmark {
+
+    @Param({ "USER", "ROLE", "PORTAL_MENU" })
+    public String resourceType;
+
+    private ChangeSnapshotFormatter formatter;
+    private Map<String, Object> before;
+    private Map<String, Object> after;
+
+    @Setup
+    public void setUp() {
+        formatter = new ChangeSnapshotFormatter(new ObjectMapper());
+        before = new LinkedHashMap<>();
+        after = new LinkedHashMap<>();
+        switch (resourceType) {
+            case "ROLE" -> {
+                put("name", "ROLE_DATA_ANALYST", "ROLE_DATA_ANALYST");
+                put("displayName", "数据分析员", "高级数据分析员");
+                put("description", "可查询分析数据", "可查询并导出分析数据");
+                put("scope", "DEPARTMENT", "INSTITUTE");
+                put("enabled", true, true);
+                put("permissions", List.of("catalog.read", "explore.query"), List.of("catalog.read", "explore.query", "explore.export"));
+                put("members", List.of("alice", "bob"), List.of("alice", "bob", "carol"));
+                put("memberCount", 2, 3);
+            }
+            case "PORTAL_MENU" -> {
+                put("name", "数据探查", "数据探查");
+                put("path", "/explore", "/explore");
+                put("component", "explore/index", "explore/index");
+                put("sortOrder", 10, 20);
+                put("deleted", false, true);
+                put("allowedRoles", List.of("ROLE_USER"), List.of("ROLE_USER", "ROLE_DATA_ANALYST"));
+                put("metadata", Map.of("badge", "new"), Map.of("badge", "beta"));
+            }
+            default -> {
+                put("username", "zhangsan", "zhangsan");
+                put("fullName", "张三", "张三丰");
+                put("email", "zhangsan@example.com", "zsf@example.com");
+                put("phone", "13800000000", "13900000000");
+                put("personSecurityLevel", "GENERAL", "IMPORTANT");
+                put("enabled", true, false);
+                put("groupPaths", List.of("/研发中心/数据组"), List.of("/研发中心/数据组", "/研发中心/平台组"));
+                put("realmRoles", List.of("offline_access", "uma_authorization", "ROLE_USER"), List.of("offline_access", "ROLE_USER", "ROLE_OPS"));
+                put("attributes", Map.of("dept_code", List.of("D001")), Map.of("dept_code", List.of("D002")));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, String>> format() {
+        return formatter.format(before, after, resourceType);
+    }
+
+    private void put(String field, Object beforeValue, Object afterValue) {
+        before.put(field, beforeValue);
+        after.put(field, afterValue);
+    }
+}
@@ -0,0 +1,129 @@
+package com.yuzhi.dts.benchmarks.platform;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Row handling performed by {@code ExploreResource} after the gateway returns: normalizing driver
+ * rows, deriving the masked column list, copying rows into the response and serializing the
+ * 50-row preview that is persisted with the result set.
+ *
+ * <p>Those steps are private to the controller, so they are reproduced here verbatim; keep this
+ * class in step with {@code ExploreResource#extractRows}, {@code #buildMasking},
+ * {@code #cloneRows} and {@code #writePreview}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExploreResultShapingBenchmark {
+
+    private static final int PREVIEW_ROW_LIMIT = 50;
+
+    @Param({ "100", "1000", "5000" })
+    public int rowCount;
+
+    @Param({ "8", "32" })
+    public int columnCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<Object> driverRows;
+    private List<String> headers;
+
+    @Setup
+    public void setUp() {
+        headers = new ArrayList<>(columnCount);
+        for (int c = 0; c < columnCount; c++) {
+            headers.add(
+                switch (c % 4) {
+                    case 0 -> "customer_id_" + c;
+                    case 1 -> "customer_name_" + c;
+                    case 2 -> "amount_" + c;
+                    default -> "phone_" + c;
+                }
+            );
+        }
+        driverRows = new ArrayList<>(rowCount);
+        for (int r = 0; r < rowCount; r++) {
+            Map<Object, Object> row = new LinkedHashMap<>();
+            for (int c = 0; c < columnCount; c++) {
+                row.put(headers.get(c), c % 4 == 2 ? (Object) (r * 13L + c) : "v" + r + "_" + c);
+            }
+            driverRows.add(row);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> shapeResult() throws JsonProcessingException {
+        List<Map<String, Object>> rows = extractRows(driverRows);
+        Map<String, Object> masking = buildMasking(headers);
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("headers", headers);
+        payload.put("rows", cloneRows(rows, rows.size()));
+        payload.put("masking", masking);
+        payload.put("rowCount", rows.size());
+        Map<String, Object> preview = new LinkedHashMap<>();
+        preview.put("rows", cloneRows(rows, Math.min(PREVIEW_ROW_LIMIT, rows.size())));
+        preview.put("masking", masking);
+        payload.put("preview", objectMapper.writeValueAsString(preview));
+        return payload;
+    }
+
+    private static List<Map<String, Object>> extractRows(Object rowsObj) {
+        if (!(rowsObj instanceof List<?> list)) {
+            return new ArrayList<>();
+        }
+        List<Map<String, Object>> rows = new ArrayList<>(list.size());
+        for (Object item : list) {
+            if (item instanceof Map<?, ?> map) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    if (entry.getKey() != null) {
+                        row.put(String.valueOf(entry.getKey()), entry.getValue());
+                    }
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static Map<String, Object> buildMasking(List<String> headers) {
+        List<String> masked = headers
+            .stream()
+            .filter(h -> {
+                String lower = h.toLowerCase(Locale.ROOT);
+                return lower.contains("name") || lower.contains("id") || lower.contains("phone");
+            })
+            .collect(Collectors.toList());
+        return Map.of("maskedColumns", masked);
+    }
+
+    private static List<Map<String, Object>> cloneRows(List<Map<String, Object>> source, int limit) {
+        List<Map<String, Object>> copy = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, source.size()); i++) {
+            copy.add(new LinkedHashMap<>(source.get(i)));
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,58 @@
+package com.yuzhi.dts.benchmarks.platform;
+
+import com.yuzhi.dts.platform.service.security.MaskingFunctions;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link MaskingFunctions#apply} per strategy over a mixed column of phone numbers, names, ids and
+ * numeric values. Reported time is per value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MaskingFunctionsBenchmark {
+
+    private static final int VALUES = 256;
+
+    @Param({ "NONE", "PARTIAL", "HASH", "TOKENIZE" })
+    public String strategy;
+
+    private Object[] values;
+
+    @Setup
+    public void setUp() {
+        values = new Object[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = switch (i % 4) {
+                case 0 -> "138" + String.format("%08d", i * 7919);
+                case 1 -> "张三" + i;
+                case 2 -> "ID-" + (100000 + i);
+                default -> 1000L + i * 31L;
+            };
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void apply(Blackhole bh) {
+        for (Object value : values) {
+            bh.consume(MaskingFunctions.apply(value, strategy));
+        }
+    }
+}
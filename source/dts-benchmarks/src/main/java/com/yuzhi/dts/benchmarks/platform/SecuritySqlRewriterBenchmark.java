@@ -0,0 +1,93 @@
+package com.yuzhi.dts.benchmarks.platform;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.yuzhi.dts.common.observability.OperationMetrics;
+import com.yuzhi.dts.common.observability.SlowOperationJournal;
+import com.yuzhi.dts.platform.domain.catalog.CatalogDataset;
+import com.yuzhi.dts.platform.repository.catalog.CatalogRowFilterRuleRepository;
+import com.yuzhi.dts.platform.security.policy.DataLevel;
+import com.yuzhi.dts.platform.service.security.AccessChecker;
+import com.yuzhi.dts.platform.service.security.DatasetSecurityMetadataResolver;
+import com.yuzhi.dts.platform.service.security.DatasetSqlBuilder;
+import com.yuzhi.dts.platform.service.security.SecuritySqlRewriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link SecuritySqlRewriter#guard} over the statement shapes the Explore workbench sends most: a
+ * plain projection, an aggregate with GROUP BY, and a wide projection with ORDER BY / LIMIT.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecuritySqlRewriterBenchmark {
+
+    @Param({ "simple", "aggregate", "wide" })
+    public String shape;
+
+    private SecuritySqlRewriter rewriter;
+    private CatalogDataset dataset;
+    private String sql;
+
+    @Setup
+    public void setUp() {
+        AccessChecker accessChecker = mock(AccessChecker.class);
+        DatasetSecurityMetadataResolver metadataResolver = mock(DatasetSecurityMetadataResolver.class);
+        CatalogRowFilterRuleRepository rowFilterRuleRepository = mock(CatalogRowFilterRuleRepository.class);
+
+        dataset = new CatalogDataset();
+        dataset.setId(UUID.fromString("11111111-2222-3333-4444-555555555555"));
+        dataset.setHiveTable("ods_orders");
+
+        when(accessChecker.resolveAllowedDataLevels()).thenReturn(
+            List.of(DataLevel.DATA_PUBLIC, DataLevel.DATA_INTERNAL, DataLevel.DATA_SECRET)
+        );
+        when(metadataResolver.findDataLevelColumn(dataset)).thenReturn(Optional.of("data_level"));
+
+        OperationMetrics metrics = new OperationMetrics(new SimpleMeterRegistry(), new SlowOperationJournal(16, Duration.ofSeconds(1)));
+        DatasetSqlBuilder datasetSqlBuilder = new DatasetSqlBuilder(accessChecker, metadataResolver, rowFilterRuleRepository);
+        rewriter = new SecuritySqlRewriter(accessChecker, metadataResolver, datasetSqlBuilder, metrics);
+
+        sql = switch (shape) {
+            case "aggregate" -> "SELECT region, category_id, COUNT(*), SUM(amount) FROM ods_orders WHERE status = 'DONE' GROUP BY region, category_id";
+            case "wide" -> wideSelect();
+            default -> "SELECT id, amount FROM ods_orders WHERE status = 'DONE';";
+        };
+    }
+
+    @Benchmark
+    public String guard() {
+        return rewriter.guard(sql, dataset);
+    }
+
+    private static String wideSelect() {
+        StringBuilder sb = new StringBuilder("SELECT ");
+        for (int i = 0; i < 40; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append("col_").append(i);
+        }
+        return sb.append(" FROM ods_orders WHERE created_at >= '2026-01-01' ORDER BY col_0 DESC LIMIT 500").toString();
+    }
+}
@@ -0,0 +1,65 @@
+package com.yuzhi.dts.benchmarks.platform;
+
+import com.yuzhi.dts.platform.service.sql.SqlValidationService;
+import com.yuzhi.dts.platform.service.sql.dto.SqlValidateRequest;
+import com.yuzhi.dts.platform.service.sql.dto.SqlValidateResponse;
+import java.security.Principal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link SqlValidationService#validate}: short selects, statements that already carry a LIMIT, and
+ * a long multi-join statement (the regex LIMIT probe scans the whole text).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SqlValidationBenchmark {
+
+    @Param({ "short", "limited", "long" })
+    public String shape;
+
+    private final SqlValidationService service = new SqlValidationService();
+    private final Principal principal = () -> "bench";
+    private SqlValidateRequest request;
+
+    @Setup
+    public void setUp() {
+        String sql = switch (shape) {
+            case "limited" -> "select id, amount from ods_orders where status = 'DONE' order by id limit 200";
+            case "long" -> longJoin();
+            default -> "select * from ods_orders";
+        };
+        request = new SqlValidateRequest(sql, "hive", null, "ods", null);
+    }
+
+    @Benchmark
+    public SqlValidateResponse validate() {
+        return service.validate(request, principal);
+    }
+
+    private static String longJoin() {
+        StringBuilder sb = new StringBuilder("select o.id, o.amount");
+        for (int i = 0; i < 12; i++) {
+            sb.append(", d").append(i).append(".name as d").append(i).append("_name");
+        }
+        sb.append(" from ods_orders o");
+        for (int i = 0; i < 12; i++) {
+            sb.append(" left join dim_").append(i).append(" d").append(i).append(" on d").append(i).append(".id = o.dim_").append(i).append("_id");
+        }
+        return sb.append(" where o.created_at >= '2026-01-01' and o.status in ('DONE', 'PAID', 'SHIPPED')").toString();
+    }
+}
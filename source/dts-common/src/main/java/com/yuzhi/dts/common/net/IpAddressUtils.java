@@ -116,13 +116,135 @@ public final class IpAddressUtils {
     }
 
     private static InetAddress parseInetAddress(String value) {
+        return parseLiteral(value);
+    }
+
+    /**
+     * Parses an IPv4 or IPv6 address literal without ever consulting DNS. Host names, malformed input and
+     * abbreviated IPv4 forms yield {@code null}. Brackets and an IPv6 zone id are accepted and the zone is dropped.
+     */
+    public static InetAddress parseLiteral(String value) {
+        if (value == null) {
+            return null;
+        }
+        String candidate = value.trim();
+        if (candidate.length() > 2 && candidate.startsWith("[") && candidate.endsWith("]")) {
+            candidate = candidate.substring(1, candidate.length() - 1);
+        }
+        int zone = candidate.indexOf('%');
+        if (zone >= 0 && candidate.indexOf(':') >= 0) {
+            candidate = candidate.substring(0, zone);
+        }
+        if (candidate.isEmpty()) {
+            return null;
+        }
+        byte[] bytes = candidate.indexOf(':') >= 0 ? parseIpv6(candidate) : parseIpv4(candidate);
+        if (bytes == null) {
+            return null;
+        }
         try {
-            return InetAddress.getByName(value);
+            return InetAddress.getByAddress(bytes);
         } catch (UnknownHostException ignored) {
             return null;
         }
     }
 
+    private static byte[] parseIpv4(String literal) {
+        String[] parts = literal.split("\\.", -1);
+        if (parts.length != 4) {
+            return null;
+        }
+        byte[] bytes = new byte[4];
+        for (int i = 0; i < 4; i++) {
+            String part = parts[i];
+            if (part.isEmpty() || part.length() > 3) {
+                return null;
+            }
+            int octet = 0;
+            for (int j = 0; j < part.length(); j++) {
+                char ch = part.charAt(j);
+                if (ch < '0' || ch > '9') {
+                    return null;
+                }
+                octet = octet * 10 + (ch - '0');
+            }
+            if (octet > 255) {
+                return null;
+            }
+            bytes[i] = (byte) octet;
+        }
+        return bytes;
+    }
+
+    private static byte[] parseIpv6(String literal) {
+        int compressed = literal.indexOf("::");
+        if (compressed >= 0 && literal.indexOf("::", compressed + 1) >= 0) {
+            return null;
+        }
+        List<Integer> head;
+        List<Integer> tail;
+        if (compressed >= 0) {
+            head = parseHextets(literal.substring(0, compressed), false);
+            tail = parseHextets(literal.substring(compressed + 2), true);
+        } else {
+            head = parseHextets(literal, true);
+            tail = List.of();
+        }
+        if (head == null || tail == null) {
+            return null;
+        }
+        int groups = head.size() + tail.size();
+        if (compressed >= 0 ? groups > 7 : groups != 8) {
+            return null;
+        }
+        byte[] bytes = new byte[16];
+        int index = 0;
+        for (int group : head) {
+            bytes[index++] = (byte) (group >>> 8);
+            bytes[index++] = (byte) group;
+        }
+        index = 16 - tail.size() * 2;
+        for (int group : tail) {
+            bytes[index++] = (byte) (group >>> 8);
+            bytes[index++] = (byte) group;
+        }
+        return bytes;
+    }
+
+    /** Parses colon separated 16-bit groups; the last group may be an embedded IPv4 literal when allowed. */
+    private static List<Integer> parseHextets(String part, boolean allowIpv4Tail) {
+        List<Integer> groups = new ArrayList<>();
+        if (part.isEmpty()) {
+            return groups;
+        }
+        String[] tokens = part.split(":", -1);
+        for (int i = 0; i < tokens.length; i++) {
+            String token = tokens[i];
+            if (allowIpv4Tail && i == tokens.length - 1 && token.indexOf('.') >= 0) {
+                byte[] ipv4 = parseIpv4(token);
+                if (ipv4 == null) {
+                    return null;
+                }
+                groups.add(((ipv4[0] & 0xFF) << 8) | (ipv4[1] & 0xFF));
+                groups.add(((ipv4[2] & 0xFF) << 8) | (ipv4[3] & 0xFF));
+                continue;
+            }
+            if (token.isEmpty() || token.length() > 4) {
+                return null;
+            }
+            int value = 0;
+            for (int j = 0; j < token.length(); j++) {
+                int digit = Character.digit(token.charAt(j), 16);
+                if (digit < 0) {
+                    return null;
+                }
+                value = (value << 4) | digit;
+            }
+            groups.add(value);
+        }
+        return groups;
+    }
+
     private static boolean isPublicAddress(InetAddress address, String literal) {
         if (address instanceof Inet6Address inet6) {
             if (literal != null && literal.startsWith("::ffff:")) {
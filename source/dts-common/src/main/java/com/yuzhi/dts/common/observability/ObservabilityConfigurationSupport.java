@@ -0,0 +1,29 @@
+package com.yuzhi.dts.common.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Base for each service's {@code @Configuration}: registers {@link OperationMetrics} with a journal sized from
+ * {@link ObservabilityProperties} bound under the given prefix, and the {@link SlowOperationsEndpoint}.
+ */
+public abstract class ObservabilityConfigurationSupport {
+
+    private final String propertyPrefix;
+
+    protected ObservabilityConfigurationSupport(String propertyPrefix) {
+        this.propertyPrefix = propertyPrefix;
+    }
+
+    @Bean
+    public OperationMetrics operationMetrics(MeterRegistry meterRegistry, Environment environment) {
+        ObservabilityProperties properties = ObservabilityProperties.bind(environment, propertyPrefix);
+        return new OperationMetrics(meterRegistry, new SlowOperationJournal(properties.getJournalCapacity(), properties.getSlowThreshold()));
+    }
+
+    @Bean
+    public SlowOperationsEndpoint slowOperationsEndpoint(OperationMetrics operationMetrics) {
+        return new SlowOperationsEndpoint(operationMetrics);
+    }
+}
@@ -0,0 +1,37 @@
+package com.yuzhi.dts.common.observability;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+
+/**
+ * Slow-operation journal settings. Each service binds them under its own prefix
+ * (e.g. {@code dts.admin.observability}) through {@link #bind(Environment, String)}.
+ */
+public class ObservabilityProperties {
+
+    /** Operations at or above this duration are written to the slow-operation journal (/management/slowops). */
+    private Duration slowThreshold = Duration.ofSeconds(1);
+    /** Maximum number of journal entries kept; the oldest are dropped beyond it. */
+    private int journalCapacity = 200;
+
+    public static ObservabilityProperties bind(Environment environment, String prefix) {
+        return Binder.get(environment).bind(prefix, ObservabilityProperties.class).orElseGet(ObservabilityProperties::new);
+    }
+
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public void setSlowThreshold(Duration slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    public int getJournalCapacity() {
+        return journalCapacity;
+    }
+
+    public void setJournalCapacity(int journalCapacity) {
+        this.journalCapacity = journalCapacity;
+    }
+}
@@ -0,0 +1,181 @@
+package com.yuzhi.dts.common.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hot-path timing shared by admin and platform: percentile timers per operation/stage/datasource,
+ * an in-flight gauge per operation, and a {@link SlowOperationJournal} for operations over the threshold.
+ * <p>
+ * Meters:
+ * <ul>
+ *     <li>{@code dts.operation.duration}: total time, tags operation/datasource/outcome;</li>
+ *     <li>{@code dts.operation.stage}: per-stage time, tags operation/stage/datasource;</li>
+ *     <li>{@code dts.operation.active}: operations in flight, tag operation;</li>
+ *     <li>{@code dts.operation.slow}: operations written to the journal, tag operation.</li>
+ * </ul>
+ */
+public class OperationMetrics {
+
+    public static final String UNKNOWN = "unknown";
+    private static final double[] PERCENTILES = { 0.5, 0.95, 0.99 };
+
+    private final MeterRegistry registry;
+    private final SlowOperationJournal journal;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicInteger> active = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public OperationMetrics(MeterRegistry registry, SlowOperationJournal journal) {
+        this.registry = registry;
+        this.journal = journal;
+        Gauge.builder("dts.operation.slow.journal.size", journal, SlowOperationJournal::size).register(registry);
+    }
+
+    public SlowOperationJournal journal() {
+        return journal;
+    }
+
+    public MeterRegistry registry() {
+        return registry;
+    }
+
+    /** Starts timing an operation; callers must close the span in a finally block or try-with-resources. */
+    public Span start(String operation, String datasource) {
+        return new Span(operation, normalizeTag(datasource));
+    }
+
+    /** Increments a counter identified by name and tag key/value pairs. */
+    public void increment(String name, String... tags) {
+        increment(name, 1, tags);
+    }
+
+    public void increment(String name, double amount, String... tags) {
+        if (amount <= 0) {
+            return;
+        }
+        String key = name + '|' + String.join("|", tags);
+        counters.computeIfAbsent(key, k -> Counter.builder(name).tags(tags).register(registry)).increment(amount);
+    }
+
+    /**
+     * Extracts {@code host:port} from a JDBC URL as the datasource tag, leaving out database names and
+     * parameters so the tag stays low-cardinality.
+     */
+    public static String datasourceOf(String jdbcUrl) {
+        if (jdbcUrl == null || jdbcUrl.isBlank()) {
+            return UNKNOWN;
+        }
+        int start = jdbcUrl.indexOf("//");
+        if (start < 0) {
+            return UNKNOWN;
+        }
+        start += 2;
+        int end = start;
+        while (end < jdbcUrl.length()) {
+            char c = jdbcUrl.charAt(end);
+            if (c == '/' || c == ';' || c == '?') {
+                break;
+            }
+            end++;
+        }
+        String authority = jdbcUrl.substring(start, end);
+        int at = authority.lastIndexOf('@');
+        if (at >= 0) {
+            authority = authority.substring(at + 1);
+        }
+        int comma = authority.indexOf(',');
+        if (comma >= 0) {
+            authority = authority.substring(0, comma);
+        }
+        return authority.isBlank() ? UNKNOWN : authority.toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalizeTag(String value) {
+        return value == null || value.isBlank() ? UNKNOWN : value;
+    }
+
+    private Timer timer(String name, String... tags) {
+        String key = name + '|' + String.join("|", tags);
+        return timers.computeIfAbsent(key, k -> Timer.builder(name).tags(tags).publishPercentiles(PERCENTILES).register(registry));
+    }
+
+    private AtomicInteger activeGauge(String operation) {
+        return active.computeIfAbsent(operation, op -> {
+            AtomicInteger value = new AtomicInteger();
+            Gauge.builder("dts.operation.active", value, AtomicInteger::get).tag("operation", op).register(registry);
+            return value;
+        });
+    }
+
+    /**
+     * Timing context of one operation: {@link #mark(String)} records the time since the previous mark as a
+     * stage, {@link #close()} records the total. Not thread-safe; use it on the thread that started it.
+     */
+    public final class Span implements AutoCloseable {
+
+        private final String operation;
+        private final String datasource;
+        private final AtomicInteger inFlight;
+        private final long startNanos;
+        private final Map<String, Long> stages = new LinkedHashMap<>();
+        private long lastMark;
+        private String sql;
+        private boolean failed;
+        private boolean closed;
+
+        private Span(String operation, String datasource) {
+            this.operation = operation;
+            this.datasource = datasource;
+            this.inFlight = activeGauge(operation);
+            this.inFlight.incrementAndGet();
+            this.startNanos = System.nanoTime();
+            this.lastMark = startNanos;
+        }
+
+        /** Records the time since the previous mark (or the start) under the stage; repeated stages accumulate. */
+        public Span mark(String stage) {
+            long now = System.nanoTime();
+            long elapsed = now - lastMark;
+            lastMark = now;
+            stages.merge(stage, elapsed, Long::sum);
+            timer("dts.operation.stage", "operation", operation, "stage", stage, "datasource", datasource).record(elapsed, TimeUnit.NANOSECONDS);
+            return this;
+        }
+
+        /** Attaches the SQL; only its fingerprint reaches the journal. */
+        public Span sql(String sql) {
+            this.sql = sql;
+            return this;
+        }
+
+        public Span failed() {
+            this.failed = true;
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            long total = System.nanoTime() - startNanos;
+            inFlight.decrementAndGet();
+            String outcome = failed ? "error" : "success";
+            timer("dts.operation.duration", "operation", operation, "datasource", datasource, "outcome", outcome).record(total, TimeUnit.NANOSECONDS);
+            if (journal.record(operation, datasource, outcome, total, stages, sql)) {
+                increment("dts.operation.slow", "operation", operation);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.yuzhi.dts.common.observability;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-process journal of operations slower than a threshold. Oldest entries are dropped
+ * once the capacity is reached; SQL is kept only as a {@link SqlFingerprint}.
+ */
+public final class SlowOperationJournal {
+
+    public record Entry(
+        Instant occurredAt,
+        String operation,
+        String datasource,
+        String outcome,
+        long durationMs,
+        Map<String, Long> stagesMs,
+        String fingerprint
+    ) {}
+
+    private final int capacity;
+    private final long thresholdNanos;
+    private final ArrayDeque<Entry> entries;
+    private long recorded;
+
+    public SlowOperationJournal(int capacity, Duration threshold) {
+        this.capacity = Math.max(1, capacity);
+        this.thresholdNanos = threshold == null ? 0 : Math.max(0, threshold.toNanos());
+        this.entries = new ArrayDeque<>(Math.min(this.capacity, 1024));
+    }
+
+    public Duration threshold() {
+        return Duration.ofNanos(thresholdNanos);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean isSlow(long durationNanos) {
+        return durationNanos >= thresholdNanos;
+    }
+
+    /**
+     * Records the operation when it crossed the threshold.
+     *
+     * @param stagesNanos per-stage durations in nanoseconds, in execution order; may be empty
+     * @param sql raw SQL, fingerprinted before it is stored; may be null
+     * @return whether an entry was added
+     */
+    public boolean record(String operation, String datasource, String outcome, long durationNanos, Map<String, Long> stagesNanos, String sql) {
+        if (!isSlow(durationNanos)) {
+            return false;
+        }
+        Map<String, Long> stages;
+        if (stagesNanos == null || stagesNanos.isEmpty()) {
+            stages = Map.of();
+        } else {
+            Map<String, Long> copy = new LinkedHashMap<>();
+            stagesNanos.forEach((stage, nanos) -> copy.put(stage, TimeUnit.NANOSECONDS.toMillis(nanos)));
+            stages = Collections.unmodifiableMap(copy);
+        }
+        Entry entry = new Entry(
+            Instant.now(),
+            operation,
+            datasource,
+            outcome,
+            TimeUnit.NANOSECONDS.toMillis(durationNanos),
+            stages,
+            SqlFingerprint.of(sql)
+        );
+        synchronized (this) {
+            if (entries.size() >= capacity) {
+                entries.pollFirst();
+            }
+            entries.addLast(entry);
+            recorded++;
+        }
+        return true;
+    }
+
+    /** Newest first, optionally filtered by operation name. */
+    public synchronized List<Entry> recent(int limit, String operation) {
+        int max = limit > 0 ? Math.min(limit, entries.size()) : entries.size();
+        List<Entry> out = new ArrayList<>(max);
+        Iterator<Entry> it = entries.descendingIterator();
+        while (it.hasNext() && out.size() < max) {
+            Entry entry = it.next();
+            if (operation == null || operation.equals(entry.operation())) {
+                out.add(entry);
+            }
+        }
+        return out;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Total entries recorded since startup, including ones already evicted. */
+    public synchronized long totalRecorded() {
+        return recorded;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
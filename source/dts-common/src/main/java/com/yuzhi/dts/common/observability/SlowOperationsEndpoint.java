@@ -0,0 +1,39 @@
+package com.yuzhi.dts.common.observability;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * Slow-operation journal: GET /management/slowops?limit=50&amp;operation=hive.query lists entries
+ * newest first, DELETE clears them. Registered by {@link ObservabilityConfigurationSupport}.
+ */
+@Endpoint(id = "slowops")
+public class SlowOperationsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 50;
+
+    private final SlowOperationJournal journal;
+
+    public SlowOperationsEndpoint(OperationMetrics operationMetrics) {
+        this.journal = operationMetrics.journal();
+    }
+
+    @ReadOperation
+    public Map<String, Object> slowOperations(@Nullable Integer limit, @Nullable String operation) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("thresholdMs", journal.threshold().toMillis());
+        body.put("capacity", journal.capacity());
+        body.put("totalRecorded", journal.totalRecorded());
+        body.put("entries", journal.recent(limit != null ? limit : DEFAULT_LIMIT, operation));
+        return body;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        journal.clear();
+    }
+}
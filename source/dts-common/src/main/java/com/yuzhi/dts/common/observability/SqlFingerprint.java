@@ -0,0 +1,76 @@
+package com.yuzhi.dts.common.observability;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * SQL fingerprint: strips comments and literals so statements differing only in values share one
+ * fingerprint, and no literal (potentially sensitive) values end up in diagnostics.
+ */
+public final class SqlFingerprint {
+
+    public static final int MAX_LENGTH = 512;
+
+    private static final Pattern NUMBER = Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?(?:[eE][-+]?\\d+)?(?![\\w$])");
+    private static final Pattern VALUE_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlFingerprint() {}
+
+    public static String of(String sql) {
+        if (sql == null || sql.isBlank()) {
+            return null;
+        }
+        String text = stripCommentsAndStrings(sql);
+        text = NUMBER.matcher(text).replaceAll("?");
+        text = VALUE_LIST.matcher(text).replaceAll("(?+)");
+        text = WHITESPACE.matcher(text).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+        while (text.endsWith(";")) {
+            text = text.substring(0, text.length() - 1).trim();
+        }
+        return text.length() > MAX_LENGTH ? text.substring(0, MAX_LENGTH) + "..." : text;
+    }
+
+    private static String stripCommentsAndStrings(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            char next = i + 1 < length ? sql.charAt(i + 1) : '\0';
+            if (c == '-' && next == '-') {
+                while (i < length && sql.charAt(i) != '\n') {
+                    i++;
+                }
+                out.append(' ');
+            } else if (c == '/' && next == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                out.append(' ');
+            } else if (c == '\'') {
+                i++;
+                while (i < length) {
+                    char current = sql.charAt(i);
+                    if (current == '\\' && i + 1 < length) {
+                        i += 2;
+                        continue;
+                    }
+                    if (current == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                out.append('?');
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,20 @@
+package com.yuzhi.dts.common.net;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class IpAddressUtilsTest {
+
+    @Test
+    void clientIpParsingNeverResolvesHostNames() {
+        assertThat(IpAddressUtils.parseLiteral("10.1.2.3").getHostAddress()).isEqualTo("10.1.2.3");
+        assertThat(IpAddressUtils.parseLiteral("[2001:db8::1]").getHostAddress()).isEqualTo("2001:db8:0:0:0:0:0:1");
+        assertThat(IpAddressUtils.parseLiteral("::ffff:192.168.0.1").getHostAddress()).isEqualTo("192.168.0.1");
+        assertThat(IpAddressUtils.parseLiteral("fe80::1%eth0")).isNotNull();
+        assertThat(IpAddressUtils.parseLiteral("localhost")).isNull();
+        assertThat(IpAddressUtils.parseLiteral("example.com")).isNull();
+        assertThat(IpAddressUtils.parseLiteral("256.1.1.1")).isNull();
+        assertThat(IpAddressUtils.parseLiteral("1:2:3:4:5:6:7:8:9")).isNull();
+    }
+}
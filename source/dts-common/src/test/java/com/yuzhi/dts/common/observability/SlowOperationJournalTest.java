@@ -0,0 +1,65 @@
+package com.yuzhi.dts.common.observability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class SlowOperationJournalTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void recordsOnlyOperationsAtOrAboveThreshold() {
+        SlowOperationJournal journal = new SlowOperationJournal(10, Duration.ofMillis(100));
+
+        assertThat(journal.record("hive.query", "hive", "success", 99 * MS, Map.of(), null)).isFalse();
+        assertThat(journal.record("hive.query", "hive", "success", 100 * MS, Map.of(), null)).isTrue();
+
+        assertThat(journal.size()).isEqualTo(1);
+        assertThat(journal.recent(10, null).get(0).durationMs()).isEqualTo(100);
+    }
+
+    @Test
+    void dropsOldestEntriesBeyondCapacity() {
+        SlowOperationJournal journal = new SlowOperationJournal(3, Duration.ZERO);
+
+        for (int i = 1; i <= 5; i++) {
+            journal.record("op" + i, null, "success", i * MS, null, null);
+        }
+
+        assertThat(journal.size()).isEqualTo(3);
+        assertThat(journal.totalRecorded()).isEqualTo(5);
+        assertThat(journal.recent(0, null)).extracting(SlowOperationJournal.Entry::operation).containsExactly("op5", "op4", "op3");
+        assertThat(journal.recent(2, null)).hasSize(2);
+        assertThat(journal.recent(10, "op4")).singleElement().extracting(SlowOperationJournal.Entry::operation).isEqualTo("op4");
+    }
+
+    @Test
+    void clampsInvalidBoundsAndKeepsOnlyFingerprints() {
+        SlowOperationJournal journal = new SlowOperationJournal(0, Duration.ofMillis(-5));
+
+        assertThat(journal.capacity()).isEqualTo(1);
+        assertThat(journal.threshold()).isEqualTo(Duration.ZERO);
+        assertThat(new SlowOperationJournal(5, null).threshold()).isEqualTo(Duration.ZERO);
+
+        Map<String, Long> stages = new LinkedHashMap<>();
+        stages.put("plan", 2 * MS);
+        stages.put("execute", 5 * MS);
+        journal.record("hive.query", "hive", "success", 7 * MS, stages, "select * from t where name = 'alice'");
+        journal.record("hive.query", "hive", "error", 8 * MS, stages, null);
+
+        assertThat(journal.size()).isEqualTo(1);
+        SlowOperationJournal.Entry kept = journal.recent(1, null).get(0);
+        assertThat(kept.outcome()).isEqualTo("error");
+
+        journal.clear();
+        journal.record("hive.query", "hive", "success", 7 * MS, stages, "select * from t where name = 'alice'");
+        SlowOperationJournal.Entry entry = journal.recent(1, null).get(0);
+        assertThat(entry.fingerprint()).isEqualTo("select * from t where name = ?");
+        assertThat(entry.stagesMs()).containsExactly(Map.entry("plan", 2L), Map.entry("execute", 5L));
+    }
+}
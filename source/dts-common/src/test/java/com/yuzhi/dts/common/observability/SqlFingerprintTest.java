@@ -0,0 +1,46 @@
+package com.yuzhi.dts.common.observability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SqlFingerprintTest {
+
+    @Test
+    void stripsStringAndNumericLiterals() {
+        String fingerprint = SqlFingerprint.of("SELECT * FROM ods.person WHERE id_card = '110101199001011234' AND age > 30 AND score = -1.5e3");
+
+        assertThat(fingerprint).isEqualTo("select * from ods.person where id_card = ? and age > ? and score = ?");
+        assertThat(fingerprint).doesNotContain("1101", "30");
+    }
+
+    @Test
+    void handlesEscapedQuotesCommentsAndValueLists() {
+        String fingerprint = SqlFingerprint.of(
+            "select name -- owner 'alice'\n from t /* secret 42 */ where note = 'it''s \\' here' and id in (1, 2,3);"
+        );
+
+        assertThat(fingerprint).isEqualTo("select name from t where note = ? and id in (?+)");
+    }
+
+    @Test
+    void keepsIdentifiersContainingDigits() {
+        assertThat(SqlFingerprint.of("select col1, t2.v from dwd_2024.t2 limit 10")).isEqualTo("select col1, t2.v from dwd_2024.t2 limit ?");
+    }
+
+    @Test
+    void statementsDifferingOnlyInValuesShareFingerprint() {
+        assertThat(SqlFingerprint.of("select * from t where a = 1 and b = 'x'")).isEqualTo(
+            SqlFingerprint.of("SELECT *\n  FROM t WHERE a = 999 AND b = 'yyy'")
+        );
+    }
+
+    @Test
+    void blankSqlHasNoFingerprintAndLongSqlIsTruncated() {
+        assertThat(SqlFingerprint.of(null)).isNull();
+        assertThat(SqlFingerprint.of("  ")).isNull();
+
+        String fingerprint = SqlFingerprint.of("select " + "column_name, ".repeat(100) + "x from t");
+        assertThat(fingerprint).hasSize(SqlFingerprint.MAX_LENGTH + 3).endsWith("...");
+    }
+}
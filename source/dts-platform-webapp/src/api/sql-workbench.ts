@@ -14,6 +14,8 @@ export type SqlCatalogRequest = {
 	catalog?: string;
 	schema?: string;
 	search?: string;
+	/** 展开到的最深节点类型，缺省返回包含列的完整树 */
+	depth?: SqlCatalogNodeType;
 };
 
 export type SqlViolation = {
@@ -105,6 +107,9 @@ export type SqlStatusResponse = {
 export const fetchCatalogTree = (payload: SqlCatalogRequest = {}) =>
 	api.post<SqlCatalogNode>({ url: "/sql/catalog", data: payload });
 
+export const fetchCatalogChildren = (nodeId: string) =>
+	api.get<SqlCatalogNode[]>({ url: "/sql/catalog/children", params: { nodeId } });
+
 export const validateSql = (payload: SqlValidateRequest) =>
 	api.post<SqlValidateResponse>({ url: "/sql/validate", data: payload });
 
@@ -5,8 +5,10 @@ import com.yuzhi.dts.platform.config.AuditProperties;
 import com.yuzhi.dts.platform.config.CatalogFeatureProperties;
 import com.yuzhi.dts.platform.config.DtsAdminProperties;
 import com.yuzhi.dts.platform.config.DataStandardProperties;
+import com.yuzhi.dts.platform.config.ExploreProperties;
 import com.yuzhi.dts.platform.config.GovernanceProperties;
 import com.yuzhi.dts.platform.config.HiveExecutionProperties;
+import com.yuzhi.dts.platform.config.QueryEngineProperties;
 import com.yuzhi.dts.platform.config.CRLFLogConverter;
 import jakarta.annotation.PostConstruct;
 import java.net.InetAddress;
@@ -17,6 +19,7 @@ import java.util.Optional;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import com.yuzhi.dts.platform.config.InfraSecurityProperties;
+import com.yuzhi.dts.platform.config.InfraSchedulerProperties;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -37,6 +40,9 @@ import tech.jhipster.config.JHipsterConstants;
     DataStandardProperties.class,
     GovernanceProperties.class,
     InfraSecurityProperties.class,
+    ExploreProperties.class,
+    QueryEngineProperties.class,
+    InfraSchedulerProperties.class,
 })
 public class DtsPlatformApp {
 
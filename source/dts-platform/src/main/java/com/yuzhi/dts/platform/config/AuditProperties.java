@@ -7,6 +7,11 @@ public class AuditProperties {
 
     private boolean enabled = true;
 
+    /**
+     * 审计事件的 DEBUG 日志采样间隔：每 N 条输出一条，1 表示逐条输出。
+     */
+    private int logSampleRate = 100;
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -15,4 +20,12 @@ public class AuditProperties {
         this.enabled = enabled;
     }
 
+    public int getLogSampleRate() {
+        return logSampleRate;
+    }
+
+    public void setLogSampleRate(int logSampleRate) {
+        this.logSampleRate = logSampleRate;
+    }
+
 }
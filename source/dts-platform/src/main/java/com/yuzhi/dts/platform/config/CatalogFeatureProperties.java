@@ -27,6 +27,17 @@ public class CatalogFeatureProperties {
      */
     private boolean inceptorSyncEnabled = false;
 
+    /**
+     * Number of stale datasets removed per purge transaction.
+     */
+    private int purgeChunkSize = 200;
+
+    /**
+     * When true, stale datasets stay hidden until the scheduled CATALOG_PURGE job removes them;
+     * otherwise removal starts in the background as soon as the sync commits.
+     */
+    private boolean purgeDeferred = false;
+
     public boolean isMultiSourceEnabled() {
         return multiSourceEnabled;
     }
@@ -58,4 +69,20 @@ public class CatalogFeatureProperties {
     public void setInceptorSyncEnabled(boolean inceptorSyncEnabled) {
         this.inceptorSyncEnabled = inceptorSyncEnabled;
     }
+
+    public int getPurgeChunkSize() {
+        return purgeChunkSize;
+    }
+
+    public void setPurgeChunkSize(int purgeChunkSize) {
+        this.purgeChunkSize = purgeChunkSize;
+    }
+
+    public boolean isPurgeDeferred() {
+        return purgeDeferred;
+    }
+
+    public void setPurgeDeferred(boolean purgeDeferred) {
+        this.purgeDeferred = purgeDeferred;
+    }
 }
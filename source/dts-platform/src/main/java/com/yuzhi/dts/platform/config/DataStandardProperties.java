@@ -37,8 +37,10 @@ public class DataStandardProperties {
         private Set<String> allowedExtensions = new LinkedHashSet<>(
             Set.of("docx", "wps", "pdf", "xlsx", "xls", "md", "txt")
         );
+        /** 仅决定旧版整块加密附件的读取位置；新上传的附件一律分段写入附件存储。 */
         private String storageStrategy = "database";
         private String storageDir = "/opt/dts/upload";
+        private int segmentSize = 65_536;
 
         public long getMaxFileSize() {
             return maxFileSize;
@@ -71,5 +73,13 @@ public class DataStandardProperties {
         public void setStorageDir(String storageDir) {
             this.storageDir = storageDir;
         }
+
+        public int getSegmentSize() {
+            return segmentSize;
+        }
+
+        public void setSegmentSize(int segmentSize) {
+            this.segmentSize = segmentSize;
+        }
     }
 }
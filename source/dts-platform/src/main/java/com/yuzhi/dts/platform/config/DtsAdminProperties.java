@@ -1,5 +1,6 @@
 package com.yuzhi.dts.platform.config;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "dts.admin")
@@ -23,6 +24,9 @@ public class DtsAdminProperties {
     /** Logical service name expected on incoming internal calls. */
     private String serviceName = "dts-admin";
 
+    /** Local cache for read-only calls to dts-admin (menus, directory, infra config). */
+    private final Cache cache = new Cache();
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -70,4 +74,99 @@ public class DtsAdminProperties {
     public void setServiceName(String serviceName) {
         this.serviceName = serviceName;
     }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public static class Cache {
+
+        /** Whether responses from dts-admin are cached and revalidated with ETags. */
+        private boolean enabled = true;
+
+        /** Freshness of portal menu trees; admin pushes invalidation on menu changes. */
+        private Duration menuTtl = Duration.ofMinutes(5);
+
+        /** Freshness of the role directory; admin pushes invalidation on role changes. */
+        private Duration roleTtl = Duration.ofMinutes(5);
+
+        /** Freshness of user search results per keyword. */
+        private Duration userTtl = Duration.ofSeconds(30);
+
+        /** Freshness of the active Inceptor configuration; zero means revalidate on every call. */
+        private Duration infraTtl = Duration.ZERO;
+
+        /** How long an expired entry may be served while a background refresh runs. */
+        private Duration staleWhileRevalidate = Duration.ofSeconds(30);
+
+        /** How long an entry may still be served when dts-admin is unreachable. */
+        private Duration staleIfError = Duration.ofHours(1);
+
+        /** Upper bound of cached entries per namespace (user search keywords, menu audiences). */
+        private int maxEntries = 512;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getMenuTtl() {
+            return menuTtl;
+        }
+
+        public void setMenuTtl(Duration menuTtl) {
+            this.menuTtl = menuTtl;
+        }
+
+        public Duration getRoleTtl() {
+            return roleTtl;
+        }
+
+        public void setRoleTtl(Duration roleTtl) {
+            this.roleTtl = roleTtl;
+        }
+
+        public Duration getUserTtl() {
+            return userTtl;
+        }
+
+        public void setUserTtl(Duration userTtl) {
+            this.userTtl = userTtl;
+        }
+
+        public Duration getInfraTtl() {
+            return infraTtl;
+        }
+
+        public void setInfraTtl(Duration infraTtl) {
+            this.infraTtl = infraTtl;
+        }
+
+        public Duration getStaleWhileRevalidate() {
+            return staleWhileRevalidate;
+        }
+
+        public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+        }
+
+        public Duration getStaleIfError() {
+            return staleIfError;
+        }
+
+        public void setStaleIfError(Duration staleIfError) {
+            this.staleIfError = staleIfError;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
 }
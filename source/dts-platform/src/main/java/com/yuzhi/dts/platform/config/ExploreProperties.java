@@ -0,0 +1,135 @@
+package com.yuzhi.dts.platform.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "dts.platform.explore")
+public class ExploreProperties {
+
+    private final ResultCache resultCache = new ResultCache();
+    private final Download download = new Download();
+
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    public Download getDownload() {
+        return download;
+    }
+
+    public static class ResultCache {
+
+        /** Whether query results of explore previews and saved queries are cached; requires {@link #directory}. */
+        private boolean enabled = false;
+
+        /** Dedicated local directory holding the encrypted result files; made owner-only and wiped on startup. */
+        private String directory;
+
+        /** Upper bound of the bytes kept on disk across all cached results. */
+        private long maxBytes = 268_435_456L; // 256 MB
+
+        /** Results larger than this (compressed) are not cached. */
+        private long maxEntryBytes = 16_777_216L; // 16 MB
+
+        /** How long a cached result stays valid. */
+        private Duration ttl = Duration.ofMinutes(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        public long getMaxEntryBytes() {
+            return maxEntryBytes;
+        }
+
+        public void setMaxEntryBytes(long maxEntryBytes) {
+            this.maxEntryBytes = maxEntryBytes;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static class Download {
+
+        /** Downloads one user may run at the same time. */
+        private int maxConcurrentPerUser = 2;
+
+        /** Downloads running at the same time on this node across all users. */
+        private int maxConcurrent = 8;
+
+        /** Rows fetched from the engine per round trip; bounds the memory held per download. */
+        private int fetchSize = 2000;
+
+        /** Upper bound of rows in one download; 0 means unlimited. */
+        private long maxRows = 1_000_000L;
+
+        /** Rows of an xlsx sheet kept in memory before they are flushed to a temporary file. */
+        private int xlsxWindowRows = 200;
+
+        public int getMaxConcurrentPerUser() {
+            return maxConcurrentPerUser;
+        }
+
+        public void setMaxConcurrentPerUser(int maxConcurrentPerUser) {
+            this.maxConcurrentPerUser = maxConcurrentPerUser;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+
+        public long getMaxRows() {
+            return maxRows;
+        }
+
+        public void setMaxRows(long maxRows) {
+            this.maxRows = maxRows;
+        }
+
+        public int getXlsxWindowRows() {
+            return xlsxWindowRows;
+        }
+
+        public void setXlsxWindowRows(int xlsxWindowRows) {
+            this.xlsxWindowRows = xlsxWindowRows;
+        }
+    }
+}
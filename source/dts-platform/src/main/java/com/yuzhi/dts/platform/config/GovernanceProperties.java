@@ -93,6 +93,15 @@ public class GovernanceProperties {
         private boolean evidenceRequiredDefault = true;
         private boolean autoTicket = true;
         private Duration sla = Duration.ofDays(7);
+        /** 批次执行时按数据源并行的最大线程数（全部批次共享），即同时执行的质量检测上限。 */
+        private int jobParallelism = 4;
+        /** 批次检查项批量写入的分片大小。 */
+        private int insertChunkSize = 500;
+        /** 执行进度回写批次状态的最小间隔；作业心跳另按 jobStaleAfter 的四分之一定时续约。 */
+        private Duration progressInterval = Duration.ofSeconds(2);
+        /** 心跳超过该时长未更新的派发作业视为中断，由任一节点接管续跑。 */
+        private Duration jobStaleAfter = Duration.ofMinutes(2);
+        private Duration jobSweepInterval = Duration.ofMinutes(1);
 
         public boolean isEnabled() {
             return enabled;
@@ -125,6 +134,46 @@ public class GovernanceProperties {
         public void setSla(Duration sla) {
             this.sla = sla;
         }
+
+        public int getJobParallelism() {
+            return jobParallelism;
+        }
+
+        public void setJobParallelism(int jobParallelism) {
+            this.jobParallelism = jobParallelism;
+        }
+
+        public int getInsertChunkSize() {
+            return insertChunkSize;
+        }
+
+        public void setInsertChunkSize(int insertChunkSize) {
+            this.insertChunkSize = insertChunkSize;
+        }
+
+        public Duration getProgressInterval() {
+            return progressInterval;
+        }
+
+        public void setProgressInterval(Duration progressInterval) {
+            this.progressInterval = progressInterval;
+        }
+
+        public Duration getJobStaleAfter() {
+            return jobStaleAfter;
+        }
+
+        public void setJobStaleAfter(Duration jobStaleAfter) {
+            this.jobStaleAfter = jobStaleAfter;
+        }
+
+        public Duration getJobSweepInterval() {
+            return jobSweepInterval;
+        }
+
+        public void setJobSweepInterval(Duration jobSweepInterval) {
+            this.jobSweepInterval = jobSweepInterval;
+        }
     }
 
     public static class Issue {
@@ -0,0 +1,88 @@
+package com.yuzhi.dts.platform.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "dts.platform.scheduler")
+public class InfraSchedulerProperties {
+
+    private boolean enabled = true;
+    /** 轮询到期计划的间隔。 */
+    private Duration pollInterval = Duration.ofSeconds(15);
+    /** 执行租约时长；执行期间每次轮询续租，节点宕机后其他节点最迟在租约过期后接手，应明显大于 pollInterval。 */
+    private Duration lease = Duration.ofMinutes(5);
+    /** 超过该时长仍未触发视为错过（misfire），按计划的 misfirePolicy 处理。 */
+    private Duration misfireThreshold = Duration.ofMinutes(1);
+    private Duration historyRetention = Duration.ofDays(30);
+    /** 时区 ID，为空时使用服务器时区。 */
+    private String zone;
+    private int defaultConcurrency = 1;
+    /** 按任务类型限制本节点的并发执行数，如 QUALITY_RUN: 3。 */
+    private Map<String, Integer> concurrency = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public Duration getLease() {
+        return lease;
+    }
+
+    public void setLease(Duration lease) {
+        this.lease = lease;
+    }
+
+    public Duration getMisfireThreshold() {
+        return misfireThreshold;
+    }
+
+    public void setMisfireThreshold(Duration misfireThreshold) {
+        this.misfireThreshold = misfireThreshold;
+    }
+
+    public Duration getHistoryRetention() {
+        return historyRetention;
+    }
+
+    public void setHistoryRetention(Duration historyRetention) {
+        this.historyRetention = historyRetention;
+    }
+
+    public String getZone() {
+        return zone;
+    }
+
+    public void setZone(String zone) {
+        this.zone = zone;
+    }
+
+    public int getDefaultConcurrency() {
+        return defaultConcurrency;
+    }
+
+    public void setDefaultConcurrency(int defaultConcurrency) {
+        this.defaultConcurrency = defaultConcurrency;
+    }
+
+    public Map<String, Integer> getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(Map<String, Integer> concurrency) {
+        this.concurrency = concurrency;
+    }
+}
@@ -1,5 +1,6 @@
 package com.yuzhi.dts.platform.config;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "dts.platform.infra")
@@ -8,6 +9,8 @@ public class InfraSecurityProperties {
     private boolean multiSourceEnabled = false;
     private String encryptionKey;
     private String keyVersion = "v1";
+    /** How long decrypted data source secrets are kept in memory before being decrypted again. */
+    private Duration secretCacheTtl = Duration.ofMinutes(5);
 
     public boolean isMultiSourceEnabled() {
         return multiSourceEnabled;
@@ -32,4 +35,12 @@ public class InfraSecurityProperties {
     public void setKeyVersion(String keyVersion) {
         this.keyVersion = keyVersion;
     }
+
+    public Duration getSecretCacheTtl() {
+        return secretCacheTtl;
+    }
+
+    public void setSecretCacheTtl(Duration secretCacheTtl) {
+        this.secretCacheTtl = secretCacheTtl;
+    }
 }
@@ -0,0 +1,12 @@
+package com.yuzhi.dts.platform.config;
+
+import com.yuzhi.dts.common.observability.ObservabilityConfigurationSupport;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ObservabilityConfiguration extends ObservabilityConfigurationSupport {
+
+    public ObservabilityConfiguration() {
+        super("dts.platform.observability");
+    }
+}
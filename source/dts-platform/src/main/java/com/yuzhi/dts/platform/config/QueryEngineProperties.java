@@ -0,0 +1,185 @@
+package com.yuzhi.dts.platform.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "dts.platform.query")
+public class QueryEngineProperties {
+
+    /** Whether a failed or saturated engine hands the query to the next candidate. */
+    private boolean failover = true;
+
+    /** Queries with a LIMIT up to this many rows (and no joins/aggregations) count as interactive. */
+    private int interactiveRowLimit = 1000;
+
+    /** Consecutive failures after which an engine is treated as unhealthy. */
+    private int failureThreshold = 3;
+
+    /** How long an unhealthy engine is skipped before it is tried again. */
+    private Duration unhealthyCooldown = Duration.ofSeconds(30);
+
+    private final Pool hive = new Pool(8, 32, Duration.ofMinutes(5));
+    private final Trino trino = new Trino();
+    private final Pool postgres = new Pool(8, 32, Duration.ofMinutes(2));
+
+    public boolean isFailover() {
+        return failover;
+    }
+
+    public void setFailover(boolean failover) {
+        this.failover = failover;
+    }
+
+    public int getInteractiveRowLimit() {
+        return interactiveRowLimit;
+    }
+
+    public void setInteractiveRowLimit(int interactiveRowLimit) {
+        this.interactiveRowLimit = interactiveRowLimit;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    public Duration getUnhealthyCooldown() {
+        return unhealthyCooldown;
+    }
+
+    public void setUnhealthyCooldown(Duration unhealthyCooldown) {
+        this.unhealthyCooldown = unhealthyCooldown;
+    }
+
+    public Pool getHive() {
+        return hive;
+    }
+
+    public Trino getTrino() {
+        return trino;
+    }
+
+    public Pool getPostgres() {
+        return postgres;
+    }
+
+    public static class Pool {
+
+        /** Queries running at the same time on this engine. */
+        private int maxConcurrent;
+
+        /** Queries waiting for a slot; further submissions are rejected (and may fail over). */
+        private int queueCapacity;
+
+        /** Maximum wall time of one query including queueing. */
+        private Duration timeout;
+
+        public Pool() {
+            this(8, 32, Duration.ofMinutes(2));
+        }
+
+        public Pool(int maxConcurrent, int queueCapacity, Duration timeout) {
+            this.maxConcurrent = maxConcurrent;
+            this.queueCapacity = queueCapacity;
+            this.timeout = timeout;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class Trino extends Pool {
+
+        private boolean enabled = false;
+
+        /** e.g. jdbc:trino://dts-trino:8080 */
+        private String jdbcUrl;
+
+        private String username = "dts";
+
+        private String password;
+
+        /** Catalog used when the dataset does not carry its own trinoCatalog. */
+        private String catalog = "inceptor";
+
+        private Map<String, String> properties = new HashMap<>();
+
+        public Trino() {
+            super(16, 64, Duration.ofMinutes(2));
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getJdbcUrl() {
+            return jdbcUrl;
+        }
+
+        public void setJdbcUrl(String jdbcUrl) {
+            this.jdbcUrl = jdbcUrl;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public String getCatalog() {
+            return catalog;
+        }
+
+        public void setCatalog(String catalog) {
+            this.catalog = catalog;
+        }
+
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+
+        public void setProperties(Map<String, String> properties) {
+            this.properties = properties;
+        }
+    }
+}
@@ -5,9 +5,12 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import java.io.Serializable;
 import java.util.UUID;
+import org.hibernate.annotations.SQLRestriction;
 
 @Entity
 @Table(name = "catalog_dataset")
+// 已标记待清理（purge_requested_at 非空）的数据集对目录查询不可见，由 CatalogDatasetReaper 分批物理删除
+@SQLRestriction("purge_requested_at is null")
 public class CatalogDataset extends AbstractAuditingEntity<UUID> implements Serializable {
 
     @Id
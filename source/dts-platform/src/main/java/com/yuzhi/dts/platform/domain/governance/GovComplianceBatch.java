@@ -70,6 +70,25 @@ public class GovComplianceBatch extends AbstractAuditingEntity<UUID> implements
     @Column(name = "metadata_json", columnDefinition = "jsonb")
     private String metadataJson;
 
+    /** 后台派发作业状态：PENDING / DISPATCHING / DONE，为空表示历史批次。 */
+    @Column(name = "job_state", length = 32)
+    private String jobState;
+
+    @Column(name = "job_total")
+    private Integer jobTotal;
+
+    @Column(name = "job_processed")
+    private Integer jobProcessed;
+
+    @Column(name = "job_failed")
+    private Integer jobFailed;
+
+    @Column(name = "job_node", length = 128)
+    private String jobNode;
+
+    @Column(name = "job_heartbeat")
+    private Instant jobHeartbeat;
+
     @OneToMany(mappedBy = "batch", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JsonIgnoreProperties(value = { "batch", "rule", "ruleVersion" }, allowSetters = true)
     private Set<GovComplianceBatchItem> items = new LinkedHashSet<>();
@@ -195,6 +214,54 @@ public class GovComplianceBatch extends AbstractAuditingEntity<UUID> implements
         this.metadataJson = metadataJson;
     }
 
+    public String getJobState() {
+        return jobState;
+    }
+
+    public void setJobState(String jobState) {
+        this.jobState = jobState;
+    }
+
+    public Integer getJobTotal() {
+        return jobTotal;
+    }
+
+    public void setJobTotal(Integer jobTotal) {
+        this.jobTotal = jobTotal;
+    }
+
+    public Integer getJobProcessed() {
+        return jobProcessed;
+    }
+
+    public void setJobProcessed(Integer jobProcessed) {
+        this.jobProcessed = jobProcessed;
+    }
+
+    public Integer getJobFailed() {
+        return jobFailed;
+    }
+
+    public void setJobFailed(Integer jobFailed) {
+        this.jobFailed = jobFailed;
+    }
+
+    public String getJobNode() {
+        return jobNode;
+    }
+
+    public void setJobNode(String jobNode) {
+        this.jobNode = jobNode;
+    }
+
+    public Instant getJobHeartbeat() {
+        return jobHeartbeat;
+    }
+
+    public void setJobHeartbeat(Instant jobHeartbeat) {
+        this.jobHeartbeat = jobHeartbeat;
+    }
+
     public Set<GovComplianceBatchItem> getItems() {
         return items;
     }
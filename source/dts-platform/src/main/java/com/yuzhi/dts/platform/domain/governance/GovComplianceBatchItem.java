@@ -45,6 +45,9 @@ public class GovComplianceBatchItem extends AbstractAuditingEntity<UUID> impleme
     @Column(name = "dataset_id")
     private UUID datasetId;
 
+    @Column(name = "binding_id", columnDefinition = "uuid")
+    private UUID bindingId;
+
     @Column(name = "status", length = 32)
     private String status;
 
@@ -106,6 +109,14 @@ public class GovComplianceBatchItem extends AbstractAuditingEntity<UUID> impleme
         this.datasetId = datasetId;
     }
 
+    public UUID getBindingId() {
+        return bindingId;
+    }
+
+    public void setBindingId(UUID bindingId) {
+        this.bindingId = bindingId;
+    }
+
     public String getStatus() {
         return status;
     }
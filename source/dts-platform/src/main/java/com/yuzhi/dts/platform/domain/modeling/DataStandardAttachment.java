@@ -52,6 +52,16 @@ public class DataStandardAttachment extends AbstractAuditingEntity<UUID> impleme
     @Column(name = "cipher_blob", columnDefinition = "bytea")
     private byte[] cipherBlob;
 
+    /** 为空表示旧版整块加密；SEGMENTED_V1 表示分段加密且 iv 列保存文件密钥派生盐。 */
+    @Column(name = "storage_format", length = 16)
+    private String storageFormat;
+
+    @Column(name = "segment_size")
+    private Integer segmentSize;
+
+    @Column(name = "storage_key", length = 512)
+    private String storageKey;
+
     public UUID getId() {
         return id;
     }
@@ -131,4 +141,28 @@ public class DataStandardAttachment extends AbstractAuditingEntity<UUID> impleme
     public void setCipherBlob(byte[] cipherBlob) {
         this.cipherBlob = cipherBlob;
     }
+
+    public String getStorageFormat() {
+        return storageFormat;
+    }
+
+    public void setStorageFormat(String storageFormat) {
+        this.storageFormat = storageFormat;
+    }
+
+    public Integer getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(Integer segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    public String getStorageKey() {
+        return storageKey;
+    }
+
+    public void setStorageKey(String storageKey) {
+        this.storageKey = storageKey;
+    }
 }
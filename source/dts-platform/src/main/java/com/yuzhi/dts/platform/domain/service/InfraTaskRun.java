@@ -0,0 +1,77 @@
+package com.yuzhi.dts.platform.domain.service;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 计划任务的单次执行记录（定时、补偿或手动触发）。
+ */
+@Entity
+@Table(name = "infra_task_run")
+public class InfraTaskRun implements Serializable {
+
+    @Id
+    @GeneratedValue
+    @Column(name = "id", columnDefinition = "uuid")
+    private UUID id;
+
+    @Column(name = "schedule_id", columnDefinition = "uuid", nullable = false)
+    private UUID scheduleId;
+
+    @Column(name = "schedule_name", length = 128)
+    private String scheduleName;
+
+    @Column(name = "job_type", length = 64)
+    private String jobType;
+
+    @Column(name = "trigger_type", length = 32)
+    private String triggerType; // CRON/MISFIRE/MANUAL
+
+    @Column(name = "triggered_by", length = 64)
+    private String triggeredBy;
+
+    @Column(name = "node", length = 128)
+    private String node;
+
+    @Column(name = "status", length = 32)
+    private String status; // RUNNING/SUCCESS/FAILED/SKIPPED
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    @Column(name = "message", length = 1024)
+    private String message;
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public UUID getScheduleId() { return scheduleId; }
+    public void setScheduleId(UUID scheduleId) { this.scheduleId = scheduleId; }
+    public String getScheduleName() { return scheduleName; }
+    public void setScheduleName(String scheduleName) { this.scheduleName = scheduleName; }
+    public String getJobType() { return jobType; }
+    public void setJobType(String jobType) { this.jobType = jobType; }
+    public String getTriggerType() { return triggerType; }
+    public void setTriggerType(String triggerType) { this.triggerType = triggerType; }
+    public String getTriggeredBy() { return triggeredBy; }
+    public void setTriggeredBy(String triggeredBy) { this.triggeredBy = triggeredBy; }
+    public String getNode() { return node; }
+    public void setNode(String node) { this.node = node; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Instant getStartedAt() { return startedAt; }
+    public void setStartedAt(Instant startedAt) { this.startedAt = startedAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
+    public Long getDurationMs() { return durationMs; }
+    public void setDurationMs(Long durationMs) { this.durationMs = durationMs; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -30,6 +30,32 @@ public class InfraTaskSchedule extends AbstractAuditingEntity<UUID> implements S
     @Column(name = "description", length = 512)
     private String description;
 
+    /** 调度器据此选择执行器，如 CATALOG_SYNC / QUALITY_RUN / RESULT_CLEANUP；为空的计划不会被调度。 */
+    @Column(name = "job_type", length = 64)
+    private String jobType;
+
+    /** 传给执行器的 JSON 参数。 */
+    @Column(name = "parameters", columnDefinition = "text")
+    private String parameters;
+
+    @Column(name = "misfire_policy", length = 32)
+    private String misfirePolicy; // FIRE_ONCE/SKIP
+
+    @Column(name = "next_run_at")
+    private Instant nextRunAt;
+
+    @Column(name = "locked_by", length = 128)
+    private String lockedBy;
+
+    @Column(name = "locked_until")
+    private Instant lockedUntil;
+
+    @Column(name = "last_status", length = 32)
+    private String lastStatus;
+
+    @Column(name = "last_duration_ms")
+    private Long lastDurationMs;
+
     @Override
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -43,5 +69,21 @@ public class InfraTaskSchedule extends AbstractAuditingEntity<UUID> implements S
     public void setLastRunAt(Instant lastRunAt) { this.lastRunAt = lastRunAt; }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
+    public String getJobType() { return jobType; }
+    public void setJobType(String jobType) { this.jobType = jobType; }
+    public String getParameters() { return parameters; }
+    public void setParameters(String parameters) { this.parameters = parameters; }
+    public String getMisfirePolicy() { return misfirePolicy; }
+    public void setMisfirePolicy(String misfirePolicy) { this.misfirePolicy = misfirePolicy; }
+    public Instant getNextRunAt() { return nextRunAt; }
+    public void setNextRunAt(Instant nextRunAt) { this.nextRunAt = nextRunAt; }
+    public String getLockedBy() { return lockedBy; }
+    public void setLockedBy(String lockedBy) { this.lockedBy = lockedBy; }
+    public Instant getLockedUntil() { return lockedUntil; }
+    public void setLockedUntil(Instant lockedUntil) { this.lockedUntil = lockedUntil; }
+    public String getLastStatus() { return lastStatus; }
+    public void setLastStatus(String lastStatus) { this.lastStatus = lastStatus; }
+    public Long getLastDurationMs() { return lastDurationMs; }
+    public void setLastDurationMs(Long lastDurationMs) { this.lastDurationMs = lastDurationMs; }
 }
 
@@ -6,6 +6,8 @@ import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -14,5 +16,13 @@ public interface CatalogColumnSchemaRepository extends JpaRepository<CatalogColu
 
     List<CatalogColumnSchema> findByTableIn(Collection<CatalogTableSchema> tables);
 
+    List<CatalogColumnSchema> findByTableId(UUID tableId);
+
     void deleteByTable(CatalogTableSchema table);
+
+    /**
+     * 一次取出某个库下所有表的列，供目录同步整体比对。
+     */
+    @Query("select c from CatalogColumnSchema c join fetch c.table t join t.dataset d where lower(d.hiveDatabase) = lower(:database)")
+    List<CatalogColumnSchema> findByTableDatasetHiveDatabase(@Param("database") String database);
 }
@@ -2,11 +2,13 @@ package com.yuzhi.dts.platform.repository.catalog;
 
 import com.yuzhi.dts.platform.domain.catalog.CatalogDataset;
 import com.yuzhi.dts.platform.domain.catalog.CatalogDomain;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -18,4 +20,35 @@ public interface CatalogDatasetRepository extends JpaRepository<CatalogDataset,
     List<CatalogDataset> findByHiveDatabaseIgnoreCaseAndTypeIgnoreCase(String hiveDatabase, String type);
 
     List<CatalogDataset> findByHiveDatabaseIgnoreCase(String hiveDatabase);
+
+    List<CatalogDataset> findByLastModifiedDateGreaterThanEqual(Instant since);
+
+    @Query("select d.id from CatalogDataset d")
+    List<UUID> findAllIds();
+
+    @Query("select count(d) as total, max(d.lastModifiedDate) as lastModified from CatalogDataset d")
+    DatasetStamp findStamp();
+
+    @Query("select d.id as id, d.name as name, dom.id as domainId from CatalogDataset d left join d.domain dom")
+    List<DatasetRef> findAllRefs();
+
+    /**
+     * 数据集的最小引用（id、名称、所属域），用于授权页面的域/数据集树，避免加载完整实体。
+     */
+    interface DatasetRef {
+        UUID getId();
+
+        String getName();
+
+        UUID getDomainId();
+    }
+
+    /**
+     * 数据集表的轻量变更标记（总数 + 最近修改时间），用于判断缓存的目录快照是否需要增量刷新。
+     */
+    interface DatasetStamp {
+        long getTotal();
+
+        Instant getLastModified();
+    }
 }
@@ -1,11 +1,22 @@
 package com.yuzhi.dts.platform.repository.catalog;
 
 import com.yuzhi.dts.platform.domain.catalog.CatalogDomain;
+import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CatalogDomainRepository extends JpaRepository<CatalogDomain, UUID> {
     java.util.Optional<CatalogDomain> findFirstByNameIgnoreCase(String name);
+
+    @Query("select d.id as id, d.name as name from CatalogDomain d")
+    List<DomainRef> findAllRefs();
+
+    interface DomainRef {
+        UUID getId();
+
+        String getName();
+    }
 }
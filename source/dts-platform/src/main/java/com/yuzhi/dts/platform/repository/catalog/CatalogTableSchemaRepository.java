@@ -7,6 +7,8 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -15,5 +17,13 @@ public interface CatalogTableSchemaRepository extends JpaRepository<CatalogTable
 
     List<CatalogTableSchema> findByDatasetIn(Collection<CatalogDataset> datasets);
 
+    List<CatalogTableSchema> findByDatasetId(UUID datasetId);
+
     Optional<CatalogTableSchema> findFirstByDatasetAndNameIgnoreCase(CatalogDataset dataset, String name);
+
+    /**
+     * 一次取出某个库下所有数据集的表结构（连同数据集），供目录同步整体比对。
+     */
+    @Query("select t from CatalogTableSchema t join fetch t.dataset d where lower(d.hiveDatabase) = lower(:database)")
+    List<CatalogTableSchema> findByDatasetHiveDatabase(@Param("database") String database);
 }
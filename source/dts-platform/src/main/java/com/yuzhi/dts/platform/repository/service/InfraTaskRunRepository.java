@@ -0,0 +1,35 @@
+package com.yuzhi.dts.platform.repository.service;
+
+import com.yuzhi.dts.platform.domain.service.InfraTaskRun;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface InfraTaskRunRepository extends JpaRepository<InfraTaskRun, UUID> {
+    List<InfraTaskRun> findByScheduleIdOrderByStartedAtDesc(UUID scheduleId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("delete from InfraTaskRun r where r.startedAt < :cutoff")
+    int deleteStartedBefore(@Param("cutoff") Instant cutoff);
+
+    /**
+     * 执行节点失联后遗留的 RUNNING 记录：对应计划已不再由该节点持有有效租约时标记为 FAILED。
+     */
+    @Modifying
+    @Transactional
+    @Query(
+        "update InfraTaskRun r set r.status = 'FAILED', r.finishedAt = :now, r.message = :message " +
+        "where r.status = 'RUNNING' and not exists (" +
+        "select s.id from InfraTaskSchedule s where s.id = r.scheduleId and s.lockedBy = r.node and s.lockedUntil >= :now)"
+    )
+    int failAbandoned(@Param("now") Instant now, @Param("message") String message);
+}
@@ -1,10 +1,80 @@
 package com.yuzhi.dts.platform.repository.service;
 
 import com.yuzhi.dts.platform.domain.service.InfraTaskSchedule;
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
-public interface InfraTaskScheduleRepository extends JpaRepository<InfraTaskSchedule, UUID> {}
+public interface InfraTaskScheduleRepository extends JpaRepository<InfraTaskSchedule, UUID> {
+    @Query("select s from InfraTaskSchedule s where upper(s.status) = 'ACTIVE' and s.jobType is not null")
+    List<InfraTaskSchedule> findSchedulable();
 
+    @Modifying
+    @Transactional
+    @Query("update InfraTaskSchedule s set s.nextRunAt = :next where s.id = :id and s.nextRunAt is null")
+    int initNextRun(@Param("id") UUID id, @Param("next") Instant next);
+
+    /**
+     * 条件更新即集群锁：只有把 nextRunAt 从期望值推进成功、且租约已空闲的节点获得本次执行权。
+     */
+    @Modifying
+    @Transactional
+    @Query(
+        "update InfraTaskSchedule s set s.nextRunAt = :next, s.lockedBy = :node, s.lockedUntil = :until " +
+        "where s.id = :id and s.nextRunAt = :expected and (s.lockedUntil is null or s.lockedUntil < :now)"
+    )
+    int claimDue(
+        @Param("id") UUID id,
+        @Param("expected") Instant expected,
+        @Param("next") Instant next,
+        @Param("node") String node,
+        @Param("until") Instant until,
+        @Param("now") Instant now
+    );
+
+    /** 错过触发且策略为 SKIP：只推进下次时间，不占用租约。 */
+    @Modifying
+    @Transactional
+    @Query("update InfraTaskSchedule s set s.nextRunAt = :next where s.id = :id and s.nextRunAt = :expected")
+    int advance(@Param("id") UUID id, @Param("expected") Instant expected, @Param("next") Instant next);
+
+    @Modifying
+    @Transactional
+    @Query(
+        "update InfraTaskSchedule s set s.lockedBy = :node, s.lockedUntil = :until " +
+        "where s.id = :id and (s.lockedUntil is null or s.lockedUntil < :now)"
+    )
+    int claimManual(@Param("id") UUID id, @Param("node") String node, @Param("until") Instant until, @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query(
+        "update InfraTaskSchedule s set s.lockedBy = null, s.lockedUntil = null, s.lastRunAt = :startedAt, " +
+        "s.lastStatus = :status, s.lastDurationMs = :duration where s.id = :id and s.lockedBy = :node"
+    )
+    int release(
+        @Param("id") UUID id,
+        @Param("node") String node,
+        @Param("startedAt") Instant startedAt,
+        @Param("status") String status,
+        @Param("duration") Long duration
+    );
+
+    /** 执行中的节点定期续租，租约只在节点失联后才会过期。 */
+    @Modifying
+    @Transactional
+    @Query("update InfraTaskSchedule s set s.lockedUntil = :until where s.id = :id and s.lockedBy = :node")
+    int renewLease(@Param("id") UUID id, @Param("node") String node, @Param("until") Instant until);
+
+    @Modifying
+    @Transactional
+    @Query("update InfraTaskSchedule s set s.lockedBy = null, s.lockedUntil = null where s.id = :id and s.lockedBy = :node")
+    int unlock(@Param("id") UUID id, @Param("node") String node);
+}
@@ -233,6 +233,19 @@ public final class SecurityUtils {
         return hasCurrentUserAnyOfAuthorities(authority);
     }
 
+    /**
+     * Get the authorities of the current user, sorted and de-duplicated.
+     *
+     * @return the authorities of the current user, empty when unauthenticated.
+     */
+    public static List<String> getCurrentUserAuthorities() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return List.of();
+        }
+        return getAuthorities(authentication).distinct().sorted().collect(Collectors.toList());
+    }
+
     private static Stream<String> getAuthorities(Authentication authentication) {
         Collection<? extends GrantedAuthority> authorities = authentication instanceof JwtAuthenticationToken
             ? extractAuthorityFromClaims(((JwtAuthenticationToken) authentication).getToken().getClaims())
@@ -0,0 +1,53 @@
+package com.yuzhi.dts.platform.service.admin;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * 管理端的缓存失效通知只会打到平台某一个节点，由该节点通过 Hazelcast Topic 转发给集群内所有节点（含自身），
+ * 各节点收到后使本地 {@link AdminResponseCache} 对应命名空间失效。
+ * 消息为逗号分隔的命名空间，空串表示全部。Hazelcast 以单机模式运行或广播失败时只在本节点生效，
+ * 其他节点依赖缓存条目的 TTL 过期后重新校验。
+ */
+@Component
+public class AdminCacheInvalidationBroadcaster {
+
+    static final String TOPIC = "dts-platform-admin-cache-invalidations";
+
+    private static final Logger log = LoggerFactory.getLogger(AdminCacheInvalidationBroadcaster.class);
+
+    private final ITopic<String> topic;
+    private final AdminResponseCache cache;
+
+    public AdminCacheInvalidationBroadcaster(HazelcastInstance hazelcastInstance, AdminResponseCache cache) {
+        this.cache = cache;
+        this.topic = hazelcastInstance.getTopic(TOPIC);
+        this.topic.addMessageListener(message -> apply(message.getMessageObject()));
+    }
+
+    public void publish(Collection<String> namespaces) {
+        String message = namespaces == null ? "" : String.join(",", namespaces);
+        try {
+            topic.publish(message);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to broadcast admin cache invalidation {}: {}", message, ex.getMessage());
+            apply(message);
+        }
+    }
+
+    void apply(String message) {
+        List<String> namespaces = new ArrayList<>();
+        if (StringUtils.hasText(message)) {
+            Arrays.stream(message.split(",")).map(String::trim).filter(StringUtils::hasText).forEach(namespaces::add);
+        }
+        cache.invalidate(namespaces);
+    }
+}
@@ -0,0 +1,260 @@
+package com.yuzhi.dts.platform.service.admin;
+
+import com.yuzhi.dts.platform.config.DtsAdminProperties;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * dts-admin 只读调用的共享缓存（菜单、目录、基础设施配置）。
+ * <ul>
+ *     <li>按命名空间 + 键缓存，过期后携带 ETag 条件请求，管理端返回 304 时直接沿用本地副本；</li>
+ *     <li>同一键的并发未命中只发起一次远程调用，其余调用方等待同一结果；</li>
+ *     <li>刚过期的条目先返回旧值并在后台刷新；管理端不可用时在 staleIfError 窗口内继续返回旧值；</li>
+ *     <li>管理端在菜单/角色变更后推送失效通知，失效条目在下次访问时重新校验。</li>
+ * </ul>
+ * 缓存的值在线程间共享，调用方不得修改返回的对象。
+ */
+@Component
+public class AdminResponseCache {
+
+    public static final String MENU = "menu";
+    public static final String ROLES = "roles";
+    public static final String USERS = "users";
+    public static final String INFRA = "infra";
+
+    private static final Logger log = LoggerFactory.getLogger(AdminResponseCache.class);
+
+    private final DtsAdminProperties.Cache settings;
+    private final Clock clock;
+    private final Executor refreshExecutor;
+    private final ConcurrentMap<String, Namespace> namespaces = new ConcurrentHashMap<>();
+
+    public AdminResponseCache(DtsAdminProperties properties) {
+        this(properties.getCache(), Clock.systemUTC(), newRefreshExecutor());
+    }
+
+    AdminResponseCache(DtsAdminProperties.Cache settings, Clock clock, Executor refreshExecutor) {
+        this.settings = settings;
+        this.clock = clock;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * 远程加载函数：参数为本地副本的 ETag（首次加载为 null），失败时直接抛出异常。
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        Fetched<T> load(String etag) throws Exception;
+    }
+
+    public record Fetched<T>(T value, String etag, boolean unchanged) {
+        public static <T> Fetched<T> of(T value, String etag) {
+            return new Fetched<>(value, etag, false);
+        }
+
+        public static <T> Fetched<T> notModified() {
+            return new Fetched<>(null, null, true);
+        }
+    }
+
+    public static boolean isNotModified(ResponseEntity<?> response) {
+        return response != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED);
+    }
+
+    public static void applyEtag(HttpHeaders headers, String etag) {
+        if (StringUtils.hasText(etag)) {
+            headers.setIfNoneMatch(etag);
+        }
+    }
+
+    public <T> Optional<T> get(String namespace, String key, Duration ttl, Loader<T> loader) {
+        if (!settings.isEnabled()) {
+            try {
+                return Optional.ofNullable(loader.load(null).value());
+            } catch (Exception ex) {
+                log.warn("Admin call {}:{} failed: {}", namespace, key, ex.getMessage());
+                return Optional.empty();
+            }
+        }
+        Namespace ns = namespace(namespace);
+        Entry cached = ns.entries.get(key);
+        long now = clock.millis();
+        long ttlMillis = ttl == null ? 0L : Math.max(0L, ttl.toMillis());
+        if (cached != null && !cached.invalidated()) {
+            long age = now - cached.fetchedAt();
+            if (age < ttlMillis) {
+                return Optional.ofNullable(cast(cached.value()));
+            }
+            if (age < ttlMillis + settings.getStaleWhileRevalidate().toMillis()) {
+                refreshInBackground(ns, namespace, key, loader);
+                return Optional.ofNullable(cast(cached.value()));
+            }
+        }
+        try {
+            return Optional.ofNullable(cast(load(ns, key, loader).join().value()));
+        } catch (CompletionException ex) {
+            String message = ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage();
+            if (cached != null && now - cached.fetchedAt() <= ttlMillis + settings.getStaleIfError().toMillis()) {
+                log.debug("Admin call {}:{} failed, serving cached copy: {}", namespace, key, message);
+                return Optional.ofNullable(cast(cached.value()));
+            }
+            log.warn("Admin call {}:{} failed: {}", namespace, key, message);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 使整个命名空间失效；正在进行的加载结果写入后同样视为已失效。
+     */
+    public void invalidate(String namespace) {
+        Namespace ns = namespaces.get(namespace);
+        if (ns == null) {
+            return;
+        }
+        ns.generation.incrementAndGet();
+        ns.entries.replaceAll((key, entry) -> entry.invalidate());
+        log.debug("Admin response cache namespace {} invalidated", namespace);
+    }
+
+    public void invalidate(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            namespaces.keySet().forEach(this::invalidate);
+            return;
+        }
+        names.forEach(this::invalidate);
+    }
+
+    private <T> CompletableFuture<Entry> load(Namespace ns, String key, Loader<T> loader) {
+        CompletableFuture<Entry> created = new CompletableFuture<>();
+        CompletableFuture<Entry> running = ns.inFlight.putIfAbsent(key, created);
+        if (running != null) {
+            return running;
+        }
+        try {
+            long generation = ns.generation.get();
+            Entry previous = ns.entries.get(key);
+            Fetched<T> fetched = loader.load(previous != null ? previous.etag() : null);
+            long now = clock.millis();
+            Entry entry;
+            if (fetched.unchanged()) {
+                if (previous == null) {
+                    throw new IllegalStateException("304 Not Modified without a cached copy");
+                }
+                entry = new Entry(previous.value(), previous.etag(), now, false);
+            } else {
+                entry = new Entry(fetched.value(), fetched.etag(), now, false);
+            }
+            if (ns.generation.get() != generation) {
+                entry = entry.invalidate();
+            }
+            store(ns, key, entry);
+            created.complete(entry);
+        } catch (Exception ex) {
+            created.completeExceptionally(ex);
+        } finally {
+            ns.inFlight.remove(key, created);
+        }
+        return created;
+    }
+
+    private <T> void refreshInBackground(Namespace ns, String namespace, String key, Loader<T> loader) {
+        if (ns.inFlight.containsKey(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() ->
+                load(ns, key, loader).exceptionally(ex -> {
+                    log.debug("Background refresh of {}:{} failed: {}", namespace, key, ex.getMessage());
+                    return null;
+                })
+            );
+        } catch (RejectedExecutionException ex) {
+            log.debug("Background refresh queue full, skip {}:{}", namespace, key);
+        }
+    }
+
+    private void store(Namespace ns, String key, Entry entry) {
+        ns.entries.put(key, entry);
+        int max = Math.max(1, settings.getMaxEntries());
+        while (ns.entries.size() > max) {
+            String oldest = null;
+            long oldestAt = Long.MAX_VALUE;
+            for (Map.Entry<String, Entry> candidate : ns.entries.entrySet()) {
+                if (candidate.getValue().fetchedAt() < oldestAt) {
+                    oldestAt = candidate.getValue().fetchedAt();
+                    oldest = candidate.getKey();
+                }
+            }
+            if (oldest == null || oldest.equals(key)) {
+                break;
+            }
+            ns.entries.remove(oldest);
+        }
+    }
+
+    private Namespace namespace(String name) {
+        return namespaces.computeIfAbsent(name, n -> new Namespace());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    private static ExecutorService newRefreshExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            2,
+            2,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(64),
+            new CustomizableThreadFactory("admin-cache-refresh-"),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refreshExecutor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    private record Entry(Object value, String etag, long fetchedAt, boolean invalidated) {
+        Entry invalidate() {
+            return invalidated ? this : new Entry(value, etag, fetchedAt, true);
+        }
+    }
+
+    private static final class Namespace {
+
+        private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+        private final AtomicLong generation = new AtomicLong();
+    }
+}
@@ -0,0 +1,82 @@
+package com.yuzhi.dts.platform.service.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuzhi.dts.common.audit.AuditActionDefinition;
+import com.yuzhi.dts.common.audit.AuditStage;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 审计动作的预编译模板：按目录中的动作定义一次性生成各阶段的元数据标签（只读），
+ * 每条审计事件直接引用，不再逐条拼装 Map。
+ * <p>
+ * 标签的 JSON 形式在首次转发时才序列化，并按阶段缓存复用；载荷未指定 operationType 时使用按动作名称预先推断的操作类型。
+ */
+final class AuditActionTemplate {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditActionTemplate.class);
+    private static final AuditStage[] STAGES = AuditStage.values();
+
+    private final AuditActionDefinition definition;
+    private final Map<AuditStage, Map<String, Object>> tagsByStage;
+    private final AtomicReferenceArray<String> tagsJsonByStage = new AtomicReferenceArray<>(STAGES.length);
+    private final ObjectMapper objectMapper;
+    private final String operationType;
+
+    private AuditActionTemplate(AuditActionDefinition definition, ObjectMapper objectMapper) {
+        this.definition = definition;
+        this.objectMapper = objectMapper;
+        this.operationType = AuditOperationTypes.canonical(definition.getDisplay());
+        Map<AuditStage, Map<String, Object>> stages = new EnumMap<>(AuditStage.class);
+        for (AuditStage stage : STAGES) {
+            // 保留 null 值与字段顺序，与逐条构建时的输出一致
+            Map<String, Object> tags = new LinkedHashMap<>();
+            tags.put("actionCode", definition.getCode());
+            tags.put("moduleKey", definition.getModuleKey());
+            tags.put("moduleTitle", definition.getModuleTitle());
+            tags.put("entryKey", definition.getEntryKey());
+            tags.put("entryTitle", definition.getEntryTitle());
+            tags.put("supportsFlow", definition.isSupportsFlow());
+            tags.put("stage", stage.name());
+            stages.put(stage, Collections.unmodifiableMap(tags));
+        }
+        this.tagsByStage = stages;
+    }
+
+    static AuditActionTemplate compile(AuditActionDefinition definition, ObjectMapper objectMapper) {
+        return new AuditActionTemplate(definition, objectMapper);
+    }
+
+    AuditActionDefinition definition() {
+        return definition;
+    }
+
+    String operationType() {
+        return operationType;
+    }
+
+    Map<String, Object> tags(AuditStage stage) {
+        return tagsByStage.get(stage);
+    }
+
+    String tagsJson(AuditStage stage) {
+        String json = tagsJsonByStage.get(stage.ordinal());
+        if (json != null) {
+            return json;
+        }
+        try {
+            json = objectMapper.writeValueAsString(tags(stage));
+        } catch (JsonProcessingException ex) {
+            log.warn("Failed to serialize audit tags for action {}", definition.getCode(), ex);
+            return null;
+        }
+        tagsJsonByStage.compareAndSet(stage.ordinal(), null, json);
+        return json;
+    }
+}
@@ -0,0 +1,125 @@
+package com.yuzhi.dts.platform.service.audit;
+
+import java.util.Locale;
+import org.springframework.util.StringUtils;
+
+/**
+ * 由动作名称或摘要推断审计操作类型（LOGIN、EXPORT、UPDATE 等）。目录动作在编译模板时按名称算好一次，
+ * 只有载荷未给出 operationType 的非目录动作才逐条推断。
+ */
+final class AuditOperationTypes {
+
+    private AuditOperationTypes() {}
+
+    static String canonical(String candidate) {
+        if (!StringUtils.hasText(candidate)) {
+            return "READ";
+        }
+        String trimmed = candidate.trim();
+        String upper = trimmed.toUpperCase(Locale.ROOT);
+        String lower = trimmed.toLowerCase(Locale.ROOT);
+        if (upper.contains("LOGIN") || containsAny(lower, "登录", "登入")) {
+            return "LOGIN";
+        }
+        if (upper.contains("LOGOUT") || containsAny(lower, "登出", "退出登录", "注销登录")) {
+            return "LOGOUT";
+        }
+        if (upper.contains("DOWNLOAD") || containsAny(lower, "下载", "download")) {
+            return "DOWNLOAD";
+        }
+        if (upper.contains("UPLOAD") || containsAny(lower, "上传", "upload")) {
+            return "UPLOAD";
+        }
+        if (upper.contains("EXPORT") || containsAny(lower, "导出", "export")) {
+            return "EXPORT";
+        }
+        if (upper.contains("IMPORT") || containsAny(lower, "导入", "import")) {
+            return "IMPORT";
+        }
+        if (upper.contains("GRANT") || containsAny(lower, "授权", "共享", "grant")) {
+            return "GRANT";
+        }
+        if (upper.contains("REVOKE") || containsAny(lower, "撤销授权", "取消授权", "收回", "回收", "revoke")) {
+            return "REVOKE";
+        }
+        if (upper.contains("ENABLE") || containsAny(lower, "启用", "开启", "激活", "enable")) {
+            return "ENABLE";
+        }
+        if (upper.contains("DISABLE") || containsAny(lower, "禁用", "停用", "关闭", "失效", "disable")) {
+            return "DISABLE";
+        }
+        if (
+            upper.contains("CLEAN") ||
+            upper.contains("PURGE") ||
+            containsAny(lower, "清理", "清除", "清空", "清扫", "purge", "cleanup")
+        ) {
+            return "CLEAN";
+        }
+        if (upper.contains("ARCHIVE") || containsAny(lower, "归档", "封存", "archive")) {
+            return "ARCHIVE";
+        }
+        if (upper.contains("PUBLISH") || containsAny(lower, "发布", "publish")) {
+            return "PUBLISH";
+        }
+        if (upper.contains("APPROVE") || containsAny(lower, "批准", "审批通过")) {
+            return "APPROVE";
+        }
+        if (upper.contains("REJECT") || containsAny(lower, "拒绝", "驳回")) {
+            return "REJECT";
+        }
+        if (
+            upper.contains("EXECUTE") ||
+            upper.contains("RUN") ||
+            containsAny(lower, "执行", "运行", "run", "apply")
+        ) {
+            return "EXECUTE";
+        }
+        if (upper.contains("REFRESH") || containsAny(lower, "刷新", "refresh")) {
+            return "REFRESH";
+        }
+        if (upper.contains("TEST") || containsAny(lower, "测试", "校验", "验证", "test")) {
+            return "TEST";
+        }
+        if (
+            upper.contains("CREATE") ||
+            upper.contains("ADD") ||
+            upper.contains("NEW") ||
+            containsAny(lower, "新增", "新建", "创建", "提交", "申请")
+        ) {
+            return "CREATE";
+        }
+        if (upper.contains("DELETE") || containsAny(lower, "删除", "移除", "下线", "注销")) {
+            return "DELETE";
+        }
+        if (
+            upper.contains("UPDATE") ||
+            upper.contains("MODIFY") ||
+            upper.contains("EDIT") ||
+            upper.contains("SAVE") ||
+            containsAny(lower, "修改", "更新", "调整", "保存", "编辑", "配置")
+        ) {
+            return "UPDATE";
+        }
+        if (
+            upper.contains("READ") ||
+            upper.contains("QUERY") ||
+            upper.contains("GET") ||
+            containsAny(lower, "查看", "查询", "预览", "浏览", "列表", "检索")
+        ) {
+            return "READ";
+        }
+        return "READ";
+    }
+
+    private static boolean containsAny(String source, String... needles) {
+        if (!StringUtils.hasText(source) || needles == null) {
+            return false;
+        }
+        for (String needle : needles) {
+            if (needle != null && source.contains(needle)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
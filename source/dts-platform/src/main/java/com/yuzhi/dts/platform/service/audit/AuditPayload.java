@@ -0,0 +1,165 @@
+package com.yuzhi.dts.platform.service.audit;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 审计载荷的单次解析结果：遍历一遍顶层键完成复制，同时取出事件需要的字段（summary、targetName、resourceName、
+ * operationType、actorName、attributes）与操作人线索。
+ * <p>
+ * 操作人只从约定的键（及其下一层 Map）读取，不再对整个载荷做递归或反射遍历。
+ */
+final class AuditPayload {
+
+    /** 按优先级排列的操作人线索键。 */
+    static final List<String> ACTOR_HINT_KEYS = List.of(
+        "username",
+        "user",
+        "operator",
+        "operatorName",
+        "operatorId",
+        "account",
+        "principal",
+        "actor",
+        "login",
+        "owner",
+        "requester"
+    );
+
+    private static final Map<String, Integer> ACTOR_HINT_RANK = rank(ACTOR_HINT_KEYS);
+
+    /** 可修改的载荷副本；非 Map 载荷时为空。 */
+    final Map<String, Object> values;
+    String summary;
+    String targetName;
+    String resourceName;
+    String actorName;
+    Map<String, Object> attributes = Collections.emptyMap();
+    private String operationType;
+    private String operationTypeAlias;
+    private Object actorHint;
+    private int actorHintRank = Integer.MAX_VALUE;
+
+    private AuditPayload(int expectedSize) {
+        this.values = new LinkedHashMap<>(Math.max(16, expectedSize * 2));
+    }
+
+    static AuditPayload of(Object payload) {
+        if (!(payload instanceof Map<?, ?> map)) {
+            return new AuditPayload(0);
+        }
+        AuditPayload parsed = new AuditPayload(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (entry.getKey() != null) {
+                parsed.accept(String.valueOf(entry.getKey()), entry.getValue());
+            }
+        }
+        return parsed;
+    }
+
+    private void accept(String key, Object value) {
+        values.put(key, value);
+        switch (key) {
+            case "summary" -> summary = text(value);
+            case "targetName" -> targetName = text(value);
+            case "resourceName" -> resourceName = text(value);
+            case "actorName" -> actorName = text(value);
+            case "operationType" -> operationType = text(value);
+            case "operation_type" -> operationTypeAlias = text(value);
+            case "attributes" -> attributes = copyAttributes(value);
+            default -> {
+                Integer rank = ACTOR_HINT_RANK.get(key);
+                if (rank != null && rank < actorHintRank && isActorCandidate(value)) {
+                    actorHint = value;
+                    actorHintRank = rank;
+                }
+            }
+        }
+    }
+
+    /** 载荷显式给出的操作类型（operationType，其次 operation_type）。 */
+    String operationType() {
+        return operationType != null ? operationType : operationTypeAlias;
+    }
+
+    /** 写入默认值（键已存在时保持原值），并同步对应字段。 */
+    void putIfAbsent(String key, String value) {
+        if (!values.containsKey(key)) {
+            accept(key, value);
+        }
+    }
+
+    /**
+     * 载荷中的操作人：优先级最高的线索键；值为 Map 时再看其下一层的线索键。
+     */
+    String actor() {
+        if (actorHint instanceof Map<?, ?> nested) {
+            for (String key : ACTOR_HINT_KEYS) {
+                Object candidate = nested.get(key);
+                if (candidate != null && !(candidate instanceof Map<?, ?>)) {
+                    String actor = sanitizeActor(String.valueOf(candidate));
+                    if (actor != null) {
+                        return actor;
+                    }
+                }
+            }
+            return null;
+        }
+        return actorHint == null ? null : sanitizeActor(String.valueOf(actorHint));
+    }
+
+    private static boolean isActorCandidate(Object value) {
+        return value instanceof Map<?, ?> || (value != null && sanitizeActor(String.valueOf(value)) != null);
+    }
+
+    static String sanitizeActor(String candidate) {
+        if (candidate == null) {
+            return null;
+        }
+        String text = candidate.trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        if (text.startsWith("Bearer ")) {
+            text = text.substring(7).trim();
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        if (lower.equals("anonymous") || lower.equals("anonymoususer") || lower.equals("unknown")) {
+            return null;
+        }
+        return text;
+    }
+
+    private static String text(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String text = String.valueOf(value).trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static Map<String, Object> copyAttributes(Object value) {
+        if (!(value instanceof Map<?, ?> map)) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> copy = new LinkedHashMap<>();
+        map.forEach((k, v) -> {
+            if (k != null) {
+                copy.put(String.valueOf(k), v);
+            }
+        });
+        return copy;
+    }
+
+    private static Map<String, Integer> rank(List<String> keys) {
+        Map<String, Integer> ranks = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            ranks.put(keys.get(i), i);
+        }
+        return Map.copyOf(ranks);
+    }
+}
@@ -7,19 +7,17 @@ import com.yuzhi.dts.common.audit.AuditActionDefinition;
 import com.yuzhi.dts.common.audit.AuditStage;
 import com.yuzhi.dts.platform.security.SecurityUtils;
 import com.yuzhi.dts.common.net.IpAddressUtils;
+import com.yuzhi.dts.platform.config.AuditProperties;
 import jakarta.servlet.http.HttpServletRequest;
 import java.time.Instant;
-import java.lang.reflect.Array;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.yuzhi.dts.platform.security.session.PortalSessionRegistry;
@@ -36,36 +34,20 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 public class AuditService {
     private static final Logger log = LoggerFactory.getLogger(AuditService.class);
 
-    private static final boolean AUDIT_CONTEXT_PRESENT;
-    private static final Class<?> AUDIT_CONTEXT_CLASS;
+    private static final Method MARK_DOMAIN_AUDIT;
 
     static {
-        boolean present;
-        Class<?> ctxClass = null;
+        Method markMethod = null;
         try {
-            ctxClass = Class.forName("com.yuzhi.dts.platform.service.audit.AuditRequestContext");
-            present = true;
-        } catch (ClassNotFoundException | NoClassDefFoundError ex) {
-            present = false;
+            Class<?> ctxClass = Class.forName("com.yuzhi.dts.platform.service.audit.AuditRequestContext");
+            markMethod = ctxClass.getMethod("markDomainAudit");
+        } catch (ReflectiveOperationException | NoClassDefFoundError ex) {
+            // tolerate missing context helper at runtime
         }
-        AUDIT_CONTEXT_PRESENT = present;
-        AUDIT_CONTEXT_CLASS = ctxClass;
+        MARK_DOMAIN_AUDIT = markMethod;
     }
 
     private static final Map<String, LegacyActionMapping> LEGACY_ACTIONS = new java.util.HashMap<>();
-    private static final Set<String> ACTOR_HINT_KEYS = Set.of(
-        "username",
-        "user",
-        "operator",
-        "operatorName",
-        "operatorId",
-        "account",
-        "principal",
-        "actor",
-        "login",
-        "owner",
-        "requester"
-    );
 
     static {
         // API catalog actions
@@ -124,6 +106,9 @@ public class AuditService {
         registerLegacy("explore.resultSet", "DELETE", legacyMapping("EXPLORE_RESULTSET_PURGE", "删除查询结果集", "删除查询结果集失败", null, "DELETE", false, AuditStage.SUCCESS));
         registerLegacy("explore.resultSet", "DENY", legacyMapping("EXPLORE_RESULTSET_PURGE", "删除查询结果集", "删除查询结果集被拒绝", null, "DELETE", false, AuditStage.FAIL));
         registerLegacy("explore.resultSet.cleanup", "DELETE", legacyMapping("EXPLORE_RESULTSET_PURGE", "清理查询结果集", "清理查询结果集失败", null, "DELETE", false, AuditStage.SUCCESS));
+        registerLegacy("explore.download", "EXPORT", legacyMapping("EXPLORE_RESULTSET_EXPORT", "导出查询结果", "导出查询结果失败", null, "EXPORT", false, AuditStage.SUCCESS));
+        registerLegacy("explore.download", "DENY", legacyMapping("EXPLORE_RESULTSET_EXPORT", "导出查询结果", "导出查询结果被拒绝", null, "EXPORT", false, AuditStage.FAIL));
+        registerLegacy("explore.download", "ERROR", legacyMapping("EXPLORE_RESULTSET_EXPORT", "导出查询结果", "导出查询结果失败", null, "EXPORT", false, AuditStage.FAIL));
         registerLegacy("explore.saveResult", "EXPORT", legacyMapping("EXPLORE_RESULTSET_EXPORT", "保存查询结果集", "保存查询结果集失败", null, "EXPORT", false, AuditStage.SUCCESS));
         registerLegacy("explore.saveResult", "DENY", legacyMapping("EXPLORE_RESULTSET_EXPORT", "保存查询结果集", "保存查询结果集被拒绝", null, "EXPORT", false, AuditStage.FAIL));
 
@@ -227,17 +212,25 @@ public class AuditService {
     private final AuditActionCatalog actionCatalog;
     private final PortalSessionRegistry portalSessionRegistry;
     private final ObjectMapper objectMapper;
+    private final int logSampleRate;
+    private final Map<String, AuditActionTemplate> templates = new ConcurrentHashMap<>();
+    private final AtomicLong logSequence = new AtomicLong();
 
     public AuditService(
         ObjectProvider<AuditTrailService> auditTrailServiceProvider,
         AuditActionCatalog actionCatalog,
         PortalSessionRegistry portalSessionRegistry,
-        ObjectMapper objectMapper
+        ObjectMapper objectMapper,
+        AuditProperties auditProperties
     ) {
         this.auditTrailServiceProvider = auditTrailServiceProvider;
         this.actionCatalog = actionCatalog;
         this.portalSessionRegistry = portalSessionRegistry;
         this.objectMapper = objectMapper;
+        this.logSampleRate = Math.max(1, auditProperties.getLogSampleRate());
+        for (AuditActionDefinition definition : actionCatalog.listAll()) {
+            templates.put(definition.getCode(), AuditActionTemplate.compile(definition, objectMapper));
+        }
     }
 
     public void auditAction(String actionCode, AuditStage stage, String resourceId, Object payload) {
@@ -247,21 +240,15 @@ public class AuditService {
             return;
         }
         AuditStage effectiveStage = stage == null ? AuditStage.SUCCESS : stage;
-        AuditActionDefinition definition = actionCatalog
-            .findByCode(actionCode)
-            .orElseGet(() -> {
-                log.warn("Unknown audit action code {}, using fallback metadata", actionCode);
-                return new AuditActionDefinition(
-                    actionCode.trim().toUpperCase(),
-                    actionCode,
-                    "general",
-                    "General",
-                    "general",
-                    "通用动作",
-                    false,
-                    null
-                );
-            });
+        AuditActionTemplate template = templateFor(actionCode);
+        if (template == null) {
+            log.warn("Unknown audit action code {}, using fallback metadata", actionCode);
+            template = AuditActionTemplate.compile(
+                new AuditActionDefinition(actionCode.trim().toUpperCase(), actionCode, "general", "General", "general", "通用动作", false, null),
+                objectMapper
+            );
+        }
+        AuditActionDefinition definition = template.definition();
         if (!definition.isStageSupported(effectiveStage)) {
             log.debug(
                 "Audit action {} does not declare stage {}; proceeding for backward compatibility",
@@ -279,16 +266,18 @@ public class AuditService {
             case FAIL -> "FAILED";
         };
 
-        Map<String, Object> tags = new HashMap<>();
-        tags.put("actionCode", definition.getCode());
-        tags.put("stage", effectiveStage.name());
-        tags.put("moduleKey", definition.getModuleKey());
-        tags.put("moduleTitle", definition.getModuleTitle());
-        tags.put("entryKey", definition.getEntryKey());
-        tags.put("entryTitle", definition.getEntryTitle());
-        tags.put("supportsFlow", definition.isSupportsFlow());
-
-        record(actionDisplay, module, resourceType, resourceId, result, payload, tags);
+        submitAuditInternal(
+            SecurityUtils.getCurrentUserLogin().orElse("anonymous"),
+            actionDisplay,
+            module,
+            resourceType,
+            resourceId,
+            result,
+            payload,
+            null,
+            template,
+            false
+        );
     }
 
     public void audit(String action, String targetKind, String targetRef) {
@@ -412,8 +401,27 @@ public class AuditService {
         Map<String, Object> extraTags,
         boolean auxiliary
     ) {
-        Map<String, Object> payloadMap = toPayloadMap(payload);
-        String safeActor = resolveActor(actor, payloadMap);
+        submitAuditInternal(actor, action, module, resourceType, resourceId, result, payload, extraTags, null, auxiliary);
+    }
+
+    /**
+     * @param template 已解析的目录动作模板；为 null 时按 (module, action) 查找旧版映射
+     */
+    private void submitAuditInternal(
+        String actor,
+        String action,
+        String module,
+        String resourceType,
+        String resourceId,
+        String result,
+        Object payload,
+        Map<String, Object> extraTags,
+        AuditActionTemplate template,
+        boolean auxiliary
+    ) {
+        AuditPayload parsed = AuditPayload.of(payload);
+        Map<String, Object> payloadMap = parsed.values;
+        String safeActor = resolveActor(actor, parsed);
         if (safeActor == null) {
             if (log.isDebugEnabled()) {
                 log.debug(
@@ -425,58 +433,51 @@ public class AuditService {
             }
             return;
         }
-        Map<String, Object> effectiveExtraTags = extraTags != null ? new java.util.LinkedHashMap<>(extraTags) : null;
+        Map<String, Object> callerTags = extraTags != null && !extraTags.isEmpty() ? extraTags : null;
         LegacyActionMapping legacyMapping = null;
-        AuditActionDefinition legacyDefinition = null;
         String overrideAction = null;
         String overrideOperationType = null;
         boolean disableDefaultResourceFallback = auxiliary;
         AuditStage stage = resolveStageFromResult(result, null);
 
-        if (!auxiliary && (effectiveExtraTags == null || !effectiveExtraTags.containsKey("actionCode"))) {
+        if (template == null && !auxiliary && (callerTags == null || !callerTags.containsKey("actionCode"))) {
             legacyMapping = LEGACY_ACTIONS.get(legacyKey(module, action));
             if (legacyMapping != null) {
                 stage = resolveStageFromResult(result, legacyMapping.defaultStage());
-                legacyDefinition = actionCatalog.findByCode(legacyMapping.actionCode()).orElse(null);
+                template = templateFor(legacyMapping.actionCode());
                 overrideAction = legacyMapping.summaryForStage(stage);
                 overrideOperationType = legacyMapping.operationType();
                 if (legacyMapping.allowEmptyTargets()) {
                     disableDefaultResourceFallback = true;
                 }
-                if (legacyDefinition != null) {
+                if (template != null) {
+                    AuditActionDefinition legacyDefinition = template.definition();
                     module = legacyDefinition.getModuleKey();
                     if (StringUtils.hasText(legacyDefinition.getEntryKey())) {
                         resourceType = legacyDefinition.getEntryKey();
                     }
-                    effectiveExtraTags = new java.util.LinkedHashMap<>();
-                    effectiveExtraTags.put("actionCode", legacyDefinition.getCode());
-                    effectiveExtraTags.put("moduleKey", legacyDefinition.getModuleKey());
-                    effectiveExtraTags.put("moduleTitle", legacyDefinition.getModuleTitle());
-                    effectiveExtraTags.put("entryKey", legacyDefinition.getEntryKey());
-                    effectiveExtraTags.put("entryTitle", legacyDefinition.getEntryTitle());
-                    effectiveExtraTags.put("supportsFlow", legacyDefinition.isSupportsFlow());
-                    effectiveExtraTags.put("stage", stage.name());
                 }
-                if (StringUtils.hasText(overrideAction) && !payloadMap.containsKey("summary")) {
-                    payloadMap.put("summary", overrideAction);
+                if (StringUtils.hasText(overrideAction)) {
+                    parsed.putIfAbsent("summary", overrideAction);
                 }
-                if (StringUtils.hasText(overrideOperationType) && !payloadMap.containsKey("operationType")) {
-                    payloadMap.put("operationType", overrideOperationType);
+                if (StringUtils.hasText(overrideOperationType)) {
+                    parsed.putIfAbsent("operationType", overrideOperationType);
                 }
             }
         }
 
         result = normalizeResultForStage(stage, result);
-        String logAction = StringUtils.hasText(overrideAction) ? overrideAction : action;
-        log.info(
-            "AUDIT actor={} action={} module={} resourceType={} resourceId={} result={}",
-            safeActor,
-            logAction,
-            module,
-            resourceType,
-            resourceId,
-            result
-        );
+        if (log.isDebugEnabled() && sampleLog()) {
+            log.debug(
+                "AUDIT actor={} action={} module={} resourceType={} resourceId={} result={}",
+                safeActor,
+                StringUtils.hasText(overrideAction) ? overrideAction : action,
+                module,
+                resourceType,
+                resourceId,
+                result
+            );
+        }
         AuditTrailService.PendingAuditEvent event = new AuditTrailService.PendingAuditEvent();
         event.occurredAt = Instant.now();
         event.actor = safeActor;
@@ -494,24 +495,27 @@ public class AuditService {
         } else {
             event.payload = payload;
         }
-        String actorDisplayName = resolveActorName(payloadMap, safeActor);
+        String actorDisplayName = resolveActorName(parsed, safeActor);
         if (StringUtils.hasText(actorDisplayName)) {
             payloadMap.putIfAbsent("actorName", actorDisplayName);
             event.actorName = actorDisplayName;
         }
-        if (effectiveExtraTags != null && !effectiveExtraTags.isEmpty()) {
-            event.extraTags = serializeTags(effectiveExtraTags);
+        if (template != null) {
+            AuditActionTemplate compiled = template;
+            AuditStage eventStage = stage;
+            event.metadata = compiled.tags(eventStage);
+            event.deferredExtraTags = () -> compiled.tagsJson(eventStage);
+        } else if (callerTags != null) {
+            Map<String, Object> tags = new java.util.LinkedHashMap<>(callerTags);
+            event.metadata = tags;
+            event.deferredExtraTags = () -> serializeTags(tags);
         }
 
-        String summary = extractText(payloadMap, "summary");
-        String targetName = extractText(payloadMap, "targetName");
-        if (StringUtils.hasText(targetName)) {
-            event.resourceName = targetName;
-        } else {
-            String resourceName = extractText(payloadMap, "resourceName");
-            if (StringUtils.hasText(resourceName)) {
-                event.resourceName = resourceName;
-            }
+        String summary = parsed.summary;
+        if (parsed.targetName != null) {
+            event.resourceName = parsed.targetName;
+        } else if (parsed.resourceName != null) {
+            event.resourceName = parsed.resourceName;
         }
         if (!StringUtils.hasText(summary)) {
             if (StringUtils.hasText(event.action) && StringUtils.hasText(event.resourceName)) {
@@ -523,16 +527,16 @@ public class AuditService {
         event.summary = summary;
         if (StringUtils.hasText(overrideOperationType)) {
             event.operationType = overrideOperationType;
+        } else if (parsed.operationType() != null) {
+            event.operationType = AuditOperationTypes.canonical(parsed.operationType());
+        } else if (template != null && overrideAction == null && template.definition().getDisplay().equals(event.action)) {
+            event.operationType = template.operationType();
         } else {
-            event.operationType = deriveOperationType(event.action, payloadMap);
+            event.operationType = deriveOperationType(event.action, parsed);
         }
 
-        Map<String, Object> attributes = extractNestedAttributes(payloadMap);
-        if (!attributes.isEmpty()) {
-            event.attributes = attributes;
-        }
-        if (effectiveExtraTags != null && !effectiveExtraTags.isEmpty()) {
-            event.metadata = new java.util.LinkedHashMap<>(effectiveExtraTags);
+        if (!parsed.attributes.isEmpty()) {
+            event.attributes = parsed.attributes;
         }
         event.auxiliary = auxiliary;
         if (disableDefaultResourceFallback) {
@@ -559,259 +563,49 @@ public class AuditService {
         }
     }
 
-    private String resolveActor(String actor, Map<String, Object> payloadMap) {
-        String primary = sanitizeActorString(actor);
-        if (primary != null) {
-            return primary;
-        }
-        String fromPayload = extractActorFromPayload(payloadMap);
-        if (fromPayload != null) {
-            return fromPayload;
-        }
-        String login = SecurityUtils.getCurrentUserLogin().orElse(null);
-        String sanitizedLogin = sanitizeActorString(login);
-        if (sanitizedLogin != null) {
-            return sanitizedLogin;
-        }
-        return sanitizeActorString(SecurityUtils.getCurrentUserId().orElse(null));
-    }
-
-    private String extractActorFromPayload(Map<String, Object> payloadMap) {
-        if (payloadMap == null || payloadMap.isEmpty()) {
-            return null;
-        }
-        return extractActorFromPayloadInternal(
-            payloadMap,
-            Collections.newSetFromMap(new IdentityHashMap<>())
-        );
-    }
-
-    private String extractActorFromPayloadInternal(Object source, Set<Object> visited) {
-        if (source == null) {
-            return null;
-        }
-        if (source instanceof String s) {
-            return sanitizeActorString(s);
-        }
-        if (source instanceof Map<?, ?> map) {
-            if (!visited.add(map)) {
-                return null;
-            }
-            for (String key : ACTOR_HINT_KEYS) {
-                if (map.containsKey(key)) {
-                    String candidate = extractActorFromPayloadInternal(map.get(key), visited);
-                    if (candidate != null) {
-                        return candidate;
-                    }
-                }
-            }
-            for (Object value : map.values()) {
-                String candidate = extractActorFromPayloadInternal(value, visited);
-                if (candidate != null) {
-                    return candidate;
-                }
-            }
-            return null;
-        }
-        if (source instanceof Collection<?> collection) {
-            if (!visited.add(collection)) {
-                return null;
-            }
-            for (Object value : collection) {
-                String candidate = extractActorFromPayloadInternal(value, visited);
-                if (candidate != null) {
-                    return candidate;
-                }
-            }
-            return null;
-        }
-        if (source.getClass().isArray()) {
-            int length = Array.getLength(source);
-            for (int i = 0; i < length; i++) {
-                String candidate = extractActorFromPayloadInternal(Array.get(source, i), visited);
-                if (candidate != null) {
-                    return candidate;
-                }
-            }
-            return null;
-        }
-        return sanitizeActorString(source.toString());
-    }
-
-    private String sanitizeActorString(String candidate) {
-        if (candidate == null) {
+    /**
+     * 返回目录动作的预编译模板；目录重新加载后定义对象变化时重新编译。
+     */
+    private AuditActionTemplate templateFor(String actionCode) {
+        AuditActionDefinition definition = actionCatalog.findByCode(actionCode).orElse(null);
+        if (definition == null) {
             return null;
         }
-        String text = candidate.trim();
-        if (text.isEmpty()) {
-            return null;
-        }
-        if (text.startsWith("Bearer ")) {
-            text = text.substring(7).trim();
-        }
-        String lower = text.toLowerCase(Locale.ROOT);
-        if (lower.equals("anonymous") || lower.equals("anonymoususer") || lower.equals("unknown")) {
-            return null;
+        AuditActionTemplate template = templates.get(definition.getCode());
+        if (template == null || template.definition() != definition) {
+            template = AuditActionTemplate.compile(definition, objectMapper);
+            templates.put(definition.getCode(), template);
         }
-        return text;
+        return template;
     }
 
-    private Map<String, Object> toPayloadMap(Object payload) {
-        if (payload instanceof Map<?, ?> map) {
-            Map<String, Object> copy = new java.util.LinkedHashMap<>();
-            map.forEach((k, v) -> {
-                if (k != null) {
-                    copy.put(String.valueOf(k), v);
-                }
-            });
-            return copy;
-        }
-        return new java.util.LinkedHashMap<>();
+    private boolean sampleLog() {
+        return logSampleRate <= 1 || logSequence.getAndIncrement() % logSampleRate == 0;
     }
 
-    private Map<String, Object> extractNestedAttributes(Map<String, Object> payload) {
-        if (payload == null || payload.isEmpty()) {
-            return java.util.Collections.emptyMap();
-        }
-        Object attributes = payload.get("attributes");
-        if (attributes instanceof Map<?, ?> map) {
-            Map<String, Object> copy = new java.util.LinkedHashMap<>();
-            map.forEach((k, v) -> {
-                if (k != null) {
-                    copy.put(String.valueOf(k), v);
-                }
-            });
-            return copy;
+    private String resolveActor(String actor, AuditPayload payload) {
+        String primary = AuditPayload.sanitizeActor(actor);
+        if (primary != null) {
+            return primary;
         }
-        return java.util.Collections.emptyMap();
-    }
-
-    private String extractText(Map<String, Object> map, String key) {
-        if (map == null || map.isEmpty()) {
-            return null;
+        String fromPayload = payload.actor();
+        if (fromPayload != null) {
+            return fromPayload;
         }
-        Object value = map.get(key);
-        if (value == null) {
-            return null;
+        String login = SecurityUtils.getCurrentUserLogin().orElse(null);
+        String sanitizedLogin = AuditPayload.sanitizeActor(login);
+        if (sanitizedLogin != null) {
+            return sanitizedLogin;
         }
-        String text = String.valueOf(value).trim();
-        return text.isEmpty() ? null : text;
+        return AuditPayload.sanitizeActor(SecurityUtils.getCurrentUserId().orElse(null));
     }
 
-    private String deriveOperationType(String action, Map<String, Object> payload) {
-        String direct = extractText(payload, "operationType");
-        if (!StringUtils.hasText(direct)) {
-            direct = extractText(payload, "operation_type");
-        }
-        if (StringUtils.hasText(direct)) {
-            return canonicalOperationType(direct);
-        }
+    private String deriveOperationType(String action, AuditPayload payload) {
         if (StringUtils.hasText(action)) {
-            return canonicalOperationType(action);
-        }
-        String summary = extractText(payload, "summary");
-        if (StringUtils.hasText(summary)) {
-            return canonicalOperationType(summary);
-        }
-        return "READ";
-    }
-
-    private String canonicalOperationType(String candidate) {
-        if (!StringUtils.hasText(candidate)) {
-            return "READ";
-        }
-        String trimmed = candidate.trim();
-        String upper = trimmed.toUpperCase(Locale.ROOT);
-        String lower = trimmed.toLowerCase(Locale.ROOT);
-        if (upper.contains("LOGIN") || containsAny(lower, "登录", "登入")) {
-            return "LOGIN";
-        }
-        if (upper.contains("LOGOUT") || containsAny(lower, "登出", "退出登录", "注销登录")) {
-            return "LOGOUT";
-        }
-        if (upper.contains("DOWNLOAD") || containsAny(lower, "下载", "download")) {
-            return "DOWNLOAD";
-        }
-        if (upper.contains("UPLOAD") || containsAny(lower, "上传", "upload")) {
-            return "UPLOAD";
-        }
-        if (upper.contains("EXPORT") || containsAny(lower, "导出", "export")) {
-            return "EXPORT";
-        }
-        if (upper.contains("IMPORT") || containsAny(lower, "导入", "import")) {
-            return "IMPORT";
-        }
-        if (upper.contains("GRANT") || containsAny(lower, "授权", "共享", "grant")) {
-            return "GRANT";
-        }
-        if (upper.contains("REVOKE") || containsAny(lower, "撤销授权", "取消授权", "收回", "回收", "revoke")) {
-            return "REVOKE";
-        }
-        if (upper.contains("ENABLE") || containsAny(lower, "启用", "开启", "激活", "enable")) {
-            return "ENABLE";
-        }
-        if (upper.contains("DISABLE") || containsAny(lower, "禁用", "停用", "关闭", "失效", "disable")) {
-            return "DISABLE";
-        }
-        if (
-            upper.contains("CLEAN") ||
-            upper.contains("PURGE") ||
-            containsAny(lower, "清理", "清除", "清空", "清扫", "purge", "cleanup")
-        ) {
-            return "CLEAN";
-        }
-        if (upper.contains("ARCHIVE") || containsAny(lower, "归档", "封存", "archive")) {
-            return "ARCHIVE";
-        }
-        if (upper.contains("PUBLISH") || containsAny(lower, "发布", "publish")) {
-            return "PUBLISH";
-        }
-        if (upper.contains("APPROVE") || containsAny(lower, "批准", "审批通过")) {
-            return "APPROVE";
-        }
-        if (upper.contains("REJECT") || containsAny(lower, "拒绝", "驳回")) {
-            return "REJECT";
+            return AuditOperationTypes.canonical(action);
         }
-        if (
-            upper.contains("EXECUTE") ||
-            upper.contains("RUN") ||
-            containsAny(lower, "执行", "运行", "run", "apply")
-        ) {
-            return "EXECUTE";
-        }
-        if (upper.contains("REFRESH") || containsAny(lower, "刷新", "refresh")) {
-            return "REFRESH";
-        }
-        if (upper.contains("TEST") || containsAny(lower, "测试", "校验", "验证", "test")) {
-            return "TEST";
-        }
-        if (
-            upper.contains("CREATE") ||
-            upper.contains("ADD") ||
-            upper.contains("NEW") ||
-            containsAny(lower, "新增", "新建", "创建", "提交", "申请")
-        ) {
-            return "CREATE";
-        }
-        if (upper.contains("DELETE") || containsAny(lower, "删除", "移除", "下线", "注销")) {
-            return "DELETE";
-        }
-        if (
-            upper.contains("UPDATE") ||
-            upper.contains("MODIFY") ||
-            upper.contains("EDIT") ||
-            upper.contains("SAVE") ||
-            containsAny(lower, "修改", "更新", "调整", "保存", "编辑", "配置")
-        ) {
-            return "UPDATE";
-        }
-        if (
-            upper.contains("READ") ||
-            upper.contains("QUERY") ||
-            upper.contains("GET") ||
-            containsAny(lower, "查看", "查询", "预览", "浏览", "列表", "检索")
-        ) {
-            return "READ";
+        if (payload.summary != null) {
+            return AuditOperationTypes.canonical(payload.summary);
         }
         return "READ";
     }
@@ -895,22 +689,9 @@ public class AuditService {
         );
     }
 
-    private boolean containsAny(String source, String... needles) {
-        if (!StringUtils.hasText(source) || needles == null) {
-            return false;
-        }
-        for (String needle : needles) {
-            if (needle != null && source.contains(needle)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private String resolveActorName(Map<String, Object> payload, String actorId) {
-        String fromPayload = extractText(payload, "actorName");
-        if (StringUtils.hasText(fromPayload)) {
-            return fromPayload;
+    private String resolveActorName(AuditPayload payload, String actorId) {
+        if (payload.actorName != null) {
+            return payload.actorName;
         }
         String fromSecurity = SecurityUtils.getCurrentUserDisplayName().orElse(null);
         if (StringUtils.hasText(fromSecurity)) {
@@ -946,13 +727,11 @@ public class AuditService {
     }
 
     private void markDomainAuditSafe() {
-        if (!AUDIT_CONTEXT_PRESENT) {
+        if (MARK_DOMAIN_AUDIT == null) {
             return;
         }
         try {
-            if (AUDIT_CONTEXT_CLASS != null) {
-                AUDIT_CONTEXT_CLASS.getMethod("markDomainAudit").invoke(null);
-            }
+            MARK_DOMAIN_AUDIT.invoke(null);
         } catch (ReflectiveOperationException | NoClassDefFoundError ex) {
             // tolerate missing context helper at runtime
             if (log.isDebugEnabled()) {
@@ -1,5 +1,6 @@
 package com.yuzhi.dts.platform.service.audit;
 
+import com.yuzhi.dts.common.observability.OperationMetrics;
 import com.yuzhi.dts.platform.config.AuditProperties;
 import com.yuzhi.dts.platform.config.DtsAdminProperties;
 import java.net.URI;
@@ -11,6 +12,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -28,6 +30,7 @@ public class AuditTrailService {
 
     private static final Logger log = LoggerFactory.getLogger(AuditTrailService.class);
     private static final String SOURCE_SYSTEM_PLATFORM = "platform";
+    private static final String FORWARD_TARGET = "dts-admin";
     private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(3);
     private static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(5);
     private static final Duration READ_DEDUPE_WINDOW = Duration.ofSeconds(2);
@@ -55,21 +58,34 @@ public class AuditTrailService {
         public Map<String, Object> attributes;
         public Map<String, Object> metadata;
         public String extraTags;
+        /** 延迟生成的 extraTags，只在事件真正转发时求值；已直接设置 extraTags 时不再使用。 */
+        public Supplier<String> deferredExtraTags;
         public boolean disableDefaultResourceFallback;
         public boolean auxiliary;
+
+        String resolveExtraTags() {
+            if (extraTags == null && deferredExtraTags != null) {
+                extraTags = deferredExtraTags.get();
+                deferredExtraTags = null;
+            }
+            return extraTags;
+        }
     }
 
     private final AuditProperties properties;
     private final RestTemplate restTemplate;
     private final URI ingestEndpoint;
+    private final OperationMetrics operationMetrics;
     private final ConcurrentHashMap<String, Long> recentReadEvents = new ConcurrentHashMap<>();
 
     public AuditTrailService(
         AuditProperties properties,
         RestTemplateBuilder restTemplateBuilder,
-        DtsAdminProperties adminProperties
+        DtsAdminProperties adminProperties,
+        OperationMetrics operationMetrics
     ) {
         this.properties = properties;
+        this.operationMetrics = operationMetrics;
         this.restTemplate = restTemplateBuilder
             .setConnectTimeout(DEFAULT_CONNECT_TIMEOUT)
             .setReadTimeout(DEFAULT_READ_TIMEOUT)
@@ -111,6 +127,7 @@ public class AuditTrailService {
             return;
         }
         if (event.auxiliary) {
+            operationMetrics.increment("dts.audit.forward.skipped", "reason", "auxiliary");
             if (log.isDebugEnabled()) {
                 log.debug(
                     "Skipping auxiliary audit event action={} module={} resourceId={} uri={}",
@@ -123,6 +140,7 @@ public class AuditTrailService {
             return;
         }
         if (shouldSkipByDedupe(event)) {
+            operationMetrics.increment("dts.audit.forward.skipped", "reason", "dedupe");
             if (log.isDebugEnabled()) {
                 log.debug(
                     "Deduplicated audit event within {}ms window actor={} action={} resourceId={} uri={}",
@@ -135,6 +153,15 @@ public class AuditTrailService {
             }
             return;
         }
+        OperationMetrics.Span span = operationMetrics.start("audit.forward", FORWARD_TARGET);
+        try {
+            forward(event, span);
+        } finally {
+            span.close();
+        }
+    }
+
+    private void forward(PendingAuditEvent event, OperationMetrics.Span span) {
         Instant occurredAt = event.occurredAt != null ? event.occurredAt : Instant.now();
         Map<String, Object> body = new HashMap<>();
         body.put("sourceSystem", SOURCE_SYSTEM_PLATFORM);
@@ -224,15 +251,18 @@ public class AuditTrailService {
         if (StringUtils.hasText(stage)) {
             body.put("stage", stage);
         }
-        if (StringUtils.hasText(event.extraTags)) {
-            body.put("extraTags", event.extraTags);
+        String extraTags = event.resolveExtraTags();
+        if (StringUtils.hasText(extraTags)) {
+            body.put("extraTags", extraTags);
         }
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
+        span.mark("build");
         try {
             ResponseEntity<Void> response = restTemplate.postForEntity(ingestEndpoint, new HttpEntity<>(body, headers), Void.class);
             if (!response.getStatusCode().is2xxSuccessful()) {
+                span.failed();
                 log.warn(
                     "Forwarded audit event but received non-success status code {} (action={}, module={})",
                     response.getStatusCode(),
@@ -241,12 +271,15 @@ public class AuditTrailService {
                 );
             }
         } catch (RestClientException ex) {
+            span.failed();
             log.warn(
                 "Failed to forward audit event action={} module={} : {}",
                 body.get("action"),
                 body.get("module"),
                 ex.getMessage()
             );
+        } finally {
+            span.mark("forward");
         }
     }
 
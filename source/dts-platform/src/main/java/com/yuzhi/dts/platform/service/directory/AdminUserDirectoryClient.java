@@ -3,6 +3,7 @@ package com.yuzhi.dts.platform.service.directory;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.yuzhi.dts.platform.config.DtsAdminProperties;
+import com.yuzhi.dts.platform.service.admin.AdminResponseCache;
 import java.net.URI;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -45,10 +46,12 @@ public class AdminUserDirectoryClient {
 
     private final RestTemplate restTemplate;
     private final DtsAdminProperties props;
+    private final AdminResponseCache cache;
 
-    public AdminUserDirectoryClient(RestTemplateBuilder builder, DtsAdminProperties props) {
+    public AdminUserDirectoryClient(RestTemplateBuilder builder, DtsAdminProperties props, AdminResponseCache cache) {
         this.restTemplate = builder.setConnectTimeout(Duration.ofSeconds(5)).setReadTimeout(Duration.ofSeconds(10)).build();
         this.props = props;
+        this.cache = cache;
     }
 
     public List<UserSummary> searchUsers(String keyword) {
@@ -96,87 +99,74 @@ public class AdminUserDirectoryClient {
 
     private List<UserSummary> fetchFromPlatformDirectory(String query) {
         URI uri = buildUri(props.getApiPath(), "/platform/directory/users", query);
-        try {
-            HttpHeaders headers = defaultHeaders();
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-            ResponseEntity<ApiEnvelope<List<PlatformUser>>> response = restTemplate.exchange(
-                uri,
-                HttpMethod.GET,
-                entity,
-                PLATFORM_USER_LIST
-            );
-            ApiEnvelope<List<PlatformUser>> body = response.getBody();
-            if (body != null && body.isSuccess() && body.data() != null) {
-                List<PlatformUser> raw = body.data();
-                List<UserSummary> summaries = new ArrayList<>(raw.size());
-                for (PlatformUser user : raw) {
-                    if (user == null || !StringUtils.hasText(user.username)) {
-                        continue;
-                    }
-                    String username = user.username.trim();
-                    if (username.isEmpty()) {
-                        continue;
-                    }
-                    String id = StringUtils.hasText(user.id) ? user.id.trim() : username;
-                    String displayName = StringUtils.hasText(user.displayName) ? user.displayName.trim() : username;
-                    String dept = StringUtils.hasText(user.deptCode) ? user.deptCode.trim() : null;
-                    summaries.add(new UserSummary(id, username, displayName, dept));
-                }
-                return summaries;
+        String key = query.toLowerCase(Locale.ROOT);
+        return cache.get(AdminResponseCache.USERS, key, props.getCache().getUserTtl(), etag -> loadPlatformUsers(uri, etag)).orElse(List.of());
+    }
+
+    private AdminResponseCache.Fetched<List<UserSummary>> loadPlatformUsers(URI uri, String etag) {
+        ResponseEntity<ApiEnvelope<List<PlatformUser>>> response = restTemplate.exchange(
+            uri,
+            HttpMethod.GET,
+            new HttpEntity<>(conditionalHeaders(etag)),
+            PLATFORM_USER_LIST
+        );
+        if (AdminResponseCache.isNotModified(response)) {
+            return AdminResponseCache.Fetched.notModified();
+        }
+        ApiEnvelope<List<PlatformUser>> body = response.getBody();
+        if (body == null || !body.isSuccess() || body.data() == null) {
+            throw new IllegalStateException("platform directory user endpoint returned no data: " + (body != null ? body.status() : null));
+        }
+        List<PlatformUser> raw = body.data();
+        List<UserSummary> summaries = new ArrayList<>(raw.size());
+        for (PlatformUser user : raw) {
+            if (user == null || !StringUtils.hasText(user.username)) {
+                continue;
             }
-        } catch (HttpStatusCodeException ex) {
-            LOG.debug(
-                "Platform directory user endpoint returned status {} body={} uri={}",
-                ex.getStatusCode().value(),
-                trim(ex.getResponseBodyAsString(), 256),
-                uri
-            );
-        } catch (Exception ex) {
-            LOG.debug("Platform directory user endpoint failed: {}", ex.getMessage());
-            LOG.trace("Platform directory stack", ex);
+            String username = user.username.trim();
+            if (username.isEmpty()) {
+                continue;
+            }
+            String id = StringUtils.hasText(user.id) ? user.id.trim() : username;
+            String displayName = StringUtils.hasText(user.displayName) ? user.displayName.trim() : username;
+            String dept = StringUtils.hasText(user.deptCode) ? user.deptCode.trim() : null;
+            summaries.add(new UserSummary(id, username, displayName, dept));
         }
-        return List.of();
+        return AdminResponseCache.Fetched.of(List.copyOf(summaries), response.getHeaders().getETag());
     }
 
     private List<RoleSummary> fetchRolesFromPlatform() {
         URI uri = buildUri(props.getApiPath(), "/platform/directory/roles", Collections.emptyMap());
-        try {
-            HttpHeaders headers = defaultHeaders();
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-            ResponseEntity<ApiEnvelope<List<PlatformRole>>> response = restTemplate.exchange(
-                uri,
-                HttpMethod.GET,
-                entity,
-                PLATFORM_ROLE_LIST
-            );
-            ApiEnvelope<List<PlatformRole>> body = response.getBody();
-            if (body != null && body.isSuccess() && body.data() != null) {
-                List<PlatformRole> raw = body.data();
-                List<RoleSummary> summaries = new ArrayList<>(raw.size());
-                Set<String> seen = new HashSet<>();
-                for (PlatformRole role : raw) {
-                    RoleSummary summary = toSummary(role);
-                    if (summary == null) {
-                        continue;
-                    }
-                    if (seen.add(summary.name().toLowerCase(Locale.ROOT))) {
-                        summaries.add(summary);
-                    }
-                }
-                return summaries;
+        return cache.get(AdminResponseCache.ROLES, "platform", props.getCache().getRoleTtl(), etag -> loadPlatformRoles(uri, etag)).orElse(List.of());
+    }
+
+    private AdminResponseCache.Fetched<List<RoleSummary>> loadPlatformRoles(URI uri, String etag) {
+        ResponseEntity<ApiEnvelope<List<PlatformRole>>> response = restTemplate.exchange(
+            uri,
+            HttpMethod.GET,
+            new HttpEntity<>(conditionalHeaders(etag)),
+            PLATFORM_ROLE_LIST
+        );
+        if (AdminResponseCache.isNotModified(response)) {
+            return AdminResponseCache.Fetched.notModified();
+        }
+        ApiEnvelope<List<PlatformRole>> body = response.getBody();
+        if (body == null || !body.isSuccess() || body.data() == null) {
+            throw new IllegalStateException("platform directory role endpoint returned no data: " + (body != null ? body.status() : null));
+        }
+        List<PlatformRole> raw = body.data();
+        List<RoleSummary> summaries = new ArrayList<>(raw.size());
+        Set<String> seen = new HashSet<>();
+        for (PlatformRole role : raw) {
+            RoleSummary summary = toSummary(role);
+            if (summary == null) {
+                continue;
+            }
+            if (seen.add(summary.name().toLowerCase(Locale.ROOT))) {
+                summaries.add(summary);
             }
-        } catch (HttpStatusCodeException ex) {
-            LOG.debug(
-                "Platform directory role endpoint returned status {} body={} uri={}",
-                ex.getStatusCode().value(),
-                trim(ex.getResponseBodyAsString(), 256),
-                uri
-            );
-        } catch (Exception ex) {
-            LOG.debug("Platform directory role endpoint failed: {}", ex.getMessage());
-            LOG.trace("Platform directory role stack", ex);
         }
-        return List.of();
+        return AdminResponseCache.Fetched.of(List.copyOf(summaries), response.getHeaders().getETag());
     }
 
     private List<RoleSummary> fetchRolesLegacy() {
@@ -297,6 +287,12 @@ public class AdminUserDirectoryClient {
         return headers;
     }
 
+    private HttpHeaders conditionalHeaders(String etag) {
+        HttpHeaders headers = defaultHeaders();
+        AdminResponseCache.applyEtag(headers, etag);
+        return headers;
+    }
+
     private URI buildUri(String basePath, String path, String queryName, String queryValue) {
         Map<String, String> params = queryName == null ? Collections.emptyMap() : Map.of(queryName, queryValue);
         return buildUri(basePath, path, params);
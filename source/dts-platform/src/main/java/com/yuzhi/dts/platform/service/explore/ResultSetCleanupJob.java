@@ -2,15 +2,19 @@ package com.yuzhi.dts.platform.service.explore;
 
 import com.yuzhi.dts.platform.repository.explore.QueryExecutionRepository;
 import com.yuzhi.dts.platform.repository.explore.ResultSetRepository;
+import com.yuzhi.dts.platform.service.infra.schedule.ScheduledJobContext;
+import com.yuzhi.dts.platform.service.infra.schedule.ScheduledJobHandler;
 import java.time.Instant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * RESULT_CLEANUP：清理过期结果集，由 infra_task_schedule 中的计划驱动（默认每小时一次）。
+ */
 @Component
-public class ResultSetCleanupJob {
+public class ResultSetCleanupJob implements ScheduledJobHandler {
 
     private static final Logger log = LoggerFactory.getLogger(ResultSetCleanupJob.class);
     private final ResultSetRepository resultSetRepository;
@@ -21,21 +25,26 @@ public class ResultSetCleanupJob {
         this.executionRepository = executionRepository;
     }
 
-    @Scheduled(cron = "0 0 * * * *")
+    @Override
+    public String jobType() {
+        return "RESULT_CLEANUP";
+    }
+
+    @Override
     @Transactional
-    public void cleanupExpired() {
-        try {
-            var now = Instant.now();
-            var expired = resultSetRepository.findByExpiresAtBefore(now);
-            if (expired.isEmpty()) return;
-            log.info("Cleaning up {} expired result sets", expired.size());
-            expired.forEach(rs -> {
-                executionRepository.clearResultSetReferences(rs.getId());
-                resultSetRepository.deleteById(rs.getId());
-            });
-        } catch (RuntimeException ex) {
-            // If the table is not ready (Liquibase not yet applied), log once per schedule and continue.
-            log.warn("ResultSetCleanupJob skipped (table not ready?): {}", ex.getMessage());
-        }
+    public String run(ScheduledJobContext context) {
+        return "清理过期结果集 " + cleanupExpired() + " 个";
+    }
+
+    int cleanupExpired() {
+        var now = Instant.now();
+        var expired = resultSetRepository.findByExpiresAtBefore(now);
+        if (expired.isEmpty()) return 0;
+        log.info("Cleaning up {} expired result sets", expired.size());
+        expired.forEach(rs -> {
+            executionRepository.clearResultSetReferences(rs.getId());
+            resultSetRepository.deleteById(rs.getId());
+        });
+        return expired.size();
     }
 }
@@ -0,0 +1,101 @@
+package com.yuzhi.dts.platform.service.explore.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV 写出器，带 UTF-8 BOM 以便 Excel 直接识别中文。
+ * <p>
+ * 以 = + - @ 或制表/回车开头的文本单元格前置单引号，避免被电子表格当作公式执行。
+ */
+final class CsvExportWriter implements ResultExportWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer writer;
+
+    CsvExportWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    @Override
+    public void writeHeader(List<String> headers) throws IOException {
+        writer.write('\uFEFF');
+        for (int i = 0; i < headers.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeText(headers.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof Number || value instanceof Boolean) {
+                writer.write(value.toString());
+            } else if (value instanceof byte[] bytes) {
+                writer.write(Base64.getEncoder().encodeToString(bytes));
+            } else {
+                writeText(value.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() {
+        // 底层流由容器负责关闭
+    }
+
+    private void writeText(String text) throws IOException {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        boolean formula = isFormulaLead(text.charAt(0));
+        boolean quote = formula;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        if (formula) {
+            writer.write('\'');
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static boolean isFormulaLead(char c) {
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+    }
+}
@@ -0,0 +1,53 @@
+package com.yuzhi.dts.platform.service.explore.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * 每行一个 JSON 对象（字段名取列头），直接写入生成器，不为每行构建 Map。
+ */
+final class NdjsonExportWriter implements ResultExportWriter {
+
+    private final JsonGenerator generator;
+    private String[] headers = new String[0];
+
+    NdjsonExportWriter(OutputStream out, ObjectMapper objectMapper) {
+        try {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void writeHeader(List<String> headers) {
+        this.headers = headers.toArray(String[]::new);
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < values.length; i++) {
+            generator.writeFieldName(i < headers.length ? headers[i] : "col_" + (i + 1));
+            generator.writeObject(values[i]);
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
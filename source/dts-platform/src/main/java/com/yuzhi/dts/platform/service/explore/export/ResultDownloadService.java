@@ -0,0 +1,283 @@
+package com.yuzhi.dts.platform.service.explore.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuzhi.dts.common.observability.OperationMetrics;
+import com.yuzhi.dts.platform.config.ExploreProperties;
+import com.yuzhi.dts.platform.domain.catalog.CatalogDataset;
+import com.yuzhi.dts.platform.domain.catalog.CatalogMaskingRule;
+import com.yuzhi.dts.platform.repository.catalog.CatalogMaskingRuleRepository;
+import com.yuzhi.dts.platform.service.audit.AuditService;
+import com.yuzhi.dts.platform.service.query.QueryGateway;
+import com.yuzhi.dts.platform.service.query.QueryHints;
+import com.yuzhi.dts.platform.service.query.QueryRowSink;
+import com.yuzhi.dts.platform.service.security.MaskingFunctions;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+/**
+ * 查询结果下载：按游标逐行读取并直接写入响应流，整个结果集不在内存中物化。
+ * <p>
+ * 每个节点限制总并发与单用户并发；脱敏策略在请求线程中一次解析成按列的函数表；
+ * 每次导出结束时恰好记录一条审计（含行数、格式、是否截断、耗时）。
+ */
+@Service
+public class ResultDownloadService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResultDownloadService.class);
+    private static final String MODULE = "explore.download";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final QueryGateway queryGateway;
+    private final CatalogMaskingRuleRepository maskingRuleRepository;
+    private final AuditService audit;
+    private final ObjectMapper objectMapper;
+    private final OperationMetrics operationMetrics;
+    private final ExploreProperties.Download properties;
+    private final Semaphore slots;
+    private final ConcurrentHashMap<String, AtomicInteger> perUser = new ConcurrentHashMap<>();
+
+    public ResultDownloadService(
+        QueryGateway queryGateway,
+        CatalogMaskingRuleRepository maskingRuleRepository,
+        AuditService audit,
+        ObjectMapper objectMapper,
+        OperationMetrics operationMetrics,
+        ExploreProperties exploreProperties
+    ) {
+        this.queryGateway = queryGateway;
+        this.maskingRuleRepository = maskingRuleRepository;
+        this.audit = audit;
+        this.objectMapper = objectMapper;
+        this.operationMetrics = operationMetrics;
+        this.properties = exploreProperties.getDownload();
+        this.slots = new Semaphore(Math.max(properties.getMaxConcurrent(), 1));
+    }
+
+    /**
+     * 占用下载名额并解析脱敏策略。返回的下载必须执行 {@link PreparedDownload#writeTo}，
+     * 或在放弃（含异步超时、出错）时调用 {@link PreparedDownload#release()}，否则名额不会归还。
+     *
+     * @throws DownloadRejectedException 超出节点或用户的并发下载上限
+     */
+    public PreparedDownload prepare(String actor, CatalogDataset dataset, String effectiveSql, ResultExportFormat format, String label) {
+        String user = StringUtils.hasText(actor) ? actor : "anonymous";
+        AtomicInteger running = perUser.computeIfAbsent(user, key -> new AtomicInteger());
+        if (running.incrementAndGet() > Math.max(properties.getMaxConcurrentPerUser(), 1)) {
+            releaseUser(user, running);
+            operationMetrics.increment("dts.explore.download.rejected", "reason", "user");
+            throw new DownloadRejectedException("已有下载任务进行中，请等待完成后再试");
+        }
+        if (!slots.tryAcquire()) {
+            releaseUser(user, running);
+            operationMetrics.increment("dts.explore.download.rejected", "reason", "node");
+            throw new DownloadRejectedException("当前下载任务较多，请稍后再试");
+        }
+        return new PreparedDownload(user, running, dataset, effectiveSql, format, label, resolveMaskingRules(dataset));
+    }
+
+    private void releaseUser(String user, AtomicInteger running) {
+        if (running.decrementAndGet() <= 0) {
+            perUser.remove(user, running);
+        }
+    }
+
+    /**
+     * 数据集配置了脱敏规则时按规则处理；否则沿用工作台结果的默认敏感列判定（列名含 name/id/phone）做部分遮盖。
+     */
+    private Map<String, String> resolveMaskingRules(CatalogDataset dataset) {
+        if (dataset == null || dataset.getId() == null) {
+            return null;
+        }
+        List<CatalogMaskingRule> rules = maskingRuleRepository.findByDataset(dataset);
+        if (rules == null || rules.isEmpty()) {
+            return null;
+        }
+        Map<String, String> byColumn = new HashMap<>();
+        for (CatalogMaskingRule rule : rules) {
+            if (StringUtils.hasText(rule.getColumn()) && StringUtils.hasText(rule.getFunction())) {
+                byColumn.put(rule.getColumn().trim().toLowerCase(Locale.ROOT), rule.getFunction());
+            }
+        }
+        return byColumn;
+    }
+
+    static String[] columnStrategies(List<String> headers, Map<String, String> rules) {
+        String[] strategies = new String[headers.size()];
+        for (int i = 0; i < strategies.length; i++) {
+            String lower = headers.get(i) == null ? "" : headers.get(i).toLowerCase(Locale.ROOT);
+            if (rules != null) {
+                strategies[i] = rules.get(lower);
+            } else if (lower.contains("name") || lower.contains("id") || lower.contains("phone")) {
+                strategies[i] = "PARTIAL";
+            }
+        }
+        return strategies;
+    }
+
+    public final class PreparedDownload {
+
+        private final String actor;
+        private final AtomicInteger userCounter;
+        private final CatalogDataset dataset;
+        private final String sql;
+        private final ResultExportFormat format;
+        private final String label;
+        private final Map<String, String> maskingRules;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PreparedDownload(
+            String actor,
+            AtomicInteger userCounter,
+            CatalogDataset dataset,
+            String sql,
+            ResultExportFormat format,
+            String label,
+            Map<String, String> maskingRules
+        ) {
+            this.actor = actor;
+            this.userCounter = userCounter;
+            this.dataset = dataset;
+            this.sql = sql;
+            this.format = format;
+            this.label = label;
+            this.maskingRules = maskingRules;
+        }
+
+        public ResultExportFormat format() {
+            return format;
+        }
+
+        public String fileName() {
+            String base = StringUtils.hasText(label) ? label.trim().replaceAll("[\\\\/:*?\"<>|\\s]+", "_") : "query-result";
+            return base + "-" + LocalDateTime.now().format(FILE_TIMESTAMP) + "." + format.extension();
+        }
+
+        /**
+         * 执行查询并写出结果；客户端中断时抛出 IOException，查询失败时抛出 IllegalStateException。
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            long started = System.nanoTime();
+            long maxRows = properties.getMaxRows();
+            ExportSink sink = null;
+            String error = null;
+            try (ResultExportWriter writer = format.open(out, objectMapper, properties.getXlsxWindowRows())) {
+                sink = new ExportSink(writer, maskingRules, maxRows);
+                // 多取一行用于判断是否触达行数上限
+                queryGateway.stream(sql, QueryHints.batch(dataset), properties.getFetchSize(), maxRows > 0 ? maxRows + 1 : 0, sink);
+                if (!sink.opened) {
+                    writer.writeHeader(List.of());
+                }
+                writer.finish();
+            } catch (UncheckedIOException ex) {
+                error = "下载连接中断: " + ex.getCause().getMessage();
+                throw ex.getCause();
+            } catch (IOException | RuntimeException ex) {
+                error = ex.getMessage();
+                throw ex;
+            } finally {
+                release();
+                long rows = sink != null ? sink.rows : 0;
+                boolean truncated = sink != null && sink.truncated;
+                operationMetrics.increment("dts.explore.download.rows", rows, "format", format.name());
+                recordAudit(rows, truncated, (System.nanoTime() - started) / 1_000_000L, error);
+            }
+        }
+
+        /**
+         * 归还下载名额，可重复调用。
+         */
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                slots.release();
+                releaseUser(actor, userCounter);
+            }
+        }
+
+        private void recordAudit(long rows, boolean truncated, long durationMs, String error) {
+            String resourceId = dataset != null && dataset.getId() != null ? dataset.getId().toString() : null;
+            String target = StringUtils.hasText(label) ? label : "未命名资源";
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("summary", (error == null ? "导出查询结果：" : "导出查询结果失败：") + target);
+            if (resourceId != null) {
+                payload.put("targetId", resourceId);
+            }
+            payload.put("targetName", target);
+            payload.put("format", format.name());
+            payload.put("rowCount", rows);
+            payload.put("truncated", truncated);
+            payload.put("durationMs", durationMs);
+            if (error != null) {
+                payload.put("error", error);
+                LOG.warn("Explore download by {} failed after {} rows: {}", actor, rows, error);
+            }
+            audit.recordAs(actor, error == null ? "EXPORT" : "ERROR", MODULE, MODULE, resourceId, error == null ? "SUCCESS" : "FAILED", payload, null);
+        }
+    }
+
+    private static final class ExportSink implements QueryRowSink {
+
+        private final ResultExportWriter writer;
+        private final Map<String, String> maskingRules;
+        private final long maxRows;
+        private String[] strategies = new String[0];
+        private Object[] masked = new Object[0];
+        private boolean opened;
+        private long rows;
+        private boolean truncated;
+
+        private ExportSink(ResultExportWriter writer, Map<String, String> maskingRules, long maxRows) {
+            this.writer = writer;
+            this.maskingRules = maskingRules;
+            this.maxRows = maxRows;
+        }
+
+        @Override
+        public void open(List<String> headers) throws IOException {
+            opened = true;
+            strategies = columnStrategies(headers, maskingRules);
+            masked = new Object[headers.size()];
+            writer.writeHeader(headers);
+        }
+
+        @Override
+        public boolean row(Object[] values) throws IOException {
+            if (maxRows > 0 && rows >= maxRows) {
+                truncated = true;
+                return false;
+            }
+            for (int i = 0; i < values.length; i++) {
+                String strategy = i < strategies.length ? strategies[i] : null;
+                masked[i] = strategy == null ? values[i] : MaskingFunctions.apply(values[i], strategy);
+            }
+            writer.writeRow(masked);
+            rows++;
+            return true;
+        }
+    }
+
+    /**
+     * 并发下载超出上限。
+     */
+    public static class DownloadRejectedException extends IllegalStateException {
+
+        public DownloadRejectedException(String message) {
+            super(message);
+        }
+    }
+}
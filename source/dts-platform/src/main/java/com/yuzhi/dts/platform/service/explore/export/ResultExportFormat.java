@@ -0,0 +1,60 @@
+package com.yuzhi.dts.platform.service.explore.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * 支持的导出格式：内容类型、文件扩展名与对应的写出器。
+ */
+public enum ResultExportFormat {
+    CSV("text/csv;charset=UTF-8", "csv"),
+    NDJSON("application/x-ndjson;charset=UTF-8", "ndjson"),
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String contentType;
+    private final String extension;
+
+    ResultExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public ResultExportWriter open(OutputStream out, ObjectMapper objectMapper, int xlsxWindowRows) {
+        return switch (this) {
+            case CSV -> new CsvExportWriter(out);
+            case NDJSON -> new NdjsonExportWriter(out, objectMapper);
+            case XLSX -> new XlsxExportWriter(out, xlsxWindowRows);
+        };
+    }
+
+    /**
+     * 解析请求中的格式名，未指定时默认 CSV。
+     */
+    public static ResultExportFormat parse(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return CSV;
+        }
+        String normalized = raw.trim().toUpperCase(Locale.ROOT);
+        if ("JSON".equals(normalized) || "JSONL".equals(normalized)) {
+            return NDJSON;
+        }
+        if ("EXCEL".equals(normalized) || "XLS".equals(normalized)) {
+            return XLSX;
+        }
+        for (ResultExportFormat format : values()) {
+            if (format.name().equals(normalized)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("不支持的导出格式: " + raw);
+    }
+}
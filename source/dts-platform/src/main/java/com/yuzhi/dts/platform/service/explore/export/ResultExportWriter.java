@@ -0,0 +1,18 @@
+package com.yuzhi.dts.platform.service.explore.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 查询结果导出的逐行写出器：列头一次、数据行按游标顺序写入，{@link #finish()} 刷出尾部。
+ * <p>
+ * {@link #close()} 只释放写出器自身的资源（如临时文件），不关闭底层响应流。
+ */
+public interface ResultExportWriter extends Closeable {
+    void writeHeader(List<String> headers) throws IOException;
+
+    void writeRow(Object[] values) throws IOException;
+
+    void finish() throws IOException;
+}
@@ -0,0 +1,105 @@
+package com.yuzhi.dts.platform.service.explore.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * 基于 SXSSF 的 xlsx 写出器：内存中只保留最近 windowRows 行，其余行压缩落盘到临时文件。
+ * <p>
+ * xlsx 是 zip 容器，只能在全部行写完后一次性输出；单个工作表写满 Excel 行数上限时自动续到新表。
+ */
+final class XlsxExportWriter implements ResultExportWriter {
+
+    private static final int MAX_ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    private static final int MAX_CELL_TEXT = SpreadsheetVersion.EXCEL2007.getMaxTextLength();
+    /** double 能精确表示的最大整数位数，超出的数值按文本写入以免丢精度 */
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private final OutputStream out;
+    private final SXSSFWorkbook workbook;
+    private List<String> headers = List.of();
+    private SXSSFSheet sheet;
+    private int sheetCount;
+    private int rowIndex;
+
+    XlsxExportWriter(OutputStream out, int windowRows) {
+        this.out = out;
+        this.workbook = new SXSSFWorkbook(Math.max(windowRows, 1));
+        this.workbook.setCompressTempFiles(true);
+    }
+
+    @Override
+    public void writeHeader(List<String> headers) {
+        this.headers = List.copyOf(headers);
+        newSheet();
+    }
+
+    @Override
+    public void writeRow(Object[] values) {
+        if (sheet == null || rowIndex >= MAX_ROWS_PER_SHEET) {
+            newSheet();
+        }
+        Row row = sheet.createRow(rowIndex++);
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            Cell cell = row.createCell(i);
+            if (value instanceof Boolean bool) {
+                cell.setCellValue(bool);
+            } else if (value instanceof Number number && fitsDouble(number)) {
+                cell.setCellValue(number.doubleValue());
+            } else {
+                cell.setCellValue(truncate(String.valueOf(value)));
+            }
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (sheet == null) {
+            newSheet();
+        }
+        workbook.write(out);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+
+    private void newSheet() {
+        sheetCount++;
+        sheet = workbook.createSheet(sheetCount == 1 ? "结果" : "结果_" + sheetCount);
+        rowIndex = 0;
+        Row header = sheet.createRow(rowIndex++);
+        for (int i = 0; i < headers.size(); i++) {
+            header.createCell(i).setCellValue(truncate(headers.get(i)));
+        }
+    }
+
+    private static boolean fitsDouble(Number number) {
+        if (number instanceof BigDecimal decimal) {
+            return decimal.precision() <= MAX_EXACT_DIGITS;
+        }
+        if (number instanceof BigInteger || number instanceof Long) {
+            return number.toString().replace("-", "").length() <= MAX_EXACT_DIGITS;
+        }
+        return true;
+    }
+
+    private static String truncate(String text) {
+        return text.length() > MAX_CELL_TEXT ? text.substring(0, MAX_CELL_TEXT) : text;
+    }
+}
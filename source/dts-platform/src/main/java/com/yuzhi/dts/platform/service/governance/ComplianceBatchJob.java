@@ -0,0 +1,434 @@
+package com.yuzhi.dts.platform.service.governance;
+
+import com.yuzhi.dts.platform.config.GovernanceProperties;
+import com.yuzhi.dts.platform.service.governance.dto.QualityRunDto;
+import com.yuzhi.dts.platform.service.governance.request.QualityRunTriggerRequest;
+import com.yuzhi.dts.platform.service.util.ServiceUtils;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 合规批次后台派发作业。
+ * <p>
+ * 批次创建时只批量写入检查项并标记为 PENDING；质量检测在事务提交后由本作业执行：
+ * 按数据源分组并行（线程数受 jobParallelism 限制）、组内逐项创建运行并在本线程内执行完毕后再处理下一项，
+ * job_processed 统计已执行完的检查项，进度节流回写到批次。
+ * 作业以批次行上的 job_node/job_heartbeat 作为租约，执行期间由定时心跳续约，单项耗时再长也不会被误判为中断；
+ * 进程重启或节点宕机后由清扫任务接管：处理尚未关联质量运行的检查项，并重新执行已关联但仍停留在 QUEUED
+ * 或 RUNNING 已过期的运行（上一节点在关联后、执行完毕前宕机）；job_processed 只统计运行已结束的检查项。
+ */
+@Service
+public class ComplianceBatchJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ComplianceBatchJob.class);
+
+    static final String STATE_PENDING = "PENDING";
+    static final String STATE_DISPATCHING = "DISPATCHING";
+    static final String STATE_DONE = "DONE";
+
+    private static final int MAX_AUDIT_USER = 50;
+    private static final int MAX_CONCLUSION = 2048;
+    private static final int SWEEP_LIMIT = 20;
+
+    private static final String INSERT_ITEM_SQL =
+        "insert into gov_compliance_batch_item (id, batch_id, rule_id, rule_version_id, dataset_id, binding_id, status, severity, " +
+        "created_by, created_date, last_modified_by, last_modified_date) " +
+        "values (:id, :batchId, :ruleId, :ruleVersionId, :datasetId, :bindingId, 'QUEUED', :severity, :actor, :now, :actor, :now)";
+
+    private static final String CLAIM_SQL =
+        "update gov_compliance_batch set job_state = 'DISPATCHING', job_node = :node, job_heartbeat = :now " +
+        "where id = :batchId and job_state in ('PENDING', 'DISPATCHING') " +
+        "and (job_node = :node or job_heartbeat is null or job_heartbeat < :staleBefore)";
+
+    private static final String PENDING_ITEMS_SQL =
+        "select i.id, i.rule_id, i.binding_id, r.id as run_id, d.type as dataset_type, d.hive_database, d.trino_catalog " +
+        "from gov_compliance_batch_item i left join gov_quality_run r on r.id = i.quality_run_id " +
+        "left join catalog_dataset d on d.id = i.dataset_id " +
+        "where i.batch_id = :batchId and i.binding_id is not null and i.status = 'QUEUED' " +
+        "and (r.id is null or r.status = 'QUEUED' or (r.status = 'RUNNING' and (r.started_at is null or r.started_at < :staleBefore))) " +
+        "order by i.created_date, i.id";
+
+    /** 已关联且仍在有效执行中的运行：不重新执行，也不计入已处理。 */
+    private static final String IN_FLIGHT_SQL =
+        "select count(*) from gov_compliance_batch_item i join gov_quality_run r on r.id = i.quality_run_id " +
+        "where i.batch_id = :batchId and i.binding_id is not null and i.status = 'QUEUED' " +
+        "and r.status = 'RUNNING' and r.started_at >= :staleBefore";
+
+    private static final String PROGRESS_SQL =
+        "update gov_compliance_batch set job_processed = :processed, job_failed = :failed, job_heartbeat = :now, summary = :summary " +
+        "where id = :batchId and job_node = :node and job_state = 'DISPATCHING'";
+
+    private static final String HEARTBEAT_SQL =
+        "update gov_compliance_batch set job_heartbeat = :now where id = :batchId and job_node = :node and job_state = 'DISPATCHING'";
+
+    private static final String FINISH_SQL =
+        "update gov_compliance_batch set job_state = 'DONE', job_processed = :processed, job_failed = :failed, job_heartbeat = null, " +
+        "summary = :summary where id = :batchId and job_node = :node and job_state = 'DISPATCHING'";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final QualityRunService qualityRunService;
+    private final GovernanceProperties properties;
+    private final TransactionTemplate itemTransaction;
+    private final ExecutorService coordinator = Executors.newCachedThreadPool(new CustomizableThreadFactory("compliance-batch-"));
+    private final ExecutorService workers;
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+        new CustomizableThreadFactory("compliance-heartbeat-")
+    );
+    private final Set<UUID> running = ConcurrentHashMap.newKeySet();
+    private final String nodeId = ServiceUtils.resolveNodeId();
+
+    public ComplianceBatchJob(
+        NamedParameterJdbcTemplate jdbcTemplate,
+        QualityRunService qualityRunService,
+        GovernanceProperties properties,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.qualityRunService = qualityRunService;
+        this.properties = properties;
+        this.itemTransaction = new TransactionTemplate(transactionManager);
+        this.itemTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        int parallelism = Math.max(1, properties.getCompliance().getJobParallelism());
+        this.workers = Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("compliance-dispatch-"));
+    }
+
+    /** 待写入的检查项，由规则版本的绑定展开而来。 */
+    record PlannedItem(UUID ruleId, UUID ruleVersionId, UUID bindingId, UUID datasetId, String severity) {}
+
+    /** 待执行的检查项及其所属数据源；runId 非空表示已关联但尚未执行完的运行，续跑时直接重新执行。 */
+    record PendingItem(UUID itemId, UUID ruleId, UUID bindingId, UUID runId, String datasource) {}
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 在调用方事务内批量写入检查项（与批次同一事务，提交前对作业不可见）。
+     */
+    int insertItems(UUID batchId, List<PlannedItem> items, String actor) {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        String auditUser = StringUtils.abbreviate(StringUtils.defaultIfBlank(actor, "system"), MAX_AUDIT_USER);
+        LocalDateTime now = ServiceUtils.toUtc(Instant.now());
+        int chunkSize = Math.max(1, properties.getCompliance().getInsertChunkSize());
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            List<PlannedItem> chunk = items.subList(from, Math.min(items.size(), from + chunkSize));
+            SqlParameterSource[] params = new SqlParameterSource[chunk.size()];
+            for (int i = 0; i < chunk.size(); i++) {
+                PlannedItem item = chunk.get(i);
+                params[i] = new MapSqlParameterSource()
+                    .addValue("id", UUID.randomUUID())
+                    .addValue("batchId", batchId)
+                    .addValue("ruleId", item.ruleId())
+                    .addValue("ruleVersionId", item.ruleVersionId())
+                    .addValue("datasetId", item.datasetId())
+                    .addValue("bindingId", item.bindingId())
+                    .addValue("severity", item.severity())
+                    .addValue("actor", auditUser)
+                    .addValue("now", now);
+            }
+            jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, params);
+        }
+        return items.size();
+    }
+
+    /** 当前事务提交后启动派发；无事务时立即启动。 */
+    void submitAfterCommit(UUID batchId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        submit(batchId);
+                    }
+                }
+            );
+        } else {
+            submit(batchId);
+        }
+    }
+
+    void submit(UUID batchId) {
+        if (!running.add(batchId)) {
+            return;
+        }
+        try {
+            coordinator.execute(() -> {
+                try {
+                    run(batchId);
+                } catch (Exception ex) {
+                    log.warn("Compliance batch {} dispatch interrupted, will resume later: {}", batchId, ex.getMessage());
+                } finally {
+                    running.remove(batchId);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            running.remove(batchId);
+            log.warn("Compliance batch {} dispatch rejected: {}", batchId, ex.getMessage());
+        }
+    }
+
+    /**
+     * 接管心跳超时或从未启动的派发作业（包括本节点重启前遗留的批次）。
+     */
+    @Scheduled(fixedDelayString = "${dts.platform.governance.compliance.job-sweep-interval:PT1M}", initialDelayString = "PT20S")
+    public void resumeStale() {
+        LocalDateTime staleBefore = ServiceUtils.toUtc(Instant.now().minus(properties.getCompliance().getJobStaleAfter()));
+        List<UUID> batchIds = jdbcTemplate.queryForList(
+            "select id from gov_compliance_batch where job_state in ('PENDING', 'DISPATCHING') " +
+            "and (job_heartbeat is null or job_heartbeat < :staleBefore) order by created_date limit " + SWEEP_LIMIT,
+            new MapSqlParameterSource("staleBefore", staleBefore),
+            UUID.class
+        );
+        for (UUID batchId : batchIds) {
+            log.info("Resuming compliance batch dispatch {}", batchId);
+            submit(batchId);
+        }
+    }
+
+    void run(UUID batchId) {
+        Instant now = Instant.now();
+        MapSqlParameterSource claim = new MapSqlParameterSource()
+            .addValue("batchId", batchId)
+            .addValue("node", nodeId)
+            .addValue("now", ServiceUtils.toUtc(now))
+            .addValue("staleBefore", ServiceUtils.toUtc(now.minus(properties.getCompliance().getJobStaleAfter())));
+        if (jdbcTemplate.update(CLAIM_SQL, claim) != 1) {
+            return;
+        }
+        Map<String, Object> state = jdbcTemplate.queryForMap(
+            "select triggered_by, job_total, job_failed from gov_compliance_batch where id = :batchId",
+            new MapSqlParameterSource("batchId", batchId)
+        );
+        String actor = (String) state.get("triggered_by");
+        int total = state.get("job_total") instanceof Number n ? n.intValue() : 0;
+        int failedBefore = state.get("job_failed") instanceof Number n ? n.intValue() : 0;
+
+        MapSqlParameterSource query = new MapSqlParameterSource()
+            .addValue("batchId", batchId)
+            .addValue("staleBefore", ServiceUtils.toUtc(now.minus(properties.getCompliance().getJobStaleAfter())));
+        List<PendingItem> pending = jdbcTemplate.query(
+            PENDING_ITEMS_SQL,
+            query,
+            (rs, rowNum) ->
+                new PendingItem(
+                    rs.getObject("id", UUID.class),
+                    rs.getObject("rule_id", UUID.class),
+                    rs.getObject("binding_id", UUID.class),
+                    rs.getObject("run_id", UUID.class),
+                    datasourceKey(rs.getString("dataset_type"), rs.getString("hive_database"), rs.getString("trino_catalog"))
+                )
+        );
+        Integer inFlight = jdbcTemplate.queryForObject(IN_FLIGHT_SQL, query, Integer.class);
+        int unfinished = pending.size() + (inFlight != null ? inFlight : 0);
+        Progress progress = new Progress(batchId, total, Math.max(0, total - unfinished), failedBefore);
+        if (!pending.isEmpty()) {
+            Map<String, List<PendingItem>> groups = groupByDatasource(pending);
+            log.debug("Compliance batch {} evaluating {} items across {} datasources", batchId, pending.size(), groups.size());
+            long beat = Math.max(1000L, properties.getCompliance().getJobStaleAfter().toMillis() / 4);
+            ScheduledFuture<?> heartbeat = heartbeats.scheduleAtFixedRate(progress::heartbeat, beat, beat, TimeUnit.MILLISECONDS);
+            try {
+                List<CompletableFuture<Void>> futures = new ArrayList<>(groups.size());
+                for (List<PendingItem> group : groups.values()) {
+                    futures.add(CompletableFuture.runAsync(() -> evaluateGroup(group, actor, progress), workers));
+                }
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            } finally {
+                heartbeat.cancel(false);
+            }
+        }
+        if (progress.aborted.get()) {
+            log.info("Compliance batch {} dispatch stopped: batch removed or taken over", batchId);
+            return;
+        }
+        if (inFlight != null && inFlight > 0) {
+            // 仍有其他执行者的运行未结束：只回写进度，待租约过期后由清扫任务再次续跑
+            log.info("Compliance batch {} waiting for {} in-flight quality runs", batchId, inFlight);
+            jdbcTemplate.update(PROGRESS_SQL, progress.params(Instant.now(), progressSummary(total, progress.processed.get(), progress.failed.get())));
+            return;
+        }
+        jdbcTemplate.update(FINISH_SQL, progress.params(Instant.now(), finishSummary(progress)));
+    }
+
+    private void evaluateGroup(List<PendingItem> group, String actor, Progress progress) {
+        for (PendingItem item : group) {
+            if (progress.aborted.get()) {
+                return;
+            }
+            try {
+                UUID runId = item.runId() != null ? item.runId() : itemTransaction.execute(status -> createRun(item, actor));
+                if (runId != null) {
+                    qualityRunService.executeQueued(runId, Map.of());
+                }
+            } catch (Exception ex) {
+                log.warn("Compliance item {} evaluation failed: {}", item.itemId(), ex.getMessage());
+                markFailed(item, ex);
+                progress.failed.incrementAndGet();
+            }
+            progress.processed.incrementAndGet();
+            progress.maybeFlush();
+        }
+    }
+
+    /** 创建质量运行并关联到检查项（同一事务），关联后续跑时不会重复创建。 */
+    private UUID createRun(PendingItem item, String actor) {
+        QualityRunTriggerRequest request = new QualityRunTriggerRequest();
+        request.setRuleId(item.ruleId());
+        request.setBindingId(item.bindingId());
+        request.setTriggerType("COMPLIANCE");
+        List<QualityRunDto> runs = qualityRunService.createQueued(request, actor);
+        UUID runId = runs.isEmpty() ? null : runs.get(0).getId();
+        if (runId == null) {
+            return null;
+        }
+        jdbcTemplate.update(
+            "update gov_compliance_batch_item set quality_run_id = :runId, last_modified_date = :now where id = :id",
+            new MapSqlParameterSource().addValue("runId", runId).addValue("now", ServiceUtils.toUtc(Instant.now())).addValue("id", item.itemId())
+        );
+        return runId;
+    }
+
+    private void markFailed(PendingItem item, Exception ex) {
+        String message = StringUtils.abbreviate("质量检测执行失败：" + StringUtils.defaultString(ex.getMessage()), MAX_CONCLUSION);
+        try {
+            jdbcTemplate.update(
+                "update gov_compliance_batch_item set status = 'FAILED', conclusion = :conclusion, last_modified_date = :now where id = :id",
+                new MapSqlParameterSource()
+                    .addValue("conclusion", message)
+                    .addValue("now", ServiceUtils.toUtc(Instant.now()))
+                    .addValue("id", item.itemId())
+            );
+        } catch (Exception updateEx) {
+            log.warn("Failed to mark compliance item {} as failed: {}", item.itemId(), updateEx.getMessage());
+        }
+    }
+
+    /**
+     * 按数据源分组，保持每组内原有顺序；同一数据源串行执行以免压垮单个引擎。
+     */
+    static Map<String, List<PendingItem>> groupByDatasource(List<PendingItem> items) {
+        Map<String, List<PendingItem>> groups = new LinkedHashMap<>();
+        for (PendingItem item : items) {
+            groups.computeIfAbsent(item.datasource(), key -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+
+    static String datasourceKey(String datasetType, String hiveDatabase, String trinoCatalog) {
+        String type = StringUtils.defaultIfBlank(datasetType, "UNKNOWN").trim().toUpperCase(Locale.ROOT);
+        String location = StringUtils.firstNonBlank(trinoCatalog, hiveDatabase);
+        return location == null ? type : type + ":" + location.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String progressSummary(int total, int processed, int failed) {
+        return String.format("正在执行检查项 %d/%d，执行失败 %d", processed, total, failed);
+    }
+
+    private static String finishSummary(Progress progress) {
+        return String.format("总计 %d 项，已完成 %d，执行失败 %d", progress.total, progress.processed.get() - progress.failed.get(), progress.failed.get());
+    }
+
+    private final class Progress {
+
+        private final UUID batchId;
+        private final int total;
+        private final AtomicInteger processed;
+        private final AtomicInteger failed;
+        private final AtomicLong lastFlush = new AtomicLong(System.nanoTime());
+        private final AtomicBoolean aborted = new AtomicBoolean();
+
+        private Progress(UUID batchId, int total, int processed, int failed) {
+            this.batchId = batchId;
+            this.total = total;
+            this.processed = new AtomicInteger(processed);
+            this.failed = new AtomicInteger(failed);
+        }
+
+        /** 节流回写进度，同时续约心跳；回写失败说明批次已删除或被其他节点接管。 */
+        void maybeFlush() {
+            long interval = properties.getCompliance().getProgressInterval().toNanos();
+            long last = lastFlush.get();
+            long current = System.nanoTime();
+            if (current - last < interval || !lastFlush.compareAndSet(last, current)) {
+                return;
+            }
+            try {
+                int updated = jdbcTemplate.update(
+                    PROGRESS_SQL,
+                    params(Instant.now(), progressSummary(total, processed.get(), failed.get()))
+                );
+                if (updated == 0) {
+                    aborted.set(true);
+                }
+            } catch (Exception ex) {
+                log.debug("Failed to flush compliance batch {} progress: {}", batchId, ex.getMessage());
+            }
+        }
+
+        /** 定时续约心跳，与检查项完成进度无关，避免单项执行过久时批次被其他节点接管。 */
+        void heartbeat() {
+            try {
+                MapSqlParameterSource beat = new MapSqlParameterSource()
+                    .addValue("batchId", batchId)
+                    .addValue("node", nodeId)
+                    .addValue("now", ServiceUtils.toUtc(Instant.now()));
+                if (jdbcTemplate.update(HEARTBEAT_SQL, beat) == 0) {
+                    aborted.set(true);
+                }
+            } catch (Exception ex) {
+                log.debug("Failed to renew compliance batch {} heartbeat: {}", batchId, ex.getMessage());
+            }
+        }
+
+        MapSqlParameterSource params(Instant now, String summary) {
+            return new MapSqlParameterSource()
+                .addValue("batchId", batchId)
+                .addValue("node", nodeId)
+                .addValue("processed", processed.get())
+                .addValue("failed", failed.get())
+                .addValue("now", ServiceUtils.toUtc(now))
+                .addValue("summary", summary);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        heartbeats.shutdownNow();
+        workers.shutdownNow();
+    }
+}
@@ -9,7 +9,6 @@ import com.yuzhi.dts.platform.domain.governance.GovRuleBinding;
 import com.yuzhi.dts.platform.domain.governance.GovRuleVersion;
 import com.yuzhi.dts.platform.repository.governance.GovComplianceBatchItemRepository;
 import com.yuzhi.dts.platform.repository.governance.GovComplianceBatchRepository;
-import com.yuzhi.dts.platform.repository.governance.GovQualityRunRepository;
 import com.yuzhi.dts.platform.repository.governance.GovRuleRepository;
 import com.yuzhi.dts.platform.repository.governance.GovRuleVersionRepository;
 import com.yuzhi.dts.platform.security.AuthoritiesConstants;
@@ -20,7 +19,6 @@ import com.yuzhi.dts.platform.service.governance.dto.ComplianceBatchDto;
 import com.yuzhi.dts.platform.service.governance.dto.ComplianceBatchItemDto;
 import com.yuzhi.dts.platform.service.governance.request.ComplianceBatchRequest;
 import com.yuzhi.dts.platform.service.governance.request.ComplianceItemUpdateRequest;
-import com.yuzhi.dts.platform.service.governance.request.QualityRunTriggerRequest;
 import com.yuzhi.dts.platform.service.security.OrganizationVisibilityService;
 import jakarta.persistence.EntityNotFoundException;
 import java.time.Instant;
@@ -60,8 +58,7 @@ public class ComplianceService {
     private final GovComplianceBatchItemRepository itemRepository;
     private final GovRuleRepository ruleRepository;
     private final GovRuleVersionRepository versionRepository;
-    private final QualityRunService qualityRunService;
-    private final GovQualityRunRepository qualityRunRepository;
+    private final ComplianceBatchJob batchJob;
     private final AuditService auditService;
     private final ObjectMapper objectMapper;
     private final OrganizationVisibilityService organizationVisibilityService;
@@ -71,8 +68,7 @@ public class ComplianceService {
         GovComplianceBatchItemRepository itemRepository,
         GovRuleRepository ruleRepository,
         GovRuleVersionRepository versionRepository,
-        QualityRunService qualityRunService,
-        GovQualityRunRepository qualityRunRepository,
+        ComplianceBatchJob batchJob,
         AuditService auditService,
         ObjectMapper objectMapper,
         OrganizationVisibilityService organizationVisibilityService
@@ -81,8 +77,7 @@ public class ComplianceService {
         this.itemRepository = itemRepository;
         this.ruleRepository = ruleRepository;
         this.versionRepository = versionRepository;
-        this.qualityRunService = qualityRunService;
-        this.qualityRunRepository = qualityRunRepository;
+        this.batchJob = batchJob;
         this.auditService = auditService;
         this.objectMapper = objectMapper;
         this.organizationVisibilityService = organizationVisibilityService;
@@ -106,9 +101,12 @@ public class ComplianceService {
         batch.setScheduledAt(Instant.now());
         batch.setOwnerDept(enforceOwnerDept(request.getOwnerDept(), activeDeptHeader));
         batch.setMetadataJson(writeMetadata(request.getMetadata()));
-        batchRepository.save(batch);
+        batch.setJobState(ComplianceBatchJob.STATE_PENDING);
+        batch.setJobNode(batchJob.nodeId());
+        batch.setJobHeartbeat(Instant.now());
+        batchRepository.saveAndFlush(batch);
 
-        List<GovComplianceBatchItem> items = new ArrayList<>();
+        List<ComplianceBatchJob.PlannedItem> planned = new ArrayList<>();
         for (GovRule rule : rules) {
             GovRuleVersion version = resolveVersion(rule);
             if (version.getBindings().isEmpty()) {
@@ -116,39 +114,31 @@ public class ComplianceService {
                 continue;
             }
             for (GovRuleBinding binding : version.getBindings()) {
-                GovComplianceBatchItem item = new GovComplianceBatchItem();
-                item.setBatch(batch);
-                item.setRule(rule);
-                item.setRuleVersion(version);
-                item.setDatasetId(binding.getDatasetId());
-                item.setStatus("QUEUED");
-                item.setSeverity(rule.getSeverity());
-                itemRepository.save(item);
-                items.add(item);
-
-                QualityRunTriggerRequest triggerRequest = new QualityRunTriggerRequest();
-                triggerRequest.setRuleId(rule.getId());
-                triggerRequest.setBindingId(binding.getId());
-                triggerRequest.setTriggerType("COMPLIANCE");
-                qualityRunService
-                    .trigger(triggerRequest, actor)
-                    .stream()
-                    .findFirst()
-                    .ifPresent(runDto -> qualityRunRepository
-                        .findById(runDto.getId())
-                        .ifPresent(run -> {
-                            item.setQualityRun(run);
-                            itemRepository.save(item);
-                        })
-                    );
+                planned.add(
+                    new ComplianceBatchJob.PlannedItem(rule.getId(), version.getId(), binding.getId(), binding.getDatasetId(), rule.getSeverity())
+                );
             }
         }
+        // 检查项批量写入；质量检测在提交后由后台作业按数据源并行执行，进度回写到批次
+        batchJob.insertItems(batch.getId(), planned, actor);
+        int total = planned.size();
+        batch.setJobTotal(total);
+        batch.setJobProcessed(0);
+        batch.setJobFailed(0);
+        if (total == 0) {
+            batch.setJobState(ComplianceBatchJob.STATE_DONE);
+            batch.setJobHeartbeat(null);
+            batch.setSummary("暂无检查项");
+        } else {
+            batch.setSummary(ComplianceBatchJob.progressSummary(total, 0, 0));
+        }
+        batchRepository.save(batch);
 
-        refreshBatchState(batch, items);
         Map<String, Object> auditDetail = new LinkedHashMap<>();
         auditDetail.put("targetId", batch.getId().toString());
         auditDetail.put("targetName", batch.getName());
         auditDetail.put("ruleCount", rules.size());
+        auditDetail.put("itemCount", total);
         auditDetail.put("summary", "新建合规批次：" + batch.getName());
         auditService.record(
             "CREATE",
@@ -158,7 +148,13 @@ public class ComplianceService {
             "SUCCESS",
             auditDetail
         );
-        return GovernanceMapper.toDto(batch, items);
+        if (total > 0) {
+            batchJob.submitAfterCommit(batch.getId());
+        }
+        ComplianceBatchDto dto = GovernanceMapper.toDto(batch, List.of());
+        dto.setTotalItems(total);
+        dto.setPendingItems(total);
+        return dto;
     }
 
     @Transactional(readOnly = true)
@@ -183,6 +183,10 @@ final class GovernanceMapper {
         dto.setMetadataJson(entity.getMetadataJson());
         dto.setCreatedDate(entity.getCreatedDate());
         dto.setCreatedBy(entity.getCreatedBy());
+        dto.setJobState(entity.getJobState());
+        dto.setJobTotal(entity.getJobTotal());
+        dto.setJobProcessed(entity.getJobProcessed());
+        dto.setJobFailed(entity.getJobFailed());
         List<GovComplianceBatchItem> sourceItems = items != null ? items : entity.getItems().stream().collect(Collectors.toList());
         dto.setItems(sourceItems.stream().map(GovernanceMapper::toDto).collect(Collectors.toList()));
         dto.setTotalItems(sourceItems.size());
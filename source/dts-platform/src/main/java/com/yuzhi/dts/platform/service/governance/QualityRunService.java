@@ -92,6 +92,29 @@ public class QualityRunService {
 
     @Transactional
     public List<QualityRunDto> trigger(QualityRunTriggerRequest request, String actor) {
+        List<QualityRunDto> runs = createQueued(request, actor);
+        Map<String, Object> params = request.getParameters() != null ? request.getParameters() : Collections.emptyMap();
+        if (!runs.isEmpty()) {
+            List<UUID> dispatchIds = runs.stream().map(QualityRunDto::getId).toList();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        dispatchIds.forEach(id -> taskExecutor.execute(() -> executeQueued(id, params)));
+                    }
+                });
+            } else {
+                dispatchIds.forEach(id -> taskExecutor.execute(() -> executeQueued(id, params)));
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * 只创建 QUEUED 状态的运行记录，不派发执行；由调用方在提交后通过 {@link #executeQueued} 自行控制执行时机与并发。
+     */
+    @Transactional
+    public List<QualityRunDto> createQueued(QualityRunTriggerRequest request, String actor) {
         if (!properties.getQuality().isEnabled()) {
             throw new IllegalStateException("质量检测功能已禁用");
         }
@@ -102,9 +125,7 @@ public class QualityRunService {
             throw new IllegalArgumentException("该规则尚未绑定数据集");
         }
 
-        Map<String, Object> params = request.getParameters() != null ? request.getParameters() : Collections.emptyMap();
         List<QualityRunDto> runs = new ArrayList<>();
-        List<UUID> runIds = new ArrayList<>();
         for (GovRuleBinding binding : bindings) {
             GovQualityRun run = new GovQualityRun();
             run.setRule(rule);
@@ -119,34 +140,19 @@ public class QualityRunService {
             run.setScheduledAt(Instant.now());
             runRepository.save(run);
 
-            runIds.add(run.getId());
             runs.add(GovernanceMapper.toDto(run, Collections.emptyList()));
         }
 
-        if (!runIds.isEmpty()) {
-            List<UUID> dispatchIds = List.copyOf(runIds);
-            if (TransactionSynchronizationManager.isSynchronizationActive()) {
-                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-                    @Override
-                    public void afterCommit() {
-                        dispatchIds.forEach(id ->
-                            taskExecutor.execute(() ->
-                                runTransactionTemplate.executeWithoutResult(status -> doExecuteRun(id, params))
-                            )
-                        );
-                    }
-                });
-            } else {
-                dispatchIds.forEach(id ->
-                    taskExecutor.execute(() ->
-                        runTransactionTemplate.executeWithoutResult(status -> doExecuteRun(id, params))
-                    )
-                );
-            }
-        }
         return runs;
     }
 
+    /**
+     * 在调用线程上同步执行一条已创建的运行（独立事务），返回时检测已结束。
+     */
+    public void executeQueued(UUID runId, Map<String, Object> params) {
+        runTransactionTemplate.executeWithoutResult(status -> doExecuteRun(runId, params));
+    }
+
     @Transactional(readOnly = true)
     public QualityRunDto getRun(UUID runId) {
         GovQualityRun run = runRepository.findById(runId).orElseThrow(EntityNotFoundException::new);
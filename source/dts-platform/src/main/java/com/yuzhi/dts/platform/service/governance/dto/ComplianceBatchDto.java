@@ -30,6 +30,10 @@ public class ComplianceBatchDto {
     private Integer pendingItems;
     private Boolean hasFailure;
     private Instant lastUpdated;
+    private String jobState;
+    private Integer jobTotal;
+    private Integer jobProcessed;
+    private Integer jobFailed;
     private List<ComplianceBatchItemDto> items;
 
     public UUID getId() {
@@ -224,6 +228,38 @@ public class ComplianceBatchDto {
         this.lastUpdated = lastUpdated;
     }
 
+    public String getJobState() {
+        return jobState;
+    }
+
+    public void setJobState(String jobState) {
+        this.jobState = jobState;
+    }
+
+    public Integer getJobTotal() {
+        return jobTotal;
+    }
+
+    public void setJobTotal(Integer jobTotal) {
+        this.jobTotal = jobTotal;
+    }
+
+    public Integer getJobProcessed() {
+        return jobProcessed;
+    }
+
+    public void setJobProcessed(Integer jobProcessed) {
+        this.jobProcessed = jobProcessed;
+    }
+
+    public Integer getJobFailed() {
+        return jobFailed;
+    }
+
+    public void setJobFailed(Integer jobFailed) {
+        this.jobFailed = jobFailed;
+    }
+
     public List<ComplianceBatchItemDto> getItems() {
         return items;
     }
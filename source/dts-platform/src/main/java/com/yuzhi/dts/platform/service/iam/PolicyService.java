@@ -1,19 +1,30 @@
 package com.yuzhi.dts.platform.service.iam;
 
-import com.yuzhi.dts.platform.domain.catalog.CatalogDataset;
-import com.yuzhi.dts.platform.domain.catalog.CatalogDomain;
 import com.yuzhi.dts.platform.domain.iam.IamDatasetPolicy;
 import com.yuzhi.dts.platform.domain.iam.IamSubjectDirectory;
 import com.yuzhi.dts.platform.repository.catalog.CatalogDatasetRepository;
+import com.yuzhi.dts.platform.repository.catalog.CatalogDatasetRepository.DatasetRef;
 import com.yuzhi.dts.platform.repository.catalog.CatalogDomainRepository;
+import com.yuzhi.dts.platform.repository.catalog.CatalogDomainRepository.DomainRef;
 import com.yuzhi.dts.platform.repository.iam.IamDatasetPolicyRepository;
 import com.yuzhi.dts.platform.repository.iam.IamSubjectDirectoryRepository;
 import com.yuzhi.dts.platform.repository.iam.IamUserClassificationRepository;
 import com.yuzhi.dts.platform.service.iam.dto.*;
+import com.yuzhi.dts.platform.service.util.ServiceUtils;
 import jakarta.persistence.EntityNotFoundException;
+import java.sql.Types;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
@@ -23,66 +34,81 @@ import org.springframework.util.StringUtils;
 @Transactional(readOnly = true)
 public class PolicyService {
 
+    private static final Logger log = LoggerFactory.getLogger(PolicyService.class);
+
+    static final String PHASE_LOADING = "LOADING";
+    static final String PHASE_WRITING = "WRITING";
+    static final String PHASE_DONE = "DONE";
+    static final String PHASE_FAILED = "FAILED";
+    private static final int LOAD_CHUNK = 1000;
+    private static final int WRITE_BATCH = 500;
+    private static final int LOG_PROGRESS_THRESHOLD = 5000;
+    /** 进度条目在最后一次更新后保留的时长：足够前端轮询到 DONE/FAILED，也会清理中途异常退出留下的条目。 */
+    static final Duration PROGRESS_TTL = Duration.ofMinutes(10);
+
+    private static final String MATRIX_SQL =
+        "select id, dataset_id, subject_type, subject_id, scope, field_name, effect, row_expression, description, valid_from, valid_to, created_by " +
+        "from iam_dataset_policy where dataset_id in (:datasetIds) and subject_id in (:subjectIds)";
+    private static final String INSERT_SQL =
+        "insert into iam_dataset_policy (id, dataset_id, dataset_name, subject_type, subject_id, subject_name, scope, field_name, effect, " +
+        "row_expression, description, source, valid_from, valid_to, created_by, created_date, last_modified_by, last_modified_date) values " +
+        "(:id, :datasetId, :datasetName, :subjectType, :subjectId, :subjectName, :scope, :fieldName, :effect, :rowExpression, :description, " +
+        ":source, :validFrom, :validTo, :createdBy, :appliedAt, :modifiedBy, :appliedAt)";
+    private static final String UPDATE_SQL =
+        "update iam_dataset_policy set effect = :effect, row_expression = :rowExpression, description = :description, source = :source, " +
+        "valid_from = :validFrom, valid_to = :validTo, created_by = :createdBy, last_modified_by = :modifiedBy, last_modified_date = :appliedAt " +
+        "where id = :id";
+
     private final CatalogDomainRepository domainRepository;
     private final CatalogDatasetRepository datasetRepository;
     private final IamDatasetPolicyRepository datasetPolicyRepository;
     private final IamSubjectDirectoryRepository subjectDirectoryRepository;
     private final IamUserClassificationRepository userClassificationRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ConcurrentMap<String, PolicyApplyProgressDto> applyProgress = new ConcurrentHashMap<>();
 
     public PolicyService(
         CatalogDomainRepository domainRepository,
         CatalogDatasetRepository datasetRepository,
         IamDatasetPolicyRepository datasetPolicyRepository,
         IamSubjectDirectoryRepository subjectDirectoryRepository,
-        IamUserClassificationRepository userClassificationRepository
+        IamUserClassificationRepository userClassificationRepository,
+        NamedParameterJdbcTemplate jdbcTemplate
     ) {
         this.domainRepository = domainRepository;
         this.datasetRepository = datasetRepository;
         this.datasetPolicyRepository = datasetPolicyRepository;
         this.subjectDirectoryRepository = subjectDirectoryRepository;
         this.userClassificationRepository = userClassificationRepository;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     public List<Map<String, Object>> domainsWithDatasets() {
-        List<CatalogDomain> domains = domainRepository.findAll();
-        List<CatalogDataset> datasets = datasetRepository.findAll();
-        Map<UUID, List<CatalogDataset>> grouped = datasets.stream().collect(Collectors.groupingBy(ds -> ds.getDomain() != null ? ds.getDomain().getId() : null));
+        List<DomainRef> domains = domainRepository.findAllRefs();
+        List<DatasetRef> datasets = datasetRepository.findAllRefs();
+        Map<UUID, List<DatasetRef>> grouped = new HashMap<>();
+        for (DatasetRef ds : datasets) {
+            grouped.computeIfAbsent(ds.getDomainId(), k -> new ArrayList<>()).add(ds);
+        }
 
         List<Map<String, Object>> result = new ArrayList<>();
-        for (CatalogDomain domain : domains) {
-            List<Map<String, Object>> dsList = grouped
-                .getOrDefault(domain.getId(), List.of())
-                .stream()
-                .map(ds -> Map.<String, Object>of(
-                        "id",
-                        ds.getId().toString(),
-                        "name",
-                        ds.getName(),
-                        "fields",
-                        List.of("id", "name", "classification")
-                    ))
-                .collect(Collectors.toList());
+        for (DomainRef domain : domains) {
+            List<Map<String, Object>> dsList = grouped.getOrDefault(domain.getId(), List.of()).stream().map(this::toDatasetNode).collect(Collectors.toList());
             result.add(Map.of("id", domain.getId().toString(), "name", domain.getName(), "datasets", dsList));
         }
         // Add orphan datasets (without domain) if any
-        List<CatalogDataset> orphanDatasets = grouped.getOrDefault(null, List.of());
+        List<DatasetRef> orphanDatasets = grouped.getOrDefault(null, List.of());
         if (!orphanDatasets.isEmpty()) {
-            List<Map<String, Object>> dsList = orphanDatasets
-                .stream()
-                .map(ds -> Map.<String, Object>of(
-                        "id",
-                        ds.getId().toString(),
-                        "name",
-                        ds.getName(),
-                        "fields",
-                        List.of("id", "name", "classification")
-                    ))
-                .collect(Collectors.toList());
+            List<Map<String, Object>> dsList = orphanDatasets.stream().map(this::toDatasetNode).collect(Collectors.toList());
             result.add(Map.of("id", "orphan", "name", "未归属域", "datasets", dsList));
         }
         return result;
     }
 
+    private Map<String, Object> toDatasetNode(DatasetRef ds) {
+        return Map.of("id", ds.getId().toString(), "name", ds.getName(), "fields", List.of("id", "name", "classification"));
+    }
+
     public DatasetPoliciesDto datasetPolicies(UUID datasetId) {
         List<IamDatasetPolicy> policies = datasetPolicyRepository.findByDatasetId(datasetId);
         List<ObjectPolicyDto> objectPolicies = new ArrayList<>();
@@ -149,28 +175,31 @@ public class PolicyService {
         return dir;
     }
 
+    /**
+     * 一次性加载对象 × 主体矩阵内的全部现有策略，在内存中计算冲突。
+     */
     public ConflictPreviewDto previewConflicts(BatchAuthorizationInputDto input) {
         if (input == null || CollectionUtils.isEmpty(input.objects()) || CollectionUtils.isEmpty(input.subjects())) {
             return new ConflictPreviewDto(List.of());
         }
+        Map<MatrixKey, List<ExistingPolicy>> existing = loadMatrix(input);
+        String newEffect = input.scope() != null && StringUtils.hasText(input.scope().objectEffect())
+            ? input.scope().objectEffect().toUpperCase(Locale.ROOT)
+            : "ALLOW";
         List<ConflictItemDto> conflicts = new ArrayList<>();
         for (BatchAuthorizationInputDto.ObjectRef obj : input.objects()) {
             UUID datasetId = parseUuid(obj.datasetId());
             for (BatchAuthorizationInputDto.SubjectRef subject : input.subjects()) {
-                List<IamDatasetPolicy> existing = datasetPolicyRepository.findByDatasetIdAndSubjectTypeIgnoreCaseAndSubjectId(datasetId, subject.type(), subject.id());
-                String newEffect = input.scope() != null && StringUtils.hasText(input.scope().objectEffect())
-                    ? input.scope().objectEffect().toUpperCase(Locale.ROOT)
-                    : "ALLOW";
-                for (IamDatasetPolicy policy : existing) {
-                    String scope = policy.getScope() != null ? policy.getScope().toUpperCase(Locale.ROOT) : "OBJECT";
-                    String key = scope.equals("FIELD") ? policy.getFieldName() : scope;
+                for (ExistingPolicy policy : existing.getOrDefault(MatrixKey.of(datasetId, subject.type(), subject.id()), List.of())) {
+                    String scope = policy.normalizedScope();
+                    String key = scope.equals("FIELD") ? policy.fieldName() : scope;
                     conflicts.add(
                         new ConflictItemDto(
                             scope.equals("ROW") ? "row" : (scope.equals("FIELD") ? "field" : "object"),
                             key,
                             subject.name(),
-                            policy.getEffect(),
-                            scope.equals("FIELD") ? findFieldEffect(input.scope(), policy.getFieldName()) : newEffect
+                            policy.effect(),
+                            scope.equals("FIELD") ? findFieldEffect(input.scope(), policy.fieldName()) : newEffect
                         )
                     );
                 }
@@ -181,122 +210,317 @@ public class PolicyService {
 
     @Transactional
     public BatchApplyResultDto apply(BatchAuthorizationInputDto input, String username) {
+        String owner = StringUtils.hasText(username) ? username : "system";
+        return apply(input, username, (phase, processed, total) -> {
+            Instant now = Instant.now();
+            applyProgress.put(owner, new PolicyApplyProgressDto(phase, processed, total, now));
+            purgeExpired(applyProgress, now);
+        });
+    }
+
+    /**
+     * 集合式批量授权：一次加载现有策略矩阵，内存中计算新增/更新/删除，再在同一事务内按 JDBC 批次写入。
+     */
+    @Transactional
+    public BatchApplyResultDto apply(BatchAuthorizationInputDto input, String username, ApplyProgressListener listener) {
         if (input == null || CollectionUtils.isEmpty(input.objects()) || CollectionUtils.isEmpty(input.subjects())) {
-            return new BatchApplyResultDto(false, Instant.now());
+            return BatchApplyResultDto.skipped();
         }
         Instant appliedAt = Instant.now();
+        listener.onProgress(PHASE_LOADING, 0, 0);
+        PolicyWritePlan plan;
+        try {
+            plan = plan(input, loadMatrix(input), username, appliedAt);
+            int total = plan.size();
+            int processed = 0;
+            if (!plan.deletes().isEmpty()) {
+                for (List<UUID> chunk : chunks(plan.deletes(), LOAD_CHUNK)) {
+                    jdbcTemplate.update("delete from iam_dataset_policy where id in (:ids)", new MapSqlParameterSource("ids", chunk));
+                    processed += chunk.size();
+                    listener.onProgress(PHASE_WRITING, processed, total);
+                }
+            }
+            processed = writeBatches(INSERT_SQL, plan.inserts(), username, appliedAt, processed, total, listener);
+            processed = writeBatches(UPDATE_SQL, plan.updates(), username, appliedAt, processed, total, listener);
+            listener.onProgress(PHASE_DONE, processed, total);
+            if (total >= LOG_PROGRESS_THRESHOLD) {
+                log.info(
+                    "Batch policy apply by {}: {} inserted, {} updated, {} deleted",
+                    username,
+                    plan.inserts().size(),
+                    plan.updates().size(),
+                    plan.deletes().size()
+                );
+            }
+        } catch (RuntimeException ex) {
+            listener.onProgress(PHASE_FAILED, 0, 0);
+            throw ex;
+        }
+        return new BatchApplyResultDto(true, appliedAt, plan.inserts().size(), plan.updates().size(), plan.deletes().size());
+    }
+
+    public Optional<PolicyApplyProgressDto> applyProgress(String username) {
+        purgeExpired(applyProgress, Instant.now());
+        return Optional.ofNullable(applyProgress.get(StringUtils.hasText(username) ? username : "system"));
+    }
+
+    static void purgeExpired(Map<String, PolicyApplyProgressDto> progress, Instant now) {
+        Instant cutoff = now.minus(PROGRESS_TTL);
+        progress.values().removeIf(entry -> entry.updatedAt().isBefore(cutoff));
+    }
+
+    @FunctionalInterface
+    public interface ApplyProgressListener {
+        void onProgress(String phase, int processed, int total);
+    }
+
+    private int writeBatches(
+        String sql,
+        List<PolicyRow> rows,
+        String username,
+        Instant appliedAt,
+        int processed,
+        int total,
+        ApplyProgressListener listener
+    ) {
+        for (List<PolicyRow> chunk : chunks(rows, WRITE_BATCH)) {
+            SqlParameterSource[] batch = new SqlParameterSource[chunk.size()];
+            for (int i = 0; i < chunk.size(); i++) {
+                batch[i] = chunk.get(i).toParams(username, appliedAt);
+            }
+            jdbcTemplate.batchUpdate(sql, batch);
+            processed += chunk.size();
+            listener.onProgress(PHASE_WRITING, processed, total);
+            log.debug("Policy apply progress {}/{}", processed, total);
+        }
+        return processed;
+    }
+
+    /**
+     * 按数据集分块读取矩阵内的现有策略（主体类型忽略大小写），按 (数据集, 主体) 分组。
+     */
+    private Map<MatrixKey, List<ExistingPolicy>> loadMatrix(BatchAuthorizationInputDto input) {
+        Set<UUID> datasetIds = new LinkedHashSet<>();
         for (BatchAuthorizationInputDto.ObjectRef obj : input.objects()) {
-            UUID datasetId = parseUuid(obj.datasetId());
-            String datasetName = obj.datasetName();
+            datasetIds.add(parseUuid(obj.datasetId()));
+        }
+        Set<String> subjectIds = new HashSet<>();
+        Set<MatrixKey> wanted = new HashSet<>();
+        for (BatchAuthorizationInputDto.SubjectRef subject : input.subjects()) {
+            subjectIds.add(subject.id());
+        }
+        if (subjectIds.remove(null)) {
+            log.debug("Ignoring subjects without id in policy matrix");
+        }
+        Map<MatrixKey, List<ExistingPolicy>> grouped = new HashMap<>();
+        if (subjectIds.isEmpty()) {
+            return grouped;
+        }
+        for (UUID datasetId : datasetIds) {
             for (BatchAuthorizationInputDto.SubjectRef subject : input.subjects()) {
-                upsertPolicies(datasetId, datasetName, subject, input.scope(), username, appliedAt);
+                wanted.add(MatrixKey.of(datasetId, subject.type(), subject.id()));
             }
         }
-        return new BatchApplyResultDto(true, appliedAt);
+        for (List<UUID> chunk : chunks(new ArrayList<>(datasetIds), LOAD_CHUNK)) {
+            MapSqlParameterSource params = new MapSqlParameterSource().addValue("datasetIds", chunk).addValue("subjectIds", subjectIds);
+            jdbcTemplate.query(MATRIX_SQL, params, rs -> {
+                ExistingPolicy policy = new ExistingPolicy(
+                    rs.getObject("id", UUID.class),
+                    rs.getObject("dataset_id", UUID.class),
+                    rs.getString("subject_type"),
+                    rs.getString("subject_id"),
+                    rs.getString("scope"),
+                    rs.getString("field_name"),
+                    rs.getString("effect"),
+                    rs.getString("row_expression"),
+                    rs.getString("description"),
+                    ServiceUtils.toInstant(rs.getObject("valid_from", LocalDateTime.class)),
+                    ServiceUtils.toInstant(rs.getObject("valid_to", LocalDateTime.class)),
+                    rs.getString("created_by")
+                );
+                MatrixKey key = MatrixKey.of(policy.datasetId(), policy.subjectType(), policy.subjectId());
+                if (wanted.contains(key)) {
+                    grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(policy);
+                }
+            });
+        }
+        return grouped;
     }
 
-    private void upsertPolicies(
-        UUID datasetId,
-        String datasetName,
-        BatchAuthorizationInputDto.SubjectRef subject,
-        BatchAuthorizationInputDto.Scope scope,
+    /**
+     * 纯内存计算写入计划：对象级策略总是写入；字段/行级策略按输入覆盖；矩阵内其余旧策略删除。
+     */
+    static PolicyWritePlan plan(
+        BatchAuthorizationInputDto input,
+        Map<MatrixKey, List<ExistingPolicy>> existing,
         String username,
         Instant appliedAt
     ) {
-        List<IamDatasetPolicy> existing = datasetPolicyRepository.findByDatasetIdAndSubjectTypeIgnoreCaseAndSubjectId(datasetId, subject.type(), subject.id());
-        Map<String, IamDatasetPolicy> existingByKey = new HashMap<>();
-        for (IamDatasetPolicy policy : existing) {
-            String key = buildKey(policy.getScope(), policy.getFieldName());
-            existingByKey.put(key, policy);
-        }
+        BatchAuthorizationInputDto.Scope scope = input.scope();
+        String objectEffect = (scope != null && StringUtils.hasText(scope.objectEffect()) ? scope.objectEffect() : "ALLOW").toUpperCase(Locale.ROOT);
+        Instant validFrom = scope != null ? scope.validFrom() : null;
+        Instant validTo = scope != null ? scope.validTo() : null;
+        List<BatchAuthorizationInputDto.FieldRef> fields = scope != null && scope.fields() != null ? scope.fields() : List.of();
+        boolean hasRow = scope != null && StringUtils.hasText(scope.rowExpression());
 
-        List<IamDatasetPolicy> toPersist = new ArrayList<>();
-        String objectEffect = scope != null && StringUtils.hasText(scope.objectEffect()) ? scope.objectEffect() : "ALLOW";
-        // object level
-        IamDatasetPolicy objectPolicy = existingByKey.remove(buildKey("OBJECT", null));
-        if (objectPolicy == null) {
-            objectPolicy = new IamDatasetPolicy();
-            objectPolicy.setDatasetId(datasetId);
-            objectPolicy.setDatasetName(datasetName);
-            objectPolicy.setSubjectType(subject.type());
-            objectPolicy.setSubjectId(subject.id());
-            objectPolicy.setSubjectName(subject.name());
-            objectPolicy.setScope("OBJECT");
-        }
-        objectPolicy.setEffect(objectEffect.toUpperCase(Locale.ROOT));
-        applyValidity(scope, objectPolicy);
-        objectPolicy.setSource("MANUAL");
-        objectPolicy.setLastModifiedBy(username);
-        objectPolicy.setCreatedBy(Optional.ofNullable(objectPolicy.getCreatedBy()).orElse(username));
-        objectPolicy.setLastModifiedDate(appliedAt);
-        toPersist.add(objectPolicy);
-
-        // field policies
-        List<BatchAuthorizationInputDto.FieldRef> fields = scope != null ? scope.fields() : List.of();
-        if (fields != null) {
-            for (BatchAuthorizationInputDto.FieldRef field : fields) {
-                String key = buildKey("FIELD", field.name());
-                IamDatasetPolicy policy = existingByKey.remove(key);
-                if (policy == null) {
-                    policy = new IamDatasetPolicy();
-                    policy.setDatasetId(datasetId);
-                    policy.setDatasetName(datasetName);
-                    policy.setSubjectType(subject.type());
-                    policy.setSubjectId(subject.id());
-                    policy.setSubjectName(subject.name());
-                    policy.setScope("FIELD");
-                    policy.setFieldName(field.name());
+        List<PolicyRow> inserts = new ArrayList<>();
+        List<PolicyRow> updates = new ArrayList<>();
+        List<UUID> deletes = new ArrayList<>();
+        Set<MatrixKey> visited = new HashSet<>();
+        for (BatchAuthorizationInputDto.ObjectRef obj : input.objects()) {
+            UUID datasetId = UUID.fromString(obj.datasetId());
+            for (BatchAuthorizationInputDto.SubjectRef subject : input.subjects()) {
+                MatrixKey matrixKey = MatrixKey.of(datasetId, subject.type(), subject.id());
+                if (!visited.add(matrixKey)) {
+                    continue;
+                }
+                Map<String, ExistingPolicy> existingByKey = new LinkedHashMap<>();
+                for (ExistingPolicy policy : existing.getOrDefault(matrixKey, List.of())) {
+                    if (existingByKey.putIfAbsent(policyKey(policy.scope(), policy.fieldName()), policy) != null) {
+                        deletes.add(policy.id());
+                    }
+                }
+                PolicyRow template = new PolicyRow(
+                    null, datasetId, obj.datasetName(), subject.type(), subject.id(), subject.name(),
+                    null, null, null, null, null, "MANUAL", validFrom, validTo, username
+                );
+
+                ExistingPolicy objectPolicy = existingByKey.remove(policyKey("OBJECT", null));
+                if (objectPolicy == null) {
+                    inserts.add(template.withScope("OBJECT", null, objectEffect, null, null));
+                } else {
+                    updates.add(objectPolicy.updated(objectEffect, objectPolicy.rowExpression(), objectPolicy.description(), scope != null, validFrom, validTo, username));
+                }
+                for (BatchAuthorizationInputDto.FieldRef field : fields) {
+                    String effect = field.effect() != null ? field.effect().toUpperCase(Locale.ROOT) : "ALLOW";
+                    ExistingPolicy fieldPolicy = existingByKey.remove(policyKey("FIELD", field.name()));
+                    if (fieldPolicy == null) {
+                        inserts.add(template.withScope("FIELD", field.name(), effect, null, null));
+                    } else {
+                        updates.add(fieldPolicy.updated(effect, null, fieldPolicy.description(), true, validFrom, validTo, username));
+                    }
+                }
+                if (hasRow) {
+                    ExistingPolicy rowPolicy = existingByKey.remove(policyKey("ROW", null));
+                    if (rowPolicy == null) {
+                        inserts.add(template.withScope("ROW", null, "ALLOW", scope.rowExpression(), "Row level filter"));
+                    } else {
+                        updates.add(rowPolicy.updated("ALLOW", scope.rowExpression(), "Row level filter", true, validFrom, validTo, username));
+                    }
+                }
+                for (ExistingPolicy stale : existingByKey.values()) {
+                    deletes.add(stale.id());
                 }
-                policy.setEffect(field.effect() != null ? field.effect().toUpperCase(Locale.ROOT) : "ALLOW");
-                policy.setRowExpression(null);
-                policy.setSource("MANUAL");
-                applyValidity(scope, policy);
-                policy.setLastModifiedBy(username);
-                policy.setCreatedBy(Optional.ofNullable(policy.getCreatedBy()).orElse(username));
-                policy.setLastModifiedDate(appliedAt);
-                toPersist.add(policy);
             }
         }
+        return new PolicyWritePlan(inserts, updates, deletes);
+    }
 
-        // row policy
-        if (scope != null && StringUtils.hasText(scope.rowExpression())) {
-            IamDatasetPolicy policy = existingByKey.remove(buildKey("ROW", null));
-            if (policy == null) {
-                policy = new IamDatasetPolicy();
-                policy.setDatasetId(datasetId);
-                policy.setDatasetName(datasetName);
-                policy.setSubjectType(subject.type());
-                policy.setSubjectId(subject.id());
-                policy.setSubjectName(subject.name());
-                policy.setScope("ROW");
-            }
-            policy.setEffect("ALLOW");
-            policy.setRowExpression(scope.rowExpression());
-            policy.setDescription("Row level filter");
-            policy.setSource("MANUAL");
-            applyValidity(scope, policy);
-            policy.setLastModifiedBy(username);
-            policy.setCreatedBy(Optional.ofNullable(policy.getCreatedBy()).orElse(username));
-            policy.setLastModifiedDate(appliedAt);
-            toPersist.add(policy);
+    private static String policyKey(String scope, String field) {
+        String normalizedScope = scope != null ? scope.toUpperCase(Locale.ROOT) : "OBJECT";
+        return normalizedScope + ":" + (field != null ? field : "*");
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items, int size) {
+        List<List<T>> out = new ArrayList<>((items.size() + size - 1) / size);
+        for (int i = 0; i < items.size(); i += size) {
+            out.add(items.subList(i, Math.min(items.size(), i + size)));
         }
+        return out;
+    }
 
-        if (!existingByKey.isEmpty()) {
-            datasetPolicyRepository.deleteAll(existingByKey.values());
+    record MatrixKey(UUID datasetId, String subjectType, String subjectId) {
+        static MatrixKey of(UUID datasetId, String subjectType, String subjectId) {
+            return new MatrixKey(datasetId, subjectType == null ? null : subjectType.toLowerCase(Locale.ROOT), subjectId);
         }
-        datasetPolicyRepository.saveAll(toPersist);
     }
 
-    private void applyValidity(BatchAuthorizationInputDto.Scope scope, IamDatasetPolicy policy) {
-        if (scope != null) {
-            policy.setValidFrom(scope.validFrom());
-            policy.setValidTo(scope.validTo());
+    record ExistingPolicy(
+        UUID id,
+        UUID datasetId,
+        String subjectType,
+        String subjectId,
+        String scope,
+        String fieldName,
+        String effect,
+        String rowExpression,
+        String description,
+        Instant validFrom,
+        Instant validTo,
+        String createdBy
+    ) {
+        String normalizedScope() {
+            return scope != null ? scope.toUpperCase(Locale.ROOT) : "OBJECT";
+        }
+
+        PolicyRow updated(
+            String newEffect,
+            String newRowExpression,
+            String newDescription,
+            boolean replaceValidity,
+            Instant newValidFrom,
+            Instant newValidTo,
+            String username
+        ) {
+            return new PolicyRow(
+                id, datasetId, null, subjectType, subjectId, null, scope, fieldName, newEffect, newRowExpression, newDescription, "MANUAL",
+                replaceValidity ? newValidFrom : validFrom,
+                replaceValidity ? newValidTo : validTo,
+                createdBy != null ? createdBy : username
+            );
         }
     }
 
-    private String buildKey(String scope, String field) {
-        String normalizedScope = scope != null ? scope.toUpperCase(Locale.ROOT) : "OBJECT";
-        return normalizedScope + ":" + (field != null ? field : "*");
+    record PolicyRow(
+        UUID id,
+        UUID datasetId,
+        String datasetName,
+        String subjectType,
+        String subjectId,
+        String subjectName,
+        String scope,
+        String fieldName,
+        String effect,
+        String rowExpression,
+        String description,
+        String source,
+        Instant validFrom,
+        Instant validTo,
+        String createdBy
+    ) {
+        PolicyRow withScope(String newScope, String newFieldName, String newEffect, String newRowExpression, String newDescription) {
+            return new PolicyRow(
+                UUID.randomUUID(), datasetId, datasetName, subjectType, subjectId, subjectName, newScope, newFieldName, newEffect,
+                newRowExpression, newDescription, source, validFrom, validTo, createdBy
+            );
+        }
+
+        SqlParameterSource toParams(String username, Instant appliedAt) {
+            return new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("datasetId", datasetId)
+                .addValue("datasetName", datasetName)
+                .addValue("subjectType", subjectType)
+                .addValue("subjectId", subjectId)
+                .addValue("subjectName", subjectName)
+                .addValue("scope", scope)
+                .addValue("fieldName", fieldName)
+                .addValue("effect", effect)
+                .addValue("rowExpression", rowExpression)
+                .addValue("description", description)
+                .addValue("source", source)
+                .addValue("validFrom", ServiceUtils.toUtc(validFrom), Types.TIMESTAMP)
+                .addValue("validTo", ServiceUtils.toUtc(validTo), Types.TIMESTAMP)
+                .addValue("createdBy", createdBy)
+                .addValue("modifiedBy", username)
+                .addValue("appliedAt", ServiceUtils.toUtc(appliedAt), Types.TIMESTAMP);
+        }
+    }
+
+    record PolicyWritePlan(List<PolicyRow> inserts, List<PolicyRow> updates, List<UUID> deletes) {
+        int size() {
+            return inserts.size() + updates.size() + deletes.size();
+        }
     }
 
     private String findFieldEffect(BatchAuthorizationInputDto.Scope scope, String fieldName) {
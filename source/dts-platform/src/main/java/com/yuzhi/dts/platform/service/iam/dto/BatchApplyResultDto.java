@@ -2,4 +2,8 @@ package com.yuzhi.dts.platform.service.iam.dto;
 
 import java.time.Instant;
 
-public record BatchApplyResultDto(boolean ok, Instant appliedAt) {}
+public record BatchApplyResultDto(boolean ok, Instant appliedAt, int inserted, int updated, int deleted) {
+    public static BatchApplyResultDto skipped() {
+        return new BatchApplyResultDto(false, Instant.now(), 0, 0, 0);
+    }
+}
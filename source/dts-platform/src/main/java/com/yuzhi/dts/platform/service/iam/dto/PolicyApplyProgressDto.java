@@ -0,0 +1,8 @@
+package com.yuzhi.dts.platform.service.iam.dto;
+
+import java.time.Instant;
+
+/**
+ * 批量授权写入进度：phase 为 LOADING / WRITING / DONE / FAILED，processed/total 为已写入/待写入的策略行数。
+ */
+public record PolicyApplyProgressDto(String phase, int processed, int total, Instant updatedAt) {}
@@ -3,6 +3,7 @@ package com.yuzhi.dts.platform.service.infra;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.yuzhi.dts.platform.config.DtsAdminProperties;
+import com.yuzhi.dts.platform.service.admin.AdminResponseCache;
 import java.net.URI;
 import java.time.Duration;
 import java.time.Instant;
@@ -32,16 +33,26 @@ public class AdminInfraClient {
 
     private final RestTemplate restTemplate;
     private final DtsAdminProperties properties;
+    private final AdminResponseCache cache;
 
-    public AdminInfraClient(RestTemplateBuilder builder, DtsAdminProperties properties) {
+    public AdminInfraClient(RestTemplateBuilder builder, DtsAdminProperties properties, AdminResponseCache cache) {
         this.properties = properties;
+        this.cache = cache;
         this.restTemplate = builder.setConnectTimeout(Duration.ofSeconds(5)).setReadTimeout(Duration.ofSeconds(10)).build();
     }
 
+    /**
+     * 默认每次调用都携带 ETag 向管理端校验（未变化时返回 304，不再传输配置体）；
+     * 管理端不可用时在 staleIfError 窗口内沿用最近一次成功获取的配置。
+     */
     public Optional<AdminInceptorConfig> fetchActiveInceptor() {
         if (!properties.isEnabled()) {
             return Optional.empty();
         }
+        return cache.get(AdminResponseCache.INFRA, "inceptor", properties.getCache().getInfraTtl(), this::loadActiveInceptor);
+    }
+
+    private AdminResponseCache.Fetched<AdminInceptorConfig> loadActiveInceptor(String etag) {
         HttpHeaders headers = new HttpHeaders();
         headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
         if (StringUtils.hasText(properties.getServiceToken())) {
@@ -50,6 +61,7 @@ public class AdminInfraClient {
         if (StringUtils.hasText(properties.getServiceName())) {
             headers.set("X-DTS-Service", properties.getServiceName());
         }
+        AdminResponseCache.applyEtag(headers, etag);
         HttpEntity<Void> requestEntity = new HttpEntity<>(headers);
 
         List<String> candidates = candidateBaseUrls();
@@ -57,16 +69,18 @@ public class AdminInfraClient {
             URI uri = buildUri(baseUrl, properties.getApiPath(), "/platform/infra/inceptor");
             try {
                 ResponseEntity<AdminInceptorConfig> response = restTemplate.exchange(uri, HttpMethod.GET, requestEntity, RESPONSE_TYPE);
+                if (AdminResponseCache.isNotModified(response)) {
+                    return AdminResponseCache.Fetched.notModified();
+                }
                 if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                    return Optional.of(response.getBody());
+                    return AdminResponseCache.Fetched.of(response.getBody(), response.getHeaders().getETag());
                 }
                 log.debug("Admin infra endpoint {} returned status {}", uri, response.getStatusCode());
             } catch (Exception ex) {
                 log.debug("Failed to fetch Inceptor data source from admin service at {}: {}", uri, ex.getMessage());
             }
         }
-        log.warn("Unable to fetch active Inceptor configuration from any configured admin endpoints {}", candidates);
-        return Optional.empty();
+        throw new IllegalStateException("Unable to fetch active Inceptor configuration from any configured admin endpoints " + candidates);
     }
 
     private List<String> candidateBaseUrls() {
@@ -0,0 +1,230 @@
+package com.yuzhi.dts.platform.service.infra;
+
+import com.yuzhi.dts.common.observability.OperationMetrics;
+import com.yuzhi.dts.platform.config.CatalogFeatureProperties;
+import com.yuzhi.dts.platform.service.infra.schedule.ScheduledJobContext;
+import com.yuzhi.dts.platform.service.infra.schedule.ScheduledJobHandler;
+import com.yuzhi.dts.platform.service.util.ServiceUtils;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * CATALOG_PURGE：删除目录同步标记为失效的数据集。
+ * <p>
+ * 同步事务内只做一次批量 UPDATE 打上 purge_requested_at 标记，数据集随即对目录查询不可见；
+ * 物理删除按块进行，每块一个短事务、每张关联表一条集合删除语句，不再在同步事务中逐个级联删除而长时间持锁。
+ * 某一块删除失败时逐个重试，仍失败的数据集恢复可见（与原先“删除失败则保留”的行为一致），下次同步会再次标记。
+ */
+@Component
+public class CatalogDatasetReaper implements ScheduledJobHandler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogDatasetReaper.class);
+
+    private static final String MARK_SQL =
+        "update catalog_dataset set purge_requested_at = :now, last_modified_date = :now where id in (:ids) and purge_requested_at is null";
+
+    private static final String PENDING_SQL =
+        "select id from catalog_dataset where purge_requested_at is not null order by purge_requested_at, id limit :limit";
+
+    private static final String RESTORE_SQL = "update catalog_dataset set purge_requested_at = null where id = :id";
+
+    /** 按外键依赖顺序排列：列 → 表 → 规则/授权/作业 → 数据集本身 */
+    private static final List<String> PURGE_SQL = List.of(
+        "delete from catalog_column_schema where table_id in (select id from catalog_table_schema where dataset_id in (:ids))",
+        "delete from catalog_table_schema where dataset_id in (:ids)",
+        "delete from catalog_row_filter_rule where dataset_id in (:ids)",
+        "delete from catalog_masking_rule where dataset_id in (:ids)",
+        "delete from catalog_dataset_grant where dataset_id in (:ids)",
+        "delete from catalog_dataset_job where dataset_id in (:ids)",
+        "delete from catalog_dataset where id in (:ids) and purge_requested_at is not null"
+    );
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final CatalogFeatureProperties properties;
+    private final OperationMetrics operationMetrics;
+    private final TransactionTemplate chunkTransaction;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("catalog-purge-"));
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public CatalogDatasetReaper(
+        NamedParameterJdbcTemplate jdbcTemplate,
+        CatalogFeatureProperties properties,
+        OperationMetrics operationMetrics,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.operationMetrics = operationMetrics;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public String jobType() {
+        return "CATALOG_PURGE";
+    }
+
+    @Override
+    public String run(ScheduledJobContext context) {
+        if (!running.compareAndSet(false, true)) {
+            return "失效数据集清理正在进行，本次跳过";
+        }
+        try {
+            return "清理失效数据集 " + purgePending() + " 个";
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 在调用方事务内标记失效数据集（集合更新，按块拼 IN 列表），提交后按配置立即或延后物理删除。
+     *
+     * @return 新标记的数据集数
+     */
+    public int markStale(Collection<UUID> datasetIds) {
+        if (datasetIds.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = ServiceUtils.toUtc(Instant.now());
+        List<UUID> ids = List.copyOf(datasetIds);
+        int chunkSize = chunkSize();
+        int marked = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(ids.size(), from + chunkSize));
+            marked += jdbcTemplate.update(MARK_SQL, new MapSqlParameterSource().addValue("ids", chunk).addValue("now", now));
+        }
+        if (marked > 0 && !properties.isPurgeDeferred()) {
+            submitAfterCommit();
+        }
+        return marked;
+    }
+
+    void submitAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        submit();
+                    }
+                }
+            );
+        } else {
+            submit();
+        }
+    }
+
+    private void submit() {
+        if (!running.compareAndSet(false, true)) {
+            // 正在清理的循环会继续取到新标记的数据集
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    purgePending();
+                } catch (RuntimeException ex) {
+                    LOG.warn("Catalog dataset purge interrupted, scheduled job will resume: {}", ex.getMessage());
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            running.set(false);
+            LOG.warn("Catalog dataset purge rejected: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * 逐块删除所有已标记的数据集，直到没有待清理项。
+     *
+     * @return 实际删除的数据集数
+     */
+    int purgePending() {
+        int chunkSize = chunkSize();
+        int purged = 0;
+        while (true) {
+            List<UUID> chunk = jdbcTemplate.queryForList(PENDING_SQL, new MapSqlParameterSource("limit", chunkSize), UUID.class);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            int removed = purgeChunk(chunk);
+            purged += removed;
+            // 整块都未能删除时停止，避免反复处理同一批
+            if (removed == 0 || chunk.size() < chunkSize) {
+                break;
+            }
+        }
+        if (purged > 0) {
+            operationMetrics.increment("dts.catalog.sync.datasets.purged", purged);
+            LOG.info("Catalog purge removed {} stale dataset(s)", purged);
+        }
+        return purged;
+    }
+
+    private int purgeChunk(List<UUID> ids) {
+        try {
+            Integer removed = chunkTransaction.execute(status -> deleteAll(ids));
+            return removed != null ? removed : 0;
+        } catch (RuntimeException ex) {
+            LOG.debug("Catalog purge chunk of {} failed, retrying one by one: {}", ids.size(), ex.getMessage());
+        }
+        int removed = 0;
+        for (UUID id : ids) {
+            try {
+                Integer count = chunkTransaction.execute(status -> deleteAll(List.of(id)));
+                removed += count != null ? count : 0;
+            } catch (RuntimeException ex) {
+                LOG.warn("Failed to purge stale dataset {}, keeping it visible: {}", id, ex.getMessage());
+                restore(id);
+            }
+        }
+        return removed;
+    }
+
+    private int deleteAll(List<UUID> ids) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        int removed = 0;
+        for (String sql : PURGE_SQL) {
+            removed = jdbcTemplate.update(sql, params);
+        }
+        // 最后一条语句删除的是数据集本身
+        return removed;
+    }
+
+    private void restore(UUID id) {
+        try {
+            jdbcTemplate.update(RESTORE_SQL, new MapSqlParameterSource("id", id));
+        } catch (RuntimeException ex) {
+            LOG.warn("Failed to restore visibility of dataset {}: {}", id, ex.getMessage());
+        }
+    }
+
+    private int chunkSize() {
+        return Math.max(1, properties.getPurgeChunkSize());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
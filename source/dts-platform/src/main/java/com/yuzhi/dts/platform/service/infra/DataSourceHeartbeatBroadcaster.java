@@ -0,0 +1,57 @@
+package com.yuzhi.dts.platform.service.infra;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.yuzhi.dts.platform.service.infra.dto.DataSourceHeartbeatDto;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * 管理端的心跳推送只会打到平台某一个节点，由该节点通过 Hazelcast Topic 转发给集群内所有节点（含自身），
+ * 各节点收到后更新本地 {@link InceptorDataSourceRegistry} 的运行状态。
+ * Hazelcast 以单机模式运行或广播失败时只在本节点生效，其他节点等下一次心跳变化或注册表刷新。
+ */
+@Component
+public class DataSourceHeartbeatBroadcaster {
+
+    static final String TOPIC = "dts-platform-data-source-heartbeats";
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceHeartbeatBroadcaster.class);
+
+    private final ITopic<ArrayList<DataSourceHeartbeatDto>> topic;
+    private final InceptorDataSourceRegistry registry;
+
+    public DataSourceHeartbeatBroadcaster(HazelcastInstance hazelcastInstance, InceptorDataSourceRegistry registry) {
+        this.registry = registry;
+        this.topic = hazelcastInstance.getTopic(TOPIC);
+        this.topic.addMessageListener(message -> apply(message.getMessageObject()));
+    }
+
+    public void publish(List<DataSourceHeartbeatDto> heartbeats) {
+        if (heartbeats == null || heartbeats.isEmpty()) {
+            return;
+        }
+        ArrayList<DataSourceHeartbeatDto> message = new ArrayList<>(heartbeats);
+        try {
+            topic.publish(message);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to broadcast {} data source heartbeats: {}", message.size(), ex.getMessage());
+            apply(message);
+        }
+    }
+
+    int apply(List<DataSourceHeartbeatDto> heartbeats) {
+        int applied = 0;
+        if (heartbeats != null) {
+            for (DataSourceHeartbeatDto heartbeat : heartbeats) {
+                if (registry.applyHeartbeat(heartbeat)) {
+                    applied++;
+                }
+            }
+        }
+        return applied;
+    }
+}
@@ -0,0 +1,90 @@
+package com.yuzhi.dts.platform.service.infra;
+
+import com.yuzhi.dts.platform.domain.service.InfraDataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 数据源凭据的短时解密缓存：按数据源记录密文指纹（密文、IV、密钥版本），密文未变且未过期时直接复用解密结果，
+ * 注册中心刷新不再每次解密。
+ * <p>
+ * 缓存值为只读 Map，仅在包内使用、不对外暴露；过期、数据源下线或密文变化时立即丢弃。
+ */
+final class DecryptedSecretCache {
+
+    private final InfraSecretService secretService;
+    private final Supplier<Duration> ttl;
+    private final Clock clock;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    DecryptedSecretCache(InfraSecretService secretService, Supplier<Duration> ttl, Clock clock) {
+        this.secretService = secretService;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    Map<String, Object> read(InfraDataSource entity) {
+        UUID id = entity.getId();
+        Duration lifetime = ttl.get();
+        if (id == null || lifetime == null || lifetime.isNegative() || lifetime.isZero()) {
+            return secretService.readSecrets(entity);
+        }
+        Instant now = clock.instant();
+        Entry entry = entries.get(id);
+        if (entry != null && entry.matches(entity) && entry.expiresAt().isAfter(now)) {
+            return entry.secrets();
+        }
+        Map<String, Object> secrets = secretService.readSecrets(entity);
+        if (secrets.isEmpty()) {
+            // 解密失败或无凭据时不缓存，下次重新读取
+            entries.remove(id);
+            return secrets;
+        }
+        Map<String, Object> frozen = Collections.unmodifiableMap(secrets);
+        entries.put(id, Entry.of(entity, frozen, now.plus(lifetime)));
+        return frozen;
+    }
+
+    /**
+     * 丢弃已过期的条目以及不在给定集合中的数据源。
+     */
+    void retainOnly(Collection<UUID> ids) {
+        Instant now = clock.instant();
+        entries.entrySet().removeIf(e -> !ids.contains(e.getKey()) || !e.getValue().expiresAt().isAfter(now));
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private record Entry(byte[] cipher, byte[] iv, String keyVersion, Map<String, Object> secrets, Instant expiresAt) {
+        static Entry of(InfraDataSource entity, Map<String, Object> secrets, Instant expiresAt) {
+            return new Entry(copy(entity.getSecureProps()), copy(entity.getSecureIv()), entity.getSecureKeyVersion(), secrets, expiresAt);
+        }
+
+        boolean matches(InfraDataSource entity) {
+            return (
+                Arrays.equals(cipher, entity.getSecureProps()) &&
+                Arrays.equals(iv, entity.getSecureIv()) &&
+                Objects.equals(keyVersion, entity.getSecureKeyVersion())
+            );
+        }
+
+        private static byte[] copy(byte[] value) {
+            return value == null ? null : value.clone();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.yuzhi.dts.platform.service.infra;
 
+import com.yuzhi.dts.common.observability.OperationMetrics;
 import com.yuzhi.dts.platform.web.rest.infra.HiveConnectionTestRequest;
+import io.micrometer.core.instrument.Gauge;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.util.StringUtils;
@@ -74,7 +76,11 @@ public class HiveConnectionService {
     }
 
     private final ReentrantLock kerberosLock = new ReentrantLock();
+    private final OperationMetrics operationMetrics;
     private volatile ClassLoader jdbcDriverLoader;
+    private volatile boolean driverClassesPrepared;
+    /** 按 URL 协议前缀（如 jdbc:hive2:）记住已确认可用的驱动，后续建连不再扫描 DriverManager */
+    private final Map<String, ResolvedDriver> resolvedDrivers = new ConcurrentHashMap<>();
 
     @Value("${dts.jdbc.drivers-dir:/opt/dts/drivers}")
     private String externalDriversDir;
@@ -97,6 +103,12 @@ public class HiveConnectionService {
     @Value("${dts.jdbc.validation-timeout-seconds:15}")
     private int validationTimeoutSeconds;
 
+    public HiveConnectionService(OperationMetrics operationMetrics) {
+        this.operationMetrics = operationMetrics;
+        // Kerberos 登录与建连串行执行，排队线程数直接反映该锁造成的阻塞
+        Gauge.builder("dts.hive.kerberos.lock.queue", kerberosLock, ReentrantLock::getQueueLength).register(operationMetrics.registry());
+    }
+
     @PostConstruct
     void ensureDriverPresent() {
         try {
@@ -123,7 +135,8 @@ public class HiveConnectionService {
         return jdbcDriverLoader;
     }
 
-    private <T> T executeWithinDriver(HiveConnectionTestRequest request, HiveConnectionCallback<T> callback) throws Exception {
+    private <T> T executeWithinDriver(HiveConnectionTestRequest request, HiveConnectionCallback<T> callback, OperationMetrics.Span span)
+        throws Exception {
         ClassLoader previousCl = Thread.currentThread().getContextClassLoader();
         if (jdbcDriverLoader != null) {
             Thread.currentThread().setContextClassLoader(jdbcDriverLoader);
@@ -133,14 +146,19 @@ public class HiveConnectionService {
             String url = resolveJdbcUrl(request);
             java.util.Properties props = buildConnectionProperties(request);
             long connectStart = System.nanoTime();
-            log.info(
+            log.debug(
                 "Attempting JDBC connect. url={}, authMethod={}, propsKeys={}",
                 url,
                 request.getAuthMethod(),
                 props.keySet()
             );
             try (Connection connection = openConnection(url, props)) {
-                return callback.doWithConnection(connection, connectStart);
+                span.mark("connect");
+                try {
+                    return callback.doWithConnection(connection, connectStart);
+                } finally {
+                    span.mark("work");
+                }
             }
         } finally {
             Thread.currentThread().setContextClassLoader(previousCl);
@@ -151,7 +169,10 @@ public class HiveConnectionService {
         Objects.requireNonNull(request, "request");
         Objects.requireNonNull(callback, "callback");
 
+        OperationMetrics.Span span = operationMetrics.start("hive.connection", OperationMetrics.datasourceOf(request.getJdbcUrl()));
+        boolean completed = false;
         kerberosLock.lock();
+        span.mark("lock_wait");
         Path tempDir = null;
         Path keytabPath = null;
         Path krb5Path = null;
@@ -165,7 +186,7 @@ public class HiveConnectionService {
             krb5Path = prepareKrb5Conf(tempDir, request);
             System.setProperty(KRB5_CONF_KEY, krb5Path.toAbsolutePath().toString());
             System.setProperty(USE_SUBJECT_CREDS_ONLY_KEY, "false");
-            log.info(
+            log.debug(
                 "Kerberos system properties set: {}={}, {}={}",
                 KRB5_CONF_KEY,
                 krb5Path.toAbsolutePath(),
@@ -173,7 +194,7 @@ public class HiveConnectionService {
                 System.getProperty(USE_SUBJECT_CREDS_ONLY_KEY)
             );
 
-            PrivilegedExceptionAction<T> action = () -> executeWithinDriver(request, callback);
+            PrivilegedExceptionAction<T> action = () -> executeWithinDriver(request, callback, span);
 
             // Use pure JAAS for both KEYTAB and PASSWORD to avoid Hadoop Shell native process checks
             // that may fail in restricted/containerized environments.
@@ -194,11 +215,14 @@ public class HiveConnectionService {
                 }
                 throw e;
             }
+            span.mark("kerberos_login");
             try {
                 Subject subject = loginContext.getSubject();
                 // Register Subject to vendor UserGroupInformation (e.g., Transwarp), if available
                 bridgeKerberosSubjectToVendor(subject);
-                return Subject.doAs(subject, action);
+                T result = Subject.doAs(subject, action);
+                completed = true;
+                return result;
             } finally {
                 if (loginSucceeded) {
                     try {
@@ -227,6 +251,10 @@ public class HiveConnectionService {
                 deleteQuietly(tempDir);
             }
             kerberosLock.unlock();
+            if (!completed) {
+                span.failed();
+            }
+            span.close();
         }
     }
 
@@ -345,6 +373,8 @@ public class HiveConnectionService {
             }
             if (loaded) {
                 this.jdbcDriverLoader = loader;
+                // 已缓存的驱动可能来自旧的类加载器，重建后重新解析
+                resolvedDrivers.clear();
                 // Log available drivers for debugging (do not alter global TCCL here)
                 try {
                     var e = java.sql.DriverManager.getDrivers();
@@ -365,13 +395,20 @@ public class HiveConnectionService {
     }
 
     private void prepareDriverClasses() {
-        try {
-            var e = DriverManager.getDrivers();
-            while (e.hasMoreElements()) {
-                var d = e.nextElement();
-                log.info("Driver available before connect: {} via {}", d.getClass().getName(), d.getClass().getClassLoader());
-            }
-        } catch (Throwable ignored) {}
+        // 驱动类加载与注册只需一次，之后的建连直接使用已解析的驱动
+        if (driverClassesPrepared) {
+            return;
+        }
+        // 驱动清单仅用于排障：枚举并输出 INFO 日志代价不低，且会淹没业务日志
+        if (log.isDebugEnabled()) {
+            try {
+                var e = DriverManager.getDrivers();
+                while (e.hasMoreElements()) {
+                    var d = e.nextElement();
+                    log.debug("Driver available before connect: {} via {}", d.getClass().getName(), d.getClass().getClassLoader());
+                }
+            } catch (Throwable ignored) {}
+        }
         try {
             if (jdbcDriverLoader != null) {
                 Class.forName(HIVE_DRIVER, true, jdbcDriverLoader);
@@ -381,6 +418,7 @@ public class HiveConnectionService {
         } catch (ClassNotFoundException ignored) {
             // Driver may have been registered via ServiceLoader from external JARs
         }
+        driverClassesPrepared = true;
     }
 
     private String resolveJdbcUrl(HiveConnectionTestRequest request) {
@@ -475,6 +513,45 @@ public class HiveConnectionService {
     }
 
     private Connection openConnection(String url, java.util.Properties props) throws SQLException {
+        String scheme = urlScheme(url);
+        ResolvedDriver resolved = scheme != null ? resolvedDrivers.get(scheme) : null;
+        if (resolved == null && scheme != null) {
+            try {
+                resolved = new ResolvedDriver(DriverManager.getDriver(url), scheme);
+                resolvedDrivers.put(scheme, resolved);
+            } catch (SQLException noSuitableDriver) {
+                // 交由下方的驱动枚举与厂商 URL 兼容逻辑处理
+            }
+        }
+        if (resolved != null) {
+            try {
+                java.sql.DriverManager.setLoginTimeout(Math.max(1, loginTimeoutSeconds));
+            } catch (Throwable ignored) {}
+            // 外部驱动在连接时会按线程上下文类加载器加载 Hadoop/Kerberos 类，与下方枚举路径保持一致
+            ClassLoader driverLoader = jdbcDriverLoader;
+            ClassLoader previousLoader = Thread.currentThread().getContextClassLoader();
+            boolean switchedLoader = false;
+            if (driverLoader != null && previousLoader != driverLoader) {
+                try {
+                    Thread.currentThread().setContextClassLoader(driverLoader);
+                    switchedLoader = true;
+                } catch (SecurityException ignored) {}
+            }
+            Connection connection;
+            try {
+                connection = resolved.driver().connect(resolved.rewrite(url, scheme), props != null ? props : new java.util.Properties());
+            } finally {
+                if (switchedLoader) {
+                    try {
+                        Thread.currentThread().setContextClassLoader(previousLoader);
+                    } catch (SecurityException ignored) {}
+                }
+            }
+            if (connection != null) {
+                return connection;
+            }
+            resolvedDrivers.remove(scheme, resolved);
+        }
         try {
             try {
                 java.sql.DriverManager.setLoginTimeout(Math.max(1, loginTimeoutSeconds));
@@ -531,7 +608,10 @@ public class HiveConnectionService {
                         if (d.acceptsURL(url)) {
                             log.info("Using driver {} to connect", d.getClass().getName());
                             Connection c = d.connect(url, props);
-                            if (c != null) return c;
+                            if (c != null) {
+                                rememberDriver(url, d, url);
+                                return c;
+                            }
                         }
                     } catch (Throwable ignored) {}
                 }
@@ -550,7 +630,10 @@ public class HiveConnectionService {
                                         java.sql.DriverManager.setLoginTimeout(Math.max(1, loginTimeoutSeconds));
                                     } catch (Throwable ignored) {}
                                     Connection c = d.connect(candidate, props);
-                                    if (c != null) return c;
+                                    if (c != null) {
+                                        rememberDriver(url, d, candidate);
+                                        return c;
+                                    }
                                 }
                             } catch (Throwable ignored) {}
                         }
@@ -577,6 +660,32 @@ public class HiveConnectionService {
         }
     }
 
+    private void rememberDriver(String url, Driver driver, String connectedUrl) {
+        String scheme = urlScheme(url);
+        String targetScheme = urlScheme(connectedUrl);
+        if (scheme != null && targetScheme != null) {
+            resolvedDrivers.put(scheme, new ResolvedDriver(driver, targetScheme));
+        }
+    }
+
+    /** jdbc:hive2://host... → jdbc:hive2: */
+    private static String urlScheme(String url) {
+        if (url == null) {
+            return null;
+        }
+        int idx = url.indexOf("//");
+        return idx > 0 ? url.substring(0, idx) : null;
+    }
+
+    /**
+     * 已确认可用的驱动；targetScheme 与原协议不同时表示需要改写为厂商别名（如 jdbc:inceptor2:）。
+     */
+    private record ResolvedDriver(Driver driver, String targetScheme) {
+        String rewrite(String url, String scheme) {
+            return scheme.equals(targetScheme) ? url : targetScheme + url.substring(scheme.length());
+        }
+    }
+
     private void registerExternalDriver(java.sql.Driver driver) throws SQLException {
         String driverName = driver.getClass().getName();
         ClassLoader loader = driver.getClass().getClassLoader();
@@ -1,14 +1,11 @@
 package com.yuzhi.dts.platform.service.infra;
 
+import com.yuzhi.dts.common.observability.OperationMetrics;
 import com.yuzhi.dts.platform.domain.catalog.CatalogColumnSchema;
 import com.yuzhi.dts.platform.domain.catalog.CatalogDataset;
 import com.yuzhi.dts.platform.domain.catalog.CatalogTableSchema;
 import com.yuzhi.dts.platform.repository.catalog.CatalogColumnSchemaRepository;
-import com.yuzhi.dts.platform.repository.catalog.CatalogDatasetGrantRepository;
-import com.yuzhi.dts.platform.repository.catalog.CatalogDatasetJobRepository;
 import com.yuzhi.dts.platform.repository.catalog.CatalogDatasetRepository;
-import com.yuzhi.dts.platform.repository.catalog.CatalogMaskingRuleRepository;
-import com.yuzhi.dts.platform.repository.catalog.CatalogRowFilterRuleRepository;
 import com.yuzhi.dts.platform.repository.catalog.CatalogTableSchemaRepository;
 import com.yuzhi.dts.platform.service.infra.InceptorDataSourceRegistry.InceptorDataSourceState;
 import com.yuzhi.dts.platform.web.rest.infra.HiveConnectionTestRequest;
@@ -26,6 +23,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
@@ -49,12 +47,10 @@ public class InceptorCatalogSyncService {
     private final CatalogDatasetRepository datasetRepository;
     private final CatalogTableSchemaRepository tableRepository;
     private final CatalogColumnSchemaRepository columnRepository;
-    private final CatalogRowFilterRuleRepository rowFilterRepository;
-    private final CatalogMaskingRuleRepository maskingRuleRepository;
-    private final CatalogDatasetGrantRepository datasetGrantRepository;
-    private final CatalogDatasetJobRepository datasetJobRepository;
+    private final CatalogDatasetReaper datasetReaper;
     private final PostgresCatalogSyncService postgresCatalogSyncService;
     private final com.yuzhi.dts.platform.config.CatalogFeatureProperties catalogFeatureProperties;
+    private final OperationMetrics operationMetrics;
 
     @Value("${dts.jdbc.statement-timeout-seconds:30}")
     private int statementTimeoutSeconds;
@@ -65,27 +61,44 @@ public class InceptorCatalogSyncService {
         CatalogDatasetRepository datasetRepository,
         CatalogTableSchemaRepository tableRepository,
         CatalogColumnSchemaRepository columnRepository,
-        CatalogRowFilterRuleRepository rowFilterRepository,
-        CatalogMaskingRuleRepository maskingRuleRepository,
-        CatalogDatasetGrantRepository datasetGrantRepository,
-        CatalogDatasetJobRepository datasetJobRepository,
+        CatalogDatasetReaper datasetReaper,
         PostgresCatalogSyncService postgresCatalogSyncService,
-        com.yuzhi.dts.platform.config.CatalogFeatureProperties catalogFeatureProperties
+        com.yuzhi.dts.platform.config.CatalogFeatureProperties catalogFeatureProperties,
+        OperationMetrics operationMetrics
     ) {
         this.registry = registry;
         this.connectionService = connectionService;
         this.datasetRepository = datasetRepository;
         this.tableRepository = tableRepository;
         this.columnRepository = columnRepository;
-        this.rowFilterRepository = rowFilterRepository;
-        this.maskingRuleRepository = maskingRuleRepository;
-        this.datasetGrantRepository = datasetGrantRepository;
-        this.datasetJobRepository = datasetJobRepository;
+        this.datasetReaper = datasetReaper;
         this.postgresCatalogSyncService = postgresCatalogSyncService;
         this.catalogFeatureProperties = catalogFeatureProperties;
+        this.operationMetrics = operationMetrics;
     }
 
     public CatalogSyncResult synchronize() {
+        String datasource = registry.getActive().map(state -> OperationMetrics.datasourceOf(state.jdbcUrl())).orElse(OperationMetrics.UNKNOWN);
+        OperationMetrics.Span span = operationMetrics.start("catalog.sync", datasource);
+        try {
+            CatalogSyncResult result = synchronize(span);
+            if (result.error() != null) {
+                span.failed();
+            }
+            operationMetrics.increment("dts.catalog.sync.tables", result.tablesDiscovered(), "datasource", datasource);
+            if (result.changedDatasetIds() != null) {
+                operationMetrics.increment("dts.catalog.sync.datasets.changed", result.changedDatasetIds().size(), "datasource", datasource);
+            }
+            return result;
+        } catch (RuntimeException ex) {
+            span.failed();
+            throw ex;
+        } finally {
+            span.close();
+        }
+    }
+
+    private CatalogSyncResult synchronize(OperationMetrics.Span span) {
         if (catalogFeatureProperties != null && !catalogFeatureProperties.isInceptorSyncEnabled()) {
             LOG.info("Inceptor catalog synchronization disabled via configuration. Using PostgreSQL metadata instead.");
             if (postgresCatalogSyncService != null && postgresCatalogSyncService.isFallbackActive()) {
@@ -109,6 +122,7 @@ public class InceptorCatalogSyncService {
         Map<String, List<ColumnMeta>> metadata;
         try {
             metadata = fetchMetadata(state, database);
+            span.mark("fetch_metadata");
         } catch (Exception ex) {
             if (isKerberosUnavailable(ex)) {
                 LOG.warn(
@@ -130,7 +144,8 @@ public class InceptorCatalogSyncService {
         }
 
         if (metadata.isEmpty()) {
-            int datasetsRemoved = cleanupStaleDatasets(database, Collections.emptySet());
+            Set<UUID> removedIds = new HashSet<>();
+            int datasetsRemoved = cleanupStaleDatasets(database, Collections.emptySet(), removedIds);
             LOG.info(
                 "Catalog sync completed: no tables discovered in database {} (removed {} stale dataset(s))",
                 database,
@@ -140,7 +155,7 @@ public class InceptorCatalogSyncService {
                 LOG.info("Delegating to PostgreSQL catalog sync because Inceptor returned zero tables");
                 return postgresCatalogSyncService.synchronize();
             }
-            return new CatalogSyncResult(database, 0, 0, 0, 0, Collections.emptyList(), null);
+            return new CatalogSyncResult(database, 0, 0, 0, 0, Collections.emptyList(), null, removedIds);
         }
 
         int datasetsCreated = 0;
@@ -148,6 +163,7 @@ public class InceptorCatalogSyncService {
         int tablesCreated = 0;
         int columnsImported = 0;
         List<String> processedTables = new ArrayList<>(metadata.size());
+        Set<UUID> changedDatasetIds = new HashSet<>();
 
         for (Map.Entry<String, List<ColumnMeta>> entry : metadata.entrySet()) {
             String tableName = entry.getKey();
@@ -193,8 +209,8 @@ public class InceptorCatalogSyncService {
                 tablesCreated++;
             }
 
-            Map<String, String> legacyComments = columnRepository
-                .findByTable(tableSchema)
+            List<CatalogColumnSchema> existingColumns = isNewTable ? List.of() : columnRepository.findByTable(tableSchema);
+            Map<String, String> legacyComments = existingColumns
                 .stream()
                 .filter(existing -> existing.getName() != null && StringUtils.hasText(existing.getComment()))
                 .collect(
@@ -206,27 +222,32 @@ public class InceptorCatalogSyncService {
                     )
                 );
 
-            columnRepository.deleteByTable(tableSchema);
-            if (!columns.isEmpty()) {
-                List<CatalogColumnSchema> columnEntities = new ArrayList<>(columns.size());
-                for (ColumnMeta column : columns) {
-                    CatalogColumnSchema entity = new CatalogColumnSchema();
-                    entity.setTable(tableSchema);
-                    entity.setName(column.name());
-                    entity.setDataType(column.dataType());
-                    entity.setNullable(column.nullable());
-                    String comment = column.comment();
-                    if (!StringUtils.hasText(comment)) {
-                        comment = legacyComments.getOrDefault(column.name().toLowerCase(Locale.ROOT), null);
-                    }
-                    entity.setComment(comment);
-                    columnEntities.add(entity);
+            List<CatalogColumnSchema> columnEntities = new ArrayList<>(columns.size());
+            for (ColumnMeta column : columns) {
+                CatalogColumnSchema entity = new CatalogColumnSchema();
+                entity.setTable(tableSchema);
+                entity.setName(column.name());
+                entity.setDataType(column.dataType());
+                entity.setNullable(column.nullable());
+                String comment = column.comment();
+                if (!StringUtils.hasText(comment)) {
+                    comment = legacyComments.getOrDefault(column.name().toLowerCase(Locale.ROOT), null);
+                }
+                entity.setComment(comment);
+                columnEntities.add(entity);
+            }
+            // 列结构未变化时保留现有记录，避免无意义的删除重建与下游缓存失效
+            if (isNewDataset || isNewTable || !sameColumns(existingColumns, columnEntities)) {
+                columnRepository.deleteByTable(tableSchema);
+                if (!columnEntities.isEmpty()) {
+                    columnRepository.saveAll(columnEntities);
                 }
-                columnRepository.saveAll(columnEntities);
                 columnsImported += columnEntities.size();
+                changedDatasetIds.add(dataset.getId());
             }
         }
 
+        span.mark("upsert");
         LOG.info(
             "Catalog sync completed: db={}, tables={}, newDatasets={}, updatedDatasets={}, tablesCreated={}, columnsImported={}",
             database,
@@ -242,7 +263,8 @@ public class InceptorCatalogSyncService {
             .filter(Objects::nonNull)
             .map(name -> name.trim().toLowerCase(Locale.ROOT))
             .collect(Collectors.toCollection(HashSet::new));
-        int datasetsRemoved = cleanupStaleDatasets(database, processedLower);
+        int datasetsRemoved = cleanupStaleDatasets(database, processedLower, changedDatasetIds);
+        span.mark("cleanup");
         if (datasetsRemoved > 0) {
             LOG.info("Catalog sync cleanup: removed {} stale datasets in database {}", datasetsRemoved, database);
         }
@@ -253,10 +275,30 @@ public class InceptorCatalogSyncService {
             tablesCreated,
             columnsImported,
             processedTables,
-            null
+            null,
+            changedDatasetIds
         );
     }
 
+    private boolean sameColumns(List<CatalogColumnSchema> existing, List<CatalogColumnSchema> incoming) {
+        if (existing.size() != incoming.size()) {
+            return false;
+        }
+        for (int i = 0; i < existing.size(); i++) {
+            CatalogColumnSchema left = existing.get(i);
+            CatalogColumnSchema right = incoming.get(i);
+            if (
+                !Objects.equals(left.getName(), right.getName()) ||
+                !Objects.equals(left.getDataType(), right.getDataType()) ||
+                !Objects.equals(left.getNullable(), right.getNullable()) ||
+                !Objects.equals(left.getComment(), right.getComment())
+            ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private Map<String, List<ColumnMeta>> fetchMetadata(InceptorDataSourceState state, String database) throws Exception {
         HiveConnectionTestRequest request = buildRequest(state);
         return connectionService.executeWithConnection(request, (connection, connectStart) -> {
@@ -419,12 +461,15 @@ public class InceptorCatalogSyncService {
 
     private record ColumnMeta(String name, String dataType, boolean nullable, String comment) {}
 
-    private int cleanupStaleDatasets(String database, Set<String> processedTablesLower) {
+    /**
+     * 标记上游已不存在的数据集；物理删除由 {@link CatalogDatasetReaper} 在同步事务之外分块完成。
+     */
+    private int cleanupStaleDatasets(String database, Set<String> processedTablesLower, Set<UUID> removedIds) {
         List<CatalogDataset> existingDatasets = datasetRepository.findByHiveDatabaseIgnoreCase(database);
         if (existingDatasets.isEmpty()) {
             return 0;
         }
-        int removed = 0;
+        List<UUID> staleIds = new ArrayList<>();
         for (CatalogDataset dataset : existingDatasets) {
             if (dataset.getId() == null) {
                 continue;
@@ -440,38 +485,13 @@ public class InceptorCatalogSyncService {
             if (processedTablesLower.contains(tableName.trim().toLowerCase(Locale.ROOT))) {
                 continue;
             }
-            purgeDataset(dataset);
-            removed++;
+            staleIds.add(dataset.getId());
         }
-        return removed;
-    }
-
-    private void purgeDataset(CatalogDataset dataset) {
-        try {
-            var rowFilters = rowFilterRepository.findByDataset(dataset);
-            if (!rowFilters.isEmpty()) {
-                rowFilterRepository.deleteAll(rowFilters);
-            }
-            var maskingRules = maskingRuleRepository.findByDataset(dataset);
-            if (!maskingRules.isEmpty()) {
-                maskingRuleRepository.deleteAll(maskingRules);
-            }
-            if (dataset.getId() != null) {
-                datasetGrantRepository.deleteByDatasetId(dataset.getId());
-            }
-            datasetJobRepository.deleteByDataset(dataset);
-            List<CatalogTableSchema> tables = tableRepository.findByDataset(dataset);
-            for (CatalogTableSchema tableSchema : tables) {
-                columnRepository.deleteByTable(tableSchema);
-            }
-            if (!tables.isEmpty()) {
-                tableRepository.deleteAll(tables);
-            }
-            datasetRepository.delete(dataset);
-        } catch (Exception ex) {
-            LOG.warn("Failed to purge stale dataset {}({}): {}", dataset.getName(), dataset.getId(), ex.getMessage());
-            LOG.debug("Purge dataset stack", ex);
+        if (staleIds.isEmpty()) {
+            return 0;
         }
+        removedIds.addAll(staleIds);
+        return datasetReaper.markStale(staleIds);
     }
 
     public record CatalogSyncResult(
@@ -481,14 +501,27 @@ public class InceptorCatalogSyncService {
         int tablesCreated,
         int columnsImported,
         List<String> tableNames,
-        String error
+        String error,
+        Set<UUID> changedDatasetIds
     ) {
+        public CatalogSyncResult(
+            String database,
+            int tablesDiscovered,
+            int datasetsCreated,
+            int tablesCreated,
+            int columnsImported,
+            List<String> tableNames,
+            String error
+        ) {
+            this(database, tablesDiscovered, datasetsCreated, tablesCreated, columnsImported, tableNames, error, null);
+        }
+
         public static CatalogSyncResult inactive() {
-            return new CatalogSyncResult(null, 0, 0, 0, 0, Collections.emptyList(), null);
+            return new CatalogSyncResult(null, 0, 0, 0, 0, Collections.emptyList(), null, Set.of());
         }
 
         public static CatalogSyncResult failed(String error) {
-            return new CatalogSyncResult(null, 0, 0, 0, 0, Collections.emptyList(), error);
+            return new CatalogSyncResult(null, 0, 0, 0, 0, Collections.emptyList(), error, Set.of());
         }
     }
 }
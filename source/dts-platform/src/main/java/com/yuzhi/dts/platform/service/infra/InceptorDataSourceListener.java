@@ -0,0 +1,13 @@
+package com.yuzhi.dts.platform.service.infra;
+
+import com.yuzhi.dts.platform.service.infra.InceptorDataSourceRegistry.DataSourceChange;
+
+/**
+ * 数据源注册中心的变更监听：只有某个数据源的定义真正变化（新增、修改、下线）时才回调，
+ * 心跳状态更新与内容未变的刷新不会触发。
+ * <p>
+ * 回调在注册中心发布新快照之后、于刷新线程内按顺序执行，实现方应只做轻量的失效/重建标记，耗时工作自行异步。
+ */
+public interface InceptorDataSourceListener {
+    void onDataSourceChanged(DataSourceChange change);
+}
@@ -3,10 +3,12 @@ package com.yuzhi.dts.platform.service.infra;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yuzhi.dts.platform.config.HiveExecutionProperties;
+import com.yuzhi.dts.platform.config.InfraSecurityProperties;
 import com.yuzhi.dts.platform.domain.service.InfraDataSource;
 import com.yuzhi.dts.platform.repository.service.InfraDataSourceRepository;
 import com.yuzhi.dts.platform.service.infra.AdminInfraClient;
 import com.yuzhi.dts.platform.service.infra.AdminInfraClient.AdminInceptorConfig;
+import com.yuzhi.dts.platform.service.infra.dto.DataSourceHeartbeatDto;
 import com.yuzhi.dts.platform.service.infra.event.InceptorDataSourcePublishedEvent;
 import com.yuzhi.dts.platform.web.rest.infra.HiveConnectionTestRequest;
 import jakarta.annotation.PostConstruct;
@@ -14,23 +16,36 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Clock;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.dao.InvalidDataAccessResourceUsageException;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+/**
+ * Inceptor 数据源注册中心。
+ * <p>
+ * 所有已启用数据源的运行时状态保存在一份不可变快照中（按数据源 id 索引，并标记当前使用的数据源），
+ * 读取直接取 volatile 引用、不加锁；刷新与心跳在写锁内构建新快照后整体替换。定义未变的数据源沿用原状态对象，
+ * 只有真正变化的数据源才会通知 {@link InceptorDataSourceListener}，据此重建连接、缓存与同步任务。
+ * 凭据解密结果经 {@link DecryptedSecretCache} 短时复用，刷新不再每次解密。
+ */
 @Component
 public class InceptorDataSourceRegistry {
 
@@ -41,37 +56,42 @@ public class InceptorDataSourceRegistry {
     private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
 
     private final InfraDataSourceRepository repository;
-    private final InfraSecretService secretService;
     private final ObjectMapper objectMapper;
     private final HiveExecutionProperties hiveExecutionProperties;
     private final AdminInfraClient adminInfraClient;
     private final DataSource dataSource;
+    private final DecryptedSecretCache secretCache;
+    private final ObjectProvider<InceptorDataSourceListener> listeners;
 
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object writeLock = new Object();
     private final AtomicBoolean repositoryAvailable = new AtomicBoolean(true);
     private volatile Boolean tableAvailable;
 
-    private volatile InceptorDataSourceState cached;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
 
     public InceptorDataSourceRegistry(
         InfraDataSourceRepository repository,
         InfraSecretService secretService,
+        InfraSecurityProperties securityProperties,
         ObjectMapper objectMapper,
         HiveExecutionProperties hiveExecutionProperties,
         AdminInfraClient adminInfraClient,
-        DataSource dataSource
+        DataSource dataSource,
+        ObjectProvider<InceptorDataSourceListener> listeners
     ) {
         this.repository = repository;
-        this.secretService = secretService;
         this.objectMapper = objectMapper;
         this.hiveExecutionProperties = hiveExecutionProperties;
         this.adminInfraClient = adminInfraClient;
         this.dataSource = dataSource;
+        this.secretCache = new DecryptedSecretCache(secretService, securityProperties::getSecretCacheTtl, Clock.systemUTC());
+        this.listeners = listeners;
     }
 
     @PostConstruct
     public void initialize() {
-        refresh();
+        // 启动时尚无使用方持有旧状态，不通知监听器（监听器所在的 Bean 此时可能仍在创建）
+        refresh(false);
     }
 
     @EventListener
@@ -81,60 +101,107 @@ public class InceptorDataSourceRegistry {
     }
 
     public Optional<InceptorDataSourceState> getActive() {
-        lock.readLock().lock();
-        try {
-            return Optional.ofNullable(cached);
-        } finally {
-            lock.readLock().unlock();
+        return Optional.ofNullable(snapshot.active());
+    }
+
+    public Optional<InceptorDataSourceState> find(UUID id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(snapshot.sources().get(id));
+    }
+
+    public Collection<InceptorDataSourceState> getAll() {
+        return snapshot.sources().values();
+    }
+
+    /**
+     * 应用管理端推送的心跳结果：只更新对应数据源的运行状态，不重新读取配置与解密凭据，也不通知监听器。
+     *
+     * @return 是否命中已注册的数据源
+     */
+    public boolean applyHeartbeat(DataSourceHeartbeatDto heartbeat) {
+        if (heartbeat == null || heartbeat.id() == null) {
+            return false;
+        }
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            InceptorDataSourceState state = current.sources().get(heartbeat.id());
+            if (state == null) {
+                return false;
+            }
+            snapshot = current.with(
+                state.withHeartbeat(
+                    heartbeat.heartbeatStatus(),
+                    heartbeat.heartbeatFailureCount(),
+                    heartbeat.lastError(),
+                    heartbeat.lastHeartbeatAt()
+                )
+            );
+            LOG.info("Inceptor data source {} heartbeat updated to {}", state.id(), heartbeat.heartbeatStatus());
+            return true;
         }
     }
 
     public void refresh() {
-        lock.writeLock().lock();
+        refresh(true);
+    }
+
+    private void refresh(boolean notifyListeners) {
+        List<DataSourceChange> pending = new ArrayList<>();
+        synchronized (writeLock) {
+            refreshLocked(pending);
+        }
+        // 监听器会重建连接与缓存，可能较慢或回调注册中心，因此在释放写锁后再通知
+        if (notifyListeners) {
+            notifyListeners(pending);
+        }
+    }
+
+    private void refreshLocked(List<DataSourceChange> pending) {
         try {
             if (!repositoryAvailable.get()) {
-                if (loadFromAdmin("local repository unavailable")) {
+                if (loadFromAdmin("local repository unavailable", pending)) {
                     return;
                 }
-                clearCachedState("local infra repository unavailable");
+                clearCachedState("local infra repository unavailable", pending);
                 return;
             }
             if (!isTableAvailable()) {
                 repositoryAvailable.set(false);
-                if (loadFromAdmin("infra_data_source table not present")) {
+                if (loadFromAdmin("infra_data_source table not present", pending)) {
                     return;
                 }
                 LOG.info("Infra data source table not present; registry stays empty until Liquibase completes");
-                clearCachedState("infra_data_source table not present");
+                clearCachedState("infra_data_source table not present", pending);
                 return;
             }
-            Optional<InfraDataSource> optional = repository.findFirstByTypeIgnoreCaseAndStatusIgnoreCase(TYPE_INCEPTOR, STATUS_ACTIVE);
-            if (optional.isPresent()) {
-                applyEntity(optional.orElseThrow());
+            List<InfraDataSource> entities = repository
+                .findByTypeIgnoreCase(TYPE_INCEPTOR)
+                .stream()
+                .filter(entity -> STATUS_ACTIVE.equalsIgnoreCase(entity.getStatus()))
+                .toList();
+            if (!entities.isEmpty()) {
+                applyEntities(entities, pending);
                 return;
             }
-            if (loadFromAdmin("no local Inceptor data source")) {
+            if (loadFromAdmin("no local Inceptor data source", pending)) {
                 return;
             }
             LOG.info("No active Inceptor data source found. Clearing runtime registry state.");
-            clearCachedState("no active local or remote Inceptor data source");
+            clearCachedState("no active local or remote Inceptor data source", pending);
         } catch (InvalidDataAccessResourceUsageException ex) {
             repositoryAvailable.set(false);
             tableAvailable = Boolean.FALSE;
-            if (loadFromAdmin("infra_data_source table unavailable")) {
+            if (loadFromAdmin("infra_data_source table unavailable", pending)) {
                 return;
             }
             LOG.warn(
                 "Disabling Inceptor registry refresh: infra_data_source table unavailable ({})",
                 ex.getMostSpecificCause() != null ? ex.getMostSpecificCause().getMessage() : ex.getMessage()
             );
-            clearCachedState("infra_data_source table unavailable");
+            clearCachedState("infra_data_source table unavailable", pending);
             LOG.debug("Registry refresh failure stacktrace", ex);
         } catch (Exception ex) {
             LOG.warn("Failed to refresh Inceptor data source registry: {}", ex.getMessage());
             LOG.debug("Registry refresh failure stacktrace", ex);
-        } finally {
-            lock.writeLock().unlock();
         }
     }
 
@@ -167,31 +234,26 @@ public class InceptorDataSourceRegistry {
         }
     }
 
-    private void applyEntity(InfraDataSource entity) {
-        toState(entity)
-            .ifPresentOrElse(
-                state -> {
-                    cached = state;
-                    syncHiveExecutionProperties(state);
-                    LOG.info(
-                        "Updated Inceptor registry with data source {} (verified at {}).",
-                        state.id(),
-                        state.lastVerifiedAt()
-                    );
-                },
-                () -> {
-                    LOG.warn(
-                        "Active Inceptor data source {} is missing required credentials. Runtime services will stay disabled.",
-                        entity.getId()
-                    );
-                    clearCachedState("local data source missing credentials");
-                }
-            );
+    private void applyEntities(List<InfraDataSource> entities, List<DataSourceChange> pending) {
+        secretCache.retainOnly(entities.stream().map(InfraDataSource::getId).toList());
+        Map<UUID, InceptorDataSourceState> states = new LinkedHashMap<>();
+        for (InfraDataSource entity : entities) {
+            toState(entity)
+                .ifPresentOrElse(
+                    state -> states.put(state.id(), state),
+                    () ->
+                        LOG.warn(
+                            "Active Inceptor data source {} is missing required credentials. Runtime services will stay disabled for it.",
+                            entity.getId()
+                        )
+                );
+        }
+        publish(states, "local repository", pending);
     }
 
     private Optional<InceptorDataSourceState> toState(InfraDataSource entity) {
         Map<String, Object> props = readProps(entity.getProps());
-        Map<String, Object> secrets = secretService.readSecrets(entity);
+        Map<String, Object> secrets = secretCache.read(entity);
 
         HiveConnectionTestRequest.AuthMethod authMethod = resolveAuthMethod(props, secrets);
         String loginPrincipal = StringUtils.hasText(entity.getUsername()) ? entity.getUsername() : stringVal(props.get("loginPrincipal"));
@@ -410,25 +472,82 @@ public class InceptorDataSourceRegistry {
         return out;
     }
 
-    private void clearCachedState(String reason) {
-        cached = null;
-        syncHiveExecutionProperties(null);
+    private void clearCachedState(String reason, List<DataSourceChange> pending) {
+        secretCache.clear();
+        publish(Map.of(), reason, pending);
         LOG.debug("Cleared Inceptor registry cache ({})", reason);
     }
 
-    private boolean loadFromAdmin(String reason) {
+    private boolean loadFromAdmin(String reason, List<DataSourceChange> pending) {
         return adminInfraClient
             .fetchActiveInceptor()
             .flatMap(this::toState)
             .map(state -> {
-                cached = state;
-                syncHiveExecutionProperties(state);
-                LOG.info("Loaded Inceptor configuration from admin service ({})", reason);
+                secretCache.clear();
+                publish(Map.of(state.id(), state), "admin service (" + reason + ")", pending);
                 return true;
             })
             .orElse(false);
     }
 
+    /**
+     * 以新读取的状态替换快照：定义未变的数据源沿用原对象（保留心跳状态），当前使用的数据源尽量保持不变，
+     * 新增、修改与下线的数据源记入 {@code pending}，由调用方在释放写锁后通知监听器。调用方须持有写锁。
+     */
+    private void publish(Map<UUID, InceptorDataSourceState> loaded, String origin, List<DataSourceChange> pending) {
+        Snapshot previous = snapshot;
+        Map<UUID, InceptorDataSourceState> sources = new LinkedHashMap<>();
+        List<DataSourceChange> changes = new ArrayList<>();
+        loaded.forEach((id, state) -> {
+            InceptorDataSourceState existing = previous.sources().get(id);
+            if (existing != null && existing.sameDefinition(state)) {
+                sources.put(id, existing);
+            } else {
+                sources.put(id, state);
+                changes.add(new DataSourceChange(id, existing, state, false));
+            }
+        });
+        previous
+            .sources()
+            .forEach((id, existing) -> {
+                if (!sources.containsKey(id)) {
+                    changes.add(new DataSourceChange(id, existing, null, false));
+                }
+            });
+
+        UUID activeId = previous.activeId() != null && sources.containsKey(previous.activeId())
+            ? previous.activeId()
+            : sources.keySet().stream().findFirst().orElse(null);
+        Snapshot next = new Snapshot(Collections.unmodifiableMap(sources), activeId);
+        snapshot = next;
+
+        InceptorDataSourceState active = next.active();
+        if (active != previous.active()) {
+            syncHiveExecutionProperties(active);
+            if (active != null) {
+                LOG.info("Inceptor registry now uses data source {} from {} (verified at {}).", active.id(), origin, active.lastVerifiedAt());
+            }
+        }
+        for (DataSourceChange change : changes) {
+            boolean affectsActive = change.id().equals(previous.activeId()) || change.id().equals(activeId);
+            pending.add(affectsActive ? change.asActive() : change);
+        }
+    }
+
+    private void notifyListeners(List<DataSourceChange> changes) {
+        for (DataSourceChange event : changes) {
+            listeners
+                .orderedStream()
+                .forEach(listener -> {
+                    try {
+                        listener.onDataSourceChanged(event);
+                    } catch (RuntimeException ex) {
+                        LOG.warn("Inceptor data source listener {} failed for {}: {}", listener.getClass().getSimpleName(), event.id(), ex.getMessage());
+                    }
+                });
+        }
+    }
+
     private static String stringVal(Object value) {
         return value == null ? null : value.toString();
     }
@@ -497,6 +616,83 @@ public class InceptorDataSourceRegistry {
         Integer heartbeatFailureCount,
         String lastError
     ) {
+        public InceptorDataSourceState withHeartbeat(String status, Integer failureCount, String error, Instant heartbeatAt) {
+            return new InceptorDataSourceState(
+                id,
+                name,
+                description,
+                jdbcUrl,
+                loginPrincipal,
+                authMethod,
+                keytabBase64,
+                keytabFileName,
+                password,
+                krb5Conf,
+                jdbcProperties,
+                proxyUser,
+                servicePrincipal,
+                host,
+                port,
+                database,
+                useHttpTransport,
+                httpPath,
+                useSsl,
+                useCustomJdbc,
+                customJdbcUrl,
+                lastTestElapsedMillis,
+                engineVersion,
+                driverVersion,
+                lastVerifiedAt,
+                lastUpdatedAt,
+                heartbeatAt != null ? heartbeatAt : lastHeartbeatAt,
+                status,
+                failureCount,
+                error
+            );
+        }
+
+        /**
+         * 除心跳与最近错误等运行状态外，两份状态的配置是否完全一致。
+         */
+        public boolean sameDefinition(InceptorDataSourceState other) {
+            return other != null && withoutRuntimeStatus().equals(other.withoutRuntimeStatus());
+        }
+
+        private InceptorDataSourceState withoutRuntimeStatus() {
+            return new InceptorDataSourceState(
+                id,
+                name,
+                description,
+                jdbcUrl,
+                loginPrincipal,
+                authMethod,
+                keytabBase64,
+                keytabFileName,
+                password,
+                krb5Conf,
+                jdbcProperties,
+                proxyUser,
+                servicePrincipal,
+                host,
+                port,
+                database,
+                useHttpTransport,
+                httpPath,
+                useSsl,
+                useCustomJdbc,
+                customJdbcUrl,
+                lastTestElapsedMillis,
+                engineVersion,
+                driverVersion,
+                lastVerifiedAt,
+                lastUpdatedAt,
+                null,
+                null,
+                null,
+                null
+            );
+        }
+
         public boolean isUsable() {
             if (!StringUtils.hasText(jdbcUrl) || !StringUtils.hasText(loginPrincipal)) {
                 return false;
@@ -538,5 +734,58 @@ public class InceptorDataSourceRegistry {
             }
             return "未知原因";
         }
+
+        /** 凭据字段不出现在日志与异常信息中 */
+        @Override
+        public String toString() {
+            return (
+                "InceptorDataSourceState[id=" +
+                id +
+                ", name=" +
+                name +
+                ", jdbcUrl=" +
+                jdbcUrl +
+                ", loginPrincipal=" +
+                loginPrincipal +
+                ", authMethod=" +
+                authMethod +
+                ", database=" +
+                database +
+                ", heartbeatStatus=" +
+                heartbeatStatus +
+                "]"
+            );
+        }
+    }
+
+    /**
+     * 单个数据源的变更：previous 为空表示新增，current 为空表示下线；active 表示涉及变更前或变更后的当前数据源。
+     */
+    public record DataSourceChange(UUID id, InceptorDataSourceState previous, InceptorDataSourceState current, boolean active) {
+        public boolean added() {
+            return previous == null && current != null;
+        }
+
+        public boolean removed() {
+            return current == null;
+        }
+
+        DataSourceChange asActive() {
+            return new DataSourceChange(id, previous, current, true);
+        }
+    }
+
+    private record Snapshot(Map<UUID, InceptorDataSourceState> sources, UUID activeId) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), null);
+
+        InceptorDataSourceState active() {
+            return activeId == null ? null : sources.get(activeId);
+        }
+
+        Snapshot with(InceptorDataSourceState state) {
+            Map<UUID, InceptorDataSourceState> copy = new LinkedHashMap<>(sources);
+            copy.put(state.id(), state);
+            return new Snapshot(Collections.unmodifiableMap(copy), activeId);
+        }
     }
 }
@@ -2,54 +2,80 @@ package com.yuzhi.dts.platform.service.infra;
 
 import com.yuzhi.dts.platform.repository.catalog.CatalogDatasetRepository;
 import com.yuzhi.dts.platform.service.infra.InceptorCatalogSyncService.CatalogSyncResult;
-import com.yuzhi.dts.platform.service.infra.event.InceptorDataSourcePublishedEvent;
+import com.yuzhi.dts.platform.service.infra.InceptorDataSourceRegistry.DataSourceChange;
+import com.yuzhi.dts.platform.service.infra.event.CatalogSynchronizedEvent;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
-import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
+/**
+ * 目录同步协调：同一数据源同一时刻只运行一次同步（按数据源区分，互不阻塞），
+ * 当前数据源的定义发生变化时由注册中心通知并异步触发同步。
+ */
 @Component
-public class InceptorIntegrationCoordinator {
+public class InceptorIntegrationCoordinator implements InceptorDataSourceListener {
 
     private static final Logger LOG = LoggerFactory.getLogger(InceptorIntegrationCoordinator.class);
-    private static final String SQL_CATALOG_CACHE = "sqlCatalogTree";
+    /** 无可用 Inceptor 数据源时同步走 PostgreSQL 回退，单独占一个同步槽位 */
+    private static final String FALLBACK_SOURCE = "postgres";
 
-    private final CacheManager cacheManager;
     private final CatalogDatasetRepository datasetRepository;
     private final InceptorCatalogSyncService catalogSyncService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InceptorDataSourceRegistry registry;
     private final AtomicReference<IntegrationStatus> lastStatus = new AtomicReference<>(IntegrationStatus.empty());
-    private final AtomicBoolean syncing = new AtomicBoolean(false);
+    private final Set<String> syncingSources = ConcurrentHashMap.newKeySet();
 
     public InceptorIntegrationCoordinator(
-        @Nullable CacheManager cacheManager,
         CatalogDatasetRepository datasetRepository,
-        InceptorCatalogSyncService catalogSyncService
+        InceptorCatalogSyncService catalogSyncService,
+        ApplicationEventPublisher eventPublisher,
+        InceptorDataSourceRegistry registry
     ) {
-        this.cacheManager = cacheManager;
         this.datasetRepository = datasetRepository;
         this.catalogSyncService = catalogSyncService;
+        this.eventPublisher = eventPublisher;
+        this.registry = registry;
     }
 
     public IntegrationStatus synchronize(String reason) {
-        syncing.set(true);
-        List<String> actions = new ArrayList<>();
-        if (cacheManager != null) {
-            Cache cache = cacheManager.getCache(SQL_CATALOG_CACHE);
-            if (cache != null) {
-                cache.clear();
-                actions.add("Cleared sqlCatalogTree cache");
-            }
+        String source = currentSource();
+        if (!syncingSources.add(source)) {
+            LOG.info("Catalog sync for {} already in progress; skipping request ({})", source, reason);
+            IntegrationStatus current = lastStatus.get();
+            return new IntegrationStatus(
+                Instant.now(),
+                reason,
+                List.of("Skipped catalog sync (already in progress for " + source + ")"),
+                current.catalogDatasetCount(),
+                current.database(),
+                0,
+                0,
+                0,
+                0,
+                null
+            );
+        }
+        try {
+            return doSynchronize(reason);
+        } finally {
+            syncingSources.remove(source);
         }
+    }
+
+    private IntegrationStatus doSynchronize(String reason) {
+        List<String> actions = new ArrayList<>();
         CatalogSyncResult syncResult = catalogSyncService.synchronize();
         if (syncResult.error() != null) {
             actions.add("Sync error: " + syncResult.error());
@@ -86,16 +112,24 @@ public class InceptorIntegrationCoordinator {
             syncResult.error()
         );
         lastStatus.set(status);
+        if (syncResult.error() == null && syncResult.database() != null) {
+            eventPublisher.publishEvent(new CatalogSynchronizedEvent(reason, syncResult.database(), syncResult.changedDatasetIds()));
+        }
         LOG.info("Inceptor integration synchronized. reason={}, actions={}, datasets={}", reason, actions, datasetCount);
-        syncing.set(false);
         return status;
     }
 
-    @EventListener
-    public void handlePublished(InceptorDataSourcePublishedEvent event) {
+    /**
+     * 注册中心在当前数据源新增、定义变化或下线后回调；其他数据源的变化与未变化的重复发布不触发同步。
+     */
+    @Override
+    public void onDataSourceChanged(DataSourceChange change) {
+        if (!change.active()) {
+            return;
+        }
         // Avoid blocking the publishing request thread; run sync asynchronously.
-        if (syncing.get()) {
-            LOG.info("Inceptor publish event received but sync already in progress; skipping immediate re-sync");
+        if (isSyncInProgress()) {
+            LOG.info("Inceptor data source {} changed but a sync is already in progress; skipping immediate re-sync", change.id());
             return;
         }
         Thread t = new Thread(() -> {
@@ -113,8 +147,19 @@ public class InceptorIntegrationCoordinator {
         return lastStatus.get();
     }
 
+    /**
+     * @return 当前数据源（无 Inceptor 数据源时为 PostgreSQL 回退）是否正在同步
+     */
     public boolean isSyncInProgress() {
-        return syncing.get();
+        return syncingSources.contains(currentSource());
+    }
+
+    public boolean isSyncInProgress(UUID dataSourceId) {
+        return dataSourceId != null && syncingSources.contains(dataSourceId.toString());
+    }
+
+    private String currentSource() {
+        return registry.getActive().map(state -> state.id().toString()).orElse(FALLBACK_SOURCE);
     }
 
     /**
@@ -17,11 +17,16 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +43,35 @@ public class PostgresCatalogSyncService {
     private static final String DEFAULT_CLASSIFICATION = "INTERNAL";
     private static final String DEFAULT_OWNER = "system";
     private static final String DEFAULT_EXPOSED_BY = "VIEW";
+    private static final int WRITE_CHUNK_SIZE = 500;
+    private static final int METADATA_FETCH_SIZE = 5000;
+
+    private static final String TABLES_SQL =
+        """
+        SELECT table_name
+        FROM information_schema.tables
+        WHERE table_schema = ? AND table_type IN ('BASE TABLE', 'VIEW')
+        ORDER BY table_name
+        """;
+
+    /** 模式内全部列一次取回；注释按 (表 oid, 列序号) 关联 pg_description */
+    private static final String COLUMNS_SQL =
+        """
+        SELECT cols.table_name,
+               cols.column_name,
+               cols.data_type,
+               cols.is_nullable,
+               pgd.description AS column_comment
+        FROM information_schema.columns cols
+        LEFT JOIN pg_catalog.pg_namespace n
+            ON n.nspname = cols.table_schema
+        LEFT JOIN pg_catalog.pg_class c
+            ON c.relnamespace = n.oid AND c.relname = cols.table_name
+        LEFT JOIN pg_catalog.pg_description pgd
+            ON pgd.objoid = c.oid AND pgd.classoid = 'pg_catalog.pg_class'::regclass AND pgd.objsubid = cols.ordinal_position
+        WHERE cols.table_schema = ?
+        ORDER BY cols.table_name, cols.ordinal_position
+        """;
 
     private final InfraDataSourceRepository infraDataSourceRepository;
     private final CatalogDatasetRepository datasetRepository;
@@ -107,19 +141,50 @@ public class PostgresCatalogSyncService {
         int tablesCreated = 0;
         int columnsImported = 0;
         List<String> processedTables = new ArrayList<>(metadata.size());
+        Set<UUID> changedDatasetIds = new HashSet<>();
 
         CatalogDomain databaseDomain = resolveOrCreateDomain(schema);
 
+        // 目录侧现状一次取齐（数据集、表结构、列），在内存中与上游元数据比对
+        Map<String, CatalogDataset> datasetsByTable = new HashMap<>();
+        for (CatalogDataset existing : datasetRepository.findByHiveDatabaseIgnoreCase(schema)) {
+            if (StringUtils.hasText(existing.getHiveTable())) {
+                datasetsByTable.putIfAbsent(lower(existing.getHiveTable()), existing);
+            }
+        }
+        Map<UUID, Map<String, CatalogTableSchema>> tablesByDataset = new HashMap<>();
+        for (CatalogTableSchema existing : tableRepository.findByDatasetHiveDatabase(schema)) {
+            if (existing.getName() != null) {
+                tablesByDataset
+                    .computeIfAbsent(existing.getDataset().getId(), key -> new HashMap<>())
+                    .putIfAbsent(lower(existing.getName()), existing);
+            }
+        }
+        Map<UUID, List<CatalogColumnSchema>> columnsByTable = new HashMap<>();
+        for (CatalogColumnSchema existing : columnRepository.findByTableDatasetHiveDatabase(schema)) {
+            columnsByTable.computeIfAbsent(existing.getTable().getId(), key -> new ArrayList<>()).add(existing);
+        }
+
+        List<CatalogDataset> newDatasets = new ArrayList<>();
+        List<CatalogTableSchema> newTables = new ArrayList<>();
+        List<CatalogColumnSchema> columnInserts = new ArrayList<>();
+        List<UUID> columnDeletes = new ArrayList<>();
+
         for (Map.Entry<String, List<ColumnMeta>> entry : metadata.entrySet()) {
             String tableName = entry.getKey();
             List<ColumnMeta> columns = entry.getValue();
             processedTables.add(tableName);
 
-            CatalogDataset dataset = datasetRepository
-                .findFirstByHiveDatabaseIgnoreCaseAndHiveTableIgnoreCase(schema, tableName)
-                .orElseGet(CatalogDataset::new);
-            boolean isNewDataset = dataset.getId() == null;
-
+            CatalogDataset dataset = datasetsByTable.get(lower(tableName));
+            boolean isNewDataset = dataset == null;
+            if (isNewDataset) {
+                dataset = new CatalogDataset();
+                newDatasets.add(dataset);
+                datasetsCreated++;
+            } else {
+                datasetsUpdated++;
+            }
+            // 对已托管实体只在取值变化时才会产生 UPDATE
             dataset.setHiveDatabase(schema);
             dataset.setHiveTable(tableName);
             dataset.setType(TYPE_POSTGRES);
@@ -131,60 +196,55 @@ public class PostgresCatalogSyncService {
                 dataset.setDomain(databaseDomain);
             }
 
-            dataset = datasetRepository.save(dataset);
-            if (isNewDataset) {
-                datasetsCreated++;
-            } else {
-                datasetsUpdated++;
+            CatalogTableSchema tableSchema = isNewDataset
+                ? null
+                : tablesByDataset.getOrDefault(dataset.getId(), Map.of()).get(lower(tableName));
+            if (tableSchema == null) {
+                tableSchema = new CatalogTableSchema();
+                tableSchema.setDataset(dataset);
+                tableSchema.setName(tableName);
+                newTables.add(tableSchema);
+                tablesCreated++;
             }
-
-            final CatalogDataset currentDataset = dataset;
-            CatalogTableSchema tableSchema = tableRepository
-                .findFirstByDatasetAndNameIgnoreCase(currentDataset, tableName)
-                .orElseGet(() -> {
-                    CatalogTableSchema schemaEntity = new CatalogTableSchema();
-                    schemaEntity.setDataset(currentDataset);
-                    schemaEntity.setName(tableName);
-                    return schemaEntity;
-                });
-
-            boolean isNewTable = tableSchema.getId() == null;
             tableSchema.setOwner(defaultIfBlank(tableSchema.getOwner(), dataset.getOwner()));
             tableSchema.setClassification(defaultIfBlank(tableSchema.getClassification(), dataset.getClassification()));
-            tableSchema = tableRepository.save(tableSchema);
-            if (isNewTable) {
-                tablesCreated++;
-            }
 
-            columnRepository.deleteByTable(tableSchema);
-            if (!columns.isEmpty()) {
-                List<CatalogColumnSchema> columnEntities = new ArrayList<>(columns.size());
-                for (ColumnMeta column : columns) {
-                    CatalogColumnSchema entity = new CatalogColumnSchema();
-                    entity.setTable(tableSchema);
-                    entity.setName(column.name());
-                    entity.setDataType(column.dataType());
-                    entity.setNullable(column.nullable());
-                    entity.setComment(column.comment());
-                    columnEntities.add(entity);
-                }
-                columnRepository.saveAll(columnEntities);
-                columnsImported += columnEntities.size();
-            }
-            if (databaseDomain != null && dataset.getDomain() == null) {
-                dataset.setDomain(databaseDomain);
-                datasetRepository.save(dataset);
+            List<CatalogColumnSchema> existingColumns = tableSchema.getId() == null
+                ? List.of()
+                : columnsByTable.getOrDefault(tableSchema.getId(), List.of());
+            ColumnDiff diff = diffColumns(tableSchema, existingColumns, columns);
+            columnInserts.addAll(diff.inserts());
+            diff.deletes().forEach(column -> columnDeletes.add(column.getId()));
+            columnsImported += diff.inserts().size() + diff.updated();
+            if (!isNewDataset && diff.changed()) {
+                changedDatasetIds.add(dataset.getId());
             }
         }
 
+        // 批量写入：新实体 saveAll（JDBC 批量插入），移除的列按主键分块删除，其余变更由脏检查在提交时批量刷出
+        if (!newDatasets.isEmpty()) {
+            datasetRepository.saveAll(newDatasets);
+            newDatasets.forEach(dataset -> changedDatasetIds.add(dataset.getId()));
+        }
+        if (!newTables.isEmpty()) {
+            tableRepository.saveAll(newTables);
+        }
+        for (int from = 0; from < columnDeletes.size(); from += WRITE_CHUNK_SIZE) {
+            columnRepository.deleteAllByIdInBatch(columnDeletes.subList(from, Math.min(columnDeletes.size(), from + WRITE_CHUNK_SIZE)));
+        }
+        if (!columnInserts.isEmpty()) {
+            columnRepository.saveAll(columnInserts);
+        }
+
         LOG.info(
-            "PostgreSQL catalog sync completed: schema={}, tables={}, newDatasets={}, updatedDatasets={}, tablesCreated={}, columnsImported={}",
+            "PostgreSQL catalog sync completed: schema={}, tables={}, newDatasets={}, updatedDatasets={}, tablesCreated={}, columnsImported={}, changedDatasets={}",
             schema,
             metadata.size(),
             datasetsCreated,
             datasetsUpdated,
             tablesCreated,
-            columnsImported
+            columnsImported,
+            changedDatasetIds.size()
         );
         return new CatalogSyncResult(
             schema,
@@ -193,10 +253,65 @@ public class PostgresCatalogSyncService {
             tablesCreated,
             columnsImported,
             processedTables,
-            null
+            null,
+            changedDatasetIds
         );
     }
 
+    /**
+     * 按列名（忽略大小写）比对：已有列就地更新类型、可空与注释（上游无注释时保留目录中已有注释），
+     * 新列插入，上游已删除的列删除；列上的标签与敏感标记因此得以保留。
+     */
+    static ColumnDiff diffColumns(CatalogTableSchema table, List<CatalogColumnSchema> existing, List<ColumnMeta> incoming) {
+        Map<String, CatalogColumnSchema> remaining = new LinkedHashMap<>();
+        for (CatalogColumnSchema column : existing) {
+            if (column.getName() != null) {
+                remaining.putIfAbsent(lower(column.getName()), column);
+            }
+        }
+        List<CatalogColumnSchema> inserts = new ArrayList<>();
+        int updated = 0;
+        for (ColumnMeta meta : incoming) {
+            CatalogColumnSchema column = remaining.remove(lower(meta.name()));
+            if (column == null) {
+                column = new CatalogColumnSchema();
+                column.setTable(table);
+                column.setName(meta.name());
+                column.setDataType(meta.dataType());
+                column.setNullable(meta.nullable());
+                column.setComment(meta.comment());
+                inserts.add(column);
+                continue;
+            }
+            String comment = StringUtils.hasText(meta.comment()) ? meta.comment() : column.getComment();
+            if (
+                !meta.name().equals(column.getName()) ||
+                !meta.dataType().equals(column.getDataType()) ||
+                !Boolean.valueOf(meta.nullable()).equals(column.getNullable()) ||
+                !Objects.equals(comment, column.getComment())
+            ) {
+                column.setName(meta.name());
+                column.setDataType(meta.dataType());
+                column.setNullable(meta.nullable());
+                column.setComment(comment);
+                updated++;
+            }
+        }
+        List<CatalogColumnSchema> deletes = new ArrayList<>();
+        for (CatalogColumnSchema column : existing) {
+            if (column.getName() == null || remaining.get(lower(column.getName())) == column) {
+                deletes.add(column);
+            }
+        }
+        return new ColumnDiff(inserts, updated, deletes);
+    }
+
+    record ColumnDiff(List<CatalogColumnSchema> inserts, int updated, List<CatalogColumnSchema> deletes) {
+        boolean changed() {
+            return !inserts.isEmpty() || updated > 0 || !deletes.isEmpty();
+        }
+    }
+
     private String resolveSchema() {
         String configured = Optional
             .ofNullable(catalogFeatureProperties.getPostgresSchema())
@@ -218,80 +333,72 @@ public class PostgresCatalogSyncService {
         return configured;
     }
 
+    /**
+     * 两次整体读取：先列出模式下全部表/视图（保留无列的表），再一次取回全部列及其注释，按表分组。
+     */
     private Map<String, List<ColumnMeta>> fetchMetadata(String schema) throws SQLException {
         Map<String, List<ColumnMeta>> result = new LinkedHashMap<>();
-        String tableSql =
-            """
-            SELECT table_name
-            FROM information_schema.tables
-            WHERE LOWER(table_schema) = LOWER(?) AND table_type IN ('BASE TABLE', 'VIEW')
-            ORDER BY table_name
-            """;
-        try (Connection connection = dataSource.getConnection(); PreparedStatement stmt = connection.prepareStatement(tableSql)) {
-            stmt.setString(1, schema);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    String table = rs.getString("table_name");
-                    if (StringUtils.hasText(table)) {
-                        List<ColumnMeta> columns = fetchColumns(connection, schema, table);
-                        result.put(table.trim(), columns);
+        Map<String, String> tableByLower = new HashMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement stmt = connection.prepareStatement(TABLES_SQL)) {
+                stmt.setString(1, schema);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        String table = rs.getString("table_name");
+                        if (StringUtils.hasText(table)) {
+                            String name = table.trim();
+                            result.put(name, new ArrayList<>());
+                            tableByLower.putIfAbsent(lower(name), name);
+                        }
                     }
                 }
             }
-        }
-        return result;
-    }
-
-    private List<ColumnMeta> fetchColumns(Connection connection, String schema, String table) throws SQLException {
-        String columnSql =
-            """
-            SELECT cols.column_name,
-                   cols.data_type,
-                   cols.is_nullable,
-                   pgd.description AS column_comment
-            FROM information_schema.columns cols
-            LEFT JOIN pg_catalog.pg_class c
-                ON c.relname = cols.table_name
-            LEFT JOIN pg_catalog.pg_namespace n
-                ON n.oid = c.relnamespace
-            LEFT JOIN pg_catalog.pg_description pgd
-                ON pgd.objoid = c.oid AND pgd.objsubid = cols.ordinal_position
-            WHERE LOWER(cols.table_schema) = LOWER(?) AND LOWER(cols.table_name) = LOWER(?)
-              AND (n.nspname IS NULL OR LOWER(n.nspname) = LOWER(cols.table_schema))
-            ORDER BY ordinal_position
-            """;
-        List<ColumnMeta> columns = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(columnSql)) {
-            stmt.setString(1, schema);
-            stmt.setString(2, table);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    String columnName = rs.getString("column_name");
-                    if (!StringUtils.hasText(columnName)) {
-                        continue;
+            if (result.isEmpty()) {
+                return result;
+            }
+            try (PreparedStatement stmt = connection.prepareStatement(COLUMNS_SQL)) {
+                stmt.setFetchSize(METADATA_FETCH_SIZE);
+                stmt.setString(1, schema);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        String table = rs.getString("table_name");
+                        String columnName = rs.getString("column_name");
+                        if (!StringUtils.hasText(table) || !StringUtils.hasText(columnName)) {
+                            continue;
+                        }
+                        String tableKey = tableByLower.get(lower(table.trim()));
+                        if (tableKey == null) {
+                            continue;
+                        }
+                        String dataType = defaultIfBlank(rs.getString("data_type"), "text");
+                        String nullable = rs.getString("is_nullable");
+                        String columnComment = rs.getString("column_comment");
+                        result
+                            .get(tableKey)
+                            .add(
+                                new ColumnMeta(
+                                    columnName.trim(),
+                                    dataType.toLowerCase(Locale.ROOT),
+                                    !"NO".equalsIgnoreCase(nullable),
+                                    StringUtils.hasText(columnComment) ? columnComment.trim() : null
+                                )
+                            );
                     }
-                    String dataType = defaultIfBlank(rs.getString("data_type"), "text");
-                    String nullable = rs.getString("is_nullable");
-                    String columnComment = rs.getString("column_comment");
-                    columns.add(
-                        new ColumnMeta(
-                            columnName.trim(),
-                            dataType.toLowerCase(Locale.ROOT),
-                            !"NO".equalsIgnoreCase(nullable),
-                            StringUtils.hasText(columnComment) ? columnComment.trim() : null
-                        )
-                    );
                 }
             }
         }
-        return columns;
+        return result;
     }
 
-    private String defaultIfBlank(String current, String fallback) {
+    private static String defaultIfBlank(String current, String fallback) {
         return StringUtils.hasText(current) ? current : fallback;
     }
 
-    private record ColumnMeta(String name, String dataType, boolean nullable, String comment) {}
+    private static String lower(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    record ColumnMeta(String name, String dataType, boolean nullable, String comment) {}
 
     private CatalogDomain resolveOrCreateDomain(String schema) {
         try {
@@ -0,0 +1,15 @@
+package com.yuzhi.dts.platform.service.infra.event;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 目录同步完成后发布，供依赖目录/数据的缓存失效。
+ *
+ * @param changedDatasetIds 本次同步新增、变更或删除的数据集；为 {@code null} 表示无法确定，需整体失效
+ */
+public record CatalogSynchronizedEvent(String reason, String database, Set<UUID> changedDatasetIds) {
+    public CatalogSynchronizedEvent(String reason, String database) {
+        this(reason, database, null);
+    }
+}
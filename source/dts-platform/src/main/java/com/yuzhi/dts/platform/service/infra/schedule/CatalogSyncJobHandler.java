@@ -0,0 +1,35 @@
+package com.yuzhi.dts.platform.service.infra.schedule;
+
+import com.yuzhi.dts.platform.service.infra.InceptorIntegrationCoordinator;
+import com.yuzhi.dts.platform.service.infra.InceptorIntegrationCoordinator.IntegrationStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * CATALOG_SYNC：按计划同步数据源元数据到数据目录。
+ */
+@Component
+public class CatalogSyncJobHandler implements ScheduledJobHandler {
+
+    private final InceptorIntegrationCoordinator coordinator;
+
+    public CatalogSyncJobHandler(InceptorIntegrationCoordinator coordinator) {
+        this.coordinator = coordinator;
+    }
+
+    @Override
+    public String jobType() {
+        return "CATALOG_SYNC";
+    }
+
+    @Override
+    public String run(ScheduledJobContext context) {
+        if (coordinator.isSyncInProgress()) {
+            return "目录同步正在进行，本次跳过";
+        }
+        IntegrationStatus status = coordinator.synchronize("schedule:" + context.scheduleName());
+        if (status.error() != null) {
+            throw new IllegalStateException(status.error());
+        }
+        return String.join("; ", status.actions());
+    }
+}
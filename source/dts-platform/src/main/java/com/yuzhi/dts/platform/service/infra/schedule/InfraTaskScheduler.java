@@ -0,0 +1,362 @@
+package com.yuzhi.dts.platform.service.infra.schedule;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuzhi.dts.platform.config.InfraSchedulerProperties;
+import com.yuzhi.dts.platform.domain.service.InfraTaskRun;
+import com.yuzhi.dts.platform.domain.service.InfraTaskSchedule;
+import com.yuzhi.dts.platform.repository.service.InfraTaskRunRepository;
+import com.yuzhi.dts.platform.repository.service.InfraTaskScheduleRepository;
+import com.yuzhi.dts.platform.service.util.ServiceUtils;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+/**
+ * 执行 InfraTaskSchedule 中配置的计划任务。
+ * <ul>
+ *     <li>每个节点定期轮询到期计划，通过条件更新 nextRunAt 并写入租约抢占执行权，集群内同一次触发只有一个节点执行；</li>
+ *     <li>执行期间每次轮询为本节点正在执行的计划续租；节点失联后租约过期，遗留的 RUNNING 记录由任一节点标记为 FAILED；</li>
+ *     <li>按任务类型限制本节点并发，超出上限的触发记为 SKIPPED；</li>
+ *     <li>错过的触发按 misfirePolicy 补跑一次（FIRE_ONCE）或跳过（SKIP）；</li>
+ *     <li>定时、补偿与手动触发均写入 infra_task_run 执行记录。</li>
+ * </ul>
+ */
+@Service
+public class InfraTaskScheduler {
+
+    public static final String TRIGGER_CRON = "CRON";
+    public static final String TRIGGER_MISFIRE = "MISFIRE";
+    public static final String TRIGGER_MANUAL = "MANUAL";
+
+    static final String STATUS_RUNNING = "RUNNING";
+    static final String STATUS_SUCCESS = "SUCCESS";
+    static final String STATUS_FAILED = "FAILED";
+    static final String STATUS_SKIPPED = "SKIPPED";
+
+    private static final Logger log = LoggerFactory.getLogger(InfraTaskScheduler.class);
+    private static final Duration HISTORY_PURGE_INTERVAL = Duration.ofHours(1);
+    private static final int MESSAGE_LIMIT = 1024;
+    private static final String ABANDONED_MESSAGE = "执行节点失联，租约已过期";
+
+    private final InfraTaskScheduleRepository scheduleRepository;
+    private final InfraTaskRunRepository runRepository;
+    private final InfraSchedulerProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Map<String, ScheduledJobHandler> handlers;
+    private final ConcurrentMap<String, Semaphore> permits = new ConcurrentHashMap<>();
+    /** 本节点正在执行的计划 ID，轮询时据此续租。 */
+    private final Set<UUID> running = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newCachedThreadPool(new CustomizableThreadFactory("infra-task-"));
+    private final Clock clock;
+    private final String nodeId;
+    private volatile Instant lastHistoryPurge = Instant.EPOCH;
+
+    public InfraTaskScheduler(
+        InfraTaskScheduleRepository scheduleRepository,
+        InfraTaskRunRepository runRepository,
+        InfraSchedulerProperties properties,
+        ObjectMapper objectMapper,
+        List<ScheduledJobHandler> handlers
+    ) {
+        this.scheduleRepository = scheduleRepository;
+        this.runRepository = runRepository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.handlers = handlers
+            .stream()
+            .collect(Collectors.toMap(h -> h.jobType().toUpperCase(Locale.ROOT), Function.identity(), (a, b) -> a));
+        this.clock = Clock.systemUTC();
+        this.nodeId = ServiceUtils.resolveNodeId();
+    }
+
+    @Scheduled(fixedDelayString = "${dts.platform.scheduler.poll-interval:PT15S}", initialDelayString = "PT30S")
+    public void poll() {
+        Instant now = clock.instant();
+        // 手动触发不受 enabled 控制，续租始终进行
+        renewLeases(now);
+        if (!properties.isEnabled()) {
+            return;
+        }
+        failAbandonedRuns(now);
+        List<InfraTaskSchedule> schedules;
+        try {
+            schedules = scheduleRepository.findSchedulable();
+        } catch (RuntimeException ex) {
+            log.warn("InfraTaskScheduler skipped (table not ready?): {}", ex.getMessage());
+            return;
+        }
+        for (InfraTaskSchedule schedule : schedules) {
+            try {
+                pollOne(schedule, now);
+            } catch (RuntimeException ex) {
+                log.warn("Failed to evaluate schedule {}({}): {}", schedule.getName(), schedule.getId(), ex.getMessage());
+            }
+        }
+        purgeHistory(now);
+    }
+
+    private void pollOne(InfraTaskSchedule schedule, Instant now) {
+        ScheduledJobHandler handler = handlers.get(normalizeType(schedule.getJobType()));
+        if (handler == null) {
+            log.debug("No handler for job type {} (schedule {})", schedule.getJobType(), schedule.getName());
+            return;
+        }
+        CronExpression cron;
+        try {
+            cron = ScheduleCron.parse(schedule.getCron());
+        } catch (IllegalArgumentException ex) {
+            log.debug("Invalid cron '{}' on schedule {}: {}", schedule.getCron(), schedule.getName(), ex.getMessage());
+            return;
+        }
+        Instant next = ScheduleCron.next(cron, now, zone());
+        Instant due = schedule.getNextRunAt();
+        if (due == null) {
+            scheduleRepository.initNextRun(schedule.getId(), next);
+            return;
+        }
+        if (due.isAfter(now) || next == null) {
+            return;
+        }
+        if (!ScheduleCron.shouldFire(due, now, properties.getMisfireThreshold(), schedule.getMisfirePolicy())) {
+            if (scheduleRepository.advance(schedule.getId(), due, next) == 1) {
+                InfraTaskRun run = newRun(schedule, TRIGGER_MISFIRE, null, now);
+                finish(run, STATUS_SKIPPED, "错过计划时间 " + due + "，按 SKIP 策略跳过", now);
+            }
+            return;
+        }
+        Instant until = now.plus(properties.getLease());
+        if (scheduleRepository.claimDue(schedule.getId(), due, next, nodeId, until, now) != 1) {
+            return;
+        }
+        boolean missed = Duration.between(due, now).compareTo(properties.getMisfireThreshold()) > 0;
+        dispatch(schedule, handler, missed ? TRIGGER_MISFIRE : TRIGGER_CRON, null, now);
+    }
+
+    /**
+     * 手动触发：与定时触发共用租约，计划正在任一节点执行时拒绝。
+     */
+    public InfraTaskRun trigger(UUID scheduleId, String actor) {
+        InfraTaskSchedule schedule = scheduleRepository.findById(scheduleId).orElseThrow(() -> new IllegalArgumentException("计划任务不存在"));
+        ScheduledJobHandler handler = handlers.get(normalizeType(schedule.getJobType()));
+        if (handler == null) {
+            throw new IllegalArgumentException("不支持的任务类型: " + schedule.getJobType());
+        }
+        Instant now = clock.instant();
+        if (scheduleRepository.claimManual(scheduleId, nodeId, now.plus(properties.getLease()), now) != 1) {
+            throw new IllegalStateException("该计划任务正在执行，请稍后再试");
+        }
+        return dispatch(schedule, handler, TRIGGER_MANUAL, actor, now);
+    }
+
+    private void renewLeases(Instant now) {
+        Instant until = now.plus(properties.getLease());
+        for (UUID scheduleId : running) {
+            try {
+                if (scheduleRepository.renewLease(scheduleId, nodeId, until) != 1) {
+                    log.warn("Lease on schedule {} is no longer held by this node", scheduleId);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Failed to renew lease on schedule {}: {}", scheduleId, ex.getMessage());
+            }
+        }
+    }
+
+    private void failAbandonedRuns(Instant now) {
+        try {
+            int failed = runRepository.failAbandoned(now, ABANDONED_MESSAGE);
+            if (failed > 0) {
+                log.warn("Marked {} abandoned scheduled job run(s) as FAILED", failed);
+            }
+        } catch (RuntimeException ex) {
+            log.debug("Failed to sweep abandoned scheduled job runs: {}", ex.getMessage());
+        }
+    }
+
+    public List<InfraTaskRun> history(UUID scheduleId, int limit) {
+        return runRepository.findByScheduleIdOrderByStartedAtDesc(scheduleId, PageRequest.of(0, Math.max(1, Math.min(limit, 200))));
+    }
+
+    public Set<String> jobTypes() {
+        return Collections.unmodifiableSet(new TreeSet<>(handlers.keySet()));
+    }
+
+    /**
+     * 保存前校验 cron、任务类型与错过策略，并规范化写入值；修改 cron 后下次执行时间重新计算。
+     */
+    public void validate(InfraTaskSchedule schedule) {
+        if (StringUtils.hasText(schedule.getJobType())) {
+            String type = normalizeType(schedule.getJobType());
+            if (!handlers.containsKey(type)) {
+                throw new IllegalArgumentException("不支持的任务类型: " + schedule.getJobType() + "，可选 " + jobTypes());
+            }
+            schedule.setJobType(type);
+            ScheduleCron.parse(schedule.getCron());
+        }
+        String policy = ScheduleCron.normalizePolicy(schedule.getMisfirePolicy());
+        if (!ScheduleCron.MISFIRE_FIRE_ONCE.equals(policy) && !ScheduleCron.MISFIRE_SKIP.equals(policy)) {
+            throw new IllegalArgumentException("misfirePolicy 仅支持 FIRE_ONCE 或 SKIP");
+        }
+        schedule.setMisfirePolicy(policy);
+        if (StringUtils.hasText(schedule.getParameters())) {
+            parseParameters(schedule.getParameters());
+        }
+        schedule.setNextRunAt(null);
+    }
+
+    private InfraTaskRun dispatch(InfraTaskSchedule schedule, ScheduledJobHandler handler, String trigger, String actor, Instant now) {
+        InfraTaskRun run = newRun(schedule, trigger, actor, now);
+        Semaphore semaphore = permits.computeIfAbsent(handler.jobType().toUpperCase(Locale.ROOT), this::newSemaphore);
+        if (!semaphore.tryAcquire()) {
+            scheduleRepository.unlock(schedule.getId(), nodeId);
+            return finish(run, STATUS_SKIPPED, "任务类型 " + handler.jobType() + " 已达到并发上限", now);
+        }
+        run.setStatus(STATUS_RUNNING);
+        InfraTaskRun saved = runRepository.save(run);
+        ScheduledJobContext context = new ScheduledJobContext(
+            schedule.getId(),
+            schedule.getName(),
+            trigger,
+            actor,
+            parseParametersQuietly(schedule)
+        );
+        running.add(schedule.getId());
+        try {
+            executor.execute(() -> execute(schedule.getId(), handler, context, saved, semaphore));
+        } catch (RejectedExecutionException ex) {
+            running.remove(schedule.getId());
+            semaphore.release();
+            scheduleRepository.unlock(schedule.getId(), nodeId);
+            return finish(saved, STATUS_FAILED, "调度线程池已关闭", now);
+        }
+        return saved;
+    }
+
+    private void execute(UUID scheduleId, ScheduledJobHandler handler, ScheduledJobContext context, InfraTaskRun run, Semaphore semaphore) {
+        long started = System.nanoTime();
+        String status = STATUS_SUCCESS;
+        String message;
+        try {
+            message = handler.run(context);
+        } catch (Exception ex) {
+            status = STATUS_FAILED;
+            message = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+            log.warn("Scheduled job {} ({}) failed: {}", context.scheduleName(), handler.jobType(), message);
+            log.debug("Scheduled job failure", ex);
+        } finally {
+            running.remove(scheduleId);
+            semaphore.release();
+        }
+        long durationMs = (System.nanoTime() - started) / 1_000_000L;
+        try {
+            run.setDurationMs(durationMs);
+            finish(run, status, message, run.getStartedAt().plusMillis(durationMs));
+            scheduleRepository.release(scheduleId, nodeId, run.getStartedAt(), status, durationMs);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to record run of schedule {}: {}", context.scheduleName(), ex.getMessage());
+        }
+        log.info("Scheduled job {} ({}) finished: status={}, duration={}ms", context.scheduleName(), handler.jobType(), status, durationMs);
+    }
+
+    private InfraTaskRun newRun(InfraTaskSchedule schedule, String trigger, String actor, Instant now) {
+        InfraTaskRun run = new InfraTaskRun();
+        run.setScheduleId(schedule.getId());
+        run.setScheduleName(schedule.getName());
+        run.setJobType(schedule.getJobType());
+        run.setTriggerType(trigger);
+        run.setTriggeredBy(actor);
+        run.setNode(nodeId);
+        run.setStartedAt(now);
+        return run;
+    }
+
+    private InfraTaskRun finish(InfraTaskRun run, String status, String message, Instant finishedAt) {
+        run.setStatus(status);
+        run.setFinishedAt(finishedAt);
+        if (run.getDurationMs() == null) {
+            run.setDurationMs(Math.max(0L, Duration.between(run.getStartedAt(), finishedAt).toMillis()));
+        }
+        run.setMessage(message != null && message.length() > MESSAGE_LIMIT ? message.substring(0, MESSAGE_LIMIT) : message);
+        return runRepository.save(run);
+    }
+
+    private void purgeHistory(Instant now) {
+        if (Duration.between(lastHistoryPurge, now).compareTo(HISTORY_PURGE_INTERVAL) < 0) {
+            return;
+        }
+        lastHistoryPurge = now;
+        try {
+            int removed = runRepository.deleteStartedBefore(now.minus(properties.getHistoryRetention()));
+            if (removed > 0) {
+                log.debug("Purged {} scheduled job run record(s)", removed);
+            }
+        } catch (RuntimeException ex) {
+            log.debug("Failed to purge scheduled job history: {}", ex.getMessage());
+        }
+    }
+
+    private Semaphore newSemaphore(String jobType) {
+        Integer configured = properties.getConcurrency().get(jobType);
+        int limit = configured != null ? configured : properties.getDefaultConcurrency();
+        return new Semaphore(Math.max(1, limit));
+    }
+
+    private Map<String, Object> parseParametersQuietly(InfraTaskSchedule schedule) {
+        if (!StringUtils.hasText(schedule.getParameters())) {
+            return Map.of();
+        }
+        try {
+            return parseParameters(schedule.getParameters());
+        } catch (IllegalArgumentException ex) {
+            log.warn("Ignoring invalid parameters on schedule {}: {}", schedule.getName(), ex.getMessage());
+            return Map.of();
+        }
+    }
+
+    private Map<String, Object> parseParameters(String json) {
+        try {
+            Map<String, Object> parsed = objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+            return parsed != null ? parsed : Map.of();
+        } catch (Exception ex) {
+            throw new IllegalArgumentException("任务参数必须是 JSON 对象");
+        }
+    }
+
+    private ZoneId zone() {
+        return StringUtils.hasText(properties.getZone()) ? ZoneId.of(properties.getZone()) : ZoneId.systemDefault();
+    }
+
+    private static String normalizeType(String jobType) {
+        return jobType == null ? "" : jobType.trim().toUpperCase(Locale.ROOT);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
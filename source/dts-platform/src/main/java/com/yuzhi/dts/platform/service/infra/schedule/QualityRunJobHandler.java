@@ -0,0 +1,45 @@
+package com.yuzhi.dts.platform.service.infra.schedule;
+
+import com.yuzhi.dts.platform.service.governance.QualityRunService;
+import com.yuzhi.dts.platform.service.governance.dto.QualityRunDto;
+import com.yuzhi.dts.platform.service.governance.request.QualityRunTriggerRequest;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * QUALITY_RUN：按计划触发质量规则，参数 {@code {"ruleId": "...", "bindingId": "..."}}（bindingId 可选）。
+ */
+@Component
+public class QualityRunJobHandler implements ScheduledJobHandler {
+
+    private final QualityRunService qualityRunService;
+
+    public QualityRunJobHandler(QualityRunService qualityRunService) {
+        this.qualityRunService = qualityRunService;
+    }
+
+    @Override
+    public String jobType() {
+        return "QUALITY_RUN";
+    }
+
+    @Override
+    public String run(ScheduledJobContext context) {
+        String ruleId = context.stringParameter("ruleId");
+        if (!StringUtils.hasText(ruleId)) {
+            throw new IllegalArgumentException("QUALITY_RUN 计划缺少 ruleId 参数");
+        }
+        QualityRunTriggerRequest request = new QualityRunTriggerRequest();
+        request.setRuleId(UUID.fromString(ruleId));
+        String bindingId = context.stringParameter("bindingId");
+        if (StringUtils.hasText(bindingId)) {
+            request.setBindingId(UUID.fromString(bindingId));
+        }
+        request.setTriggerType("SCHEDULE");
+        String actor = StringUtils.hasText(context.triggeredBy()) ? context.triggeredBy() : "scheduler";
+        List<QualityRunDto> runs = qualityRunService.trigger(request, actor);
+        return "已提交 " + runs.size() + " 个质量检测任务";
+    }
+}
@@ -0,0 +1,49 @@
+package com.yuzhi.dts.platform.service.infra.schedule;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Locale;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.util.StringUtils;
+
+/**
+ * cron 解析与错过触发（misfire）判定。兼容 5 段的 Unix 写法（自动补秒位）。
+ */
+final class ScheduleCron {
+
+    static final String MISFIRE_FIRE_ONCE = "FIRE_ONCE";
+    static final String MISFIRE_SKIP = "SKIP";
+
+    private ScheduleCron() {}
+
+    static CronExpression parse(String cron) {
+        if (!StringUtils.hasText(cron)) {
+            throw new IllegalArgumentException("cron 表达式不能为空");
+        }
+        String normalized = cron.trim().replaceAll("\\s+", " ");
+        if (normalized.split(" ").length == 5) {
+            normalized = "0 " + normalized;
+        }
+        return CronExpression.parse(normalized);
+    }
+
+    static Instant next(CronExpression expression, Instant after, ZoneId zone) {
+        ZonedDateTime next = expression.next(ZonedDateTime.ofInstant(after, zone));
+        return next == null ? null : next.toInstant();
+    }
+
+    /**
+     * 到期计划是否应执行：未超过阈值总是执行；超过阈值时 SKIP 策略跳过，其余策略补跑一次。
+     * 无论哪种情况，多次错过的触发都合并为一次，下次时间从当前时刻重新计算。
+     */
+    static boolean shouldFire(Instant due, Instant now, Duration threshold, String misfirePolicy) {
+        boolean missed = Duration.between(due, now).compareTo(threshold) > 0;
+        return !missed || !MISFIRE_SKIP.equals(normalizePolicy(misfirePolicy));
+    }
+
+    static String normalizePolicy(String misfirePolicy) {
+        return StringUtils.hasText(misfirePolicy) ? misfirePolicy.trim().toUpperCase(Locale.ROOT) : MISFIRE_FIRE_ONCE;
+    }
+}
@@ -0,0 +1,11 @@
+package com.yuzhi.dts.platform.service.infra.schedule;
+
+import java.util.Map;
+import java.util.UUID;
+
+public record ScheduledJobContext(UUID scheduleId, String scheduleName, String triggerType, String triggeredBy, Map<String, Object> parameters) {
+    public String stringParameter(String key) {
+        Object value = parameters == null ? null : parameters.get(key);
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,13 @@
+package com.yuzhi.dts.platform.service.infra.schedule;
+
+/**
+ * 计划任务执行器。每个实现声明一个任务类型，InfraTaskSchedule.jobType 与之匹配的计划由调度器按 cron 触发。
+ */
+public interface ScheduledJobHandler {
+    String jobType();
+
+    /**
+     * 执行一次任务，返回的摘要写入执行记录；抛出异常视为失败。
+     */
+    String run(ScheduledJobContext context) throws Exception;
+}
@@ -3,6 +3,7 @@ package com.yuzhi.dts.platform.service.menu;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.yuzhi.dts.platform.config.DtsAdminProperties;
+import com.yuzhi.dts.platform.service.admin.AdminResponseCache;
 import java.net.URI;
 import java.util.Collections;
 import java.util.List;
@@ -27,6 +28,7 @@ public class PortalMenuClient {
 
     private final RestTemplate restTemplate;
     private final DtsAdminProperties props;
+    private final AdminResponseCache cache;
 
     private static final ParameterizedTypeReference<ApiEnvelope<List<RemoteMenuNode>>> MENU_TREE_TYPE =
         new ParameterizedTypeReference<>() {};
@@ -35,9 +37,10 @@ public class PortalMenuClient {
     private static final ParameterizedTypeReference<ApiEnvelope<PortalMenuCollection>> MENU_COLLECTION_TYPE =
         new ParameterizedTypeReference<>() {};
 
-    public PortalMenuClient(RestTemplateBuilder builder, DtsAdminProperties props) {
+    public PortalMenuClient(RestTemplateBuilder builder, DtsAdminProperties props, AdminResponseCache cache) {
         this.restTemplate = builder.setConnectTimeout(java.time.Duration.ofSeconds(3)).setReadTimeout(java.time.Duration.ofSeconds(5)).build();
         this.props = props;
+        this.cache = cache;
     }
 
     public List<RemoteMenuNode> fetchMenuTree() {
@@ -45,62 +48,56 @@ public class PortalMenuClient {
             log.debug("Portal menu client disabled via configuration");
             return List.of();
         }
-        try {
-            URI uri = buildUri(props.getApiPath(), "/menu");
-            ResponseEntity<ApiEnvelope<List<RemoteMenuNode>>> response = restExchange(uri, MENU_TREE_TYPE);
-            ApiEnvelope<List<RemoteMenuNode>> body = response.getBody();
-            if (body != null && body.isSuccess() && body.data() != null) {
-                return body.data();
-            }
-            log.warn("Portal menu tree request returned no data: status={} message={} uri={}", body != null ? body.status() : null, body != null ? body.message() : null, uri);
-        } catch (Exception ex) {
-            log.warn("Failed to fetch portal menu tree from dts-admin: {}", ex.getMessage());
-            log.debug("Portal menu tree fetch stack", ex);
-        }
-        return Collections.emptyList();
+        URI uri = buildUri(props.getApiPath(), "/menu");
+        return cache
+            .get(AdminResponseCache.MENU, "tree", props.getCache().getMenuTtl(), etag -> loadMenuTree(uri, etag))
+            .orElse(Collections.emptyList());
     }
 
     /**
      * Fetch portal menu tree with audience hints so that dts-admin can filter by角色与权限。
+     * 同一角色/权限组合的结果按受众缓存，键与参数顺序无关。
      */
     public List<RemoteMenuNode> fetchMenuTreeForAudience(List<String> roles, List<String> permissions) {
         if (!props.isEnabled()) {
             log.debug("Portal menu client disabled via configuration");
             return List.of();
         }
-        try {
-            StringBuilder qs = new StringBuilder();
-            if (roles != null) {
-                for (String r : roles) {
-                    if (r == null || r.isBlank()) continue;
-                    if (qs.length() == 0) qs.append("?"); else qs.append("&");
-                    qs.append("roles=").append(urlEncode(r));
-                }
-            }
-            if (permissions != null) {
-                for (String p : permissions) {
-                    if (p == null || p.isBlank()) continue;
-                    if (qs.length() == 0) qs.append("?"); else qs.append("&");
-                    qs.append("permissions=").append(urlEncode(p));
-                }
-            }
-            URI uri = buildUri(props.getApiPath(), "/menu" + qs.toString());
-            ResponseEntity<ApiEnvelope<List<RemoteMenuNode>>> response = restExchange(uri, MENU_TREE_TYPE);
-            ApiEnvelope<List<RemoteMenuNode>> body = response.getBody();
-            if (body != null && body.isSuccess() && body.data() != null) {
-                return body.data();
-            }
-            log.warn(
-                "Portal menu audience request returned no data: status={} message={} uri={}",
-                body != null ? body.status() : null,
-                body != null ? body.message() : null,
-                uri
-            );
-        } catch (Exception ex) {
-            log.warn("Failed to fetch portal menu tree (audience) from dts-admin: {}", ex.getMessage());
-            log.debug("Portal menu audience fetch stack", ex);
+        List<String> audienceRoles = normalizeAudience(roles);
+        List<String> audiencePermissions = normalizeAudience(permissions);
+        StringBuilder qs = new StringBuilder();
+        for (String r : audienceRoles) {
+            qs.append(qs.length() == 0 ? "?" : "&").append("roles=").append(urlEncode(r));
+        }
+        for (String p : audiencePermissions) {
+            qs.append(qs.length() == 0 ? "?" : "&").append("permissions=").append(urlEncode(p));
+        }
+        URI uri = buildUri(props.getApiPath(), "/menu" + qs);
+        String key = "audience:" + String.join(",", audienceRoles) + "|" + String.join(",", audiencePermissions);
+        return cache
+            .get(AdminResponseCache.MENU, key, props.getCache().getMenuTtl(), etag -> loadMenuTree(uri, etag))
+            .orElse(Collections.emptyList());
+    }
+
+    private AdminResponseCache.Fetched<List<RemoteMenuNode>> loadMenuTree(URI uri, String etag) {
+        ResponseEntity<ApiEnvelope<List<RemoteMenuNode>>> response = restExchange(uri, MENU_TREE_TYPE, etag);
+        if (AdminResponseCache.isNotModified(response)) {
+            return AdminResponseCache.Fetched.notModified();
+        }
+        ApiEnvelope<List<RemoteMenuNode>> body = response.getBody();
+        if (body != null && body.isSuccess() && body.data() != null) {
+            return AdminResponseCache.Fetched.of(List.copyOf(body.data()), response.getHeaders().getETag());
         }
-        return Collections.emptyList();
+        throw new IllegalStateException(
+            "portal menu request returned no data: status=" + (body != null ? body.status() : null) + " message=" + (body != null ? body.message() : null)
+        );
+    }
+
+    private static List<String> normalizeAudience(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return List.of();
+        }
+        return values.stream().filter(StringUtils::hasText).map(String::trim).distinct().sorted().toList();
     }
 
     private URI buildUri(String basePath, String suffix) {
@@ -114,12 +111,13 @@ public class PortalMenuClient {
         return URI.create(normalized + path + tail);
     }
 
-    private <T> ResponseEntity<T> restExchange(URI uri, ParameterizedTypeReference<T> type) {
+    private <T> ResponseEntity<T> restExchange(URI uri, ParameterizedTypeReference<T> type, String etag) {
         HttpHeaders headers = new HttpHeaders();
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (StringUtils.hasText(props.getServiceToken())) {
             headers.set(HttpHeaders.AUTHORIZATION, "Bearer " + props.getServiceToken());
         }
+        AdminResponseCache.applyEtag(headers, etag);
         HttpEntity<Void> request = new HttpEntity<>(headers);
         return restTemplate.exchange(uri, HttpMethod.GET, request, type);
     }
@@ -161,6 +159,7 @@ public class PortalMenuClient {
             ResponseEntity<ApiEnvelope<Map<String, Object>>> response = restTemplate.exchange(uri, method, entity, MAP_ENVELOPE);
             ApiEnvelope<Map<String, Object>> body = response.getBody();
             if (body != null && body.isSuccess()) {
+                cache.invalidate(AdminResponseCache.MENU);
                 return body.data() != null ? body.data() : Map.of("status", body.status());
             }
             log.warn(
@@ -182,28 +181,20 @@ public class PortalMenuClient {
         if (!props.isEnabled()) {
             return List.of();
         }
-        try {
-            URI uri = buildUri(props.getAdminApiPath(), "/portal/menus");
-            HttpHeaders headers = new HttpHeaders();
-            headers.setAccept(List.of(MediaType.APPLICATION_JSON));
-            if (StringUtils.hasText(props.getServiceToken())) {
-                headers.set(HttpHeaders.AUTHORIZATION, "Bearer " + props.getServiceToken());
-            }
-            HttpEntity<Void> request = new HttpEntity<>(headers);
-            ResponseEntity<ApiEnvelope<PortalMenuCollection>> response = restTemplate.exchange(
-                uri,
-                HttpMethod.GET,
-                request,
-                MENU_COLLECTION_TYPE
-            );
-            ApiEnvelope<PortalMenuCollection> body = response.getBody();
-            if (body != null && body.isSuccess() && body.data() != null && body.data().getMenus() != null) {
-                return body.data().getMenus();
-            }
-        } catch (Exception ex) {
-            log.debug("Failed to fetch active menu tree via admin API: {}", ex.getMessage());
+        URI uri = buildUri(props.getAdminApiPath(), "/portal/menus");
+        return cache.get(AdminResponseCache.MENU, "active", props.getCache().getMenuTtl(), etag -> loadActiveMenus(uri, etag)).orElse(List.of());
+    }
+
+    private AdminResponseCache.Fetched<List<RemoteMenuNode>> loadActiveMenus(URI uri, String etag) {
+        ResponseEntity<ApiEnvelope<PortalMenuCollection>> response = restExchange(uri, MENU_COLLECTION_TYPE, etag);
+        if (AdminResponseCache.isNotModified(response)) {
+            return AdminResponseCache.Fetched.notModified();
+        }
+        ApiEnvelope<PortalMenuCollection> body = response.getBody();
+        if (body != null && body.isSuccess() && body.data() != null && body.data().getMenus() != null) {
+            return AdminResponseCache.Fetched.of(List.copyOf(body.data().getMenus()), response.getHeaders().getETag());
         }
-        return List.of();
+        throw new IllegalStateException("active menu request returned no data: status=" + (body != null ? body.status() : null));
     }
 
     private static class PortalMenuCollection {
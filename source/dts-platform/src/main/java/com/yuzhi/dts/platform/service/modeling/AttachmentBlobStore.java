@@ -0,0 +1,28 @@
+package com.yuzhi.dts.platform.service.modeling;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 数据标准附件密文的存储扩展点。默认实现落本地（或挂载）目录；
+ * 需要对象存储时注册一个该接口的 Bean 即可替换，附件服务只按 key 读写已加密的字节。
+ */
+public interface AttachmentBlobStore {
+    /**
+     * 写入完整对象；{@code writer} 抛出异常时不得留下可读的半成品。
+     */
+    void write(String key, BlobWriter writer) throws IOException;
+
+    /**
+     * 从指定字节偏移开始读取到对象末尾。
+     */
+    InputStream openRead(String key, long offset) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    @FunctionalInterface
+    interface BlobWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
@@ -9,17 +9,25 @@ import com.yuzhi.dts.platform.service.modeling.dto.DataStandardAttachmentContent
 import com.yuzhi.dts.platform.service.modeling.dto.DataStandardAttachmentDto;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import javax.crypto.SecretKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -27,56 +35,76 @@ import org.springframework.web.multipart.MultipartFile;
 @Transactional
 public class DataStandardAttachmentService {
 
+    static final String FORMAT_SEGMENTED = "SEGMENTED_V1";
+    private static final Logger log = LoggerFactory.getLogger(DataStandardAttachmentService.class);
+    private static final int SIGNATURE_PROBE_BYTES = 8192;
+    private static final int MIN_SEGMENT_SIZE = 4096;
+    private static final int MAX_SEGMENT_SIZE = 8 * 1024 * 1024;
+
     private final DataStandardRepository standardRepository;
     private final DataStandardAttachmentRepository attachmentRepository;
     private final DataStandardProperties properties;
     private final DataStandardSecurity security;
+    private final AttachmentBlobStore blobStore;
 
     public DataStandardAttachmentService(
         DataStandardRepository standardRepository,
         DataStandardAttachmentRepository attachmentRepository,
         DataStandardProperties properties,
-        DataStandardSecurity security
+        DataStandardSecurity security,
+        ObjectProvider<AttachmentBlobStore> blobStores
     ) {
         this.standardRepository = standardRepository;
         this.attachmentRepository = attachmentRepository;
         this.properties = properties;
         this.security = security;
+        this.blobStore = blobStores.getIfAvailable(() -> new FilesystemAttachmentBlobStore(Path.of(storageBase())));
     }
 
+    /**
+     * 流式上传：边读边计算摘要并分段加密写入附件存储，内存占用与文件大小无关。
+     */
     public DataStandardAttachmentDto upload(UUID standardId, MultipartFile file, String version, String activeDeptHeader) {
         DataStandard standard = loadStandard(standardId);
         security.ensureWritable(standard, activeDeptHeader);
         String extension = validateFile(file);
         SecretKey secretKey = resolveKey();
-        byte[] bytes = toBytes(file);
-        String detectedContentType = AttachmentSignatureValidator.validate(extension, bytes);
-        byte[] iv = DataStandardCrypto.randomIv();
-        byte[] cipher = DataStandardCrypto.encrypt(bytes, secretKey, iv);
+        int segmentSize = resolveSegmentSize();
+        byte[] salt = DataStandardCrypto.randomSalt();
+        SecretKey fileKey = DataStandardCrypto.deriveFileKey(secretKey, salt);
+        String storageKey = "data-standard/" + standard.getId() + "/" + UUID.randomUUID() + ".seg";
+        MessageDigest digest = DataStandardCrypto.newSha256();
+        String[] detectedContentType = new String[1];
+        long[] plainSize = new long[1];
+        try (InputStream raw = file.getInputStream()) {
+            BufferedInputStream in = new BufferedInputStream(raw, Math.max(segmentSize, SIGNATURE_PROBE_BYTES));
+            detectedContentType[0] = AttachmentSignatureValidator.validate(extension, probe(in));
+            blobStore.write(storageKey, out ->
+                plainSize[0] = SegmentedAttachmentCipher.encrypt(new DigestInputStream(in, digest), out, fileKey, segmentSize)
+            );
+        } catch (IOException e) {
+            throw new IllegalStateException("写入附件文件失败", e);
+        }
 
-        String strategy = String.valueOf(properties.getAttachment().getStorageStrategy());
         DataStandardAttachment attachment = new DataStandardAttachment();
         attachment.setStandard(standard);
         attachment.setVersion(StringUtils.hasText(version) ? version : standard.getCurrentVersion());
         attachment.setFileName(file.getOriginalFilename());
-        attachment.setContentType(detectedContentType);
-        attachment.setFileSize(file.getSize());
-        attachment.setSha256(DataStandardCrypto.sha256(bytes));
+        attachment.setContentType(detectedContentType[0]);
+        attachment.setFileSize(plainSize[0]);
+        attachment.setSha256(DataStandardCrypto.toHex(digest.digest()));
         attachment.setKeyVersion(properties.getKeyVersion());
-        attachment.setIv(iv);
-
-        if ("filesystem".equalsIgnoreCase(strategy)) {
-            // Persist metadata first to obtain attachment id
-            attachment.setCipherBlob(null);
+        attachment.setIv(salt);
+        attachment.setStorageFormat(FORMAT_SEGMENTED);
+        attachment.setSegmentSize(segmentSize);
+        attachment.setStorageKey(storageKey);
+        try {
             attachment = attachmentRepository.save(attachment);
-            writeEncryptedToFilesystem(standard.getId(), attachment.getId(), cipher);
-            return DataStandardMapper.toDto(attachment);
-        } else {
-            // Default to database storage
-            attachment.setCipherBlob(cipher);
-            attachmentRepository.save(attachment);
-            return DataStandardMapper.toDto(attachment);
+        } catch (RuntimeException e) {
+            deleteBlobQuietly(storageKey);
+            throw e;
         }
+        return DataStandardMapper.toDto(attachment);
     }
 
     public List<DataStandardAttachmentDto> list(UUID standardId, String activeDeptHeader) {
@@ -89,6 +117,9 @@ public class DataStandardAttachmentService {
             .toList();
     }
 
+    /**
+     * 返回可按区间写出的下载内容；分段附件只读取并解密区间覆盖的段，旧版整块附件仍整体解密。
+     */
     public DataStandardAttachmentContent download(UUID standardId, UUID attachmentId, String activeDeptHeader) {
         DataStandard standard = loadStandard(standardId);
         security.ensureReadable(standard, activeDeptHeader);
@@ -96,6 +127,22 @@ public class DataStandardAttachmentService {
             .findByIdAndStandard(attachmentId, standard)
             .orElseThrow(() -> new EntityNotFoundException("附件不存在"));
         SecretKey secretKey = resolveKey();
+        if (FORMAT_SEGMENTED.equals(attachment.getStorageFormat())) {
+            SecretKey fileKey = DataStandardCrypto.deriveFileKey(secretKey, attachment.getIv());
+            String storageKey = attachment.getStorageKey();
+            int segmentSize = attachment.getSegmentSize();
+            long size = attachment.getFileSize();
+            return new DataStandardAttachmentContent(
+                attachment.getFileName(),
+                attachment.getContentType(),
+                size,
+                (offset, length, out) -> {
+                    try (InputStream in = blobStore.openRead(storageKey, SegmentedAttachmentCipher.cipherOffset(offset, segmentSize))) {
+                        SegmentedAttachmentCipher.decryptRange(in, out, fileKey, segmentSize, size, offset, length);
+                    }
+                }
+            );
+        }
         byte[] cipher;
         String strategy = String.valueOf(properties.getAttachment().getStorageStrategy());
         if ("filesystem".equalsIgnoreCase(strategy)) {
@@ -104,7 +151,12 @@ public class DataStandardAttachmentService {
             cipher = attachment.getCipherBlob();
         }
         byte[] data = DataStandardCrypto.decrypt(cipher, secretKey, attachment.getIv());
-        return new DataStandardAttachmentContent(data, attachment.getFileName(), attachment.getContentType());
+        return new DataStandardAttachmentContent(
+            attachment.getFileName(),
+            attachment.getContentType(),
+            data.length,
+            (offset, length, out) -> out.write(data, Math.toIntExact(offset), Math.toIntExact(length))
+        );
     }
 
     public DataStandardAttachmentDto getMetadata(UUID standardId, UUID attachmentId, String activeDeptHeader) {
@@ -123,11 +175,30 @@ public class DataStandardAttachmentService {
             .findByIdAndStandard(attachmentId, standard)
             .orElseThrow(() -> new EntityNotFoundException("附件不存在"));
         attachmentRepository.delete(attachment);
+        // 文件在事务提交后再删，回滚时记录与密文仍然一致
+        Runnable cleanup = () -> deleteStoredContent(standardId, attachment);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cleanup.run();
+                }
+            });
+        } else {
+            cleanup.run();
+        }
+    }
+
+    private void deleteStoredContent(UUID standardId, DataStandardAttachment attachment) {
+        if (FORMAT_SEGMENTED.equals(attachment.getStorageFormat())) {
+            deleteBlobQuietly(attachment.getStorageKey());
+            return;
+        }
         // Best-effort delete filesystem blob if strategy is filesystem
         try {
             String strategy = String.valueOf(properties.getAttachment().getStorageStrategy());
             if ("filesystem".equalsIgnoreCase(strategy)) {
-                Path p = buildFsPath(standardId, attachmentId);
+                Path p = buildFsPath(standardId, attachment.getId());
                 Files.deleteIfExists(p);
             }
         } catch (Exception ignore) {}
@@ -160,11 +231,26 @@ public class DataStandardAttachmentService {
         return ext;
     }
 
-    private byte[] toBytes(MultipartFile file) {
+    /**
+     * 读取文件头用于签名校验，随后将流复位到起始位置。
+     */
+    private byte[] probe(BufferedInputStream in) throws IOException {
+        in.mark(SIGNATURE_PROBE_BYTES);
+        byte[] head = in.readNBytes(SIGNATURE_PROBE_BYTES);
+        in.reset();
+        return head;
+    }
+
+    private int resolveSegmentSize() {
+        int configured = properties.getAttachment().getSegmentSize();
+        return Math.min(MAX_SEGMENT_SIZE, Math.max(MIN_SEGMENT_SIZE, configured));
+    }
+
+    private void deleteBlobQuietly(String storageKey) {
         try {
-            return file.getBytes();
-        } catch (IOException e) {
-            throw new IllegalStateException("读取上传文件失败", e);
+            blobStore.delete(storageKey);
+        } catch (Exception ex) {
+            log.warn("Failed to delete attachment blob {}: {}", storageKey, ex.getMessage());
         }
     }
 
@@ -176,16 +262,6 @@ public class DataStandardAttachmentService {
         return DataStandardCrypto.buildKey(encodedKey);
     }
 
-    private void writeEncryptedToFilesystem(UUID standardId, UUID attachmentId, byte[] cipher) {
-        try {
-            Path path = buildFsPath(standardId, attachmentId);
-            Files.createDirectories(path.getParent());
-            Files.write(path, cipher, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-        } catch (IOException e) {
-            throw new IllegalStateException("写入附件文件失败", e);
-        }
-    }
-
     private byte[] readEncryptedFromFilesystem(UUID standardId, UUID attachmentId) {
         try {
             Path path = buildFsPath(standardId, attachmentId);
@@ -196,15 +272,16 @@ public class DataStandardAttachmentService {
     }
 
     private Path buildFsPath(UUID standardId, UUID attachmentId) {
-        String base = properties.getAttachment().getStorageDir();
-        if (!StringUtils.hasText(base)) {
-            base = "/opt/dts/upload";
-        }
         // Use a deterministic layout so we don't need to store file path in DB
-        String dir = base.replaceAll("/+$", "") + "/data-standard/" + standardId;
+        String dir = storageBase().replaceAll("/+$", "") + "/data-standard/" + standardId;
         return Path.of(dir, attachmentId.toString() + ".enc");
     }
 
+    private String storageBase() {
+        String base = properties.getAttachment().getStorageDir();
+        return StringUtils.hasText(base) ? base : "/opt/dts/upload";
+    }
+
     private DataStandard loadStandard(UUID id) {
         return standardRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("数据标准不存在"));
     }
@@ -4,7 +4,9 @@ import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.SecureRandom;
 import java.util.Base64;
+import java.nio.charset.StandardCharsets;
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
@@ -15,6 +17,7 @@ final class DataStandardCrypto {
     private static final String AES_GCM = "AES/GCM/NoPadding";
     private static final String AES = "AES";
     private static final int GCM_TAG_LENGTH = 128;
+    private static final byte[] FILE_KEY_CONTEXT = "dts-data-standard-attachment-v2".getBytes(StandardCharsets.US_ASCII);
 
     private DataStandardCrypto() {}
 
@@ -32,6 +35,27 @@ final class DataStandardCrypto {
         return iv;
     }
 
+    static byte[] randomSalt() {
+        byte[] salt = new byte[16];
+        RANDOM.nextBytes(salt);
+        return salt;
+    }
+
+    /**
+     * 由主密钥与附件独立的随机盐派生文件密钥（HMAC-SHA256），使分段 nonce 只需在单个文件内唯一。
+     */
+    static SecretKey deriveFileKey(SecretKey master, byte[] salt) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(master.getEncoded(), "HmacSHA256"));
+            mac.update(FILE_KEY_CONTEXT);
+            byte[] derived = mac.doFinal(salt);
+            return new SecretKeySpec(derived, 0, master.getEncoded().length, AES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("附件密钥派生失败", e);
+        }
+    }
+
     static byte[] encrypt(byte[] plain, SecretKey key, byte[] iv) {
         try {
             Cipher cipher = Cipher.getInstance(AES_GCM);
@@ -55,15 +79,26 @@ final class DataStandardCrypto {
     static String sha256(byte[] data) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(data);
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hash) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
+            return toHex(digest.digest(data));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("无法计算附件摘要", e);
+        }
+    }
+
+    static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
         } catch (GeneralSecurityException e) {
             throw new IllegalStateException("无法计算附件摘要", e);
         }
     }
+
+    static String toHex(byte[] hash) {
+        StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
 }
 
@@ -0,0 +1,152 @@
+package com.yuzhi.dts.platform.service.modeling;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * 分段 AES-GCM：明文按固定大小切段，每段独立加密并带 16 字节认证标签。
+ * <p>
+ * nonce = 7 字节 0 + 4 字节段序号 + 1 字节末段标记，防止段被重排或截断；文件密钥按附件派生，
+ * 因此 nonce 只需在单个文件内唯一。密文第 i 段位于 {@code i * (segmentSize + 16)}，可按需只解密所需的段。
+ */
+final class SegmentedAttachmentCipher {
+
+    static final int TAG_BYTES = 16;
+    private static final String AES_GCM = "AES/GCM/NoPadding";
+    private static final int NONCE_BYTES = 12;
+
+    private SegmentedAttachmentCipher() {}
+
+    /**
+     * 边读边加密，返回明文总字节数。
+     */
+    static long encrypt(InputStream in, OutputStream out, SecretKey key, int segmentSize) throws IOException {
+        Cipher cipher = newCipher();
+        byte[] current = new byte[segmentSize];
+        byte[] next = new byte[segmentSize];
+        byte[] sealed = new byte[segmentSize + TAG_BYTES];
+        int currentLength = readFully(in, current);
+        long total = currentLength;
+        int index = 0;
+        while (true) {
+            int nextLength = currentLength < segmentSize ? 0 : readFully(in, next);
+            boolean last = nextLength == 0;
+            int written = seal(cipher, key, index, last, current, currentLength, sealed);
+            out.write(sealed, 0, written);
+            if (last) {
+                return total;
+            }
+            byte[] swap = current;
+            current = next;
+            next = swap;
+            currentLength = nextLength;
+            total += nextLength;
+            index = Math.addExact(index, 1);
+        }
+    }
+
+    /**
+     * 解密明文区间 [offset, offset + length)。{@code in} 必须定位在 {@link #cipherOffset} 给出的首段起始处。
+     */
+    static void decryptRange(
+        InputStream in,
+        OutputStream out,
+        SecretKey key,
+        int segmentSize,
+        long plainSize,
+        long offset,
+        long length
+    ) throws IOException {
+        if (length <= 0) {
+            return;
+        }
+        if (offset < 0 || offset + length > plainSize) {
+            throw new IllegalArgumentException("请求的附件区间超出文件大小");
+        }
+        Cipher cipher = newCipher();
+        long segmentCount = segmentCount(plainSize, segmentSize);
+        long first = offset / segmentSize;
+        long lastNeeded = (offset + length - 1) / segmentSize;
+        byte[] sealed = new byte[segmentSize + TAG_BYTES];
+        byte[] plain = new byte[segmentSize];
+        for (long index = first; index <= lastNeeded; index++) {
+            boolean last = index == segmentCount - 1;
+            int plainLength = last ? (int) (plainSize - index * segmentSize) : segmentSize;
+            int sealedLength = plainLength + TAG_BYTES;
+            if (readFully(in, sealed, sealedLength) != sealedLength) {
+                throw new EOFException("附件密文长度不完整");
+            }
+            open(cipher, key, (int) index, last, sealed, sealedLength, plain);
+            long segmentStart = index * segmentSize;
+            int from = index == first ? (int) (offset - segmentStart) : 0;
+            int to = index == lastNeeded ? (int) (offset + length - segmentStart) : plainLength;
+            out.write(plain, from, to - from);
+        }
+    }
+
+    static long cipherOffset(long plainOffset, int segmentSize) {
+        return (plainOffset / segmentSize) * (segmentSize + (long) TAG_BYTES);
+    }
+
+    static long segmentCount(long plainSize, int segmentSize) {
+        return Math.max(1, (plainSize + segmentSize - 1) / segmentSize);
+    }
+
+    private static int seal(Cipher cipher, SecretKey key, int index, boolean last, byte[] plain, int length, byte[] output) {
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BYTES * 8, nonce(index, last)));
+            return cipher.doFinal(plain, 0, length, output, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("附件加密失败", e);
+        }
+    }
+
+    private static void open(Cipher cipher, SecretKey key, int index, boolean last, byte[] sealed, int length, byte[] output) {
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BYTES * 8, nonce(index, last)));
+            cipher.doFinal(sealed, 0, length, output, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("附件解密失败", e);
+        }
+    }
+
+    private static byte[] nonce(int index, boolean last) {
+        byte[] nonce = new byte[NONCE_BYTES];
+        nonce[7] = (byte) (index >>> 24);
+        nonce[8] = (byte) (index >>> 16);
+        nonce[9] = (byte) (index >>> 8);
+        nonce[10] = (byte) index;
+        nonce[11] = (byte) (last ? 1 : 0);
+        return nonce;
+    }
+
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance(AES_GCM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("附件加密组件不可用", e);
+        }
+    }
+
+    private static int readFully(InputStream in, byte[] buffer) throws IOException {
+        return readFully(in, buffer, buffer.length);
+    }
+
+    private static int readFully(InputStream in, byte[] buffer, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int n = in.read(buffer, read, length - read);
+            if (n < 0) {
+                break;
+            }
+            read += n;
+        }
+        return read;
+    }
+}
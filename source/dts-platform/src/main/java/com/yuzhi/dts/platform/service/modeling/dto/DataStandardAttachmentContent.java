@@ -1,19 +1,28 @@
 package com.yuzhi.dts.platform.service.modeling.dto;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 附件下载内容：明文不在内存中整体保留，写出时按区间流式解密。
+ */
 public class DataStandardAttachmentContent {
 
-    private final byte[] data;
+    @FunctionalInterface
+    public interface RangeWriter {
+        void write(long offset, long length, OutputStream out) throws IOException;
+    }
+
     private final String fileName;
     private final String contentType;
+    private final long size;
+    private final RangeWriter writer;
 
-    public DataStandardAttachmentContent(byte[] data, String fileName, String contentType) {
-        this.data = data;
+    public DataStandardAttachmentContent(String fileName, String contentType, long size, RangeWriter writer) {
         this.fileName = fileName;
         this.contentType = contentType;
-    }
-
-    public byte[] getData() {
-        return data;
+        this.size = size;
+        this.writer = writer;
     }
 
     public String getFileName() {
@@ -23,5 +32,16 @@ public class DataStandardAttachmentContent {
     public String getContentType() {
         return contentType;
     }
-}
 
+    public long getSize() {
+        return size;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        writer.write(0, size, out);
+    }
+
+    public void writeRange(long offset, long length, OutputStream out) throws IOException {
+        writer.write(offset, length, out);
+    }
+}
@@ -0,0 +1,186 @@
+package com.yuzhi.dts.platform.service.query;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 查询结果缓存文件的序列化格式：只认识结果集中会出现的值类型（字符串、数值、布尔、二进制、UUID 及其 List/Map 组合），
+ * 按类型标记逐个写出与读回，读取时不做任何类实例化，被篡改的文件最多导致读取失败。
+ * <p>
+ * 含有其他类型的结果视为不可缓存，写入时抛出 {@link IOException}。
+ */
+final class CachedResultCodec {
+
+    private static final int MAX_DEPTH = 32;
+    private static final int MAX_CHUNK = 16 * 1024 * 1024;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte SHORT = 5;
+    private static final byte BYTE = 6;
+    private static final byte FLOAT = 7;
+    private static final byte DOUBLE = 8;
+    private static final byte BIG_DECIMAL = 9;
+    private static final byte BIG_INTEGER = 10;
+    private static final byte BYTES = 11;
+    private static final byte UUID_VALUE = 12;
+    private static final byte LIST = 13;
+    private static final byte MAP = 14;
+
+    private CachedResultCodec() {}
+
+    static void write(DataOutputStream out, Map<String, Object> result) throws IOException {
+        writeValue(out, result, 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> read(DataInputStream in) throws IOException {
+        Object value = readValue(in, 0);
+        if (!(value instanceof Map<?, ?> map)) {
+            throw new IOException("Cached result is not a map");
+        }
+        return (Map<String, Object>) map;
+    }
+
+    private static void writeValue(DataOutputStream out, Object value, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("Result nesting too deep");
+        }
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String s) {
+            out.writeByte(STRING);
+            writeString(out, s);
+        } else if (value instanceof Boolean b) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(b);
+        } else if (value instanceof Integer i) {
+            out.writeByte(INT);
+            out.writeInt(i);
+        } else if (value instanceof Long l) {
+            out.writeByte(LONG);
+            out.writeLong(l);
+        } else if (value instanceof Short s) {
+            out.writeByte(SHORT);
+            out.writeShort(s);
+        } else if (value instanceof Byte b) {
+            out.writeByte(BYTE);
+            out.writeByte(b);
+        } else if (value instanceof Float f) {
+            out.writeByte(FLOAT);
+            out.writeFloat(f);
+        } else if (value instanceof Double d) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(d);
+        } else if (value instanceof BigDecimal decimal) {
+            out.writeByte(BIG_DECIMAL);
+            writeString(out, decimal.toString());
+        } else if (value instanceof BigInteger integer) {
+            out.writeByte(BIG_INTEGER);
+            writeString(out, integer.toString());
+        } else if (value instanceof byte[] bytes) {
+            out.writeByte(BYTES);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (value instanceof UUID uuid) {
+            out.writeByte(UUID_VALUE);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else if (value instanceof Collection<?> collection) {
+            out.writeByte(LIST);
+            out.writeInt(collection.size());
+            for (Object item : collection) {
+                writeValue(out, item, depth + 1);
+            }
+        } else if (value instanceof Map<?, ?> map) {
+            out.writeByte(MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!(entry.getKey() instanceof String key)) {
+                    throw new IOException("Unsupported map key type: " + (entry.getKey() == null ? "null" : entry.getKey().getClass().getName()));
+                }
+                writeString(out, key);
+                writeValue(out, entry.getValue(), depth + 1);
+            }
+        } else {
+            throw new IOException("Unsupported result value type: " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInputStream in, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("Cached result nesting too deep");
+        }
+        byte tag = in.readByte();
+        return switch (tag) {
+            case NULL -> null;
+            case STRING -> readString(in);
+            case BOOLEAN -> in.readBoolean();
+            case INT -> in.readInt();
+            case LONG -> in.readLong();
+            case SHORT -> in.readShort();
+            case BYTE -> in.readByte();
+            case FLOAT -> in.readFloat();
+            case DOUBLE -> in.readDouble();
+            case BIG_DECIMAL -> new BigDecimal(readString(in));
+            case BIG_INTEGER -> new BigInteger(readString(in));
+            case BYTES -> {
+                byte[] bytes = new byte[readLength(in)];
+                in.readFully(bytes);
+                yield bytes;
+            }
+            case UUID_VALUE -> new UUID(in.readLong(), in.readLong());
+            case LIST -> {
+                int size = readLength(in);
+                List<Object> list = new ArrayList<>(Math.min(size, 1024));
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in, depth + 1));
+                }
+                yield list;
+            }
+            case MAP -> {
+                int size = readLength(in);
+                Map<String, Object> map = new LinkedHashMap<>(Math.min(size, 1024) * 2);
+                for (int i = 0; i < size; i++) {
+                    String key = readString(in);
+                    map.put(key, readValue(in, depth + 1));
+                }
+                yield map;
+            }
+            default -> throw new IOException("Unknown value tag " + tag);
+        };
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readLength(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readLength(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_CHUNK) {
+            throw new IOException("Invalid length " + length);
+        }
+        return length;
+    }
+}
@@ -0,0 +1,11 @@
+package com.yuzhi.dts.platform.service.query;
+
+/**
+ * 引擎当前不具备执行条件（未启用、数据源未发布等），路由层据此切换到下一个候选引擎。
+ */
+final class EngineUnavailableException extends IllegalStateException {
+
+    EngineUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -1,112 +1,82 @@
 package com.yuzhi.dts.platform.service.query;
 
-import com.yuzhi.dts.platform.config.CatalogFeatureProperties;
+import com.yuzhi.dts.common.observability.OperationMetrics;
 import com.yuzhi.dts.platform.service.infra.HiveConnectionService;
+import com.yuzhi.dts.platform.service.infra.InceptorDataSourceListener;
 import com.yuzhi.dts.platform.service.infra.InceptorDataSourceRegistry;
+import com.yuzhi.dts.platform.service.infra.InceptorDataSourceRegistry.DataSourceChange;
 import com.yuzhi.dts.platform.service.infra.InceptorDataSourceRegistry.InceptorDataSourceState;
-import com.yuzhi.dts.platform.service.infra.PostgresCatalogSyncService;
 import com.yuzhi.dts.platform.web.rest.infra.HiveConnectionTestRequest;
-import java.sql.Blob;
-import java.sql.Clob;
-import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
-import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
-import javax.sql.DataSource;
 
+/**
+ * Inceptor/Hive 查询引擎，使用注册中心中已发布的数据源执行查询。
+ */
 @Service
-@Primary
-public class HiveQueryGateway implements QueryGateway {
+public class HiveQueryGateway implements QueryEngine, InceptorDataSourceListener {
 
     private static final Logger LOG = LoggerFactory.getLogger(HiveQueryGateway.class);
-    private static final int MAX_ROWS = 5000;
 
     private final HiveConnectionService connectionService;
     private final InceptorDataSourceRegistry registry;
-    private final PostgresCatalogSyncService postgresCatalogSyncService;
-    private final DataSource dataSource;
-    private final CatalogFeatureProperties catalogFeatureProperties;
-
-    public HiveQueryGateway(
-        HiveConnectionService connectionService,
-        InceptorDataSourceRegistry registry,
-        PostgresCatalogSyncService postgresCatalogSyncService,
-        DataSource dataSource,
-        CatalogFeatureProperties catalogFeatureProperties
-    ) {
+    private final OperationMetrics operationMetrics;
+    private final AtomicReference<PreparedSource> prepared = new AtomicReference<>();
+
+    public HiveQueryGateway(HiveConnectionService connectionService, InceptorDataSourceRegistry registry, OperationMetrics operationMetrics) {
         this.connectionService = connectionService;
         this.registry = registry;
-        this.postgresCatalogSyncService = postgresCatalogSyncService;
-        this.dataSource = dataSource;
-        this.catalogFeatureProperties = catalogFeatureProperties;
+        this.operationMetrics = operationMetrics;
+    }
+
+    @Override
+    public QueryEngineType type() {
+        return QueryEngineType.HIVE;
     }
 
     @Override
-    public Map<String, Object> execute(String effectiveSql) {
+    public boolean isAvailable() {
+        return registry.getActive().isPresent();
+    }
+
+    @Override
+    public Map<String, Object> execute(String effectiveSql, QueryHints hints) {
         Optional<InceptorDataSourceState> stateOpt = registry.getActive();
         if (stateOpt.isEmpty()) {
-            if (postgresCatalogSyncService != null && postgresCatalogSyncService.isFallbackActive()) {
-                return executeWithPostgres(effectiveSql);
-            }
-            throw new IllegalStateException("未检测到可用的数据源，请联系系统管理员");
+            throw new EngineUnavailableException("未检测到可用的数据源，请联系系统管理员");
         }
         InceptorDataSourceState state = stateOpt.orElseThrow();
 
-        HiveConnectionTestRequest request = buildRequest(state);
+        PreparedSource source = prepare(state);
+        OperationMetrics.Span span = operationMetrics.start("hive.query", OperationMetrics.datasourceOf(state.jdbcUrl())).sql(effectiveSql);
         try {
-            return connectionService.executeWithConnection(request, (connection, connectStart) -> {
+            return connectionService.executeWithConnection(source.request(), (connection, connectStart) -> {
                 long connectMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart);
                 long queryStart = System.nanoTime();
+                span.mark("acquire");
 
-                if (StringUtils.hasText(state.database())) {
-                    try (Statement schemaStmt = connection.createStatement()) {
-                        applySchema(schemaStmt, state.database());
-                    }
-                }
-
-                List<String> headers = new ArrayList<>();
-                List<Map<String, Object>> rows = new ArrayList<>();
+                JdbcResults.Tabular tabular;
                 try (Statement stmt = connection.createStatement()) {
-                    stmt.setMaxRows(MAX_ROWS);
-                    stmt.setFetchSize(2000);
-                    try (ResultSet rs = stmt.executeQuery(effectiveSql)) {
-                        ResultSetMetaData meta = rs.getMetaData();
-                        int columnCount = meta.getColumnCount();
-                        for (int i = 1; i <= columnCount; i++) {
-                            headers.add(meta.getColumnLabel(i));
-                        }
-                        while (rs.next()) {
-                            Map<String, Object> row = new LinkedHashMap<>();
-                            for (int i = 1; i <= columnCount; i++) {
-                                row.put(headers.get(i - 1), readValue(rs, i));
-                            }
-                            rows.add(row);
-                        }
+                    if (source.session().useDatabase(stmt, state.database())) {
+                        span.mark("use_schema");
                     }
+                    tabular = JdbcResults.query(stmt, effectiveSql);
                 }
+                span.mark("execute");
 
                 long queryMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queryStart);
-                Map<String, Object> result = new LinkedHashMap<>();
-                result.put("headers", headers);
-                result.put("rows", rows);
-                result.put("rowCount", rows.size());
-                result.put("connectMillis", connectMillis);
-                result.put("queryMillis", queryMillis);
-                result.put("effectiveSql", effectiveSql);
-                result.put(
-                    "executionContext",
+                Map<String, Object> result = JdbcResults.payload(
+                    tabular,
+                    connectMillis,
+                    queryMillis,
+                    effectiveSql,
                     Map.of(
                         "database",
                         state.database(),
@@ -116,79 +86,79 @@ public class HiveQueryGateway implements QueryGateway {
                         Instant.now()
                     )
                 );
-                LOG.debug("Hive query executed. rows={}, connect={}ms, query={}ms", rows.size(), connectMillis, queryMillis);
+                LOG.debug("Hive query executed. rows={}, connect={}ms, query={}ms", tabular.rows().size(), connectMillis, queryMillis);
                 return result;
             });
         } catch (Exception e) {
-            String message = resolveMessage(e);
+            span.failed();
+            String message = JdbcResults.resolveMessage(e);
             LOG.error("Hive query failure. sql='{}', reason={}", effectiveSql, message, e);
             throw new IllegalStateException("Hive 查询失败: " + message, e);
+        } finally {
+            span.close();
         }
     }
 
-    private Map<String, Object> executeWithPostgres(String effectiveSql) {
-        long connectStart = System.nanoTime();
-        try (java.sql.Connection connection = dataSource.getConnection()) {
-            long connectMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart);
-            long queryStart = System.nanoTime();
-
-            List<String> headers = new ArrayList<>();
-            List<Map<String, Object>> rows = new ArrayList<>();
-            try (Statement stmt = connection.createStatement()) {
-                stmt.setMaxRows(MAX_ROWS);
-                stmt.setFetchSize(2000);
-                try (ResultSet rs = stmt.executeQuery(effectiveSql)) {
-                    ResultSetMetaData meta = rs.getMetaData();
-                    int columnCount = meta.getColumnCount();
-                    for (int i = 1; i <= columnCount; i++) {
-                        headers.add(meta.getColumnLabel(i));
-                    }
-                    while (rs.next()) {
-                        Map<String, Object> row = new LinkedHashMap<>();
-                        for (int i = 1; i <= columnCount; i++) {
-                            row.put(headers.get(i - 1), readValue(rs, i));
-                        }
-                        rows.add(row);
+    @Override
+    public long stream(String effectiveSql, QueryHints hints, int fetchSize, long maxRows, QueryRowSink sink) {
+        InceptorDataSourceState state = registry
+            .getActive()
+            .orElseThrow(() -> new EngineUnavailableException("未检测到可用的数据源，请联系系统管理员"));
+        OperationMetrics.Span span = operationMetrics.start("hive.stream", OperationMetrics.datasourceOf(state.jdbcUrl())).sql(effectiveSql);
+        try {
+            PreparedSource source = prepare(state);
+            return connectionService.executeWithConnection(source.request(), (connection, connectStart) -> {
+                span.mark("acquire");
+                long rows;
+                try (Statement stmt = connection.createStatement()) {
+                    if (source.session().useDatabase(stmt, state.database())) {
+                        span.mark("use_schema");
                     }
+                    rows = JdbcResults.stream(stmt, effectiveSql, fetchSize, maxRows, sink);
                 }
-            }
-
-            long queryMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queryStart);
-            Map<String, Object> result = new LinkedHashMap<>();
-            result.put("headers", headers);
-            result.put("rows", rows);
-            result.put("rowCount", rows.size());
-            result.put("connectMillis", connectMillis);
-            result.put("queryMillis", queryMillis);
-            result.put("effectiveSql", effectiveSql);
-            result.put(
-                "executionContext",
-                Map.of(
-                    "database",
-                    sanitizeSchema(catalogFeatureProperties.getPostgresSchema()),
-                    "timestamp",
-                    Instant.now()
-                )
-            );
-            LOG.debug("PostgreSQL query executed. rows={}, connect={}ms, query={}ms", rows.size(), connectMillis, queryMillis);
-            return result;
-        } catch (SQLException e) {
-            String message = resolveMessage(e);
-            LOG.error("PostgreSQL query failure. sql='{}', reason={}", effectiveSql, message, e);
-            throw new IllegalStateException("PostgreSQL 查询失败: " + message, e);
+                span.mark("stream");
+                LOG.debug("Hive query streamed. rows={}", rows);
+                return rows;
+            });
+        } catch (Exception e) {
+            span.failed();
+            LOG.warn("Hive streaming query failure. reason={}", JdbcResults.resolveMessage(e));
+            throw JdbcResults.streamFailure("Hive", e);
+        } finally {
+            span.close();
         }
     }
 
-    private String sanitizeSchema(String schema) {
-        if (!StringUtils.hasText(schema)) {
-            return "public";
+    /**
+     * 同一份已发布数据源只构建一次连接请求；仅心跳变化时沿用原请求，定义变化后重建。
+     */
+    private PreparedSource prepare(InceptorDataSourceState state) {
+        PreparedSource current = prepared.get();
+        if (current != null && current.state() == state) {
+            return current;
+        }
+        PreparedSource next = current != null && current.state().sameDefinition(state)
+            ? new PreparedSource(state, current.request(), current.openingDatabase())
+            : new PreparedSource(state, buildRequest(state));
+        prepared.set(next);
+        return next;
+    }
+
+    /**
+     * 数据源修改或下线时立即丢弃已构建的连接请求（其中含凭据），下次查询按新定义重建。
+     */
+    @Override
+    public void onDataSourceChanged(DataSourceChange change) {
+        PreparedSource current = prepared.get();
+        if (current != null && current.state().id().equals(change.id())) {
+            prepared.compareAndSet(current, null);
         }
-        return schema.trim();
     }
 
     private HiveConnectionTestRequest buildRequest(InceptorDataSourceState state) {
         HiveConnectionTestRequest request = new HiveConnectionTestRequest();
-        request.setJdbcUrl(state.jdbcUrl());
+        // 会话直接建在数据源默认库上，省去每次查询前的 USE
+        request.setJdbcUrl(HiveSessionState.withDatabase(state.jdbcUrl(), state.database()));
         request.setLoginPrincipal(state.loginPrincipal());
         request.setAuthMethod(state.authMethod());
         request.setKrb5Conf(state.krb5Conf());
@@ -204,49 +174,16 @@ public class HiveQueryGateway implements QueryGateway {
         return request;
     }
 
-    private void applySchema(Statement stmt, String schema) throws SQLException {
-        if (!StringUtils.hasText(schema)) {
-            return;
-        }
-        String sanitized = schema.replace("`", "``");
-        stmt.execute("USE `" + sanitized + "`");
-    }
-
-    private Object readValue(ResultSet rs, int index) throws SQLException {
-        Object value = rs.getObject(index);
-        if (value instanceof Clob clob) {
-            return clob.getSubString(1, (int) Math.min(clob.length(), Integer.MAX_VALUE));
-        }
-        if (value instanceof Blob blob) {
-            return blob.getBytes(1, (int) Math.min(blob.length(), 1_048_576));
-        }
-        if (value instanceof java.sql.Timestamp ts) {
-            return ts.toInstant().toString();
-        }
-        if (value instanceof java.sql.Date date) {
-            return date.toLocalDate().toString();
+    /**
+     * 连接请求在多个查询线程间只读共享；每条连接的会话状态单独创建。
+     */
+    private record PreparedSource(InceptorDataSourceState state, HiveConnectionTestRequest request, String openingDatabase) {
+        PreparedSource(InceptorDataSourceState state, HiveConnectionTestRequest request) {
+            this(state, request, HiveSessionState.databaseOf(request.getJdbcUrl()));
         }
-        if (value instanceof java.sql.Time time) {
-            return time.toLocalTime().toString();
-        }
-        return value;
-    }
 
-    private String resolveMessage(Throwable throwable) {
-        if (throwable == null) {
-            return "未知错误";
-        }
-        Throwable current = throwable;
-        String lastNonBlank = null;
-        int depth = 0;
-        while (current != null && depth < 10) {
-            String message = current.getMessage();
-            if (StringUtils.hasText(message)) {
-                lastNonBlank = message.trim();
-            }
-            current = current.getCause();
-            depth++;
+        HiveSessionState session() {
+            return HiveSessionState.startingIn(openingDatabase);
         }
-        return lastNonBlank != null ? lastNonBlank : throwable.getClass().getSimpleName();
     }
 }
@@ -0,0 +1,84 @@
+package com.yuzhi.dts.platform.service.query;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.util.StringUtils;
+
+/**
+ * 单个 Hive 连接的会话状态。连接按 JDBC URL 路径中的库建立，只有目标库与当前库不同时才发出 USE，
+ * 因此把数据源的默认库写进 URL 后，绝大多数查询不再需要额外的往返。
+ */
+final class HiveSessionState {
+
+    /** jdbc:hive2://host:port[,host:port]/db;k=v?hiveconf#vars —— 第 3 组为库名 */
+    private static final Pattern URL_DATABASE = Pattern.compile("^(jdbc:[a-z0-9]+://[^/;?#]*)(/([^;?#]*))?(.*)$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PLAIN_IDENTIFIER = Pattern.compile("[A-Za-z0-9_]+");
+    private static final String HIVE_DEFAULT_DATABASE = "default";
+
+    private String currentDatabase;
+
+    private HiveSessionState(String currentDatabase) {
+        this.currentDatabase = currentDatabase;
+    }
+
+    /**
+     * @param database 建连时会话所在的库（见 {@link #databaseOf}），null 表示未知，首次查询会发出 USE
+     */
+    static HiveSessionState startingIn(String database) {
+        return new HiveSessionState(database);
+    }
+
+    /**
+     * 把库名写入 URL 路径，使会话直接落在该库；库名含特殊字符或 URL 格式无法识别时原样返回。
+     */
+    static String withDatabase(String jdbcUrl, String database) {
+        if (!StringUtils.hasText(jdbcUrl) || !StringUtils.hasText(database) || !PLAIN_IDENTIFIER.matcher(database.trim()).matches()) {
+            return jdbcUrl;
+        }
+        Matcher matcher = URL_DATABASE.matcher(jdbcUrl.trim());
+        if (!matcher.matches()) {
+            return jdbcUrl;
+        }
+        return matcher.group(1) + "/" + database.trim() + matcher.group(4);
+    }
+
+    /**
+     * 按建连使用的 URL 推断会话初始库：路径为空时 HiveServer2 落在 default 库，无法解析时返回 null。
+     */
+    static String databaseOf(String jdbcUrl) {
+        if (!StringUtils.hasText(jdbcUrl)) {
+            return null;
+        }
+        Matcher matcher = URL_DATABASE.matcher(jdbcUrl.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+        String database = matcher.group(3);
+        return StringUtils.hasText(database) ? database : HIVE_DEFAULT_DATABASE;
+    }
+
+    /**
+     * 切换到目标库，当前库已一致时不发出任何语句。
+     *
+     * @return 是否实际执行了 USE
+     */
+    boolean useDatabase(Statement stmt, String database) throws SQLException {
+        if (!StringUtils.hasText(database) || sameDatabase(database)) {
+            return false;
+        }
+        stmt.execute("USE `" + database.replace("`", "``") + "`");
+        currentDatabase = database;
+        return true;
+    }
+
+    String currentDatabase() {
+        return currentDatabase;
+    }
+
+    private boolean sameDatabase(String database) {
+        return currentDatabase != null && currentDatabase.toLowerCase(Locale.ROOT).equals(database.trim().toLowerCase(Locale.ROOT));
+    }
+}
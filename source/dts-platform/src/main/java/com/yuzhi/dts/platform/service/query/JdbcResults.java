@@ -0,0 +1,147 @@
+package com.yuzhi.dts.platform.service.query;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.util.StringUtils;
+
+/**
+ * 各 JDBC 查询引擎共用的结果读取逻辑。
+ */
+final class JdbcResults {
+
+    static final int MAX_ROWS = 5000;
+    static final int FETCH_SIZE = 2000;
+
+    private JdbcResults() {}
+
+    record Tabular(List<String> headers, List<Map<String, Object>> rows) {}
+
+    static Tabular query(Statement stmt, String sql) throws SQLException {
+        stmt.setMaxRows(MAX_ROWS);
+        stmt.setFetchSize(FETCH_SIZE);
+        List<String> headers = new ArrayList<>();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            ResultSetMetaData meta = rs.getMetaData();
+            int columnCount = meta.getColumnCount();
+            for (int i = 1; i <= columnCount; i++) {
+                headers.add(meta.getColumnLabel(i));
+            }
+            while (rs.next()) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (int i = 1; i <= columnCount; i++) {
+                    row.put(headers.get(i - 1), readValue(rs, i));
+                }
+                rows.add(row);
+            }
+        }
+        return new Tabular(headers, rows);
+    }
+
+    /**
+     * 以游标方式读取结果并逐行交给 {@code sink}，内存占用只与驱动的 fetch size 有关。
+     *
+     * @param maxRows 交给驱动的行数上限，0 表示不限制
+     * @return 交给 sink 的行数
+     */
+    static long stream(Statement stmt, String sql, int fetchSize, long maxRows, QueryRowSink sink) throws SQLException, IOException {
+        if (maxRows > 0) {
+            stmt.setMaxRows((int) Math.min(maxRows, Integer.MAX_VALUE));
+        }
+        stmt.setFetchSize(fetchSize > 0 ? fetchSize : FETCH_SIZE);
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            ResultSetMetaData meta = rs.getMetaData();
+            int columnCount = meta.getColumnCount();
+            List<String> headers = new ArrayList<>(columnCount);
+            for (int i = 1; i <= columnCount; i++) {
+                headers.add(meta.getColumnLabel(i));
+            }
+            sink.open(headers);
+            Object[] values = new Object[columnCount];
+            long count = 0;
+            while (rs.next()) {
+                for (int i = 1; i <= columnCount; i++) {
+                    values[i - 1] = readValue(rs, i);
+                }
+                count++;
+                if (!sink.row(values)) {
+                    break;
+                }
+            }
+            return count;
+        }
+    }
+
+    static Map<String, Object> payload(Tabular tabular, long connectMillis, long queryMillis, String effectiveSql, Map<String, Object> context) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("headers", tabular.headers());
+        result.put("rows", tabular.rows());
+        result.put("rowCount", tabular.rows().size());
+        result.put("connectMillis", connectMillis);
+        result.put("queryMillis", queryMillis);
+        result.put("effectiveSql", effectiveSql);
+        result.put("executionContext", context);
+        return result;
+    }
+
+    static Object readValue(ResultSet rs, int index) throws SQLException {
+        Object value = rs.getObject(index);
+        if (value instanceof Clob clob) {
+            return clob.getSubString(1, (int) Math.min(clob.length(), Integer.MAX_VALUE));
+        }
+        if (value instanceof Blob blob) {
+            return blob.getBytes(1, (int) Math.min(blob.length(), 1_048_576));
+        }
+        if (value instanceof java.sql.Timestamp ts) {
+            return ts.toInstant().toString();
+        }
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate().toString();
+        }
+        if (value instanceof java.sql.Time time) {
+            return time.toLocalTime().toString();
+        }
+        return value;
+    }
+
+    /**
+     * 流式读取失败时的异常转换：写出端（客户端断开等）的 IO 异常原样上抛，其余按引擎查询失败处理。
+     */
+    static RuntimeException streamFailure(String engine, Exception failure) {
+        if (failure instanceof IOException io) {
+            return new UncheckedIOException(io);
+        }
+        if (failure instanceof UncheckedIOException unchecked) {
+            return unchecked;
+        }
+        return new IllegalStateException(engine + " 查询失败: " + resolveMessage(failure), failure);
+    }
+
+    static String resolveMessage(Throwable throwable) {
+        if (throwable == null) {
+            return "未知错误";
+        }
+        Throwable current = throwable;
+        String lastNonBlank = null;
+        int depth = 0;
+        while (current != null && depth < 10) {
+            String message = current.getMessage();
+            if (StringUtils.hasText(message)) {
+                lastNonBlank = message.trim();
+            }
+            current = current.getCause();
+            depth++;
+        }
+        return lastNonBlank != null ? lastNonBlank : throwable.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,105 @@
+package com.yuzhi.dts.platform.service.query;
+
+import com.yuzhi.dts.platform.config.CatalogFeatureProperties;
+import com.yuzhi.dts.platform.service.infra.PostgresCatalogSyncService;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+/**
+ * 平台 PostgreSQL（OLAP 工作区）查询引擎，仅在 PostgreSQL 回退数据源激活时可用。
+ */
+@Service
+public class PostgresQueryEngine implements QueryEngine {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PostgresQueryEngine.class);
+
+    private final PostgresCatalogSyncService postgresCatalogSyncService;
+    private final DataSource dataSource;
+    private final CatalogFeatureProperties catalogFeatureProperties;
+
+    public PostgresQueryEngine(
+        PostgresCatalogSyncService postgresCatalogSyncService,
+        DataSource dataSource,
+        CatalogFeatureProperties catalogFeatureProperties
+    ) {
+        this.postgresCatalogSyncService = postgresCatalogSyncService;
+        this.dataSource = dataSource;
+        this.catalogFeatureProperties = catalogFeatureProperties;
+    }
+
+    @Override
+    public QueryEngineType type() {
+        return QueryEngineType.POSTGRES;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return postgresCatalogSyncService != null && postgresCatalogSyncService.isFallbackActive();
+    }
+
+    @Override
+    public Map<String, Object> execute(String effectiveSql, QueryHints hints) {
+        long connectStart = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            long connectMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart);
+            long queryStart = System.nanoTime();
+
+            JdbcResults.Tabular tabular;
+            try (Statement stmt = connection.createStatement()) {
+                tabular = JdbcResults.query(stmt, effectiveSql);
+            }
+
+            long queryMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queryStart);
+            Map<String, Object> result = JdbcResults.payload(
+                tabular,
+                connectMillis,
+                queryMillis,
+                effectiveSql,
+                Map.of("database", sanitizeSchema(catalogFeatureProperties.getPostgresSchema()), "timestamp", Instant.now())
+            );
+            LOG.debug("PostgreSQL query executed. rows={}, connect={}ms, query={}ms", tabular.rows().size(), connectMillis, queryMillis);
+            return result;
+        } catch (SQLException e) {
+            String message = JdbcResults.resolveMessage(e);
+            LOG.error("PostgreSQL query failure. sql='{}', reason={}", effectiveSql, message, e);
+            throw new IllegalStateException("PostgreSQL 查询失败: " + message, e);
+        }
+    }
+
+    @Override
+    public long stream(String effectiveSql, QueryHints hints, int fetchSize, long maxRows, QueryRowSink sink) {
+        try (Connection connection = dataSource.getConnection()) {
+            // PostgreSQL 驱动只有在事务内才按 fetch size 使用游标，否则会一次取回全部结果
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement stmt = connection.createStatement()) {
+                long rows = JdbcResults.stream(stmt, effectiveSql, fetchSize, maxRows, sink);
+                LOG.debug("PostgreSQL query streamed. rows={}", rows);
+                return rows;
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException | IOException e) {
+            LOG.warn("PostgreSQL streaming query failure. reason={}", JdbcResults.resolveMessage(e));
+            throw JdbcResults.streamFailure("PostgreSQL", e);
+        }
+    }
+
+    private String sanitizeSchema(String schema) {
+        if (!StringUtils.hasText(schema)) {
+            return "public";
+        }
+        return schema.trim();
+    }
+}
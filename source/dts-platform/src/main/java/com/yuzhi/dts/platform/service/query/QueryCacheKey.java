@@ -0,0 +1,80 @@
+package com.yuzhi.dts.platform.service.query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * 查询结果缓存键：规范化 SQL + 数据源 + 调用者的有效安全上下文（可访问密级、部门、角色、脱敏规则）的摘要。
+ * 安全上下文任一维度不同即得到不同的键，保证用户之间不会看到彼此的数据。
+ */
+public record QueryCacheKey(String value) {
+
+    public static QueryCacheKey of(
+        String sql,
+        String dataSource,
+        Collection<String> allowedLevels,
+        String department,
+        Collection<String> authorities,
+        String maskingFingerprint
+    ) {
+        StringBuilder material = new StringBuilder(256)
+            .append("sql=")
+            .append(normalizeSql(sql))
+            .append("\nds=")
+            .append(Objects.toString(dataSource, ""))
+            .append("\nlevels=")
+            .append(join(allowedLevels))
+            .append("\ndept=")
+            .append(Objects.toString(department, ""))
+            .append("\nauthorities=")
+            .append(join(authorities))
+            .append("\nmasking=")
+            .append(Objects.toString(maskingFingerprint, ""));
+        return new QueryCacheKey(DigestUtils.sha256Hex(material.toString()));
+    }
+
+    /**
+     * 折叠字面量及引号标识符以外的空白并去除末尾分号；大小写保持不变，避免改变字面量语义。
+     */
+    static String normalizeSql(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(sql.length());
+        char quote = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char ch = sql.charAt(i);
+            if (quote == 0 && (ch == '\'' || ch == '"' || ch == '`')) {
+                quote = ch;
+            } else if (ch == quote) {
+                quote = 0;
+            }
+            if (quote == 0 && Character.isWhitespace(ch)) {
+                pendingSpace = out.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            out.append(ch);
+        }
+        int end = out.length();
+        while (end > 0 && (out.charAt(end - 1) == ';' || Character.isWhitespace(out.charAt(end - 1)))) {
+            end--;
+        }
+        return out.substring(0, end);
+    }
+
+    private static String join(Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return "";
+        }
+        List<String> sorted = values.stream().filter(Objects::nonNull).distinct().sorted().collect(Collectors.toList());
+        return String.join(",", sorted);
+    }
+}
@@ -0,0 +1,78 @@
+package com.yuzhi.dts.platform.service.query;
+
+import com.yuzhi.dts.platform.config.CatalogFeatureProperties;
+import com.yuzhi.dts.platform.domain.catalog.CatalogDataset;
+import com.yuzhi.dts.platform.domain.catalog.CatalogMaskingRule;
+import com.yuzhi.dts.platform.repository.catalog.CatalogMaskingRuleRepository;
+import com.yuzhi.dts.platform.security.SecurityUtils;
+import com.yuzhi.dts.platform.security.policy.DataLevel;
+import com.yuzhi.dts.platform.service.infra.InceptorDataSourceRegistry;
+import com.yuzhi.dts.platform.service.security.AccessChecker;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Component;
+
+/**
+ * 根据当前请求的安全上下文构造 {@link QueryCacheKey}。
+ */
+@Component
+public class QueryCacheKeyResolver {
+
+    private final AccessChecker accessChecker;
+    private final CatalogMaskingRuleRepository maskingRuleRepository;
+    private final InceptorDataSourceRegistry registry;
+    private final CatalogFeatureProperties catalogFeatureProperties;
+
+    public QueryCacheKeyResolver(
+        AccessChecker accessChecker,
+        CatalogMaskingRuleRepository maskingRuleRepository,
+        InceptorDataSourceRegistry registry,
+        CatalogFeatureProperties catalogFeatureProperties
+    ) {
+        this.accessChecker = accessChecker;
+        this.maskingRuleRepository = maskingRuleRepository;
+        this.registry = registry;
+        this.catalogFeatureProperties = catalogFeatureProperties;
+    }
+
+    public QueryCacheKey resolve(String effectiveSql, CatalogDataset dataset, String activeDept) {
+        List<String> levels = accessChecker
+            .resolveAllowedDataLevels()
+            .stream()
+            .filter(Objects::nonNull)
+            .map(DataLevel::name)
+            .collect(Collectors.toList());
+        return QueryCacheKey.of(
+            effectiveSql,
+            resolveDataSource(),
+            levels,
+            activeDept,
+            SecurityUtils.getCurrentUserAuthorities(),
+            maskingFingerprint(dataset)
+        );
+    }
+
+    private String resolveDataSource() {
+        return registry
+            .getActive()
+            .map(state -> "inceptor:" + state.id() + ":" + state.jdbcUrl() + ":" + state.database())
+            .orElseGet(() -> "postgres:" + catalogFeatureProperties.getPostgresSchema());
+    }
+
+    private String maskingFingerprint(CatalogDataset dataset) {
+        if (dataset == null || dataset.getId() == null) {
+            return "";
+        }
+        return maskingRuleRepository
+            .findByDataset(dataset)
+            .stream()
+            .map(this::describe)
+            .sorted()
+            .collect(Collectors.joining(";"));
+    }
+
+    private String describe(CatalogMaskingRule rule) {
+        return rule.getColumn() + "=" + rule.getFunction() + "(" + Objects.toString(rule.getArgs(), "") + ")";
+    }
+}
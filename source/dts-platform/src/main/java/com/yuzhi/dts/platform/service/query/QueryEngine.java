@@ -0,0 +1,31 @@
+package com.yuzhi.dts.platform.service.query;
+
+import java.util.Map;
+
+/**
+ * 单个查询引擎的执行入口，由 {@link RoutingQueryGateway} 统一调度。
+ */
+public interface QueryEngine {
+    QueryEngineType type();
+
+    /**
+     * 引擎当前是否具备执行条件（数据源已发布、功能已启用等），不代表健康状态。
+     */
+    boolean isAvailable();
+
+    /**
+     * 执行只读查询并返回与 {@link QueryGateway#execute(String)} 相同结构的结果。
+     */
+    Map<String, Object> execute(String effectiveSql, QueryHints hints);
+
+    /**
+     * 在调用线程上以游标方式执行只读查询，逐行交给 {@code sink}，不受 {@link JdbcResults#MAX_ROWS} 限制。
+     *
+     * @param fetchSize 每次从引擎拉取的行数
+     * @param maxRows   交给驱动的行数上限，0 表示不限制
+     * @return 读取的行数
+     */
+    default long stream(String effectiveSql, QueryHints hints, int fetchSize, long maxRows, QueryRowSink sink) {
+        throw new EngineUnavailableException(type() + " 引擎不支持流式读取");
+    }
+}
@@ -0,0 +1,13 @@
+package com.yuzhi.dts.platform.service.query;
+
+/**
+ * 可路由的查询引擎。
+ */
+public enum QueryEngineType {
+    /** Inceptor / Hive，承担重型批量 SQL。 */
+    HIVE,
+    /** Trino，面向交互式的低延迟查询。 */
+    TRINO,
+    /** 平台自带 PostgreSQL（OLAP 回退工作区）。 */
+    POSTGRES
+}
@@ -9,5 +9,22 @@ public interface QueryGateway {
      * Implementations should enforce read-only semantics.
      */
     Map<String, Object> execute(String effectiveSql);
-}
 
+    /**
+     * Execute with routing hints (target dataset, interactive or batch).
+     * Gateways that do not route simply ignore the hints.
+     */
+    default Map<String, Object> execute(String effectiveSql, QueryHints hints) {
+        return execute(effectiveSql);
+    }
+
+    /**
+     * Stream a read-only query row by row into {@code sink} on the calling thread,
+     * without the in-memory row cap of {@link #execute(String)}.
+     *
+     * @return number of rows read
+     */
+    default long stream(String effectiveSql, QueryHints hints, int fetchSize, long maxRows, QueryRowSink sink) {
+        throw new IllegalStateException("当前查询网关不支持流式读取");
+    }
+}
@@ -0,0 +1,22 @@
+package com.yuzhi.dts.platform.service.query;
+
+import com.yuzhi.dts.platform.domain.catalog.CatalogDataset;
+
+/**
+ * 路由提示：查询所针对的数据集以及是否为交互式（预览）请求。
+ */
+public record QueryHints(CatalogDataset dataset, boolean interactive) {
+    private static final QueryHints NONE = new QueryHints(null, false);
+
+    public static QueryHints none() {
+        return NONE;
+    }
+
+    public static QueryHints interactive(CatalogDataset dataset) {
+        return new QueryHints(dataset, true);
+    }
+
+    public static QueryHints batch(CatalogDataset dataset) {
+        return new QueryHints(dataset, false);
+    }
+}
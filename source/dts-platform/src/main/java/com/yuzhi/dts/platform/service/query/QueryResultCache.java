@@ -0,0 +1,349 @@
+package com.yuzhi.dts.platform.service.query;
+
+import com.yuzhi.dts.platform.config.ExploreProperties;
+import com.yuzhi.dts.platform.service.infra.InceptorDataSourceListener;
+import com.yuzhi.dts.platform.service.infra.InceptorDataSourceRegistry.DataSourceChange;
+import com.yuzhi.dts.platform.service.infra.event.CatalogSynchronizedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+import javax.crypto.CipherOutputStream;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 基于本地磁盘的查询结果缓存：键包含规范化 SQL、数据源及调用者安全上下文（见 {@link QueryCacheKey}），
+ * 总容量按字节限制并按最近访问淘汰，TTL 到期或目录同步/当前数据源变化后整体失效。
+ * <p>
+ * 默认关闭，启用时必须显式配置目录。目录与文件仅属主可读写（0700/0600），每个条目以进程启动时生成的临时密钥
+ * 做 AES-GCM 加密并以缓存键作为附加认证数据，内容用 {@link CachedResultCodec} 编码而非 Java 反序列化；
+ * 密钥不落盘，重启后旧文件即不可读，启动时一并清除。
+ */
+@Component
+public class QueryResultCache implements InceptorDataSourceListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QueryResultCache.class);
+    private static final String FILE_SUFFIX = ".bin";
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+    private static final Set<PosixFilePermission> DIRECTORY_PERMISSIONS = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> FILE_PERMISSIONS = PosixFilePermissions.fromString("rw-------");
+
+    private final ExploreProperties.ResultCache properties;
+    private final Clock clock;
+    private final Map<String, Entry> index = new LinkedHashMap<>(64, 0.75f, true);
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expirations;
+    private final Counter invalidations;
+    private final SecureRandom random = new SecureRandom();
+
+    private Path directory;
+    private SecretKey secretKey;
+
+    public QueryResultCache(ExploreProperties exploreProperties, MeterRegistry meterRegistry) {
+        this(exploreProperties.getResultCache(), meterRegistry, Clock.systemUTC());
+    }
+
+    QueryResultCache(ExploreProperties.ResultCache properties, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.hits = Counter.builder("dts.explore.result.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("dts.explore.result.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.sizeEvictions = Counter.builder("dts.explore.result.cache.evictions").tag("cause", "size").register(meterRegistry);
+        this.expirations = Counter.builder("dts.explore.result.cache.evictions").tag("cause", "expired").register(meterRegistry);
+        this.invalidations = Counter.builder("dts.explore.result.cache.evictions").tag("cause", "invalidated").register(meterRegistry);
+        Gauge.builder("dts.explore.result.cache.bytes", totalBytes, AtomicLong::get).baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("dts.explore.result.cache.entries", this, QueryResultCache::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void initialize() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!StringUtils.hasText(properties.getDirectory())) {
+            LOG.warn("Query result cache disabled: dts.platform.explore.result-cache.directory is not configured");
+            return;
+        }
+        try {
+            Path dir = Paths.get(properties.getDirectory()).toAbsolutePath().normalize();
+            prepareDirectory(dir);
+            // 索引与密钥只存在于内存，上次运行遗留的文件无法复用
+            try (Stream<Path> files = Files.list(dir)) {
+                files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.endsWith(FILE_SUFFIX) || name.endsWith(FILE_SUFFIX + ".tmp");
+                    })
+                    .forEach(this::deleteQuietly);
+            }
+            KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(256, random);
+            secretKey = generator.generateKey();
+            directory = dir;
+            LOG.info("Query result cache enabled at {} (maxBytes={}, ttl={})", dir, properties.getMaxBytes(), properties.getTtl());
+        } catch (IOException | GeneralSecurityException | RuntimeException ex) {
+            directory = null;
+            secretKey = null;
+            LOG.warn("Query result cache disabled: unable to prepare directory {} ({})", properties.getDirectory(), ex.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled() && directory != null;
+    }
+
+    /**
+     * 命中时返回缓存结果的独立副本，否则执行 loader 并在结果可缓存时写入磁盘。
+     */
+    public CachedResult getOrLoad(QueryCacheKey key, Supplier<Map<String, Object>> loader) {
+        if (!isEnabled() || key == null) {
+            return new CachedResult(loader.get(), false);
+        }
+        Map<String, Object> cached = lookup(key.value());
+        if (cached != null) {
+            hits.increment();
+            return new CachedResult(cached, true);
+        }
+        misses.increment();
+        long startGeneration = generation.get();
+        Map<String, Object> loaded = loader.get();
+        if (loaded != null) {
+            store(key.value(), loaded, startGeneration);
+        }
+        return new CachedResult(loaded, false);
+    }
+
+    @EventListener
+    public void onCatalogSynchronized(CatalogSynchronizedEvent event) {
+        invalidateAll("catalog sync (" + event.reason() + ")");
+    }
+
+    /**
+     * 缓存键只包含当前数据源，因此只在当前数据源变化时失效；其他数据源的变化与内容未变的重复发布不影响缓存。
+     */
+    @Override
+    public void onDataSourceChanged(DataSourceChange change) {
+        if (change.active()) {
+            invalidateAll("data source " + change.id() + " changed");
+        }
+    }
+
+    public void invalidateAll(String reason) {
+        List<Entry> removed;
+        synchronized (index) {
+            generation.incrementAndGet();
+            removed = new ArrayList<>(index.values());
+            index.clear();
+            totalBytes.set(0);
+        }
+        removed.forEach(entry -> deleteQuietly(entry.path()));
+        if (!removed.isEmpty()) {
+            invalidations.increment(removed.size());
+            LOG.debug("Query result cache invalidated {} entries: {}", removed.size(), reason);
+        }
+    }
+
+    public int size() {
+        synchronized (index) {
+            return index.size();
+        }
+    }
+
+    public long totalBytes() {
+        return totalBytes.get();
+    }
+
+    private Map<String, Object> lookup(String key) {
+        Entry entry;
+        synchronized (index) {
+            entry = index.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (!entry.expiresAt().isAfter(clock.instant())) {
+                removeLocked(key, entry);
+                expirations.increment();
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            return null;
+        }
+        try {
+            return read(key, entry.path());
+        } catch (IOException | GeneralSecurityException | RuntimeException ex) {
+            LOG.debug("Dropping unreadable cached result {}: {}", entry.path(), ex.getMessage());
+            synchronized (index) {
+                if (index.get(key) == entry) {
+                    removeLocked(key, entry);
+                }
+            }
+            return null;
+        }
+    }
+
+    private void store(String key, Map<String, Object> result, long startGeneration) {
+        Path target = directory.resolve(key + "-" + UUID.randomUUID() + FILE_SUFFIX);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        long size;
+        try {
+            write(key, temp, result);
+            size = Files.size(temp);
+            if (size > properties.getMaxEntryBytes() || size > properties.getMaxBytes()) {
+                deleteQuietly(temp);
+                return;
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | GeneralSecurityException | RuntimeException ex) {
+            deleteQuietly(temp);
+            LOG.debug("Unable to cache query result: {}", ex.getMessage());
+            return;
+        }
+        List<Path> obsolete = new ArrayList<>();
+        synchronized (index) {
+            if (generation.get() != startGeneration) {
+                // 期间发生过失效，丢弃可能基于旧目录的数据
+                obsolete.add(target);
+            } else {
+                Entry previous = index.put(key, new Entry(target, size, clock.instant().plus(ttl())));
+                if (previous != null) {
+                    totalBytes.addAndGet(-previous.bytes());
+                    obsolete.add(previous.path());
+                }
+                totalBytes.addAndGet(size);
+                Iterator<Map.Entry<String, Entry>> iterator = index.entrySet().iterator();
+                while (totalBytes.get() > properties.getMaxBytes() && iterator.hasNext()) {
+                    Map.Entry<String, Entry> eldest = iterator.next();
+                    iterator.remove();
+                    totalBytes.addAndGet(-eldest.getValue().bytes());
+                    obsolete.add(eldest.getValue().path());
+                    sizeEvictions.increment();
+                }
+            }
+        }
+        obsolete.forEach(this::deleteQuietly);
+    }
+
+    private void removeLocked(String key, Entry entry) {
+        index.remove(key);
+        totalBytes.addAndGet(-entry.bytes());
+        deleteQuietly(entry.path());
+    }
+
+    private Duration ttl() {
+        Duration ttl = properties.getTtl();
+        return ttl == null || ttl.isNegative() ? Duration.ZERO : ttl;
+    }
+
+    private void prepareDirectory(Path dir) throws IOException {
+        if (!isPosix(dir)) {
+            Files.createDirectories(dir);
+            return;
+        }
+        if (Files.notExists(dir)) {
+            Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(DIRECTORY_PERMISSIONS));
+        }
+        // 已存在的目录同样收紧为仅属主可访问
+        Files.setPosixFilePermissions(dir, DIRECTORY_PERMISSIONS);
+    }
+
+    private void write(String cacheKey, Path path, Map<String, Object> result) throws IOException, GeneralSecurityException {
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance(CIPHER);
+        cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(TAG_BITS, iv));
+        cipher.updateAAD(cacheKey.getBytes(StandardCharsets.UTF_8));
+        if (isPosix(path.getParent())) {
+            Files.createFile(path, PosixFilePermissions.asFileAttribute(FILE_PERMISSIONS));
+        } else {
+            Files.createFile(path);
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))) {
+            out.write(iv);
+            try (DataOutputStream data = new DataOutputStream(new GZIPOutputStream(new CipherOutputStream(out, cipher)))) {
+                CachedResultCodec.write(data, result);
+            }
+        }
+    }
+
+    private Map<String, Object> read(String cacheKey, Path path) throws IOException, GeneralSecurityException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            byte[] iv = in.readNBytes(IV_LENGTH);
+            if (iv.length != IV_LENGTH) {
+                throw new IOException("Truncated cache file");
+            }
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(cacheKey.getBytes(StandardCharsets.UTF_8));
+            try (DataInputStream data = new DataInputStream(new GZIPInputStream(new CipherInputStream(in, cipher)))) {
+                return CachedResultCodec.read(data);
+            }
+        }
+    }
+
+    private static boolean isPosix(Path path) {
+        FileSystem fs = path == null ? FileSystems.getDefault() : path.getFileSystem();
+        return fs.supportedFileAttributeViews().contains("posix");
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            LOG.debug("Failed to delete cached result {}: {}", path, ex.getMessage());
+        }
+    }
+
+    private record Entry(Path path, long bytes, Instant expiresAt) {}
+
+    public record CachedResult(Map<String, Object> result, boolean hit) {}
+}
@@ -0,0 +1,18 @@
+package com.yuzhi.dts.platform.service.query;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 流式查询的逐行接收端：先收到一次列头，再按游标顺序逐行收到列值（与列头同序）。
+ * <p>
+ * 行数组在回调返回后可能被复用，接收端需要保留数据时应自行复制。
+ */
+public interface QueryRowSink {
+    void open(List<String> headers) throws IOException;
+
+    /**
+     * @return false 表示不再需要后续行，引擎应停止读取并关闭游标
+     */
+    boolean row(Object[] values) throws IOException;
+}
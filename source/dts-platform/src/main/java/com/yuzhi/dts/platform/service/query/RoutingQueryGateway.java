@@ -0,0 +1,375 @@
+package com.yuzhi.dts.platform.service.query;
+
+import com.yuzhi.dts.platform.config.QueryEngineProperties;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.security.auth.login.LoginException;
+import org.ietf.jgss.GSSException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+/**
+ * 多引擎查询路由：按数据集所在位置、查询形态与引擎健康状况选择引擎，
+ * 每个引擎拥有独立的有界并发池与等待队列，连接失败、引擎不可用或排队已满时透明切换到下一个候选引擎。
+ * SQL 本身的错误（语法、权限、对象不存在等）直接返回调用方，既不切换也不计入熔断。
+ * <p>
+ * 交互式预览与轻量查询优先 Trino，重型批量 SQL 留在 Inceptor；PostgreSQL 数据集优先落到平台库，
+ * 未指明数据集的查询在 PostgreSQL 回退激活时以平台库作为最后的候选。
+ */
+@Service
+@Primary
+public class RoutingQueryGateway implements QueryGateway {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RoutingQueryGateway.class);
+    private static final Pattern LIMIT_PATTERN = Pattern.compile("(?is)\\blimit\\s+(\\d+)\\s*(?:offset\\s+\\d+\\s*)?$");
+    /** SQL 标准的连接类 SQLState；不含 Hive 同样用于执行失败的 08S01。 */
+    private static final Set<String> CONNECTION_SQL_STATES = Set.of("08000", "08001", "08003", "08004", "08006", "08007");
+    private static final Pattern HEAVY_SHAPE_PATTERN = Pattern.compile(
+        "(?is)\\b(join|group\\s+by|distinct|union|over\\s*\\(|insert|create)\\b"
+    );
+
+    private final QueryEngineProperties properties;
+    private final Map<QueryEngineType, EngineLane> lanes = new EnumMap<>(QueryEngineType.class);
+
+    public RoutingQueryGateway(List<QueryEngine> engines, QueryEngineProperties properties) {
+        this.properties = properties;
+        for (QueryEngine engine : engines) {
+            QueryEngineProperties.Pool pool = poolFor(engine.type());
+            lanes.put(engine.type(), new EngineLane(engine, pool, properties));
+        }
+        LOG.info("Query router initialized with engines {}", lanes.keySet());
+    }
+
+    @Override
+    public Map<String, Object> execute(String effectiveSql) {
+        return execute(effectiveSql, QueryHints.none());
+    }
+
+    @Override
+    public Map<String, Object> execute(String effectiveSql, QueryHints hints) {
+        QueryHints effectiveHints = hints != null ? hints : QueryHints.none();
+        List<EngineLane> candidates = plan(effectiveSql, effectiveHints);
+        if (candidates.isEmpty()) {
+            throw new IllegalStateException("未检测到可用的数据源，请联系系统管理员");
+        }
+        RuntimeException firstFailure = null;
+        List<String> skipped = new ArrayList<>();
+        for (EngineLane lane : candidates) {
+            try {
+                Map<String, Object> result = new LinkedHashMap<>(lane.submit(effectiveSql, effectiveHints));
+                result.put("engine", lane.type().name());
+                if (!skipped.isEmpty()) {
+                    result.put("failoverFrom", List.copyOf(skipped));
+                }
+                return result;
+            } catch (EngineSaturatedException ex) {
+                LOG.info("Query engine {} saturated, trying next candidate", lane.type());
+                firstFailure = firstFailure != null ? firstFailure : ex;
+            } catch (QueryTimeoutException ex) {
+                // 超时的查询可能仍在引擎上运行，不再切换以免放大负载
+                throw ex;
+            } catch (RuntimeException ex) {
+                if (!isInfrastructureFailure(ex)) {
+                    throw ex;
+                }
+                LOG.warn("Query engine {} unreachable: {}", lane.type(), ex.getMessage());
+                firstFailure = firstFailure != null ? firstFailure : ex;
+            }
+            skipped.add(lane.type().name());
+            if (!properties.isFailover()) {
+                break;
+            }
+        }
+        throw firstFailure;
+    }
+
+    /**
+     * 流式读取在调用线程上执行，不占用引擎通道的线程池（下载可能持续数分钟，由下载服务自行限流）。
+     * 候选顺序按批量查询计算（非 PostgreSQL 数据集通常先走 Inceptor），与引擎收到的提示一致。
+     * 只有在尚未向 sink 输出列头时失败才切换到下一个候选引擎。
+     */
+    @Override
+    public long stream(String effectiveSql, QueryHints hints, int fetchSize, long maxRows, QueryRowSink sink) {
+        // 流式下载是全量导出，按批量查询选引擎，与实际调用引擎时的提示保持一致
+        QueryHints batch = QueryHints.batch(hints != null ? hints.dataset() : null);
+        List<EngineLane> candidates = plan(effectiveSql, batch);
+        if (candidates.isEmpty()) {
+            throw new IllegalStateException("未检测到可用的数据源，请联系系统管理员");
+        }
+        OpenTrackingSink tracking = new OpenTrackingSink(sink);
+        RuntimeException firstFailure = null;
+        for (EngineLane lane : candidates) {
+            try {
+                return lane.engine().stream(effectiveSql, batch, fetchSize, maxRows, tracking);
+            } catch (RuntimeException ex) {
+                // 已开始输出、客户端断开或查询本身出错时不切换引擎，规则与 execute 一致
+                if (tracking.opened || ex instanceof UncheckedIOException || !properties.isFailover() || !isInfrastructureFailure(ex)) {
+                    throw ex;
+                }
+                LOG.warn("Query engine {} failed to stream: {}", lane.type(), ex.getMessage());
+                firstFailure = firstFailure != null ? firstFailure : ex;
+            }
+        }
+        throw firstFailure;
+    }
+
+    /**
+     * 计算候选引擎顺序：可用且健康的引擎在前，处于冷却期的引擎排在最后作为兜底。
+     */
+    List<EngineLane> plan(String sql, QueryHints hints) {
+        List<EngineLane> healthy = new ArrayList<>();
+        List<EngineLane> cooling = new ArrayList<>();
+        for (QueryEngineType type : preferenceOrder(sql, hints)) {
+            EngineLane lane = lanes.get(type);
+            if (lane == null || !lane.engine().isAvailable()) {
+                continue;
+            }
+            (lane.isHealthy() ? healthy : cooling).add(lane);
+        }
+        healthy.addAll(cooling);
+        return healthy;
+    }
+
+    List<QueryEngineType> preferenceOrder(String sql, QueryHints hints) {
+        String datasetType = hints.dataset() != null && hints.dataset().getType() != null
+            ? hints.dataset().getType().trim().toUpperCase(Locale.ROOT)
+            : "";
+        if ("POSTGRES".equals(datasetType)) {
+            return List.of(QueryEngineType.POSTGRES, QueryEngineType.HIVE, QueryEngineType.TRINO);
+        }
+        List<QueryEngineType> order = isInteractiveShape(sql, hints)
+            ? List.of(QueryEngineType.TRINO, QueryEngineType.HIVE)
+            : List.of(QueryEngineType.HIVE, QueryEngineType.TRINO);
+        if (hints.dataset() != null) {
+            // 平台库里没有其他数据集的表，不能作为兜底
+            return order;
+        }
+        // 未指明数据集时沿用原网关的回退行为：仅部署了 PostgreSQL 回退数据源时由平台库兜底（引擎不可用时会被跳过）
+        return List.of(order.get(0), order.get(1), QueryEngineType.POSTGRES);
+    }
+
+    /**
+     * 是否属于引擎侧的基础设施故障：排队已满、引擎不可用、连接建立/中断（连接类 SQLException、SQLState 08xxx、
+     * 网络 IO）以及 Kerberos 登录失败。其余异常（包括引擎返回的 SQL 错误）都视为查询本身的问题。
+     */
+    static boolean isInfrastructureFailure(Throwable failure) {
+        Throwable current = failure;
+        int depth = 0;
+        while (current != null && depth < 10) {
+            if (
+                current instanceof EngineSaturatedException ||
+                current instanceof EngineUnavailableException ||
+                current instanceof SQLNonTransientConnectionException ||
+                current instanceof SQLTransientConnectionException ||
+                current instanceof SQLRecoverableException ||
+                current instanceof IOException ||
+                current instanceof LoginException ||
+                current instanceof GSSException ||
+                current.getClass().getSimpleName().equals("TTransportException")
+            ) {
+                return true;
+            }
+            if (current instanceof SQLException sql && CONNECTION_SQL_STATES.contains(sql.getSQLState())) {
+                return true;
+            }
+            current = current.getCause();
+            depth++;
+        }
+        return false;
+    }
+
+    /**
+     * 交互式：预览请求，或不含关联/聚合且 LIMIT 不超过阈值的查询。
+     */
+    boolean isInteractiveShape(String sql, QueryHints hints) {
+        if (hints.interactive()) {
+            return true;
+        }
+        if (!StringUtils.hasText(sql) || HEAVY_SHAPE_PATTERN.matcher(sql).find()) {
+            return false;
+        }
+        Matcher matcher = LIMIT_PATTERN.matcher(sql.trim());
+        if (!matcher.find()) {
+            return false;
+        }
+        try {
+            return Long.parseLong(matcher.group(1)) <= properties.getInteractiveRowLimit();
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lanes.values().forEach(EngineLane::shutdown);
+    }
+
+    private QueryEngineProperties.Pool poolFor(QueryEngineType type) {
+        return switch (type) {
+            case HIVE -> properties.getHive();
+            case TRINO -> properties.getTrino();
+            case POSTGRES -> properties.getPostgres();
+        };
+    }
+
+    /**
+     * 单个引擎的执行通道：有界线程池 + 有界队列 + 连续失败熔断。
+     */
+    static final class EngineLane {
+
+        private final QueryEngine engine;
+        private final ThreadPoolExecutor executor;
+        private final Duration timeout;
+        private final int failureThreshold;
+        private final Duration cooldown;
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile long unhealthyUntil;
+
+        EngineLane(QueryEngine engine, QueryEngineProperties.Pool pool, QueryEngineProperties properties) {
+            this.engine = engine;
+            int threads = Math.max(1, pool.getMaxConcurrent());
+            this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, pool.getQueueCapacity())),
+                new CustomizableThreadFactory("query-" + engine.type().name().toLowerCase(Locale.ROOT) + "-"),
+                new ThreadPoolExecutor.AbortPolicy()
+            );
+            this.executor.allowCoreThreadTimeOut(true);
+            this.timeout = pool.getTimeout() != null ? pool.getTimeout() : Duration.ofMinutes(5);
+            this.failureThreshold = Math.max(1, properties.getFailureThreshold());
+            this.cooldown = properties.getUnhealthyCooldown() != null ? properties.getUnhealthyCooldown() : Duration.ZERO;
+        }
+
+        QueryEngineType type() {
+            return engine.type();
+        }
+
+        QueryEngine engine() {
+            return engine;
+        }
+
+        boolean isHealthy() {
+            return System.currentTimeMillis() >= unhealthyUntil;
+        }
+
+        int activeCount() {
+            return executor.getActiveCount();
+        }
+
+        int queuedCount() {
+            return executor.getQueue().size();
+        }
+
+        Map<String, Object> submit(String sql, QueryHints hints) {
+            Future<Map<String, Object>> future;
+            try {
+                future = executor.submit(() -> engine.execute(sql, hints));
+            } catch (RejectedExecutionException ex) {
+                throw new EngineSaturatedException(engine.type());
+            }
+            try {
+                Map<String, Object> result = future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+                consecutiveFailures.set(0);
+                unhealthyUntil = 0L;
+                return result;
+            } catch (TimeoutException ex) {
+                future.cancel(true);
+                recordFailure();
+                throw new QueryTimeoutException(engine.type(), timeout);
+            } catch (InterruptedException ex) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("查询已中断", ex);
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                if (isInfrastructureFailure(cause)) {
+                    recordFailure();
+                } else {
+                    // 引擎正常返回了 SQL 错误，说明引擎本身可用
+                    consecutiveFailures.set(0);
+                    unhealthyUntil = 0L;
+                }
+                if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IllegalStateException(engine.type() + " 查询失败: " + JdbcResults.resolveMessage(cause), cause);
+            }
+        }
+
+        private void recordFailure() {
+            if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+                unhealthyUntil = System.currentTimeMillis() + cooldown.toMillis();
+                LOG.warn("Query engine {} marked unhealthy for {} after {} consecutive failures", engine.type(), cooldown, consecutiveFailures.get());
+            }
+        }
+
+        void shutdown() {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class OpenTrackingSink implements QueryRowSink {
+
+        private final QueryRowSink delegate;
+        private boolean opened;
+
+        OpenTrackingSink(QueryRowSink delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void open(List<String> headers) throws IOException {
+            opened = true;
+            delegate.open(headers);
+        }
+
+        @Override
+        public boolean row(Object[] values) throws IOException {
+            return delegate.row(values);
+        }
+    }
+
+    static final class EngineSaturatedException extends IllegalStateException {
+
+        EngineSaturatedException(QueryEngineType type) {
+            super(type + " 查询排队已满，请稍后重试");
+        }
+    }
+
+    static final class QueryTimeoutException extends IllegalStateException {
+
+        QueryTimeoutException(QueryEngineType type, Duration timeout) {
+            super(type + " 查询超时（" + timeout.toSeconds() + " 秒）");
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.yuzhi.dts.platform.service.query;
+
+import com.yuzhi.dts.platform.config.QueryEngineProperties;
+import com.yuzhi.dts.platform.domain.catalog.CatalogDataset;
+import com.yuzhi.dts.platform.service.infra.HiveConnectionService;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+/**
+ * Trino 查询引擎（services/dts-trino），通过 inceptor catalog 读取同一份 Hive 元数据，承担交互式低延迟查询。
+ * 驱动 {@code io.trino.jdbc.TrinoDriver} 与其他厂商驱动一样从外部驱动目录加载。
+ */
+@Service
+public class TrinoQueryEngine implements QueryEngine {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TrinoQueryEngine.class);
+    private static final String TRINO_DRIVER = "io.trino.jdbc.TrinoDriver";
+
+    private final QueryEngineProperties.Trino properties;
+    private final HiveConnectionService connectionService;
+    private volatile Driver driver;
+
+    public TrinoQueryEngine(QueryEngineProperties queryEngineProperties, HiveConnectionService connectionService) {
+        this.properties = queryEngineProperties.getTrino();
+        this.connectionService = connectionService;
+    }
+
+    @Override
+    public QueryEngineType type() {
+        return QueryEngineType.TRINO;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return properties.isEnabled() && StringUtils.hasText(properties.getJdbcUrl());
+    }
+
+    @Override
+    public Map<String, Object> execute(String effectiveSql, QueryHints hints) {
+        if (!isAvailable()) {
+            throw new EngineUnavailableException("Trino 查询引擎未启用");
+        }
+        String catalog = resolveCatalog(hints.dataset());
+        String schema = hints.dataset() != null ? trimToNull(hints.dataset().getHiveDatabase()) : null;
+        String trinoSql = toTrinoDialect(effectiveSql);
+        long connectStart = System.nanoTime();
+        try (Connection connection = openConnection()) {
+            long connectMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart);
+            if (catalog != null) {
+                connection.setCatalog(catalog);
+            }
+            if (schema != null) {
+                connection.setSchema(schema);
+            }
+            long queryStart = System.nanoTime();
+            JdbcResults.Tabular tabular;
+            try (Statement stmt = connection.createStatement()) {
+                tabular = JdbcResults.query(stmt, trinoSql);
+            }
+            long queryMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queryStart);
+            Map<String, Object> context = new LinkedHashMap<>();
+            context.put("catalog", catalog);
+            context.put("database", schema);
+            context.put("timestamp", Instant.now());
+            LOG.debug("Trino query executed. rows={}, connect={}ms, query={}ms", tabular.rows().size(), connectMillis, queryMillis);
+            return JdbcResults.payload(tabular, connectMillis, queryMillis, effectiveSql, context);
+        } catch (SQLException e) {
+            String message = JdbcResults.resolveMessage(e);
+            LOG.warn("Trino query failure. sql='{}', reason={}", trinoSql, message);
+            throw new IllegalStateException("Trino 查询失败: " + message, e);
+        }
+    }
+
+    @Override
+    public long stream(String effectiveSql, QueryHints hints, int fetchSize, long maxRows, QueryRowSink sink) {
+        if (!isAvailable()) {
+            throw new EngineUnavailableException("Trino 查询引擎未启用");
+        }
+        String catalog = resolveCatalog(hints.dataset());
+        String schema = hints.dataset() != null ? trimToNull(hints.dataset().getHiveDatabase()) : null;
+        String trinoSql = toTrinoDialect(effectiveSql);
+        try (Connection connection = openConnection()) {
+            if (catalog != null) {
+                connection.setCatalog(catalog);
+            }
+            if (schema != null) {
+                connection.setSchema(schema);
+            }
+            try (Statement stmt = connection.createStatement()) {
+                long rows = JdbcResults.stream(stmt, trinoSql, fetchSize, maxRows, sink);
+                LOG.debug("Trino query streamed. rows={}", rows);
+                return rows;
+            }
+        } catch (SQLException | IOException e) {
+            LOG.warn("Trino streaming query failure. sql='{}', reason={}", trinoSql, JdbcResults.resolveMessage(e));
+            throw JdbcResults.streamFailure("Trino", e);
+        }
+    }
+
+    /**
+     * Hive 风格的反引号标识符转换为 ANSI 双引号，字符串字面量保持原样。
+     */
+    static String toTrinoDialect(String sql) {
+        if (sql == null || sql.indexOf('`') < 0) {
+            return sql;
+        }
+        StringBuilder out = new StringBuilder(sql.length());
+        boolean inLiteral = false;
+        boolean inIdentifier = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char ch = sql.charAt(i);
+            if (inIdentifier) {
+                if (ch == '`' && i + 1 < sql.length() && sql.charAt(i + 1) == '`') {
+                    out.append('`');
+                    i++;
+                } else if (ch == '`') {
+                    out.append('"');
+                    inIdentifier = false;
+                } else if (ch == '"') {
+                    out.append("\"\"");
+                } else {
+                    out.append(ch);
+                }
+            } else if (ch == '\'') {
+                inLiteral = !inLiteral;
+                out.append(ch);
+            } else if (ch == '`' && !inLiteral) {
+                out.append('"');
+                inIdentifier = true;
+            } else {
+                out.append(ch);
+            }
+        }
+        return out.toString();
+    }
+
+    private Connection openConnection() throws SQLException {
+        Properties props = new Properties();
+        props.putAll(properties.getProperties());
+        if (StringUtils.hasText(properties.getUsername())) {
+            props.setProperty("user", properties.getUsername());
+        }
+        if (StringUtils.hasText(properties.getPassword())) {
+            props.setProperty("password", properties.getPassword());
+        }
+        Connection connection = resolveDriver().connect(properties.getJdbcUrl(), props);
+        if (connection == null) {
+            throw new SQLException("Trino 驱动不接受 JDBC URL: " + properties.getJdbcUrl());
+        }
+        return connection;
+    }
+
+    private Driver resolveDriver() throws SQLException {
+        Driver current = driver;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (driver != null) {
+                return driver;
+            }
+            try {
+                driver = DriverManager.getDriver(properties.getJdbcUrl());
+            } catch (SQLException notRegistered) {
+                ClassLoader loader = connectionService.getJdbcDriverLoader();
+                if (loader == null) {
+                    loader = Thread.currentThread().getContextClassLoader();
+                }
+                try {
+                    driver = (Driver) Class.forName(TRINO_DRIVER, true, loader).getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | LinkageError ex) {
+                    throw new SQLException("未找到 Trino JDBC 驱动 " + TRINO_DRIVER, ex);
+                }
+            }
+            return driver;
+        }
+    }
+
+    private String resolveCatalog(CatalogDataset dataset) {
+        String fromDataset = dataset != null ? trimToNull(dataset.getTrinoCatalog()) : null;
+        return fromDataset != null ? fromDataset : trimToNull(properties.getCatalog());
+    }
+
+    private String trimToNull(String value) {
+        return StringUtils.hasText(value) ? value.trim() : null;
+    }
+}
@@ -64,6 +64,18 @@ public class AccessChecker {
         return true;
     }
 
+    /**
+     * {@link #canRead(CatalogDataset)} 所依赖的调用者上下文摘要：摘要相同的用户对同一数据集的读权限判定一致，
+     * 可据此共享按安全上下文缓存的可见数据集索引。
+     */
+    public String readContextFingerprint() {
+        if (isSuperAdmin()) {
+            return "SUPER";
+        }
+        PersonnelLevel personnel = extractPersonnelLevelFromJwt();
+        return "P=" + (personnel != null ? personnel.name() : "-") + ";C=" + classificationUtils.getCurrentUserMaxLevel();
+    }
+
     private boolean levelAllowed(CatalogDataset dataset) {
         // Normalize dataset level to new DATA_*; accept legacy values
         String levelStr = dataset.getClassification();
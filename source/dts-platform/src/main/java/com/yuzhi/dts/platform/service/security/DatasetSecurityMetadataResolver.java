@@ -74,6 +74,28 @@ public class DatasetSecurityMetadataResolver {
         return Optional.empty();
     }
 
+    /**
+     * 数据集登记的列名字典（小写 → 原始列名）：优先取 hiveTable 对应的表，否则合并数据集下所有表；无登记时返回空。
+     */
+    public Map<String, String> findColumnNames(CatalogDataset dataset) {
+        if (dataset == null) return Map.of();
+        String preferred = resolveText(dataset.getHiveTable());
+        if (preferred != null) {
+            Optional<CatalogTableSchema> table = tableRepository.findFirstByDatasetAndNameIgnoreCase(dataset, preferred);
+            if (table.isPresent()) {
+                return buildColumnNameMap(columnRepository.findByTable(table.orElseThrow()));
+            }
+        }
+        Map<String, String> merged = new HashMap<>();
+        List<CatalogTableSchema> tables = tableRepository.findByDataset(dataset);
+        if (!CollectionUtils.isEmpty(tables)) {
+            for (CatalogTableSchema table : tables) {
+                buildColumnNameMap(columnRepository.findByTable(table)).forEach(merged::putIfAbsent);
+            }
+        }
+        return merged;
+    }
+
     private Optional<String> findDataLevelColumn(CatalogDataset dataset, String tableName) {
         return tableRepository
             .findFirstByDatasetAndNameIgnoreCase(dataset, tableName)
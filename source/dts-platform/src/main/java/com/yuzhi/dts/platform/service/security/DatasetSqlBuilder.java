@@ -1,11 +1,18 @@
 package com.yuzhi.dts.platform.service.security;
 
 import com.yuzhi.dts.platform.domain.catalog.CatalogDataset;
+import com.yuzhi.dts.platform.domain.catalog.CatalogRowFilterRule;
+import com.yuzhi.dts.platform.repository.catalog.CatalogRowFilterRuleRepository;
+import com.yuzhi.dts.platform.security.SecurityUtils;
 import com.yuzhi.dts.platform.security.policy.DataLevel;
 import com.yuzhi.dts.platform.security.policy.DataLevelSqlHelper;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
@@ -20,13 +27,16 @@ public class DatasetSqlBuilder {
 
     private final AccessChecker accessChecker;
     private final DatasetSecurityMetadataResolver metadataResolver;
+    private final CatalogRowFilterRuleRepository rowFilterRepository;
 
     public DatasetSqlBuilder(
         AccessChecker accessChecker,
-        DatasetSecurityMetadataResolver metadataResolver
+        DatasetSecurityMetadataResolver metadataResolver,
+        CatalogRowFilterRuleRepository rowFilterRepository
     ) {
         this.accessChecker = accessChecker;
         this.metadataResolver = metadataResolver;
+        this.rowFilterRepository = rowFilterRepository;
     }
 
     /**
@@ -53,6 +63,54 @@ public class DatasetSqlBuilder {
         return resolveDataLevelPredicate(dataset, tableAlias, dialect);
     }
 
+    /**
+     * 统一的行级过滤条件：密级条件与当前用户命中的行过滤规则（{@link CatalogRowFilterRule}）按 AND 组合，
+     * 供 SQL 重写时下推到引擎执行，避免取回后再在内存中剔除。
+     */
+    public Optional<String> resolveRowPredicate(CatalogDataset dataset, String tableAlias) {
+        if (dataset == null) {
+            return Optional.empty();
+        }
+        return resolveRowPredicate(dataset, tableAlias, resolveRowFilterExpressions(dataset));
+    }
+
+    /**
+     * 同 {@link #resolveRowPredicate(CatalogDataset, String)}，行过滤表达式由调用方预先取得（避免重复查询规则）。
+     */
+    public Optional<String> resolveRowPredicate(CatalogDataset dataset, String tableAlias, List<String> rowFilterExpressions) {
+        if (dataset == null) {
+            return Optional.empty();
+        }
+        List<String> predicates = new ArrayList<>();
+        resolveDataLevelPredicate(dataset, tableAlias).ifPresent(predicates::add);
+        predicates.addAll(rowFilterExpressions);
+        if (predicates.isEmpty()) {
+            return Optional.empty();
+        }
+        if (predicates.size() == 1) {
+            return Optional.of(predicates.get(0));
+        }
+        return Optional.of(predicates.stream().map(predicate -> "(" + predicate + ")").collect(Collectors.joining(" AND ")));
+    }
+
+    /**
+     * 当前用户适用的行过滤表达式；规则未配置角色时对所有人生效。
+     */
+    public List<String> resolveRowFilterExpressions(CatalogDataset dataset) {
+        if (dataset == null || dataset.getId() == null || rowFilterRepository == null) {
+            return List.of();
+        }
+        List<String> expressions = new ArrayList<>();
+        for (CatalogRowFilterRule rule : rowFilterRepository.findByDataset(dataset)) {
+            String expression = resolveText(rule.getExpression());
+            if (expression == null || !ruleAppliesToCurrentUser(rule)) {
+                continue;
+            }
+            expressions.add(expression);
+        }
+        return expressions;
+    }
+
     public String quoteColumn(CatalogDataset dataset, String columnName) {
         if (!StringUtils.hasText(columnName)) {
             return columnName;
@@ -125,6 +183,23 @@ public class DatasetSqlBuilder {
         return Optional.ofNullable(DataLevelSqlHelper.buildPredicate(columnExpression, allowedLevels));
     }
 
+    private boolean ruleAppliesToCurrentUser(CatalogRowFilterRule rule) {
+        String roles = resolveText(rule.getRoles());
+        if (roles == null) {
+            return true;
+        }
+        String[] candidates = Arrays
+            .stream(roles.split(","))
+            .map(String::trim)
+            .filter(StringUtils::hasText)
+            .flatMap(role -> {
+                String upper = role.toUpperCase(Locale.ROOT);
+                return upper.startsWith("ROLE_") ? Stream.of(upper) : Stream.of(upper, "ROLE_" + upper);
+            })
+            .toArray(String[]::new);
+        return candidates.length == 0 || SecurityUtils.hasCurrentUserAnyOfAuthorities(candidates);
+    }
+
     private String qualifyHive(String database, String table) {
         String tableName = quoteIdentifier(table, QuoteDialect.HIVE);
         if (StringUtils.hasText(database)) {
@@ -26,6 +26,12 @@ public final class MaskingFunctions {
         if ("NONE".equals(mode)) {
             return value;
         }
+        if ("NULL".equals(mode)) {
+            return null;
+        }
+        if ("REDACT".equals(mode)) {
+            return "****";
+        }
         String text = stringify(value);
         return switch (mode) {
             case "PARTIAL" -> maskPartial(text);
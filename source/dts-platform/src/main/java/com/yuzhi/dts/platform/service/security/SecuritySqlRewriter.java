@@ -1,20 +1,28 @@
 package com.yuzhi.dts.platform.service.security;
 
+import com.yuzhi.dts.common.observability.OperationMetrics;
 import com.yuzhi.dts.platform.domain.catalog.CatalogDataset;
 import com.yuzhi.dts.platform.security.policy.DataLevel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 /**
- * 将用户提交的 SQL 包裹在受控子查询内，并追加密级过滤条件，确保在执行前完成行级安全校验。
+ * 将用户提交的 SQL 包裹在受控子查询内，并追加密级及行过滤规则条件，确保在执行前完成行级安全校验。
+ * 过滤条件统一由 {@link DatasetSqlBuilder#resolveRowPredicate} 生成并下推至引擎执行。
  */
 @Component
 public class SecuritySqlRewriter {
@@ -22,20 +30,38 @@ public class SecuritySqlRewriter {
     private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[^a-zA-Z0-9_]");
     private static final Pattern SELECT_CLAUSE_PATTERN = Pattern.compile("(?is)^\\s*select\\s+(.*?)\\s+from\\s+", Pattern.DOTALL);
     private static final Pattern GROUP_BY_PATTERN = Pattern.compile("(?is)\\bgroup\\s+by\\s+(.*?)(?=\\border\\s+by\\b|\\blimit\\b|\\bhaving\\b|\\bunion\\b|$)", Pattern.DOTALL);
+    private static final Pattern TRAILING_LIMIT_PATTERN = Pattern.compile("(?is)\\s+(limit\\s+\\d+(?:\\s*,\\s*\\d+)?(?:\\s+offset\\s+\\d+)?)\\s*$");
+    private static final Pattern ORDER_BY_PATTERN = Pattern.compile("(?is)\\border\\s+by\\b");
+    private static final String IDENTIFIER = "(?:`[^`]+`|\"[^\"]+\"|[A-Za-z_][A-Za-z0-9_]*)";
+    private static final Set<String> TABLE_ALIAS_STOP_WORDS = Set.of(
+        "where", "group", "order", "limit", "having", "join", "inner", "left", "right", "full", "outer", "cross",
+        "on", "using", "union", "lateral", "tablesample", "window", "natural"
+    );
+    /** 行过滤表达式中不视为列名的关键字、字面量与类型名（无列登记时使用） */
+    private static final Set<String> SQL_WORDS = Set.of(
+        "and", "or", "not", "in", "is", "null", "like", "ilike", "rlike", "regexp", "between", "true", "false",
+        "case", "when", "then", "else", "end", "exists", "select", "from", "where", "as", "distinct", "any", "all",
+        "some", "interval", "date", "time", "timestamp", "escape", "similar", "to", "int", "integer", "bigint",
+        "smallint", "tinyint", "varchar", "char", "string", "text", "double", "float", "real", "decimal", "numeric",
+        "boolean", "current_date", "current_timestamp", "current_user"
+    );
     private static final Logger LOG = LoggerFactory.getLogger(SecuritySqlRewriter.class);
 
     private final AccessChecker accessChecker;
     private final DatasetSecurityMetadataResolver metadataResolver;
     private final DatasetSqlBuilder datasetSqlBuilder;
+    private final OperationMetrics operationMetrics;
 
     public SecuritySqlRewriter(
         AccessChecker accessChecker,
         DatasetSecurityMetadataResolver metadataResolver,
-        DatasetSqlBuilder datasetSqlBuilder
+        DatasetSqlBuilder datasetSqlBuilder,
+        OperationMetrics operationMetrics
     ) {
         this.accessChecker = accessChecker;
         this.metadataResolver = metadataResolver;
         this.datasetSqlBuilder = datasetSqlBuilder;
+        this.operationMetrics = operationMetrics;
     }
 
     /**
@@ -53,33 +79,58 @@ public class SecuritySqlRewriter {
         if (dataset == null) {
             return stripTrailingSemicolon(rawSql);
         }
+        OperationMetrics.Span span = operationMetrics.start("sql.guard", dataset.getType()).sql(rawSql);
+        try {
+            return rewrite(rawSql, dataset);
+        } catch (RuntimeException ex) {
+            span.failed();
+            throw ex;
+        } finally {
+            span.close();
+        }
+    }
 
+    private String rewrite(String rawSql, CatalogDataset dataset) {
         List<DataLevel> allowedLevels = accessChecker.resolveAllowedDataLevels();
         if (allowedLevels == null || allowedLevels.isEmpty()) {
             throw new SecurityGuardException("当前账号未配置可访问的数据密级，无法执行查询");
         }
         String sanitizedSql = stripTrailingSemicolon(rawSql);
-        Optional<String> guardColumnOpt = metadataResolver.findDataLevelColumn(dataset);
-        if (guardColumnOpt.isEmpty()) {
-            LOG.debug("Dataset {} missing data-level column, skip guard rewrite", dataset.getId());
-            return sanitizedSql;
-        }
-
         String alias = resolveAlias(dataset);
-        Optional<String> predicateOpt = datasetSqlBuilder.resolveDataLevelPredicate(dataset, alias);
+        // 规则中的限定前缀指向原表，外层条件只能通过子查询别名引用这些列
+        List<String> rowFilters = datasetSqlBuilder
+            .resolveRowFilterExpressions(dataset)
+            .stream()
+            .map(expression -> requalifyColumns(expression, alias))
+            .toList();
+        Optional<String> predicateOpt = datasetSqlBuilder.resolveRowPredicate(dataset, alias, rowFilters);
         if (predicateOpt.isEmpty()) {
-            LOG.warn("Unable to build data-level predicate for dataset {}, skip guard rewrite", dataset.getId());
+            LOG.debug("Dataset {} has no data-level column or row filter, skip guard rewrite", dataset.getId());
             return sanitizedSql;
         }
 
-        String guardColumn = guardColumnOpt.orElseThrow();
-        ProjectionAdjustment adjustment = ensureGuardColumnProjection(sanitizedSql, guardColumn, dataset);
+        // 外层过滤条件引用的列（密级字段与行过滤规则中的列）必须出现在内层结果中
+        Set<String> filterColumns = new LinkedHashSet<>();
+        metadataResolver.findDataLevelColumn(dataset).ifPresent(filterColumns::add);
+        if (!rowFilters.isEmpty()) {
+            filterColumns.addAll(referencedColumns(rowFilters, metadataResolver.findColumnNames(dataset)));
+        }
+        ProjectionAdjustment adjustment = ensureFilterColumnsProjected(sanitizedSql, filterColumns, dataset);
         sanitizedSql = adjustment.sql();
-        if (adjustment.columnAdded()) {
-            sanitizedSql = ensureGroupByContainsGuard(sanitizedSql, guardColumn, dataset);
+        for (String added : adjustment.addedExpressions()) {
+            sanitizedSql = ensureGroupByContains(sanitizedSql, added);
         }
+        String outerProjection = adjustment.outputColumns() == null
+            ? "*"
+            : adjustment
+                .outputColumns()
+                .stream()
+                .map(column -> alias + "." + datasetSqlBuilder.quoteColumn(dataset, column))
+                .collect(Collectors.joining(", "));
+        // 将末尾 LIMIT 提到过滤条件之后，保证引擎先过滤再截断，返回满页的可见数据
+        LimitSplit split = splitTrailingLimit(sanitizedSql);
         String predicate = predicateOpt.orElseThrow();
-        return "SELECT * FROM (" + sanitizedSql + ") " + alias + " WHERE " + predicate;
+        return "SELECT " + outerProjection + " FROM (" + split.body() + ") " + alias + " WHERE " + predicate + split.limitClause();
     }
 
     private String resolveAlias(CatalogDataset dataset) {
@@ -117,42 +168,293 @@ public class SecuritySqlRewriter {
         return candidate;
     }
 
-    private ProjectionAdjustment ensureGuardColumnProjection(String sql, String columnName, CatalogDataset dataset) {
-        if (!StringUtils.hasText(sql) || !StringUtils.hasText(columnName)) {
-            return new ProjectionAdjustment(sql, false);
+    /**
+     * 拆出语句末尾的 LIMIT 子句；含 ORDER BY 时保持原样，避免外提后丢失排序语义。
+     */
+    private LimitSplit splitTrailingLimit(String sql) {
+        Matcher matcher = TRAILING_LIMIT_PATTERN.matcher(sql);
+        if (!matcher.find() || ORDER_BY_PATTERN.matcher(sql).find()) {
+            return new LimitSplit(sql, "");
+        }
+        String body = sql.substring(0, matcher.start()).trim();
+        if (body.isEmpty()) {
+            return new LimitSplit(sql, "");
+        }
+        return new LimitSplit(body, " " + matcher.group(1).trim());
+    }
+
+    /**
+     * 把过滤条件引用但未被查询选出的列追加到内层投影；已选出的列须是该数据集的同名原始列，
+     * 以别名占用同名输出的查询直接拒绝，避免外层条件绑定到别的列。
+     * 追加了列且原投影各项都有可引用的名称时，返回原输出列清单供外层只选回这些列。
+     */
+    private ProjectionAdjustment ensureFilterColumnsProjected(String sql, Collection<String> columns, CatalogDataset dataset) {
+        if (!StringUtils.hasText(sql) || columns.isEmpty()) {
+            return ProjectionAdjustment.unchanged(sql);
         }
         Matcher matcher = SELECT_CLAUSE_PATTERN.matcher(sql);
         if (!matcher.find()) {
-            return new ProjectionAdjustment(sql, false);
+            return ProjectionAdjustment.unchanged(sql);
         }
         String selectBody = matcher.group(1);
-        if (containsWildcard(selectBody) || containsColumnReference(selectBody, columnName, dataset)) {
-            return new ProjectionAdjustment(sql, false);
+        if (containsWildcard(selectBody)) {
+            return ProjectionAdjustment.unchanged(sql);
+        }
+        String qualifier = resolveTableQualifier(sql, dataset);
+        List<SelectItem> items = splitTopLevel(selectBody).stream().map(SelectItem::parse).toList();
+        List<String> added = new ArrayList<>();
+        for (String column : columns) {
+            boolean projected = false;
+            for (SelectItem item : items) {
+                if (item.outputName() == null || !item.outputName().equalsIgnoreCase(column)) {
+                    continue;
+                }
+                if (!item.isColumn(column, qualifier)) {
+                    throw new SecurityGuardException("查询结果列 " + item.outputName() + " 与行过滤字段同名但并非该字段，请调整列别名后重试");
+                }
+                projected = true;
+            }
+            if (!projected) {
+                String quoted = datasetSqlBuilder.quoteColumn(dataset, column);
+                added.add(qualifier != null ? qualifier + "." + quoted : quoted);
+            }
         }
-        String guardExpression = datasetSqlBuilder.quoteColumn(dataset, columnName);
-        String appended = selectBody.trim().isEmpty() ? guardExpression : selectBody + ", " + guardExpression;
+        if (added.isEmpty()) {
+            return ProjectionAdjustment.unchanged(sql);
+        }
+        String appended = selectBody.trim().isEmpty() ? String.join(", ", added) : selectBody + ", " + String.join(", ", added);
         String rebuilt = sql.substring(0, matcher.start(1)) + appended + sql.substring(matcher.end(1));
-        return new ProjectionAdjustment(rebuilt, true);
+        // 无名表达式列（如 COUNT(*)）的输出名由引擎决定，无法在外层按名引用，此时外层仍取全部列
+        boolean allNamed = items.stream().allMatch(item -> item.outputName() != null);
+        List<String> outputs = allNamed ? items.stream().map(SelectItem::outputName).toList() : null;
+        return new ProjectionAdjustment(rebuilt, added, outputs);
     }
 
-    private String ensureGroupByContainsGuard(String sql, String columnName, CatalogDataset dataset) {
-        if (!StringUtils.hasText(sql) || !StringUtils.hasText(columnName)) {
-            return sql;
+    /**
+     * 数据集表在 FROM/JOIN 中显式声明的别名；未声明时返回 null，追加列不加限定（单表查询按该表解析）。
+     */
+    private String resolveTableQualifier(String sql, CatalogDataset dataset) {
+        String table = dataset.getHiveTable();
+        if (!StringUtils.hasText(table)) {
+            table = dataset.getName();
+        }
+        if (!StringUtils.hasText(table)) {
+            return null;
         }
+        String name = Pattern.quote(table.trim());
+        Pattern reference = Pattern.compile(
+            "(?i)\\b(?:from|join)\\s+(?:" + IDENTIFIER + "\\s*\\.\\s*)?(?:`" + name + "`|\"" + name + "\"|" + name + "\\b)" +
+            "(?:\\s+(?:as\\s+)?(" + IDENTIFIER + "))?"
+        );
+        Matcher matcher = reference.matcher(sql);
+        if (!matcher.find() || matcher.group(1) == null) {
+            return null;
+        }
+        String candidate = matcher.group(1);
+        return TABLE_ALIAS_STOP_WORDS.contains(candidate.toLowerCase(Locale.ROOT)) ? null : candidate;
+    }
+
+    private String ensureGroupByContains(String sql, String expression) {
         Matcher matcher = GROUP_BY_PATTERN.matcher(sql);
         if (!matcher.find()) {
             return sql;
         }
         String groupBody = matcher.group(1);
-        if (containsColumnReference(groupBody, columnName, dataset)) {
+        if (normalizeSqlFragment(groupBody).contains(normalizeSqlFragment(expression))) {
             return sql;
         }
-        String guardExpression = datasetSqlBuilder.quoteColumn(dataset, columnName);
         String trimmed = groupBody.trim();
-        String appended = trimmed.isEmpty() ? guardExpression : trimmed + ", " + guardExpression;
+        String appended = trimmed.isEmpty() ? expression : trimmed + ", " + expression;
         return sql.substring(0, matcher.start(1)) + appended + sql.substring(matcher.end(1));
     }
 
+    /**
+     * 提取行过滤表达式引用的列名：跳过字符串字面量、函数名与限定前缀；有列登记时只保留登记列，否则排除 SQL 关键字与类型名。
+     */
+    private static Set<String> referencedColumns(List<String> expressions, Map<String, String> knownColumns) {
+        Set<String> columns = new LinkedHashSet<>();
+        for (String expression : expressions) {
+            int i = 0;
+            int length = expression.length();
+            while (i < length) {
+                char c = expression.charAt(i);
+                if (c == '\'') {
+                    i = skipQuoted(expression, i, '\'');
+                    continue;
+                }
+                String token;
+                boolean quoted = c == '`' || c == '"';
+                int end;
+                if (quoted) {
+                    end = skipQuoted(expression, i, c);
+                    token = expression.substring(i + 1, Math.max(i + 1, end - 1));
+                } else if (Character.isLetter(c) || c == '_') {
+                    end = i;
+                    while (end < length && (Character.isLetterOrDigit(expression.charAt(end)) || expression.charAt(end) == '_')) {
+                        end++;
+                    }
+                    token = expression.substring(i, end);
+                } else if (Character.isDigit(c)) {
+                    end = i;
+                    while (end < length && (Character.isLetterOrDigit(expression.charAt(end)) || expression.charAt(end) == '.')) {
+                        end++;
+                    }
+                    i = end;
+                    continue;
+                } else {
+                    i++;
+                    continue;
+                }
+                i = end;
+                int next = end;
+                while (next < length && Character.isWhitespace(expression.charAt(next))) {
+                    next++;
+                }
+                char following = next < length ? expression.charAt(next) : 0;
+                if (following == '(' || following == '.' || token.isEmpty()) {
+                    continue;
+                }
+                String lower = token.toLowerCase(Locale.ROOT);
+                if (!knownColumns.isEmpty()) {
+                    String canonical = knownColumns.get(lower);
+                    if (canonical != null) {
+                        columns.add(canonical);
+                    }
+                } else if (quoted || !SQL_WORDS.contains(lower)) {
+                    columns.add(token);
+                }
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * 把表达式中带限定前缀的列引用（如 t.dept_code、db.t.dept_code）改写为以子查询别名限定；
+     * 字符串字面量、数字与带前缀的函数调用保持不变。
+     */
+    static String requalifyColumns(String expression, String alias) {
+        StringBuilder out = new StringBuilder(expression.length());
+        int i = 0;
+        int length = expression.length();
+        while (i < length) {
+            char c = expression.charAt(i);
+            if (c == '\'') {
+                int end = skipQuoted(expression, i, '\'');
+                out.append(expression, i, end);
+                i = end;
+                continue;
+            }
+            if (Character.isDigit(c)) {
+                int end = i;
+                while (end < length && (Character.isLetterOrDigit(expression.charAt(end)) || expression.charAt(end) == '.')) {
+                    end++;
+                }
+                out.append(expression, i, end);
+                i = end;
+                continue;
+            }
+            int end = identifierEnd(expression, i);
+            if (end == i) {
+                out.append(c);
+                i++;
+                continue;
+            }
+            int lastStart = i;
+            boolean qualified = false;
+            while (true) {
+                int dot = skipWhitespace(expression, end);
+                if (dot >= length || expression.charAt(dot) != '.') {
+                    break;
+                }
+                int nextStart = skipWhitespace(expression, dot + 1);
+                int nextEnd = identifierEnd(expression, nextStart);
+                if (nextEnd == nextStart) {
+                    break;
+                }
+                lastStart = nextStart;
+                end = nextEnd;
+                qualified = true;
+            }
+            int following = skipWhitespace(expression, end);
+            if (qualified && (following >= length || expression.charAt(following) != '(')) {
+                out.append(alias).append('.').append(expression, lastStart, end);
+            } else {
+                out.append(expression, i, end);
+            }
+            i = end;
+        }
+        return out.toString();
+    }
+
+    private static int identifierEnd(String text, int start) {
+        if (start >= text.length()) {
+            return start;
+        }
+        char c = text.charAt(start);
+        if (c == '`' || c == '"') {
+            return skipQuoted(text, start, c);
+        }
+        if (!Character.isLetter(c) && c != '_') {
+            return start;
+        }
+        int end = start;
+        while (end < text.length() && (Character.isLetterOrDigit(text.charAt(end)) || text.charAt(end) == '_')) {
+            end++;
+        }
+        return end;
+    }
+
+    private static int skipWhitespace(String text, int start) {
+        int i = start;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipQuoted(String text, int start, char quote) {
+        int i = start + 1;
+        while (i < text.length()) {
+            if (text.charAt(i) == quote) {
+                if (i + 1 < text.length() && text.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return text.length();
+    }
+
+    /**
+     * 按顶层逗号切分投影（忽略括号与引号内的逗号）。
+     */
+    private static List<String> splitTopLevel(String selectBody) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int from = 0;
+        int i = 0;
+        while (i < selectBody.length()) {
+            char c = selectBody.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                i = skipQuoted(selectBody, i, c);
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                parts.add(selectBody.substring(from, i).trim());
+                from = i + 1;
+            }
+            i++;
+        }
+        parts.add(selectBody.substring(from).trim());
+        return parts;
+    }
+
     private boolean containsWildcard(String selectBody) {
         if (!StringUtils.hasText(selectBody)) {
             return false;
@@ -171,24 +473,7 @@ public class SecuritySqlRewriter {
         return false;
     }
 
-    private boolean containsColumnReference(String fragment, String columnName, CatalogDataset dataset) {
-        if (!StringUtils.hasText(fragment) || !StringUtils.hasText(columnName)) {
-            return false;
-        }
-        String normalizedFragment = normalizeSqlFragment(fragment);
-        String normalizedColumn = normalizeSqlFragment(columnName);
-        if (normalizedFragment.contains(normalizedColumn)) {
-            return true;
-        }
-        String quoted = datasetSqlBuilder.quoteColumn(dataset, columnName);
-        String normalizedQuoted = normalizeSqlFragment(quoted);
-        if (normalizedFragment.contains(normalizedQuoted)) {
-            return true;
-        }
-        return false;
-    }
-
-    private String normalizeSqlFragment(String text) {
+    private static String normalizeSqlFragment(String text) {
         if (text == null) {
             return "";
         }
@@ -208,5 +493,57 @@ public class SecuritySqlRewriter {
             .toLowerCase(Locale.ROOT);
     }
 
-    private record ProjectionAdjustment(String sql, boolean columnAdded) {}
+    /**
+     * @param outputColumns 外层需要选回的原输出列；为 null 时外层取全部列
+     */
+    private record ProjectionAdjustment(String sql, List<String> addedExpressions, List<String> outputColumns) {
+        static ProjectionAdjustment unchanged(String sql) {
+            return new ProjectionAdjustment(sql, List.of(), null);
+        }
+    }
+
+    /**
+     * 投影中的一项：输出名取显式别名或列引用的列名，无名表达式为 null。
+     */
+    private record SelectItem(String qualifier, String column, String outputName) {
+        private static final Pattern COLUMN = Pattern.compile("^(?:(" + IDENTIFIER + ")\\s*\\.\\s*)*(" + IDENTIFIER + ")$");
+        private static final Pattern ALIASED = Pattern.compile("(?is)^(.*?[\\w)'\"`])\\s+(?:as\\s+)?(" + IDENTIFIER + ")$");
+
+        private static final Pattern DISTINCT = Pattern.compile("(?is)^distinct\\s+");
+
+        static SelectItem parse(String text) {
+            text = DISTINCT.matcher(text).replaceFirst("");
+            Matcher column = COLUMN.matcher(text);
+            if (column.matches()) {
+                String name = unquote(column.group(2));
+                return new SelectItem(column.group(1) != null ? unquote(column.group(1)) : null, name, name);
+            }
+            Matcher aliased = ALIASED.matcher(text);
+            if (aliased.matches() && !SQL_WORDS.contains(aliased.group(2).toLowerCase(Locale.ROOT))) {
+                return new SelectItem(null, null, unquote(aliased.group(2)));
+            }
+            return new SelectItem(null, null, null);
+        }
+
+        /** 是否为目标列的直接引用（不带限定，或以数据集表别名限定） */
+        boolean isColumn(String name, String tableQualifier) {
+            return (
+                column != null &&
+                column.equalsIgnoreCase(name) &&
+                (qualifier == null || tableQualifier == null || qualifier.equalsIgnoreCase(unquote(tableQualifier)))
+            );
+        }
+
+        private static String unquote(String identifier) {
+            if (identifier.length() >= 2) {
+                char first = identifier.charAt(0);
+                if ((first == '`' || first == '"') && identifier.charAt(identifier.length() - 1) == first) {
+                    return identifier.substring(1, identifier.length() - 1);
+                }
+            }
+            return identifier;
+        }
+    }
+
+    private record LimitSplit(String body, String limitClause) {}
 }
@@ -0,0 +1,407 @@
+package com.yuzhi.dts.platform.service.sql;
+
+import com.yuzhi.dts.platform.domain.catalog.CatalogColumnSchema;
+import com.yuzhi.dts.platform.domain.catalog.CatalogDataset;
+import com.yuzhi.dts.platform.domain.catalog.CatalogTableSchema;
+import com.yuzhi.dts.platform.repository.catalog.CatalogColumnSchemaRepository;
+import com.yuzhi.dts.platform.repository.catalog.CatalogDatasetRepository;
+import com.yuzhi.dts.platform.repository.catalog.CatalogDatasetRepository.DatasetStamp;
+import com.yuzhi.dts.platform.repository.catalog.CatalogTableSchemaRepository;
+import com.yuzhi.dts.platform.service.infra.event.CatalogSynchronizedEvent;
+import com.yuzhi.dts.platform.service.security.AccessChecker;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * SQL 工作台目录树的共享索引，分三层按需加载并存放在集群缓存中：
+ * <ul>
+ *     <li>数据集快照：所有数据集的轻量摘要，依据数据集表的“总数 + 最近修改时间”增量刷新；</li>
+ *     <li>表 / 列：按数据集、按表在首次展开时加载；</li>
+ *     <li>可见性索引：按 {@link AccessChecker#readContextFingerprint()} 分组记录读权限判定，仅对修订号变化的数据集重新判定。</li>
+ * </ul>
+ * 目录同步只失效发生变化的数据集，未变化部分继续复用。
+ */
+@Component
+public class SqlCatalogIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SqlCatalogIndex.class);
+
+    static final String INDEX_CACHE = "sqlCatalogIndex";
+    static final String TABLES_CACHE = "sqlCatalogTables";
+    static final String COLUMNS_CACHE = "sqlCatalogColumns";
+    private static final String SNAPSHOT_KEY = "datasets";
+    private static final String ACCESS_KEY_PREFIX = "access:";
+
+    private final CatalogDatasetRepository datasetRepository;
+    private final CatalogTableSchemaRepository tableRepository;
+    private final CatalogColumnSchemaRepository columnRepository;
+    private final AccessChecker accessChecker;
+    private final Cache indexCache;
+    private final Cache tablesCache;
+    private final Cache columnsCache;
+
+    public SqlCatalogIndex(
+        CatalogDatasetRepository datasetRepository,
+        CatalogTableSchemaRepository tableRepository,
+        CatalogColumnSchemaRepository columnRepository,
+        AccessChecker accessChecker,
+        @Nullable CacheManager cacheManager
+    ) {
+        this.datasetRepository = datasetRepository;
+        this.tableRepository = tableRepository;
+        this.columnRepository = columnRepository;
+        this.accessChecker = accessChecker;
+        this.indexCache = resolveCache(cacheManager, INDEX_CACHE);
+        this.tablesCache = resolveCache(cacheManager, TABLES_CACHE);
+        this.columnsCache = resolveCache(cacheManager, COLUMNS_CACHE);
+    }
+
+    /**
+     * 当前用户可读的数据集摘要。
+     */
+    public List<DatasetEntry> readableDatasets() {
+        DatasetSnapshot snapshot = currentSnapshot();
+        AccessIndex access = accessIndex(snapshot);
+        List<DatasetEntry> readable = new ArrayList<>(access.allowed().size());
+        for (DatasetEntry entry : snapshot.entries().values()) {
+            if (access.allowed().contains(entry.id())) {
+                readable.add(entry);
+            }
+        }
+        return readable;
+    }
+
+    public boolean canRead(UUID datasetId) {
+        if (datasetId == null) {
+            return false;
+        }
+        DatasetSnapshot snapshot = currentSnapshot();
+        return snapshot.entries().containsKey(datasetId) && accessIndex(snapshot).allowed().contains(datasetId);
+    }
+
+    public List<TableEntry> tables(UUID datasetId) {
+        List<TableEntry> cached = getList(tablesCache, datasetId);
+        if (cached != null) {
+            return cached;
+        }
+        ArrayList<TableEntry> loaded = new ArrayList<>();
+        for (CatalogTableSchema table : tableRepository.findByDatasetId(datasetId)) {
+            loaded.add(new TableEntry(table.getId(), table.getName()));
+        }
+        tablesCache.put(datasetId, loaded);
+        return loaded;
+    }
+
+    /**
+     * 批量获取多个数据集的表，只对未命中的数据集执行一次 IN 查询。
+     */
+    public Map<UUID, List<TableEntry>> tables(Collection<UUID> datasetIds) {
+        Map<UUID, List<TableEntry>> result = new LinkedHashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : datasetIds) {
+            List<TableEntry> cached = getList(tablesCache, id);
+            if (cached != null) {
+                result.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<CatalogDataset> refs = datasetRepository.findAllById(missing);
+            Map<UUID, ArrayList<TableEntry>> loaded = new HashMap<>();
+            missing.forEach(id -> loaded.put(id, new ArrayList<>()));
+            for (CatalogTableSchema table : refs.isEmpty() ? List.<CatalogTableSchema>of() : tableRepository.findByDatasetIn(refs)) {
+                loaded.computeIfAbsent(table.getDataset().getId(), key -> new ArrayList<>()).add(new TableEntry(table.getId(), table.getName()));
+            }
+            loaded.forEach((id, tables) -> {
+                tablesCache.put(id, tables);
+                result.put(id, tables);
+            });
+        }
+        return result;
+    }
+
+    public List<ColumnEntry> columns(UUID tableId) {
+        List<ColumnEntry> cached = getList(columnsCache, tableId);
+        if (cached != null) {
+            return cached;
+        }
+        ArrayList<ColumnEntry> loaded = new ArrayList<>();
+        for (CatalogColumnSchema column : columnRepository.findByTableId(tableId)) {
+            loaded.add(new ColumnEntry(column.getId(), column.getName(), column.getDataType()));
+        }
+        columnsCache.put(tableId, loaded);
+        return loaded;
+    }
+
+    /**
+     * 批量获取多张表的列，只对未命中的表执行一次 IN 查询。
+     */
+    public Map<UUID, List<ColumnEntry>> columns(Collection<UUID> tableIds) {
+        Map<UUID, List<ColumnEntry>> result = new LinkedHashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : tableIds) {
+            List<ColumnEntry> cached = getList(columnsCache, id);
+            if (cached != null) {
+                result.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<CatalogTableSchema> refs = tableRepository.findAllById(missing);
+            Map<UUID, ArrayList<ColumnEntry>> loaded = new HashMap<>();
+            missing.forEach(id -> loaded.put(id, new ArrayList<>()));
+            for (CatalogColumnSchema column : refs.isEmpty() ? List.<CatalogColumnSchema>of() : columnRepository.findByTableIn(refs)) {
+                loaded
+                    .computeIfAbsent(column.getTable().getId(), key -> new ArrayList<>())
+                    .add(new ColumnEntry(column.getId(), column.getName(), column.getDataType()));
+            }
+            loaded.forEach((id, columns) -> {
+                columnsCache.put(id, columns);
+                result.put(id, columns);
+            });
+        }
+        return result;
+    }
+
+    @EventListener
+    public void onCatalogSynchronized(CatalogSynchronizedEvent event) {
+        if (event.changedDatasetIds() == null) {
+            invalidateAll();
+            return;
+        }
+        invalidate(event.changedDatasetIds());
+    }
+
+    /**
+     * 失效指定数据集的表、列与快照条目；其余数据集及各安全上下文的判定结果保留。
+     */
+    public void invalidate(Collection<UUID> datasetIds) {
+        if (datasetIds.isEmpty()) {
+            return;
+        }
+        for (UUID datasetId : datasetIds) {
+            List<TableEntry> tables = getList(tablesCache, datasetId);
+            if (tables != null) {
+                tables.forEach(table -> columnsCache.evict(table.id()));
+            }
+            tablesCache.evict(datasetId);
+        }
+        DatasetSnapshot snapshot = get(indexCache, SNAPSHOT_KEY, DatasetSnapshot.class);
+        if (snapshot != null) {
+            LinkedHashMap<UUID, DatasetEntry> entries = new LinkedHashMap<>(snapshot.entries());
+            datasetIds.forEach(entries::remove);
+            for (CatalogDataset dataset : datasetRepository.findAllById(datasetIds)) {
+                entries.put(dataset.getId(), DatasetEntry.of(dataset));
+            }
+            indexCache.put(SNAPSHOT_KEY, new DatasetSnapshot(entries, snapshot.stamp()));
+        }
+        LOG.debug("SQL catalog index invalidated {} dataset(s)", datasetIds.size());
+    }
+
+    public void invalidateAll() {
+        indexCache.clear();
+        tablesCache.clear();
+        columnsCache.clear();
+        LOG.debug("SQL catalog index cleared");
+    }
+
+    DatasetSnapshot currentSnapshot() {
+        DatasetStamp dbStamp = datasetRepository.findStamp();
+        Stamp stamp = dbStamp != null ? new Stamp(dbStamp.getTotal(), dbStamp.getLastModified()) : new Stamp(0L, null);
+        DatasetSnapshot cached = get(indexCache, SNAPSHOT_KEY, DatasetSnapshot.class);
+        if (cached != null && stamp.equals(cached.stamp())) {
+            return cached;
+        }
+        DatasetSnapshot refreshed = cached == null || cached.stamp().lastModified() == null
+            ? fullSnapshot(stamp)
+            : incrementalSnapshot(cached, stamp);
+        indexCache.put(SNAPSHOT_KEY, refreshed);
+        return refreshed;
+    }
+
+    private DatasetSnapshot fullSnapshot(Stamp stamp) {
+        LinkedHashMap<UUID, DatasetEntry> entries = new LinkedHashMap<>();
+        for (CatalogDataset dataset : datasetRepository.findAll()) {
+            entries.put(dataset.getId(), DatasetEntry.of(dataset));
+        }
+        LOG.debug("SQL catalog snapshot loaded with {} dataset(s)", entries.size());
+        return new DatasetSnapshot(entries, stamp);
+    }
+
+    private DatasetSnapshot incrementalSnapshot(DatasetSnapshot cached, Stamp stamp) {
+        LinkedHashMap<UUID, DatasetEntry> entries = new LinkedHashMap<>(cached.entries());
+        List<CatalogDataset> modified = datasetRepository.findByLastModifiedDateGreaterThanEqual(cached.stamp().lastModified());
+        for (CatalogDataset dataset : modified) {
+            entries.put(dataset.getId(), DatasetEntry.of(dataset));
+        }
+        if (entries.size() != stamp.total()) {
+            Set<UUID> existing = new HashSet<>(datasetRepository.findAllIds());
+            entries.keySet().retainAll(existing);
+            if (entries.size() != existing.size()) {
+                // 修改时间回退等异常情况，退回整体加载
+                return fullSnapshot(stamp);
+            }
+        }
+        LOG.debug("SQL catalog snapshot refreshed incrementally: {} modified, {} total", modified.size(), entries.size());
+        return new DatasetSnapshot(entries, stamp);
+    }
+
+    private AccessIndex accessIndex(DatasetSnapshot snapshot) {
+        String key = ACCESS_KEY_PREFIX + accessChecker.readContextFingerprint();
+        AccessIndex cached = get(indexCache, key, AccessIndex.class);
+        HashMap<UUID, Long> revisions = cached != null ? new HashMap<>(cached.revisions()) : new HashMap<>();
+        HashSet<UUID> allowed = cached != null ? new HashSet<>(cached.allowed()) : new HashSet<>();
+        boolean dirty = revisions.keySet().retainAll(snapshot.entries().keySet());
+        allowed.retainAll(revisions.keySet());
+
+        List<UUID> pending = new ArrayList<>();
+        for (DatasetEntry entry : snapshot.entries().values()) {
+            Long revision = revisions.get(entry.id());
+            if (revision == null || revision != entry.revision()) {
+                pending.add(entry.id());
+            }
+        }
+        if (!pending.isEmpty()) {
+            for (CatalogDataset dataset : datasetRepository.findAllById(pending)) {
+                DatasetEntry entry = snapshot.entries().get(dataset.getId());
+                if (entry == null) {
+                    continue;
+                }
+                revisions.put(dataset.getId(), entry.revision());
+                if (accessChecker.canRead(dataset)) {
+                    allowed.add(dataset.getId());
+                } else {
+                    allowed.remove(dataset.getId());
+                }
+            }
+            dirty = true;
+        }
+        AccessIndex index = new AccessIndex(revisions, allowed);
+        if (dirty || cached == null) {
+            indexCache.put(key, index);
+        }
+        return index;
+    }
+
+    private static Cache resolveCache(@Nullable CacheManager cacheManager, String name) {
+        Cache cache = cacheManager != null ? cacheManager.getCache(name) : null;
+        return cache != null ? cache : new ConcurrentMapCache(name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> getList(Cache cache, Object key) {
+        Cache.ValueWrapper wrapper = cache.get(key);
+        return wrapper != null && wrapper.get() instanceof List<?> list ? (List<T>) list : null;
+    }
+
+    private static <T> T get(Cache cache, Object key, Class<T> type) {
+        Cache.ValueWrapper wrapper = cache.get(key);
+        return wrapper != null && type.isInstance(wrapper.get()) ? type.cast(wrapper.get()) : null;
+    }
+
+    public record DatasetEntry(
+        UUID id,
+        String name,
+        String datasource,
+        String catalog,
+        String schema,
+        String catalogLabel,
+        String schemaLabel,
+        long revision
+    )
+        implements Serializable {
+        static DatasetEntry of(CatalogDataset dataset) {
+            return new DatasetEntry(
+                dataset.getId(),
+                dataset.getName(),
+                resolveDatasource(dataset),
+                normalize(dataset.getTrinoCatalog()),
+                normalize(dataset.getHiveDatabase()),
+                resolveCatalogLabel(dataset),
+                resolveSchemaLabel(dataset),
+                revisionOf(dataset)
+            );
+        }
+
+        private static long revisionOf(CatalogDataset dataset) {
+            Instant modified = dataset.getLastModifiedDate();
+            return Objects.hash(
+                dataset.getClassification(),
+                dataset.getName(),
+                dataset.getType(),
+                dataset.getExposedBy(),
+                dataset.getTrinoCatalog(),
+                dataset.getHiveDatabase(),
+                modified != null ? modified.toEpochMilli() : 0L
+            );
+        }
+
+        private static String resolveDatasource(CatalogDataset dataset) {
+            String exposed = normalize(dataset.getExposedBy());
+            if (exposed != null) {
+                return exposed;
+            }
+            String type = normalize(dataset.getType());
+            if (type != null) {
+                return type;
+            }
+            return normalize(dataset.getTrinoCatalog()) != null ? "trino" : "default";
+        }
+
+        private static String resolveCatalogLabel(CatalogDataset dataset) {
+            if (dataset.getTrinoCatalog() != null && !dataset.getTrinoCatalog().isBlank()) {
+                return dataset.getTrinoCatalog().trim();
+            }
+            return "default";
+        }
+
+        private static String resolveSchemaLabel(CatalogDataset dataset) {
+            if (dataset.getHiveDatabase() != null && !dataset.getHiveDatabase().isBlank()) {
+                return dataset.getHiveDatabase().trim();
+            }
+            if (dataset.getName() != null && !dataset.getName().isBlank()) {
+                return dataset.getName().trim();
+            }
+            return dataset.getId() != null ? dataset.getId().toString() : "schema";
+        }
+
+        private static String normalize(String value) {
+            if (value == null) {
+                return null;
+            }
+            String trimmed = value.trim();
+            return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public record TableEntry(UUID id, String name) implements Serializable {}
+
+    public record ColumnEntry(UUID id, String name, String dataType) implements Serializable {}
+
+    record Stamp(long total, Instant lastModified) implements Serializable {}
+
+    record DatasetSnapshot(LinkedHashMap<UUID, DatasetEntry> entries, Stamp stamp) implements Serializable {}
+
+    record AccessIndex(HashMap<UUID, Long> revisions, HashSet<UUID> allowed) implements Serializable {}
+}
@@ -1,13 +1,9 @@
 package com.yuzhi.dts.platform.service.sql;
 
-import com.yuzhi.dts.platform.domain.catalog.CatalogColumnSchema;
-import com.yuzhi.dts.platform.domain.catalog.CatalogDataset;
-import com.yuzhi.dts.platform.domain.catalog.CatalogTableSchema;
-import com.yuzhi.dts.platform.repository.catalog.CatalogColumnSchemaRepository;
-import com.yuzhi.dts.platform.repository.catalog.CatalogDatasetRepository;
-import com.yuzhi.dts.platform.repository.catalog.CatalogTableSchemaRepository;
 import com.yuzhi.dts.platform.security.SecurityUtils;
-import com.yuzhi.dts.platform.service.security.AccessChecker;
+import com.yuzhi.dts.platform.service.sql.SqlCatalogIndex.ColumnEntry;
+import com.yuzhi.dts.platform.service.sql.SqlCatalogIndex.DatasetEntry;
+import com.yuzhi.dts.platform.service.sql.SqlCatalogIndex.TableEntry;
 import com.yuzhi.dts.platform.service.sql.dto.SqlCatalogNode;
 import com.yuzhi.dts.platform.service.sql.dto.SqlCatalogNodeType;
 import com.yuzhi.dts.platform.service.sql.dto.SqlCatalogRequest;
@@ -15,16 +11,15 @@ import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -41,55 +36,47 @@ public class SqlCatalogService {
         Map.entry("spark", "Spark SQL")
     );
 
-    private final CatalogDatasetRepository datasetRepository;
-    private final CatalogTableSchemaRepository tableRepository;
-    private final CatalogColumnSchemaRepository columnRepository;
-    private final AccessChecker accessChecker;
+    private final SqlCatalogIndex catalogIndex;
 
-    public SqlCatalogService(
-        CatalogDatasetRepository datasetRepository,
-        CatalogTableSchemaRepository tableRepository,
-        CatalogColumnSchemaRepository columnRepository,
-        AccessChecker accessChecker
-    ) {
-        this.datasetRepository = datasetRepository;
-        this.tableRepository = tableRepository;
-        this.columnRepository = columnRepository;
-        this.accessChecker = accessChecker;
+    public SqlCatalogService(SqlCatalogIndex catalogIndex) {
+        this.catalogIndex = catalogIndex;
     }
 
-    @Cacheable(cacheNames = "sqlCatalogTree", key = "#root.target.cacheKey(#request, #principal)")
+    /**
+     * 构建目录树。{@link SqlCatalogRequest#depth()} 为空时返回到列的完整树（兼容旧调用），
+     * 否则只展开到指定层级，更深的节点 {@code children} 为 {@code null}，由 {@link #fetchChildren(String)} 按需加载。
+     */
     public SqlCatalogNode fetchTree(SqlCatalogRequest request, Principal principal) {
-        SqlCatalogRequest safeRequest = request != null ? request : new SqlCatalogRequest(null, null, null, null);
+        SqlCatalogRequest safeRequest = request != null ? request : new SqlCatalogRequest(null, null, null, null, null);
 
         String datasourceKey = defaultDatasource(safeRequest.datasource());
         String rawDatasource = safeRequest.datasource();
         String catalogFilter = normalize(safeRequest.catalog());
         String schemaFilter = normalize(safeRequest.schema());
         String searchFilter = normalize(safeRequest.search());
-        String principalName = principalName(principal);
+        SqlCatalogNodeType depth = safeRequest.depth() != null ? safeRequest.depth() : SqlCatalogNodeType.COLUMN;
 
         LOG.debug(
-            "Fetching SQL catalog tree, user={}, datasource={}, catalog={}, schema={}, search={}",
-            principalName,
+            "Fetching SQL catalog tree, user={}, datasource={}, catalog={}, schema={}, search={}, depth={}",
+            principalName(principal),
             datasourceKey,
             catalogFilter,
             schemaFilter,
-            searchFilter
+            searchFilter,
+            depth
         );
 
-        List<CatalogDataset> datasets = datasetRepository
-            .findAll()
+        List<DatasetEntry> datasets = catalogIndex
+            .readableDatasets()
             .stream()
-            .filter(dataset -> matchesDatasource(dataset, datasourceKey))
-            .filter(dataset -> matchesCatalog(dataset, catalogFilter))
-            .filter(dataset -> matchesSchema(dataset, schemaFilter))
-            .filter(this::filterByAccess)
+            .filter(dataset -> Objects.equals(dataset.datasource(), datasourceKey))
+            .filter(dataset -> catalogFilter == null || Objects.equals(dataset.catalog(), catalogFilter))
+            .filter(dataset -> schemaFilter == null || Objects.equals(dataset.schema(), schemaFilter))
             .sorted(
                 Comparator
-                    .comparing((CatalogDataset ds) -> sortKey(ds.getTrinoCatalog()))
-                    .thenComparing(ds -> sortKey(ds.getHiveDatabase()))
-                    .thenComparing(ds -> sortKey(ds.getName()))
+                    .comparing((DatasetEntry ds) -> sortKey(ds.catalog()))
+                    .thenComparing(ds -> sortKey(ds.schema()))
+                    .thenComparing(ds -> sortKey(ds.name()))
             )
             .collect(Collectors.toList());
 
@@ -103,13 +90,14 @@ public class SqlCatalogService {
             );
         }
 
-        List<CatalogTableSchema> tables = datasets.isEmpty() ? List.of() : tableRepository.findByDatasetIn(datasets);
-        Map<UUID, List<CatalogTableSchema>> tablesByDataset = indexTables(tables);
-
-        List<CatalogColumnSchema> columns = tables.isEmpty() ? List.of() : columnRepository.findByTableIn(tables);
-        Map<UUID, List<CatalogColumnSchema>> columnsByTable = indexColumns(columns);
+        Map<UUID, List<TableEntry>> tablesByDataset = depth == SqlCatalogNodeType.SCHEMA || depth == SqlCatalogNodeType.CATALOG
+            ? Map.of()
+            : catalogIndex.tables(datasets.stream().map(DatasetEntry::id).toList());
+        Map<UUID, List<ColumnEntry>> columnsByTable = depth == SqlCatalogNodeType.COLUMN
+            ? catalogIndex.columns(tablesByDataset.values().stream().flatMap(List::stream).map(TableEntry::id).toList())
+            : Map.of();
 
-        List<SqlCatalogNode> catalogNodes = buildCatalogNodes(datasets, tablesByDataset, columnsByTable);
+        List<SqlCatalogNode> catalogNodes = buildCatalogNodes(datasets, tablesByDataset, columnsByTable, depth);
 
         SqlCatalogNode root = new SqlCatalogNode(
             nodeId("datasource", datasourceKey),
@@ -130,103 +118,120 @@ public class SqlCatalogService {
         return root;
     }
 
-    public String cacheKey(SqlCatalogRequest request, Principal principal) {
-        SqlCatalogRequest safeRequest = request != null ? request : new SqlCatalogRequest(null, null, null, null);
-        String datasource = defaultDatasource(safeRequest.datasource());
-        String catalog = normalize(safeRequest.catalog());
-        String schema = normalize(safeRequest.schema());
-        String search = normalize(safeRequest.search());
-        String user = normalize(principalName(principal));
-
-        return String.join(
-            "|",
-            keyPart(user),
-            keyPart(datasource),
-            keyPart(catalog),
-            keyPart(schema),
-            keyPart(search)
-        );
+    /**
+     * 展开单个节点：{@code schema:<datasetId>} 返回表，{@code table:<datasetId>/<tableId>} 返回列。
+     * 无权访问或节点不存在时返回空列表。
+     */
+    public List<SqlCatalogNode> fetchChildren(String nodeId) {
+        if (nodeId == null || nodeId.isBlank()) {
+            return List.of();
+        }
+        int colon = nodeId.indexOf(':');
+        if (colon < 0) {
+            return List.of();
+        }
+        String type = nodeId.substring(0, colon);
+        String[] parts = nodeId.substring(colon + 1).split("/");
+        UUID datasetId = parseUuid(parts[0]);
+        if (datasetId == null || !catalogIndex.canRead(datasetId)) {
+            return List.of();
+        }
+        if ("schema".equals(type) && parts.length == 1) {
+            return catalogIndex
+                .tables(datasetId)
+                .stream()
+                .map(table -> tableNode(datasetId, table, null))
+                .sorted(Comparator.comparing(SqlCatalogNode::label, String.CASE_INSENSITIVE_ORDER))
+                .collect(Collectors.toList());
+        }
+        if ("table".equals(type) && parts.length == 2) {
+            UUID tableId = parseUuid(parts[1]);
+            boolean belongs = tableId != null && catalogIndex.tables(datasetId).stream().anyMatch(table -> table.id().equals(tableId));
+            return belongs ? columnNodes(tableId, catalogIndex.columns(tableId)) : List.of();
+        }
+        return List.of();
     }
 
     private List<SqlCatalogNode> buildCatalogNodes(
-        List<CatalogDataset> datasets,
-        Map<UUID, List<CatalogTableSchema>> tablesByDataset,
-        Map<UUID, List<CatalogColumnSchema>> columnsByTable
+        List<DatasetEntry> datasets,
+        Map<UUID, List<TableEntry>> tablesByDataset,
+        Map<UUID, List<ColumnEntry>> columnsByTable,
+        SqlCatalogNodeType depth
     ) {
-        Map<String, List<CatalogDataset>> grouped = datasets
+        Map<String, List<DatasetEntry>> grouped = datasets
             .stream()
-            .collect(Collectors.groupingBy(this::resolveCatalogLabel, Collectors.toCollection(ArrayList::new)));
+            .collect(Collectors.groupingBy(DatasetEntry::catalogLabel, LinkedHashMap::new, Collectors.toCollection(ArrayList::new)));
 
         return grouped
             .entrySet()
             .stream()
-            .map(entry -> buildCatalogNode(entry.getKey(), entry.getValue(), tablesByDataset, columnsByTable))
+            .map(entry -> buildCatalogNode(entry.getKey(), entry.getValue(), tablesByDataset, columnsByTable, depth))
             .sorted(Comparator.comparing(SqlCatalogNode::label, String.CASE_INSENSITIVE_ORDER))
             .collect(Collectors.toList());
     }
 
     private SqlCatalogNode buildCatalogNode(
         String catalogLabel,
-        List<CatalogDataset> datasets,
-        Map<UUID, List<CatalogTableSchema>> tablesByDataset,
-        Map<UUID, List<CatalogColumnSchema>> columnsByTable
+        List<DatasetEntry> datasets,
+        Map<UUID, List<TableEntry>> tablesByDataset,
+        Map<UUID, List<ColumnEntry>> columnsByTable,
+        SqlCatalogNodeType depth
     ) {
-        List<SqlCatalogNode> schemaNodes = datasets
-            .stream()
-            .map(dataset -> buildSchemaNode(dataset, tablesByDataset, columnsByTable))
-            .sorted(Comparator.comparing(SqlCatalogNode::label, String.CASE_INSENSITIVE_ORDER))
-            .collect(Collectors.toList());
+        List<SqlCatalogNode> schemaNodes = depth == SqlCatalogNodeType.CATALOG
+            ? null
+            : datasets
+                .stream()
+                .map(dataset -> buildSchemaNode(dataset, tablesByDataset, columnsByTable, depth))
+                .sorted(Comparator.comparing(SqlCatalogNode::label, String.CASE_INSENSITIVE_ORDER))
+                .collect(Collectors.toList());
 
         return new SqlCatalogNode(nodeId("catalog", catalogLabel), catalogLabel, SqlCatalogNodeType.CATALOG, schemaNodes);
     }
 
     private SqlCatalogNode buildSchemaNode(
-        CatalogDataset dataset,
-        Map<UUID, List<CatalogTableSchema>> tablesByDataset,
-        Map<UUID, List<CatalogColumnSchema>> columnsByTable
+        DatasetEntry dataset,
+        Map<UUID, List<TableEntry>> tablesByDataset,
+        Map<UUID, List<ColumnEntry>> columnsByTable,
+        SqlCatalogNodeType depth
     ) {
-        List<CatalogTableSchema> tables = tablesByDataset.getOrDefault(dataset.getId(), List.of());
-        List<SqlCatalogNode> tableNodes = tables
-            .stream()
-            .map(table -> buildTableNode(dataset, table, columnsByTable))
-            .sorted(Comparator.comparing(SqlCatalogNode::label, String.CASE_INSENSITIVE_ORDER))
-            .collect(Collectors.toList());
+        List<SqlCatalogNode> tableNodes = null;
+        if (depth == SqlCatalogNodeType.TABLE || depth == SqlCatalogNodeType.COLUMN) {
+            tableNodes = tablesByDataset
+                .getOrDefault(dataset.id(), List.of())
+                .stream()
+                .map(table -> tableNode(dataset.id(), table, depth == SqlCatalogNodeType.COLUMN ? columnsByTable : null))
+                .sorted(Comparator.comparing(SqlCatalogNode::label, String.CASE_INSENSITIVE_ORDER))
+                .collect(Collectors.toList());
+        }
 
+        return new SqlCatalogNode(nodeId("schema", dataset.id()), dataset.schemaLabel(), SqlCatalogNodeType.SCHEMA, tableNodes);
+    }
+
+    private SqlCatalogNode tableNode(UUID datasetId, TableEntry table, Map<UUID, List<ColumnEntry>> columnsByTable) {
+        List<SqlCatalogNode> columnNodes = columnsByTable != null
+            ? columnNodes(table.id(), columnsByTable.getOrDefault(table.id(), List.of()))
+            : null;
         return new SqlCatalogNode(
-            nodeId("schema", dataset.getId()),
-            resolveSchemaLabel(dataset),
-            SqlCatalogNodeType.SCHEMA,
-            tableNodes
+            nodeId("table", datasetId, table.id()),
+            safeLabel(table.name(), "table"),
+            SqlCatalogNodeType.TABLE,
+            columnNodes
         );
     }
 
-    private SqlCatalogNode buildTableNode(
-        CatalogDataset dataset,
-        CatalogTableSchema table,
-        Map<UUID, List<CatalogColumnSchema>> columnsByTable
-    ) {
-        List<CatalogColumnSchema> columns = columnsByTable.getOrDefault(table.getId(), List.of());
-        List<SqlCatalogNode> columnNodes = columns
+    private List<SqlCatalogNode> columnNodes(UUID tableId, List<ColumnEntry> columns) {
+        return columns
             .stream()
-            .map(column -> new SqlCatalogNode(
-                    nodeId("column", table.getId(), column.getId()),
-                    formatColumnLabel(column),
-                    SqlCatalogNodeType.COLUMN,
-                    List.of()
-                ))
+            .map(column -> new SqlCatalogNode(nodeId("column", tableId, column.id()), formatColumnLabel(column), SqlCatalogNodeType.COLUMN, List.of()))
             .sorted(Comparator.comparing(SqlCatalogNode::label, String.CASE_INSENSITIVE_ORDER))
             .collect(Collectors.toList());
-
-        return new SqlCatalogNode(
-            nodeId("table", dataset.getId(), table.getId()),
-            safeLabel(table.getName(), "table"),
-            SqlCatalogNodeType.TABLE,
-            columnNodes
-        );
     }
 
     private SqlCatalogNode filterTree(SqlCatalogNode node, String search) {
-        List<SqlCatalogNode> children = node.children() != null ? node.children() : List.of();
+        if (node.children() == null) {
+            return matchesSearch(node.label(), search) ? node : null;
+        }
+        List<SqlCatalogNode> children = node.children();
         List<SqlCatalogNode> filteredChildren = children
             .stream()
             .map(child -> filterTree(child, search))
@@ -239,73 +244,6 @@ public class SqlCatalogService {
         return matchesSearch(node.label(), search) ? new SqlCatalogNode(node.id(), node.label(), node.type(), List.of()) : null;
     }
 
-    private boolean matchesDatasource(CatalogDataset dataset, String requested) {
-        String datasetDatasource = resolveDatasetDatasource(dataset);
-        boolean matches = Objects.equals(datasetDatasource, requested);
-        if (!matches && LOG.isTraceEnabled()) {
-            LOG.trace(
-                "Dataset {} ({}) skipped: datasource mismatch {} != {}",
-                dataset.getId(),
-                dataset.getName(),
-                datasetDatasource,
-                requested
-            );
-        }
-        return matches;
-    }
-
-    private boolean matchesCatalog(CatalogDataset dataset, String catalogFilter) {
-        if (catalogFilter == null) {
-            return true;
-        }
-        String datasetCatalog = normalize(dataset.getTrinoCatalog());
-        boolean matches = Objects.equals(datasetCatalog, catalogFilter);
-        if (!matches && LOG.isTraceEnabled()) {
-            LOG.trace(
-                "Dataset {} ({}) skipped: catalog mismatch {} != {}",
-                dataset.getId(),
-                dataset.getName(),
-                datasetCatalog,
-                catalogFilter
-            );
-        }
-        return matches;
-    }
-
-    private boolean matchesSchema(CatalogDataset dataset, String schemaFilter) {
-        if (schemaFilter == null) {
-            return true;
-        }
-        String datasetSchema = normalize(dataset.getHiveDatabase());
-        boolean matches = Objects.equals(datasetSchema, schemaFilter);
-        if (!matches && LOG.isTraceEnabled()) {
-            LOG.trace(
-                "Dataset {} ({}) skipped: schema mismatch {} != {}",
-                dataset.getId(),
-                dataset.getName(),
-                datasetSchema,
-                schemaFilter
-            );
-        }
-        return matches;
-    }
-
-    private boolean filterByAccess(CatalogDataset dataset) {
-        boolean allowed = accessChecker.canRead(dataset);
-        if (!allowed) {
-            LOG.info("Dataset {} ({}) skipped due to access denial", dataset.getId(), dataset.getName());
-        }
-        return allowed;
-    }
-
-    private Map<UUID, List<CatalogTableSchema>> indexTables(List<CatalogTableSchema> tables) {
-        return tables.stream().collect(Collectors.groupingBy(table -> table.getDataset().getId(), Collectors.toList()));
-    }
-
-    private Map<UUID, List<CatalogColumnSchema>> indexColumns(List<CatalogColumnSchema> columns) {
-        return columns.stream().collect(Collectors.groupingBy(column -> column.getTable().getId(), Collectors.toList()));
-    }
-
     private String resolveDatasourceLabel(String normalized, String raw) {
         String label = DATASOURCE_LABELS.getOrDefault(normalized, null);
         if (label != null) {
@@ -317,42 +255,9 @@ public class SqlCatalogService {
         return "Default Datasource";
     }
 
-    private String resolveDatasetDatasource(CatalogDataset dataset) {
-        String exposed = normalize(dataset.getExposedBy());
-        if (exposed != null) {
-            return exposed;
-        }
-        String type = normalize(dataset.getType());
-        if (type != null) {
-            return type;
-        }
-        String catalog = normalize(dataset.getTrinoCatalog());
-        if (catalog != null) {
-            return "trino";
-        }
-        return "default";
-    }
-
-    private String resolveCatalogLabel(CatalogDataset dataset) {
-        if (dataset.getTrinoCatalog() != null && !dataset.getTrinoCatalog().isBlank()) {
-            return dataset.getTrinoCatalog().trim();
-        }
-        return "default";
-    }
-
-    private String resolveSchemaLabel(CatalogDataset dataset) {
-        if (dataset.getHiveDatabase() != null && !dataset.getHiveDatabase().isBlank()) {
-            return dataset.getHiveDatabase().trim();
-        }
-        if (dataset.getName() != null && !dataset.getName().isBlank()) {
-            return dataset.getName().trim();
-        }
-        return dataset.getId() != null ? dataset.getId().toString() : "schema";
-    }
-
-    private String formatColumnLabel(CatalogColumnSchema column) {
-        String name = safeLabel(column.getName(), "column");
-        String dataType = column.getDataType();
+    private String formatColumnLabel(ColumnEntry column) {
+        String name = safeLabel(column.name(), "column");
+        String dataType = column.dataType();
         if (dataType == null || dataType.isBlank()) {
             return name;
         }
@@ -388,8 +293,12 @@ public class SqlCatalogService {
         return fallback;
     }
 
-    private String keyPart(String value) {
-        return value == null ? "-" : value;
+    private UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
     }
 
     private String defaultDatasource(String datasource) {
@@ -1,8 +1,12 @@
 package com.yuzhi.dts.platform.service.sql.dto;
 
+/**
+ * @param depth 展开到的最深节点类型，为空时返回包含列的完整目录树
+ */
 public record SqlCatalogRequest(
     String datasource,
     String catalog,
     String schema,
-    String search
+    String search,
+    SqlCatalogNodeType depth
 ) {}
@@ -0,0 +1,45 @@
+package com.yuzhi.dts.platform.service.util;
+
+import java.net.InetAddress;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * 服务层共用的小工具：无时区 timestamp 列的 UTC 换算，以及后台任务认领时使用的节点标识。
+ */
+public final class ServiceUtils {
+
+    private static final int MAX_NODE_ID_LENGTH = 128;
+
+    private ServiceUtils() {}
+
+    /**
+     * 列类型为 timestamp（无时区），与 hibernate.jdbc.time_zone=UTC 保持一致按 UTC 写入。
+     */
+    public static LocalDateTime toUtc(Instant value) {
+        return value == null ? null : LocalDateTime.ofInstant(value, ZoneOffset.UTC);
+    }
+
+    /**
+     * {@link #toUtc(Instant)} 的逆操作，按 UTC 读取无时区 timestamp 列。
+     */
+    public static Instant toInstant(LocalDateTime value) {
+        return value == null ? null : value.toInstant(ZoneOffset.UTC);
+    }
+
+    /**
+     * 当前节点标识（主机名:进程号），主机名不可解析时用随机串代替，长度不超过 128。
+     */
+    public static String resolveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception ex) {
+            host = UUID.randomUUID().toString().substring(0, 8);
+        }
+        String id = host + ":" + ProcessHandle.current().pid();
+        return id.length() > MAX_NODE_ID_LENGTH ? id.substring(0, MAX_NODE_ID_LENGTH) : id;
+    }
+}
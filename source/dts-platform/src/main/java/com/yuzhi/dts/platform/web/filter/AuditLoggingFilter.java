@@ -97,6 +97,14 @@ public class AuditLoggingFilter extends OncePerRequestFilter {
                 return true;
             }
         }
+        // 附件下载为流式输出且已在接口内记审计，缓存响应体会把整个文件读入内存
+        if (path.startsWith("/api/modeling/standards/") && path.endsWith("/download")) {
+            return true;
+        }
+        // 查询结果下载按游标边读边写，导出审计由下载服务在结束时记录
+        if ("/api/explore/download".equals(path)) {
+            return true;
+        }
         return false;
     }
 
@@ -369,6 +377,10 @@ public class AuditLoggingFilter extends OncePerRequestFilter {
         if ("GET".equalsIgnoreCase(method) && uri.startsWith("/api/infra/data-sources")) {
             return true;
         }
+        if (uri.startsWith("/api/admin-cache/")) {
+            // 管理端推送的缓存失效通知属于服务间调用
+            return true;
+        }
         if ("GET".equalsIgnoreCase(method) && uri.startsWith("/api/infra/data-storages")) {
             return true;
         }
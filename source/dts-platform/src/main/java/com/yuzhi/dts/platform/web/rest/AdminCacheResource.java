@@ -0,0 +1,37 @@
+package com.yuzhi.dts.platform.web.rest;
+
+import com.yuzhi.dts.platform.security.AuthoritiesConstants;
+import com.yuzhi.dts.platform.service.admin.AdminCacheInvalidationBroadcaster;
+import java.util.List;
+import java.util.Map;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 管理端在菜单、角色、数据源变更后推送的缓存失效通知（服务间调用），不记审计。
+ * 通知只到达某一个节点，由 {@link AdminCacheInvalidationBroadcaster} 转发到集群内所有节点。
+ */
+@RestController
+@RequestMapping("/api/admin-cache")
+public class AdminCacheResource {
+
+    private final AdminCacheInvalidationBroadcaster broadcaster;
+
+    public AdminCacheResource(AdminCacheInvalidationBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    /**
+     * 请求体 {@code {"namespaces": ["menu", "roles"]}}；为空时使全部命名空间失效。
+     */
+    @PostMapping("/invalidate")
+    @PreAuthorize("hasAuthority('" + AuthoritiesConstants.OP_ADMIN + "')")
+    public ApiResponse<Map<String, Object>> invalidate(@RequestBody(required = false) Map<String, List<String>> request) {
+        List<String> namespaces = request == null ? List.of() : request.getOrDefault("namespaces", List.of());
+        broadcaster.publish(namespaces);
+        return ApiResponses.ok(Map.of("invalidated", namespaces.isEmpty() ? List.of("*") : namespaces));
+    }
+}
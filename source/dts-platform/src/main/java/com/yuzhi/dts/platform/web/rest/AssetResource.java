@@ -7,9 +7,8 @@ import com.yuzhi.dts.platform.repository.catalog.CatalogMaskingRuleRepository;
 import com.yuzhi.dts.platform.repository.catalog.CatalogRowFilterRuleRepository;
 import com.yuzhi.dts.platform.security.SecurityUtils;
 import com.yuzhi.dts.platform.service.audit.AuditService;
-import com.yuzhi.dts.platform.service.security.DatasetSecurityMetadataResolver;
-import com.yuzhi.dts.platform.security.policy.DataLevel;
 import com.yuzhi.dts.platform.service.query.QueryGateway;
+import com.yuzhi.dts.platform.service.query.QueryHints;
 import com.yuzhi.dts.common.audit.AuditStage;
 import com.yuzhi.dts.platform.service.catalog.DatasetJobService;
 import com.yuzhi.dts.platform.service.security.AccessChecker;
@@ -19,7 +18,6 @@ import com.yuzhi.dts.platform.service.security.SecuritySqlRewriter;
 import jakarta.validation.Valid;
 import java.lang.reflect.Array;
 import java.util.*;
-import java.util.stream.Collectors;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -43,7 +41,6 @@ public class AssetResource {
     private final DatasetJobService datasetJobService;
     private final QueryGateway queryGateway;
     private final DatasetSqlBuilder datasetSqlBuilder;
-    private final DatasetSecurityMetadataResolver metadataResolver;
     private final SecuritySqlRewriter securitySqlRewriter;
 
     public AssetResource(
@@ -55,7 +52,6 @@ public class AssetResource {
         DatasetJobService datasetJobService,
         QueryGateway queryGateway,
         DatasetSqlBuilder datasetSqlBuilder,
-        DatasetSecurityMetadataResolver metadataResolver,
         SecuritySqlRewriter securitySqlRewriter
     ) {
         this.datasetRepo = datasetRepo;
@@ -66,7 +62,6 @@ public class AssetResource {
         this.datasetJobService = datasetJobService;
         this.queryGateway = queryGateway;
         this.datasetSqlBuilder = datasetSqlBuilder;
-        this.metadataResolver = metadataResolver;
         this.securitySqlRewriter = securitySqlRewriter;
     }
 
@@ -179,12 +174,9 @@ public class AssetResource {
         }
 
         try {
-            Map<String, Object> queryResult = queryGateway.execute(sql);
+            Map<String, Object> queryResult = queryGateway.execute(sql, QueryHints.interactive(dataset));
             List<String> headers = extractHeaders(queryResult.get("headers"));
             List<Map<String, Object>> rowsData = extractRows(queryResult.get("rows"), headers);
-            if (!rowsData.isEmpty()) {
-                applyDataLevelFilter(dataset, headers, rowsData);
-            }
             Map<String, String> maskingMap = new HashMap<>();
             maskingRepo
                 .findByDataset(dataset)
@@ -327,120 +319,6 @@ public class AssetResource {
         return List.of();
     }
 
-    private void applyDataLevelFilter(CatalogDataset dataset, List<String> headers, List<Map<String, Object>> rows) {
-        if (dataset == null || rows == null || rows.isEmpty()) {
-            return;
-        }
-        Optional<String> columnOpt = metadataResolver.findDataLevelColumn(dataset);
-        if (columnOpt.isEmpty()) {
-            return;
-        }
-        List<DataLevel> allowedList = accessChecker.resolveAllowedDataLevels();
-        if (allowedList == null || allowedList.isEmpty()) {
-            rows.clear();
-            return;
-        }
-        Set<DataLevel> allowedLevels = allowedList
-            .stream()
-            .filter(Objects::nonNull)
-            .collect(Collectors.toCollection(LinkedHashSet::new));
-        if (allowedLevels.isEmpty()) {
-            rows.clear();
-            return;
-        }
-        Set<String> allowedTokens = allowedLevels
-            .stream()
-            .flatMap(level -> level.tokens().stream())
-            .map(token -> token.toUpperCase(Locale.ROOT))
-            .collect(Collectors.toCollection(LinkedHashSet::new));
-
-        String columnName = columnOpt.orElseThrow();
-        int headerIndex = resolveHeaderIndex(headers, columnName);
-        rows.removeIf(row -> !isRowAllowed(row, headers, headerIndex, columnName, allowedLevels, allowedTokens));
-    }
-
-    private int resolveHeaderIndex(List<String> headers, String columnName) {
-        if (headers == null || columnName == null) {
-            return -1;
-        }
-        for (int i = 0; i < headers.size(); i++) {
-            String header = headers.get(i);
-            if (header != null && header.trim().equalsIgnoreCase(columnName)) {
-                return i;
-            }
-        }
-        return -1;
-    }
-
-    private boolean isRowAllowed(
-        Map<String, Object> row,
-        List<String> headers,
-        int headerIndex,
-        String columnName,
-        Set<DataLevel> allowedLevels,
-        Set<String> allowedTokens
-    ) {
-        if (row == null || row.isEmpty()) {
-            return false;
-        }
-        Object rawValue = lookupValue(row, columnName);
-        if (rawValue == null && headerIndex >= 0 && headers != null && headerIndex < headers.size()) {
-            rawValue = lookupValue(row, headers.get(headerIndex));
-        }
-        if (rawValue == null) {
-            return false;
-        }
-        String text = rawValue.toString().trim();
-        if (text.isEmpty()) {
-            return false;
-        }
-        DataLevel normalized = DataLevel.normalize(text);
-        if (normalized != null) {
-            return allowedLevels.contains(normalized);
-        }
-        for (String variant : expandValueVariants(text)) {
-            if (allowedTokens.contains(variant)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private Object lookupValue(Map<String, Object> row, String key) {
-        if (key == null) {
-            return null;
-        }
-        if (row.containsKey(key)) {
-            return row.get(key);
-        }
-        for (Map.Entry<String, Object> entry : row.entrySet()) {
-            if (entry.getKey() != null && entry.getKey().equalsIgnoreCase(key)) {
-                return entry.getValue();
-            }
-        }
-        return null;
-    }
-
-    private Set<String> expandValueVariants(String raw) {
-        Set<String> variants = new LinkedHashSet<>();
-        if (raw == null) {
-            return variants;
-        }
-        String trimmed = raw.trim();
-        if (trimmed.isEmpty()) {
-            return variants;
-        }
-        String upper = trimmed.toUpperCase(Locale.ROOT);
-        variants.add(upper);
-        variants.add(upper.replace('-', '_'));
-        variants.add(upper.replace('_', '-'));
-        variants.add(upper.replace(' ', '_'));
-        variants.add(upper.replace(' ', '-'));
-        variants.add(upper.replace('-', ' '));
-        variants.add(upper.replace('_', ' '));
-        return variants;
-    }
-
 
     private String claim(String name) {
         try {
@@ -11,6 +11,7 @@ import com.yuzhi.dts.platform.repository.catalog.CatalogMaskingRuleRepository;
 import com.yuzhi.dts.platform.domain.catalog.CatalogMaskingRule;
 import com.yuzhi.dts.platform.service.audit.AuditService;
 import com.yuzhi.dts.platform.service.query.QueryGateway;
+import com.yuzhi.dts.platform.service.query.QueryHints;
 import com.yuzhi.dts.platform.service.security.AccessChecker;
 import com.yuzhi.dts.platform.security.SecurityUtils;
 import java.time.Instant;
@@ -70,8 +71,9 @@ public class ExploreExecResource {
         if (sql.isBlank()) return ApiResponses.error("sqlText is required");
 
         // Optional dataset-based permission check
+        CatalogDataset ds = null;
         if (req.datasetId != null) {
-            CatalogDataset ds = datasetRepo.findById(req.datasetId).orElse(null);
+            ds = datasetRepo.findById(req.datasetId).orElse(null);
             if (!datasetWithinScope(ds, resolveActiveDeptContext(activeDept))) {
                 audit.audit("DENY", "explore.execute", Objects.toString(req.datasetId));
                 return ApiResponses.error("Access denied for dataset");
@@ -99,7 +101,7 @@ public class ExploreExecResource {
             exec.setStatus(ExecEnums.ExecStatus.RUNNING);
             executionRepository.save(exec);
 
-            result = queryGateway.execute(effective);
+            result = queryGateway.execute(effective, QueryHints.batch(ds));
             List<?> rows = (List<?>) result.getOrDefault("rows", List.of());
             exec.setRowCount((long) rows.size());
             exec.setBytesProcessed(Long.valueOf(Math.max(0, rows.size() * 10)));
@@ -16,17 +16,24 @@ import com.yuzhi.dts.platform.repository.explore.ResultSetRepository;
 import com.yuzhi.dts.platform.service.audit.AuditService;
 import com.yuzhi.dts.platform.service.explore.dto.CreateSavedQueryRequest;
 import com.yuzhi.dts.platform.service.explore.dto.UpdateSavedQueryRequest;
+import com.yuzhi.dts.platform.service.explore.export.ResultDownloadService;
+import com.yuzhi.dts.platform.service.explore.export.ResultExportFormat;
+import com.yuzhi.dts.platform.service.query.QueryCacheKeyResolver;
+import com.yuzhi.dts.platform.service.query.QueryEngineType;
 import com.yuzhi.dts.platform.service.query.QueryGateway;
+import com.yuzhi.dts.platform.service.query.QueryHints;
+import com.yuzhi.dts.platform.service.query.QueryResultCache;
 import com.yuzhi.dts.platform.service.security.AccessChecker;
 import com.yuzhi.dts.platform.service.security.DatasetSqlBuilder;
-import com.yuzhi.dts.platform.service.security.DatasetSecurityMetadataResolver;
 import com.yuzhi.dts.platform.service.security.SecurityGuardException;
 import com.yuzhi.dts.platform.service.security.SecuritySqlRewriter;
-import com.yuzhi.dts.platform.security.policy.DataLevel;
 import com.yuzhi.dts.platform.security.AuthoritiesConstants;
 import com.yuzhi.dts.platform.security.SecurityUtils;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.lang.reflect.Array;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -39,18 +46,27 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.apache.commons.codec.digest.DigestUtils;
 
 @RestController
@@ -73,8 +89,10 @@ public class ExploreResource {
     private final ObjectMapper objectMapper;
     private final QueryGateway queryGateway;
     private final DatasetSqlBuilder datasetSqlBuilder;
-    private final DatasetSecurityMetadataResolver metadataResolver;
     private final SecuritySqlRewriter securitySqlRewriter;
+    private final QueryResultCache queryResultCache;
+    private final QueryCacheKeyResolver queryCacheKeyResolver;
+    private final ResultDownloadService resultDownloadService;
 
     public ExploreResource(
         ExploreSavedQueryRepository savedRepo,
@@ -86,8 +104,10 @@ public class ExploreResource {
         ObjectMapper objectMapper,
         QueryGateway queryGateway,
         DatasetSqlBuilder datasetSqlBuilder,
-        DatasetSecurityMetadataResolver metadataResolver,
-        SecuritySqlRewriter securitySqlRewriter
+        SecuritySqlRewriter securitySqlRewriter,
+        QueryResultCache queryResultCache,
+        QueryCacheKeyResolver queryCacheKeyResolver,
+        ResultDownloadService resultDownloadService
     ) {
         this.savedRepo = savedRepo;
         this.executionRepo = executionRepo;
@@ -98,8 +118,10 @@ public class ExploreResource {
         this.objectMapper = objectMapper;
         this.queryGateway = queryGateway;
         this.datasetSqlBuilder = datasetSqlBuilder;
-        this.metadataResolver = metadataResolver;
         this.securitySqlRewriter = securitySqlRewriter;
+        this.queryResultCache = queryResultCache;
+        this.queryCacheKeyResolver = queryCacheKeyResolver;
+        this.resultDownloadService = resultDownloadService;
     }
 
     @PostMapping("/query/preview")
@@ -140,7 +162,7 @@ public class ExploreResource {
             }
         }
         try {
-            Map<String, Object> payload = generateResult(dataset, extractSql(body), false);
+            Map<String, Object> payload = generateResult(dataset, extractSql(body), false, resolveActiveDeptContext(activeDept));
             recordAudit(
                 "EXECUTE",
                 "explore.preview",
@@ -226,7 +248,7 @@ public class ExploreResource {
             }
         }
         try {
-            Map<String, Object> payload = generateResult(dataset, extractSql(body), true);
+            Map<String, Object> payload = generateResult(dataset, extractSql(body), true, resolveActiveDeptContext(activeDept));
             recordAudit(
                 "EXECUTE",
                 "explore.execute",
@@ -274,6 +296,102 @@ public class ExploreResource {
         }
     }
 
+    /**
+     * 流式下载查询结果（CSV / NDJSON / XLSX）。权限与 SQL 安全校验与执行查询一致，
+     * 查询在异步线程中按游标读取并直接写入响应，导出审计在写出结束后记录。
+     */
+    @PostMapping("/download")
+    public ResponseEntity<StreamingResponseBody> download(
+        @RequestBody Map<String, Object> body,
+        @RequestHeader(value = "X-Active-Dept", required = false) String activeDept,
+        HttpServletRequest request
+    ) {
+        CatalogDataset dataset = resolveDataset(body.get("datasetId"));
+        String datasetLabel = datasetName(dataset, body.get("datasetId"));
+        if (body.get("datasetId") != null && dataset == null) {
+            recordAudit(
+                "DENY",
+                "explore.download",
+                Objects.toString(body.get("datasetId"), "unknown"),
+                "导出查询结果被拒绝",
+                datasetLabel,
+                "FAILED"
+            );
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied for dataset");
+        }
+        if (dataset != null) {
+            String effDept = resolveActiveDeptContext(activeDept);
+            if (!accessChecker.canRead(dataset) || !accessChecker.departmentAllowed(dataset, effDept)) {
+                recordAudit(
+                    "DENY",
+                    "explore.download",
+                    datasetIdentifier(dataset, body.get("datasetId")),
+                    "导出查询结果被拒绝：" + safeLabel(datasetLabel),
+                    datasetLabel,
+                    "FAILED"
+                );
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied for dataset");
+            }
+        }
+        ResultExportFormat format;
+        try {
+            format = ResultExportFormat.parse(asText(body.get("format")));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+        String effectiveSql;
+        try {
+            effectiveSql = securitySqlRewriter.guard(prepareSql(extractSql(body), dataset), dataset);
+        } catch (SecurityGuardException ex) {
+            LOG.warn("Explore download denied: {}", ex.getMessage());
+            recordAudit(
+                "DENY",
+                "explore.download",
+                datasetIdentifier(dataset, body.get("datasetId")),
+                "导出查询结果被拒绝：" + safeLabel(datasetLabel),
+                datasetLabel,
+                "FAILED",
+                Map.of("error", ex.getMessage())
+            );
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, ex.getMessage());
+        }
+        ResultDownloadService.PreparedDownload download;
+        try {
+            download = resultDownloadService.prepare(
+                SecurityUtils.getCurrentUserLogin().orElse("anonymous"),
+                dataset,
+                effectiveSql,
+                format,
+                datasetLabel
+            );
+        } catch (ResultDownloadService.DownloadRejectedException ex) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
+        }
+        // 异步写出超时或出错时 writeTo 可能从未执行，需在回调中归还名额（release 可重复调用）
+        ResultDownloadService.PreparedDownload prepared = download;
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(
+            "explore.download",
+            new CallableProcessingInterceptor() {
+                @Override
+                public <T> Object handleTimeout(NativeWebRequest webRequest, Callable<T> task) {
+                    prepared.release();
+                    return RESULT_NONE;
+                }
+
+                @Override
+                public <T> Object handleError(NativeWebRequest webRequest, Callable<T> task, Throwable t) {
+                    prepared.release();
+                    return RESULT_NONE;
+                }
+            }
+        );
+        String encodedFileName = URLEncoder.encode(download.fileName(), StandardCharsets.UTF_8).replaceAll("\\+", "%20");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentDisposition(ContentDisposition.attachment().filename(encodedFileName).build());
+        headers.setContentType(MediaType.parseMediaType(format.contentType()));
+        return ResponseEntity.ok().headers(headers).body(download::writeTo);
+    }
+
     @PostMapping("/explain")
     public ApiResponse<Map<String, Object>> explain(@RequestBody Map<String, Object> body) {
         String sql = extractSql(body);
@@ -945,7 +1063,8 @@ public class ExploreResource {
             Map<String, Object> payload = generateResult(
                 dataset,
                 Optional.ofNullable(q.getSqlText()).orElse(""),
-                true
+                true,
+                resolveActiveDeptContext(activeDept)
             );
             recordAudit(
                 "EXECUTE",
@@ -1033,10 +1152,15 @@ public class ExploreResource {
         }
     }
 
-    private Map<String, Object> generateResult(CatalogDataset dataset, String sqlText, boolean persist) {
+    private Map<String, Object> generateResult(CatalogDataset dataset, String sqlText, boolean persist, String activeDept) {
         String effectiveSql = prepareSql(sqlText, dataset);
         effectiveSql = securitySqlRewriter.guard(effectiveSql, dataset);
-        Map<String, Object> queryResult = queryGateway.execute(effectiveSql);
+        String guardedSql = effectiveSql;
+        QueryResultCache.CachedResult cached = queryResultCache.getOrLoad(
+            queryResultCache.isEnabled() ? queryCacheKeyResolver.resolve(guardedSql, dataset, activeDept) : null,
+            () -> queryGateway.execute(guardedSql, persist ? QueryHints.batch(dataset) : QueryHints.interactive(dataset))
+        );
+        Map<String, Object> queryResult = cached.result();
 
         List<String> headers = extractHeaders(queryResult);
         List<Map<String, Object>> rows = extractRows(queryResult.get("rows"));
@@ -1047,8 +1171,6 @@ public class ExploreResource {
             headers = buildHeaders(dataset);
         }
 
-        applyDataLevelRowFilter(dataset, headers, rows);
-
         Map<String, Object> masking = buildMasking(headers);
         long connectMillis = numberOrDefault(queryResult.get("connectMillis"), -1L);
         long queryMillis = numberOrDefault(queryResult.get("queryMillis"), -1L);
@@ -1074,6 +1196,7 @@ public class ExploreResource {
         payload.put("masking", masking);
         payload.put("rowCount", rowCount);
         payload.put("durationMs", durationMs);
+        payload.put("cacheHit", cached.hit());
         if (connectMillis >= 0) {
             payload.put("connectMillis", connectMillis);
         }
@@ -1082,12 +1205,30 @@ public class ExploreResource {
         }
 
         if (persist) {
-            UUID executionId = persistExecution(dataset, effectiveSql, headers, rows, masking, durationMs, rowCount);
+            UUID executionId = persistExecution(
+                dataset,
+                effectiveSql,
+                headers,
+                rows,
+                masking,
+                durationMs,
+                rowCount,
+                resolveExecEngine(queryResult.get("engine"))
+            );
             payload.put("executionId", executionId.toString());
         }
         return payload;
     }
 
+    /** 路由结果中的 engine 与 {@link QueryEngineType} 同名，逐一映射；未带引擎信息的结果沿用原来的 TRINO 记录方式。 */
+    private ExecEnums.ExecEngine resolveExecEngine(Object engine) {
+        return switch (Objects.toString(engine, "")) {
+            case "HIVE" -> ExecEnums.ExecEngine.HIVE;
+            case "POSTGRES" -> ExecEnums.ExecEngine.POSTGRES;
+            default -> ExecEnums.ExecEngine.TRINO;
+        };
+    }
+
     private String prepareSql(String sqlText, CatalogDataset dataset) {
         String candidate = sqlText != null ? sqlText.trim() : "";
         if (!candidate.isEmpty()) {
@@ -1140,118 +1281,6 @@ public class ExploreResource {
         return rows;
     }
 
-    private void applyDataLevelRowFilter(CatalogDataset dataset, List<String> headers, List<Map<String, Object>> rows) {
-        if (dataset == null || rows == null || rows.isEmpty()) {
-            return;
-        }
-        Optional<String> columnOpt = metadataResolver.findDataLevelColumn(dataset);
-        if (columnOpt.isEmpty()) {
-            return;
-        }
-        List<DataLevel> allowedLevelsList = accessChecker.resolveAllowedDataLevels();
-        if (allowedLevelsList == null || allowedLevelsList.isEmpty()) {
-            rows.clear();
-            return;
-        }
-        Set<DataLevel> allowedLevels = allowedLevelsList.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
-        if (allowedLevels.isEmpty()) {
-            rows.clear();
-            return;
-        }
-        Set<String> allowedTokens = allowedLevels
-            .stream()
-            .flatMap(level -> level.tokens().stream())
-            .map(token -> token.toUpperCase(Locale.ROOT))
-            .collect(Collectors.toCollection(LinkedHashSet::new));
-
-        String dataLevelColumn = columnOpt.orElseThrow();
-        int headerIndex = resolveHeaderIndex(headers, dataLevelColumn);
-
-        rows.removeIf(row -> !isRowLevelAllowed(row, headers, headerIndex, dataLevelColumn, allowedLevels, allowedTokens));
-    }
-
-    private int resolveHeaderIndex(List<String> headers, String columnName) {
-        if (headers == null || columnName == null) {
-            return -1;
-        }
-        for (int i = 0; i < headers.size(); i++) {
-            String header = headers.get(i);
-            if (header != null && header.trim().equalsIgnoreCase(columnName)) {
-                return i;
-            }
-        }
-        return -1;
-    }
-
-    private boolean isRowLevelAllowed(
-        Map<String, Object> row,
-        List<String> headers,
-        int headerIndex,
-        String columnName,
-        Set<DataLevel> allowedLevels,
-        Set<String> allowedTokens
-    ) {
-        if (row == null || row.isEmpty()) {
-            return false;
-        }
-        Object rawValue = lookupValue(row, columnName);
-        if (rawValue == null && headerIndex >= 0 && headers != null && headerIndex < headers.size()) {
-            rawValue = lookupValue(row, headers.get(headerIndex));
-        }
-        if (rawValue == null) {
-            return false;
-        }
-        String text = rawValue.toString().trim();
-        if (text.isEmpty()) {
-            return false;
-        }
-        DataLevel level = DataLevel.normalize(text);
-        if (level != null) {
-            return allowedLevels.contains(level);
-        }
-        for (String token : expandValueVariants(text)) {
-            if (allowedTokens.contains(token)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private Object lookupValue(Map<String, Object> row, String key) {
-        if (key == null) {
-            return null;
-        }
-        if (row.containsKey(key)) {
-            return row.get(key);
-        }
-        for (Map.Entry<String, Object> entry : row.entrySet()) {
-            if (entry.getKey() != null && entry.getKey().equalsIgnoreCase(key)) {
-                return entry.getValue();
-            }
-        }
-        return null;
-    }
-
-    private Set<String> expandValueVariants(String raw) {
-        Set<String> variants = new LinkedHashSet<>();
-        if (raw == null) {
-            return variants;
-        }
-        String base = raw.trim();
-        if (base.isEmpty()) {
-            return variants;
-        }
-        String upper = base.toUpperCase(Locale.ROOT);
-        variants.add(upper);
-        variants.add(upper.replace('-', '_'));
-        variants.add(upper.replace('_', '-'));
-        variants.add(upper.replace(' ', '_'));
-        variants.add(upper.replace(' ', '-'));
-        variants.add(upper.replace('-', ' '));
-        variants.add(upper.replace('_', ' '));
-        return variants;
-    }
-
     private long numberOrDefault(Object value, long defaultValue) {
         if (value instanceof Number number) {
             return number.longValue();
@@ -1271,7 +1300,8 @@ public class ExploreResource {
         List<Map<String, Object>> rows,
         Map<String, Object> masking,
         long durationMs,
-        long rowCount
+        long rowCount,
+        ExecEnums.ExecEngine engine
     ) {
         ResultSet resultSet = new ResultSet();
         String defaultName = null;
@@ -1293,7 +1323,7 @@ public class ExploreResource {
         Instant started = durationMs > 0 ? finished.minus(durationMs, ChronoUnit.MILLIS) : finished;
 
         QueryExecution execution = new QueryExecution();
-        execution.setEngine(ExecEnums.ExecEngine.TRINO);
+        execution.setEngine(engine);
         execution.setSqlText(sqlText == null || sqlText.isBlank() ? "SELECT 1" : sqlText);
         execution.setStatus(ExecEnums.ExecStatus.SUCCESS);
         execution.setStartedAt(started);
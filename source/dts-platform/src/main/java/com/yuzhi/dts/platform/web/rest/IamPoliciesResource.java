@@ -63,4 +63,13 @@ public class IamPoliciesResource {
         auditService.audit("UPDATE", "iam.policy.apply", user);
         return ApiResponses.ok(result);
     }
+
+    /**
+     * 当前用户最近一次批量授权的进度，供前端轮询；轮询请求不记审计。
+     */
+    @GetMapping("/apply/progress")
+    public ApiResponse<PolicyApplyProgressDto> applyProgress() {
+        String user = SecurityUtils.getCurrentUserLogin().orElse("system");
+        return ApiResponses.ok(policyService.applyProgress(user).orElse(null));
+    }
 }
@@ -1,11 +1,13 @@
 package com.yuzhi.dts.platform.web.rest;
 
+import com.yuzhi.dts.platform.domain.service.InfraTaskRun;
 import com.yuzhi.dts.platform.domain.service.InfraTaskSchedule;
 import com.yuzhi.dts.platform.config.HiveExecutionProperties;
 import com.yuzhi.dts.platform.repository.service.InfraTaskScheduleRepository;
 import com.yuzhi.dts.platform.security.AuthoritiesConstants;
 import com.yuzhi.dts.platform.security.SecurityUtils;
 import com.yuzhi.dts.platform.service.audit.AuditService;
+import com.yuzhi.dts.platform.service.infra.DataSourceHeartbeatBroadcaster;
 import com.yuzhi.dts.platform.service.infra.HiveConnectionService;
 import com.yuzhi.dts.platform.service.infra.InceptorDataSourceRegistry;
 import com.yuzhi.dts.platform.service.infra.InceptorDataSourceRegistry.InceptorDataSourceState;
@@ -14,6 +16,8 @@ import com.yuzhi.dts.platform.service.infra.InceptorIntegrationCoordinator.Integ
 import com.yuzhi.dts.platform.service.infra.HiveConnectionTestResult;
 import com.yuzhi.dts.platform.service.infra.InfraManagementService;
 import com.yuzhi.dts.platform.service.infra.dto.ConnectionTestLogDto;
+import com.yuzhi.dts.platform.service.infra.schedule.InfraTaskScheduler;
+import com.yuzhi.dts.platform.service.infra.dto.DataSourceHeartbeatDto;
 import com.yuzhi.dts.platform.service.infra.dto.DataSourceRequest;
 import com.yuzhi.dts.platform.service.infra.dto.DataStorageRequest;
 import com.yuzhi.dts.platform.service.infra.dto.HiveConnectionPersistRequest;
@@ -47,6 +51,8 @@ public class InfraResource {
     private final HiveExecutionProperties hiveProps;
     private final InceptorDataSourceRegistry inceptorRegistry;
     private final InceptorIntegrationCoordinator integrationCoordinator;
+    private final InfraTaskScheduler taskScheduler;
+    private final DataSourceHeartbeatBroadcaster heartbeatBroadcaster;
 
     public InfraResource(
         InfraTaskScheduleRepository schedRepo,
@@ -55,7 +61,9 @@ public class InfraResource {
         HiveConnectionService hiveConnectionService,
         HiveExecutionProperties hiveProps,
         InceptorDataSourceRegistry inceptorRegistry,
-        InceptorIntegrationCoordinator integrationCoordinator
+        InceptorIntegrationCoordinator integrationCoordinator,
+        InfraTaskScheduler taskScheduler,
+        DataSourceHeartbeatBroadcaster heartbeatBroadcaster
     ) {
         this.schedRepo = schedRepo;
         this.audit = audit;
@@ -64,6 +72,8 @@ public class InfraResource {
         this.hiveProps = hiveProps;
         this.inceptorRegistry = inceptorRegistry;
         this.integrationCoordinator = integrationCoordinator;
+        this.taskScheduler = taskScheduler;
+        this.heartbeatBroadcaster = heartbeatBroadcaster;
     }
 
     // Data sources
@@ -223,6 +233,17 @@ public class InfraResource {
         return ApiResponses.ok(buildFeaturesPayload());
     }
 
+    /**
+     * 管理端心跳状态变化推送（服务间调用），仅更新运行时注册表，不记审计。
+     * 推送只到达某一个节点，由 {@link DataSourceHeartbeatBroadcaster} 转发到集群内所有节点。
+     */
+    @PostMapping("/data-sources/heartbeat")
+    @PreAuthorize("hasAuthority('" + AuthoritiesConstants.OP_ADMIN + "')")
+    public ApiResponse<Map<String, Object>> applyDataSourceHeartbeats(@RequestBody List<DataSourceHeartbeatDto> heartbeats) {
+        heartbeatBroadcaster.publish(heartbeats);
+        return ApiResponses.ok(Map.of("published", heartbeats == null ? 0 : heartbeats.size()));
+    }
+
     // Task schedules
     @GetMapping("/schedules")
     public ApiResponse<List<InfraTaskSchedule>> listSchedules() {
@@ -234,6 +255,9 @@ public class InfraResource {
     @PostMapping("/schedules")
     @PreAuthorize(INFRA_MAINTAINER_EXPRESSION)
     public ApiResponse<InfraTaskSchedule> createSchedule(@Valid @RequestBody InfraTaskSchedule sc) {
+        taskScheduler.validate(sc);
+        sc.setLockedBy(null);
+        sc.setLockedUntil(null);
         var saved = schedRepo.save(sc);
         audit.audit("CREATE", "infra.schedule", String.valueOf(saved.getId()));
         return ApiResponses.ok(saved);
@@ -248,6 +272,10 @@ public class InfraResource {
         existing.setStatus(patch.getStatus());
         existing.setLastRunAt(patch.getLastRunAt());
         existing.setDescription(patch.getDescription());
+        existing.setJobType(patch.getJobType());
+        existing.setParameters(patch.getParameters());
+        existing.setMisfirePolicy(patch.getMisfirePolicy());
+        taskScheduler.validate(existing);
         var saved = schedRepo.save(existing);
         audit.audit("UPDATE", "infra.schedule", String.valueOf(id));
         return ApiResponses.ok(saved);
@@ -261,6 +289,25 @@ public class InfraResource {
         return ApiResponses.ok(Boolean.TRUE);
     }
 
+    @PostMapping("/schedules/{id}/trigger")
+    @PreAuthorize(INFRA_MAINTAINER_EXPRESSION)
+    public ApiResponse<InfraTaskRun> triggerSchedule(@PathVariable UUID id) {
+        String actor = SecurityUtils.getCurrentUserLogin().orElse("system");
+        InfraTaskRun run = taskScheduler.trigger(id, actor);
+        audit.audit("EXECUTE", "infra.schedule", String.valueOf(id));
+        return ApiResponses.ok(run);
+    }
+
+    @GetMapping("/schedules/{id}/runs")
+    public ApiResponse<List<InfraTaskRun>> scheduleRuns(@PathVariable UUID id, @RequestParam(defaultValue = "20") int limit) {
+        return ApiResponses.ok(taskScheduler.history(id, limit));
+    }
+
+    @GetMapping("/schedules/job-types")
+    public ApiResponse<java.util.Set<String>> scheduleJobTypes() {
+        return ApiResponses.ok(taskScheduler.jobTypes());
+    }
+
     private Map<String, Object> buildFeaturesPayload() {
         InceptorDataSourceState state = inceptorRegistry.getActive().orElse(null);
         IntegrationStatus status = integrationCoordinator.currentStatus();
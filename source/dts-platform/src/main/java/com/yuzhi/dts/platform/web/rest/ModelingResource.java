@@ -3,6 +3,7 @@ package com.yuzhi.dts.platform.web.rest;
 import com.yuzhi.dts.common.audit.AuditStage;
 import com.yuzhi.dts.platform.domain.modeling.DataSecurityLevel;
 import com.yuzhi.dts.platform.domain.modeling.DataStandardStatus;
+import com.yuzhi.dts.platform.security.SecurityUtils;
 import com.yuzhi.dts.platform.service.audit.AuditService;
 import com.yuzhi.dts.platform.service.modeling.DataStandardAttachmentService;
 import com.yuzhi.dts.platform.service.modeling.DataStandardFilter;
@@ -15,16 +16,22 @@ import com.yuzhi.dts.platform.service.modeling.dto.DataStandardVersionDto;
 import jakarta.validation.Valid;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -42,18 +49,22 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/modeling")
 @Transactional
 public class ModelingResource {
 
+    private static final Duration DOWNLOAD_AUDIT_WINDOW = Duration.ofMinutes(10);
+    private static final int DOWNLOAD_AUDIT_PURGE_THRESHOLD = 1024;
     private static final String MODELING_MAINTAINER_EXPRESSION =
         "hasAnyAuthority(T(com.yuzhi.dts.platform.security.AuthoritiesConstants).CATALOG_MAINTAINERS)";
 
     private final DataStandardService standards;
     private final DataStandardAttachmentService attachments;
     private final AuditService audit;
+    private final ConcurrentMap<String, Instant> recentDownloadAudits = new ConcurrentHashMap<>();
 
     public ModelingResource(DataStandardService standards, DataStandardAttachmentService attachments, AuditService audit) {
         this.standards = standards;
@@ -266,27 +277,96 @@ public class ModelingResource {
         }
     }
 
+    /**
+     * 流式下载，支持单个 Range 区间（206）。每次从 0 开始的请求都记审计；其余区间请求按用户与附件在
+     * {@link #DOWNLOAD_AUDIT_WINDOW} 内合并为一条，直接从中间开始的分段下载同样留痕。
+     */
     @GetMapping("/standards/{id}/attachments/{attachmentId}/download")
-    public ResponseEntity<byte[]> download(
+    public ResponseEntity<StreamingResponseBody> download(
         @PathVariable UUID id,
         @PathVariable UUID attachmentId,
-        @RequestHeader(value = "X-Active-Dept", required = false) String activeDept
+        @RequestHeader(value = "X-Active-Dept", required = false) String activeDept,
+        @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader
     ) {
         DataStandardAttachmentContent content = attachments.download(id, attachmentId, activeDept);
-        Map<String, Object> detail = new java.util.LinkedHashMap<>();
-        detail.put("targetId", attachmentId.toString());
-        detail.put("targetName", content.getFileName());
-        detail.put("standardId", id.toString());
-        detail.put("summary", "下载数据标准附件：" + content.getFileName());
-        detail.put("operationType", "DOWNLOAD");
-        audit.auditAction("MODELING_STANDARD_VIEW", AuditStage.SUCCESS, attachmentId.toString(), detail);
+        long size = content.getSize();
+        HttpRange range = parseSingleRange(rangeHeader);
         MediaType mediaType = resolveMediaType(content.getContentType());
         String encodedFileName = URLEncoder.encode(content.getFileName(), StandardCharsets.UTF_8).replaceAll("\\+", "%20");
         ContentDisposition disposition = ContentDisposition.attachment().filename(encodedFileName).build();
         HttpHeaders headers = new HttpHeaders();
         headers.setContentDisposition(disposition);
         headers.setContentType(mediaType);
-        return ResponseEntity.ok().headers(headers).body(content.getData());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        long start = 0;
+        long end = size - 1;
+        if (range != null) {
+            try {
+                start = range.getRangeStart(size);
+                end = range.getRangeEnd(size);
+            } catch (IllegalArgumentException ex) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+            }
+        }
+        if (claimDownloadAudit(attachmentId, start)) {
+            Map<String, Object> detail = new java.util.LinkedHashMap<>();
+            detail.put("targetId", attachmentId.toString());
+            detail.put("targetName", content.getFileName());
+            detail.put("standardId", id.toString());
+            detail.put("summary", "下载数据标准附件：" + content.getFileName());
+            detail.put("operationType", "DOWNLOAD");
+            audit.auditAction("MODELING_STANDARD_VIEW", AuditStage.SUCCESS, attachmentId.toString(), detail);
+        }
+        if (range == null) {
+            headers.setContentLength(size);
+            return ResponseEntity.ok().headers(headers).body(content::writeTo);
+        }
+        long offset = start;
+        long length = end - start + 1;
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        headers.setContentLength(length);
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers).body(out -> content.writeRange(offset, length, out));
+    }
+
+    /**
+     * 判断本次下载是否需要记审计：从 0 开始的请求总是记录并开启新的合并窗口，窗口内同一用户对同一附件的后续区间请求不再重复记录。
+     */
+    private boolean claimDownloadAudit(UUID attachmentId, long start) {
+        Instant now = Instant.now();
+        String key = SecurityUtils.getCurrentUserLogin().orElse("anonymous") + ":" + attachmentId;
+        if (recentDownloadAudits.size() > DOWNLOAD_AUDIT_PURGE_THRESHOLD) {
+            Instant cutoff = now.minus(DOWNLOAD_AUDIT_WINDOW);
+            recentDownloadAudits.values().removeIf(at -> at.isBefore(cutoff));
+        }
+        if (start == 0) {
+            recentDownloadAudits.put(key, now);
+            return true;
+        }
+        boolean[] claimed = new boolean[1];
+        recentDownloadAudits.compute(key, (k, previous) -> {
+            if (previous != null && previous.plus(DOWNLOAD_AUDIT_WINDOW).isAfter(now)) {
+                return previous;
+            }
+            claimed[0] = true;
+            return now;
+        });
+        return claimed[0];
+    }
+
+    /**
+     * 仅支持单个区间；多区间或格式错误时按整文件返回。
+     */
+    private HttpRange parseSingleRange(String rangeHeader) {
+        if (!StringUtils.hasText(rangeHeader)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
     }
 
     @DeleteMapping("/standards/{id}/attachments/{attachmentId}")
@@ -4,6 +4,7 @@ import com.yuzhi.dts.platform.domain.catalog.CatalogDataset;
 import com.yuzhi.dts.platform.repository.catalog.CatalogDatasetRepository;
 import com.yuzhi.dts.platform.service.audit.AuditService;
 import com.yuzhi.dts.platform.service.query.QueryGateway;
+import com.yuzhi.dts.platform.service.query.QueryHints;
 import com.yuzhi.dts.platform.service.security.AccessChecker;
 import java.util.Map;
 import java.util.Objects;
@@ -49,7 +50,7 @@ public class SqlResource {
         // 行级过滤逻辑已迁移至统一查询服务，此处直接使用用户输入 SQL。
         String effectiveSql = sql;
         try {
-            Map<String, Object> result = queryGateway.execute(effectiveSql);
+            Map<String, Object> result = queryGateway.execute(effectiveSql, QueryHints.batch(ds));
             audit.audit("EXECUTE", "sql.query", String.valueOf(datasetId));
             return ApiResponses.ok(result);
         } catch (IllegalStateException ex) {
@@ -13,12 +13,14 @@ import com.yuzhi.dts.platform.service.sql.dto.SqlValidateResponse;
 import com.yuzhi.dts.platform.web.rest.ApiResponse;
 import com.yuzhi.dts.platform.web.rest.ApiResponses;
 import java.security.Principal;
+import java.util.List;
 import java.util.UUID;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -44,6 +46,11 @@ public class SqlWorkbenchResource {
         return ApiResponses.ok(catalogService.fetchTree(request, principal));
     }
 
+    @GetMapping("/catalog/children")
+    public ApiResponse<List<SqlCatalogNode>> catalogChildren(@RequestParam String nodeId) {
+        return ApiResponses.ok(catalogService.fetchChildren(nodeId));
+    }
+
     @PostMapping("/validate")
     public ApiResponse<SqlValidateResponse> validate(@RequestBody SqlValidateRequest request, Principal principal) {
         return ApiResponses.ok(validationService.validate(request, principal));
@@ -0,0 +1,61 @@
+package com.yuzhi.dts.platform.service.admin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.hazelcast.topic.MessageListener;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AdminCacheInvalidationBroadcasterTest {
+
+    private final AdminResponseCache cache = mock(AdminResponseCache.class);
+    private final AtomicReference<MessageListener<String>> listener = new AtomicReference<>();
+    private ITopic<String> topic;
+    private AdminCacheInvalidationBroadcaster broadcaster;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        topic = mock(ITopic.class);
+        when(topic.addMessageListener(any())).thenAnswer(invocation -> {
+            listener.set(invocation.getArgument(0));
+            return null;
+        });
+        HazelcastInstance hazelcast = mock(HazelcastInstance.class);
+        when(hazelcast.<String>getTopic(AdminCacheInvalidationBroadcaster.TOPIC)).thenReturn(topic);
+        broadcaster = new AdminCacheInvalidationBroadcaster(hazelcast, cache);
+    }
+
+    @Test
+    void invalidationIsPublishedToTheClusterAndAppliedOnReceipt() {
+        broadcaster.publish(List.of("menu", "roles"));
+
+        verify(topic).publish("menu,roles");
+        @SuppressWarnings("unchecked")
+        Message<String> message = mock(Message.class);
+        when(message.getMessageObject()).thenReturn("menu,roles");
+        listener.get().onMessage(message);
+        verify(cache).invalidate(List.of("menu", "roles"));
+    }
+
+    @Test
+    void failedBroadcastStillInvalidatesLocally() {
+        doThrow(new IllegalStateException("cluster down")).when(topic).publish(anyString());
+
+        broadcaster.publish(List.of());
+
+        verify(cache).invalidate(List.of());
+        assertThat(listener.get()).isNotNull();
+    }
+}
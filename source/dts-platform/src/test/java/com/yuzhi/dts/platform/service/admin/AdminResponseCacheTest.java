@@ -0,0 +1,129 @@
+package com.yuzhi.dts.platform.service.admin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.yuzhi.dts.platform.config.DtsAdminProperties;
+import com.yuzhi.dts.platform.service.admin.AdminResponseCache.Fetched;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class AdminResponseCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final MutableClock clock = new MutableClock();
+    private final DtsAdminProperties.Cache settings = new DtsAdminProperties.Cache();
+    private final AdminResponseCache cache = new AdminResponseCache(settings, clock, Runnable::run);
+
+    @Test
+    void revalidatesWithEtagAfterExpiry() {
+        List<String> seenEtags = new ArrayList<>();
+        AdminResponseCache.Loader<String> loader = etag -> {
+            seenEtags.add(etag);
+            return etag == null ? Fetched.of("tree-v1", "\"v1\"") : Fetched.notModified();
+        };
+
+        assertThat(cache.get(AdminResponseCache.MENU, "tree", TTL, loader)).contains("tree-v1");
+        assertThat(cache.get(AdminResponseCache.MENU, "tree", TTL, loader)).contains("tree-v1");
+        clock.advance(TTL.plus(settings.getStaleWhileRevalidate()).plusSeconds(1));
+        assertThat(cache.get(AdminResponseCache.MENU, "tree", TTL, loader)).contains("tree-v1");
+
+        assertThat(seenEtags).containsExactly(null, "\"v1\"");
+    }
+
+    @Test
+    void invalidationForcesRevalidationOnNextRead() {
+        AtomicInteger version = new AtomicInteger(1);
+        AdminResponseCache.Loader<Integer> loader = etag -> Fetched.of(version.get(), "\"" + version.get() + "\"");
+
+        assertThat(cache.get(AdminResponseCache.ROLES, "platform", TTL, loader)).contains(1);
+        version.set(2);
+        assertThat(cache.get(AdminResponseCache.ROLES, "platform", TTL, loader)).contains(1);
+        cache.invalidate(List.of(AdminResponseCache.ROLES));
+
+        assertThat(cache.get(AdminResponseCache.ROLES, "platform", TTL, loader)).contains(2);
+    }
+
+    @Test
+    void servesStaleCopyWhenAdminFails() {
+        AtomicInteger calls = new AtomicInteger();
+        AdminResponseCache.Loader<String> loader = etag -> {
+            if (calls.incrementAndGet() > 1) {
+                throw new IllegalStateException("admin down");
+            }
+            return Fetched.of("config", null);
+        };
+
+        assertThat(cache.get(AdminResponseCache.INFRA, "inceptor", Duration.ZERO, loader)).contains("config");
+        clock.advance(Duration.ofMinutes(10));
+        assertThat(cache.get(AdminResponseCache.INFRA, "inceptor", Duration.ZERO, loader)).contains("config");
+        clock.advance(settings.getStaleIfError());
+        assertThat(cache.get(AdminResponseCache.INFRA, "inceptor", Duration.ZERO, loader)).isEmpty();
+    }
+
+    @Test
+    void concurrentMissesShareOneCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AdminResponseCache.Loader<String> loader = etag -> {
+            calls.incrementAndGet();
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Fetched.of("users", null);
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Optional<String>>> results = new ArrayList<>();
+            results.add(pool.submit(() -> cache.get(AdminResponseCache.USERS, "alice", TTL, loader)));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 3; i++) {
+                results.add(pool.submit(() -> cache.get(AdminResponseCache.USERS, "alice", TTL, loader)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<Optional<String>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).contains("users");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-10-18T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.yuzhi.dts.platform.service.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuzhi.dts.common.audit.AuditActionCatalog;
+import com.yuzhi.dts.common.audit.AuditStage;
+import com.yuzhi.dts.platform.config.AuditProperties;
+import com.yuzhi.dts.platform.security.session.PortalSessionRegistry;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class AuditServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AuditTrailService trailService = mock(AuditTrailService.class);
+    private AuditService auditService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        SecurityContextHolder.getContext()
+            .setAuthentication(new UsernamePasswordAuthenticationToken("alice", "n/a", List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        AuditActionCatalog catalog = new AuditActionCatalog(objectMapper, new DefaultResourceLoader(), "classpath:/config/audit-action-catalog.json");
+        ObjectProvider<AuditTrailService> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(trailService);
+        auditService = new AuditService(provider, catalog, mock(PortalSessionRegistry.class), objectMapper, new AuditProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void catalogActionsShareCompiledTagsAndSerializeOnlyWhenShipped() throws Exception {
+        auditService.auditAction("EXPLORE_SQL_RUN", AuditStage.SUCCESS, "q-1", Map.of("summary", "执行查询"));
+        auditService.auditAction("EXPLORE_SQL_RUN", AuditStage.SUCCESS, "q-2", Map.of("summary", "执行查询"));
+
+        List<AuditTrailService.PendingAuditEvent> events = capturedEvents(2);
+        AuditTrailService.PendingAuditEvent first = events.get(0);
+        assertThat(first.actor).isEqualTo("alice");
+        assertThat(first.result).isEqualTo("SUCCESS");
+        assertThat(first.metadata).containsEntry("actionCode", "EXPLORE_SQL_RUN").containsEntry("stage", "SUCCESS");
+        assertThat(events.get(1).metadata).isSameAs(first.metadata);
+        assertThat(first.extraTags).isNull();
+
+        String json = first.resolveExtraTags();
+        assertThat(objectMapper.readValue(json, Map.class)).isEqualTo(first.metadata);
+        assertThat(events.get(1).resolveExtraTags()).isSameAs(json);
+    }
+
+    @Test
+    void legacyModuleActionResolvesToCatalogTemplate() {
+        auditService.recordAs("alice", "DENY", "explore.resultPreview", "explore.resultPreview", "r-1", "DENY", Map.of(), Map.of("source", "test"));
+
+        AuditTrailService.PendingAuditEvent event = capturedEvents(1).get(0);
+        assertThat(event.action).isEqualTo("预览查询结果被拒绝");
+        assertThat(event.result).isEqualTo("FAILED");
+        assertThat(event.operationType).isEqualTo("READ");
+        assertThat(event.metadata).containsEntry("actionCode", "EXPLORE_RESULTSET_VIEW").containsEntry("stage", "FAIL");
+        assertThat(event.metadata).doesNotContainKey("source");
+    }
+
+    @Test
+    void freeFormTagsAreKeptAsIs() throws Exception {
+        auditService.recordAs("alice", "UPDATE", "catalog.dataset", "dataset", "ds-1", "SUCCESS", Map.of(), Map.of("source", "test"));
+
+        AuditTrailService.PendingAuditEvent event = capturedEvents(1).get(0);
+        assertThat(event.metadata).containsExactly(Map.entry("source", "test"));
+        assertThat(objectMapper.readValue(event.resolveExtraTags(), Map.class)).isEqualTo(Map.of("source", "test"));
+    }
+
+    @Test
+    void payloadIsParsedOnceWithoutWalkingArbitraryValues() {
+        SecurityContextHolder.clearContext();
+        Map<String, Object> payload = new java.util.LinkedHashMap<>();
+        payload.put("targetId", "ds-42");
+        payload.put("details", Map.of("note", "not-an-actor"));
+        payload.put("owner", "anonymous");
+        payload.put("operator", Map.of("username", "bob"));
+        payload.put("targetName", "orders");
+        payload.put("attributes", Map.of("rows", 3));
+
+        auditService.auditAction("EXPLORE_SQL_RUN", AuditStage.SUCCESS, "q-3", payload);
+        auditService.recordAs(null, "UPDATE", "catalog.dataset", "dataset", "ds-1", "SUCCESS", Map.of("targetId", "ds-1"), null);
+
+        List<AuditTrailService.PendingAuditEvent> events = capturedEvents(1);
+        AuditTrailService.PendingAuditEvent event = events.get(0);
+        assertThat(event.actor).isEqualTo("bob");
+        assertThat(event.operationType).isEqualTo("EXECUTE");
+        assertThat(event.resourceName).isEqualTo("orders");
+        assertThat(event.summary).isEqualTo("执行查询：orders");
+        assertThat(event.attributes).containsEntry("rows", 3);
+    }
+
+    private List<AuditTrailService.PendingAuditEvent> capturedEvents(int count) {
+        ArgumentCaptor<AuditTrailService.PendingAuditEvent> captor = ArgumentCaptor.forClass(AuditTrailService.PendingAuditEvent.class);
+        verify(trailService, times(count)).record(captor.capture());
+        return captor.getAllValues();
+    }
+}
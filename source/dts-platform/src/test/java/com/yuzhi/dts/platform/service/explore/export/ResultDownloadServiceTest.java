@@ -0,0 +1,131 @@
+package com.yuzhi.dts.platform.service.explore.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuzhi.dts.common.observability.OperationMetrics;
+import com.yuzhi.dts.common.observability.SlowOperationJournal;
+import com.yuzhi.dts.platform.config.ExploreProperties;
+import com.yuzhi.dts.platform.domain.catalog.CatalogDataset;
+import com.yuzhi.dts.platform.domain.catalog.CatalogMaskingRule;
+import com.yuzhi.dts.platform.repository.catalog.CatalogMaskingRuleRepository;
+import com.yuzhi.dts.platform.service.audit.AuditService;
+import com.yuzhi.dts.platform.service.query.QueryGateway;
+import com.yuzhi.dts.platform.service.query.QueryRowSink;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class ResultDownloadServiceTest {
+
+    private final QueryGateway gateway = mock(QueryGateway.class);
+    private final CatalogMaskingRuleRepository maskingRules = mock(CatalogMaskingRuleRepository.class);
+    private final AuditService audit = mock(AuditService.class);
+    private final ExploreProperties properties = new ExploreProperties();
+    private ResultDownloadService service;
+
+    @BeforeEach
+    void setUp() {
+        properties.getDownload().setMaxConcurrentPerUser(1);
+        properties.getDownload().setMaxRows(3);
+        OperationMetrics metrics = new OperationMetrics(new SimpleMeterRegistry(), new SlowOperationJournal(10, Duration.ofSeconds(1)));
+        service = new ResultDownloadService(gateway, maskingRules, audit, new ObjectMapper(), metrics, properties);
+        when(gateway.stream(anyString(), any(), anyInt(), anyLong(), any())).thenAnswer(invocation -> {
+            QueryRowSink sink = invocation.getArgument(4);
+            sink.open(List.of("user_name", "amount", "note"));
+            Object[] row = new Object[3];
+            long count = 0;
+            for (int i = 0; i < 5; i++) {
+                row[0] = "alice" + i;
+                row[1] = i;
+                row[2] = i == 0 ? "=HYPERLINK(\"x\")" : "a,b";
+                count++;
+                if (!sink.row(row)) {
+                    break;
+                }
+            }
+            return count;
+        });
+    }
+
+    @Test
+    void csvIsQuotedGuardedMaskedAndTruncatedAtMaxRows() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.prepare("alice", null, "SELECT 1", ResultExportFormat.CSV, "订单").writeTo(out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(csv).startsWith("\uFEFFuser_name,amount,note\r\n");
+        assertThat(csv.split("\r\n")).hasSize(4);
+        assertThat(csv).contains("\"'=HYPERLINK(\"\"x\"\")\"").contains("\"a,b\"").doesNotContain("alice0");
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(audit, times(1)).recordAs(eq("alice"), eq("EXPORT"), eq("explore.download"), eq("explore.download"), isNull(), eq("SUCCESS"), payload.capture(), isNull());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> details = (Map<String, Object>) payload.getValue();
+        assertThat(details).containsEntry("rowCount", 3L).containsEntry("truncated", true).containsEntry("format", "CSV");
+    }
+
+    @Test
+    void datasetRulesReplaceHeuristicMasking() throws Exception {
+        CatalogDataset dataset = new CatalogDataset();
+        dataset.setId(UUID.randomUUID());
+        CatalogMaskingRule rule = new CatalogMaskingRule();
+        rule.setColumn("NOTE");
+        rule.setFunction("REDACT");
+        when(maskingRules.findByDataset(dataset)).thenReturn(List.of(rule));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.prepare("alice", dataset, "SELECT 1", ResultExportFormat.NDJSON, "订单").writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(new ObjectMapper().readValue(lines[0], Map.class)).containsEntry("user_name", "alice0").containsEntry("amount", 0).containsEntry("note", "****");
+    }
+
+    @Test
+    void xlsxRoundTripsThroughTempFileWorkbook() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.prepare("alice", null, "SELECT 1", ResultExportFormat.XLSX, "订单").writeTo(out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertThat(sheet.getRow(0).getCell(1).getStringCellValue()).isEqualTo("amount");
+            assertThat(sheet.getRow(3).getCell(1).getNumericCellValue()).isEqualTo(2d);
+            assertThat(sheet.getLastRowNum()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void concurrentDownloadsPerUserAreRejectedUntilReleased() {
+        ResultDownloadService.PreparedDownload first = service.prepare("alice", null, "SELECT 1", ResultExportFormat.CSV, null);
+
+        assertThatThrownBy(() -> service.prepare("alice", null, "SELECT 1", ResultExportFormat.CSV, null))
+            .isInstanceOf(ResultDownloadService.DownloadRejectedException.class);
+        service.prepare("bob", null, "SELECT 1", ResultExportFormat.CSV, null).release();
+
+        first.release();
+        first.release();
+        service.prepare("alice", null, "SELECT 1", ResultExportFormat.CSV, null).release();
+    }
+}
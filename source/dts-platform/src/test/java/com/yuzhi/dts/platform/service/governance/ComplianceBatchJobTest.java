@@ -0,0 +1,171 @@
+package com.yuzhi.dts.platform.service.governance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yuzhi.dts.platform.config.GovernanceProperties;
+import com.yuzhi.dts.platform.service.governance.dto.QualityRunDto;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+class ComplianceBatchJobTest {
+
+    @Test
+    void groupsPendingItemsPerDatasourceKeepingOrder() {
+        String hiveA = ComplianceBatchJob.datasourceKey("hive", "ODS", null);
+        String trino = ComplianceBatchJob.datasourceKey("HIVE", "ods", "Warehouse");
+        String unknown = ComplianceBatchJob.datasourceKey(null, " ", null);
+        assertThat(hiveA).isEqualTo("HIVE:ods");
+        assertThat(trino).isEqualTo("HIVE:warehouse");
+        assertThat(unknown).isEqualTo("UNKNOWN");
+
+        List<ComplianceBatchJob.PendingItem> items = new ArrayList<>();
+        items.add(pending(hiveA));
+        items.add(pending(trino));
+        items.add(pending(hiveA));
+        items.add(pending(unknown));
+
+        Map<String, List<ComplianceBatchJob.PendingItem>> groups = ComplianceBatchJob.groupByDatasource(items);
+
+        assertThat(groups.keySet()).containsExactly(hiveA, trino, unknown);
+        assertThat(groups.get(hiveA)).containsExactly(items.get(0), items.get(2));
+    }
+
+    @Test
+    void insertsItemsInChunks() {
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        GovernanceProperties properties = new GovernanceProperties();
+        properties.getCompliance().setInsertChunkSize(2);
+        ComplianceBatchJob job = new ComplianceBatchJob(jdbc, mock(QualityRunService.class), properties, mock(PlatformTransactionManager.class));
+        try {
+            List<ComplianceBatchJob.PlannedItem> planned = IntStream
+                .range(0, 5)
+                .mapToObj(i -> new ComplianceBatchJob.PlannedItem(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), "HIGH"))
+                .toList();
+
+            assertThat(job.insertItems(UUID.randomUUID(), planned, "alice")).isEqualTo(5);
+            verify(jdbc, times(3)).batchUpdate(anyString(), any(SqlParameterSource[].class));
+        } finally {
+            job.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void progressCountsEvaluatedItemsNotDispatches() {
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        QualityRunService qualityRunService = mock(QualityRunService.class);
+        UUID batchId = UUID.randomUUID();
+        List<ComplianceBatchJob.PendingItem> pending = List.of(pending("HIVE:ods"), pending("HIVE:ods"), pending("HIVE:dwd"));
+        when(jdbc.update(anyString(), any(SqlParameterSource.class))).thenReturn(1);
+        when(jdbc.queryForMap(anyString(), any(SqlParameterSource.class))).thenReturn(Map.of("triggered_by", "alice", "job_total", 3));
+        when(jdbc.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class))).thenReturn(pending);
+        when(qualityRunService.createQueued(any(), anyString())).thenAnswer(invocation -> {
+            QualityRunDto dto = new QualityRunDto();
+            dto.setId(UUID.randomUUID());
+            return List.of(dto);
+        });
+        List<UUID> executed = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> executed.add(invocation.getArgument(0))).when(qualityRunService).executeQueued(any(UUID.class), any());
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        ComplianceBatchJob job = new ComplianceBatchJob(jdbc, qualityRunService, new GovernanceProperties(), transactionManager);
+        try {
+            job.run(batchId);
+
+            assertThat(executed).hasSize(3);
+            ArgumentCaptor<SqlParameterSource> finish = ArgumentCaptor.forClass(SqlParameterSource.class);
+            verify(jdbc).update(argThat(sql -> sql.contains("job_state = 'DONE'")), finish.capture());
+            assertThat(finish.getValue().getValue("processed")).isEqualTo(3);
+            assertThat(finish.getValue().getValue("failed")).isEqualTo(0);
+            verify(qualityRunService, never()).trigger(any(), anyString());
+        } finally {
+            job.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void resumeReExecutesLinkedRunsThatNeverFinished() {
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        QualityRunService qualityRunService = mock(QualityRunService.class);
+        UUID orphanedRun = UUID.randomUUID();
+        ComplianceBatchJob.PendingItem linked = new ComplianceBatchJob.PendingItem(
+            UUID.randomUUID(),
+            UUID.randomUUID(),
+            UUID.randomUUID(),
+            orphanedRun,
+            "HIVE:ods"
+        );
+        when(jdbc.update(anyString(), any(SqlParameterSource.class))).thenReturn(1);
+        when(jdbc.queryForMap(anyString(), any(SqlParameterSource.class))).thenReturn(Map.of("triggered_by", "alice", "job_total", 4));
+        when(jdbc.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class))).thenReturn(List.of(linked, pending("HIVE:ods")));
+        when(jdbc.queryForObject(anyString(), any(SqlParameterSource.class), any(Class.class))).thenReturn(0);
+        when(qualityRunService.createQueued(any(), anyString())).thenAnswer(invocation -> {
+            QualityRunDto dto = new QualityRunDto();
+            dto.setId(UUID.randomUUID());
+            return List.of(dto);
+        });
+        List<UUID> executed = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> executed.add(invocation.getArgument(0))).when(qualityRunService).executeQueued(any(UUID.class), any());
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        ComplianceBatchJob job = new ComplianceBatchJob(jdbc, qualityRunService, new GovernanceProperties(), transactionManager);
+        try {
+            job.run(UUID.randomUUID());
+
+            assertThat(executed).hasSize(2).contains(orphanedRun);
+            verify(qualityRunService, times(1)).createQueued(any(), anyString());
+            ArgumentCaptor<SqlParameterSource> finish = ArgumentCaptor.forClass(SqlParameterSource.class);
+            verify(jdbc).update(argThat(sql -> sql.contains("job_state = 'DONE'")), finish.capture());
+            assertThat(finish.getValue().getValue("processed")).isEqualTo(4);
+        } finally {
+            job.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void inFlightRunsKeepBatchOpenAndAreNotCountedAsProcessed() {
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        QualityRunService qualityRunService = mock(QualityRunService.class);
+        when(jdbc.update(anyString(), any(SqlParameterSource.class))).thenReturn(1);
+        when(jdbc.queryForMap(anyString(), any(SqlParameterSource.class))).thenReturn(Map.of("triggered_by", "alice", "job_total", 3));
+        when(jdbc.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class))).thenReturn(List.of());
+        when(jdbc.queryForObject(anyString(), any(SqlParameterSource.class), any(Class.class))).thenReturn(1);
+        ComplianceBatchJob job = new ComplianceBatchJob(jdbc, qualityRunService, new GovernanceProperties(), mock(PlatformTransactionManager.class));
+        try {
+            job.run(UUID.randomUUID());
+
+            verify(jdbc, never()).update(argThat(sql -> sql.contains("job_state = 'DONE'")), any(SqlParameterSource.class));
+            ArgumentCaptor<SqlParameterSource> progress = ArgumentCaptor.forClass(SqlParameterSource.class);
+            verify(jdbc).update(argThat(sql -> sql.startsWith("update gov_compliance_batch set job_processed")), progress.capture());
+            assertThat(progress.getValue().getValue("processed")).isEqualTo(2);
+        } finally {
+            job.shutdown();
+        }
+    }
+
+    private static ComplianceBatchJob.PendingItem pending(String datasource) {
+        return new ComplianceBatchJob.PendingItem(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), null, datasource);
+    }
+}
@@ -0,0 +1,92 @@
+package com.yuzhi.dts.platform.service.iam;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.yuzhi.dts.platform.service.iam.PolicyService.ExistingPolicy;
+import com.yuzhi.dts.platform.service.iam.PolicyService.MatrixKey;
+import com.yuzhi.dts.platform.service.iam.PolicyService.PolicyRow;
+import com.yuzhi.dts.platform.service.iam.PolicyService.PolicyWritePlan;
+import com.yuzhi.dts.platform.service.iam.dto.BatchAuthorizationInputDto;
+import com.yuzhi.dts.platform.service.iam.dto.PolicyApplyProgressDto;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class PolicyServiceTest {
+
+    private static final UUID DATASET = UUID.fromString("6f1c1b3e-1d5a-4c0e-9a3b-0c1d2e3f4a5b");
+    private static final Instant NOW = Instant.parse("2026-10-18T08:00:00Z");
+
+    @Test
+    void planUpdatesExistingInsertsMissingAndDeletesStale() {
+        ExistingPolicy object = existing("OBJECT", null, "DENY", "alice");
+        ExistingPolicy oldField = existing("FIELD", "phone", "DENY", "alice");
+        ExistingPolicy keptField = existing("FIELD", "name", "DENY", "alice");
+        BatchAuthorizationInputDto input = new BatchAuthorizationInputDto(
+            List.of(new BatchAuthorizationInputDto.SubjectRef("USER", "u1", "用户1")),
+            List.of(new BatchAuthorizationInputDto.ObjectRef(DATASET.toString(), "订单")),
+            new BatchAuthorizationInputDto.Scope(
+                "allow",
+                List.of(new BatchAuthorizationInputDto.FieldRef("name", "allow"), new BatchAuthorizationInputDto.FieldRef("email", null)),
+                "region = 'east'",
+                null,
+                null
+            )
+        );
+
+        PolicyWritePlan plan = PolicyService.plan(
+            input,
+            Map.of(MatrixKey.of(DATASET, "user", "u1"), List.of(object, oldField, keptField)),
+            "bob",
+            NOW
+        );
+
+        assertThat(plan.updates()).extracting(PolicyRow::id).containsExactly(object.id(), keptField.id());
+        assertThat(plan.updates()).extracting(PolicyRow::effect).containsOnly("ALLOW");
+        assertThat(plan.updates()).extracting(PolicyRow::createdBy).containsOnly("alice");
+        assertThat(plan.inserts()).extracting(PolicyRow::scope).containsExactly("FIELD", "ROW");
+        assertThat(plan.inserts().get(0).fieldName()).isEqualTo("email");
+        assertThat(plan.inserts().get(1).rowExpression()).isEqualTo("region = 'east'");
+        assertThat(plan.inserts()).extracting(PolicyRow::createdBy).containsOnly("bob");
+        assertThat(plan.deletes()).containsExactly(oldField.id());
+    }
+
+    @Test
+    void planInsertsObjectPolicyAndDropsDuplicates() {
+        ExistingPolicy first = existing("OBJECT", null, "ALLOW", "alice");
+        ExistingPolicy duplicate = existing("object", null, "ALLOW", "alice");
+        BatchAuthorizationInputDto input = new BatchAuthorizationInputDto(
+            List.of(new BatchAuthorizationInputDto.SubjectRef("user", "u1", "用户1"), new BatchAuthorizationInputDto.SubjectRef("ROLE", "r1", "角色1")),
+            List.of(new BatchAuthorizationInputDto.ObjectRef(DATASET.toString(), "订单")),
+            null
+        );
+
+        PolicyWritePlan plan = PolicyService.plan(input, Map.of(MatrixKey.of(DATASET, "USER", "u1"), List.of(first, duplicate)), "bob", NOW);
+
+        assertThat(plan.updates()).extracting(PolicyRow::id).containsExactly(first.id());
+        assertThat(plan.inserts()).singleElement().satisfies(row -> {
+            assertThat(row.subjectId()).isEqualTo("r1");
+            assertThat(row.scope()).isEqualTo("OBJECT");
+            assertThat(row.effect()).isEqualTo("ALLOW");
+        });
+        assertThat(plan.deletes()).containsExactly(duplicate.id());
+    }
+
+    @Test
+    void finishedAndAbandonedProgressEntriesExpire() {
+        Map<String, PolicyApplyProgressDto> progress = new HashMap<>();
+        progress.put("done", new PolicyApplyProgressDto(PolicyService.PHASE_DONE, 10, 10, NOW.minus(PolicyService.PROGRESS_TTL).minusSeconds(1)));
+        progress.put("running", new PolicyApplyProgressDto("WRITING", 5, 10, NOW.minusSeconds(30)));
+
+        PolicyService.purgeExpired(progress, NOW);
+
+        assertThat(progress).containsOnlyKeys("running");
+    }
+
+    private static ExistingPolicy existing(String scope, String field, String effect, String createdBy) {
+        return new ExistingPolicy(UUID.randomUUID(), DATASET, "USER", "u1", scope, field, effect, null, null, null, null, createdBy);
+    }
+}
@@ -0,0 +1,85 @@
+package com.yuzhi.dts.platform.service.infra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yuzhi.dts.common.observability.OperationMetrics;
+import com.yuzhi.dts.common.observability.SlowOperationJournal;
+import com.yuzhi.dts.platform.config.CatalogFeatureProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class CatalogDatasetReaperTest {
+
+    private final NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+    private final CatalogFeatureProperties properties = new CatalogFeatureProperties();
+    private CatalogDatasetReaper reaper;
+
+    @BeforeEach
+    void setUp() {
+        properties.setPurgeChunkSize(2);
+        properties.setPurgeDeferred(true);
+        OperationMetrics metrics = new OperationMetrics(new SimpleMeterRegistry(), new SlowOperationJournal(10, Duration.ofSeconds(1)));
+        reaper = new CatalogDatasetReaper(jdbc, properties, metrics, mock(PlatformTransactionManager.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reaper.shutdown();
+    }
+
+    @Test
+    void marksStaleDatasetsWithChunkedSetUpdates() {
+        when(jdbc.update(anyString(), any(SqlParameterSource.class))).thenAnswer(invocation -> idsOf(invocation.getArgument(1)).size());
+        List<UUID> ids = IntStream.range(0, 5).mapToObj(i -> UUID.randomUUID()).toList();
+
+        assertThat(reaper.markStale(ids)).isEqualTo(5);
+        verify(jdbc, times(3)).update(anyString(), any(SqlParameterSource.class));
+    }
+
+    @Test
+    void failedChunkIsRetriedPerDatasetAndUndeletableOnesStayVisible() {
+        UUID deletable = UUID.randomUUID();
+        UUID referenced = UUID.randomUUID();
+        when(jdbc.queryForList(anyString(), any(SqlParameterSource.class), eq(UUID.class)))
+            .thenReturn(List.of(deletable, referenced))
+            .thenReturn(List.of());
+        when(jdbc.update(anyString(), any(SqlParameterSource.class))).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            if (sql.startsWith("update catalog_dataset set purge_requested_at = null")) {
+                return 1;
+            }
+            Collection<?> ids = idsOf(invocation.getArgument(1));
+            if (sql.startsWith("delete from catalog_dataset ") && ids.contains(referenced)) {
+                throw new DataIntegrityViolationException("gov_quality_run references dataset");
+            }
+            return ids.size();
+        });
+
+        assertThat(reaper.purgePending()).isEqualTo(1);
+        verify(jdbc).update(eq("update catalog_dataset set purge_requested_at = null where id = :id"), any(SqlParameterSource.class));
+    }
+
+    private static Collection<?> idsOf(SqlParameterSource params) {
+        Object ids = ((MapSqlParameterSource) params).getValue("ids");
+        return ids instanceof Collection<?> collection ? collection : List.of();
+    }
+}
@@ -0,0 +1,77 @@
+package com.yuzhi.dts.platform.service.infra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.hazelcast.topic.MessageListener;
+import com.yuzhi.dts.platform.service.infra.dto.DataSourceHeartbeatDto;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DataSourceHeartbeatBroadcasterTest {
+
+    private final InceptorDataSourceRegistry registry = mock(InceptorDataSourceRegistry.class);
+    private final AtomicReference<MessageListener<ArrayList<DataSourceHeartbeatDto>>> listener = new AtomicReference<>();
+    private final DataSourceHeartbeatDto heartbeat = new DataSourceHeartbeatDto(
+        UUID.randomUUID(),
+        "INCEPTOR",
+        "ACTIVE",
+        "DOWN",
+        3,
+        "connect timed out",
+        Instant.now(),
+        5000L
+    );
+    private ITopic<ArrayList<DataSourceHeartbeatDto>> topic;
+    private DataSourceHeartbeatBroadcaster broadcaster;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        topic = mock(ITopic.class);
+        when(topic.addMessageListener(any())).thenAnswer(invocation -> {
+            listener.set(invocation.getArgument(0));
+            return null;
+        });
+        HazelcastInstance hazelcast = mock(HazelcastInstance.class);
+        when(hazelcast.<ArrayList<DataSourceHeartbeatDto>>getTopic(DataSourceHeartbeatBroadcaster.TOPIC)).thenReturn(topic);
+        broadcaster = new DataSourceHeartbeatBroadcaster(hazelcast, registry);
+    }
+
+    @Test
+    void heartbeatsArePublishedToTheClusterAndAppliedOnReceipt() {
+        broadcaster.publish(List.of(heartbeat));
+
+        verify(topic).publish(new ArrayList<>(List.of(heartbeat)));
+        verify(registry, never()).applyHeartbeat(any());
+        @SuppressWarnings("unchecked")
+        Message<ArrayList<DataSourceHeartbeatDto>> message = mock(Message.class);
+        when(message.getMessageObject()).thenReturn(new ArrayList<>(List.of(heartbeat)));
+        listener.get().onMessage(message);
+        verify(registry).applyHeartbeat(heartbeat);
+    }
+
+    @Test
+    void failedBroadcastStillAppliesLocally() {
+        doThrow(new IllegalStateException("cluster down")).when(topic).publish(any());
+        when(registry.applyHeartbeat(heartbeat)).thenReturn(true);
+
+        broadcaster.publish(List.of(heartbeat));
+
+        verify(registry).applyHeartbeat(heartbeat);
+        assertThat(broadcaster.apply(List.of())).isZero();
+    }
+}
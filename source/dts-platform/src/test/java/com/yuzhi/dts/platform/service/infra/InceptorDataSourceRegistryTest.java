@@ -0,0 +1,138 @@
+package com.yuzhi.dts.platform.service.infra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuzhi.dts.platform.config.HiveExecutionProperties;
+import com.yuzhi.dts.platform.config.InfraSecurityProperties;
+import com.yuzhi.dts.platform.domain.service.InfraDataSource;
+import com.yuzhi.dts.platform.repository.service.InfraDataSourceRepository;
+import com.yuzhi.dts.platform.service.infra.InceptorDataSourceRegistry.DataSourceChange;
+import com.yuzhi.dts.platform.service.infra.InceptorDataSourceRegistry.InceptorDataSourceState;
+import com.yuzhi.dts.platform.service.infra.dto.DataSourceHeartbeatDto;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+class InceptorDataSourceRegistryTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final InfraDataSourceRepository repository = mock(InfraDataSourceRepository.class);
+    private final List<DataSourceChange> changes = new ArrayList<>();
+    private Runnable onChange = () -> {};
+    private InfraSecretService secretService;
+    private InceptorDataSourceRegistry registry;
+    private InfraDataSource entity;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        InfraSecurityProperties properties = new InfraSecurityProperties();
+        properties.setEncryptionKey("MDEyMzQ1Njc4OUFCQ0RFRg==");
+        secretService = spy(new InfraSecretService(properties, objectMapper));
+        secretService.init();
+
+        entity = new InfraDataSource();
+        entity.setId(UUID.randomUUID());
+        entity.setName("inceptor");
+        entity.setType("INCEPTOR");
+        entity.setStatus("ACTIVE");
+        entity.setJdbcUrl("jdbc:hive2://hive:10000/default");
+        entity.setUsername("hive@EXAMPLE.COM");
+        entity.setProps("{\"database\":\"ods\"}");
+        secretService.applySecrets(entity, Map.of("authMethod", "PASSWORD", "password", "secret", "krb5Conf", "[libdefaults]"));
+        when(repository.findByTypeIgnoreCase("INCEPTOR")).thenReturn(List.of(entity));
+
+        AdminInfraClient adminInfraClient = mock(AdminInfraClient.class);
+        when(adminInfraClient.fetchActiveInceptor()).thenReturn(Optional.empty());
+        ObjectProvider<InceptorDataSourceListener> listeners = mock(ObjectProvider.class);
+        when(listeners.orderedStream()).thenAnswer(invocation ->
+            Stream.of((InceptorDataSourceListener) change -> {
+                changes.add(change);
+                onChange.run();
+            })
+        );
+
+        registry = new InceptorDataSourceRegistry(
+            repository,
+            secretService,
+            properties,
+            objectMapper,
+            new HiveExecutionProperties(),
+            adminInfraClient,
+            null,
+            listeners
+        );
+        registry.initialize();
+    }
+
+    @Test
+    void unchangedRefreshKeepsSnapshotAndDecryptsOnce() {
+        InceptorDataSourceState initial = registry.getActive().orElseThrow();
+        assertThat(initial.database()).isEqualTo("ods");
+        assertThat(initial.toString()).doesNotContain("secret");
+
+        registry.applyHeartbeat(new DataSourceHeartbeatDto(entity.getId(), "INCEPTOR", "ACTIVE", "UP", 0, null, Instant.now(), 12L));
+        InceptorDataSourceState withHeartbeat = registry.getActive().orElseThrow();
+        registry.refresh();
+
+        assertThat(registry.getActive()).containsSame(withHeartbeat);
+        assertThat(withHeartbeat.heartbeatStatus()).isEqualTo("UP");
+        assertThat(changes).isEmpty();
+        verify(secretService, times(1)).readSecrets(any(InfraDataSource.class));
+    }
+
+    @Test
+    void changedDefinitionNotifiesListenersForThatSource() {
+        entity.setProps("{\"database\":\"dwd\"}");
+        registry.refresh();
+
+        assertThat(registry.getActive().orElseThrow().database()).isEqualTo("dwd");
+        assertThat(changes).singleElement().satisfies(change -> {
+            assertThat(change.id()).isEqualTo(entity.getId());
+            assertThat(change.active()).isTrue();
+            assertThat(change.previous().database()).isEqualTo("ods");
+        });
+
+        when(repository.findByTypeIgnoreCase("INCEPTOR")).thenReturn(List.of());
+        registry.refresh();
+
+        assertThat(registry.getActive()).isEmpty();
+        assertThat(changes).hasSize(2);
+        assertThat(changes.get(1).removed()).isTrue();
+    }
+
+    @Test
+    void listenersRunAfterWriteLockIsReleased() {
+        AtomicBoolean heartbeatApplied = new AtomicBoolean();
+        onChange = () ->
+            heartbeatApplied.set(
+                CompletableFuture.supplyAsync(() ->
+                    registry.applyHeartbeat(new DataSourceHeartbeatDto(entity.getId(), "INCEPTOR", "ACTIVE", "UP", 0, null, Instant.now(), 5L))
+                ).orTimeout(5, TimeUnit.SECONDS).join()
+            );
+
+        entity.setProps("{\"database\":\"dwd\"}");
+        registry.refresh();
+
+        assertThat(changes).hasSize(1);
+        assertThat(heartbeatApplied).isTrue();
+        assertThat(registry.getActive().orElseThrow().heartbeatStatus()).isEqualTo("UP");
+    }
+}
@@ -0,0 +1,73 @@
+package com.yuzhi.dts.platform.service.infra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.yuzhi.dts.platform.domain.catalog.CatalogColumnSchema;
+import com.yuzhi.dts.platform.domain.catalog.CatalogTableSchema;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class PostgresCatalogSyncServiceTest {
+
+    @Test
+    void diffKeepsExistingColumnsAndTheirTags() {
+        CatalogTableSchema table = new CatalogTableSchema();
+        CatalogColumnSchema id = column(table, "id", "bigint", "主键");
+        id.setTags("pk");
+        CatalogColumnSchema phone = column(table, "Phone", "varchar", "手机号");
+        phone.setSensitiveTags("PII");
+        CatalogColumnSchema legacy = column(table, "legacy_flag", "boolean", null);
+
+        PostgresCatalogSyncService.ColumnDiff diff = PostgresCatalogSyncService.diffColumns(
+            table,
+            List.of(id, phone, legacy),
+            List.of(
+                new PostgresCatalogSyncService.ColumnMeta("id", "bigint", true, null),
+                new PostgresCatalogSyncService.ColumnMeta("phone", "text", true, null),
+                new PostgresCatalogSyncService.ColumnMeta("created_at", "timestamp", false, "创建时间")
+            )
+        );
+
+        assertThat(diff.inserts()).singleElement().satisfies(column -> {
+            assertThat(column.getName()).isEqualTo("created_at");
+            assertThat(column.getTable()).isSameAs(table);
+            assertThat(column.getNullable()).isFalse();
+        });
+        assertThat(diff.deletes()).containsExactly(legacy);
+        assertThat(diff.updated()).isEqualTo(1);
+        assertThat(diff.changed()).isTrue();
+
+        assertThat(id.getComment()).isEqualTo("主键");
+        assertThat(id.getTags()).isEqualTo("pk");
+        assertThat(phone.getName()).isEqualTo("phone");
+        assertThat(phone.getDataType()).isEqualTo("text");
+        assertThat(phone.getComment()).isEqualTo("手机号");
+        assertThat(phone.getSensitiveTags()).isEqualTo("PII");
+    }
+
+    @Test
+    void unchangedColumnsProduceNoWrites() {
+        CatalogTableSchema table = new CatalogTableSchema();
+        CatalogColumnSchema id = column(table, "id", "bigint", "主键");
+
+        PostgresCatalogSyncService.ColumnDiff diff = PostgresCatalogSyncService.diffColumns(
+            table,
+            List.of(id),
+            List.of(new PostgresCatalogSyncService.ColumnMeta("id", "bigint", true, "主键"))
+        );
+
+        assertThat(diff.changed()).isFalse();
+    }
+
+    private static CatalogColumnSchema column(CatalogTableSchema table, String name, String dataType, String comment) {
+        CatalogColumnSchema column = new CatalogColumnSchema();
+        column.setId(UUID.randomUUID());
+        column.setTable(table);
+        column.setName(name);
+        column.setDataType(dataType);
+        column.setNullable(true);
+        column.setComment(comment);
+        return column;
+    }
+}
@@ -0,0 +1,94 @@
+package com.yuzhi.dts.platform.service.infra.schedule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuzhi.dts.platform.config.InfraSchedulerProperties;
+import com.yuzhi.dts.platform.domain.service.InfraTaskRun;
+import com.yuzhi.dts.platform.domain.service.InfraTaskSchedule;
+import com.yuzhi.dts.platform.repository.service.InfraTaskRunRepository;
+import com.yuzhi.dts.platform.repository.service.InfraTaskScheduleRepository;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class InfraTaskSchedulerTest {
+
+    private final InfraTaskScheduleRepository scheduleRepository = mock(InfraTaskScheduleRepository.class);
+    private final InfraTaskRunRepository runRepository = mock(InfraTaskRunRepository.class);
+    private final InfraSchedulerProperties properties = new InfraSchedulerProperties();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private InfraTaskScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void runningJobRenewsLeaseAndAbandonedRunsAreFailed() throws Exception {
+        InfraTaskSchedule schedule = new InfraTaskSchedule();
+        schedule.setId(UUID.randomUUID());
+        schedule.setName("long job");
+        schedule.setJobType("LONG");
+        when(scheduleRepository.findById(schedule.getId())).thenReturn(Optional.of(schedule));
+        when(scheduleRepository.findSchedulable()).thenReturn(List.of());
+        when(scheduleRepository.claimManual(eq(schedule.getId()), anyString(), any(Instant.class), any(Instant.class))).thenReturn(1);
+        when(scheduleRepository.renewLease(eq(schedule.getId()), anyString(), any(Instant.class))).thenReturn(1);
+        when(runRepository.save(any(InfraTaskRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        CountDownLatch started = new CountDownLatch(1);
+        ScheduledJobHandler handler = new ScheduledJobHandler() {
+            @Override
+            public String jobType() {
+                return "LONG";
+            }
+
+            @Override
+            public String run(ScheduledJobContext context) throws Exception {
+                started.countDown();
+                release.await(10, TimeUnit.SECONDS);
+                return "done";
+            }
+        };
+        scheduler = new InfraTaskScheduler(scheduleRepository, runRepository, properties, new ObjectMapper(), List.of(handler));
+
+        scheduler.trigger(schedule.getId(), "admin");
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        scheduler.poll();
+
+        verify(scheduleRepository).renewLease(eq(schedule.getId()), anyString(), any(Instant.class));
+        verify(runRepository).failAbandoned(any(Instant.class), anyString());
+
+        release.countDown();
+        verify(scheduleRepository, timeout(5000)).release(eq(schedule.getId()), anyString(), any(), eq("SUCCESS"), any());
+        scheduler.poll();
+
+        verify(scheduleRepository).renewLease(eq(schedule.getId()), anyString(), any(Instant.class));
+    }
+
+    @Test
+    void disabledSchedulerDoesNotSweepRuns() {
+        properties.setEnabled(false);
+        scheduler = new InfraTaskScheduler(scheduleRepository, runRepository, properties, new ObjectMapper(), List.of());
+
+        scheduler.poll();
+
+        verify(runRepository, never()).failAbandoned(any(Instant.class), anyString());
+    }
+}
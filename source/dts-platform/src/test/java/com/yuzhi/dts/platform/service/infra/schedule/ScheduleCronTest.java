@@ -0,0 +1,35 @@
+package com.yuzhi.dts.platform.service.infra.schedule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+class ScheduleCronTest {
+
+    private static final Duration THRESHOLD = Duration.ofMinutes(1);
+
+    @Test
+    void acceptsUnixFiveFieldCron() {
+        Instant after = Instant.parse("2026-10-18T08:15:30Z");
+
+        assertThat(ScheduleCron.next(ScheduleCron.parse("0 * * * *"), after, ZoneOffset.UTC)).isEqualTo(Instant.parse("2026-10-18T09:00:00Z"));
+        assertThat(ScheduleCron.next(ScheduleCron.parse(" 0  30 2 * * * "), after, ZoneOffset.UTC)).isEqualTo(
+            Instant.parse("2026-10-19T02:30:00Z")
+        );
+        assertThatThrownBy(() -> ScheduleCron.parse("every hour")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void misfirePolicyOnlySkipsLateTriggers() {
+        Instant due = Instant.parse("2026-10-18T08:00:00Z");
+
+        assertThat(ScheduleCron.shouldFire(due, due.plusSeconds(20), THRESHOLD, "SKIP")).isTrue();
+        assertThat(ScheduleCron.shouldFire(due, due.plus(Duration.ofHours(3)), THRESHOLD, "skip")).isFalse();
+        assertThat(ScheduleCron.shouldFire(due, due.plus(Duration.ofHours(3)), THRESHOLD, null)).isTrue();
+        assertThat(ScheduleCron.shouldFire(due, due.plus(Duration.ofHours(3)), THRESHOLD, "FIRE_ONCE")).isTrue();
+    }
+}
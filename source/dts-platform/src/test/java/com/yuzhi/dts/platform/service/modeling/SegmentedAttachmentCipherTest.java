@@ -0,0 +1,81 @@
+package com.yuzhi.dts.platform.service.modeling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+import javax.crypto.SecretKey;
+import org.junit.jupiter.api.Test;
+
+class SegmentedAttachmentCipherTest {
+
+    private static final int SEGMENT = 4096;
+    private static final SecretKey MASTER = DataStandardCrypto.buildKey(Base64.getEncoder().encodeToString(new byte[32]));
+
+    @Test
+    void roundTripsWholeFileAndRanges() throws IOException {
+        byte[] plain = randomBytes(3 * SEGMENT + 123);
+        SecretKey key = DataStandardCrypto.deriveFileKey(MASTER, DataStandardCrypto.randomSalt());
+        byte[] sealed = encrypt(plain, key);
+
+        assertThat(sealed).hasSize(plain.length + 4 * SegmentedAttachmentCipher.TAG_BYTES);
+        assertThat(decrypt(sealed, key, plain.length, 0, plain.length)).isEqualTo(plain);
+        long offset = SEGMENT - 10;
+        int length = SEGMENT + 20;
+        assertThat(decrypt(sealed, key, plain.length, offset, length))
+            .isEqualTo(Arrays.copyOfRange(plain, (int) offset, (int) offset + length));
+        assertThat(decrypt(sealed, key, plain.length, plain.length - 5, 5))
+            .isEqualTo(Arrays.copyOfRange(plain, plain.length - 5, plain.length));
+    }
+
+    @Test
+    void exactMultipleOfSegmentSizeMarksLastSegment() throws IOException {
+        byte[] plain = randomBytes(2 * SEGMENT);
+        SecretKey key = DataStandardCrypto.deriveFileKey(MASTER, DataStandardCrypto.randomSalt());
+        byte[] sealed = encrypt(plain, key);
+
+        assertThat(sealed).hasSize(plain.length + 2 * SegmentedAttachmentCipher.TAG_BYTES);
+        assertThat(decrypt(sealed, key, plain.length, 0, plain.length)).isEqualTo(plain);
+    }
+
+    @Test
+    void rejectsTamperedOrTruncatedCipherText() throws IOException {
+        byte[] plain = randomBytes(2 * SEGMENT + 1);
+        SecretKey key = DataStandardCrypto.deriveFileKey(MASTER, DataStandardCrypto.randomSalt());
+        byte[] sealed = encrypt(plain, key);
+
+        byte[] tampered = sealed.clone();
+        tampered[SEGMENT + SegmentedAttachmentCipher.TAG_BYTES + 3] ^= 1;
+        assertThatThrownBy(() -> decrypt(tampered, key, plain.length, SEGMENT, SEGMENT)).isInstanceOf(IllegalStateException.class);
+
+        // 截掉末段后把倒数第二段当作末段读取，末段标记不一致应认证失败
+        byte[] truncated = Arrays.copyOf(sealed, 2 * (SEGMENT + SegmentedAttachmentCipher.TAG_BYTES));
+        assertThatThrownBy(() -> decrypt(truncated, key, 2L * SEGMENT, 0, 2L * SEGMENT)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static byte[] encrypt(byte[] plain, SecretKey key) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long size = SegmentedAttachmentCipher.encrypt(new ByteArrayInputStream(plain), out, key, SEGMENT);
+        assertThat(size).isEqualTo(plain.length);
+        return out.toByteArray();
+    }
+
+    private static byte[] decrypt(byte[] sealed, SecretKey key, long plainSize, long offset, long length) throws IOException {
+        ByteArrayInputStream in = new ByteArrayInputStream(sealed);
+        in.skipNBytes(SegmentedAttachmentCipher.cipherOffset(offset, SEGMENT));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SegmentedAttachmentCipher.decryptRange(in, out, key, SEGMENT, plainSize, offset, length);
+        return out.toByteArray();
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] data = new byte[size];
+        new Random(42).nextBytes(data);
+        return data;
+    }
+}
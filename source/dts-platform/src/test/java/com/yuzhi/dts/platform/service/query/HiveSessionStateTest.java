@@ -0,0 +1,42 @@
+package com.yuzhi.dts.platform.service.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.sql.Statement;
+import org.junit.jupiter.api.Test;
+
+class HiveSessionStateTest {
+
+    @Test
+    void databaseIsWrittenIntoUrlPathKeepingSessionParameters() {
+        assertThat(HiveSessionState.withDatabase("jdbc:hive2://h1:10000/default;principal=hive/_HOST@R", "dts"))
+            .isEqualTo("jdbc:hive2://h1:10000/dts;principal=hive/_HOST@R");
+        assertThat(HiveSessionState.withDatabase("jdbc:hive2://zk1:2181,zk2:2181;serviceDiscoveryMode=zooKeeper", "dts"))
+            .isEqualTo("jdbc:hive2://zk1:2181,zk2:2181/dts;serviceDiscoveryMode=zooKeeper");
+        assertThat(HiveSessionState.withDatabase("jdbc:hive2://h1:10000", "dts")).isEqualTo("jdbc:hive2://h1:10000/dts");
+        assertThat(HiveSessionState.withDatabase("jdbc:hive2://h1:10000/x", "odd-name")).isEqualTo("jdbc:hive2://h1:10000/x");
+
+        assertThat(HiveSessionState.databaseOf("jdbc:hive2://h1:10000/dts;auth=kerberos")).isEqualTo("dts");
+        assertThat(HiveSessionState.databaseOf("jdbc:hive2://h1:10000;auth=kerberos")).isEqualTo("default");
+        assertThat(HiveSessionState.databaseOf("not-a-url")).isNull();
+    }
+
+    @Test
+    void useIsIssuedOnlyWhenTargetDiffers() throws Exception {
+        Statement stmt = mock(Statement.class);
+        HiveSessionState session = HiveSessionState.startingIn("DTS");
+
+        assertThat(session.useDatabase(stmt, "dts")).isFalse();
+        verifyNoInteractions(stmt);
+
+        assertThat(session.useDatabase(stmt, "ods")).isTrue();
+        assertThat(session.useDatabase(stmt, "ods")).isFalse();
+        verify(stmt).execute("USE `ods`");
+        assertThat(session.currentDatabase()).isEqualTo("ods");
+
+        assertThat(HiveSessionState.startingIn(null).useDatabase(stmt, "dts")).isTrue();
+    }
+}
@@ -0,0 +1,223 @@
+package com.yuzhi.dts.platform.service.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.yuzhi.dts.platform.config.ExploreProperties;
+import com.yuzhi.dts.platform.service.infra.event.CatalogSynchronizedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class QueryResultCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ExploreProperties.ResultCache properties;
+    private QueryResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ExploreProperties().getResultCache();
+        properties.setEnabled(true);
+        properties.setDirectory(tempDir.toString());
+        properties.setTtl(Duration.ofMinutes(5));
+        cache = new QueryResultCache(properties, meterRegistry, clock);
+        cache.initialize();
+    }
+
+    @Test
+    void secondLookupIsServedFromDiskWithOriginalTypes() {
+        AtomicInteger loads = new AtomicInteger();
+        QueryCacheKey key = key("SELECT * FROM t", "INTERNAL");
+
+        QueryResultCache.CachedResult first = cache.getOrLoad(key, () -> result(loads, 3));
+        QueryResultCache.CachedResult second = cache.getOrLoad(key, () -> result(loads, 3));
+
+        assertThat(first.hit()).isFalse();
+        assertThat(second.hit()).isTrue();
+        assertThat(loads).hasValue(1);
+        assertThat(second.result().get("rows")).isEqualTo(first.result().get("rows"));
+        assertThat(meterRegistry.get("dts.explore.result.cache.requests").tag("result", "hit").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("dts.explore.result.cache.requests").tag("result", "miss").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void entriesAreOwnerOnlyAndNotStoredInPlaintext() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getOrLoad(key("SELECT * FROM t", "INTERNAL"), () -> result(loads, 3));
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(tempDir)) {
+            files = listing.toList();
+        }
+        assertThat(files).singleElement().satisfies(file -> {
+            String raw = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+            assertThat(raw).doesNotContain("name-0").doesNotContain("java.util");
+            if (Files.getFileStore(file).supportsFileAttributeView("posix")) {
+                assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(file))).isEqualTo("rw-------");
+                assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(tempDir))).isEqualTo("rwx------");
+            }
+        });
+    }
+
+    @Test
+    void tamperedEntryIsDroppedAndReloaded() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        QueryCacheKey key = key("SELECT * FROM t", "INTERNAL");
+        cache.getOrLoad(key, () -> result(loads, 3));
+
+        try (Stream<Path> listing = Files.list(tempDir)) {
+            Path file = listing.findFirst().orElseThrow();
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[bytes.length - 1] ^= 0x01;
+            Files.write(file, bytes);
+        }
+
+        assertThat(cache.getOrLoad(key, () -> result(loads, 3)).hit()).isFalse();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void enabledWithoutDirectoryStaysDisabled() {
+        ExploreProperties.ResultCache unset = new ExploreProperties().getResultCache();
+        unset.setEnabled(true);
+        QueryResultCache withoutDirectory = new QueryResultCache(unset, new SimpleMeterRegistry(), clock);
+        withoutDirectory.initialize();
+
+        assertThat(withoutDirectory.isEnabled()).isFalse();
+    }
+
+    @Test
+    void differentSecurityContextsDoNotShareEntries() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getOrLoad(key("SELECT * FROM t", "INTERNAL"), () -> result(loads, 1));
+        QueryResultCache.CachedResult other = cache.getOrLoad(key("SELECT * FROM t", "SECRET"), () -> result(loads, 1));
+
+        assertThat(other.hit()).isFalse();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void normalizedSqlSharesEntry() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getOrLoad(key("SELECT *\n  FROM t;", "INTERNAL"), () -> result(loads, 1));
+        QueryResultCache.CachedResult again = cache.getOrLoad(key("SELECT * FROM t", "INTERNAL"), () -> result(loads, 1));
+
+        assertThat(again.hit()).isTrue();
+        assertThat(QueryCacheKey.normalizeSql("SELECT 'a  b'   FROM t ;")).isEqualTo("SELECT 'a  b' FROM t");
+    }
+
+    @Test
+    void expiredEntriesAreReloaded() {
+        AtomicInteger loads = new AtomicInteger();
+        QueryCacheKey key = key("SELECT 1", "INTERNAL");
+
+        cache.getOrLoad(key, () -> result(loads, 1));
+        clock.advance(Duration.ofMinutes(6));
+        QueryResultCache.CachedResult reloaded = cache.getOrLoad(key, () -> result(loads, 1));
+
+        assertThat(reloaded.hit()).isFalse();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void catalogSyncInvalidatesEverything() {
+        AtomicInteger loads = new AtomicInteger();
+        QueryCacheKey key = key("SELECT 1", "INTERNAL");
+
+        cache.getOrLoad(key, () -> result(loads, 1));
+        cache.onCatalogSynchronized(new CatalogSynchronizedEvent("manual-refresh", "default"));
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.totalBytes()).isZero();
+        assertThat(cache.getOrLoad(key, () -> result(loads, 1)).hit()).isFalse();
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvictedWhenOverBudget() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getOrLoad(key("SELECT 1", "INTERNAL"), () -> result(loads, 200));
+        long entryBytes = cache.totalBytes();
+        properties.setMaxBytes(entryBytes * 2 + entryBytes / 2);
+
+        cache.getOrLoad(key("SELECT 2", "INTERNAL"), () -> result(loads, 200));
+        cache.getOrLoad(key("SELECT 1", "INTERNAL"), () -> result(loads, 200));
+        cache.getOrLoad(key("SELECT 3", "INTERNAL"), () -> result(loads, 200));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.totalBytes()).isLessThanOrEqualTo(properties.getMaxBytes());
+        assertThat(cache.getOrLoad(key("SELECT 1", "INTERNAL"), () -> result(loads, 200)).hit()).isTrue();
+        assertThat(cache.getOrLoad(key("SELECT 2", "INTERNAL"), () -> result(loads, 200)).hit()).isFalse();
+    }
+
+    private QueryCacheKey key(String sql, String level) {
+        return QueryCacheKey.of(sql, "inceptor:test", List.of(level), "D001", List.of("ROLE_USER"), "");
+    }
+
+    private Map<String, Object> result(AtomicInteger loads, int rowCount) {
+        loads.incrementAndGet();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < rowCount; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", i);
+            row.put("amount", new BigDecimal("12.50").add(BigDecimal.valueOf(i)));
+            row.put("name", "name-" + i + "-" + "x".repeat(32));
+            rows.add(row);
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("headers", List.of("id", "amount", "name"));
+        payload.put("rows", rows);
+        payload.put("rowCount", rows.size());
+        return payload;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
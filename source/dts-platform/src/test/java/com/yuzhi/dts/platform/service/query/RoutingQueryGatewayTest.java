@@ -0,0 +1,286 @@
+package com.yuzhi.dts.platform.service.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.yuzhi.dts.platform.config.QueryEngineProperties;
+import com.yuzhi.dts.platform.domain.catalog.CatalogDataset;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RoutingQueryGatewayTest {
+
+    private final QueryEngineProperties properties = new QueryEngineProperties();
+    private RoutingQueryGateway gateway;
+
+    @AfterEach
+    void tearDown() {
+        if (gateway != null) {
+            gateway.shutdown();
+        }
+    }
+
+    @Test
+    void interactiveQueriesPreferTrinoAndBatchQueriesStayOnHive() {
+        StubEngine hive = new StubEngine(QueryEngineType.HIVE);
+        StubEngine trino = new StubEngine(QueryEngineType.TRINO);
+        gateway = new RoutingQueryGateway(List.of(hive, trino), properties);
+
+        assertThat(gateway.execute("SELECT * FROM t", QueryHints.interactive(null))).containsEntry("engine", "TRINO");
+        assertThat(gateway.execute("SELECT a FROM t LIMIT 100")).containsEntry("engine", "TRINO");
+        assertThat(gateway.execute("SELECT a, count(*) FROM t GROUP BY a LIMIT 100")).containsEntry("engine", "HIVE");
+        assertThat(gateway.execute("SELECT * FROM t LIMIT 100000")).containsEntry("engine", "HIVE");
+    }
+
+    @Test
+    void postgresDatasetsRouteToPlatformDatabase() {
+        StubEngine hive = new StubEngine(QueryEngineType.HIVE);
+        StubEngine postgres = new StubEngine(QueryEngineType.POSTGRES);
+        gateway = new RoutingQueryGateway(List.of(hive, postgres), properties);
+        CatalogDataset dataset = new CatalogDataset();
+        dataset.setType("postgres");
+
+        assertThat(gateway.execute("SELECT 1", QueryHints.batch(dataset))).containsEntry("engine", "POSTGRES");
+    }
+
+    @Test
+    void failsOverToNextEngineOnError() {
+        StubEngine trino = new StubEngine(QueryEngineType.TRINO);
+        trino.failure = connectionFailure("coordinator down");
+        StubEngine hive = new StubEngine(QueryEngineType.HIVE);
+        gateway = new RoutingQueryGateway(List.of(hive, trino), properties);
+
+        Map<String, Object> result = gateway.execute("SELECT * FROM t", QueryHints.interactive(null));
+
+        assertThat(result).containsEntry("engine", "HIVE").containsEntry("failoverFrom", List.of("TRINO"));
+    }
+
+    @Test
+    void failureSurfacesWhenFailoverDisabled() {
+        properties.setFailover(false);
+        StubEngine trino = new StubEngine(QueryEngineType.TRINO);
+        trino.failure = connectionFailure("coordinator down");
+        StubEngine hive = new StubEngine(QueryEngineType.HIVE);
+        gateway = new RoutingQueryGateway(List.of(hive, trino), properties);
+
+        assertThatThrownBy(() -> gateway.execute("SELECT * FROM t", QueryHints.interactive(null))).hasMessageContaining("coordinator down");
+        assertThat(hive.calls).hasValue(0);
+    }
+
+    @Test
+    void sqlErrorDoesNotFailOverOrTripTheBreaker() {
+        properties.setFailureThreshold(1);
+        properties.setUnhealthyCooldown(Duration.ofMinutes(1));
+        StubEngine trino = new StubEngine(QueryEngineType.TRINO);
+        trino.failure = new IllegalStateException(
+            "Trino 查询失败: Column 'x' cannot be resolved",
+            new SQLException("Column 'x' cannot be resolved", "42703")
+        );
+        StubEngine hive = new StubEngine(QueryEngineType.HIVE);
+        gateway = new RoutingQueryGateway(List.of(hive, trino), properties);
+
+        assertThatThrownBy(() -> gateway.execute("SELECT x FROM t", QueryHints.interactive(null))).hasMessageContaining("cannot be resolved");
+        assertThat(hive.calls).hasValue(0);
+
+        trino.failure = null;
+        assertThat(gateway.execute("SELECT * FROM t", QueryHints.interactive(null))).containsEntry("engine", "TRINO");
+    }
+
+    @Test
+    void nonPostgresDatasetsNeverFallBackToPlatformDatabase() {
+        StubEngine hive = new StubEngine(QueryEngineType.HIVE);
+        hive.failure = connectionFailure("HiveServer2 down");
+        StubEngine postgres = new StubEngine(QueryEngineType.POSTGRES);
+        gateway = new RoutingQueryGateway(List.of(hive, postgres), properties);
+        CatalogDataset dataset = new CatalogDataset();
+        dataset.setType("INCEPTOR");
+
+        assertThatThrownBy(() -> gateway.execute("SELECT a, count(*) FROM t GROUP BY a", QueryHints.batch(dataset))).hasMessageContaining(
+            "HiveServer2 down"
+        );
+        assertThat(postgres.calls).hasValue(0);
+    }
+
+    @Test
+    void queriesWithoutDatasetFallBackToPlatformDatabaseWhenNoClusterIsAvailable() {
+        StubEngine hive = new StubEngine(QueryEngineType.HIVE);
+        hive.available = false;
+        StubEngine postgres = new StubEngine(QueryEngineType.POSTGRES);
+        gateway = new RoutingQueryGateway(List.of(hive, postgres), properties);
+
+        assertThat(gateway.execute("SELECT 1")).containsEntry("engine", "POSTGRES");
+
+        postgres.available = false;
+        assertThatThrownBy(() -> gateway.execute("SELECT 1")).hasMessageContaining("可用的数据源");
+    }
+
+    @Test
+    void unhealthyEngineIsTriedLast() {
+        properties.setFailureThreshold(1);
+        properties.setUnhealthyCooldown(Duration.ofMinutes(1));
+        StubEngine trino = new StubEngine(QueryEngineType.TRINO);
+        trino.failure = connectionFailure("boom");
+        StubEngine hive = new StubEngine(QueryEngineType.HIVE);
+        gateway = new RoutingQueryGateway(List.of(hive, trino), properties);
+
+        gateway.execute("SELECT * FROM t", QueryHints.interactive(null));
+        trino.failure = null;
+        Map<String, Object> result = gateway.execute("SELECT * FROM t", QueryHints.interactive(null));
+
+        assertThat(result).containsEntry("engine", "HIVE");
+        assertThat(trino.calls).hasValue(1);
+    }
+
+    @Test
+    void saturatedEngineSpillsOverToNextCandidate() throws Exception {
+        properties.getTrino().setMaxConcurrent(1);
+        properties.getTrino().setQueueCapacity(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StubEngine trino = new StubEngine(QueryEngineType.TRINO);
+        trino.gate = release;
+        StubEngine hive = new StubEngine(QueryEngineType.HIVE);
+        gateway = new RoutingQueryGateway(List.of(hive, trino), properties);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> gateway.execute("SELECT 1", QueryHints.interactive(null)));
+            callers.submit(() -> gateway.execute("SELECT 2", QueryHints.interactive(null)));
+            waitUntil(() -> trino.calls.get() == 1);
+            Thread.sleep(50);
+
+            Map<String, Object> result = gateway.execute("SELECT 3", QueryHints.interactive(null));
+
+            assertThat(result).containsEntry("engine", "HIVE");
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            callers.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void noAvailableEngineIsReported() {
+        StubEngine hive = new StubEngine(QueryEngineType.HIVE);
+        hive.available = false;
+        gateway = new RoutingQueryGateway(List.of(hive), properties);
+
+        assertThatThrownBy(() -> gateway.execute("SELECT 1")).isInstanceOf(IllegalStateException.class).hasMessageContaining("可用的数据源");
+    }
+
+    @Test
+    void hiveIdentifiersAreTranslatedForTrino() {
+        assertThat(TrinoQueryEngine.toTrinoDialect("SELECT `a` FROM `db`.`t` WHERE x = '`lit`'")).isEqualTo(
+            "SELECT \"a\" FROM \"db\".\"t\" WHERE x = '`lit`'"
+        );
+    }
+
+    @Test
+    void streamsArePlannedAsBatchAndFailOverOnlyOnInfrastructureErrors() {
+        StubEngine trino = new StubEngine(QueryEngineType.TRINO);
+        StubEngine hive = new StubEngine(QueryEngineType.HIVE);
+        gateway = new RoutingQueryGateway(List.of(hive, trino), properties);
+        List<String> headers = new ArrayList<>();
+        QueryRowSink sink = new QueryRowSink() {
+            @Override
+            public void open(List<String> columns) {
+                headers.addAll(columns);
+            }
+
+            @Override
+            public boolean row(Object[] values) {
+                return true;
+            }
+        };
+
+        hive.failure = connectionFailure("HiveServer2 down");
+        assertThat(gateway.stream("SELECT * FROM t", QueryHints.interactive(null), 100, 0, sink)).isZero();
+        assertThat(hive.calls).hasValue(1);
+        assertThat(trino.calls).hasValue(1);
+        assertThat(trino.lastHints.interactive()).isFalse();
+        assertThat(headers).containsExactly("c");
+
+        hive.failure = new IllegalStateException("Hive 查询失败", new SQLException("Table not found 't'", "42S02"));
+        assertThatThrownBy(() -> gateway.stream("SELECT * FROM t", QueryHints.batch(null), 100, 0, sink)).hasMessageContaining(
+            "Hive 查询失败"
+        );
+        assertThat(trino.calls).hasValue(1);
+    }
+
+    private static RuntimeException connectionFailure(String message) {
+        return new IllegalStateException("查询失败: " + message, new SQLTransientConnectionException(message, "08001"));
+    }
+
+    private static void waitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static final class StubEngine implements QueryEngine {
+
+        private final QueryEngineType type;
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile boolean available = true;
+        private volatile RuntimeException failure;
+        private volatile CountDownLatch gate;
+        private volatile QueryHints lastHints;
+
+        StubEngine(QueryEngineType type) {
+            this.type = type;
+        }
+
+        @Override
+        public QueryEngineType type() {
+            return type;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return available;
+        }
+
+        @Override
+        public Map<String, Object> execute(String effectiveSql, QueryHints hints) {
+            calls.incrementAndGet();
+            if (gate != null) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return Map.of("headers", List.of("c"), "rows", List.of(), "effectiveSql", effectiveSql);
+        }
+
+        @Override
+        public long stream(String effectiveSql, QueryHints hints, int fetchSize, long maxRows, QueryRowSink sink) {
+            calls.incrementAndGet();
+            lastHints = hints;
+            if (failure != null) {
+                throw failure;
+            }
+            try {
+                sink.open(List.of("c"));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return 0;
+        }
+    }
+}
@@ -4,9 +4,16 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.when;
 
+import com.yuzhi.dts.common.observability.OperationMetrics;
+import com.yuzhi.dts.common.observability.SlowOperationJournal;
 import com.yuzhi.dts.platform.domain.catalog.CatalogDataset;
+import com.yuzhi.dts.platform.domain.catalog.CatalogRowFilterRule;
+import com.yuzhi.dts.platform.repository.catalog.CatalogRowFilterRuleRepository;
 import com.yuzhi.dts.platform.security.policy.DataLevel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,12 +31,16 @@ class SecuritySqlRewriterTest {
     @Mock
     private DatasetSecurityMetadataResolver metadataResolver;
 
+    @Mock
+    private CatalogRowFilterRuleRepository rowFilterRuleRepository;
+
     private SecuritySqlRewriter rewriter;
 
     @BeforeEach
     void setUp() {
-        DatasetSqlBuilder datasetSqlBuilder = new DatasetSqlBuilder(accessChecker, metadataResolver);
-        rewriter = new SecuritySqlRewriter(accessChecker, metadataResolver, datasetSqlBuilder);
+        DatasetSqlBuilder datasetSqlBuilder = new DatasetSqlBuilder(accessChecker, metadataResolver, rowFilterRuleRepository);
+        OperationMetrics metrics = new OperationMetrics(new SimpleMeterRegistry(), new SlowOperationJournal(10, Duration.ofSeconds(1)));
+        rewriter = new SecuritySqlRewriter(accessChecker, metadataResolver, datasetSqlBuilder, metrics);
     }
 
     @Test
@@ -101,4 +112,132 @@ class SecuritySqlRewriterTest {
 
         assertThat(rewritten).isEqualTo("SELECT id FROM ods_orders");
     }
+
+    @Test
+    void guardShouldApplyLimitAfterPredicate() {
+        CatalogDataset dataset = new CatalogDataset();
+        dataset.setId(UUID.fromString("11111111-2222-3333-4444-555555555555"));
+        dataset.setHiveTable("ods_orders");
+
+        when(accessChecker.resolveAllowedDataLevels()).thenReturn(List.of(DataLevel.DATA_INTERNAL));
+        when(metadataResolver.findDataLevelColumn(dataset)).thenReturn(Optional.of("data_level"));
+
+        String rewritten = rewriter.guard("SELECT * FROM `ods_orders` LIMIT 100", dataset);
+
+        assertThat(rewritten).startsWith("SELECT * FROM (SELECT * FROM `ods_orders`) ");
+        assertThat(rewritten).endsWith(" LIMIT 100");
+        assertThat(rewritten.indexOf("UPPER(TRIM(")).isLessThan(rewritten.indexOf("LIMIT 100"));
+    }
+
+    @Test
+    void guardShouldKeepLimitInsideWhenOrdered() {
+        CatalogDataset dataset = new CatalogDataset();
+        dataset.setId(UUID.randomUUID());
+        dataset.setHiveTable("ods_orders");
+
+        when(accessChecker.resolveAllowedDataLevels()).thenReturn(List.of(DataLevel.DATA_INTERNAL));
+        when(metadataResolver.findDataLevelColumn(dataset)).thenReturn(Optional.of("data_level"));
+
+        String rewritten = rewriter.guard("SELECT * FROM ods_orders ORDER BY id DESC LIMIT 10", dataset);
+
+        assertThat(rewritten).contains("(SELECT * FROM ods_orders ORDER BY id DESC LIMIT 10)");
+    }
+
+    @Test
+    void guardShouldCombineRowFilterRulesWithDataLevelPredicate() {
+        CatalogDataset dataset = new CatalogDataset();
+        dataset.setId(UUID.randomUUID());
+        dataset.setHiveTable("ods_orders");
+        CatalogRowFilterRule rule = new CatalogRowFilterRule();
+        rule.setExpression("region = 'EAST'");
+
+        when(accessChecker.resolveAllowedDataLevels()).thenReturn(List.of(DataLevel.DATA_INTERNAL));
+        when(metadataResolver.findDataLevelColumn(dataset)).thenReturn(Optional.of("data_level"));
+        when(rowFilterRuleRepository.findByDataset(dataset)).thenReturn(List.of(rule));
+
+        String rewritten = rewriter.guard("SELECT * FROM ods_orders", dataset);
+
+        assertThat(rewritten).contains("(UPPER(TRIM(");
+        assertThat(rewritten).endsWith(" AND (region = 'EAST')");
+    }
+
+    @Test
+    void guardShouldApplyRowFilterWithoutDataLevelColumn() {
+        CatalogDataset dataset = new CatalogDataset();
+        dataset.setId(UUID.randomUUID());
+        dataset.setHiveTable("ods_orders");
+        CatalogRowFilterRule rule = new CatalogRowFilterRule();
+        rule.setExpression("region = 'EAST'");
+
+        when(accessChecker.resolveAllowedDataLevels()).thenReturn(List.of(DataLevel.DATA_INTERNAL));
+        when(metadataResolver.findDataLevelColumn(dataset)).thenReturn(Optional.empty());
+        when(rowFilterRuleRepository.findByDataset(dataset)).thenReturn(List.of(rule));
+
+        String rewritten = rewriter.guard("SELECT id, region FROM ods_orders", dataset);
+
+        assertThat(rewritten).startsWith("SELECT * FROM (SELECT id, region FROM ods_orders) ");
+        assertThat(rewritten).endsWith(" WHERE region = 'EAST'");
+    }
+
+    @Test
+    void guardShouldProjectRowFilterColumnNotSelectedAndStripItFromResult() {
+        CatalogDataset dataset = new CatalogDataset();
+        dataset.setId(UUID.fromString("11111111-2222-3333-4444-555555555555"));
+        dataset.setHiveTable("ods_orders");
+        CatalogRowFilterRule rule = new CatalogRowFilterRule();
+        rule.setExpression("upper(region) = 'EAST' AND status IN ('A', 'B')");
+
+        when(accessChecker.resolveAllowedDataLevels()).thenReturn(List.of(DataLevel.DATA_INTERNAL));
+        when(metadataResolver.findDataLevelColumn(dataset)).thenReturn(Optional.empty());
+        when(metadataResolver.findColumnNames(dataset)).thenReturn(Map.of("id", "id", "name", "name", "region", "region", "status", "status"));
+        when(rowFilterRuleRepository.findByDataset(dataset)).thenReturn(List.of(rule));
+
+        String rewritten = rewriter.guard("SELECT id, name AS customer FROM ods_orders o WHERE id > 10", dataset);
+
+        assertThat(rewritten).contains("(SELECT id, name AS customer, o.`region`, o.`status` FROM ods_orders o WHERE id > 10)");
+        assertThat(rewritten).startsWith("SELECT ods_orders_");
+        assertThat(rewritten).containsPattern("^SELECT (\\w+)\\.`id`, \\1\\.`customer` FROM \\(");
+        assertThat(rewritten).endsWith(" WHERE upper(region) = 'EAST' AND status IN ('A', 'B')");
+    }
+
+    @Test
+    void guardShouldRejectAliasShadowingRowFilterColumn() {
+        CatalogDataset dataset = new CatalogDataset();
+        dataset.setId(UUID.randomUUID());
+        dataset.setHiveTable("ods_orders");
+        CatalogRowFilterRule rule = new CatalogRowFilterRule();
+        rule.setExpression("region = 'EAST'");
+
+        when(accessChecker.resolveAllowedDataLevels()).thenReturn(List.of(DataLevel.DATA_INTERNAL));
+        when(metadataResolver.findDataLevelColumn(dataset)).thenReturn(Optional.empty());
+        when(rowFilterRuleRepository.findByDataset(dataset)).thenReturn(List.of(rule));
+
+        assertThatThrownBy(() -> rewriter.guard("SELECT id, name AS region FROM ods_orders", dataset))
+            .isInstanceOf(SecurityGuardException.class)
+            .hasMessageContaining("region");
+    }
+
+    @Test
+    void guardShouldRequalifyRowFilterColumnsWithSubqueryAlias() {
+        CatalogDataset dataset = new CatalogDataset();
+        dataset.setId(UUID.fromString("11111111-2222-3333-4444-555555555555"));
+        dataset.setHiveTable("ods_orders");
+        CatalogRowFilterRule rule = new CatalogRowFilterRule();
+        rule.setExpression("t.dept_code = 'D01' AND dw.t.`region` <> 'x.y' AND udf.mask(t.status) IS NOT NULL AND amount > 1.5");
+
+        when(accessChecker.resolveAllowedDataLevels()).thenReturn(List.of(DataLevel.DATA_INTERNAL));
+        when(metadataResolver.findDataLevelColumn(dataset)).thenReturn(Optional.empty());
+        when(metadataResolver.findColumnNames(dataset)).thenReturn(
+            Map.of("id", "id", "dept_code", "dept_code", "region", "region", "status", "status", "amount", "amount")
+        );
+        when(rowFilterRuleRepository.findByDataset(dataset)).thenReturn(List.of(rule));
+
+        String rewritten = rewriter.guard("SELECT t.id FROM ods_orders t", dataset);
+
+        assertThat(rewritten).contains("(SELECT t.id, t.`dept_code`, t.`region`, t.`status`, t.`amount` FROM ods_orders t)");
+        assertThat(rewritten).containsPattern(
+            "^SELECT (\\w+)\\.`id` FROM \\(.*\\) \\1 WHERE \\1\\.dept_code = 'D01' AND \\1\\.`region` <> 'x\\.y' " +
+            "AND udf\\.mask\\(\\1\\.status\\) IS NOT NULL AND amount > 1\\.5$"
+        );
+    }
 }
@@ -0,0 +1,179 @@
+package com.yuzhi.dts.platform.service.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yuzhi.dts.platform.domain.catalog.CatalogColumnSchema;
+import com.yuzhi.dts.platform.domain.catalog.CatalogDataset;
+import com.yuzhi.dts.platform.domain.catalog.CatalogTableSchema;
+import com.yuzhi.dts.platform.repository.catalog.CatalogColumnSchemaRepository;
+import com.yuzhi.dts.platform.repository.catalog.CatalogDatasetRepository;
+import com.yuzhi.dts.platform.repository.catalog.CatalogDatasetRepository.DatasetStamp;
+import com.yuzhi.dts.platform.repository.catalog.CatalogTableSchemaRepository;
+import com.yuzhi.dts.platform.service.infra.event.CatalogSynchronizedEvent;
+import com.yuzhi.dts.platform.service.security.AccessChecker;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SqlCatalogIndexTest {
+
+    @Mock
+    private CatalogDatasetRepository datasetRepository;
+
+    @Mock
+    private CatalogTableSchemaRepository tableRepository;
+
+    @Mock
+    private CatalogColumnSchemaRepository columnRepository;
+
+    @Mock
+    private AccessChecker accessChecker;
+
+    private final List<CatalogDataset> datasets = new ArrayList<>();
+    private SqlCatalogIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SqlCatalogIndex(datasetRepository, tableRepository, columnRepository, accessChecker, new ConcurrentMapCacheManager());
+        when(accessChecker.readContextFingerprint()).thenReturn("P=GENERAL;C=SECRET");
+        when(accessChecker.canRead(any())).thenAnswer(inv -> !"CONFIDENTIAL".equals(((CatalogDataset) inv.getArgument(0)).getClassification()));
+        when(datasetRepository.findAll()).thenAnswer(inv -> new ArrayList<>(datasets));
+        when(datasetRepository.findStamp()).thenAnswer(inv -> stamp());
+        when(datasetRepository.findAllById(anyCollection())).thenAnswer(inv -> {
+            Collection<?> ids = inv.getArgument(0);
+            return datasets.stream().filter(ds -> ids.contains(ds.getId())).toList();
+        });
+        when(datasetRepository.findByLastModifiedDateGreaterThanEqual(any())).thenAnswer(inv -> {
+            Instant since = inv.getArgument(0);
+            return datasets.stream().filter(ds -> !ds.getLastModifiedDate().isBefore(since)).toList();
+        });
+        when(datasetRepository.findAllIds()).thenAnswer(inv -> datasets.stream().map(CatalogDataset::getId).toList());
+    }
+
+    @Test
+    void readableDatasetsAreFilteredPerSecurityContextAndReused() {
+        dataset("orders", "INTERNAL", 1);
+        dataset("salary", "CONFIDENTIAL", 2);
+
+        assertThat(index.readableDatasets()).extracting(SqlCatalogIndex.DatasetEntry::name).containsExactly("orders");
+        assertThat(index.readableDatasets()).hasSize(1);
+
+        verify(datasetRepository, times(1)).findAll();
+        verify(accessChecker, times(2)).canRead(any());
+    }
+
+    @Test
+    void modifiedDatasetIsRefreshedIncrementallyAndReevaluated() {
+        CatalogDataset orders = dataset("orders", "INTERNAL", 1);
+        dataset("salary", "CONFIDENTIAL", 2);
+        index.readableDatasets();
+
+        orders.setClassification("CONFIDENTIAL");
+        orders.setLastModifiedDate(Instant.ofEpochSecond(10));
+
+        assertThat(index.readableDatasets()).isEmpty();
+        verify(datasetRepository, times(1)).findAll();
+        verify(accessChecker, times(3)).canRead(any());
+    }
+
+    @Test
+    void deletedDatasetDisappearsFromSnapshot() {
+        dataset("orders", "INTERNAL", 1);
+        CatalogDataset stale = dataset("stale", "INTERNAL", 2);
+        assertThat(index.readableDatasets()).hasSize(2);
+
+        datasets.remove(stale);
+
+        assertThat(index.readableDatasets()).extracting(SqlCatalogIndex.DatasetEntry::name).containsExactly("orders");
+        assertThat(index.canRead(stale.getId())).isFalse();
+    }
+
+    @Test
+    void syncEvictsOnlyChangedDatasets() {
+        CatalogDataset orders = dataset("orders", "INTERNAL", 1);
+        CatalogDataset users = dataset("users", "INTERNAL", 2);
+        CatalogTableSchema ordersTable = table(orders, "orders");
+        CatalogTableSchema usersTable = table(users, "users");
+        when(tableRepository.findByDatasetId(orders.getId())).thenReturn(List.of(ordersTable));
+        when(tableRepository.findByDatasetId(users.getId())).thenReturn(List.of(usersTable));
+        when(columnRepository.findByTableId(ordersTable.getId())).thenReturn(List.of(column(ordersTable, "id")));
+        when(columnRepository.findByTableId(usersTable.getId())).thenReturn(List.of(column(usersTable, "id")));
+
+        index.columns(index.tables(orders.getId()).get(0).id());
+        index.columns(index.tables(users.getId()).get(0).id());
+
+        index.onCatalogSynchronized(new CatalogSynchronizedEvent("sync", "default", Set.of(orders.getId())));
+        index.columns(index.tables(orders.getId()).get(0).id());
+        index.columns(index.tables(users.getId()).get(0).id());
+
+        verify(tableRepository, times(2)).findByDatasetId(orders.getId());
+        verify(tableRepository, times(1)).findByDatasetId(users.getId());
+        verify(columnRepository, times(2)).findByTableId(ordersTable.getId());
+        verify(columnRepository, times(1)).findByTableId(usersTable.getId());
+        verify(datasetRepository, never()).findAllIds();
+    }
+
+    private DatasetStamp stamp() {
+        Instant latest = datasets.stream().map(CatalogDataset::getLastModifiedDate).max(Instant::compareTo).orElse(null);
+        long total = datasets.size();
+        return new DatasetStamp() {
+            @Override
+            public long getTotal() {
+                return total;
+            }
+
+            @Override
+            public Instant getLastModified() {
+                return latest;
+            }
+        };
+    }
+
+    private CatalogDataset dataset(String name, String classification, long modifiedSecond) {
+        CatalogDataset dataset = new CatalogDataset();
+        dataset.setId(UUID.randomUUID());
+        dataset.setName(name);
+        dataset.setType("hive");
+        dataset.setHiveDatabase("default");
+        dataset.setClassification(classification);
+        dataset.setLastModifiedDate(Instant.ofEpochSecond(modifiedSecond));
+        datasets.add(dataset);
+        return dataset;
+    }
+
+    private CatalogTableSchema table(CatalogDataset dataset, String name) {
+        CatalogTableSchema table = new CatalogTableSchema();
+        table.setId(UUID.randomUUID());
+        table.setDataset(dataset);
+        table.setName(name);
+        return table;
+    }
+
+    private CatalogColumnSchema column(CatalogTableSchema table, String name) {
+        CatalogColumnSchema column = new CatalogColumnSchema();
+        column.setId(UUID.randomUUID());
+        column.setTable(table);
+        column.setName(name);
+        column.setDataType("string");
+        return column;
+    }
+}